@@ -1,5 +1,7 @@
 package org.sagebionetworks.ids;
 
+import java.util.List;
+
 /**
  * 
  * @author jmhill
@@ -13,6 +15,16 @@ public interface IdGenerator {
 	 */
 	public Long generateNewId(IdType type);
 	
+	/**
+	 * Generate a batch of new Ids with a single call. The Ids are unique but
+	 * not necessarily consecutive.
+	 * 
+	 * @param type
+	 * @param count The number of Ids to generate.
+	 * @return The new Ids in ascending order.
+	 */
+	public List<Long> generateNewIds(IdType type, int count);
+	
 	/**
 	 * Ensure that the given ID is reserved.  If the ID is not already reserved then, 
 	 * this method will reserve it and all values below it.
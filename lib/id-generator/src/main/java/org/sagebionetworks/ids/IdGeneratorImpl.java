@@ -3,6 +3,9 @@ package org.sagebionetworks.ids;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.sql.DataSource;
 
@@ -53,6 +56,23 @@ public class IdGeneratorImpl implements IdGenerator, InitializingBean{
 		return idGeneratorJdbcTemplate.queryForObject("CALL generateNewId(?)", Long.class, type.name());
 	}
 	
+	/**
+	 * Note: This is a call to a separate database and does not participate in the
+	 * caller's transaction. Do not add transaction annotations to this method.
+	 */
+	@Override
+	public List<Long> generateNewIds(IdType type, int count) {
+		if (type == null) {
+			throw new IllegalArgumentException("Type cannot be null");
+		}
+		if (count < 1) {
+			throw new IllegalArgumentException("Count must be at least one");
+		}
+		// The Ids are not necessarily consecutive, the procedure returns each of them as a comma separated list.
+		String newIds = idGeneratorJdbcTemplate.queryForObject("CALL generateNewIds(?,?)", String.class, type.name(), count);
+		return Arrays.stream(newIds.split(",")).map(Long::valueOf).collect(Collectors.toList());
+	}
+	
 	/**
 	 * Note: This is a call to a separate database and does not participate in the
 	 * caller's transaction. Do not add transaction annotations to this method.
@@ -93,6 +113,7 @@ public class IdGeneratorImpl implements IdGenerator, InitializingBean{
 		if(!con.getAutoCommit()) throw new RuntimeException("The connections from this datasources should be set to auto-commit");
 		
 		createStoredProcedure("generateNewId.ddl.sql");
+		createStoredProcedure("generateNewIds.ddl.sql");
 		createStoredProcedure("reserveId.ddl.sql");
 		
 		// Make sure we have a table for each type
@@ -0,0 +1,30 @@
+CREATE PROCEDURE generateNewIds(IN typeName VARCHAR(256), IN idCount INT)
+    MODIFIES SQL DATA
+    SQL SECURITY INVOKER
+BEGIN
+	DECLARE i INT DEFAULT 0;
+	DECLARE newIds LONGTEXT DEFAULT NULL;
+
+	SET SESSION TRANSACTION ISOLATION LEVEL READ COMMITTED;
+
+	/*
+	With innodb_autoinc_lock_mode=2 the AUTO_INCREMENT values of a multi-row insert
+	can be interleaved with the values of concurrent inserts, so they are not
+	guaranteed to be consecutive. Each id is therefore allocated by its own single-row
+	insert and read back with LAST_INSERT_ID(). The inserts share a transaction so the
+	batch is committed once. See generateNewId for why a stored procedure is used.
+	*/
+	SET @sql_text:=CONCAT('INSERT INTO ',typeName,' (CREATED_ON) VALUES (NOW())');
+	PREPARE stmt from @sql_text;
+	START TRANSACTION;
+	WHILE i < idCount DO
+		EXECUTE stmt;
+		SET newIds = CONCAT_WS(',', newIds, LAST_INSERT_ID());
+		SET i = i + 1;
+	END WHILE;
+	COMMIT;
+    DEALLOCATE PREPARE stmt;
+	
+	SELECT newIds as NEW_IDS;
+	
+END
\ No newline at end of file
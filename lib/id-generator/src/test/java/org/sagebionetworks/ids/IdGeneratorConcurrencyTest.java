@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -78,4 +79,42 @@ public class IdGeneratorConcurrencyTest {
 		assertEquals(numberOfThreads*numberIds, count.get(), "Did not get the expceted count of insertions");
 		assertEquals(numberOfThreads*numberIds, sharedIdSet.size(), "Did not get the expceted count of unique IDs");
 	}
+	
+	@Test
+	public void testConcurrentBatches() throws InterruptedException{
+		// All threads will store the returned ids here.
+		final Set<Long> sharedIdSet = Collections.synchronizedSet(new HashSet<Long>());
+		final int numberBatches = 50;
+		final int batchSize = 10;
+		final AtomicInteger count = new AtomicInteger(0);
+		// Half of the threads generate batches while the others generate single ids
+		Thread[] threads = new Thread[numberOfThreads * 2];
+		for(int i=0; i< threads.length; i++){
+			final boolean batches = i % 2 == 0;
+			threads[i] = new Thread(() -> {
+				try {
+					for(int j=0; j<numberBatches; j++){
+						List<Long> ids = batches ? idGenerator.generateNewIds(IdType.CHANGE_ID, batchSize)
+								: Collections.singletonList(idGenerator.generateNewId(IdType.CHANGE_ID));
+						for (Long id : ids) {
+							assertTrue(sharedIdSet.add(id),"Duplicate ID found!");
+							count.incrementAndGet();
+						}
+						Thread.yield();
+					}
+				} catch (Throwable t) {
+					t.printStackTrace();
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join(TIME_OUT);
+		}
+		int expected = numberOfThreads * numberBatches * (batchSize + 1);
+		assertEquals(expected, count.get(), "Did not get the expceted count of insertions");
+		assertEquals(expected, sharedIdSet.size(), "Did not get the expceted count of unique IDs");
+	}
 }
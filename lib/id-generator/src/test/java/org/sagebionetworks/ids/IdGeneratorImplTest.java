@@ -2,9 +2,12 @@ package org.sagebionetworks.ids;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -36,6 +39,37 @@ public class IdGeneratorImplTest {
 		}
 	}
 	
+	@Test
+	public void testNewIds(){
+		Long before = idGenerator.generateNewId(IdType.CHANGE_ID);
+		// call under test
+		List<Long> ids = idGenerator.generateNewIds(IdType.CHANGE_ID, 5);
+		assertEquals(5, ids.size());
+		// The Ids are ascending but not necessarily consecutive
+		long previous = before;
+		for (Long id : ids) {
+			assertTrue(id > previous);
+			previous = id;
+		}
+		assertTrue(idGenerator.generateNewId(IdType.CHANGE_ID) > ids.get(4));
+	}
+	
+	@Test
+	public void testNewIdsWithSingleId(){
+		Long before = idGenerator.generateNewId(IdType.CHANGE_ID);
+		// call under test
+		List<Long> ids = idGenerator.generateNewIds(IdType.CHANGE_ID, 1);
+		assertEquals(Collections.singletonList(before + 1), ids);
+	}
+	
+	@Test
+	public void testNewIdsWithZeroCount(){
+		assertThrows(IllegalArgumentException.class, ()->{
+			// call under test
+			idGenerator.generateNewIds(IdType.CHANGE_ID, 0);
+		});
+	}
+	
 	@Test
 	public void testReserveId(){
 		// Start with the current ID.
@@ -12,6 +12,7 @@ import org.sagebionetworks.evaluation.model.SubmissionStatusEnum;
 import org.sagebionetworks.repo.model.ACCESS_TYPE;
 import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.table.ObjectDataDTO;
 import org.sagebionetworks.repo.web.NotFoundException;
 
@@ -228,4 +229,33 @@ public interface SubmissionDAO {
 	 */
 	public List<IdAndChecksum> getIdAndChecksumsPage(Long salt, Set<Long> parentIds, Long limit,
 			Long offset);
+	
+	/**
+	 * Get a single page of IdAndChecksums for the submissions of the given
+	 * evaluations with an ID within the given range (inclusive).
+	 * 
+	 * @param salt
+	 * @param parentIds
+	 * @param minId
+	 * @param maxId
+	 * @param limit
+	 * @param offset
+	 * @return
+	 */
+	public List<IdAndChecksum> getIdAndChecksumsPage(Long salt, Set<Long> parentIds, Long minId, Long maxId, Long limit,
+			Long offset);
+	
+	/**
+	 * Get the aggregated checksum of the submissions of the given evaluations with
+	 * an ID within the given range (inclusive). Submissions are grouped in buckets
+	 * of bucketSize IDs starting from minId, only non-empty buckets are returned.
+	 * 
+	 * @param salt
+	 * @param parentIds
+	 * @param minId
+	 * @param maxId
+	 * @param bucketSize
+	 * @return
+	 */
+	public List<IdRangeChecksum> getIdRangeChecksums(Long salt, Set<Long> parentIds, Long minId, Long maxId, Long bucketSize);
 }
\ No newline at end of file
@@ -70,6 +70,7 @@ import org.sagebionetworks.ids.IdType;
 import org.sagebionetworks.repo.model.ACCESS_TYPE;
 import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.annotation.v2.Annotations;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsV2Utils;
@@ -96,6 +97,12 @@ public class SubmissionDAOImpl implements SubmissionDAO {
 
 	public static final String GET_ID_AND_CHECKSUM_FOR_CHILDREN = DDLUtilsImpl
 			.loadSQLFromClasspath("sql/evaluation/GetIdAndChecksumParentId.sql");
+	
+	public static final String GET_ID_AND_CHECKSUM_FOR_CHILDREN_IN_RANGE = DDLUtilsImpl
+			.loadSQLFromClasspath("sql/evaluation/GetIdAndChecksumParentIdInRange.sql");
+	
+	public static final String GET_ID_RANGE_CHECKSUM_FOR_CHILDREN = DDLUtilsImpl
+			.loadSQLFromClasspath("sql/evaluation/GetIdRangeChecksumParentId.sql");
 
 	@Autowired
 	private DBOBasicDao basicDao;
@@ -895,4 +902,51 @@ public class SubmissionDAOImpl implements SubmissionDAO {
 		});
 	}
 
+	@Override
+	public List<IdAndChecksum> getIdAndChecksumsPage(Long salt, Set<Long> parentIds, Long minId, Long maxId, Long limit,
+			Long offset) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(parentIds, "parentIds");
+		ValidateArgument.required(minId, "minId");
+		ValidateArgument.required(maxId, "maxId");
+		ValidateArgument.required(limit, "limit");
+		ValidateArgument.required(offset, "offset");
+		if(parentIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		params.addValue("salt", salt);
+		params.addValue("evaluationIds", parentIds);
+		params.addValue("minId", minId);
+		params.addValue("maxId", maxId);
+		params.addValue("limit", limit);
+		params.addValue("offset", offset);
+		return namedJdbcTemplate.query(GET_ID_AND_CHECKSUM_FOR_CHILDREN_IN_RANGE, params, (ResultSet rs, int rowNum) -> {
+			return new IdAndChecksum().withId(rs.getLong("ID")).withChecksum(rs.getLong("CHECK_SUM"));
+		});
+	}
+
+	@Override
+	public List<IdRangeChecksum> getIdRangeChecksums(Long salt, Set<Long> parentIds, Long minId, Long maxId, Long bucketSize) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(parentIds, "parentIds");
+		ValidateArgument.required(minId, "minId");
+		ValidateArgument.required(maxId, "maxId");
+		ValidateArgument.required(bucketSize, "bucketSize");
+		ValidateArgument.requirement(bucketSize > 0, "bucketSize must be greater than zero.");
+		if(parentIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		params.addValue("salt", salt);
+		params.addValue("evaluationIds", parentIds);
+		params.addValue("minId", minId);
+		params.addValue("maxId", maxId);
+		params.addValue("bucketSize", bucketSize);
+		return namedJdbcTemplate.query(GET_ID_RANGE_CHECKSUM_FOR_CHILDREN, params, (ResultSet rs, int rowNum) -> {
+			return new IdRangeChecksum().withBucket(rs.getLong("BUCKET")).withMinId(rs.getLong("MIN_ID")).withMaxId(rs.getLong("MAX_ID"))
+					.withCount(rs.getLong("ID_COUNT")).withChecksum(rs.getLong("CHECK_SUM"));
+		});
+	}
+
 }
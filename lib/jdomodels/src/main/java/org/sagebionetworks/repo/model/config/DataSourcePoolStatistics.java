@@ -0,0 +1,75 @@
+package org.sagebionetworks.repo.model.config;
+
+import java.util.Objects;
+
+/**
+ * Snapshot of the usage of one of the connection pools of the repository
+ * database.
+ *
+ */
+public class DataSourcePoolStatistics {
+
+	private final ReadReplicaRoutingDataSource.DataSourceType type;
+	private final int activeConnections;
+	private final int idleConnections;
+	private final int maxConnections;
+	private final long routedConnections;
+
+	public DataSourcePoolStatistics(ReadReplicaRoutingDataSource.DataSourceType type, int activeConnections, int idleConnections,
+			int maxConnections, long routedConnections) {
+		this.type = type;
+		this.activeConnections = activeConnections;
+		this.idleConnections = idleConnections;
+		this.maxConnections = maxConnections;
+		this.routedConnections = routedConnections;
+	}
+
+	public ReadReplicaRoutingDataSource.DataSourceType getType() {
+		return type;
+	}
+
+	public int getActiveConnections() {
+		return activeConnections;
+	}
+
+	public int getIdleConnections() {
+		return idleConnections;
+	}
+
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	/**
+	 * @return The number of connections routed to this pool since the previous
+	 *         snapshot.
+	 */
+	public long getRoutedConnections() {
+		return routedConnections;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(activeConnections, idleConnections, maxConnections, routedConnections, type);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DataSourcePoolStatistics)) {
+			return false;
+		}
+		DataSourcePoolStatistics other = (DataSourcePoolStatistics) obj;
+		return activeConnections == other.activeConnections && idleConnections == other.idleConnections
+				&& maxConnections == other.maxConnections && routedConnections == other.routedConnections && type == other.type;
+	}
+
+	@Override
+	public String toString() {
+		return "DataSourcePoolStatistics [type=" + type + ", activeConnections=" + activeConnections + ", idleConnections="
+				+ idleConnections + ", maxConnections=" + maxConnections + ", routedConnections=" + routedConnections + "]";
+	}
+
+}
@@ -0,0 +1,26 @@
+package org.sagebionetworks.repo.model.config;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Provides the usage of the connection pools of the repository database.
+ *
+ */
+public interface DataSourcePoolStatisticsProvider {
+
+	/**
+	 * Snapshot of the statistics of each connection pool, the number of routed
+	 * connections is reset with each call.
+	 * 
+	 * @return
+	 */
+	List<DataSourcePoolStatistics> getPoolStatistics();
+
+	/**
+	 * @return The replication lag of the replica, empty if there is no replica or
+	 *         the lag is unknown.
+	 */
+	Optional<Long> getReplicaLagMS();
+
+}
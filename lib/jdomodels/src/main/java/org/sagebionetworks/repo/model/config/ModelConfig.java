@@ -8,12 +8,14 @@ import org.apache.commons.dbcp2.BasicDataSource;
 import org.sagebionetworks.StackConfiguration;
 import org.sagebionetworks.database.semaphore.CountingSemaphore;
 import org.sagebionetworks.database.semaphore.CountingSemaphoreImpl;
+import org.sagebionetworks.util.Clock;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
@@ -43,10 +45,48 @@ public class ModelConfig {
 	 * @return
 	 */
 	@Bean(destroyMethod = "close")
-	public DataSource dataSourcePool(StackConfiguration stackConfiguration) {
+	public BasicDataSource dataSourcePool(StackConfiguration stackConfiguration) {
 		return configureRepoDataSource(new BasicDataSource(), stackConfiguration);
 	}
 
+	/**
+	 * Routes read-only transactions to the read replica of the repo database when
+	 * one is configured, everything else goes to the {@link #dataSourcePool}
+	 * 
+	 * @param dataSourcePool
+	 * @param stackConfiguration
+	 * @param clock
+	 * @return
+	 */
+	@Bean(destroyMethod = "close")
+	public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(BasicDataSource dataSourcePool, StackConfiguration stackConfiguration,
+			Clock clock) {
+		long maxLagMS = stackConfiguration.getRepositoryDatabaseReplicaMaxLagMS();
+		String replicaUrl = stackConfiguration.getRepositoryDatabaseReplicaConnectionUrl();
+		if (replicaUrl == null) {
+			return new ReadReplicaRoutingDataSource(dataSourcePool, null, null, clock, maxLagMS);
+		}
+		BasicDataSource replica = configureRepoDataSource(new BasicDataSource(), stackConfiguration);
+		replica.setUrl(replicaUrl);
+		replica.setDefaultReadOnly(true);
+		ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(new JdbcTemplate(replica), maxLagMS);
+		return new ReadReplicaRoutingDataSource(dataSourcePool, replica, lagMonitor, clock, maxLagMS);
+	}
+
+	/**
+	 * The data source used by the default transaction manager and templates. The
+	 * connection is fetched on the first statement, once the transaction started,
+	 * so that the {@link ReadReplicaRoutingDataSource} knows if the transaction is
+	 * read-only.
+	 * 
+	 * @param readReplicaRoutingDataSource
+	 * @return
+	 */
+	@Bean
+	public DataSource routingDataSourcePool(DataSource readReplicaRoutingDataSource) {
+		return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+	}
+
 	/**
 	 * Special repo data source that enabled rewriting batched statements increasing the throughput of
 	 * inserts, this is used my migration when restoring data
@@ -64,8 +104,8 @@ public class ModelConfig {
 	@Bean
 	// Primary transaction manager used by the database semaphore
 	@Primary
-	public PlatformTransactionManager txManager(DataSource dataSourcePool) {
-		return new DataSourceTransactionManager(dataSourcePool);
+	public PlatformTransactionManager txManager(DataSource routingDataSourcePool) {
+		return new DataSourceTransactionManager(routingDataSourcePool);
 	}
 
 	@Bean
@@ -74,8 +114,8 @@ public class ModelConfig {
 	}
 
 	@Bean
-	public JdbcTemplate jdbcTemplate(DataSource dataSourcePool) {
-		return new JdbcTemplate(dataSourcePool);
+	public JdbcTemplate jdbcTemplate(DataSource routingDataSourcePool) {
+		return new JdbcTemplate(routingDataSourcePool);
 	}
 	
 	@Bean
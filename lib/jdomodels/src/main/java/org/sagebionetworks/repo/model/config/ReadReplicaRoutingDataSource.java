@@ -0,0 +1,185 @@
+package org.sagebionetworks.repo.model.config;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.sagebionetworks.util.Clock;
+import org.sagebionetworks.util.ValidateArgument;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource that routes the connections of read-only transactions (see
+ * {@link org.sagebionetworks.repo.transactions.ReadOnlyTransaction}) to the
+ * read replica of the repository database, any other connection goes to the
+ * primary database.
+ * <p>
+ * A read-only transaction still uses the primary when:
+ * <ul>
+ * <li>There is no replica configured.</li>
+ * <li>The replica lags behind more than the maximum allowed (See:
+ * {@link ReplicaLagMonitor}).</li>
+ * <li>The same thread used a write transaction within the maximum allowed lag,
+ * so that a request can read its own writes. The pin is cleared at the end of
+ * each request with {@link #clearPrimaryPin()}.</li>
+ * </ul>
+ * Note: The transaction is only known to be read-only once it started, this
+ * DataSource must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so
+ * the connection is fetched on the first statement.
+ *
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource implements DataSourcePoolStatisticsProvider {
+
+	public enum DataSourceType {
+		PRIMARY, REPLICA
+	}
+
+	/**
+	 * The time until which the current thread must use the primary database.
+	 */
+	private static final ThreadLocal<Long> PINNED_UNTIL = new ThreadLocal<>();
+
+	private final BasicDataSource primary;
+	private final BasicDataSource replica;
+	private final ReplicaLagMonitor lagMonitor;
+	private final Clock clock;
+	private final long pinDurationMS;
+	private final Map<DataSourceType, AtomicLong> routedConnections;
+
+	/**
+	 * @param primary
+	 * @param replica       The replica, null if there is none
+	 * @param lagMonitor    Required if there is a replica
+	 * @param clock
+	 * @param pinDurationMS How long a thread keeps using the primary after a
+	 *                      write, this should be at least the maximum allowed lag
+	 *                      of the replica
+	 */
+	public ReadReplicaRoutingDataSource(BasicDataSource primary, BasicDataSource replica, ReplicaLagMonitor lagMonitor, Clock clock,
+			long pinDurationMS) {
+		ValidateArgument.required(primary, "primary");
+		ValidateArgument.required(clock, "clock");
+		if (replica != null) {
+			ValidateArgument.required(lagMonitor, "lagMonitor");
+		}
+		this.primary = primary;
+		this.replica = replica;
+		this.lagMonitor = lagMonitor;
+		this.clock = clock;
+		this.pinDurationMS = pinDurationMS;
+		this.routedConnections = new EnumMap<>(DataSourceType.class);
+		Map<Object, Object> targets = new HashMap<>();
+		for (DataSourceType type : DataSourceType.values()) {
+			routedConnections.put(type, new AtomicLong());
+			targets.put(type, type == DataSourceType.REPLICA && replica != null ? replica : primary);
+		}
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+		afterPropertiesSet();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		DataSourceType type = selectDataSource();
+		routedConnections.get(type).incrementAndGet();
+		return type;
+	}
+
+	DataSourceType selectDataSource() {
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			return DataSourceType.PRIMARY;
+		}
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			// Any read that follows on this thread must see this write.
+			PINNED_UNTIL.set(clock.currentTimeMillis() + pinDurationMS);
+			return DataSourceType.PRIMARY;
+		}
+		if (replica == null || isPinnedToPrimary() || !lagMonitor.isReplicaCaughtUp()) {
+			return DataSourceType.PRIMARY;
+		}
+		return DataSourceType.REPLICA;
+	}
+
+	boolean isPinnedToPrimary() {
+		Long pinnedUntil = PINNED_UNTIL.get();
+		if (pinnedUntil == null) {
+			return false;
+		}
+		if (clock.currentTimeMillis() >= pinnedUntil) {
+			PINNED_UNTIL.remove();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Clear the pin of the current thread to the primary database, called at the
+	 * end of each request.
+	 */
+	public static void clearPrimaryPin() {
+		PINNED_UNTIL.remove();
+	}
+
+	/**
+	 * @return The time until which the current thread must use the primary
+	 *         database, null if the thread is not pinned. Used to hand the pin
+	 *         over to a thread that works on behalf of the current thread.
+	 */
+	public static Long getPrimaryPin() {
+		return PINNED_UNTIL.get();
+	}
+
+	/**
+	 * Pin the current thread to the primary database until the given time.
+	 * 
+	 * @param pinnedUntil A pin returned by {@link #getPrimaryPin()}, null clears
+	 *                    the pin of the current thread
+	 */
+	public static void setPrimaryPin(Long pinnedUntil) {
+		if (pinnedUntil == null) {
+			PINNED_UNTIL.remove();
+		} else {
+			PINNED_UNTIL.set(pinnedUntil);
+		}
+	}
+
+	@Override
+	public Optional<Long> getReplicaLagMS() {
+		return replica == null ? Optional.empty() : lagMonitor.getReplicaLagMS();
+	}
+
+	@Override
+	public List<DataSourcePoolStatistics> getPoolStatistics() {
+		List<DataSourcePoolStatistics> results = new ArrayList<>(2);
+		results.add(createStatistics(DataSourceType.PRIMARY, primary));
+		if (replica != null) {
+			results.add(createStatistics(DataSourceType.REPLICA, replica));
+		}
+		return results;
+	}
+
+	private DataSourcePoolStatistics createStatistics(DataSourceType type, BasicDataSource pool) {
+		return new DataSourcePoolStatistics(type, pool.getNumActive(), pool.getNumIdle(), pool.getMaxTotal(),
+				routedConnections.get(type).getAndSet(0L));
+	}
+
+	/**
+	 * Close the pool of the replica, the primary pool is closed by its own bean.
+	 * 
+	 * @throws SQLException
+	 */
+	public void close() throws SQLException {
+		if (replica != null) {
+			replica.close();
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+package org.sagebionetworks.repo.model.config;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
+/**
+ * Guards the read replica of the repository database against replication lag.
+ * The lag is read from the replication status of the replica and cached for
+ * {@link #CHECK_INTERVAL_MS} so it is not queried for each transaction.
+ * <p>
+ * If the replication status cannot be read (e.g. the replica is not replicating
+ * or is down) the replica is considered to be lagging.
+ *
+ */
+public class ReplicaLagMonitor {
+
+	private static final Logger LOG = LogManager.getLogger(ReplicaLagMonitor.class);
+
+	public static final String SQL_REPLICA_STATUS = "SHOW SLAVE STATUS";
+	public static final String COL_SECONDS_BEHIND_MASTER = "Seconds_Behind_Master";
+	public static final long CHECK_INTERVAL_MS = 1000;
+
+	private final JdbcTemplate replicaTemplate;
+	private final long maxLagMS;
+	private final Supplier<Optional<Long>> lagSupplier;
+
+	public ReplicaLagMonitor(JdbcTemplate replicaTemplate, long maxLagMS) {
+		this.replicaTemplate = replicaTemplate;
+		this.maxLagMS = maxLagMS;
+		this.lagSupplier = Suppliers.memoizeWithExpiration(this::queryReplicaLagMS, CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @return True if the replica is within the maximum lag.
+	 */
+	public boolean isReplicaCaughtUp() {
+		Optional<Long> lag = getReplicaLagMS();
+		return lag.isPresent() && lag.get() <= maxLagMS;
+	}
+
+	/**
+	 * @return The last known lag of the replica in MS, empty if the lag is unknown.
+	 */
+	public Optional<Long> getReplicaLagMS() {
+		return lagSupplier.get();
+	}
+
+	Optional<Long> queryReplicaLagMS() {
+		try {
+			List<Optional<Long>> status = replicaTemplate.query(SQL_REPLICA_STATUS, (rs, rowNum) -> {
+				long secondsBehind = rs.getLong(COL_SECONDS_BEHIND_MASTER);
+				return rs.wasNull() ? Optional.empty() : Optional.of(TimeUnit.SECONDS.toMillis(secondsBehind));
+			});
+			return status.isEmpty() ? Optional.empty() : status.get(0);
+		} catch (DataAccessException e) {
+			LOG.warn("Failed to read the replication status of the replica: " + e.getMessage());
+			return Optional.empty();
+		}
+	}
+
+}
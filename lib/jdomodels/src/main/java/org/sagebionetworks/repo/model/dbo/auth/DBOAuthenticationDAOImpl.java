@@ -19,6 +19,7 @@ import java.util.UUID;
 import org.sagebionetworks.StackConfigurationSingleton;
 import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL;
 import org.sagebionetworks.repo.model.AuthorizationUtils;
+import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.UserGroupDAO;
 import org.sagebionetworks.repo.model.auth.AuthenticationDAO;
 import org.sagebionetworks.repo.model.dbo.DBOBasicDao;
@@ -26,6 +27,8 @@ import org.sagebionetworks.repo.model.dbo.SinglePrimaryKeySqlParameterSource;
 import org.sagebionetworks.repo.model.dbo.persistence.DBOAuthenticatedOn;
 import org.sagebionetworks.repo.model.dbo.persistence.DBOCredential;
 import org.sagebionetworks.repo.model.dbo.persistence.DBOTermsOfUseAgreement;
+import org.sagebionetworks.repo.model.message.ChangeType;
+import org.sagebionetworks.repo.model.message.TransactionalMessenger;
 import org.sagebionetworks.repo.model.principal.BootstrapGroup;
 import org.sagebionetworks.repo.model.principal.BootstrapPrincipal;
 import org.sagebionetworks.repo.transactions.WriteTransaction;
@@ -47,6 +50,9 @@ public class DBOAuthenticationDAOImpl implements AuthenticationDAO {
 	@Autowired
 	private DBOBasicDao basicDAO;
 	
+	@Autowired
+	private TransactionalMessenger transactionalMessenger;
+	
 	public static final String SELECT_AUTHENTICATED_ON_FOR_PRINCIPAL_ID = 
 			"SELECT "+COL_AUTHENTICATED_ON_AUTHENTICATED_ON+
 			" FROM "+TABLE_AUTHENTICATED_ON+
@@ -187,6 +193,8 @@ public class DBOAuthenticationDAOImpl implements AuthenticationDAO {
 			acceptance = Boolean.FALSE;
 		}
 		userGroupDAO.touch(principalId);
+		// Cached principal contexts include the ToU acceptance
+		transactionalMessenger.sendMessageAfterCommit(String.valueOf(principalId), ObjectType.PRINCIPAL, ChangeType.UPDATE);
 		
 		DBOTermsOfUseAgreement agreement = new DBOTermsOfUseAgreement();
 		agreement.setPrincipalId(principalId);
@@ -202,6 +210,8 @@ public class DBOAuthenticationDAOImpl implements AuthenticationDAO {
 		status.setEnabled(enabled);
 		basicDAO.createOrUpdate(status);
 		userGroupDAO.touch(principalId);
+		// Cached principal contexts include the 2FA state
+		transactionalMessenger.sendMessageAfterCommit(String.valueOf(principalId), ObjectType.PRINCIPAL, ChangeType.UPDATE);
 	}
 	
 	@Override
@@ -177,6 +177,13 @@ public class DBOAccessRequirementDAOImpl implements AccessRequirementDAO {
 			+ " IN (:" + COL_SUBJECT_ACCESS_REQUIREMENT_SUBJECT_ID + ")" + " AND "
 			+ COL_SUBJECT_ACCESS_REQUIREMENT_SUBJECT_TYPE + " = :" + COL_SUBJECT_ACCESS_REQUIREMENT_SUBJECT_TYPE;
 
+	private static final String SELECT_ACCESS_REQUIREMENT_STATS_BY_SUBJECT = "SELECT " + COL_SUBJECT_ACCESS_REQUIREMENT_SUBJECT_ID + ", "
+			+ COL_ACCESS_REQUIREMENT_ID + ", " + COL_ACCESS_REQUIREMENT_CONCRETE_TYPE + " FROM " + TABLE_ACCESS_REQUIREMENT + ", "
+			+ TABLE_SUBJECT_ACCESS_REQUIREMENT + " WHERE " + COL_ACCESS_REQUIREMENT_ID + " = "
+			+ COL_SUBJECT_ACCESS_REQUIREMENT_REQUIREMENT_ID + " AND " + COL_SUBJECT_ACCESS_REQUIREMENT_SUBJECT_ID
+			+ " IN (:" + COL_SUBJECT_ACCESS_REQUIREMENT_SUBJECT_ID + ")" + " AND "
+			+ COL_SUBJECT_ACCESS_REQUIREMENT_SUBJECT_TYPE + " = :" + COL_SUBJECT_ACCESS_REQUIREMENT_SUBJECT_TYPE;
+
 	private static final String SOURCE_SUBJECTS = "SOURCE_SUBJECTS";
 	private static final String DEST_SUBJECTS = "DEST_SUBJECTS";
 	private static final String SELECT_ACCESS_REQUIREMENT_DIFF = "SELECT DISTINCT "
@@ -412,12 +419,7 @@ public class DBOAccessRequirementDAOImpl implements AccessRequirementDAO {
 		ValidateArgument.requirement(subjectIds != null && !subjectIds.isEmpty(),
 				"subjectIds must contain at least one ID.");
 		ValidateArgument.required(type, "type");
-		final AccessRequirementStats stats = new AccessRequirementStats();
-		stats.setHasACT(false);
-		stats.setHasToU(false);
-		stats.setHasLock(false);
-		final Set<String> requirementIdSet = new HashSet<String>();
-		stats.setRequirementIdSet(requirementIdSet);
+		final AccessRequirementStats stats = newEmptyStats();
 		MapSqlParameterSource param = new MapSqlParameterSource();
 		param.addValue(COL_SUBJECT_ACCESS_REQUIREMENT_SUBJECT_ID, subjectIds);
 		param.addValue(COL_SUBJECT_ACCESS_REQUIREMENT_SUBJECT_TYPE, type.name());
@@ -425,23 +427,53 @@ public class DBOAccessRequirementDAOImpl implements AccessRequirementDAO {
 
 			@Override
 			public Void mapRow(ResultSet rs, int rowNum) throws SQLException {
-				requirementIdSet.add(rs.getString(COL_ACCESS_REQUIREMENT_ID));
-				String type = rs.getString(COL_ACCESS_REQUIREMENT_CONCRETE_TYPE);
-				if (type.equals(TermsOfUseAccessRequirement.class.getName())
-						|| type.equals(SelfSignAccessRequirement.class.getName())) {
-					stats.setHasToU(true);
-				} else if (type.equals(ACTAccessRequirement.class.getName())
-						|| type.equals(ManagedACTAccessRequirement.class.getName())) {
-					stats.setHasACT(true);
-				} else if (type.equals(LockAccessRequirement.class.getName())) {
-					stats.setHasLock(true);
-				}
+				addRequirement(stats, rs.getString(COL_ACCESS_REQUIREMENT_ID), rs.getString(COL_ACCESS_REQUIREMENT_CONCRETE_TYPE));
 				return null;
 			}
 		});
 		return stats;
 	}
 
+	@Override
+	public Map<Long, AccessRequirementStats> getAccessRequirementStatsBySubject(Set<Long> subjectIds, RestrictableObjectType type) {
+		ValidateArgument.required(subjectIds, "subjectIds");
+		ValidateArgument.required(type, "type");
+		if (subjectIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		final Map<Long, AccessRequirementStats> results = new HashMap<>();
+		MapSqlParameterSource param = new MapSqlParameterSource();
+		param.addValue(COL_SUBJECT_ACCESS_REQUIREMENT_SUBJECT_ID, subjectIds);
+		param.addValue(COL_SUBJECT_ACCESS_REQUIREMENT_SUBJECT_TYPE, type.name());
+		namedJdbcTemplate.query(SELECT_ACCESS_REQUIREMENT_STATS_BY_SUBJECT, param, (ResultSet rs) -> {
+			AccessRequirementStats stats = results.computeIfAbsent(rs.getLong(COL_SUBJECT_ACCESS_REQUIREMENT_SUBJECT_ID), (id) -> newEmptyStats());
+			addRequirement(stats, rs.getString(COL_ACCESS_REQUIREMENT_ID), rs.getString(COL_ACCESS_REQUIREMENT_CONCRETE_TYPE));
+		});
+		return results;
+	}
+
+	static AccessRequirementStats newEmptyStats() {
+		AccessRequirementStats stats = new AccessRequirementStats();
+		stats.setHasACT(false);
+		stats.setHasToU(false);
+		stats.setHasLock(false);
+		stats.setRequirementIdSet(new HashSet<String>());
+		return stats;
+	}
+
+	static void addRequirement(AccessRequirementStats stats, String requirementId, String type) {
+		stats.getRequirementIdSet().add(requirementId);
+		if (type.equals(TermsOfUseAccessRequirement.class.getName())
+				|| type.equals(SelfSignAccessRequirement.class.getName())) {
+			stats.setHasToU(true);
+		} else if (type.equals(ACTAccessRequirement.class.getName())
+				|| type.equals(ManagedACTAccessRequirement.class.getName())) {
+			stats.setHasACT(true);
+		} else if (type.equals(LockAccessRequirement.class.getName())) {
+			stats.setHasLock(true);
+		}
+	}
+
 	@Override
 	public List<String> getAccessRequirementDiff(List<Long> sourceSubjects, List<Long> destSubjects,
 			RestrictableObjectType type) {
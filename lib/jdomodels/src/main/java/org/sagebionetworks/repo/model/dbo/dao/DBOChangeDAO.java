@@ -27,6 +27,8 @@ public interface DBOChangeDAO extends ProcessedMessageDAO {
 	/**
 	 * Batch replace.
 	 * If the objectId already exists, then replace it, else add a new row for each object.
+	 * The whole batch is written with one multi-row insert and is assigned consecutive change
+	 * numbers in the order of the object ids.
 	 * @param change
 	 * @return
 	 */
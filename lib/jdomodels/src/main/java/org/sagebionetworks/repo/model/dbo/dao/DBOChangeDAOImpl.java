@@ -162,11 +162,15 @@ public class DBOChangeDAOImpl implements DBOChangeDAO {
 	@WriteTransaction
 	@Override
 	public ChangeMessage replaceChange(ChangeMessage change) {
+		validateChange(change);
+		return attemptReplaceChange(change);
+	}
+
+	private static void validateChange(ChangeMessage change) {
 		if(change == null) throw new IllegalArgumentException("DBOChange cannot be null");
 		if(change.getObjectId() == null) throw new IllegalArgumentException("change.getObjectId() cannot be null");
 		if(change.getChangeType() == null) throw new IllegalArgumentException("change.getChangeTypeEnum() cannot be null");
 		if(change.getObjectType() == null) throw new IllegalArgumentException("change.getObjectTypeEnum() cannot be null");
-		return attemptReplaceChange(change);
 	}
 
 	/**
@@ -198,14 +202,33 @@ public class DBOChangeDAOImpl implements DBOChangeDAO {
 	@Override
 	public List<ChangeMessage> replaceChange(List<ChangeMessage> batchDTO) throws TransientDataAccessException {
 		if(batchDTO == null) throw new IllegalArgumentException("Batch cannot be null");
+		if(batchDTO.isEmpty()) {
+			return new ArrayList<>();
+		}
+		batchDTO.forEach(DBOChangeDAOImpl::validateChange);
 		// To prevent deadlock we sort by object id to guarantee a consistent update order.
 		batchDTO = ChangeMessageUtils.sortByObjectId(batchDTO);
-		// Send each replace them in order.
-		List<ChangeMessage> results = new ArrayList<>();
-		for(ChangeMessage change: batchDTO){
-			results.add(replaceChange(change));
+		// One call to reserve consecutive change numbers for the whole batch
+		List<Long> changeNumbers = idGenerator.generateNewIds(IdType.CHANGE_ID, batchDTO.size());
+		// See attemptReplaceChange() for the time stamp
+		Timestamp now = new Timestamp((System.currentTimeMillis() / 1000) * 1000);
+		List<DBOChange> changeDbos = new ArrayList<>(batchDTO.size());
+		List<DBOSentMessage> sentDbos = new ArrayList<>(batchDTO.size());
+		for(int i=0; i<batchDTO.size(); i++){
+			ChangeMessage change = batchDTO.get(i);
+			DBOChange changeDbo = ChangeMessageUtils.createDBO(change);
+			changeDbo.setChangeNumber(changeNumbers.get(i));
+			changeDbo.setTimeStamp(now);
+			changeDbos.add(changeDbo);
+			// Setup and clear the sent message
+			DBOSentMessage sentDBO = ChangeMessageUtils.createSentDBO(change, null);
+			sentDBO.setChangeNumber(null);
+			sentDbos.add(sentDBO);
 		}
-		return results;
+		// The batches are rewritten to a single multi-row insert by the driver.
+		basicDao.createOrUpdateBatch(changeDbos);
+		basicDao.createOrUpdateBatch(sentDbos);
+		return ChangeMessageUtils.createDTOList(changeDbos);
 	}
 
 	@WriteTransaction
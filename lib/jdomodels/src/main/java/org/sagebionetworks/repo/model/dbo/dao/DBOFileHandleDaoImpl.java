@@ -20,6 +20,7 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -85,7 +86,10 @@ public class DBOFileHandleDaoImpl implements FileHandleDao {
 	private static final String UPDATE_MARK_FILE_AS_PREVIEW  = "UPDATE "+TABLE_FILES+" SET "+COL_FILES_IS_PREVIEW+" = ? ,"+COL_FILES_ETAG+" = ? WHERE "+COL_FILES_ID+" = ?";
 	private static final String SQL_UPDATE_STATUS_BATCH = "UPDATE " + TABLE_FILES + " SET " + COL_FILES_STATUS + "=?, " + COL_FILES_ETAG + "=UUID(), " + COL_FILES_UPDATED_ON + "=NOW() WHERE " + COL_FILES_ID + "=? AND " + COL_FILES_STATUS + "=?";
 	private static final String SQL_CHECK_BATCH_STATUS= "SELECT COUNT(*) FROM (SELECT " + COL_FILES_ID + " FROM " + TABLE_FILES + " WHERE " + COL_FILES_ID + " IN ( " + IDS_PARAM + " ) AND " + COL_FILES_STATUS + "=:" + COL_FILES_STATUS + " LIMIT 1) AS T";
-	private static final String SQL_SELECT_KEY_BATCH_BY_STATUS = "SELECT DISTINCT `" + COL_FILES_KEY + "` FROM " + TABLE_FILES + " WHERE " + COL_FILES_BUCKET_NAME + "=? AND " + COL_FILES_UPDATED_ON + " < ? AND " + COL_FILES_STATUS + "= ? LIMIT ?";
+	private static final String SQL_SELECT_KEY_BATCH_BY_STATUS = "SELECT DISTINCT `" + COL_FILES_KEY + "` FROM " + TABLE_FILES + " WHERE " + COL_FILES_BUCKET_NAME + "=? AND " + COL_FILES_UPDATED_ON + " < ? AND " + COL_FILES_STATUS + "= ?";
+	private static final String SQL_SELECT_KEY_BATCH_BY_STATUS_ORDER_AND_LIMIT = " ORDER BY `" + COL_FILES_KEY + "` LIMIT ?";
+	private static final String SQL_SELECT_KEY_BATCH_BY_STATUS_FIRST_PAGE = SQL_SELECT_KEY_BATCH_BY_STATUS + SQL_SELECT_KEY_BATCH_BY_STATUS_ORDER_AND_LIMIT;
+	private static final String SQL_SELECT_KEY_BATCH_BY_STATUS_NEXT_PAGE = SQL_SELECT_KEY_BATCH_BY_STATUS + " AND `" + COL_FILES_KEY + "` > ?" + SQL_SELECT_KEY_BATCH_BY_STATUS_ORDER_AND_LIMIT;
 	private static final String SQL_UPDATE_STATUS_BY_KEY = "UPDATE " + TABLE_FILES + " SET " + COL_FILES_STATUS + "=?, " + COL_FILES_ETAG + "=UUID(), " + COL_FILES_UPDATED_ON + "=NOW() WHERE `" + COL_FILES_KEY + "`=? AND " + COL_FILES_UPDATED_ON + "<? AND " + COL_FILES_BUCKET_NAME + "=? AND " + COL_FILES_STATUS + "=?";
 	private static final String SQL_COUNT_AVAILABLE_BY_KEY = "SELECT COUNT(*) FROM " + TABLE_FILES + " WHERE `" + COL_FILES_KEY + "`=? AND " + COL_FILES_BUCKET_NAME + "=?"
 			+ " AND (" + COL_FILES_STATUS + "='" + FileHandleStatus.AVAILABLE.name() + "' OR ("+ COL_FILES_STATUS + "='" + FileHandleStatus.UNLINKED.name() + "' AND " + COL_FILES_UPDATED_ON + ">=?))";
@@ -96,6 +100,10 @@ public class DBOFileHandleDaoImpl implements FileHandleDao {
 	private static final String SQL_DELETE_BATCH = "DELETE FROM " + TABLE_FILES + " WHERE " + COL_FILES_ID + " IN (" +IDS_PARAM + ")";
 	private static final String SQL_DELETE_UNAVAILABLE_BY_KEY = "DELETE FROM " + TABLE_FILES + " WHERE `" + COL_FILES_KEY + "` =? AND " + COL_FILES_BUCKET_NAME + "=? AND " + COL_FILES_STATUS + " <> '" + FileHandleStatus.AVAILABLE +"'";
 	private static final String SQL_SELECT_CONTENT_SIZE_BY_KEY = "SELECT MAX("+ COL_FILES_CONTENT_SIZE + ") FROM " + TABLE_FILES + " WHERE `" + COL_FILES_KEY + "` =? AND " + COL_FILES_BUCKET_NAME + "=?";
+	private static final String SQL_SELECT_AVAILABLE_KEYS_BATCH = "SELECT DISTINCT `" + COL_FILES_KEY + "` FROM " + TABLE_FILES + " WHERE `" + COL_FILES_KEY + "` IN (:keys) AND " + COL_FILES_BUCKET_NAME + "=:bucketName"
+			+ " AND (" + COL_FILES_STATUS + "='" + FileHandleStatus.AVAILABLE.name() + "' OR ("+ COL_FILES_STATUS + "='" + FileHandleStatus.UNLINKED.name() + "' AND " + COL_FILES_UPDATED_ON + ">=:modifiedAfter))";
+	private static final String SQL_SELECT_CONTENT_SIZE_BY_KEYS = "SELECT `" + COL_FILES_KEY + "`, MAX("+ COL_FILES_CONTENT_SIZE + ") FROM " + TABLE_FILES + " WHERE `" + COL_FILES_KEY + "` IN (:keys) AND " + COL_FILES_BUCKET_NAME + "=:bucketName"
+			+ " GROUP BY `" + COL_FILES_KEY + "`";
 	
 	/**
 	 * Used to detect if a file object already exists.
@@ -407,12 +415,17 @@ public class DBOFileHandleDaoImpl implements FileHandleDao {
 	}
 	
 	@Override
-	public List<String> getUnlinkedKeysForBucket(String bucketName, Instant modifiedBefore, int limit) {
+	public List<String> getUnlinkedKeysForBucket(String bucketName, Instant modifiedBefore, String afterKey, int limit) {
 		ValidateArgument.requiredNotBlank(bucketName, "The bucketName");
 		ValidateArgument.required(modifiedBefore, "The modifiedBefore");
 		ValidateArgument.requirement(limit > 0, "The limit must be greater than 0.");
 		
-		return jdbcTemplate.queryForList(SQL_SELECT_KEY_BATCH_BY_STATUS, String.class, bucketName, Timestamp.from(modifiedBefore), FileHandleStatus.UNLINKED.name(), limit);
+		if (afterKey == null) {
+			return jdbcTemplate.queryForList(SQL_SELECT_KEY_BATCH_BY_STATUS_FIRST_PAGE, String.class, bucketName, Timestamp.from(modifiedBefore), FileHandleStatus.UNLINKED.name(), limit);
+		}
+		
+		// Keyset paging, each page starts from the last key of the previous page so that the scan does not slow down as it progresses
+		return jdbcTemplate.queryForList(SQL_SELECT_KEY_BATCH_BY_STATUS_NEXT_PAGE, String.class, bucketName, Timestamp.from(modifiedBefore), FileHandleStatus.UNLINKED.name(), afterKey, limit);
 	}
 	
 	@Override
@@ -478,6 +491,52 @@ public class DBOFileHandleDaoImpl implements FileHandleDao {
 		return jdbcTemplate.update(SQL_UPDATE_STATUS_BY_KEY, newStatus.name(), key, Timestamp.from(modifiedBefore), bucketName, currentStatus.name());
 	}
 	
+	@Override
+	@WriteTransaction
+	public Map<String, Integer> updateStatusByBucketAndKeys(String bucketName, List<String> keys, FileHandleStatus newStatus, FileHandleStatus currentStatus, Instant modifiedBefore) {
+		ValidateArgument.requiredNotBlank(bucketName, "The bucketName");
+		ValidateArgument.required(keys, "The keys");
+		ValidateArgument.required(newStatus, "The newStatus");
+		ValidateArgument.required(currentStatus, "The currentStatus");
+		ValidateArgument.required(modifiedBefore, "The modifiedBefore");
+		
+		if (keys.isEmpty() || newStatus.equals(currentStatus)) {
+			return Collections.emptyMap();
+		}
+		
+		keys.forEach(key -> ValidateArgument.requiredNotBlank(key, "The key"));
+		
+		Timestamp modifiedBeforeTimestamp = Timestamp.from(modifiedBefore);
+		
+		int[] updatedRows = jdbcTemplate.batchUpdate(SQL_UPDATE_STATUS_BY_KEY, new BatchPreparedStatementSetter() {
+			
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				int paramIndex = 1;
+				ps.setString(paramIndex++, newStatus.name());
+				ps.setString(paramIndex++, keys.get(i));
+				ps.setTimestamp(paramIndex++, modifiedBeforeTimestamp);
+				ps.setString(paramIndex++, bucketName);
+				ps.setString(paramIndex++, currentStatus.name());
+			}
+			
+			@Override
+			public int getBatchSize() {
+				return keys.size();
+			}
+		});
+		
+		Map<String, Integer> updatedByKey = new HashMap<>(keys.size());
+		
+		for (int i = 0; i < updatedRows.length; i++) {
+			if (updatedRows[i] > 0) {
+				updatedByKey.merge(keys.get(i), updatedRows[i], Integer::sum);
+			}
+		}
+		
+		return updatedByKey;
+	}
+	
 	@Override
 	public int getAvailableOrEarlyUnlinkedFileHandlesCount(String bucketName, String key, Instant modifiedAfter) {
 		ValidateArgument.requiredNotBlank(bucketName, "The bucketName");
@@ -487,6 +546,24 @@ public class DBOFileHandleDaoImpl implements FileHandleDao {
 		return jdbcTemplate.queryForObject(SQL_COUNT_AVAILABLE_BY_KEY, Long.class, key, bucketName, Timestamp.from(modifiedAfter)).intValue();
 	}
 	
+	@Override
+	public Set<String> getKeysWithAvailableOrEarlyUnlinkedFileHandles(String bucketName, Collection<String> keys, Instant modifiedAfter) {
+		ValidateArgument.requiredNotBlank(bucketName, "The bucketName");
+		ValidateArgument.required(keys, "The keys");
+		ValidateArgument.required(modifiedAfter, "The modifiedAfter");
+		
+		if (keys.isEmpty()) {
+			return Collections.emptySet();
+		}
+		
+		SqlParameterSource params = new MapSqlParameterSource()
+				.addValue("keys", keys)
+				.addValue("bucketName", bucketName)
+				.addValue("modifiedAfter", Timestamp.from(modifiedAfter));
+		
+		return new HashSet<>(namedJdbcTemplate.queryForList(SQL_SELECT_AVAILABLE_KEYS_BATCH, params, String.class));
+	}
+	
 	@Override
 	@WriteTransaction
 	public Set<Long> clearPreviewByKeyAndStatus(String bucketName, String key, FileHandleStatus status) {
@@ -582,6 +659,31 @@ public class DBOFileHandleDaoImpl implements FileHandleDao {
 		
 		return jdbcTemplate.queryForObject(SQL_SELECT_CONTENT_SIZE_BY_KEY, Long.class, key, bucketName);
 	}
+	
+	@Override
+	public Map<String, Long> getContentSizeByKeys(String bucketName, Collection<String> keys) {
+		ValidateArgument.requiredNotBlank(bucketName, "The bucketName");
+		ValidateArgument.required(keys, "The keys");
+		
+		if (keys.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		
+		SqlParameterSource params = new MapSqlParameterSource()
+				.addValue("keys", keys)
+				.addValue("bucketName", bucketName);
+		
+		Map<String, Long> result = new HashMap<>(keys.size());
+		
+		namedJdbcTemplate.query(SQL_SELECT_CONTENT_SIZE_BY_KEYS, params, (RowCallbackHandler) rs -> {
+			long contentSize = rs.getLong(2);
+			if (!rs.wasNull()) {
+				result.put(rs.getString(1), contentSize);
+			}
+		});
+		
+		return result;
+	}
 
 	@WriteTransaction
 	@Override
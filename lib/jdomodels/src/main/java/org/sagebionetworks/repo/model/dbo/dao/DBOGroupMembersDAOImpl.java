@@ -173,6 +173,7 @@ public class DBOGroupMembersDAOImpl implements GroupMembersDAO {
 			params[i].addValue(MEMBER_ID_PARAM_NAME, sortedMemberIds.get(i));
 		}
 		namedJdbcTemplate.batchUpdate(INSERT_NEW_MEMBERS_OF_GROUP, params);
+		sendMemberChangeMessages(sortedMemberIds);
 		
 		// Update the etag on the parent group
 		userGroupDAO.touch(Long.parseLong(groupId));
@@ -188,6 +189,7 @@ public class DBOGroupMembersDAOImpl implements GroupMembersDAO {
 		
 		// Use the affected UserGroup row as a lock 
 		userGroupDAO.getEtagForUpdate(groupId);
+		transactionalMessenger.sendMessageAfterCommit(groupId, ObjectType.PRINCIPAL, ChangeType.UPDATE);
 
 		// Delete some members
 		List<Long> sortedMemberIds = sortIds(memberIds);
@@ -198,10 +200,21 @@ public class DBOGroupMembersDAOImpl implements GroupMembersDAO {
 			params[i].addValue(MEMBER_ID_PARAM_NAME, sortedMemberIds.get(i));
 		}
 		namedJdbcTemplate.batchUpdate(DELETE_MEMBERS_OF_GROUP, params);
+		sendMemberChangeMessages(sortedMemberIds);
 		
 		// Update the etag on the parent group
 		userGroupDAO.touch(Long.parseLong(groupId));
 	}
+	
+	/**
+	 * The groups of a principal are part of its state (e.g. the cached principal context), each
+	 * member whose membership changed is sent a principal update
+	 */
+	private void sendMemberChangeMessages(List<Long> memberIds) {
+		for (Long memberId : memberIds) {
+			transactionalMessenger.sendMessageAfterCommit(memberId.toString(), ObjectType.PRINCIPAL, ChangeType.UPDATE);
+		}
+	}
 
 	@Override
 	public List<UserGroup> getUsersGroups(String principalId)
@@ -13,6 +13,7 @@ import org.sagebionetworks.repo.model.EntityTypeUtils;
 import org.sagebionetworks.repo.model.FileSummary;
 import org.sagebionetworks.repo.model.IdAndAlias;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.InvalidModelException;
 import org.sagebionetworks.repo.model.LimitExceededException;
 import org.sagebionetworks.repo.model.NameConflictException;
@@ -58,6 +59,7 @@ import org.sagebionetworks.repo.model.table.SnapshotRequest;
 import org.sagebionetworks.repo.model.table.SubType;
 import org.sagebionetworks.repo.transactions.MandatoryWriteTransaction;
 import org.sagebionetworks.repo.transactions.NewWriteTransaction;
+import org.sagebionetworks.repo.transactions.ReadOnlyTransaction;
 import org.sagebionetworks.repo.transactions.WriteTransaction;
 import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.util.ValidateArgument;
@@ -113,6 +115,9 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_NODE_ID;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_NODE_MODIFIED_ON;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_NODE_NAME;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_NODE_PARENT_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_NODE_PURGE_WORK_DISTANCE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_NODE_PURGE_WORK_NODE_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_NODE_PURGE_WORK_ROOT_ID;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_NODE_TYPE;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_PROJECT_STAT_LAST_ACCESSED;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_PROJECT_STAT_PROJECT_ID;
@@ -143,6 +148,7 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.OFFSET_PARAM
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_FILES;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_JSON_SCHEMA_OBJECT_BINDING;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_NODE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_NODE_PURGE_WORK;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_PROJECT_STAT;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_REVISION;
 
@@ -171,6 +177,13 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 	public static final String SQL_SELECT_ID_AND_CHECKSUM_OBJECTT_ID = String.format(SQL_SELECT_ID_AND_CHCKSUM_TEMPLATE,
 			"N.ID IN (:objectIds)");
 	
+	public static final String SQL_SELECT_ID_AND_CHECKSUM_PARENT_ID_IN_RANGE = String.format(SQL_SELECT_ID_AND_CHCKSUM_TEMPLATE,
+			"N.PARENT_ID IN (:parentIds) AND N.NODE_TYPE IN (:subTypes) AND N.ID BETWEEN :minId AND :maxId");
+	
+	public static final String SQL_SELECT_ID_RANGE_CHECKSUM_PARENT_ID = String.format(DDLUtilsImpl
+			.loadSQLFromClasspath("sql/GetIdRangeChecksumTemplate.sql"),
+			"N.PARENT_ID IN (:parentIds) AND N.NODE_TYPE IN (:subTypes) AND N.ID BETWEEN :minId AND :maxId");
+	
 	public static final String SQL_GET_ALL_CONTAINER_IDS = DDLUtilsImpl
 			.loadSQLFromClasspath("sql/GetAllContainerIds.sql");
 	
@@ -283,6 +296,13 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 			+ " FROM "+TABLE_NODE+" N"
 			+ " WHERE N."+COL_NODE_ID+" IN (:"+BIND_NODE_IDS+")";
 	
+	private static final String PROJECT_ID_ALIAS = "PROJECT_ID";
+	
+	private static final String SQL_SELECT_PROJECT_IDS =
+			"SELECT N."+COL_NODE_ID+", "+FUNCTION_GET_ENTITY_PROJECT_ID+"(N."+COL_NODE_ID+") AS "+PROJECT_ID_ALIAS
+			+ " FROM "+TABLE_NODE+" N"
+			+ " WHERE N."+COL_NODE_ID+" IN (:"+BIND_NODE_IDS+")";
+	
 	private static final String ENTITY_HEADER_SELECT = "SELECT N." + COL_NODE_ID + ", R." + COL_REVISION_LABEL + ", N."
 			+ COL_NODE_NAME + ", N." + COL_NODE_TYPE + ", " + SQL_SELECT_BENEFACTOR_N + ", R." + COL_REVISION_NUMBER
 			+ ", N." + COL_NODE_CREATED_BY + ", N." + COL_NODE_CREATED_ON + ", R." + COL_REVISION_MODIFIED_BY + ", R."
@@ -329,6 +349,10 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 			+ " N, " + TABLE_REVISION + " R WHERE N." + COL_NODE_ID + "= R." + COL_REVISION_OWNER_NODE + " AND N."
 			+ COL_NODE_CURRENT_REV + " = R." + COL_REVISION_NUMBER + " AND N." + COL_NODE_ID + "= ?";
 	
+	private static final String SQL_SELECT_CURRENT_NODES = SQL_SELECT_WITHOUT_ANNOTATIONS + " FROM " + TABLE_NODE
+			+ " N, " + TABLE_REVISION + " R WHERE N." + COL_NODE_ID + "= R." + COL_REVISION_OWNER_NODE + " AND N."
+			+ COL_NODE_CURRENT_REV + " = R." + COL_REVISION_NUMBER + " AND N." + COL_NODE_ID + " IN (:" + BIND_NODE_IDS + ")";
+	
 	private static final String SQL_SELECT_NODE_VERSION = SQL_SELECT_WITHOUT_ANNOTATIONS + " FROM " + TABLE_NODE
 			+ " N, " + TABLE_REVISION + " R WHERE N." + COL_NODE_ID + "= R." + COL_REVISION_OWNER_NODE + " AND R."
 			+ COL_REVISION_NUMBER + " = ? AND N." + COL_NODE_ID + "= ?";
@@ -359,6 +383,7 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 	private static final String SELECT_ANNOTATIONS_ONLY_SELECT_CLAUSE_PREFIX = "SELECT N."+COL_NODE_ID+", N."+COL_NODE_ETAG+", N."+COL_NODE_CREATED_ON+", N."+COL_NODE_CREATED_BY+", R.";
 
 	private static final String SELECT_ANNOTATIONS_ONLY_FROM_AND_WHERE_CLAUSE_PREFIX = " FROM  "+TABLE_NODE+" N, "+TABLE_REVISION+" R WHERE N."+COL_NODE_ID+" = :"+COL_NODE_ID +" AND R."+COL_REVISION_OWNER_NODE+" = N."+COL_NODE_ID+" AND R."+COL_REVISION_NUMBER + "=";
+	private static final String SQL_SELECT_CURRENT_USER_ANNOTATIONS = "SELECT N."+COL_NODE_ID+", N."+COL_NODE_ETAG+", R."+COL_REVISION_USER_ANNOS_JSON+" FROM "+TABLE_NODE+" N, "+TABLE_REVISION+" R WHERE N."+COL_NODE_ID+" IN (:"+BIND_NODE_IDS+") AND R."+COL_REVISION_OWNER_NODE+" = N."+COL_NODE_ID+" AND R."+COL_REVISION_NUMBER + " = N." + COL_NODE_CURRENT_REV;
 	private static final String SELECT_USER_ANNOTATIONS_ONLY_PREFIX = "SELECT N."+COL_NODE_ID+", N."+COL_NODE_ETAG+", R."+COL_REVISION_USER_ANNOS_JSON+" FROM  "+TABLE_NODE+" N, "+TABLE_REVISION+" R WHERE N."+COL_NODE_ID+" = ? AND R."+COL_REVISION_OWNER_NODE+" = N."+COL_NODE_ID+" AND R."+COL_REVISION_NUMBER + " = ";
 	private static final String CANNOT_FIND_A_NODE_WITH_ID = "Cannot find a node with id: ";
 	private static final String CANNOT_FIND_A_NODE_WITH_ID_AND_VERSION = "Cannot find a node with id %s and version %d";
@@ -424,6 +449,21 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 			+ " ORDER BY N." + COL_NODE_ID
 			+ " LIMIT " + NodeDAO.NODE_VERSION_LIMIT_BY_FILE_MD5;
 	
+	/**
+	 * A recursive sql call to get the IDs of the nodes on the path of each of the
+	 * given entity ids (:bNodeIds), one row per node and entity. The limit on the
+	 * distance prevents an infinite loop for a circular path. The ORDER BY clause
+	 * groups the rows by entity, ordered from root to leaf. Note: The results will
+	 * include each requested node as the last element of its path.
+	 */
+	private static final String SQL_SELECT_PATHS_IDS = "WITH RECURSIVE PATH (ENTITY_ID, " + COL_NODE_ID + ", " + COL_NODE_PARENT_ID
+			+ ", DISTANCE) AS (SELECT " + COL_NODE_ID + ", " + COL_NODE_ID + ", " + COL_NODE_PARENT_ID + ", 1 FROM " + TABLE_NODE
+			+ " AS N WHERE " + COL_NODE_ID + " IN (:" + BIND_NODE_IDS + ")" + " UNION ALL" + " SELECT PATH.ENTITY_ID, N." + COL_NODE_ID
+			+ ", N." + COL_NODE_PARENT_ID + ", PATH.DISTANCE+ 1 FROM " + TABLE_NODE + " AS N JOIN PATH ON (N." + COL_NODE_ID
+			+ " = PATH." + COL_NODE_PARENT_ID + ")" + " WHERE N." + COL_NODE_ID + " IS NOT NULL AND DISTANCE < "
+			+ NodeConstants.MAX_PATH_DEPTH_PLUS_ONE + " )" + " SELECT ENTITY_ID, " + COL_NODE_ID
+			+ " FROM PATH ORDER BY ENTITY_ID, DISTANCE DESC";
+	
 	/**
 	 * A recursive sql call to get the full path of a given entity id (?). The limit
 	 * on the distance prevents an infinite loop for a circular path. To be used a
@@ -528,6 +568,29 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 	
 	private static final String SQL_DELETE_BY_ID = "DELETE FROM " + TABLE_NODE + " WHERE ID = ?";
 	
+	private static final String SQL_COUNT_PURGE_WORK = "SELECT COUNT(*) FROM " + TABLE_NODE_PURGE_WORK 
+			+ " WHERE " + COL_NODE_PURGE_WORK_ROOT_ID + " = ?";
+	
+	private static final String SQL_INSERT_PURGE_WORK = "INSERT INTO " + TABLE_NODE_PURGE_WORK 
+			+ " (" + COL_NODE_PURGE_WORK_ROOT_ID + ", " + COL_NODE_PURGE_WORK_NODE_ID + ", " + COL_NODE_PURGE_WORK_DISTANCE + ")"
+			+ " WITH RECURSIVE NODES (ID, DISTANCE) AS (" 
+			+ " SELECT " + COL_NODE_ID + ", 1 FROM " + TABLE_NODE 
+			+ " WHERE " + COL_NODE_PARENT_ID + " = ?" 
+			+ " UNION" 
+			+ " SELECT N." + COL_NODE_ID + ", C.DISTANCE + 1" 
+			+ " FROM NODES AS C JOIN " + TABLE_NODE + " AS N ON C." + COL_NODE_ID + " = N." + COL_NODE_PARENT_ID
+			+ " AND C.DISTANCE < " + NodeConstants.MAX_PATH_DEPTH_PLUS_ONE
+			+ ")"
+			+ " SELECT ?, ID, DISTANCE FROM NODES";
+	
+	private static final String SQL_SELECT_PURGE_WORK_BATCH = "SELECT " + COL_NODE_PURGE_WORK_NODE_ID + " FROM " + TABLE_NODE_PURGE_WORK 
+			+ " WHERE " + COL_NODE_PURGE_WORK_ROOT_ID + " = ?"
+			+ " ORDER BY " + COL_NODE_PURGE_WORK_DISTANCE + " DESC, " + COL_NODE_PURGE_WORK_NODE_ID
+			+ " LIMIT ?";
+	
+	private static final String SQL_DELETE_PURGE_WORK = "DELETE FROM " + TABLE_NODE_PURGE_WORK 
+			+ " WHERE " + COL_NODE_PURGE_WORK_ROOT_ID + " = ? AND " + COL_NODE_PURGE_WORK_NODE_ID + " = ?";
+	
 	@WriteTransaction
 	@Override
 	public String createNew(Node dto){
@@ -671,6 +734,15 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		}
 	}
 	
+	@Override
+	public List<Node> getNodes(List<Long> ids) {
+		ValidateArgument.required(ids, "ids");
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return namedParameterJdbcTemplate.query(SQL_SELECT_CURRENT_NODES, new MapSqlParameterSource(BIND_NODE_IDS, ids), NODE_MAPPER);
+	}
+	
 	@Override
 	public Node getNodeForVersion(String id, Long versionNumber){
 		if(id == null) throw new IllegalArgumentException("Id cannot be null");
@@ -731,6 +803,57 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 				+ " SELECT ID FROM NODES ORDER BY DISTANCE DESC LIMIT ?", Long.class, parentId, limit);
 	}
 	
+	@NewWriteTransaction
+	@Override
+	public long enumerateSubTreeForPurge(String id) {
+		ValidateArgument.required(id, "Id of the node");
+		
+		Long longId = KeyFactory.stringToKey(id);
+		
+		long existing = jdbcTemplate.queryForObject(SQL_COUNT_PURGE_WORK, Long.class, longId);
+		
+		if (existing > 0) {
+			// A previous purge of the same node was interrupted, resume from what is left
+			return existing;
+		}
+		
+		return jdbcTemplate.update(SQL_INSERT_PURGE_WORK, longId, longId);
+	}
+	
+	@NewWriteTransaction
+	@Override
+	public int purgeSubTreeBatch(String id, int limit) {
+		ValidateArgument.required(id, "Id of the node");
+		ValidateArgument.requirement(limit > 0, "The limit must be greater than 0");
+		
+		Long longId = KeyFactory.stringToKey(id);
+		
+		List<Long> nodes = jdbcTemplate.queryForList(SQL_SELECT_PURGE_WORK_BATCH, Long.class, longId, limit);
+		
+		if (nodes.isEmpty()) {
+			return 0;
+		}
+		
+		deleteBatch(nodes);
+		
+		// Removing the processed rows in the same transaction checkpoints the purge
+		jdbcTemplate.batchUpdate(SQL_DELETE_PURGE_WORK, new BatchPreparedStatementSetter() {
+
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				ps.setLong(1, longId);
+				ps.setLong(2, nodes.get(i));
+			}
+
+			@Override
+			public int getBatchSize() {
+				return nodes.size();
+			}
+		});
+		
+		return nodes.size();
+	}
+	
 	private void deleteBatch(List<Long> ids) {
 		if (ids.isEmpty()) {
 			return;
@@ -1026,6 +1149,22 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		}
 	}
 
+	@Override
+	public Map<Long, Annotations> getUserAnnotationsForCurrentVersions(List<Long> ids) {
+		ValidateArgument.required(ids, "ids");
+		if (ids.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<Long, Annotations> results = new HashMap<>(ids.size());
+		namedParameterJdbcTemplate.query(SQL_SELECT_CURRENT_USER_ANNOTATIONS, new MapSqlParameterSource(BIND_NODE_IDS, ids), (ResultSet rs) -> {
+			Annotations annotations = ANNOTATIONS_V2_ROW_MAPPER.mapRow(rs, 0);
+			// Remove the eTags (See PLFM-1420)
+			annotations.setEtag(NodeConstants.ZERO_E_TAG);
+			results.put(KeyFactory.stringToKey(annotations.getId()), annotations);
+		});
+		return results;
+	}
+
 	@Override
 	public Annotations getUserAnnotationsForVersion(final String id, Long versionNumber){
 		ValidateArgument.requiredNotEmpty(id, "id");
@@ -1303,6 +1442,22 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		return path;
 	}
 	
+	@Override
+	public Map<Long, List<Long>> getEntityPathIds(Set<Long> nodeIds) {
+		ValidateArgument.required(nodeIds, "nodeIds");
+		if (nodeIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<Long, List<Long>> results = new HashMap<>(nodeIds.size());
+		namedParameterJdbcTemplate.query(SQL_SELECT_PATHS_IDS, new MapSqlParameterSource(BIND_NODE_IDS, nodeIds), (ResultSet rs) -> {
+			results.computeIfAbsent(rs.getLong("ENTITY_ID"), (id) -> new ArrayList<>()).add(rs.getLong(COL_NODE_ID));
+		});
+		results.forEach((nodeId, path) -> {
+			validatePath(KeyFactory.keyToString(nodeId), path);
+		});
+		return results;
+	}
+	
 	@Override
 	public List<NameIdType> getEntityPath(String nodeId) throws DatastoreException, NotFoundException {
 		String selectColumns = COL_NODE_ID+","+COL_NODE_NAME+","+COL_NODE_TYPE;
@@ -1757,6 +1912,27 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		return Optional.of(KeyFactory.keyToString(projectId));
 	}
 	
+	@Override
+	public Map<Long, Long> getProjectIds(List<Long> nodeIds) {
+		ValidateArgument.required(nodeIds, "nodeIds");
+		if (nodeIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<Long, Long> results = new HashMap<>(nodeIds.size());
+		namedParameterJdbcTemplate.query(SQL_SELECT_PROJECT_IDS, new MapSqlParameterSource(BIND_NODE_IDS, nodeIds), (ResultSet rs) -> {
+			long projectId = rs.getLong(PROJECT_ID_ALIAS);
+			if (rs.wasNull()) {
+				// The node is in the trash
+				return;
+			}
+			if (projectId < 0) {
+				throw new IllegalStateException("Infinite loop detected for: " + rs.getLong(COL_NODE_ID));
+			}
+			results.put(rs.getLong(COL_NODE_ID), projectId);
+		});
+		return results;
+	}
+	
 	@Override
 	public String getBenefactor(String nodeId) {
 		ValidateArgument.required(nodeId, "nodeId");
@@ -1786,6 +1962,26 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		return results;
 	}
 
+	@Override
+	public Map<Long, Long> getBenefactors(List<Long> beneficiaryIds) {
+		ValidateArgument.required(beneficiaryIds, "beneficiaryIds");
+		if (beneficiaryIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<Long, Long> results = new HashMap<>(beneficiaryIds.size());
+		namedParameterJdbcTemplate.query(SQL_SELECT_BENEFACTORS, new MapSqlParameterSource(BIND_NODE_IDS, beneficiaryIds), (ResultSet rs) -> {
+			long benefactorId = rs.getLong(BENEFACTOR_ALIAS);
+			if (rs.wasNull()) {
+				return;
+			}
+			if (benefactorId < 0) {
+				throw new IllegalStateException("Infinite loop detected for: " + rs.getLong(COL_NODE_ID));
+			}
+			results.put(rs.getLong(COL_NODE_ID), benefactorId);
+		});
+		return results;
+	}
+
 	@Override
 	public List<ObjectDataDTO> getEntityDTOs(List<Long> ids,final int maxAnnotationSize, long limit, long offset) {
 		ValidateArgument.required(ids, "ids");
@@ -1905,6 +2101,7 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		});
 	}
 
+	@ReadOnlyTransaction
 	@Override
 	public List<EntityHeader> getChildren(String parentId,
 			List<EntityType> includeTypes, Set<Long> childIdsToExclude,
@@ -2245,6 +2442,69 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		});
 	}
 
+	@Override
+	public List<IdAndChecksum> getIdsAndChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes, Long minId, Long maxId) {
+		ValidateArgument.required(minId, "minId");
+		ValidateArgument.required(maxId, "maxId");
+		MapSqlParameterSource params = createChildrenChecksumParameters(salt, parentIds, subTypes);
+		if(params == null) {
+			return Collections.emptyList();
+		}
+		params.addValue("minId", minId);
+		params.addValue("maxId", maxId);
+		return namedParameterJdbcTemplate.query(SQL_SELECT_ID_AND_CHECKSUM_PARENT_ID_IN_RANGE, params, (ResultSet rs, int rowNum) -> {
+			return new IdAndChecksum().withId(rs.getLong("ID")).withChecksum(rs.getLong("CHECK_SUM"));
+		});
+	}
+	
+	@Override
+	public List<IdRangeChecksum> getIdRangeChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes, Long minId, Long maxId,
+			Long bucketSize) {
+		ValidateArgument.required(minId, "minId");
+		ValidateArgument.required(maxId, "maxId");
+		ValidateArgument.required(bucketSize, "bucketSize");
+		ValidateArgument.requirement(bucketSize > 0, "bucketSize must be greater than zero.");
+		MapSqlParameterSource params = createChildrenChecksumParameters(salt, parentIds, subTypes);
+		if(params == null) {
+			return Collections.emptyList();
+		}
+		params.addValue("minId", minId);
+		params.addValue("maxId", maxId);
+		params.addValue("bucketSize", bucketSize);
+		return namedParameterJdbcTemplate.query(SQL_SELECT_ID_RANGE_CHECKSUM_PARENT_ID, params, (ResultSet rs, int rowNum) -> {
+			return new IdRangeChecksum().withBucket(rs.getLong("BUCKET")).withMinId(rs.getLong("MIN_ID")).withMaxId(rs.getLong("MAX_ID"))
+					.withCount(rs.getLong("ID_COUNT")).withChecksum(rs.getLong("CHECK_SUM"));
+		});
+	}
+	
+	/**
+	 * Validate and create the common parameters of the checksum queries over the
+	 * children of the given parents.
+	 * 
+	 * @param salt
+	 * @param parentIds
+	 * @param subTypes
+	 * @return null if there are no parents
+	 */
+	private static MapSqlParameterSource createChildrenChecksumParameters(Long salt, Set<Long> parentIds, Set<SubType> subTypes) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(parentIds, "parentIds");
+		ValidateArgument.required(subTypes, "subTypes");
+		if(subTypes.isEmpty()) {
+			throw new IllegalArgumentException("Must provide at least one sub-type");
+		}
+		if(parentIds.isEmpty()) {
+			return null;
+		}
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		params.addValue("salt", salt);
+		params.addValue("parentIds", parentIds);
+		params.addValue("subTypes", subTypes.stream().map(t->t.name()).collect(Collectors.toList()));
+		params.addValue("trashId", TRASH_FOLDER_ID);
+		params.addValue("depth", NodeConstants.MAX_PATH_DEPTH);
+		return params;
+	}
+
 	@Override
 	public List<IdAndChecksum> getIdsAndChecksumsForObjects(Long salt, Set<Long> objectIds) {
 		ValidateArgument.required(salt, "salt");
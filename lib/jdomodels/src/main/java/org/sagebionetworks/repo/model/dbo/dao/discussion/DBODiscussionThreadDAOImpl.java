@@ -19,6 +19,8 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_DISCUSSI
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_DISCUSSION_THREAD_STATS_THREAD_ID;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_DISCUSSION_THREAD_TITLE;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_DISCUSSION_THREAD_VIEW_THREAD_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_DISCUSSION_THREAD_VIEW_SKETCH_SKETCH;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_DISCUSSION_THREAD_VIEW_SKETCH_THREAD_ID;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_DISCUSSION_THREAD_VIEW_USER_ID;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_FORUM_ID;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_FORUM_PROJECT_ID;
@@ -26,6 +28,7 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_DISCUS
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_DISCUSSION_THREAD_ENTITY_REFERENCE;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_DISCUSSION_THREAD_STATS;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_DISCUSSION_THREAD_VIEW;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_DISCUSSION_THREAD_VIEW_SKETCH;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_FORUM;
 
 import java.nio.charset.Charset;
@@ -36,9 +39,12 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -285,6 +291,25 @@ public class DBODiscussionThreadDAOImpl implements DiscussionThreadDAO {
 	private static final String SQL_SELECT_THREAD_VIEW_COUNT = "SELECT COUNT(*)"
 			+" FROM "+TABLE_DISCUSSION_THREAD_VIEW
 			+" WHERE "+COL_DISCUSSION_THREAD_VIEW_THREAD_ID+" = ?";
+	private static final String SQL_SELECT_THREAD_VIEWERS = "SELECT "+COL_DISCUSSION_THREAD_VIEW_USER_ID
+			+" FROM "+TABLE_DISCUSSION_THREAD_VIEW
+			+" WHERE "+COL_DISCUSSION_THREAD_VIEW_THREAD_ID+" = ?";
+
+	private static final String SQL_SELECT_THREAD_VIEW_SKETCH = "SELECT "+COL_DISCUSSION_THREAD_VIEW_SKETCH_SKETCH
+			+" FROM "+TABLE_DISCUSSION_THREAD_VIEW_SKETCH
+			+" WHERE "+COL_DISCUSSION_THREAD_VIEW_SKETCH_THREAD_ID+" = ?";
+	private static final String SQL_SELECT_THREAD_VIEW_SKETCHES_FOR_UPDATE = "SELECT "+COL_DISCUSSION_THREAD_VIEW_SKETCH_THREAD_ID+", "
+			+COL_DISCUSSION_THREAD_VIEW_SKETCH_SKETCH
+			+" FROM "+TABLE_DISCUSSION_THREAD_VIEW_SKETCH
+			+" WHERE "+COL_DISCUSSION_THREAD_VIEW_SKETCH_THREAD_ID+" IN (:threadIds) FOR UPDATE";
+	private static final String SQL_INSERT_THREAD_VIEW_SKETCH = "INSERT IGNORE INTO "
+			+TABLE_DISCUSSION_THREAD_VIEW_SKETCH+" ("
+			+COL_DISCUSSION_THREAD_VIEW_SKETCH_THREAD_ID+","
+			+COL_DISCUSSION_THREAD_VIEW_SKETCH_SKETCH
+			+") VALUES (?,?)";
+	private static final String SQL_UPDATE_THREAD_VIEW_SKETCH = "UPDATE "+TABLE_DISCUSSION_THREAD_VIEW_SKETCH
+			+" SET "+COL_DISCUSSION_THREAD_VIEW_SKETCH_SKETCH+" = ?"
+			+" WHERE "+COL_DISCUSSION_THREAD_VIEW_SKETCH_THREAD_ID+" = ?";
 
 	private static final String SQL_UPDATE_THREAD_STATS = "INSERT INTO "
 			+TABLE_DISCUSSION_THREAD_STATS+" ("
@@ -329,6 +354,49 @@ public class DBODiscussionThreadDAOImpl implements DiscussionThreadDAO {
 		jdbcTemplate.update(SQL_UPDATE_THREAD_ETAG, etag, threadId);
 	}
 
+	@WriteTransaction
+	@Override
+	public void updateThreadViews(Map<Long, Set<Long>> viewersByThreadId) {
+		ValidateArgument.required(viewersByThreadId, "viewersByThreadId");
+		if (viewersByThreadId.isEmpty()) {
+			return;
+		}
+		// The threads are locked in order to prevent deadlock
+		List<Long> threadIds = new ArrayList<Long>(viewersByThreadId.keySet());
+		Collections.sort(threadIds);
+		List<Object[]> etagArgs = new ArrayList<Object[]>(threadIds.size());
+		List<Object[]> viewArgs = new ArrayList<Object[]>();
+		for (Long threadId : threadIds) {
+			etagArgs.add(new Object[] {UUID.randomUUID().toString(), threadId});
+			List<Long> userIds = new ArrayList<Long>(viewersByThreadId.get(threadId));
+			Collections.sort(userIds);
+			for (Long userId : userIds) {
+				viewArgs.add(new Object[] {threadId, userId});
+			}
+		}
+		jdbcTemplate.batchUpdate(SQL_UPDATE_THREAD_ETAG, etagArgs);
+		jdbcTemplate.batchUpdate(SQL_UPDATE_THREAD_VIEW_TABLE, viewArgs);
+
+		// Only the existing sketches are updated, the others are built when first estimated
+		Map<Long, HyperLogLog> sketches = new HashMap<Long, HyperLogLog>();
+		namedTemplate.query(SQL_SELECT_THREAD_VIEW_SKETCHES_FOR_UPDATE, new MapSqlParameterSource("threadIds", threadIds), (ResultSet rs) -> {
+			sketches.put(rs.getLong(COL_DISCUSSION_THREAD_VIEW_SKETCH_THREAD_ID), HyperLogLog.fromBytes(rs.getBytes(COL_DISCUSSION_THREAD_VIEW_SKETCH_SKETCH)));
+		});
+		List<Object[]> sketchArgs = new ArrayList<Object[]>(sketches.size());
+		for (Map.Entry<Long, HyperLogLog> entry : sketches.entrySet()) {
+			boolean changed = false;
+			for (Long userId : viewersByThreadId.get(entry.getKey())) {
+				changed |= entry.getValue().add(userId);
+			}
+			if (changed) {
+				sketchArgs.add(new Object[] {entry.getValue().toBytes(), entry.getKey()});
+			}
+		}
+		if (!sketchArgs.isEmpty()) {
+			jdbcTemplate.batchUpdate(SQL_UPDATE_THREAD_VIEW_SKETCH, sketchArgs);
+		}
+	}
+
 	@Override
 	public List<DiscussionThreadBundle> getThreadsForForum(long forumId,
 			Long limit, Long offset, DiscussionThreadOrder order, Boolean ascending,
@@ -447,6 +515,24 @@ public class DBODiscussionThreadDAOImpl implements DiscussionThreadDAO {
 		return jdbcTemplate.queryForObject(SQL_SELECT_THREAD_VIEW_COUNT, Long.class, threadId);
 	}
 
+	@WriteTransaction
+	@Override
+	public long estimateThreadViewCount(long threadId) {
+		// Views cannot be added to the thread while the sketch is read or built
+		getEtagForUpdate(threadId);
+		List<byte[]> existing = jdbcTemplate.query(SQL_SELECT_THREAD_VIEW_SKETCH,
+				(ResultSet rs, int rowNum) -> rs.getBytes(COL_DISCUSSION_THREAD_VIEW_SKETCH_SKETCH), threadId);
+		if (!existing.isEmpty()) {
+			return HyperLogLog.fromBytes(existing.get(0)).estimate();
+		}
+		HyperLogLog sketch = new HyperLogLog();
+		jdbcTemplate.query(SQL_SELECT_THREAD_VIEWERS, (ResultSet rs) -> {
+			sketch.add(rs.getLong(COL_DISCUSSION_THREAD_VIEW_USER_ID));
+		}, threadId);
+		jdbcTemplate.update(SQL_INSERT_THREAD_VIEW_SKETCH, threadId, sketch.toBytes());
+		return sketch.estimate();
+	}
+
 	@WriteTransaction
 	@Override
 	public String getEtagForUpdate(long threadId) {
@@ -1,6 +1,7 @@
 package org.sagebionetworks.repo.model.dbo.dao.discussion;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.sagebionetworks.repo.model.discussion.DiscussionFilter;
@@ -90,6 +91,14 @@ public interface DiscussionThreadDAO {
 	 */
 	public void updateThreadView(long threadId, long userId);
 
+	/**
+	 * insert ignore the views of several threads at once, and add the viewers to
+	 * the sketches of the threads that have one.
+	 * 
+	 * @param viewersByThreadId The IDs of the users who viewed each thread
+	 */
+	public void updateThreadViews(Map<Long, Set<Long>> viewersByThreadId);
+
 	/**
 	 * count the number of users who viewed this thread
 	 * 
@@ -97,6 +106,16 @@ public interface DiscussionThreadDAO {
 	 */
 	public long countThreadView(long threadId);
 
+	/**
+	 * Estimate the number of users who viewed this thread from the HyperLogLog
+	 * sketch of the thread. The sketch is built from the THREAD_VIEW table the
+	 * first time, afterwards it is kept up to date by
+	 * {@link #updateThreadViews(Map)}.
+	 * 
+	 * @param threadId
+	 */
+	public long estimateThreadViewCount(long threadId);
+
 	/**
 	 * Get the etag before attempt to update
 	 * 
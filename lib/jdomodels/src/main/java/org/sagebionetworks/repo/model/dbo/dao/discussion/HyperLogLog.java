@@ -0,0 +1,117 @@
+package org.sagebionetworks.repo.model.dbo.dao.discussion;
+
+import java.util.Arrays;
+
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * A HyperLogLog sketch that estimates the number of distinct IDs added to it in
+ * a fixed amount of memory. With 4096 one byte registers the standard error of
+ * the estimate is about 1.6%, and adding an ID that was already added does not
+ * change the sketch.
+ *
+ */
+public class HyperLogLog {
+
+	public static final int PRECISION = 12;
+	public static final int REGISTER_COUNT = 1 << PRECISION;
+
+	private static final double ALPHA = 0.7213 / (1.0 + 1.079 / REGISTER_COUNT);
+
+	private final byte[] registers;
+
+	public HyperLogLog() {
+		this.registers = new byte[REGISTER_COUNT];
+	}
+
+	private HyperLogLog(byte[] registers) {
+		this.registers = registers;
+	}
+
+	/**
+	 * Restore a sketch from the bytes returned by {@link #toBytes()}.
+	 *
+	 * @param bytes
+	 * @return
+	 */
+	public static HyperLogLog fromBytes(byte[] bytes) {
+		ValidateArgument.required(bytes, "bytes");
+		ValidateArgument.requirement(bytes.length == REGISTER_COUNT, "Expected " + REGISTER_COUNT + " bytes but was: " + bytes.length);
+		return new HyperLogLog(Arrays.copyOf(bytes, bytes.length));
+	}
+
+	/**
+	 * Add the given ID to the sketch.
+	 *
+	 * @param id
+	 * @return True if the sketch changed.
+	 */
+	public boolean add(long id) {
+		long hash = hash(id);
+		int index = (int) (hash >>> (Long.SIZE - PRECISION));
+		// The guard bit limits the rank to the bits left after the index
+		long remainder = (hash << PRECISION) | (1L << (PRECISION - 1));
+		byte rank = (byte) (Long.numberOfLeadingZeros(remainder) + 1);
+		if (rank > registers[index]) {
+			registers[index] = rank;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Merge the given sketch into this sketch.
+	 *
+	 * @param other
+	 */
+	public void merge(HyperLogLog other) {
+		for (int i = 0; i < REGISTER_COUNT; i++) {
+			registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+		}
+	}
+
+	/**
+	 * @return The estimated number of distinct IDs added to this sketch.
+	 */
+	public long estimate() {
+		double sum = 0.0;
+		int zeros = 0;
+		for (byte register : registers) {
+			sum += 1.0 / (1L << register);
+			if (register == 0) {
+				zeros++;
+			}
+		}
+		double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+		if (estimate <= 2.5 * REGISTER_COUNT && zeros > 0) {
+			// Linear counting is more accurate for small cardinalities
+			estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros);
+		}
+		return Math.round(estimate);
+	}
+
+	/**
+	 * @return A copy of the registers of this sketch.
+	 */
+	public byte[] toBytes() {
+		return Arrays.copyOf(registers, registers.length);
+	}
+
+	/**
+	 * The finalizer of MurmurHash3, IDs are mostly sequential so they need to be
+	 * spread over all 64 bits.
+	 *
+	 * @param id
+	 * @return
+	 */
+	static long hash(long id) {
+		long h = id;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+}
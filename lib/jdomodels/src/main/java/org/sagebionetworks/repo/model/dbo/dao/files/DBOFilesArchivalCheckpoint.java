@@ -0,0 +1,143 @@
+package org.sagebionetworks.repo.model.dbo.dao.files;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_FILES_ARCHIVAL_CHECKPOINT_BUCKET_NAME;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_FILES_ARCHIVAL_CHECKPOINT_LAST_KEY;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_FILES_ARCHIVAL_CHECKPOINT_MODIFIED_BEFORE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_FILES_ARCHIVAL_CHECKPOINT_UPDATED_ON;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.DDL_FILES_ARCHIVAL_CHECKPOINT;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_FILES_ARCHIVAL_CHECKPOINT;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.FieldColumn;
+import org.sagebionetworks.repo.model.dbo.TableMapping;
+
+/**
+ * Used to store the position of the scan of the unlinked keys in a bucket submitted for archival, so that the next
+ * archival request can resume the scan after the last submitted key
+ */
+public class DBOFilesArchivalCheckpoint implements DatabaseObject<DBOFilesArchivalCheckpoint> {
+
+	private static final FieldColumn[] FIELDS = new FieldColumn[] {
+			new FieldColumn("bucketName", COL_FILES_ARCHIVAL_CHECKPOINT_BUCKET_NAME, true),
+			new FieldColumn("modifiedBefore", COL_FILES_ARCHIVAL_CHECKPOINT_MODIFIED_BEFORE),
+			new FieldColumn("lastKey", COL_FILES_ARCHIVAL_CHECKPOINT_LAST_KEY),
+			new FieldColumn("updatedOn", COL_FILES_ARCHIVAL_CHECKPOINT_UPDATED_ON)
+	};
+
+	static final TableMapping<DBOFilesArchivalCheckpoint> TABLE_MAPPING = new TableMapping<DBOFilesArchivalCheckpoint>() {
+
+		@Override
+		public DBOFilesArchivalCheckpoint mapRow(ResultSet rs, int rowNum) throws SQLException {
+			DBOFilesArchivalCheckpoint checkpoint = new DBOFilesArchivalCheckpoint();
+
+			checkpoint.setBucketName(rs.getString(COL_FILES_ARCHIVAL_CHECKPOINT_BUCKET_NAME));
+			checkpoint.setModifiedBefore(rs.getTimestamp(COL_FILES_ARCHIVAL_CHECKPOINT_MODIFIED_BEFORE).toInstant());
+			checkpoint.setLastKey(rs.getString(COL_FILES_ARCHIVAL_CHECKPOINT_LAST_KEY));
+			checkpoint.setUpdatedOn(rs.getTimestamp(COL_FILES_ARCHIVAL_CHECKPOINT_UPDATED_ON).toInstant());
+
+			return checkpoint;
+		}
+
+		@Override
+		public String getTableName() {
+			return TABLE_FILES_ARCHIVAL_CHECKPOINT;
+		}
+
+		@Override
+		public String getDDLFileName() {
+			return DDL_FILES_ARCHIVAL_CHECKPOINT;
+		}
+
+		@Override
+		public FieldColumn[] getFieldColumns() {
+			return FIELDS;
+		}
+
+		@Override
+		public Class<? extends DBOFilesArchivalCheckpoint> getDBOClass() {
+			return DBOFilesArchivalCheckpoint.class;
+		}
+	};
+
+	private String bucketName;
+	private Instant modifiedBefore;
+	private String lastKey;
+	private Instant updatedOn;
+
+	public String getBucketName() {
+		return bucketName;
+	}
+
+	public void setBucketName(String bucketName) {
+		this.bucketName = bucketName;
+	}
+
+	/**
+	 * @return The upper bound of the modifiedOn of the unlinked file handles included in the scan, fixed when the scan
+	 *         starts so that a resumed scan uses the same range
+	 */
+	public Instant getModifiedBefore() {
+		return modifiedBefore;
+	}
+
+	public void setModifiedBefore(Instant modifiedBefore) {
+		this.modifiedBefore = modifiedBefore;
+	}
+
+	/**
+	 * @return The last key that was submitted for archival
+	 */
+	public String getLastKey() {
+		return lastKey;
+	}
+
+	public void setLastKey(String lastKey) {
+		this.lastKey = lastKey;
+	}
+
+	public Instant getUpdatedOn() {
+		return updatedOn;
+	}
+
+	public void setUpdatedOn(Instant updatedOn) {
+		this.updatedOn = updatedOn;
+	}
+
+	@Override
+	public TableMapping<DBOFilesArchivalCheckpoint> getTableMapping() {
+		return TABLE_MAPPING;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(bucketName, lastKey, modifiedBefore, updatedOn);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		DBOFilesArchivalCheckpoint other = (DBOFilesArchivalCheckpoint) obj;
+		return Objects.equals(bucketName, other.bucketName) && Objects.equals(lastKey, other.lastKey)
+				&& Objects.equals(modifiedBefore, other.modifiedBefore) && Objects.equals(updatedOn, other.updatedOn);
+	}
+
+	@Override
+	public String toString() {
+		return "DBOFilesArchivalCheckpoint [bucketName=" + bucketName + ", modifiedBefore=" + modifiedBefore + ", lastKey=" + lastKey
+				+ ", updatedOn=" + updatedOn + "]";
+	}
+
+}
@@ -0,0 +1,36 @@
+package org.sagebionetworks.repo.model.dbo.dao.files;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Data access layer for the checkpoint of the scan of the unlinked keys submitted for archival
+ */
+public interface FilesArchivalCheckpointDao {
+
+	/**
+	 * @param bucketName The name of the bucket
+	 * @return The checkpoint of the scan in the given bucket, if a scan is in progress
+	 */
+	Optional<DBOFilesArchivalCheckpoint> get(String bucketName);
+
+	/**
+	 * Creates or updates the checkpoint of the scan in the given bucket
+	 * 
+	 * @param bucketName     The name of the bucket
+	 * @param modifiedBefore The upper bound of the modifiedOn used by the scan
+	 * @param lastKey        The last key that was submitted for archival
+	 */
+	void set(String bucketName, Instant modifiedBefore, String lastKey);
+
+	/**
+	 * Deletes the checkpoint of the scan in the given bucket, the next scan will start from the first key
+	 * 
+	 * @param bucketName The name of the bucket
+	 */
+	void delete(String bucketName);
+
+	// For testing
+	void truncateAll();
+
+}
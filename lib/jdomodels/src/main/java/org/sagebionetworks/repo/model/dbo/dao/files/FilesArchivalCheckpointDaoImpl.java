@@ -0,0 +1,84 @@
+package org.sagebionetworks.repo.model.dbo.dao.files;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_FILES_ARCHIVAL_CHECKPOINT_BUCKET_NAME;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_FILES_ARCHIVAL_CHECKPOINT_LAST_KEY;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_FILES_ARCHIVAL_CHECKPOINT_MODIFIED_BEFORE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_FILES_ARCHIVAL_CHECKPOINT_UPDATED_ON;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_FILES_ARCHIVAL_CHECKPOINT;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.sagebionetworks.repo.transactions.WriteTransaction;
+import org.sagebionetworks.util.ValidateArgument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class FilesArchivalCheckpointDaoImpl implements FilesArchivalCheckpointDao {
+
+	private static final String SQL_GET = "SELECT * FROM " + TABLE_FILES_ARCHIVAL_CHECKPOINT + " WHERE " + COL_FILES_ARCHIVAL_CHECKPOINT_BUCKET_NAME + " = ?";
+
+	private static final String SQL_SET = "INSERT INTO " + TABLE_FILES_ARCHIVAL_CHECKPOINT + " ("
+			+ COL_FILES_ARCHIVAL_CHECKPOINT_BUCKET_NAME + ", "
+			+ COL_FILES_ARCHIVAL_CHECKPOINT_MODIFIED_BEFORE + ", "
+			+ COL_FILES_ARCHIVAL_CHECKPOINT_LAST_KEY + ", "
+			+ COL_FILES_ARCHIVAL_CHECKPOINT_UPDATED_ON + ") VALUES (?, ?, ?, NOW())"
+			+ " ON DUPLICATE KEY UPDATE "
+			+ COL_FILES_ARCHIVAL_CHECKPOINT_MODIFIED_BEFORE + " = ?, "
+			+ COL_FILES_ARCHIVAL_CHECKPOINT_LAST_KEY + " = ?, "
+			+ COL_FILES_ARCHIVAL_CHECKPOINT_UPDATED_ON + " = NOW()";
+
+	private static final String SQL_DELETE = "DELETE FROM " + TABLE_FILES_ARCHIVAL_CHECKPOINT + " WHERE " + COL_FILES_ARCHIVAL_CHECKPOINT_BUCKET_NAME + " = ?";
+
+	private static final String SQL_TRUNCATE = "TRUNCATE " + TABLE_FILES_ARCHIVAL_CHECKPOINT;
+
+	private static final RowMapper<DBOFilesArchivalCheckpoint> ROW_MAPPER = DBOFilesArchivalCheckpoint.TABLE_MAPPING;
+
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public FilesArchivalCheckpointDaoImpl(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public Optional<DBOFilesArchivalCheckpoint> get(String bucketName) {
+		ValidateArgument.requiredNotBlank(bucketName, "The bucketName");
+		try {
+			return Optional.of(jdbcTemplate.queryForObject(SQL_GET, ROW_MAPPER, bucketName));
+		} catch (EmptyResultDataAccessException e) {
+			return Optional.empty();
+		}
+	}
+
+	@Override
+	@WriteTransaction
+	public void set(String bucketName, Instant modifiedBefore, String lastKey) {
+		ValidateArgument.requiredNotBlank(bucketName, "The bucketName");
+		ValidateArgument.required(modifiedBefore, "The modifiedBefore");
+		ValidateArgument.requiredNotBlank(lastKey, "The lastKey");
+
+		Timestamp modifiedBeforeTimestamp = Timestamp.from(modifiedBefore);
+
+		jdbcTemplate.update(SQL_SET, bucketName, modifiedBeforeTimestamp, lastKey, modifiedBeforeTimestamp, lastKey);
+	}
+
+	@Override
+	@WriteTransaction
+	public void delete(String bucketName) {
+		ValidateArgument.requiredNotBlank(bucketName, "The bucketName");
+
+		jdbcTemplate.update(SQL_DELETE, bucketName);
+	}
+
+	@Override
+	public void truncateAll() {
+		jdbcTemplate.update(SQL_TRUNCATE);
+	}
+
+}
@@ -39,4 +39,10 @@ public interface MaterializedViewDao {
 	 */
 	List<IdAndVersion> getMaterializedViewIdsPage(IdAndVersion sourceTableId, long limit, long offset);
 	
+	/**
+	 * @param tableId The id of a table, any version
+	 * @return True if the given id is the id of a materialized view or of a source table of any version of a materialized view
+	 */
+	boolean isMaterializedViewOrSourceTable(Long tableId);
+	
 }
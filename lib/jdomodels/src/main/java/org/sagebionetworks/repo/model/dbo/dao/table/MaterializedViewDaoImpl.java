@@ -2,6 +2,7 @@ package org.sagebionetworks.repo.model.dbo.dao.table;
 
 import static org.sagebionetworks.repo.model.dbo.persistence.table.DBOMaterializedViewId.DEFAULT_VERSION;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MV_ID_ETAG;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MV_ID_ID;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MV_TABLES_MV_ID;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MV_TABLES_MV_VERSION;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MV_TABLES_SOURCE_TABLE_ID;
@@ -136,4 +137,12 @@ public class MaterializedViewDaoImpl implements MaterializedViewDao {
 		return materializedViewIds;
 	}
 	
+	@Override
+	public boolean isMaterializedViewOrSourceTable(Long tableId) {
+		String selectSql = "SELECT EXISTS(SELECT 1 FROM " + TABLE_MV_ID + " WHERE " + COL_MV_ID_ID + " = ?) OR EXISTS(SELECT 1 FROM "
+				+ TABLE_MV_TABLES + " WHERE " + COL_MV_TABLES_SOURCE_TABLE_ID + " = ?)";
+		
+		return jdbcTemplate.getJdbcTemplate().queryForObject(selectSql, Boolean.class, tableId, tableId);
+	}
+	
 }
@@ -0,0 +1,28 @@
+package org.sagebionetworks.repo.model.dbo.dao.table;
+
+import org.sagebionetworks.table.cluster.TableIndexPlacement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the index of each materialized view and of each of its source tables on
+ * the first database instance, so that the view can be built joining the
+ * indices of its sources.
+ *
+ */
+@Service
+public class MaterializedViewIndexPlacement implements TableIndexPlacement {
+
+	private final MaterializedViewDao materializedViewDao;
+
+	@Autowired
+	public MaterializedViewIndexPlacement(MaterializedViewDao materializedViewDao) {
+		this.materializedViewDao = materializedViewDao;
+	}
+
+	@Override
+	public boolean isOnFirstInstance(Long tableId) {
+		return materializedViewDao.isMaterializedViewOrSourceTable(tableId);
+	}
+
+}
@@ -14,6 +14,7 @@ import org.sagebionetworks.repo.model.EntityType;
 import org.sagebionetworks.repo.model.NodeConstants;
 import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL;
 import org.sagebionetworks.repo.model.dbo.DDLUtilsImpl;
+import org.sagebionetworks.repo.transactions.ReadOnlyTransaction;
 import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.RowCallbackHandler;
@@ -30,6 +31,7 @@ public class UsersEntityPermissionsDaoImpl implements UsersEntityPermissionsDao
 	@Autowired
 	private NamedParameterJdbcTemplate namedJdbcTemplate;
 
+	@ReadOnlyTransaction
 	@Override
 	public Map<Long, UserEntityPermissionsState> getEntityPermissionsAsMap(Set<Long> userGroups, List<Long> entityIds) {
 		ValidateArgument.required(userGroups, "userGroups");
@@ -80,6 +82,7 @@ public class UsersEntityPermissionsDaoImpl implements UsersEntityPermissionsDao
 		return results;
 	}
 
+	@ReadOnlyTransaction
 	@Override
 	public List<UserEntityPermissionsState> getEntityPermissions(Set<Long> usersPrincipalIds, List<Long> entityIds) {
 		return new ArrayList<UserEntityPermissionsState>(getEntityPermissionsAsMap(usersPrincipalIds, entityIds).values());
@@ -1,6 +1,7 @@
 package org.sagebionetworks.repo.model.dbo.file;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -176,6 +177,19 @@ public interface FileHandleDao {
 	 */
 	int updateStatusByBucketAndKey(String bucketName, String key, FileHandleStatus newStatus, FileHandleStatus currentStatus, Instant modifiedBefore);
 	
+	/**
+	 * Batch version of {@link #updateStatusByBucketAndKey(String, String, FileHandleStatus, FileHandleStatus, Instant)}, the statements for all
+	 * the keys are sent in a single batch
+	 * 
+	 * @param bucketName The bucket name
+	 * @param keys The keys
+	 * @param newStatus The new status to set
+	 * @param currentStatus The current status
+	 * @param modifiedBefore The upper bound for modifiedOn
+	 * @return The number of updated file handles for each of the keys that had at least one file handle updated
+	 */
+	Map<String, Integer> updateStatusByBucketAndKeys(String bucketName, List<String> keys, FileHandleStatus newStatus, FileHandleStatus currentStatus, Instant modifiedBefore);
+	
 	/**
 	 * Get the given list of file handles, filtering those that are not in the given status
 	 * 
@@ -195,10 +209,11 @@ public interface FileHandleDao {
 	/**
 	 * @param bucketName The name of the bucket to filter for
 	 * @param modifedBefore Include only files modified before the given instant
+	 * @param afterKey Optional, include only the keys that sort after the given key. Used to page through the keys, passing the last key of the previous page
 	 * @param limit The limit to apply
-	 * @return A batch of keys of file handles that are unlinked within the given range
+	 * @return A batch of keys of file handles that are unlinked within the given range, sorted by key
 	 */
-	List<String> getUnlinkedKeysForBucket(String bucketName, Instant modifiedBefore, int limit);
+	List<String> getUnlinkedKeysForBucket(String bucketName, Instant modifiedBefore, String afterKey, int limit);
 	
 	/**
 	 * Counts the number of file handles that matches the given bucket and key and that are either {@link FileHandleStatus#AVAILABLE} or {@link FileHandleStatus#UNLINKED} but modified after the given instant
@@ -210,6 +225,16 @@ public interface FileHandleDao {
 	 */
 	int getAvailableOrEarlyUnlinkedFileHandlesCount(String bucketName, String key, Instant modifiedAfter);
 	
+	/**
+	 * Batch version of {@link #getAvailableOrEarlyUnlinkedFileHandlesCount(String, String, Instant)}
+	 * 
+	 * @param bucketName The name of the bucket
+	 * @param keys The object keys
+	 * @param modifiedAfter The lower bound for the filter
+	 * @return The subset of the given keys that have at least a file handle that is available or that is unlinked but modified after the given instant
+	 */
+	Set<String> getKeysWithAvailableOrEarlyUnlinkedFileHandles(String bucketName, Collection<String> keys, Instant modifiedAfter);
+	
 	/**
 	 * Clear all the previews for the file handles matching the given bucket, key and status
 	 * 
@@ -256,6 +281,15 @@ public interface FileHandleDao {
 	 */
 	Long getContentSizeByKey(String bucketName, String key);
 	
+	/**
+	 * Batch version of {@link #getContentSizeByKey(String, String)}
+	 * 
+	 * @param bucketName The name of the bucket
+	 * @param keys The object keys
+	 * @return The max size assigned to each of the given keys, the keys with no file handle or no content size are not included
+	 */
+	Map<String, Long> getContentSizeByKeys(String bucketName, Collection<String> keys);
+	
 	/**
 	 * Deleted all file data
 	 */
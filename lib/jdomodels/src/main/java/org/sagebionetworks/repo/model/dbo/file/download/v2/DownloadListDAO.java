@@ -92,8 +92,9 @@ public interface DownloadListDAO {
 	void truncateAllData();
 
 	/**
-	 * Read all of value from a temporary of the items from a user's download list
-	 * that the user has download access to.
+	 * Get the distinct entity IDs, in ascending order, of the items from a user's
+	 * download list that the user has download access to. The list is read in
+	 * batches of the given size.
 	 * 
 	 * @param accessCallback
 	 * @param userId
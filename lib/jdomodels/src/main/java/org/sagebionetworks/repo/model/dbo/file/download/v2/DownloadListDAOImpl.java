@@ -31,12 +31,18 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -48,12 +54,14 @@ import org.sagebionetworks.repo.model.annotation.v2.Annotations;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsV2Utils;
 import org.sagebionetworks.repo.model.dao.FileHandleMetadataType;
 import org.sagebionetworks.repo.model.dbo.DDLUtilsImpl;
+import org.sagebionetworks.repo.model.download.Action;
 import org.sagebionetworks.repo.model.download.ActionRequiredCount;
 import org.sagebionetworks.repo.model.download.AvailableFilter;
 import org.sagebionetworks.repo.model.download.DownloadListItem;
 import org.sagebionetworks.repo.model.download.DownloadListItemResult;
 import org.sagebionetworks.repo.model.download.FilesStatisticsResponse;
 import org.sagebionetworks.repo.model.download.Sort;
+import org.sagebionetworks.repo.model.download.SortDirection;
 import org.sagebionetworks.repo.model.download.SortField;
 import org.sagebionetworks.repo.model.file.FileConstants;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
@@ -68,6 +76,10 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
 
 @Repository
 public class DownloadListDAOImpl implements DownloadListDAO {
@@ -86,28 +98,24 @@ public class DownloadListDAOImpl implements DownloadListDAO {
 	
 	public static final String DOWNLOAD_LIST_STATISTICS_TEMPLATE = DDLUtilsImpl
 			.loadSQLFromClasspath("sql/DownloadListStatistics.sql");
-	
-	public static final String DOWNLOAD_LIST_ACTION_REQUIRED_TEMPLATE = DDLUtilsImpl
-			.loadSQLFromClasspath("sql/DownloadListActionRequired.sql");
-	
-	public static final String TEMP_ACTION_REQUIRED_TEMPLATE = DDLUtilsImpl
-			.loadSQLFromClasspath("sql/TempActionRequired-ddl.sql");
 
 	private static final int BATCH_SIZE = 10000;
 
+	/**
+	 * The maximum number of entity IDs bound to a single query.
+	 */
+	public static final int QUERY_CHUNK_SIZE = 1000;
+
 	public static final Long NULL_VERSION_NUMBER = -1L;
 
 	private JdbcTemplate jdbcTemplate;
 
 	private NamedParameterJdbcTemplate namedJdbcTemplate;
 	
-	private ActionsRequiredDao actionsRequiredDao;
-	
 	@Autowired
 	public DownloadListDAOImpl(NamedParameterJdbcTemplate namedJdbcTemplate) {
 		this.namedJdbcTemplate = namedJdbcTemplate;
 		this.jdbcTemplate = namedJdbcTemplate.getJdbcTemplate();
-		this.actionsRequiredDao = new ActionsRequiredDao(jdbcTemplate);
 	}
 
 	private static final RowMapper<DBODownloadList> LIST_MAPPER = new DBODownloadList().getTableMapping();
@@ -132,14 +140,16 @@ public class DownloadListDAOImpl implements DownloadListDAO {
 		return r;
 	};
 	
+	private static final RowMapper<SortableResult> SORTABLE_RESULT_MAPPER = (ResultSet rs, int rowNum) -> {
+		return new SortableResult(RESULT_MAPPER.mapRow(rs, rowNum), rs.getLong(COL_DOWNLOAD_LIST_ITEM_V2_ENTITY_ID),
+				rs.getLong(ACTUAL_VERSION), rs.getLong(CREATED_BY));
+	};
+	
 	private static final RowMapper<FilesStatisticsResponse> STATS_MAPPER = (ResultSet rs, int rowNum) -> {
 		FilesStatisticsResponse stats = new FilesStatisticsResponse();
-		stats.setTotalNumberOfFiles(rs.getLong("TOTAL_FILE_COUNT"));
 		stats.setNumberOfFilesAvailableForDownload(rs.getLong("AVAILABLE_COUNT"));
 		stats.setNumberOfFilesAvailableForDownloadAndEligibleForPackaging(rs.getLong("ELIGIBLE_FOR_PACKAGING_COUNT"));
 		stats.setSumOfFileSizesAvailableForDownload(rs.getLong("SUM_AVAIABLE_SIZE"));
-		stats.setNumberOfFilesRequiringAction(
-				stats.getTotalNumberOfFiles() - stats.getNumberOfFilesAvailableForDownload());
 		return stats;
 	};
 	
@@ -303,26 +313,15 @@ public class DownloadListDAOImpl implements DownloadListDAO {
 	public List<DownloadListItemResult> getDownloadListItems(Long userId, DownloadListItem... items) {
 		ValidateArgument.required(userId, "User Id");
 		ValidateArgument.required(items, "item");
-		// Create a temp table that contains only the IDs we want to keep.
-		Set<Long> idsToKeep = Arrays.stream(items).map(i -> KeyFactory.stringToKey(i.getFileEntityId()))
-				.collect(Collectors.toSet());
-		String tempTableName = createTemporaryTableOfAvailableFiles(
-				t -> t.stream().filter(i -> idsToKeep.contains(i)).collect(Collectors.toList()), userId, BATCH_SIZE);
-		try {
-			MapSqlParameterSource params = new MapSqlParameterSource();
-			params.addValue("principalId", userId);
-			params.addValue("depth", NodeConstants.MAX_PATH_DEPTH_PLUS_ONE);
-			params.addValue("maxEligibleSize", FileConstants.MAX_FILE_SIZE_ELIGIBLE_FOR_PACKAGING);
-			String sql = String.format(DOWNLOAD_LIST_RESULT_TEMPLATE, tempTableName);
-			List<DownloadListItemResult> unorderedResults = namedJdbcTemplate.query(sql, params, RESULT_MAPPER);
-
-			// Put the results in same order as the request. Note: O(n*m) where both n and m
-			// should be small.
-			return Arrays.stream(items).map(i -> unorderedResults.stream().filter(u -> isMatch(i, u)).findFirst().get())
-					.collect(Collectors.toList());
-		} finally {
-			dropTemporaryTable(tempTableName);
-		}
+		List<Long> entityIds = Arrays.stream(items).map(i -> KeyFactory.stringToKey(i.getFileEntityId())).distinct()
+				.sorted().collect(Collectors.toList());
+		List<DownloadListItemResult> unorderedResults = queryResultsInChunks(userId, entityIds, "", null).stream()
+				.flatMap(List::stream).map(SortableResult::getResult).collect(Collectors.toList());
+
+		// Put the results in same order as the request. Note: O(n*m) where both n and m
+		// should be small.
+		return Arrays.stream(items).map(i -> unorderedResults.stream().filter(u -> isMatch(i, u)).findFirst().get())
+				.collect(Collectors.toList());
 	}
 
 	/**
@@ -339,29 +338,150 @@ public class DownloadListDAOImpl implements DownloadListDAO {
 		return false;
 	}
 
-	@WriteTransaction
 	@Override
 	public List<DownloadListItemResult> getFilesAvailableToDownloadFromDownloadList(EntityAccessCallback accessCallback,
 			Long userId, AvailableFilter filter, List<Sort> sort, Long limit, Long offset) {
 		/*
-		 * The first step is to create a temporary table containing all of the entity
-		 * IDs from the user's download list that the user can download.
+		 * The first step is to gather all of the entity IDs from the user's download
+		 * list that the user can download.
+		 */
+		List<Long> availableIds = getAvailableFilesFromDownloadList(accessCallback, userId, BATCH_SIZE);
+		/*
+		 * Any row of a chunk could be on the requested page, so each chunk is sorted
+		 * and limited to the end of the page by the database. The sorted chunks are
+		 * then merged to extract the page.
 		 */
-		String tempTableName = createTemporaryTableOfAvailableFiles(accessCallback, userId, BATCH_SIZE);
-		try {
-			StringBuilder sqlBuilder = new StringBuilder(String.format(DOWNLOAD_LIST_RESULT_TEMPLATE, tempTableName));
-			sqlBuilder.append(buildAvailableFilter(filter));
-			sqlBuilder.append(buildAvailableDownloadQuerySuffix(sort, limit, offset));
+		Long chunkLimit = limit == null ? null : limit + (offset == null ? 0L : offset);
+		String sqlSuffix = buildAvailableFilter(filter) + buildAvailableDownloadQuerySuffix(sort, chunkLimit, null);
+		List<List<SortableResult>> chunks = queryResultsInChunks(userId, availableIds, sqlSuffix, chunkLimit);
+		return mergeSortedChunks(chunks, buildSortComparator(sort), offset, limit).stream()
+				.map(SortableResult::getResult).collect(Collectors.toList());
+	}
+
+	/**
+	 * Run the results query for each chunk of the given entity IDs.
+	 * 
+	 * @param userId
+	 * @param entityIds
+	 * @param sqlSuffix The filtering, sorting and paging appended to the query of each chunk
+	 * @param limit
+	 * @return The results of each chunk.
+	 */
+	List<List<SortableResult>> queryResultsInChunks(Long userId, List<Long> entityIds, String sqlSuffix, Long limit) {
+		String sql = DOWNLOAD_LIST_RESULT_TEMPLATE + sqlSuffix;
+		List<List<SortableResult>> chunks = new ArrayList<>();
+		for (List<Long> chunk : Lists.partition(entityIds, QUERY_CHUNK_SIZE)) {
 			MapSqlParameterSource params = new MapSqlParameterSource();
+			params.addValue("entityIds", chunk);
 			params.addValue("principalId", userId);
 			params.addValue("depth", NodeConstants.MAX_PATH_DEPTH_PLUS_ONE);
 			params.addValue("limit", limit);
-			params.addValue("offset", offset);
 			params.addValue("maxEligibleSize", FileConstants.MAX_FILE_SIZE_ELIGIBLE_FOR_PACKAGING);
-			return namedJdbcTemplate.query(sqlBuilder.toString(), params, RESULT_MAPPER);
-		} finally {
-			dropTemporaryTable(tempTableName);
+			chunks.add(namedJdbcTemplate.query(sql, params, SORTABLE_RESULT_MAPPER));
 		}
+		return chunks;
+	}
+
+	/**
+	 * Merge the given chunks, each sorted according to the given comparator, and
+	 * extract a single page of the merged results.
+	 * 
+	 * @param chunks
+	 * @param comparator When null the chunks are concatenated
+	 * @param offset
+	 * @param limit
+	 * @return
+	 */
+	public static <T> List<T> mergeSortedChunks(List<List<T>> chunks, Comparator<? super T> comparator, Long offset,
+			Long limit) {
+		List<Iterator<T>> iterators = chunks.stream().map(List::iterator).collect(Collectors.toList());
+		Iterator<T> merged = comparator == null ? Iterators.concat(iterators.iterator())
+				: Iterators.mergeSorted(iterators, comparator);
+		if (offset != null) {
+			Iterators.advance(merged, Ints.saturatedCast(offset));
+		}
+		if (limit != null) {
+			merged = Iterators.limit(merged, Ints.saturatedCast(limit));
+		}
+		return Lists.newArrayList(merged);
+	}
+
+	/**
+	 * Build the comparator that orders the results the same way as the ORDER BY
+	 * generated for the given sort.
+	 * 
+	 * @param sort
+	 * @return Null if there is no sort.
+	 */
+	static Comparator<SortableResult> buildSortComparator(List<Sort> sort) {
+		if (sort == null || sort.isEmpty()) {
+			return null;
+		}
+		Comparator<SortableResult> comparator = null;
+		for (Sort s : sort) {
+			ValidateArgument.required(s, "sort");
+			Comparator<SortableResult> next = getComparator(s.getField());
+			if (SortDirection.DESC.equals(s.getDirection())) {
+				next = next.reversed();
+			}
+			comparator = comparator == null ? next : comparator.thenComparing(next);
+		}
+		return comparator;
+	}
+
+	/**
+	 * Get the comparator for the given SortField.
+	 * 
+	 * @param field
+	 * @return
+	 */
+	static Comparator<SortableResult> getComparator(SortField field) {
+		ValidateArgument.required(field, "field");
+		switch (field) {
+		case fileName:
+			return Comparator.comparing((SortableResult r) -> r.getResult().getFileName(), DownloadListDAOImpl::compareCodePoints);
+		case projectName:
+			return Comparator.comparing((SortableResult r) -> r.getResult().getProjectName(), DownloadListDAOImpl::compareCodePoints);
+		case synId:
+			return Comparator.comparingLong(SortableResult::getEntityId);
+		case versionNumber:
+			return Comparator.comparingLong(SortableResult::getActualVersion);
+		case addedOn:
+			return Comparator.comparing((SortableResult r) -> r.getResult().getAddedOn());
+		case createdBy:
+			return Comparator.comparingLong(SortableResult::getCreatedBy);
+		case createdOn:
+			return Comparator.comparing((SortableResult r) -> r.getResult().getCreatedOn());
+		case fileSize:
+			return Comparator.comparing((SortableResult r) -> r.getResult().getFileSizeBytes());
+		case isEligibleForPackaging:
+			return Comparator.comparing((SortableResult r) -> r.getResult().getIsEligibleForPackaging());
+		default:
+			throw new IllegalArgumentException("Unknown SortField: " + field.name());
+		}
+	}
+
+	/**
+	 * Compare the given strings by code point, matching the binary collation of the
+	 * name columns.
+	 * 
+	 * @param one
+	 * @param two
+	 * @return
+	 */
+	static int compareCodePoints(String one, String two) {
+		int i = 0;
+		int j = 0;
+		while (i < one.length() && j < two.length()) {
+			int first = one.codePointAt(i);
+			int second = two.codePointAt(j);
+			if (first != second) {
+				return Integer.compare(first, second);
+			}
+			i += Character.charCount(first);
+			j += Character.charCount(second);
+		}
+		return Boolean.compare(i < one.length(), j < two.length());
 	}
 
 	/**
@@ -467,75 +587,16 @@ public class DownloadListDAOImpl implements DownloadListDAO {
 		}
 	}
 
-	void dropTemporaryTable(String tempTableName) {
-		String sql = String.format("DROP TEMPORARY TABLE IF EXISTS %S ", tempTableName);
-		jdbcTemplate.update(sql);
-	}
-	
-	/**
-	 * Create a temporary table containing all of the Entity IDs from the given
-	 * user's download list that the user can download.
-	 * 
-	 * @param accessCallback
-	 * @param userId
-	 * @param batchSize
-	 * @return The name of the temporary table.
-	 */
-	String createTemporaryTableOfAvailableFiles(EntityAccessCallback accessCallback, Long userId, int batchSize) {
-		String tableName = "U" + userId + "T";
-		String sql = String.format("CREATE TEMPORARY TABLE %S (`ENTITY_ID` BIGINT NOT NULL)", tableName);
-		jdbcTemplate.update(sql);
-
-		List<Long> batch = null;
-		long limit = batchSize;
-		long offset = 0L;
-		do {
-			batch = getBatchOfFileIdsFromUsersDownloadList(userId, limit, offset);
-			offset += limit;
-			if (batch.isEmpty()) {
-				break;
-			}
-			// Determine the sub-set that the user can actually download.
-			List<Long> canDownload = accessCallback.filter(batch);
-			// Add the sub-set to the temporary table.
-			addBatchOfEntityIdsToTempTable(canDownload.toArray(new Long[canDownload.size()]), tableName);
-		} while (batch.size() == batchSize);
-
-		return tableName;
-	}
-
-	
-	@WriteTransaction
 	@Override
 	public List<Long> getAvailableFilesFromDownloadList(EntityAccessCallback accessCallback, Long userId,
 			int batchSize) {
-		String tempTableName = createTemporaryTableOfAvailableFiles(accessCallback, userId, batchSize);
-		return jdbcTemplate.queryForList("SELECT ENTITY_ID FROM " + tempTableName + " ORDER BY ENTITY_ID ASC",
-				Long.class);
-	}
-
-	/**
-	 * Helper to add the given batch of entity IDs to a temporary table.
-	 * 
-	 * @param entityIdsToAdd
-	 * @param tableName
-	 */
-	void addBatchOfEntityIdsToTempTable(Long[] entityIdsToAdd, String tableName) {
-		if (entityIdsToAdd.length < 1) {
-			return;
-		}
-		String sql = String.format("INSERT INTO %S (ENTITY_ID) VALUES (?)", tableName);
-		jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
-			@Override
-			public void setValues(PreparedStatement ps, int i) throws SQLException {
-				ps.setLong(1, entityIdsToAdd[i]);
-			}
-
-			@Override
-			public int getBatchSize() {
-				return entityIdsToAdd.length;
-			}
+		List<Long> availableIds = new ArrayList<>();
+		forEachBatchOfFileIds(userId, batchSize, (Map<Long, Long> batch) -> {
+			// Determine the sub-set that the user can actually download.
+			availableIds.addAll(accessCallback.filter(new ArrayList<>(batch.keySet())));
 		});
+		Collections.sort(availableIds);
+		return availableIds;
 	}
 
 	@Override
@@ -562,61 +623,87 @@ public class DownloadListDAOImpl implements DownloadListDAO {
 				.collect(Collectors.toList());
 	}
 
-	@WriteTransaction
 	@Override
 	public FilesStatisticsResponse getListStatistics(EntityAccessCallback createAccessCallback, Long userId) {
 		/*
-		 * The first step is to create a temporary table containing all of the entity
-		 * IDs from the user's download list that the user can download.
+		 * The first step is to gather all of the entity IDs from the user's download
+		 * list that the user can download.
 		 */
-		String tempTableName = createTemporaryTableOfAvailableFiles(createAccessCallback, userId, BATCH_SIZE);
-		try {
-			String sql = String.format(DOWNLOAD_LIST_STATISTICS_TEMPLATE, tempTableName);
+		List<Long> availableIds = getAvailableFilesFromDownloadList(createAccessCallback, userId, BATCH_SIZE);
+		FilesStatisticsResponse stats = new FilesStatisticsResponse();
+		stats.setTotalNumberOfFiles(getTotalNumberOfFilesOnDownloadList(userId));
+		stats.setNumberOfFilesAvailableForDownload(0L);
+		stats.setNumberOfFilesAvailableForDownloadAndEligibleForPackaging(0L);
+		stats.setSumOfFileSizesAvailableForDownload(0L);
+		for (List<Long> chunk : Lists.partition(availableIds, QUERY_CHUNK_SIZE)) {
 			MapSqlParameterSource params = new MapSqlParameterSource();
+			params.addValue("entityIds", chunk);
 			params.addValue("principalId", userId);
 			params.addValue("maxEligibleSize", FileConstants.MAX_FILE_SIZE_ELIGIBLE_FOR_PACKAGING);
-			return namedJdbcTemplate.queryForObject(sql, params,STATS_MAPPER);
-		} finally {
-			dropTemporaryTable(tempTableName);
+			FilesStatisticsResponse chunkStats = namedJdbcTemplate.queryForObject(DOWNLOAD_LIST_STATISTICS_TEMPLATE, params, STATS_MAPPER);
+			stats.setNumberOfFilesAvailableForDownload(stats.getNumberOfFilesAvailableForDownload() + chunkStats.getNumberOfFilesAvailableForDownload());
+			stats.setNumberOfFilesAvailableForDownloadAndEligibleForPackaging(
+					stats.getNumberOfFilesAvailableForDownloadAndEligibleForPackaging() + chunkStats.getNumberOfFilesAvailableForDownloadAndEligibleForPackaging());
+			stats.setSumOfFileSizesAvailableForDownload(stats.getSumOfFileSizesAvailableForDownload() + chunkStats.getSumOfFileSizesAvailableForDownload());
 		}
+		stats.setNumberOfFilesRequiringAction(
+				stats.getTotalNumberOfFiles() - stats.getNumberOfFilesAvailableForDownload());
+		return stats;
+	}
+	
+	/**
+	 * Stream the distinct entity IDs from the user's download list in ascending
+	 * order, one batch at a time. Each batch starts after the last entity ID of the
+	 * previous batch.
+	 * 
+	 * @param userId
+	 * @param batchSize
+	 * @param consumer  Receives each batch, mapping each entity ID to the number of
+	 *                  items on the user's download list for that entity
+	 */
+	void forEachBatchOfFileIds(Long userId, long batchSize, Consumer<Map<Long, Long>> consumer) {
+		Map<Long, Long> batch = null;
+		long lastEntityId = -1L;
+		do {
+			batch = getBatchOfFileIdsFromUsersDownloadList(userId, lastEntityId, batchSize);
+			if (batch.isEmpty()) {
+				break;
+			}
+			consumer.accept(batch);
+			lastEntityId = Iterables.getLast(batch.keySet());
+		} while (batch.size() == batchSize);
 	}
 	
 	/**
 	 * Get a batch of file IDs from the user's download list.
 	 * @param userId
+	 * @param afterEntityId Only entity IDs greater than this ID are included
 	 * @param limit
-	 * @param offset
-	 * @return
+	 * @return Each entity ID, in ascending order, mapped to the number of items on the list for that entity
 	 */
-	List<Long> getBatchOfFileIdsFromUsersDownloadList(Long userId, long limit, long offset) {
-		// Gather a single batch of distinct entity IDs from the user's download list
-		return jdbcTemplate.queryForList("SELECT DISTINCT " + COL_DOWNLOAD_LIST_ITEM_V2_ENTITY_ID + " FROM "
-				+ TABLE_DOWNLOAD_LIST_ITEM_V2 + " WHERE " + COL_DOWNLOAD_LIST_ITEM_V2_PRINCIPAL_ID + " = ? ORDER BY "
-				+ COL_DOWNLOAD_LIST_ITEM_V2_ENTITY_ID
-				+ " LIMIT ? OFFSET ?", Long.class, userId, limit, offset);
+	Map<Long, Long> getBatchOfFileIdsFromUsersDownloadList(Long userId, long afterEntityId, long limit) {
+		Map<Long, Long> batch = new LinkedHashMap<>();
+		jdbcTemplate.query("SELECT " + COL_DOWNLOAD_LIST_ITEM_V2_ENTITY_ID + ", COUNT(*) FROM "
+				+ TABLE_DOWNLOAD_LIST_ITEM_V2 + " WHERE " + COL_DOWNLOAD_LIST_ITEM_V2_PRINCIPAL_ID + " = ? AND "
+				+ COL_DOWNLOAD_LIST_ITEM_V2_ENTITY_ID + " > ? GROUP BY " + COL_DOWNLOAD_LIST_ITEM_V2_ENTITY_ID
+				+ " ORDER BY " + COL_DOWNLOAD_LIST_ITEM_V2_ENTITY_ID + " LIMIT ?", (ResultSet rs) -> {
+					batch.put(rs.getLong(1), rs.getLong(2));
+				}, userId, afterEntityId, limit);
+		return batch;
 	}
 
-	@WriteTransaction
 	@Override
 	public List<ActionRequiredCount> getActionsRequiredFromDownloadList(EntityActionRequiredCallback callback,
 			Long userId, Long limit, Long offset) {
 		/*
-		 * Build a temp table of all actions the user must take to gain access to files on their download list.
+		 * Each action is counted once for each item on the user's download list that requires it.
 		 */
-		FilesBatchProvider filesProvider  = (batchLimit, batchOffset) -> getBatchOfFileIdsFromUsersDownloadList(userId, batchLimit, batchOffset);
-		
-		String tempTableName = actionsRequiredDao.createActionsRequiredTable(userId, BATCH_SIZE, filesProvider, callback);
-		
-		try {
-			String sql = String.format(DOWNLOAD_LIST_ACTION_REQUIRED_TEMPLATE, tempTableName);
-			MapSqlParameterSource params = new MapSqlParameterSource();
-			params.addValue("principalId", userId);
-			params.addValue("limit", limit);
-			params.addValue("offset", offset);
-			return namedJdbcTemplate.query(sql, params, ActionsRequiredDao.ACTION_MAPPER);
-		} finally {
-			actionsRequiredDao.dropActionsRequiredTable(userId);
-		}
+		Map<Action, Long> counts = new LinkedHashMap<>();
+		forEachBatchOfFileIds(userId, BATCH_SIZE, (Map<Long, Long> itemCounts) -> {
+			List<FileActionRequired> actions = callback.filter(new ArrayList<>(itemCounts.keySet()));
+			ActionsRequiredDao.addActionsRequired(counts, actions, (Long fileId) -> itemCounts.getOrDefault(fileId, 0L));
+		});
+		return ActionsRequiredDao.getPageOfActionsRequired(counts, limit, offset);
 	}
 
 	@WriteTransaction
@@ -683,4 +770,39 @@ public class DownloadListDAOImpl implements DownloadListDAO {
 		return (long)IntStream.of(updates).sum();
 	}
 
+	/**
+	 * A result along with the values of the sort columns that are not part of the
+	 * result.
+	 */
+	static final class SortableResult {
+
+		private final DownloadListItemResult result;
+		private final long entityId;
+		private final long actualVersion;
+		private final long createdBy;
+
+		SortableResult(DownloadListItemResult result, long entityId, long actualVersion, long createdBy) {
+			this.result = result;
+			this.entityId = entityId;
+			this.actualVersion = actualVersion;
+			this.createdBy = createdBy;
+		}
+
+		DownloadListItemResult getResult() {
+			return result;
+		}
+
+		long getEntityId() {
+			return entityId;
+		}
+
+		long getActualVersion() {
+			return actualVersion;
+		}
+
+		long getCreatedBy() {
+			return createdBy;
+		}
+	}
+
 }
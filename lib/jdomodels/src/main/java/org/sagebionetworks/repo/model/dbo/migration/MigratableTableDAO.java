@@ -152,6 +152,26 @@ public interface MigratableTableDAO extends MigrationTypeProvider {
 	 * @return
 	 */
 	public List<RangeChecksum> calculateBatchChecksums(BatchChecksumRequest request);
+
+	/**
+	 * Calculate a batch of checksums for the given type and ID range, reusing the
+	 * checksums stored by a previous call with the same batch size and salt. Only
+	 * the bins without a stored checksum are scanned, and the checksums of the
+	 * bins that are fully within the requested range are stored for the next
+	 * call. The stored checksums of a bin are removed when its rows are written
+	 * with {@link #createOrUpdate(MigrationType, List)} or
+	 * {@link #deleteByRange(TypeData, long, long)}, so this should only be used
+	 * while migration is the only writer of the stack.
+	 * 
+	 * @param request
+	 * @return
+	 */
+	public List<RangeChecksum> calculateBatchChecksumsIncrementally(BatchChecksumRequest request);
+
+	/**
+	 * Remove all of the stored batch checksums.
+	 */
+	public void clearStoredBatchChecksums();
 	
 	/**
 	 * Get the type data for the given migration type.
@@ -1,7 +1,20 @@
 package org.sagebionetworks.repo.model.dbo.migration;
 
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_BATCH_SIZE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_BIN_NUMBER;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_CHECKSUM;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_COUNT;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_MAX_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_MIN_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_RANGE_END;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_RANGE_START;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_SALT;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_TYPE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_MIGRATION_RANGE_CHECKSUM;
+
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -10,6 +23,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.Callable;
 import java.util.function.Function;
 
@@ -67,6 +81,38 @@ public class MigratableTableDAOImpl implements MigratableTableDAO {
 	private static final String SET_FOREIGN_KEY_CHECKS = "SET FOREIGN_KEY_CHECKS = ?";
 	private static final String SET_UNIQUE_KEY_CHECKS = "SET UNIQUE_CHECKS = ?";
 
+	private static final String SQL_SELECT_STORED_BATCH_CHECKSUMS = "SELECT " + COL_MIGRATION_RANGE_CHECKSUM_BIN_NUMBER + ", "
+			+ COL_MIGRATION_RANGE_CHECKSUM_COUNT + ", " + COL_MIGRATION_RANGE_CHECKSUM_MIN_ID + ", " + COL_MIGRATION_RANGE_CHECKSUM_MAX_ID + ", "
+			+ COL_MIGRATION_RANGE_CHECKSUM_CHECKSUM
+			+ " FROM " + TABLE_MIGRATION_RANGE_CHECKSUM
+			+ " WHERE " + COL_MIGRATION_RANGE_CHECKSUM_TYPE + " = ? AND " + COL_MIGRATION_RANGE_CHECKSUM_BATCH_SIZE + " = ? AND "
+			+ COL_MIGRATION_RANGE_CHECKSUM_SALT + " = ? AND " + COL_MIGRATION_RANGE_CHECKSUM_BIN_NUMBER + " BETWEEN ? AND ?"
+			+ " ORDER BY " + COL_MIGRATION_RANGE_CHECKSUM_BIN_NUMBER;
+
+	private static final String SQL_INSERT_STORED_BATCH_CHECKSUM = "INSERT INTO " + TABLE_MIGRATION_RANGE_CHECKSUM + " ("
+			+ COL_MIGRATION_RANGE_CHECKSUM_TYPE + ", " + COL_MIGRATION_RANGE_CHECKSUM_BATCH_SIZE + ", " + COL_MIGRATION_RANGE_CHECKSUM_SALT + ", "
+			+ COL_MIGRATION_RANGE_CHECKSUM_BIN_NUMBER + ", " + COL_MIGRATION_RANGE_CHECKSUM_RANGE_START + ", " + COL_MIGRATION_RANGE_CHECKSUM_RANGE_END + ", "
+			+ COL_MIGRATION_RANGE_CHECKSUM_COUNT + ", " + COL_MIGRATION_RANGE_CHECKSUM_MIN_ID + ", " + COL_MIGRATION_RANGE_CHECKSUM_MAX_ID + ", "
+			+ COL_MIGRATION_RANGE_CHECKSUM_CHECKSUM + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+			+ " ON DUPLICATE KEY UPDATE " + COL_MIGRATION_RANGE_CHECKSUM_COUNT + " = ?, " + COL_MIGRATION_RANGE_CHECKSUM_MIN_ID + " = ?, "
+			+ COL_MIGRATION_RANGE_CHECKSUM_MAX_ID + " = ?, " + COL_MIGRATION_RANGE_CHECKSUM_CHECKSUM + " = ?";
+
+	private static final String SQL_DELETE_STORED_BATCH_CHECKSUMS_FOR_RANGE = "DELETE FROM " + TABLE_MIGRATION_RANGE_CHECKSUM
+			+ " WHERE " + COL_MIGRATION_RANGE_CHECKSUM_TYPE + " = ? AND " + COL_MIGRATION_RANGE_CHECKSUM_RANGE_START + " <= ? AND "
+			+ COL_MIGRATION_RANGE_CHECKSUM_RANGE_END + " >= ?";
+
+	private static final String SQL_DELETE_ALL_STORED_BATCH_CHECKSUMS = "DELETE FROM " + TABLE_MIGRATION_RANGE_CHECKSUM;
+
+	private static final RowMapper<RangeChecksum> RANGE_CHECKSUM_MAPPER = (ResultSet rs, int rowNum) -> {
+		RangeChecksum result = new RangeChecksum();
+		result.setBinNumber(rs.getLong(1));
+		result.setCount(rs.getLong(2));
+		result.setMinimumId(rs.getLong(3));
+		result.setMaximumId(rs.getLong(4));
+		result.setChecksum(rs.getString(5));
+		return result;
+	};
+
 	private static UnmodifiableXStream TABLE_NAME_ALIAS_X_STREAM;
 	private static UnmodifiableXStream MIGRATION_TYPE_NAME_ALIAS_X_STREAM;
 
@@ -579,9 +625,11 @@ public class MigratableTableDAOImpl implements MigratableTableDAO {
 			return new LinkedList<>();
 		}
 		// Foreign Keys must be ignored for this operation.
-		return this.runWithKeyChecksIgnored(() -> {
+		List<Long> createOrUpdateIds = this.runWithKeyChecksIgnored(() -> {
 			return createOrUpdateInternal(type, batch);
 		});
+		clearStoredBatchChecksums(type, Collections.min(createOrUpdateIds), Collections.max(createOrUpdateIds));
+		return createOrUpdateIds;
 	}
 
 	// Exposed for testing only
@@ -620,6 +668,7 @@ public class MigratableTableDAOImpl implements MigratableTableDAO {
 	@MigrationWriteTransaction
 	public int deleteByRange(final TypeData type, final long minimumId, final long maximumId) {
 		ValidateArgument.required(type,"MigrationType");
+		clearStoredBatchChecksums(type.getMigrationType(), minimumId, maximumId);
 		// Foreign Keys must be ignored for this operation.
 		return this.runWithKeyChecksIgnored(() -> {
 			String deleteSQLTemplate = this.deleteByRangeMap.get(type.getMigrationType());
@@ -677,28 +726,131 @@ public class MigratableTableDAOImpl implements MigratableTableDAO {
 
 	@Override
 	public List<RangeChecksum> calculateBatchChecksums(BatchChecksumRequest request) {
+		validateBatchChecksumRequest(request);
+		return calculateBatchChecksums(request.getMigrationType(), request.getBatchSize(), request.getSalt(),
+				request.getMinimumId(), request.getMaximumId());
+	}
+
+	@Override
+	@MigrationWriteTransaction
+	public List<RangeChecksum> calculateBatchChecksumsIncrementally(BatchChecksumRequest request) {
+		validateBatchChecksumRequest(request);
+		ValidateArgument.requirement(request.getBatchSize() > 0, "request.batchSize must be greater than zero.");
+		MigrationType type = request.getMigrationType();
+		long batchSize = request.getBatchSize();
+		long minimumId = request.getMinimumId();
+		long maximumId = request.getMaximumId();
+		// Only the bins that are fully within the range can be reused or stored.
+		long firstFullBin = getFirstFullBin(minimumId, batchSize);
+		long lastFullBin = getLastFullBin(maximumId, batchSize);
+		Map<Long, RangeChecksum> checksums = new TreeMap<>();
+		jdbcTemplate.query(SQL_SELECT_STORED_BATCH_CHECKSUMS, RANGE_CHECKSUM_MAPPER, type.name(), batchSize,
+				request.getSalt(), firstFullBin, lastFullBin).forEach((RangeChecksum stored) -> {
+					checksums.put(stored.getBinNumber(), stored);
+				});
+
+		List<RangeChecksum> toStore = new ArrayList<>();
+		for (IdRange range : getRangesWithoutStoredChecksums(minimumId, maximumId, batchSize, checksums.keySet())) {
+			for (RangeChecksum calculated : calculateBatchChecksums(type, batchSize, request.getSalt(),
+					range.getMinimumId(), range.getMaximumId())) {
+				checksums.put(calculated.getBinNumber(), calculated);
+				if (calculated.getBinNumber() >= firstFullBin && calculated.getBinNumber() <= lastFullBin) {
+					toStore.add(calculated);
+				}
+			}
+		}
+
+		if (!toStore.isEmpty()) {
+			List<Object[]> batchArgs = new ArrayList<>(toStore.size());
+			for (RangeChecksum checksum : toStore) {
+				long rangeStart = checksum.getBinNumber() * batchSize;
+				batchArgs.add(new Object[] { type.name(), batchSize, request.getSalt(), checksum.getBinNumber(),
+						rangeStart, rangeStart + batchSize - 1, checksum.getCount(), checksum.getMinimumId(),
+						checksum.getMaximumId(), checksum.getChecksum(), checksum.getCount(), checksum.getMinimumId(),
+						checksum.getMaximumId(), checksum.getChecksum() });
+			}
+			jdbcTemplate.batchUpdate(SQL_INSERT_STORED_BATCH_CHECKSUM, batchArgs);
+		}
+		return new ArrayList<>(checksums.values());
+	}
+
+	@Override
+	@MigrationWriteTransaction
+	public void clearStoredBatchChecksums() {
+		jdbcTemplate.update(SQL_DELETE_ALL_STORED_BATCH_CHECKSUMS);
+	}
+
+	/**
+	 * Remove the stored checksums of any bin of the given type that overlaps the
+	 * given ID range.
+	 * 
+	 * @param type
+	 * @param minimumId
+	 * @param maximumId
+	 */
+	void clearStoredBatchChecksums(MigrationType type, long minimumId, long maximumId) {
+		jdbcTemplate.update(SQL_DELETE_STORED_BATCH_CHECKSUMS_FOR_RANGE, type.name(), maximumId, minimumId);
+	}
+
+	private List<RangeChecksum> calculateBatchChecksums(MigrationType type, long batchSize, String salt, long minimumId, long maximumId) {
+		// Lookup the SQL for this type
+		String sql = this.batchChecksumSqlMap.get(type);
+		return this.jdbcTemplate.query(sql, RANGE_CHECKSUM_MAPPER, batchSize, salt, salt, minimumId, maximumId);
+	}
+
+	private static void validateBatchChecksumRequest(BatchChecksumRequest request) {
 		ValidateArgument.required(request, "request");
 		ValidateArgument.required(request.getMigrationType(), "request.migrationType");
 		ValidateArgument.required(request.getMinimumId(), "request.minimumId");
 		ValidateArgument.required(request.getMaximumId(), "request.maximumId");
 		ValidateArgument.required(request.getBatchSize(), "request.batchSize");
 		ValidateArgument.required(request.getSalt(), "request.salt");
-		// Lookup the SQL for this type
-		String sql = this.batchChecksumSqlMap.get(request.getMigrationType());
-		return this.jdbcTemplate.query(sql, new RowMapper<RangeChecksum>() {
+	}
 
-			@Override
-			public RangeChecksum mapRow(ResultSet rs, int rowNum) throws SQLException {
-				RangeChecksum result = new RangeChecksum();
-				result.setBinNumber(rs.getLong(1));
-				result.setCount(rs.getLong(2));
-				result.setMinimumId(rs.getLong(3));
-				result.setMaximumId(rs.getLong(4));
-				result.setChecksum(rs.getString(5));
-				return result;
+	/**
+	 * @param minimumId
+	 * @param batchSize
+	 * @return The first bin that starts at or after the given ID.
+	 */
+	static long getFirstFullBin(long minimumId, long batchSize) {
+		return (minimumId + batchSize - 1) / batchSize;
+	}
+
+	/**
+	 * @param maximumId
+	 * @param batchSize
+	 * @return The last bin that ends at or before the given ID.
+	 */
+	static long getLastFullBin(long maximumId, long batchSize) {
+		return (maximumId + 1) / batchSize - 1;
+	}
+
+	/**
+	 * Calculate the ID ranges that must be scanned to cover the given range
+	 * without the given bins. Each gap between two stored bins is scanned with a
+	 * single range.
+	 * 
+	 * @param minimumId
+	 * @param maximumId
+	 * @param batchSize
+	 * @param storedBins The bins with a stored checksum, in ascending order. Each
+	 *                   bin must be fully within the given range.
+	 * @return
+	 */
+	static List<IdRange> getRangesWithoutStoredChecksums(long minimumId, long maximumId, long batchSize, Iterable<Long> storedBins) {
+		List<IdRange> ranges = new ArrayList<>();
+		long start = minimumId;
+		for (Long bin : storedBins) {
+			long binStart = bin * batchSize;
+			if (binStart > start) {
+				ranges.add(new IdRange().setMinimumId(start).setMaximumId(binStart - 1));
 			}
-		}, request.getBatchSize(), request.getSalt(), request.getSalt(), request.getMinimumId(),
-				request.getMaximumId());
+			start = binStart + batchSize;
+		}
+		if (start <= maximumId) {
+			ranges.add(new IdRange().setMinimumId(start).setMaximumId(maximumId));
+		}
+		return ranges;
 	}
 
 	@Override
@@ -0,0 +1,210 @@
+package org.sagebionetworks.repo.model.dbo.persistence;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_BATCH_SIZE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_BIN_NUMBER;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_CHECKSUM;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_COUNT;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_MAX_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_MIN_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_RANGE_END;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_RANGE_START;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_SALT;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_MIGRATION_RANGE_CHECKSUM_TYPE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.DDL_MIGRATION_RANGE_CHECKSUM;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_MIGRATION_RANGE_CHECKSUM;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.FieldColumn;
+import org.sagebionetworks.repo.model.dbo.TableMapping;
+
+/**
+ * The stored checksum of a single bin of a migration type, as computed for a
+ * given batch size and salt. The checksums are not migrated, they are removed
+ * whenever migration writes to the rows of the bin.
+ */
+public class DBOMigrationRangeChecksum implements DatabaseObject<DBOMigrationRangeChecksum> {
+
+	private static final FieldColumn[] FIELDS = new FieldColumn[] {
+		new FieldColumn("migrationType", COL_MIGRATION_RANGE_CHECKSUM_TYPE, true),
+		new FieldColumn("batchSize", COL_MIGRATION_RANGE_CHECKSUM_BATCH_SIZE, true),
+		new FieldColumn("salt", COL_MIGRATION_RANGE_CHECKSUM_SALT, true),
+		new FieldColumn("binNumber", COL_MIGRATION_RANGE_CHECKSUM_BIN_NUMBER, true),
+		new FieldColumn("rangeStart", COL_MIGRATION_RANGE_CHECKSUM_RANGE_START),
+		new FieldColumn("rangeEnd", COL_MIGRATION_RANGE_CHECKSUM_RANGE_END),
+		new FieldColumn("count", COL_MIGRATION_RANGE_CHECKSUM_COUNT),
+		new FieldColumn("minimumId", COL_MIGRATION_RANGE_CHECKSUM_MIN_ID),
+		new FieldColumn("maximumId", COL_MIGRATION_RANGE_CHECKSUM_MAX_ID),
+		new FieldColumn("checksum", COL_MIGRATION_RANGE_CHECKSUM_CHECKSUM)
+	};
+
+	private static final TableMapping<DBOMigrationRangeChecksum> TABLE_MAPPER = new TableMapping<DBOMigrationRangeChecksum>() {
+
+		@Override
+		public Class<? extends DBOMigrationRangeChecksum> getDBOClass() {
+			return DBOMigrationRangeChecksum.class;
+		}
+
+		@Override
+		public DBOMigrationRangeChecksum mapRow(ResultSet rs, int rowNum) throws SQLException {
+			DBOMigrationRangeChecksum dbo = new DBOMigrationRangeChecksum();
+			dbo.setMigrationType(rs.getString(COL_MIGRATION_RANGE_CHECKSUM_TYPE));
+			dbo.setBatchSize(rs.getLong(COL_MIGRATION_RANGE_CHECKSUM_BATCH_SIZE));
+			dbo.setSalt(rs.getString(COL_MIGRATION_RANGE_CHECKSUM_SALT));
+			dbo.setBinNumber(rs.getLong(COL_MIGRATION_RANGE_CHECKSUM_BIN_NUMBER));
+			dbo.setRangeStart(rs.getLong(COL_MIGRATION_RANGE_CHECKSUM_RANGE_START));
+			dbo.setRangeEnd(rs.getLong(COL_MIGRATION_RANGE_CHECKSUM_RANGE_END));
+			dbo.setCount(rs.getLong(COL_MIGRATION_RANGE_CHECKSUM_COUNT));
+			dbo.setMinimumId(rs.getLong(COL_MIGRATION_RANGE_CHECKSUM_MIN_ID));
+			dbo.setMaximumId(rs.getLong(COL_MIGRATION_RANGE_CHECKSUM_MAX_ID));
+			dbo.setChecksum(rs.getString(COL_MIGRATION_RANGE_CHECKSUM_CHECKSUM));
+			return dbo;
+		}
+
+		@Override
+		public String getTableName() {
+			return TABLE_MIGRATION_RANGE_CHECKSUM;
+		}
+
+		@Override
+		public String getDDLFileName() {
+			return DDL_MIGRATION_RANGE_CHECKSUM;
+		}
+
+		@Override
+		public FieldColumn[] getFieldColumns() {
+			return FIELDS;
+		}
+
+	};
+
+	private String migrationType;
+	private Long batchSize;
+	private String salt;
+	private Long binNumber;
+	private Long rangeStart;
+	private Long rangeEnd;
+	private Long count;
+	private Long minimumId;
+	private Long maximumId;
+	private String checksum;
+
+	public String getMigrationType() {
+		return migrationType;
+	}
+
+	public void setMigrationType(String migrationType) {
+		this.migrationType = migrationType;
+	}
+
+	public Long getBatchSize() {
+		return batchSize;
+	}
+
+	public void setBatchSize(Long batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public String getSalt() {
+		return salt;
+	}
+
+	public void setSalt(String salt) {
+		this.salt = salt;
+	}
+
+	public Long getBinNumber() {
+		return binNumber;
+	}
+
+	public void setBinNumber(Long binNumber) {
+		this.binNumber = binNumber;
+	}
+
+	public Long getRangeStart() {
+		return rangeStart;
+	}
+
+	public void setRangeStart(Long rangeStart) {
+		this.rangeStart = rangeStart;
+	}
+
+	public Long getRangeEnd() {
+		return rangeEnd;
+	}
+
+	public void setRangeEnd(Long rangeEnd) {
+		this.rangeEnd = rangeEnd;
+	}
+
+	public Long getCount() {
+		return count;
+	}
+
+	public void setCount(Long count) {
+		this.count = count;
+	}
+
+	public Long getMinimumId() {
+		return minimumId;
+	}
+
+	public void setMinimumId(Long minimumId) {
+		this.minimumId = minimumId;
+	}
+
+	public Long getMaximumId() {
+		return maximumId;
+	}
+
+	public void setMaximumId(Long maximumId) {
+		this.maximumId = maximumId;
+	}
+
+	public String getChecksum() {
+		return checksum;
+	}
+
+	public void setChecksum(String checksum) {
+		this.checksum = checksum;
+	}
+
+	@Override
+	public TableMapping<DBOMigrationRangeChecksum> getTableMapping() {
+		return TABLE_MAPPER;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(batchSize, binNumber, checksum, count, maximumId, migrationType, minimumId, rangeEnd, rangeStart, salt);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		DBOMigrationRangeChecksum other = (DBOMigrationRangeChecksum) obj;
+		return Objects.equals(batchSize, other.batchSize) && Objects.equals(binNumber, other.binNumber)
+				&& Objects.equals(checksum, other.checksum) && Objects.equals(count, other.count)
+				&& Objects.equals(maximumId, other.maximumId) && Objects.equals(migrationType, other.migrationType)
+				&& Objects.equals(minimumId, other.minimumId) && Objects.equals(rangeEnd, other.rangeEnd)
+				&& Objects.equals(rangeStart, other.rangeStart) && Objects.equals(salt, other.salt);
+	}
+
+	@Override
+	public String toString() {
+		return "DBOMigrationRangeChecksum [migrationType=" + migrationType + ", batchSize=" + batchSize + ", binNumber="
+				+ binNumber + ", count=" + count + ", checksum=" + checksum + "]";
+	}
+
+}
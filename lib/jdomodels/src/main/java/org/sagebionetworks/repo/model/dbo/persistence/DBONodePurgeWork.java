@@ -0,0 +1,122 @@
+package org.sagebionetworks.repo.model.dbo.persistence;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_NODE_PURGE_WORK_DISTANCE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_NODE_PURGE_WORK_NODE_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_NODE_PURGE_WORK_ROOT_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.DDL_NODE_PURGE_WORK;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_NODE_PURGE_WORK;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.FieldColumn;
+import org.sagebionetworks.repo.model.dbo.TableMapping;
+
+/**
+ * A node in the sub-tree of a node that is being purged, along with its
+ * distance from the root of the sub-tree. The sub-tree is enumerated once when
+ * the purge starts and each row is removed when its node is deleted, so an
+ * interrupted purge resumes from the remaining rows. The rows are not migrated.
+ */
+public class DBONodePurgeWork implements DatabaseObject<DBONodePurgeWork> {
+
+	private static final FieldColumn[] FIELDS = new FieldColumn[] {
+		new FieldColumn("rootId", COL_NODE_PURGE_WORK_ROOT_ID, true),
+		new FieldColumn("nodeId", COL_NODE_PURGE_WORK_NODE_ID, true),
+		new FieldColumn("distance", COL_NODE_PURGE_WORK_DISTANCE)
+	};
+
+	private static final TableMapping<DBONodePurgeWork> TABLE_MAPPER = new TableMapping<DBONodePurgeWork>() {
+
+		@Override
+		public Class<? extends DBONodePurgeWork> getDBOClass() {
+			return DBONodePurgeWork.class;
+		}
+
+		@Override
+		public DBONodePurgeWork mapRow(ResultSet rs, int rowNum) throws SQLException {
+			DBONodePurgeWork dbo = new DBONodePurgeWork();
+			dbo.setRootId(rs.getLong(COL_NODE_PURGE_WORK_ROOT_ID));
+			dbo.setNodeId(rs.getLong(COL_NODE_PURGE_WORK_NODE_ID));
+			dbo.setDistance(rs.getInt(COL_NODE_PURGE_WORK_DISTANCE));
+			return dbo;
+		}
+
+		@Override
+		public String getTableName() {
+			return TABLE_NODE_PURGE_WORK;
+		}
+
+		@Override
+		public String getDDLFileName() {
+			return DDL_NODE_PURGE_WORK;
+		}
+
+		@Override
+		public FieldColumn[] getFieldColumns() {
+			return FIELDS;
+		}
+
+	};
+
+	private Long rootId;
+	private Long nodeId;
+	private Integer distance;
+
+	public Long getRootId() {
+		return rootId;
+	}
+
+	public void setRootId(Long rootId) {
+		this.rootId = rootId;
+	}
+
+	public Long getNodeId() {
+		return nodeId;
+	}
+
+	public void setNodeId(Long nodeId) {
+		this.nodeId = nodeId;
+	}
+
+	public Integer getDistance() {
+		return distance;
+	}
+
+	public void setDistance(Integer distance) {
+		this.distance = distance;
+	}
+
+	@Override
+	public TableMapping<DBONodePurgeWork> getTableMapping() {
+		return TABLE_MAPPER;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(distance, nodeId, rootId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		DBONodePurgeWork other = (DBONodePurgeWork) obj;
+		return Objects.equals(distance, other.distance) && Objects.equals(nodeId, other.nodeId) && Objects.equals(rootId, other.rootId);
+	}
+
+	@Override
+	public String toString() {
+		return "DBONodePurgeWork [rootId=" + rootId + ", nodeId=" + nodeId + ", distance=" + distance + "]";
+	}
+
+}
@@ -0,0 +1,110 @@
+package org.sagebionetworks.repo.model.dbo.persistence.discussion;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_DISCUSSION_THREAD_VIEW_SKETCH_SKETCH;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_DISCUSSION_THREAD_VIEW_SKETCH_THREAD_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.DDL_DISCUSSION_THREAD_VIEW_SKETCH;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_DISCUSSION_THREAD_VIEW_SKETCH;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.FieldColumn;
+import org.sagebionetworks.repo.model.dbo.TableMapping;
+
+/**
+ * The HyperLogLog sketch of the users who viewed a thread. The sketches are not
+ * migrated, a missing sketch is rebuilt from the DISCUSSION_THREAD_VIEW table
+ * the first time the views of the thread are estimated.
+ */
+public class DBODiscussionThreadViewSketch implements DatabaseObject<DBODiscussionThreadViewSketch> {
+
+	private static final FieldColumn[] FIELDS = new FieldColumn[] {
+		new FieldColumn("threadId", COL_DISCUSSION_THREAD_VIEW_SKETCH_THREAD_ID, true),
+		new FieldColumn("sketch", COL_DISCUSSION_THREAD_VIEW_SKETCH_SKETCH)
+	};
+
+	private static final TableMapping<DBODiscussionThreadViewSketch> TABLE_MAPPER = new TableMapping<DBODiscussionThreadViewSketch>() {
+
+		@Override
+		public Class<? extends DBODiscussionThreadViewSketch> getDBOClass() {
+			return DBODiscussionThreadViewSketch.class;
+		}
+
+		@Override
+		public DBODiscussionThreadViewSketch mapRow(ResultSet rs, int rowNum) throws SQLException {
+			DBODiscussionThreadViewSketch dbo = new DBODiscussionThreadViewSketch();
+			dbo.setThreadId(rs.getLong(COL_DISCUSSION_THREAD_VIEW_SKETCH_THREAD_ID));
+			dbo.setSketch(rs.getBytes(COL_DISCUSSION_THREAD_VIEW_SKETCH_SKETCH));
+			return dbo;
+		}
+
+		@Override
+		public String getTableName() {
+			return TABLE_DISCUSSION_THREAD_VIEW_SKETCH;
+		}
+
+		@Override
+		public String getDDLFileName() {
+			return DDL_DISCUSSION_THREAD_VIEW_SKETCH;
+		}
+
+		@Override
+		public FieldColumn[] getFieldColumns() {
+			return FIELDS;
+		}
+
+	};
+
+	private Long threadId;
+	private byte[] sketch;
+
+	public Long getThreadId() {
+		return threadId;
+	}
+
+	public void setThreadId(Long threadId) {
+		this.threadId = threadId;
+	}
+
+	public byte[] getSketch() {
+		return sketch;
+	}
+
+	public void setSketch(byte[] sketch) {
+		this.sketch = sketch;
+	}
+
+	@Override
+	public TableMapping<DBODiscussionThreadViewSketch> getTableMapping() {
+		return TABLE_MAPPER;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(threadId, Arrays.hashCode(sketch));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		DBODiscussionThreadViewSketch other = (DBODiscussionThreadViewSketch) obj;
+		return Objects.equals(threadId, other.threadId) && Arrays.equals(sketch, other.sketch);
+	}
+
+	@Override
+	public String toString() {
+		return "DBODiscussionThreadViewSketch [threadId=" + threadId + "]";
+	}
+
+}
@@ -105,8 +105,24 @@ public interface PrincipalPrefixDAO {
 	Long countTeamMembersForPrefix(String prefix, Long teamId);
 
 	/**
-	 * Delete all data in the table.
+	 * Delete all data in the table and discard the in-memory index.
 	 */
 	public void truncateTable();
 
+	/**
+	 * Load the in-memory {@link PrincipalPrefixIndex} from the database,
+	 * replacing the current index. Once loaded, the prefix lookups are answered
+	 * from the index rather than the database.
+	 */
+	public void loadIndex();
+
+	/**
+	 * Reload the data of the given principals from the database into the
+	 * in-memory index. Principals that no longer exist are removed from the
+	 * index. Does nothing if the index is not loaded.
+	 * 
+	 * @param principalIds
+	 */
+	public void refreshIndex(Set<Long> principalIds);
+
 }
@@ -12,9 +12,16 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_PRINCI
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_TEAM;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_USER_GROUP;
 
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import org.sagebionetworks.repo.model.dbo.principal.PrincipalPrefixIndex.IndexedPrincipal;
 import org.sagebionetworks.repo.transactions.WriteTransaction;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -29,6 +36,7 @@ public class PrincipalPrefixDAOImpl implements PrincipalPrefixDAO {
 	private static final String SQL_PARAM_PATTERN = "pattern";
 	private static final String SQL_PARAM_LIMIT = "limit";
 	private static final String SQL_PARAM_OFFSET = "offset";
+	private static final String SQL_PARAM_PRINCIPAL_IDS = "principalIds";
 
 	private static final String SQL_LIST_TEAM_MEMBERS_FOR_PREFIX_CORE = "SELECT DISTINCT P."
 			+ COL_PRINCIPAL_PREFIX_PRINCIPAL_ID
@@ -113,6 +121,38 @@ public class PrincipalPrefixDAOImpl implements PrincipalPrefixDAO {
 
 	private static final String EMPTY = "";
 
+	/**
+	 * The number of rows fetched per query while loading the index.
+	 */
+	private static final int INDEX_PAGE_SIZE = 10_000;
+
+	private static final String SQL_SELECT_PRINCIPALS_PAGE = "SELECT " + COL_USER_GROUP_ID + ", " + COL_USER_GROUP_IS_INDIVIDUAL
+			+ " FROM " + TABLE_USER_GROUP + " WHERE " + COL_USER_GROUP_ID + " > ? ORDER BY " + COL_USER_GROUP_ID + " LIMIT ?";
+
+	private static final String SQL_SELECT_TEAMS = "SELECT " + COL_TEAM_ID + " FROM " + TABLE_TEAM;
+
+	private static final String SQL_SELECT_TOKENS_PAGE = "SELECT " + COL_PRINCIPAL_PREFIX_TOKEN + ", " + COL_PRINCIPAL_PREFIX_PRINCIPAL_ID
+			+ " FROM " + TABLE_PRINCIPAL_PREFIX
+			+ " WHERE " + COL_PRINCIPAL_PREFIX_TOKEN + " > ? OR (" + COL_PRINCIPAL_PREFIX_TOKEN + " = ? AND " + COL_PRINCIPAL_PREFIX_PRINCIPAL_ID + " > ?)"
+			+ " ORDER BY " + COL_PRINCIPAL_PREFIX_TOKEN + ", " + COL_PRINCIPAL_PREFIX_PRINCIPAL_ID + " LIMIT ?";
+
+	private static final String SQL_SELECT_TEAM_MEMBERS_PAGE = "SELECT M." + COL_GROUP_MEMBERS_GROUP_ID + ", M." + COL_GROUP_MEMBERS_MEMBER_ID
+			+ " FROM " + TABLE_GROUP_MEMBERS + " M JOIN " + TABLE_TEAM + " T ON M." + COL_GROUP_MEMBERS_GROUP_ID + " = T." + COL_TEAM_ID
+			+ " WHERE M." + COL_GROUP_MEMBERS_GROUP_ID + " > ? OR (M." + COL_GROUP_MEMBERS_GROUP_ID + " = ? AND M." + COL_GROUP_MEMBERS_MEMBER_ID + " > ?)"
+			+ " ORDER BY M." + COL_GROUP_MEMBERS_GROUP_ID + ", M." + COL_GROUP_MEMBERS_MEMBER_ID + " LIMIT ?";
+
+	private static final String SQL_SELECT_PRINCIPALS_BY_ID = "SELECT " + COL_USER_GROUP_ID + ", " + COL_USER_GROUP_IS_INDIVIDUAL
+			+ " FROM " + TABLE_USER_GROUP + " WHERE " + COL_USER_GROUP_ID + " IN (:" + SQL_PARAM_PRINCIPAL_IDS + ")";
+
+	private static final String SQL_SELECT_TEAMS_BY_ID = "SELECT " + COL_TEAM_ID + " FROM " + TABLE_TEAM
+			+ " WHERE " + COL_TEAM_ID + " IN (:" + SQL_PARAM_PRINCIPAL_IDS + ")";
+
+	private static final String SQL_SELECT_TOKENS_BY_PRINCIPAL_ID = "SELECT " + COL_PRINCIPAL_PREFIX_TOKEN + ", " + COL_PRINCIPAL_PREFIX_PRINCIPAL_ID
+			+ " FROM " + TABLE_PRINCIPAL_PREFIX + " WHERE " + COL_PRINCIPAL_PREFIX_PRINCIPAL_ID + " IN (:" + SQL_PARAM_PRINCIPAL_IDS + ")";
+
+	private static final String SQL_SELECT_TEAM_MEMBERS_BY_TEAM_ID = "SELECT " + COL_GROUP_MEMBERS_GROUP_ID + ", " + COL_GROUP_MEMBERS_MEMBER_ID
+			+ " FROM " + TABLE_GROUP_MEMBERS + " WHERE " + COL_GROUP_MEMBERS_GROUP_ID + " IN (:" + SQL_PARAM_PRINCIPAL_IDS + ")";
+
 	private static final String REG_EX_NON_ALPHA_NUMERIC = "[^a-z0-9]";
 
 	@Autowired
@@ -120,6 +160,12 @@ public class PrincipalPrefixDAOImpl implements PrincipalPrefixDAO {
 	@Autowired
 	private NamedParameterJdbcTemplate namedJdbcTemplate;
 
+	/**
+	 * Null until {@link #loadIndex()} is called, in which case the lookups are
+	 * answered by the database.
+	 */
+	private volatile PrincipalPrefixIndex index;
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -208,6 +254,10 @@ public class PrincipalPrefixDAOImpl implements PrincipalPrefixDAO {
 	public List<Long> listPrincipalsForPrefix(String prefix, Long limit,
 			Long offset) {
 		String processed = preProcessToken(prefix);
+		PrincipalPrefixIndex currentIndex = index;
+		if (currentIndex != null) {
+			return currentIndex.listPrincipalsForPrefix(processed, limit, offset);
+		}
 		return jdbcTemplate.queryForList(SQL_LIST_PRINCIPALS_FOR_PREFIX,
 				Long.class, processed + WILDCARD, limit, offset);
 	}
@@ -219,6 +269,10 @@ public class PrincipalPrefixDAOImpl implements PrincipalPrefixDAO {
 	@Override
 	public List<Long> listTeamsForPrefix(String prefix, Long limit, Long offset) {
 		String processed = preProcessToken(prefix);
+		PrincipalPrefixIndex currentIndex = index;
+		if (currentIndex != null) {
+			return currentIndex.listTeamsForPrefix(processed, limit, offset);
+		}
 		return jdbcTemplate.queryForList(SQL_LIST_TEAMS_FOR_PREFIX,
 				Long.class, processed + WILDCARD, limit, offset);
 	}
@@ -231,6 +285,10 @@ public class PrincipalPrefixDAOImpl implements PrincipalPrefixDAO {
 	public List<Long> listPrincipalsForPrefix(String prefix,
 			boolean isIndividual, Long limit, Long offset) {
 		String processed = preProcessToken(prefix);
+		PrincipalPrefixIndex currentIndex = index;
+		if (currentIndex != null) {
+			return currentIndex.listPrincipalsForPrefix(processed, isIndividual, limit, offset);
+		}
 		return jdbcTemplate.queryForList(SQL_LIST_PRINCIPALS_FOR_PREFIX_BY_TYPE,
 				Long.class, isIndividual, processed + WILDCARD, limit, offset);
 	}
@@ -246,6 +304,10 @@ public class PrincipalPrefixDAOImpl implements PrincipalPrefixDAO {
 	public List<Long> listTeamMembersForPrefix(String prefix, Long teamId,
 			Long limit, Long offset) {
 		String processed = preProcessToken(prefix);
+		PrincipalPrefixIndex currentIndex = index;
+		if (currentIndex != null) {
+			return currentIndex.listTeamMembersForPrefix(processed, teamId, null, null, limit, offset);
+		}
 		String sql = SQL_LIST_TEAM_MEMBERS_FOR_PREFIX_CORE + " " + SQL_PAGINATED;
 		MapSqlParameterSource param = new MapSqlParameterSource();
 		param.addValue(SQL_PARAM_PATTERN, processed + WILDCARD);
@@ -262,6 +324,10 @@ public class PrincipalPrefixDAOImpl implements PrincipalPrefixDAO {
 		MapSqlParameterSource param = new MapSqlParameterSource();
 
 		String processed = preProcessToken(prefix);
+		PrincipalPrefixIndex currentIndex = index;
+		if (currentIndex != null) {
+			return currentIndex.listTeamMembersForPrefix(processed, teamId, include, exclude, limit, offset);
+		}
 
 		sql.append(SQL_LIST_TEAM_MEMBERS_FOR_PREFIX_CORE);
 		param.addValue(SQL_PARAM_PATTERN, processed + WILDCARD);
@@ -292,6 +358,10 @@ public class PrincipalPrefixDAOImpl implements PrincipalPrefixDAO {
 	@Override
 	public Long countTeamMembersForPrefix(String prefix, Long teamId) {
 		String processed = preProcessToken(prefix);
+		PrincipalPrefixIndex currentIndex = index;
+		if (currentIndex != null) {
+			return currentIndex.countTeamMembersForPrefix(processed, teamId);
+		}
 		return jdbcTemplate.queryForObject(SQL_COUNT_TEAM_MEMBERS_FOR_PREFIX, Long.class, teamId, processed + WILDCARD);
 	}
 
@@ -305,6 +375,110 @@ public class PrincipalPrefixDAOImpl implements PrincipalPrefixDAO {
 	@Override
 	public void truncateTable() {
 		jdbcTemplate.update(SQL_TRUNCATE_TABLE);
+		// The index is stale and must be loaded again
+		index = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.sagebionetworks.repo.model.dbo.principal.PrincipalPrefixDAO#loadIndex()
+	 */
+	@Override
+	public void loadIndex() {
+		PrincipalPrefixIndex.Builder builder = PrincipalPrefixIndex.builder();
+		// Each table is read one page at a time following its primary key
+		long[] lastPrincipalId = { Long.MIN_VALUE };
+		int[] rowCount = new int[1];
+		do {
+			rowCount[0] = 0;
+			jdbcTemplate.query(SQL_SELECT_PRINCIPALS_PAGE, (ResultSet rs) -> {
+				lastPrincipalId[0] = rs.getLong(COL_USER_GROUP_ID);
+				builder.addPrincipal(lastPrincipalId[0], rs.getBoolean(COL_USER_GROUP_IS_INDIVIDUAL));
+				rowCount[0]++;
+			}, lastPrincipalId[0], INDEX_PAGE_SIZE);
+		} while (rowCount[0] == INDEX_PAGE_SIZE);
+
+		jdbcTemplate.query(SQL_SELECT_TEAMS, (ResultSet rs) -> {
+			builder.addTeam(rs.getLong(COL_TEAM_ID));
+		});
+
+		String[] lastToken = { EMPTY };
+		long[] lastTokenPrincipalId = { Long.MIN_VALUE };
+		do {
+			rowCount[0] = 0;
+			jdbcTemplate.query(SQL_SELECT_TOKENS_PAGE, (ResultSet rs) -> {
+				lastToken[0] = rs.getString(COL_PRINCIPAL_PREFIX_TOKEN);
+				lastTokenPrincipalId[0] = rs.getLong(COL_PRINCIPAL_PREFIX_PRINCIPAL_ID);
+				builder.addToken(lastToken[0], lastTokenPrincipalId[0]);
+				rowCount[0]++;
+			}, lastToken[0], lastToken[0], lastTokenPrincipalId[0], INDEX_PAGE_SIZE);
+		} while (rowCount[0] == INDEX_PAGE_SIZE);
+
+		long[] lastTeamId = { Long.MIN_VALUE };
+		long[] lastMemberId = { Long.MIN_VALUE };
+		do {
+			rowCount[0] = 0;
+			jdbcTemplate.query(SQL_SELECT_TEAM_MEMBERS_PAGE, (ResultSet rs) -> {
+				lastTeamId[0] = rs.getLong(COL_GROUP_MEMBERS_GROUP_ID);
+				lastMemberId[0] = rs.getLong(COL_GROUP_MEMBERS_MEMBER_ID);
+				builder.addTeamMember(lastTeamId[0], lastMemberId[0]);
+				rowCount[0]++;
+			}, lastTeamId[0], lastTeamId[0], lastMemberId[0], INDEX_PAGE_SIZE);
+		} while (rowCount[0] == INDEX_PAGE_SIZE);
+
+		index = builder.build();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.sagebionetworks.repo.model.dbo.principal.PrincipalPrefixDAO#refreshIndex(java.util.Set)
+	 */
+	@Override
+	public void refreshIndex(Set<Long> principalIds) {
+		PrincipalPrefixIndex currentIndex = index;
+		if (currentIndex == null || principalIds.isEmpty()) {
+			return;
+		}
+		MapSqlParameterSource params = new MapSqlParameterSource(SQL_PARAM_PRINCIPAL_IDS, principalIds);
+
+		Map<Long, Boolean> individuals = new HashMap<>(principalIds.size());
+		namedJdbcTemplate.query(SQL_SELECT_PRINCIPALS_BY_ID, params, (ResultSet rs) -> {
+			individuals.put(rs.getLong(COL_USER_GROUP_ID), rs.getBoolean(COL_USER_GROUP_IS_INDIVIDUAL));
+		});
+
+		Set<Long> teamIds = new HashSet<>(namedJdbcTemplate.queryForList(SQL_SELECT_TEAMS_BY_ID, params, Long.class));
+
+		Map<Long, Set<String>> tokens = new HashMap<>(principalIds.size());
+		namedJdbcTemplate.query(SQL_SELECT_TOKENS_BY_PRINCIPAL_ID, params, (ResultSet rs) -> {
+			tokens.computeIfAbsent(rs.getLong(COL_PRINCIPAL_PREFIX_PRINCIPAL_ID), (Long id) -> new HashSet<>())
+					.add(rs.getString(COL_PRINCIPAL_PREFIX_TOKEN));
+		});
+
+		Map<Long, Set<Long>> teamMembers = new HashMap<>(teamIds.size());
+		if (!teamIds.isEmpty()) {
+			namedJdbcTemplate.query(SQL_SELECT_TEAM_MEMBERS_BY_TEAM_ID, new MapSqlParameterSource(SQL_PARAM_PRINCIPAL_IDS, teamIds), (ResultSet rs) -> {
+				teamMembers.computeIfAbsent(rs.getLong(COL_GROUP_MEMBERS_GROUP_ID), (Long id) -> new HashSet<>())
+						.add(rs.getLong(COL_GROUP_MEMBERS_MEMBER_ID));
+			});
+		}
+
+		List<IndexedPrincipal> principals = new ArrayList<>(principalIds.size());
+		for (Long principalId : principalIds) {
+			Boolean isIndividual = individuals.get(principalId);
+			Set<String> principalTokens = tokens.getOrDefault(principalId, Collections.emptySet());
+			if (isIndividual == null) {
+				principals.add(IndexedPrincipal.deleted(principalId));
+			} else if (teamIds.contains(principalId)) {
+				principals.add(IndexedPrincipal.team(principalId, principalTokens, teamMembers.getOrDefault(principalId, Collections.emptySet())));
+			} else {
+				principals.add(IndexedPrincipal.principal(principalId, isIndividual, principalTokens));
+			}
+		}
+		index = currentIndex.withPrincipals(principals);
 	}
 
 }
@@ -0,0 +1,732 @@
+package org.sagebionetworks.repo.model.dbo.principal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * Immutable in-memory index of the principal prefix tokens used to answer
+ * user and team typeahead without querying the database.
+ * <p>
+ * The bulk of the index is a snapshot of the PRINCIPAL_PREFIX table: the
+ * tokens are stored sorted in a single byte array (tokens are lower case
+ * alpha-numerics) and each token refers to its principal by its ordinal in
+ * the sorted array of principal IDs, so the type of a principal and the
+ * membership of teams are kept as bit sets and sorted arrays of ordinals. The
+ * tokens of each principal are also indexed by ordinal, so that the members of
+ * a small team can be matched without walking all the tokens of the prefix.
+ * Principals that changed since the snapshot was taken are kept in a small
+ * overlay that takes precedence over the snapshot, see
+ * {@link #withPrincipals(Collection)}.
+ *
+ * The results are returned in token order, without duplicates.
+ *
+ */
+public class PrincipalPrefixIndex {
+
+	private static final int[] NO_MEMBERS = new int[0];
+
+	// Snapshot
+	private final long[] principalIds;
+	private final BitSet individuals;
+	private final BitSet teams;
+	private final byte[] tokenBytes;
+	private final int[] tokenOffsets;
+	private final int[] tokenPrincipals;
+	private final int tokenCount;
+	private final int[] principalTokenOffsets;
+	private final int[] principalTokens;
+	private final Map<Long, int[]> teamMembers;
+
+	// Overlay
+	private final Map<Long, IndexedPrincipal> overlay;
+	private final List<TokenEntry> overlayTokens;
+	private final Map<Long, Set<Long>> overlayTeamMembers;
+
+	private PrincipalPrefixIndex(long[] principalIds, BitSet individuals, BitSet teams, byte[] tokenBytes, int[] tokenOffsets,
+			int[] tokenPrincipals, int tokenCount, int[] principalTokenOffsets, int[] principalTokens, Map<Long, int[]> teamMembers,
+			Map<Long, IndexedPrincipal> overlay) {
+		this.principalIds = principalIds;
+		this.individuals = individuals;
+		this.teams = teams;
+		this.tokenBytes = tokenBytes;
+		this.tokenOffsets = tokenOffsets;
+		this.tokenPrincipals = tokenPrincipals;
+		this.tokenCount = tokenCount;
+		this.principalTokenOffsets = principalTokenOffsets;
+		this.principalTokens = principalTokens;
+		this.teamMembers = teamMembers;
+		this.overlay = overlay;
+		this.overlayTokens = new ArrayList<>();
+		this.overlayTeamMembers = new HashMap<>();
+		for (IndexedPrincipal principal : overlay.values()) {
+			if (principal.isDeleted()) {
+				continue;
+			}
+			for (String token : principal.getTokens()) {
+				overlayTokens.add(new TokenEntry(token, principal.getPrincipalId()));
+			}
+			if (principal.isTeam()) {
+				overlayTeamMembers.put(principal.getPrincipalId(), principal.getMemberIds());
+			}
+		}
+		overlayTokens.sort(TokenEntry.COMPARATOR);
+	}
+
+	/**
+	 * @return A builder used to create the snapshot of an index
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Create a new index with the given principals replacing any existing data
+	 * for the same principals. The snapshot is shared with this index.
+	 *
+	 * @param principals
+	 * @return
+	 */
+	public PrincipalPrefixIndex withPrincipals(Collection<IndexedPrincipal> principals) {
+		ValidateArgument.required(principals, "principals");
+		Map<Long, IndexedPrincipal> newOverlay = new HashMap<>(overlay);
+		for (IndexedPrincipal principal : principals) {
+			newOverlay.put(principal.getPrincipalId(), principal);
+		}
+		return new PrincipalPrefixIndex(principalIds, individuals, teams, tokenBytes, tokenOffsets, tokenPrincipals, tokenCount,
+				principalTokenOffsets, principalTokens, teamMembers, newOverlay);
+	}
+
+	/**
+	 * @return The number of tokens in the snapshot
+	 */
+	public int getTokenCount() {
+		return tokenCount;
+	}
+
+	/**
+	 * @return The number of principals that changed since the snapshot was taken
+	 */
+	public int getOverlaySize() {
+		return overlay.size();
+	}
+
+	/**
+	 * List a single page of principals that match the given prefix.
+	 *
+	 * @param prefix The pre-processed prefix
+	 * @param limit
+	 * @param offset
+	 * @return
+	 */
+	public List<Long> listPrincipalsForPrefix(String prefix, long limit, long offset) {
+		return list(prefix, id -> true, limit, offset);
+	}
+
+	/**
+	 * List a single page of users (isIndividual=true) or groups
+	 * (isIndividual=false) that match the given prefix.
+	 *
+	 * @param prefix       The pre-processed prefix
+	 * @param isIndividual
+	 * @param limit
+	 * @param offset
+	 * @return
+	 */
+	public List<Long> listPrincipalsForPrefix(String prefix, boolean isIndividual, long limit, long offset) {
+		return list(prefix, id -> isIndividual(id) == isIndividual, limit, offset);
+	}
+
+	/**
+	 * List a single page of teams that match the given prefix.
+	 *
+	 * @param prefix The pre-processed prefix
+	 * @param limit
+	 * @param offset
+	 * @return
+	 */
+	public List<Long> listTeamsForPrefix(String prefix, long limit, long offset) {
+		return list(prefix, this::isTeam, limit, offset);
+	}
+
+	/**
+	 * List a single page of the members of the given team that match the given
+	 * prefix.
+	 *
+	 * @param prefix  The pre-processed prefix
+	 * @param teamId
+	 * @param include When not null or empty, only the principals in this set are included
+	 * @param exclude When not null, the principals in this set are excluded
+	 * @param limit
+	 * @param offset
+	 * @return
+	 */
+	public List<Long> listTeamMembersForPrefix(String prefix, Long teamId, Set<Long> include, Set<Long> exclude, long limit,
+			long offset) {
+		return listTeamMembers(prefix, teamId, include, exclude, limit, offset);
+	}
+
+	/**
+	 * Count the members of the given team that match the given prefix.
+	 *
+	 * @param prefix The pre-processed prefix
+	 * @param teamId
+	 * @return
+	 */
+	public long countTeamMembersForPrefix(String prefix, Long teamId) {
+		return listTeamMembers(prefix, teamId, null, null, Long.MAX_VALUE, 0L).size();
+	}
+
+	/**
+	 * Walk the tokens matching the prefix when there are fewer of them than
+	 * members in the team, otherwise walk the members of the team and match their
+	 * own tokens.
+	 */
+	private List<Long> listTeamMembers(String prefix, Long teamId, Set<Long> include, Set<Long> exclude, long limit, long offset) {
+		ValidateArgument.required(prefix, "prefix");
+		ValidateArgument.required(teamId, "teamId");
+		byte[] prefixBytes = prefix.getBytes(StandardCharsets.US_ASCII);
+		int snapshotStart = lowerBound(prefixBytes);
+		int matchingTokenCount = upperBound(prefixBytes, snapshotStart) - snapshotStart;
+		long[] memberIds = getTeamMemberIds(teamId);
+		if (matchingTokenCount <= memberIds.length) {
+			return list(prefix, (long id) -> isIncluded(id, include, exclude) && isTeamMember(teamId, id), limit, offset);
+		}
+		List<MemberMatch> matches = new ArrayList<>();
+		for (long memberId : memberIds) {
+			if (!isIncluded(memberId, include, exclude)) {
+				continue;
+			}
+			MemberMatch match = firstMatch(memberId, prefix, prefixBytes);
+			if (match != null) {
+				matches.add(match);
+			}
+		}
+		matches.sort(MemberMatch.COMPARATOR);
+		List<Long> results = new ArrayList<>();
+		for (int i = (int) Math.min(offset, matches.size()); i < matches.size() && results.size() < limit; i++) {
+			results.add(matches.get(i).getPrincipalId());
+		}
+		return results;
+	}
+
+	private static boolean isIncluded(long principalId, Set<Long> include, Set<Long> exclude) {
+		if (exclude != null && exclude.contains(principalId)) {
+			return false;
+		}
+		return include == null || include.isEmpty() || include.contains(principalId);
+	}
+
+	private long[] getTeamMemberIds(Long teamId) {
+		Set<Long> members = overlayTeamMembers.get(teamId);
+		if (members != null) {
+			return members.stream().mapToLong(Long::longValue).toArray();
+		}
+		if (overlay.containsKey(teamId)) {
+			// The team was deleted or is not a team anymore
+			return new long[0];
+		}
+		int[] ordinals = teamMembers.getOrDefault(teamId, NO_MEMBERS);
+		long[] memberIds = new long[ordinals.length];
+		for (int i = 0; i < ordinals.length; i++) {
+			memberIds[i] = principalIds[ordinals[i]];
+		}
+		return memberIds;
+	}
+
+	/**
+	 * @return The first token of the given principal that matches the prefix, in
+	 *         the order of {@link #list(String, LongPredicate, long, long)}, null
+	 *         if none matches
+	 */
+	private MemberMatch firstMatch(long principalId, String prefix, byte[] prefixBytes) {
+		IndexedPrincipal principal = overlay.get(principalId);
+		if (principal != null) {
+			String first = null;
+			if (!principal.isDeleted()) {
+				for (String token : principal.getTokens()) {
+					if (token.startsWith(prefix) && (first == null || token.compareTo(first) < 0)) {
+						first = token;
+					}
+				}
+			}
+			return first == null ? null : new MemberMatch(principalId, first, true);
+		}
+		int ordinal = Arrays.binarySearch(principalIds, principalId);
+		if (ordinal < 0) {
+			return null;
+		}
+		// The tokens of a principal are in token order
+		for (int i = principalTokenOffsets[ordinal]; i < principalTokenOffsets[ordinal + 1]; i++) {
+			int tokenIndex = principalTokens[i];
+			if (startsWith(tokenIndex, prefixBytes)) {
+				int start = tokenOffsets[tokenIndex];
+				String token = new String(tokenBytes, start, tokenOffsets[tokenIndex + 1] - start, StandardCharsets.US_ASCII);
+				return new MemberMatch(principalId, token, false);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Walk the snapshot and the overlay tokens matching the given prefix in
+	 * token order, keeping each distinct principal that passes the filter.
+	 */
+	private List<Long> list(String prefix, LongPredicate filter, long limit, long offset) {
+		ValidateArgument.required(prefix, "prefix");
+		byte[] prefixBytes = prefix.getBytes(StandardCharsets.US_ASCII);
+		int snapshotIndex = lowerBound(prefixBytes);
+		int snapshotEnd = upperBound(prefixBytes, snapshotIndex);
+		int overlayIndex = overlayLowerBound(prefix);
+		Set<Long> seen = new HashSet<>();
+		Set<Long> results = new LinkedHashSet<>();
+		long skipped = 0;
+		while (results.size() < limit) {
+			boolean hasSnapshot = snapshotIndex < snapshotEnd;
+			boolean hasOverlay = overlayIndex < overlayTokens.size() && overlayTokens.get(overlayIndex).getToken().startsWith(prefix);
+			if (!hasSnapshot && !hasOverlay) {
+				break;
+			}
+			long principalId;
+			if (hasSnapshot && (!hasOverlay || compareToken(snapshotIndex, overlayTokens.get(overlayIndex).getToken()) <= 0)) {
+				principalId = principalIds[tokenPrincipals[snapshotIndex++]];
+				if (overlay.containsKey(principalId)) {
+					// The snapshot data of this principal is stale
+					continue;
+				}
+			} else {
+				principalId = overlayTokens.get(overlayIndex++).getPrincipalId();
+			}
+			if (!seen.add(principalId) || !filter.test(principalId)) {
+				continue;
+			}
+			if (skipped < offset) {
+				skipped++;
+				continue;
+			}
+			results.add(principalId);
+		}
+		return new ArrayList<>(results);
+	}
+
+	boolean isIndividual(long principalId) {
+		IndexedPrincipal principal = overlay.get(principalId);
+		if (principal != null) {
+			return principal.isIndividual();
+		}
+		int ordinal = Arrays.binarySearch(principalIds, principalId);
+		return ordinal >= 0 && individuals.get(ordinal);
+	}
+
+	boolean isTeam(long principalId) {
+		IndexedPrincipal principal = overlay.get(principalId);
+		if (principal != null) {
+			return principal.isTeam();
+		}
+		int ordinal = Arrays.binarySearch(principalIds, principalId);
+		return ordinal >= 0 && teams.get(ordinal);
+	}
+
+	boolean isTeamMember(Long teamId, long principalId) {
+		Set<Long> members = overlayTeamMembers.get(teamId);
+		if (members != null) {
+			return members.contains(principalId);
+		}
+		if (overlay.containsKey(teamId)) {
+			// The team was deleted or is not a team anymore
+			return false;
+		}
+		int ordinal = Arrays.binarySearch(principalIds, principalId);
+		return ordinal >= 0 && Arrays.binarySearch(teamMembers.getOrDefault(teamId, NO_MEMBERS), ordinal) >= 0;
+	}
+
+	/**
+	 * @return The index of the first token of the snapshot that is greater or equal to the prefix
+	 */
+	private int lowerBound(byte[] prefix) {
+		int low = 0;
+		int high = tokenCount;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (compareToken(middle, prefix) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @return The index of the first token of the snapshot after start that does not start with the prefix
+	 */
+	private int upperBound(byte[] prefix, int start) {
+		int low = start;
+		int high = tokenCount;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (startsWith(middle, prefix)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private int overlayLowerBound(String prefix) {
+		int low = 0;
+		int high = overlayTokens.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (overlayTokens.get(middle).getToken().compareTo(prefix) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private boolean startsWith(int tokenIndex, byte[] prefix) {
+		int start = tokenOffsets[tokenIndex];
+		int length = tokenOffsets[tokenIndex + 1] - start;
+		if (length < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (tokenBytes[start + i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int compareToken(int tokenIndex, byte[] other) {
+		int start = tokenOffsets[tokenIndex];
+		int length = tokenOffsets[tokenIndex + 1] - start;
+		int common = Math.min(length, other.length);
+		for (int i = 0; i < common; i++) {
+			int diff = tokenBytes[start + i] - other[i];
+			if (diff != 0) {
+				return diff;
+			}
+		}
+		return length - other.length;
+	}
+
+	private int compareToken(int tokenIndex, String other) {
+		return compareToken(tokenIndex, other.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * The indexed data of a single principal.
+	 *
+	 */
+	public static class IndexedPrincipal {
+
+		private final Long principalId;
+		private final boolean deleted;
+		private final boolean individual;
+		private final boolean team;
+		private final Set<String> tokens;
+		private final Set<Long> memberIds;
+
+		private IndexedPrincipal(Long principalId, boolean deleted, boolean individual, boolean team, Set<String> tokens,
+				Set<Long> memberIds) {
+			ValidateArgument.required(principalId, "principalId");
+			this.principalId = principalId;
+			this.deleted = deleted;
+			this.individual = individual;
+			this.team = team;
+			this.tokens = tokens;
+			this.memberIds = memberIds;
+		}
+
+		/**
+		 * @param principalId
+		 * @param individual  True for a user, false for a group
+		 * @param tokens      The pre-processed tokens of the principal
+		 * @return
+		 */
+		public static IndexedPrincipal principal(Long principalId, boolean individual, Set<String> tokens) {
+			ValidateArgument.required(tokens, "tokens");
+			return new IndexedPrincipal(principalId, false, individual, false, tokens, Collections.emptySet());
+		}
+
+		/**
+		 * @param teamId
+		 * @param tokens    The pre-processed tokens of the team
+		 * @param memberIds The principal IDs of the members of the team
+		 * @return
+		 */
+		public static IndexedPrincipal team(Long teamId, Set<String> tokens, Set<Long> memberIds) {
+			ValidateArgument.required(tokens, "tokens");
+			ValidateArgument.required(memberIds, "memberIds");
+			return new IndexedPrincipal(teamId, false, false, true, tokens, memberIds);
+		}
+
+		/**
+		 * @param principalId
+		 * @return A principal that no longer exists
+		 */
+		public static IndexedPrincipal deleted(Long principalId) {
+			return new IndexedPrincipal(principalId, true, false, false, Collections.emptySet(), Collections.emptySet());
+		}
+
+		public Long getPrincipalId() {
+			return principalId;
+		}
+
+		public boolean isDeleted() {
+			return deleted;
+		}
+
+		public boolean isIndividual() {
+			return individual;
+		}
+
+		public boolean isTeam() {
+			return team;
+		}
+
+		public Set<String> getTokens() {
+			return tokens;
+		}
+
+		public Set<Long> getMemberIds() {
+			return memberIds;
+		}
+	}
+
+	/**
+	 * The first token of a team member that matches a prefix. Ordered as the
+	 * walk of the tokens: by token, the snapshot before the overlay, then by
+	 * principal ID.
+	 */
+	private static class MemberMatch {
+
+		static final Comparator<MemberMatch> COMPARATOR = Comparator.comparing(MemberMatch::getToken)
+				.thenComparing(MemberMatch::isOverlay).thenComparingLong(MemberMatch::getPrincipalId);
+
+		private final long principalId;
+		private final String token;
+		private final boolean overlay;
+
+		MemberMatch(long principalId, String token, boolean overlay) {
+			this.principalId = principalId;
+			this.token = token;
+			this.overlay = overlay;
+		}
+
+		long getPrincipalId() {
+			return principalId;
+		}
+
+		String getToken() {
+			return token;
+		}
+
+		boolean isOverlay() {
+			return overlay;
+		}
+	}
+
+	private static class TokenEntry {
+
+		static final Comparator<TokenEntry> COMPARATOR = Comparator.comparing(TokenEntry::getToken)
+				.thenComparing(TokenEntry::getPrincipalId);
+
+		private final String token;
+		private final Long principalId;
+
+		TokenEntry(String token, Long principalId) {
+			this.token = token;
+			this.principalId = principalId;
+		}
+
+		String getToken() {
+			return token;
+		}
+
+		Long getPrincipalId() {
+			return principalId;
+		}
+	}
+
+	/**
+	 * Builds the snapshot of an index. The principals must be added first
+	 * ordered by ID, followed by the tokens ordered by token and principal ID,
+	 * followed by the team members.
+	 *
+	 */
+	public static class Builder {
+
+		private static final int INITIAL_CAPACITY = 1024;
+
+		private long[] principalIds = new long[INITIAL_CAPACITY];
+		private int principalCount;
+		private final BitSet individuals = new BitSet();
+		private final BitSet teams = new BitSet();
+		private byte[] tokenBytes = new byte[INITIAL_CAPACITY * 16];
+		private int tokenBytesLength;
+		private int[] tokenOffsets = new int[INITIAL_CAPACITY + 1];
+		private int[] tokenPrincipals = new int[INITIAL_CAPACITY];
+		private int tokenCount;
+		private byte[] lastToken;
+		private int lastOrdinal = -1;
+		private final Map<Long, int[]> teamMembers = new HashMap<>();
+		private final Map<Long, Integer> teamMemberCounts = new HashMap<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Add a principal, in ascending ID order.
+		 *
+		 * @param principalId
+		 * @param isIndividual
+		 * @return
+		 */
+		public Builder addPrincipal(long principalId, boolean isIndividual) {
+			ValidateArgument.requirement(principalCount == 0 || principalIds[principalCount - 1] < principalId,
+					"Principals must be added in ascending order.");
+			ValidateArgument.requirement(tokenCount == 0, "Principals must be added before the tokens.");
+			if (principalCount == principalIds.length) {
+				principalIds = Arrays.copyOf(principalIds, principalIds.length * 2);
+			}
+			if (isIndividual) {
+				individuals.set(principalCount);
+			}
+			principalIds[principalCount++] = principalId;
+			return this;
+		}
+
+		/**
+		 * Flag an existing principal as a team. Unknown principals are ignored.
+		 *
+		 * @param teamId
+		 * @return
+		 */
+		public Builder addTeam(long teamId) {
+			int ordinal = ordinal(teamId);
+			if (ordinal >= 0) {
+				teams.set(ordinal);
+			}
+			return this;
+		}
+
+		/**
+		 * Add a token, in ascending token and principal ID order. Tokens of
+		 * unknown principals are ignored.
+		 *
+		 * @param token       The pre-processed token
+		 * @param principalId
+		 * @return
+		 */
+		public Builder addToken(String token, long principalId) {
+			ValidateArgument.required(token, "token");
+			int ordinal = ordinal(principalId);
+			if (ordinal < 0) {
+				return this;
+			}
+			byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+			if (lastToken != null) {
+				int compare = compare(lastToken, bytes);
+				ValidateArgument.requirement(compare < 0 || (compare == 0 && principalIds[lastOrdinal] < principalId),
+						"Tokens must be added in ascending order.");
+			}
+			if (tokenCount == tokenPrincipals.length) {
+				tokenPrincipals = Arrays.copyOf(tokenPrincipals, tokenPrincipals.length * 2);
+				tokenOffsets = Arrays.copyOf(tokenOffsets, tokenPrincipals.length + 1);
+			}
+			while (tokenBytesLength + bytes.length > tokenBytes.length) {
+				tokenBytes = Arrays.copyOf(tokenBytes, tokenBytes.length * 2);
+			}
+			System.arraycopy(bytes, 0, tokenBytes, tokenBytesLength, bytes.length);
+			tokenBytesLength += bytes.length;
+			tokenPrincipals[tokenCount++] = ordinal;
+			tokenOffsets[tokenCount] = tokenBytesLength;
+			lastToken = bytes;
+			lastOrdinal = ordinal;
+			return this;
+		}
+
+		/**
+		 * Add a member to a team. Unknown principals are ignored.
+		 *
+		 * @param teamId
+		 * @param memberId
+		 * @return
+		 */
+		public Builder addTeamMember(long teamId, long memberId) {
+			int ordinal = ordinal(memberId);
+			if (ordinal < 0) {
+				return this;
+			}
+			int[] members = teamMembers.getOrDefault(teamId, NO_MEMBERS);
+			int count = teamMemberCounts.getOrDefault(teamId, 0);
+			if (count == members.length) {
+				members = Arrays.copyOf(members, Math.max(4, members.length * 2));
+				teamMembers.put(teamId, members);
+			}
+			members[count] = ordinal;
+			teamMemberCounts.put(teamId, count + 1);
+			return this;
+		}
+
+		public PrincipalPrefixIndex build() {
+			Map<Long, int[]> members = new HashMap<>(teamMembers.size());
+			teamMembers.forEach((Long teamId, int[] ordinals) -> {
+				int[] trimmed = Arrays.copyOf(ordinals, teamMemberCounts.get(teamId));
+				Arrays.sort(trimmed);
+				members.put(teamId, trimmed);
+			});
+			// Group the token indices by principal, each group stays in token order
+			int[] principalTokenOffsets = new int[principalCount + 1];
+			for (int i = 0; i < tokenCount; i++) {
+				principalTokenOffsets[tokenPrincipals[i] + 1]++;
+			}
+			for (int i = 0; i < principalCount; i++) {
+				principalTokenOffsets[i + 1] += principalTokenOffsets[i];
+			}
+			int[] principalTokens = new int[tokenCount];
+			int[] next = Arrays.copyOf(principalTokenOffsets, principalCount);
+			for (int i = 0; i < tokenCount; i++) {
+				principalTokens[next[tokenPrincipals[i]]++] = i;
+			}
+			return new PrincipalPrefixIndex(Arrays.copyOf(principalIds, principalCount), individuals, teams,
+					Arrays.copyOf(tokenBytes, tokenBytesLength), Arrays.copyOf(tokenOffsets, tokenCount + 1),
+					Arrays.copyOf(tokenPrincipals, tokenCount), tokenCount, principalTokenOffsets, principalTokens, members,
+					Collections.emptyMap());
+		}
+
+		private int ordinal(long principalId) {
+			return Arrays.binarySearch(principalIds, 0, principalCount, principalId);
+		}
+
+		private static int compare(byte[] one, byte[] two) {
+			int common = Math.min(one.length, two.length);
+			for (int i = 0; i < common; i++) {
+				int diff = one[i] - two[i];
+				if (diff != 0) {
+					return diff;
+				}
+			}
+			return one.length - two.length;
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package org.sagebionetworks.repo.model.dbo.ses;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 import org.sagebionetworks.repo.model.ses.QuarantinedEmail;
 import org.sagebionetworks.repo.model.ses.QuarantinedEmailBatch;
@@ -54,6 +56,15 @@ public interface EmailQuarantineDao {
 	 */
 	boolean isQuarantined(String email);
 
+	/**
+	 * Bulk version of {@link #isQuarantined(String)}, the emails are looked up in
+	 * chunks with a single query per chunk
+	 * 
+	 * @param emails The emails to lookup
+	 * @return The subset of the given emails that are currently quarantined and whose quarantine is not expired
+	 */
+	Set<String> getQuarantinedEmails(Collection<String> emails);
+
 	/**
 	 * Clear the quarantine
 	 */
@@ -16,7 +16,14 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.sagebionetworks.ids.IdGenerator;
 import org.sagebionetworks.ids.IdType;
@@ -30,11 +37,20 @@ import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import com.google.common.collect.Iterables;
+
 @Repository
 public class EmailQuarantineDaoImpl implements EmailQuarantineDao {
 
+	/**
+	 * The maximum number of emails looked up with a single query
+	 */
+	public static final int MAX_EMAILS_PER_QUERY = 1000;
+
 	private static final RowMapper<DBOQuarantinedEmail> DBO_MAPPER = new DBOQuarantinedEmail().getTableMapping();
 	
 	private static final ResultSetExtractor<Optional<QuarantinedEmail>> RS_EXTRACTOR = (ResultSet rs) -> {
@@ -72,16 +88,24 @@ public class EmailQuarantineDaoImpl implements EmailQuarantineDao {
 			+ COL_QUARANTINED_EMAILS_REASON + " = ?, "
 			+ COL_QUARANTINED_EMAILS_REASON_DETAILS + " = ?, "
 			+ COL_QUARANTINED_EMAILS_SES_MESSAGE_ID + " = ?";
+	
+	private static final String SQL_SELECT_QUARANTINED_EMAILS = "SELECT " + COL_QUARANTINED_EMAILS_EMAIL 
+			+ " FROM " + TABLE_QUARANTINED_EMAILS 
+			+ " WHERE " + COL_QUARANTINED_EMAILS_EMAIL + " IN (:emails)"
+			+ " AND (" + COL_QUARANTINED_EMAILS_EXPIRES_ON + " IS NULL OR " + COL_QUARANTINED_EMAILS_EXPIRES_ON + " > :now)";
 	 
 	// @formatter:on
 
 	private JdbcTemplate jdbcTemplate;
+	
+	private NamedParameterJdbcTemplate namedJdbcTemplate;
 
 	private IdGenerator idGenerator;
 
 	@Autowired
 	public EmailQuarantineDaoImpl(JdbcTemplate jdbcTemplate, IdGenerator idGenerator) {
 		this.jdbcTemplate = jdbcTemplate;
+		this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
 		this.idGenerator = idGenerator;
 	}
 
@@ -176,6 +200,38 @@ public class EmailQuarantineDaoImpl implements EmailQuarantineDao {
 		return jdbcTemplate.queryForObject(sql, Long.class, email, Timestamp.from(Instant.now())) > 0;
 	}
 
+	@Override
+	public Set<String> getQuarantinedEmails(Collection<String> emails) {
+		ValidateArgument.required(emails, "The emails");
+		
+		// The addresses are stored trimmed and lower case, the input is mapped back from the stored form
+		Map<String, List<String>> emailsByKey = new HashMap<>(emails.size());
+		
+		for (String email : emails) {
+			validateInputEmail(email);
+			emailsByKey.computeIfAbsent(email.trim().toLowerCase(), (String key) -> new ArrayList<>()).add(email);
+		}
+		
+		Set<String> quarantined = new HashSet<>();
+		
+		Timestamp now = Timestamp.from(Instant.now());
+		
+		for (List<String> chunk : Iterables.partition(emailsByKey.keySet(), MAX_EMAILS_PER_QUERY)) {
+			MapSqlParameterSource params = new MapSqlParameterSource()
+					.addValue("emails", chunk)
+					.addValue("now", now);
+			
+			namedJdbcTemplate.query(SQL_SELECT_QUARANTINED_EMAILS, params, (ResultSet rs) -> {
+				List<String> matching = emailsByKey.get(rs.getString(COL_QUARANTINED_EMAILS_EMAIL).toLowerCase());
+				if (matching != null) {
+					quarantined.addAll(matching);
+				}
+			});
+		}
+		
+		return quarantined;
+	}
+
 	@Override
 	public void clearAll() {
 		String sql = "DELETE FROM " + TABLE_QUARANTINED_EMAILS;
@@ -0,0 +1,156 @@
+package org.sagebionetworks.repo.model.dbo.statistics;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_EVENT_TYPE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_FILES_COUNT;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_MONTH;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_PROJECT_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_USERS_SKETCH;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.DDL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.FieldColumn;
+import org.sagebionetworks.repo.model.dbo.TableMapping;
+
+/**
+ * DBO object to store the running count of file events and the HyperLogLog
+ * sketch of the users that performed them for a project, month and event
+ * type. The monthly project files statistics are derived from it as the events
+ * are recorded. The rows are not migrated.
+ */
+public class DBOStatisticsMonthlyProjectFilesSketch implements DatabaseObject<DBOStatisticsMonthlyProjectFilesSketch> {
+
+	private static final FieldColumn[] FIELDS = new FieldColumn[] {
+			new FieldColumn("projectId", COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_PROJECT_ID, true),
+			new FieldColumn("month", COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_MONTH, true),
+			new FieldColumn("eventType", COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_EVENT_TYPE, true),
+			new FieldColumn("filesCount", COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_FILES_COUNT),
+			new FieldColumn("usersSketch", COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_USERS_SKETCH) };
+
+	private static final TableMapping<DBOStatisticsMonthlyProjectFilesSketch> TABLE_MAPPING = new TableMapping<DBOStatisticsMonthlyProjectFilesSketch>() {
+
+		@Override
+		public DBOStatisticsMonthlyProjectFilesSketch mapRow(ResultSet rs, int rowNum) throws SQLException {
+			DBOStatisticsMonthlyProjectFilesSketch dbo = new DBOStatisticsMonthlyProjectFilesSketch();
+
+			dbo.setProjectId(rs.getLong(COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_PROJECT_ID));
+			dbo.setMonth(rs.getObject(COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_MONTH, LocalDate.class));
+			dbo.setEventType(rs.getString(COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_EVENT_TYPE));
+			dbo.setFilesCount(rs.getLong(COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_FILES_COUNT));
+			dbo.setUsersSketch(rs.getBytes(COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_USERS_SKETCH));
+
+			return dbo;
+		}
+
+		@Override
+		public String getTableName() {
+			return TABLE_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH;
+		}
+
+		@Override
+		public String getDDLFileName() {
+			return DDL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH;
+		}
+
+		@Override
+		public FieldColumn[] getFieldColumns() {
+			return FIELDS;
+		}
+
+		@Override
+		public Class<? extends DBOStatisticsMonthlyProjectFilesSketch> getDBOClass() {
+			return DBOStatisticsMonthlyProjectFilesSketch.class;
+		}
+
+	};
+
+	private Long projectId;
+	private LocalDate month;
+	private String eventType;
+	private Long filesCount;
+	private byte[] usersSketch;
+
+	public Long getProjectId() {
+		return projectId;
+	}
+
+	public void setProjectId(Long projectId) {
+		this.projectId = projectId;
+	}
+
+	public LocalDate getMonth() {
+		return month;
+	}
+
+	public void setMonth(LocalDate month) {
+		this.month = month;
+	}
+
+	public String getEventType() {
+		return eventType;
+	}
+
+	public void setEventType(String eventType) {
+		this.eventType = eventType;
+	}
+
+	public Long getFilesCount() {
+		return filesCount;
+	}
+
+	public void setFilesCount(Long filesCount) {
+		this.filesCount = filesCount;
+	}
+
+	public byte[] getUsersSketch() {
+		return usersSketch;
+	}
+
+	public void setUsersSketch(byte[] usersSketch) {
+		this.usersSketch = usersSketch;
+	}
+
+	@Override
+	public TableMapping<DBOStatisticsMonthlyProjectFilesSketch> getTableMapping() {
+		return TABLE_MAPPING;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Arrays.hashCode(usersSketch);
+		result = prime * result + Objects.hash(eventType, filesCount, month, projectId);
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		DBOStatisticsMonthlyProjectFilesSketch other = (DBOStatisticsMonthlyProjectFilesSketch) obj;
+		return Objects.equals(eventType, other.eventType) && Objects.equals(filesCount, other.filesCount)
+				&& Objects.equals(month, other.month) && Objects.equals(projectId, other.projectId)
+				&& Arrays.equals(usersSketch, other.usersSketch);
+	}
+
+	@Override
+	public String toString() {
+		return "DBOStatisticsMonthlyProjectFilesSketch [projectId=" + projectId + ", month=" + month + ", eventType=" + eventType
+				+ ", filesCount=" + filesCount + "]";
+	}
+
+}
@@ -6,6 +6,7 @@ import java.util.Optional;
 
 import org.sagebionetworks.repo.model.statistics.FileEvent;
 import org.sagebionetworks.repo.model.statistics.project.StatisticsMonthlyProjectFiles;
+import org.sagebionetworks.repo.model.statistics.project.StatisticsMonthlyProjectFilesEvents;
 
 public interface StatisticsMonthlyProjectFilesDAO {
 
@@ -47,6 +48,16 @@ public interface StatisticsMonthlyProjectFilesDAO {
 	 */
 	void save(List<StatisticsMonthlyProjectFiles> batch);
 
+	/**
+	 * Adds the given batch of events to the running count and users sketch of each project, month and event type, and
+	 * updates the project files statistics from them. The users count of the statistics is an estimate, the events should
+	 * only be added for months whose processing did not start yet, since the processing overwrites the statistics with
+	 * exact values.
+	 * 
+	 * @param batch
+	 */
+	void addEvents(List<StatisticsMonthlyProjectFilesEvents> batch);
+
 	/**
 	 * Clear all the project files monthly statistics
 	 */
@@ -5,21 +5,31 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_STATISTI
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_STATISTICS_MONTHLY_PROJECT_FILES_LAST_UPDATED_ON;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_STATISTICS_MONTHLY_PROJECT_FILES_MONTH;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_STATISTICS_MONTHLY_PROJECT_FILES_PROJECT_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_EVENT_TYPE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_FILES_COUNT;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_MONTH;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_PROJECT_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_USERS_SKETCH;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_STATISTICS_MONTHLY_PROJECT_FILES_USERS_COUNT;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_STATISTICS_MONTHLY_PROJECT_FILES;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 import org.sagebionetworks.repo.model.dbo.DBOBasicDao;
+import org.sagebionetworks.repo.model.dbo.dao.discussion.HyperLogLog;
 import org.sagebionetworks.repo.model.statistics.FileEvent;
 import org.sagebionetworks.repo.model.statistics.monthly.StatisticsMonthlyUtils;
 import org.sagebionetworks.repo.model.statistics.project.StatisticsMonthlyProjectFiles;
+import org.sagebionetworks.repo.model.statistics.project.StatisticsMonthlyProjectFilesEvents;
 import org.sagebionetworks.repo.transactions.WriteTransaction;
 import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,6 +50,8 @@ public class StatisticsMonthlyProjectFilesDAOImpl implements StatisticsMonthlyPr
 	// @formatter:off
 
 	private static final String SQL_DELETE_ALL = "DELETE FROM " + TABLE_STATISTICS_MONTHLY_PROJECT_FILES;
+	
+	private static final String SQL_DELETE_ALL_SKETCHES = "DELETE FROM " + TABLE_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH;
 
 	private static final String SQL_SELECT_IN_RANGE = "SELECT * FROM " 
 			+ TABLE_STATISTICS_MONTHLY_PROJECT_FILES + " WHERE "
@@ -66,10 +78,39 @@ public class StatisticsMonthlyProjectFilesDAOImpl implements StatisticsMonthlyPr
 			+ COL_STATISTICS_MONTHLY_PROJECT_FILES_USERS_COUNT + " = ?, " 
 			+ COL_STATISTICS_MONTHLY_PROJECT_FILES_LAST_UPDATED_ON + " = ?";
 
+	private static final String SQL_INSERT_IGNORE_SKETCH = "INSERT IGNORE INTO " + TABLE_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH
+			+ "(" + COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_PROJECT_ID + ", "
+			+ COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_MONTH + ", "
+			+ COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_EVENT_TYPE + ", "
+			+ COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_FILES_COUNT + ", "
+			+ COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_USERS_SKETCH
+			+ ") VALUES (?,?,?,0,?)";
+	
+	private static final String SQL_SELECT_SKETCH_FOR_UPDATE = "SELECT * FROM " 
+			+ TABLE_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH + " WHERE "
+			+ COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_PROJECT_ID + " = ? AND "
+			+ COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_MONTH + " = ? AND "
+			+ COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_EVENT_TYPE + " = ? FOR UPDATE";
+	
+	private static final String SQL_UPDATE_SKETCH = "UPDATE " + TABLE_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH + " SET "
+			+ COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_FILES_COUNT + " = ?, "
+			+ COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_USERS_SKETCH + " = ? WHERE "
+			+ COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_PROJECT_ID + " = ? AND "
+			+ COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_MONTH + " = ? AND "
+			+ COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_EVENT_TYPE + " = ?";
+
 	// @formatter:on
+	
+	// The sketches are locked in this order to prevent deadlocks
+	private static final Comparator<StatisticsMonthlyProjectFilesEvents> EVENTS_ORDER = Comparator
+			.comparing(StatisticsMonthlyProjectFilesEvents::getProjectId)
+			.thenComparing(StatisticsMonthlyProjectFilesEvents::getMonth)
+			.thenComparing(StatisticsMonthlyProjectFilesEvents::getEventType);
 
 	private static final RowMapper<DBOStatisticsMonthlyProjectFiles> DBO_MAPPER = new DBOStatisticsMonthlyProjectFiles().getTableMapping();
 
+	private static final RowMapper<DBOStatisticsMonthlyProjectFilesSketch> SKETCH_MAPPER = new DBOStatisticsMonthlyProjectFilesSketch().getTableMapping();
+
 	private static final RowMapper<StatisticsMonthlyProjectFiles> ROW_MAPPER = new RowMapper<StatisticsMonthlyProjectFiles>() {
 		@Override
 		public StatisticsMonthlyProjectFiles mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -168,10 +209,68 @@ public class StatisticsMonthlyProjectFilesDAOImpl implements StatisticsMonthlyPr
 
 	}
 
+	@Override
+	@WriteTransaction
+	public void addEvents(List<StatisticsMonthlyProjectFilesEvents> batch) {
+		ValidateArgument.required(batch, "batch");
+		
+		if (batch.isEmpty()) {
+			return;
+		}
+		
+		List<StatisticsMonthlyProjectFilesEvents> sorted = new ArrayList<>(batch);
+		sorted.sort(EVENTS_ORDER);
+		
+		byte[] emptySketch = new HyperLogLog().toBytes();
+		
+		List<Object[]> insertArgs = new ArrayList<>(sorted.size());
+		
+		for (StatisticsMonthlyProjectFilesEvents events : sorted) {
+			insertArgs.add(new Object[] { events.getProjectId(), StatisticsMonthlyUtils.toDate(events.getMonth()), events.getEventType().toString(), emptySketch });
+		}
+		
+		// Makes sure a sketch exists for each key so that it can be locked
+		jdbcTemplate.batchUpdate(SQL_INSERT_IGNORE_SKETCH, insertArgs);
+		
+		List<StatisticsMonthlyProjectFiles> statistics = new ArrayList<>(sorted.size());
+		
+		for (StatisticsMonthlyProjectFilesEvents events : sorted) {
+			LocalDate month = StatisticsMonthlyUtils.toDate(events.getMonth());
+			
+			DBOStatisticsMonthlyProjectFilesSketch sketch = jdbcTemplate.queryForObject(SQL_SELECT_SKETCH_FOR_UPDATE, SKETCH_MAPPER, 
+					events.getProjectId(), month, events.getEventType().toString());
+			
+			HyperLogLog users = HyperLogLog.fromBytes(sketch.getUsersSketch());
+			
+			events.getUserIds().forEach(users::add);
+			
+			long filesCount = sketch.getFilesCount() + events.getFilesCount();
+			
+			jdbcTemplate.update(SQL_UPDATE_SKETCH, filesCount, users.toBytes(), events.getProjectId(), month, events.getEventType().toString());
+			
+			StatisticsMonthlyProjectFiles dto = new StatisticsMonthlyProjectFiles();
+			
+			dto.setProjectId(events.getProjectId());
+			dto.setMonth(events.getMonth());
+			dto.setEventType(events.getEventType());
+			dto.setFilesCount(toInt(filesCount));
+			dto.setUsersCount(toInt(users.estimate()));
+			
+			statistics.add(dto);
+		}
+		
+		save(statistics);
+	}
+
 	@Override
 	@WriteTransaction
 	public void clear() {
 		jdbcTemplate.update(SQL_DELETE_ALL);
+		jdbcTemplate.update(SQL_DELETE_ALL_SKETCHES);
+	}
+	
+	private static int toInt(long count) {
+		return (int) Math.min(count, Integer.MAX_VALUE);
 	}
 
 	private MapSqlParameterSource getPrimaryKeyParams(Long projectId, YearMonth month, FileEvent eventType) {
@@ -13,22 +13,29 @@ public class AnnotationUtils {
 			.build();
 
 	/**
-	 * Convert the passed annotations to a compressed (zip) byte array
+	 * Convert the passed annotations to a byte array using the {@link AnnotationsBinaryCodec}
 	 * @param dto
-	 * @return compressed annotations
+	 * @return encoded annotations, null if the annotations are empty
 	 * @throws IOException
 	 */
 	public static byte[] compressAnnotationsV1(Annotations dto) throws IOException{
-		return JDOSecondaryPropertyUtils.compressObject(X_STREAM, dto == null || dto.isEmpty() ? null : dto);
+		if (dto == null || dto.isEmpty()) {
+			return null;
+		}
+		return AnnotationsBinaryCodec.encode(dto);
 	}
 
 	/**
-	 * Read the compressed (zip) byte array into the Annotations.
+	 * Read the byte array into the Annotations. Both the binary format and the
+	 * legacy compressed (zip) XML are supported.
 	 * @param zippedBytes
 	 * @return the resurrected Annotations
 	 * @throws IOException
 	 */
 	public static Annotations decompressedAnnotationsV1(byte[] zippedBytes) throws IOException{
+		if (AnnotationsBinaryCodec.isBinaryFormat(zippedBytes)) {
+			return AnnotationsBinaryCodec.decode(zippedBytes);
+		}
 		Object o = JDOSecondaryPropertyUtils.decompressObject(X_STREAM, zippedBytes);
 		if (o==null) return new Annotations();
 		return (Annotations) o;
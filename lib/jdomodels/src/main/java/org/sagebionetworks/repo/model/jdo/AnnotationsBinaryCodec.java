@@ -0,0 +1,233 @@
+package org.sagebionetworks.repo.model.jdo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.sagebionetworks.repo.model.Annotations;
+
+/**
+ * A compact binary encoding of the {@link Annotations}, used in place of the
+ * GZIP compressed XML for the annotation blobs. The blob starts with a magic
+ * header followed by the version of the format, so it can never be mistaken for
+ * a legacy GZIP blob (that starts with 0x1F8B).
+ * <p>
+ * Version 1 of the format is a sequence of sections, one for each value type
+ * that has at least one key, terminated by {@link #TAG_END}. Each section is
+ * the tag of its type, the number of keys, then for each key: the key, the
+ * number of values and the values. Strings and byte arrays are prefixed with
+ * their length. Lengths and counts are unsigned variable length integers,
+ * offset by one so that zero stands for null.
+ *
+ */
+public class AnnotationsBinaryCodec {
+
+	static final byte[] MAGIC = new byte[] { 'S', 'Y', 'N', 'A' };
+	static final byte VERSION = 1;
+
+	static final byte TAG_END = 0;
+	static final byte TAG_STRING = 1;
+	static final byte TAG_DOUBLE = 2;
+	static final byte TAG_LONG = 3;
+	static final byte TAG_DATE = 4;
+	static final byte TAG_BLOB = 5;
+
+	/**
+	 * @param bytes
+	 * @return True if the given bytes start with the magic header of this format.
+	 */
+	public static boolean isBinaryFormat(byte[] bytes) {
+		if (bytes == null || bytes.length < MAGIC.length + 1) {
+			return false;
+		}
+		for (int i = 0; i < MAGIC.length; i++) {
+			if (bytes[i] != MAGIC[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Encode the given annotations. The id and etag are not included.
+	 *
+	 * @param annotations
+	 * @return
+	 * @throws IOException
+	 */
+	public static byte[] encode(Annotations annotations) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.write(MAGIC);
+		out.writeByte(VERSION);
+		writeSection(out, TAG_STRING, annotations.getStringAnnotations(), AnnotationsBinaryCodec::writeString);
+		writeSection(out, TAG_DOUBLE, annotations.getDoubleAnnotations(), (DataOutputStream o, Double value) -> {
+			o.writeBoolean(value != null);
+			if (value != null) {
+				o.writeDouble(value);
+			}
+		});
+		writeSection(out, TAG_LONG, annotations.getLongAnnotations(), (DataOutputStream o, Long value) -> {
+			o.writeBoolean(value != null);
+			if (value != null) {
+				o.writeLong(value);
+			}
+		});
+		writeSection(out, TAG_DATE, annotations.getDateAnnotations(), (DataOutputStream o, Date value) -> {
+			o.writeBoolean(value != null);
+			if (value != null) {
+				o.writeLong(value.getTime());
+			}
+		});
+		writeSection(out, TAG_BLOB, annotations.getBlobAnnotations(), AnnotationsBinaryCodec::writeBytes);
+		out.writeByte(TAG_END);
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Decode annotations that were encoded with {@link #encode(Annotations)}.
+	 *
+	 * @param bytes
+	 * @return
+	 * @throws IOException If the bytes are not in a known version of the format.
+	 */
+	public static Annotations decode(byte[] bytes) throws IOException {
+		if (!isBinaryFormat(bytes)) {
+			throw new IOException("The bytes are not binary encoded annotations");
+		}
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, MAGIC.length, bytes.length - MAGIC.length));
+		byte version = in.readByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported annotations format version: " + version);
+		}
+		Annotations annotations = new Annotations();
+		for (byte tag = in.readByte(); tag != TAG_END; tag = in.readByte()) {
+			switch (tag) {
+			case TAG_STRING:
+				readSection(in, annotations.getStringAnnotations(), AnnotationsBinaryCodec::readString);
+				break;
+			case TAG_DOUBLE:
+				readSection(in, annotations.getDoubleAnnotations(), (DataInputStream i) -> i.readBoolean() ? i.readDouble() : null);
+				break;
+			case TAG_LONG:
+				readSection(in, annotations.getLongAnnotations(), (DataInputStream i) -> i.readBoolean() ? i.readLong() : null);
+				break;
+			case TAG_DATE:
+				readSection(in, annotations.getDateAnnotations(), (DataInputStream i) -> i.readBoolean() ? new Date(i.readLong()) : null);
+				break;
+			case TAG_BLOB:
+				readSection(in, annotations.getBlobAnnotations(), AnnotationsBinaryCodec::readBytes);
+				break;
+			default:
+				throw new IOException("Unknown annotations section: " + tag);
+			}
+		}
+		return annotations;
+	}
+
+	@FunctionalInterface
+	private interface ValueWriter<T> {
+		void write(DataOutputStream out, T value) throws IOException;
+	}
+
+	@FunctionalInterface
+	private interface ValueReader<T> {
+		T read(DataInputStream in) throws IOException;
+	}
+
+	private static <T> void writeSection(DataOutputStream out, byte tag, Map<String, List<T>> map, ValueWriter<T> writer) throws IOException {
+		if (map == null || map.isEmpty()) {
+			return;
+		}
+		out.writeByte(tag);
+		writeVarInt(out, map.size());
+		for (Map.Entry<String, List<T>> entry : map.entrySet()) {
+			writeString(out, entry.getKey());
+			List<T> values = entry.getValue();
+			if (values == null) {
+				writeVarInt(out, 0);
+				continue;
+			}
+			writeVarInt(out, values.size() + 1);
+			for (T value : values) {
+				writer.write(out, value);
+			}
+		}
+	}
+
+	private static <T> void readSection(DataInputStream in, Map<String, List<T>> map, ValueReader<T> reader) throws IOException {
+		int keyCount = readVarInt(in);
+		for (int i = 0; i < keyCount; i++) {
+			String key = readString(in);
+			int valueCount = readVarInt(in) - 1;
+			if (valueCount < 0) {
+				map.put(key, null);
+				continue;
+			}
+			List<T> values = new ArrayList<>(valueCount);
+			for (int j = 0; j < valueCount; j++) {
+				values.add(reader.read(in));
+			}
+			map.put(key, values);
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		writeBytes(out, value == null ? null : value.getBytes(JDOSecondaryPropertyUtils.UTF8));
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = readBytes(in);
+		return bytes == null ? null : new String(bytes, JDOSecondaryPropertyUtils.UTF8);
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+		if (value == null) {
+			writeVarInt(out, 0);
+			return;
+		}
+		writeVarInt(out, value.length + 1);
+		out.write(value);
+	}
+
+	private static byte[] readBytes(DataInputStream in) throws IOException {
+		int length = readVarInt(in) - 1;
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	static int readVarInt(DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				if (value < 0) {
+					throw new IOException("Malformed length in annotations blob");
+				}
+				return value;
+			}
+		}
+		throw new IOException("Malformed length in annotations blob");
+	}
+
+}
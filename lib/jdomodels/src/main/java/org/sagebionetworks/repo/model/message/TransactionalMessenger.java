@@ -37,6 +37,15 @@ public interface TransactionalMessenger {
 	 * @param toSend
 	 */
 	void sendMessageAfterCommit(MessageToSend toSend);
+	
+	/**
+	 * Send a batch of messages after a commit. The change messages of the batch are written with
+	 * a single insert and are published to the observers together, each message is still
+	 * delivered for its own object.
+	 * 
+	 * @param batch
+	 */
+	void sendMessagesAfterCommit(List<MessageToSend> batch);
 
 	/**
 	 * Send a change message fashioned after the passed entity
@@ -109,6 +109,25 @@ public class TransactionalMessengerImpl implements TransactionalMessenger {
 		sendMessageAfterCommit(toSend.buildChangeMessage());
 	}
 	
+	@WriteTransaction
+	@Override
+	public void sendMessagesAfterCommit(List<MessageToSend> batch) {
+		ValidateArgument.required(batch, "The batch");
+		// Make sure we are in a transaction.
+		assertActiveSynchronization();
+		Map<MessageKey, Message> currentMessages = getCurrentBoundMessages();
+		Long currentUserId = currentUserIdThreadLocal.get();
+		for (MessageToSend toSend : batch) {
+			ChangeMessage message = toSend.buildChangeMessage();
+			if (message.getUserId() == null) {
+				message.setUserId(currentUserId);
+			}
+			currentMessages.put(new MessageKey(message), message);
+		}
+		// A single handler writes all of the bound messages before the commit
+		registerHandlerIfNeeded();
+	}
+	
 	@Override
 	public void publishMessageAfterCommit(LocalStackMessage message) {
 		ValidateArgument.required(message, "The message");
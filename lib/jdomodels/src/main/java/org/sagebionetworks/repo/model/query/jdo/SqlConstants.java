@@ -52,6 +52,27 @@ public class SqlConstants {
 	
 	public static final String TABLE_STACK_STATUS		= "STACK_STATUS";
 	
+	// The stored checksums of the migration ranges
+	public static final String TABLE_MIGRATION_RANGE_CHECKSUM			= "MIGRATION_RANGE_CHECKSUM";
+	public static final String COL_MIGRATION_RANGE_CHECKSUM_TYPE			= "MIGRATION_TYPE";
+	public static final String COL_MIGRATION_RANGE_CHECKSUM_BATCH_SIZE	= "BATCH_SIZE";
+	public static final String COL_MIGRATION_RANGE_CHECKSUM_SALT			= "SALT";
+	public static final String COL_MIGRATION_RANGE_CHECKSUM_BIN_NUMBER	= "BIN_NUMBER";
+	public static final String COL_MIGRATION_RANGE_CHECKSUM_RANGE_START	= "RANGE_START";
+	public static final String COL_MIGRATION_RANGE_CHECKSUM_RANGE_END		= "RANGE_END";
+	public static final String COL_MIGRATION_RANGE_CHECKSUM_COUNT			= "ROW_COUNT";
+	public static final String COL_MIGRATION_RANGE_CHECKSUM_MIN_ID			= "MIN_ID";
+	public static final String COL_MIGRATION_RANGE_CHECKSUM_MAX_ID			= "MAX_ID";
+	public static final String COL_MIGRATION_RANGE_CHECKSUM_CHECKSUM		= "CHECKSUM";
+	public static final String DDL_MIGRATION_RANGE_CHECKSUM				= "schema/MigrationRangeChecksum-ddl.sql";
+	
+	// The nodes of the sub-trees that are being purged from the trash can
+	public static final String TABLE_NODE_PURGE_WORK					= "NODE_PURGE_WORK";
+	public static final String COL_NODE_PURGE_WORK_ROOT_ID				= "ROOT_ID";
+	public static final String COL_NODE_PURGE_WORK_NODE_ID				= "NODE_ID";
+	public static final String COL_NODE_PURGE_WORK_DISTANCE				= "DISTANCE";
+	public static final String DDL_NODE_PURGE_WORK						= "schema/NodePurgeWork-ddl.sql";
+	
 	
 	// The User Profile table
 	public static final String TABLE_USER_PROFILE				= "USER_PROFILE";
@@ -944,6 +965,12 @@ public class SqlConstants {
 	public static final String COL_DISCUSSION_THREAD_VIEW_USER_ID = "USER_ID";
 	public static final String DDL_DISCUSSION_THREAD_VIEW = "schema/discussion/DiscussionThreadView-ddl.sql";
 
+	// Discussion Thread View Sketch table
+	public static final String TABLE_DISCUSSION_THREAD_VIEW_SKETCH = "DISCUSSION_THREAD_VIEW_SKETCH";
+	public static final String COL_DISCUSSION_THREAD_VIEW_SKETCH_THREAD_ID = "THREAD_ID";
+	public static final String COL_DISCUSSION_THREAD_VIEW_SKETCH_SKETCH = "SKETCH";
+	public static final String DDL_DISCUSSION_THREAD_VIEW_SKETCH = "schema/discussion/DiscussionThreadViewSketch-ddl.sql";
+
 	// Discussion Reply table
 	public static final String TABLE_DISCUSSION_REPLY = "DISCUSSION_REPLY";
 	public static final String COL_DISCUSSION_REPLY_ID = "ID";
@@ -1167,6 +1194,15 @@ public class SqlConstants {
 	public static final String COL_STATISTICS_MONTHLY_PROJECT_FILES_USERS_COUNT =		"USERS_COUNT";
 	public static final String COL_STATISTICS_MONTHLY_PROJECT_FILES_LAST_UPDATED_ON =	"LAST_UPDATED_ON";
 	
+	// Sketches of the file events used to maintain the monthly project files statistics
+	public static final String TABLE_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH =			"STATISTICS_MONTHLY_PROJECT_FILES_SKETCH";
+	public static final String DDL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH =			"schema/statistics/StatisticsMonthlyProjectFilesSketch-ddl.sql";
+	public static final String COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_PROJECT_ID =	"PROJECT_ID";
+	public static final String COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_MONTH =		"MONTH";
+	public static final String COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_EVENT_TYPE =	"EVENT_TYPE";
+	public static final String COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_FILES_COUNT =	"FILES_COUNT";
+	public static final String COL_STATISTICS_MONTHLY_PROJECT_FILES_SKETCH_USERS_SKETCH =	"USERS_SKETCH";
+	
 	// Table constants related to SES Notifications
 	public static final String TABLE_SES_NOTIFICATIONS = 								"SES_NOTIFICATIONS";
 	public static final String DDL_SES_NOTIFICATIONS = 									"schema/ses/SESNotifications-ddl.sql";
@@ -1224,6 +1260,14 @@ public class SqlConstants {
 	public static final String COL_FILES_SCANNER_STATUS_SCANNED_ASSOCIATIONS_COUNT = 	"SCANNED_ASSOCIATIONS_COUNT";
 	public static final String COL_FILES_SCANNER_STATUS_RELINKED_FILES_COUNT =		 	"RELINKED_FILES_COUNT";
 	
+	// Checkpoint of the unlinked keys scan for archival
+	public static final String DDL_FILES_ARCHIVAL_CHECKPOINT = 							"schema/files/FilesArchivalCheckpoint-ddl.sql";
+	public static final String TABLE_FILES_ARCHIVAL_CHECKPOINT = 						"FILES_ARCHIVAL_CHECKPOINT";
+	public static final String COL_FILES_ARCHIVAL_CHECKPOINT_BUCKET_NAME = 				"BUCKET_NAME";
+	public static final String COL_FILES_ARCHIVAL_CHECKPOINT_MODIFIED_BEFORE = 			"MODIFIED_BEFORE";
+	public static final String COL_FILES_ARCHIVAL_CHECKPOINT_LAST_KEY = 				"LAST_KEY";
+	public static final String COL_FILES_ARCHIVAL_CHECKPOINT_UPDATED_ON = 				"UPDATED_ON";
+	
 	// The materialized view source tables
 	public static final String DDL_MV_ID = 												"schema/MaterializedViewId-ddl.sql";
 	public static final String TABLE_MV_ID = 											"MATERIALIZED_VIEW_ID";
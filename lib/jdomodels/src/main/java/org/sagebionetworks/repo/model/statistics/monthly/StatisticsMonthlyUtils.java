@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.ZoneOffset;
@@ -71,6 +72,14 @@ public class StatisticsMonthlyUtils {
 		return new Pair<>(start, end);
 	}
 	
+	/**
+	 * @param timestamp A timestamp (ms, epoch time)
+	 * @return The {@link YearMonth month} (UTC) that includes the given timestamp
+	 */
+	public static YearMonth getMonth(long timestamp) {
+		return YearMonth.from(Instant.ofEpochMilli(timestamp).atOffset(ZoneOffset.UTC));
+	}
+	
 	public static String buildNotificationBody(StatisticsObjectType objectType, YearMonth month) {
 		try {
 			return OBJECT_MAPPER.writeValueAsString(new StatisticsMonthlyProcessNotification(objectType, month));
@@ -0,0 +1,91 @@
+package org.sagebionetworks.repo.model.statistics.project;
+
+import java.time.YearMonth;
+import java.util.Objects;
+import java.util.Set;
+
+import org.sagebionetworks.repo.model.statistics.FileEvent;
+
+/**
+ * A batch of file events recorded for a project in a given month, that is
+ * added to the monthly project files statistics
+ */
+public class StatisticsMonthlyProjectFilesEvents {
+
+	private Long projectId;
+	private YearMonth month;
+	private FileEvent eventType;
+	private Integer filesCount;
+	private Set<Long> userIds;
+
+	public Long getProjectId() {
+		return projectId;
+	}
+
+	public void setProjectId(Long projectId) {
+		this.projectId = projectId;
+	}
+
+	public YearMonth getMonth() {
+		return month;
+	}
+
+	public void setMonth(YearMonth month) {
+		this.month = month;
+	}
+
+	public FileEvent getEventType() {
+		return eventType;
+	}
+
+	public void setEventType(FileEvent eventType) {
+		this.eventType = eventType;
+	}
+
+	/**
+	 * @return The number of events in the batch
+	 */
+	public Integer getFilesCount() {
+		return filesCount;
+	}
+
+	public void setFilesCount(Integer filesCount) {
+		this.filesCount = filesCount;
+	}
+
+	/**
+	 * @return The distinct ids of the users that performed the events in the batch
+	 */
+	public Set<Long> getUserIds() {
+		return userIds;
+	}
+
+	public void setUserIds(Set<Long> userIds) {
+		this.userIds = userIds;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(eventType, filesCount, month, projectId, userIds);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		StatisticsMonthlyProjectFilesEvents other = (StatisticsMonthlyProjectFilesEvents) obj;
+		return eventType == other.eventType && Objects.equals(filesCount, other.filesCount) && Objects.equals(month, other.month)
+				&& Objects.equals(projectId, other.projectId) && Objects.equals(userIds, other.userIds);
+	}
+
+	@Override
+	public String toString() {
+		return "StatisticsMonthlyProjectFilesEvents [projectId=" + projectId + ", month=" + month + ", eventType=" + eventType
+				+ ", filesCount=" + filesCount + ", userIds=" + userIds + "]";
+	}
+
+}
@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS `MIGRATION_RANGE_CHECKSUM` (
+  `MIGRATION_TYPE` VARCHAR(100) NOT NULL,
+  `BATCH_SIZE` BIGINT NOT NULL,
+  `SALT` VARCHAR(256) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL,
+  `BIN_NUMBER` BIGINT NOT NULL,
+  `RANGE_START` BIGINT NOT NULL,
+  `RANGE_END` BIGINT NOT NULL,
+  `ROW_COUNT` BIGINT NOT NULL,
+  `MIN_ID` BIGINT NOT NULL,
+  `MAX_ID` BIGINT NOT NULL,
+  `CHECKSUM` VARCHAR(100) NOT NULL,
+  PRIMARY KEY (`MIGRATION_TYPE`, `BATCH_SIZE`, `SALT`, `BIN_NUMBER`),
+  INDEX (`MIGRATION_TYPE`, `RANGE_START`, `RANGE_END`)
+)
@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS `NODE_PURGE_WORK` (
+  `ROOT_ID` BIGINT NOT NULL,
+  `NODE_ID` BIGINT NOT NULL,
+  `DISTANCE` INT NOT NULL,
+  PRIMARY KEY (`ROOT_ID`, `NODE_ID`),
+  INDEX (`ROOT_ID`, `DISTANCE`, `NODE_ID`)
+)
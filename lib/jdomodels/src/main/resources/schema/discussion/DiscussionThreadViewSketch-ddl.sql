@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS `DISCUSSION_THREAD_VIEW_SKETCH` (
+  `THREAD_ID` BIGINT NOT NULL,
+  `SKETCH` BLOB NOT NULL,
+  PRIMARY KEY (`THREAD_ID`),
+  CONSTRAINT `DISCUSSION_THREAD_VIEW_SKETCH_THREAD_ID_FK` FOREIGN KEY (`THREAD_ID`) REFERENCES `DISCUSSION_THREAD` (`ID`) ON DELETE CASCADE
+)
@@ -20,6 +20,7 @@ CREATE TABLE IF NOT EXISTS `FILES` (
   KEY `KEY_KEY` (`KEY`),
   KEY `MD5_KEY` (`CONTENT_MD5`),
   KEY `STATUS_UPDATED_ON_BUCKET_NAME_KEY` (`STATUS`, `UPDATED_ON`, `BUCKET_NAME`),
+  KEY `STATUS_KEY_KEY` (`STATUS`, `KEY`),
   CONSTRAINT `FILE_PREVIEW_ID_FK` FOREIGN KEY (`PREVIEW_ID`) REFERENCES `FILES` (`ID`) ON DELETE SET NULL,
   CONSTRAINT `FILE_CREATED_BY_FK` FOREIGN KEY (`CREATED_BY`) REFERENCES `USER_GROUP` (`ID`) ON DELETE CASCADE,
   CONSTRAINT `FILE_STORAGE_LOCATION_ID_FK` FOREIGN KEY (`STORAGE_LOCATION_ID`) REFERENCES `STORAGE_LOCATION` (`ID`)
@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS `FILES_ARCHIVAL_CHECKPOINT` (
+  `BUCKET_NAME` varchar(100) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL,
+  `MODIFIED_BEFORE` TIMESTAMP(3) NOT NULL,
+  `LAST_KEY` varchar(700) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL,
+  `UPDATED_ON` TIMESTAMP(3) NOT NULL,
+  PRIMARY KEY (`BUCKET_NAME`)
+)
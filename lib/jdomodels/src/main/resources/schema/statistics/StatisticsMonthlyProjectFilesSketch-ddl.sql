@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS `STATISTICS_MONTHLY_PROJECT_FILES_SKETCH` (
+  `PROJECT_ID` BIGINT NOT NULL,
+  `MONTH` DATE NOT NULL,
+  `EVENT_TYPE` enum('FILE_DOWNLOAD', 'FILE_UPLOAD') NOT NULL,
+  `FILES_COUNT` BIGINT NOT NULL,
+  `USERS_SKETCH` BLOB NOT NULL,
+  PRIMARY KEY (`PROJECT_ID`, `MONTH`, `EVENT_TYPE`)
+);
\ No newline at end of file
@@ -0,0 +1,9 @@
+SELECT 
+(S.ID - :minId) DIV :bucketSize AS BUCKET,
+ MIN(S.ID) AS MIN_ID,
+ MAX(S.ID) AS MAX_ID,
+ COUNT(DISTINCT S.ID) AS ID_COUNT,
+ SUM(CRC32(CONCAT(:salt,'-',R.ETAG,'-',R.SUBSTATUS_VERSION,'-',S.EVALUATION_ID))) AS CHECK_SUM
+	FROM EVALUATION_SUBMISSION S
+	 INNER JOIN EVALUATION_SUBMISSION_STATUS R ON (S.ID = R.ID) 
+	 WHERE S.EVALUATION_ID IN (:evaluationIds) AND S.ID BETWEEN :minId AND :maxId GROUP BY BUCKET ORDER BY BUCKET ASC;
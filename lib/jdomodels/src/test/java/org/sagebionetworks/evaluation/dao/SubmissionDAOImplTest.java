@@ -45,6 +45,7 @@ import org.sagebionetworks.repo.model.EntityBundle;
 import org.sagebionetworks.repo.model.EntityType;
 import org.sagebionetworks.repo.model.GroupMembersDAO;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.IdAndEtag;
 import org.sagebionetworks.repo.model.InvalidModelException;
 import org.sagebionetworks.repo.model.Node;
@@ -1022,6 +1023,30 @@ public class SubmissionDAOImplTest {
 		assertEquals(2, page.stream().map(s-> s.getChecksum() != null).count());
 	}
 	
+	@Test
+	public void testGetIdAndChecksumsPageInRangeAndIdRangeChecksums() {
+		
+		List<Long> submissions = Arrays.asList(
+			Long.parseLong(createScoredSubmission(evalId2).getId()),
+			Long.parseLong(createScoredSubmission(evalId2).getId()),
+			Long.parseLong(createScoredSubmission(evalId2).getId())
+		);
+		
+		Set<Long> parentIds = Sets.newHashSet(Long.parseLong(evalId2));
+		Long salt = 123L;
+		List<IdAndChecksum> all = submissionDAO.getIdAndChecksumsPage(salt, parentIds, 10L, 0L);
+		
+		// call under test
+		List<IdAndChecksum> page = submissionDAO.getIdAndChecksumsPage(salt, parentIds, submissions.get(1), submissions.get(2), 10L, 0L);
+		assertEquals(all.subList(1, 3), page);
+		
+		// call under test
+		List<IdRangeChecksum> buckets = submissionDAO.getIdRangeChecksums(salt, parentIds, 0L, Long.MAX_VALUE, Long.MAX_VALUE);
+		IdRangeChecksum expected = new IdRangeChecksum().withBucket(0L).withMinId(submissions.get(0)).withMaxId(submissions.get(2))
+				.withCount(3L).withChecksum(all.stream().mapToLong(IdAndChecksum::getChecksum).sum());
+		assertEquals(Collections.singletonList(expected), buckets);
+	}
+	
 	@Test
 	public void testGetIdAndChecksumsPageWithEmptyParentIds() {
 		Set<Long> parentIds = Collections.emptySet();
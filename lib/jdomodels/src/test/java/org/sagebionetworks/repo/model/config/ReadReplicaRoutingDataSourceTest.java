@@ -0,0 +1,179 @@
+package org.sagebionetworks.repo.model.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.config.ReadReplicaRoutingDataSource.DataSourceType;
+import org.sagebionetworks.util.Clock;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+public class ReadReplicaRoutingDataSourceTest {
+
+	@Mock
+	private BasicDataSource mockPrimary;
+	@Mock
+	private BasicDataSource mockReplica;
+	@Mock
+	private ReplicaLagMonitor mockLagMonitor;
+	@Mock
+	private Clock mockClock;
+
+	private long pinDurationMS;
+	private ReadReplicaRoutingDataSource dataSource;
+
+	@BeforeEach
+	public void before() {
+		pinDurationMS = 5000;
+		dataSource = new ReadReplicaRoutingDataSource(mockPrimary, mockReplica, mockLagMonitor, mockClock, pinDurationMS);
+	}
+
+	@AfterEach
+	public void after() {
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		ReadReplicaRoutingDataSource.clearPrimaryPin();
+	}
+
+	@Test
+	public void testSelectDataSourceWithNoTransaction() {
+		// call under test
+		assertEquals(DataSourceType.PRIMARY, dataSource.selectDataSource());
+		// Not in a transaction does not pin the thread
+		assertFalse(dataSource.isPinnedToPrimary());
+		verifyZeroInteractions(mockLagMonitor);
+	}
+
+	@Test
+	public void testSelectDataSourceWithReadOnlyTransaction() {
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		when(mockLagMonitor.isReplicaCaughtUp()).thenReturn(true);
+		// call under test
+		assertEquals(DataSourceType.REPLICA, dataSource.selectDataSource());
+	}
+
+	@Test
+	public void testSelectDataSourceWithReadOnlyTransactionAndLag() {
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		when(mockLagMonitor.isReplicaCaughtUp()).thenReturn(false);
+		// call under test
+		assertEquals(DataSourceType.PRIMARY, dataSource.selectDataSource());
+	}
+
+	@Test
+	public void testSelectDataSourceWithReadOnlyTransactionAndNoReplica() {
+		dataSource = new ReadReplicaRoutingDataSource(mockPrimary, null, null, mockClock, pinDurationMS);
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		// call under test
+		assertEquals(DataSourceType.PRIMARY, dataSource.selectDataSource());
+		verifyZeroInteractions(mockLagMonitor);
+	}
+
+	@Test
+	public void testSelectDataSourceWithReadOnlyTransactionAfterWrite() {
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		when(mockClock.currentTimeMillis()).thenReturn(1000L, 2000L, 6000L);
+		// The write pins the thread until 6000
+		assertEquals(DataSourceType.PRIMARY, dataSource.selectDataSource());
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		// call under test
+		assertEquals(DataSourceType.PRIMARY, dataSource.selectDataSource());
+		when(mockLagMonitor.isReplicaCaughtUp()).thenReturn(true);
+		// The pin expired
+		assertEquals(DataSourceType.REPLICA, dataSource.selectDataSource());
+	}
+
+	@Test
+	public void testClearPrimaryPin() {
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		when(mockClock.currentTimeMillis()).thenReturn(1000L, 2000L);
+		dataSource.selectDataSource();
+		assertTrue(dataSource.isPinnedToPrimary());
+		// call under test
+		ReadReplicaRoutingDataSource.clearPrimaryPin();
+		assertFalse(dataSource.isPinnedToPrimary());
+	}
+
+	@Test
+	public void testGetPoolStatistics() {
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		when(mockLagMonitor.isReplicaCaughtUp()).thenReturn(true);
+		dataSource.determineCurrentLookupKey();
+		dataSource.determineCurrentLookupKey();
+		when(mockPrimary.getNumActive()).thenReturn(1);
+		when(mockPrimary.getNumIdle()).thenReturn(2);
+		when(mockPrimary.getMaxTotal()).thenReturn(10);
+		when(mockReplica.getNumActive()).thenReturn(3);
+		when(mockReplica.getNumIdle()).thenReturn(4);
+		when(mockReplica.getMaxTotal()).thenReturn(20);
+
+		// call under test
+		assertEquals(Arrays.asList(new DataSourcePoolStatistics(DataSourceType.PRIMARY, 1, 2, 10, 0),
+				new DataSourcePoolStatistics(DataSourceType.REPLICA, 3, 4, 20, 2)), dataSource.getPoolStatistics());
+		// The routed connections are reset
+		assertEquals(0L, dataSource.getPoolStatistics().get(1).getRoutedConnections());
+	}
+
+	@Test
+	public void testGetPoolStatisticsWithNoReplica() {
+		dataSource = new ReadReplicaRoutingDataSource(mockPrimary, null, null, mockClock, pinDurationMS);
+		dataSource.determineCurrentLookupKey();
+		when(mockPrimary.getNumActive()).thenReturn(1);
+		when(mockPrimary.getNumIdle()).thenReturn(2);
+		when(mockPrimary.getMaxTotal()).thenReturn(10);
+		// call under test
+		assertEquals(Collections.singletonList(new DataSourcePoolStatistics(DataSourceType.PRIMARY, 1, 2, 10, 1)),
+				dataSource.getPoolStatistics());
+	}
+
+	@Test
+	public void testGetReplicaLagMS() {
+		when(mockLagMonitor.getReplicaLagMS()).thenReturn(Optional.of(1000L));
+		// call under test
+		assertEquals(Optional.of(1000L), dataSource.getReplicaLagMS());
+	}
+
+	@Test
+	public void testGetReplicaLagMSWithNoReplica() {
+		dataSource = new ReadReplicaRoutingDataSource(mockPrimary, null, null, mockClock, pinDurationMS);
+		// call under test
+		assertEquals(Optional.empty(), dataSource.getReplicaLagMS());
+	}
+
+	@Test
+	public void testClose() throws SQLException {
+		// call under test
+		dataSource.close();
+		verify(mockReplica).close();
+		verifyZeroInteractions(mockPrimary);
+	}
+
+	@Test
+	public void testConstructorWithReplicaAndNoLagMonitor() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			new ReadReplicaRoutingDataSource(mockPrimary, mockReplica, null, mockClock, pinDurationMS);
+		}).getMessage();
+		assertEquals("lagMonitor is required.", message);
+	}
+}
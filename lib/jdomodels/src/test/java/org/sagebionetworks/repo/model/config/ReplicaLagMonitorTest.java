@@ -0,0 +1,77 @@
+package org.sagebionetworks.repo.model.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplicaLagMonitorTest {
+
+	@Mock
+	private JdbcTemplate mockTemplate;
+
+	private ReplicaLagMonitor monitor;
+
+	@BeforeEach
+	public void before() {
+		monitor = new ReplicaLagMonitor(mockTemplate, 5000L);
+	}
+
+	@Test
+	public void testIsReplicaCaughtUp() {
+		when(mockTemplate.query(anyString(), any(RowMapper.class))).thenReturn(Collections.singletonList(Optional.of(5000L)));
+		// call under test
+		assertTrue(monitor.isReplicaCaughtUp());
+		assertEquals(Optional.of(5000L), monitor.getReplicaLagMS());
+		// The lag is only queried once per interval
+		verify(mockTemplate, times(1)).query(anyString(), any(RowMapper.class));
+	}
+
+	@Test
+	public void testIsReplicaCaughtUpWithLag() {
+		when(mockTemplate.query(anyString(), any(RowMapper.class))).thenReturn(Collections.singletonList(Optional.of(6000L)));
+		// call under test
+		assertFalse(monitor.isReplicaCaughtUp());
+	}
+
+	@Test
+	public void testIsReplicaCaughtUpWithNoStatus() {
+		when(mockTemplate.query(anyString(), any(RowMapper.class))).thenReturn(Collections.emptyList());
+		// call under test
+		assertFalse(monitor.isReplicaCaughtUp());
+		assertEquals(Optional.empty(), monitor.getReplicaLagMS());
+	}
+
+	@Test
+	public void testIsReplicaCaughtUpWithUnknownLag() {
+		when(mockTemplate.query(anyString(), any(RowMapper.class))).thenReturn(Collections.singletonList(Optional.empty()));
+		// call under test
+		assertFalse(monitor.isReplicaCaughtUp());
+	}
+
+	@Test
+	public void testQueryReplicaLagMSWithError() {
+		when(mockTemplate.query(anyString(), any(RowMapper.class))).thenThrow(new TransientDataAccessResourceException("down"));
+		// call under test
+		assertEquals(Optional.empty(), monitor.queryReplicaLagMS());
+		verify(mockTemplate).query(eq(ReplicaLagMonitor.SQL_REPLICA_STATUS), any(RowMapper.class));
+	}
+}
@@ -272,6 +272,29 @@ public class DBOAccessRequirementDAOImplTest {
 		});
 	}
 
+	@Test
+	public void testGetAccessRequirementStatsBySubject() {
+		Long nodeId = KeyFactory.stringToKey(node.getId());
+		Long node2Id = KeyFactory.stringToKey(node2.getId());
+		
+		// call under test
+		assertEquals(Collections.emptyMap(), accessRequirementDAO.getAccessRequirementStatsBySubject(Set.of(nodeId, node2Id), RestrictableObjectType.ENTITY));
+		
+		accessRequirement = accessRequirementDAO.create(newEntityAccessRequirement(individualGroup, node, "foo"));
+		
+		// call under test
+		Map<Long, AccessRequirementStats> stats = accessRequirementDAO.getAccessRequirementStatsBySubject(Set.of(nodeId, node2Id), RestrictableObjectType.ENTITY);
+		
+		assertEquals(Set.of(nodeId), stats.keySet());
+		assertEquals(accessRequirementDAO.getAccessRequirementStats(Arrays.asList(nodeId), RestrictableObjectType.ENTITY), stats.get(nodeId));
+		assertTrue(stats.get(nodeId).getHasToU());
+		assertEquals(Set.of(accessRequirement.getId().toString()), stats.get(nodeId).getRequirementIdSet());
+		
+		assertEquals(Collections.emptyMap(), accessRequirementDAO.getAccessRequirementStatsBySubject(Collections.emptySet(), RestrictableObjectType.ENTITY));
+		
+		accessRequirementDAO.delete(accessRequirement.getId().toString());
+	}
+
 	@Test
 	public void testGetAccessRequirementStats() {
 		AccessRequirementStats stats = accessRequirementDAO.getAccessRequirementStats(Arrays.asList(KeyFactory.stringToKey(node.getId())), RestrictableObjectType.ENTITY);
@@ -7,6 +7,10 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
@@ -26,8 +30,10 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Mockito;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.ProcessedMessageDAO;
+import org.sagebionetworks.repo.model.dbo.DBOBasicDao;
 import org.sagebionetworks.repo.model.dbo.persistence.DBOSentMessage;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.message.ChangeMessage;
@@ -37,8 +43,12 @@ import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.util.Callback;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.google.common.collect.Sets;
 
@@ -52,6 +62,9 @@ public class DBOChangeDAOImplAutowiredTest {
 	@Autowired
 	ProcessedMessageDAO processedMessageDAO;
 	
+	@Autowired
+	DBOBasicDao basicDao;
+	
 	@Before
 	public void before(){
 		if(changeDAO != null){
@@ -287,6 +300,54 @@ public class DBOChangeDAOImplAutowiredTest {
 		assertEquals(numChangesInBatch, countChangeNumber);
 	}
 	
+	@Test
+	public void testReplaceBatchConsecutiveChangeNumbers(){
+		List<ChangeMessage> batch = createList(10, ObjectType.SUBMISSION);
+		Collections.shuffle(batch);
+		// call under test
+		batch = changeDAO.replaceChange(batch);
+		assertEquals(10, batch.size());
+		for(int i=1; i<batch.size(); i++){
+			assertEquals(batch.get(i-1).getChangeNumber() + 1, batch.get(i).getChangeNumber().longValue());
+			assertEquals(batch.get(0).getTimestamp(), batch.get(i).getTimestamp());
+		}
+		// All of the changes are unsent
+		assertEquals(10, changeDAO.listUnsentMessages(Long.MAX_VALUE).size());
+	}
+	
+	@Test
+	public void testReplaceBatchEmpty(){
+		// call under test
+		List<ChangeMessage> results = changeDAO.replaceChange(new ArrayList<ChangeMessage>());
+		assertTrue(results.isEmpty());
+		assertEquals(0L, changeDAO.getCount());
+	}
+	
+	@Test
+	public void testReplaceBatchStatementCount(){
+		int batchSize = 50;
+		// Count the statements executed for the DAO
+		Object basicDaoTarget = AopTestUtils.getUltimateTargetObject(basicDao);
+		NamedParameterJdbcTemplate namedJdbcTemplate = (NamedParameterJdbcTemplate) ReflectionTestUtils.getField(basicDaoTarget, "namedJdbcTemplate");
+		NamedParameterJdbcTemplate spyNamedJdbcTemplate = Mockito.spy(namedJdbcTemplate);
+		ReflectionTestUtils.setField(basicDaoTarget, "namedJdbcTemplate", spyNamedJdbcTemplate);
+		try {
+			// Replacing one change at a time
+			for(ChangeMessage change: createList(batchSize, ObjectType.SUBMISSION)){
+				changeDAO.replaceChange(change);
+			}
+			verify(spyNamedJdbcTemplate, times(2 * batchSize)).update(anyString(), any(SqlParameterSource.class));
+			changeDAO.deleteAllChanges();
+			// Replacing the same changes as a batch
+			changeDAO.replaceChange(createList(batchSize, ObjectType.SUBMISSION));
+			// One batch for the changes and one for the sent messages, whatever the size of the batch
+			verify(spyNamedJdbcTemplate, times(2)).batchUpdate(anyString(), any(SqlParameterSource[].class));
+			verify(spyNamedJdbcTemplate, times(2 * batchSize)).update(anyString(), any(SqlParameterSource.class));
+		} finally {
+			ReflectionTestUtils.setField(basicDaoTarget, "namedJdbcTemplate", namedJdbcTemplate);
+		}
+	}
+	
 	@Test
 	public void testListChangesNullType(){
 		// Get the current change number
@@ -1129,11 +1129,48 @@ public class DBOFileHandleDaoImplTest {
 		fileHandleDao.createBatchDbo(Arrays.asList(file1, file2, file2Dup, file3, file4));
 		
 		// Call under test		
-		List<String> keys = fileHandleDao.getUnlinkedKeysForBucket(bucket, modifiedBefore, 10);
+		List<String> keys = fileHandleDao.getUnlinkedKeysForBucket(bucket, modifiedBefore, null, 10);
 		
 		assertEquals(Arrays.asList("key2"), keys);
 	}
 	
+	@Test
+	public void testGetUnlinkedKeysForBucketWithAfterKey() {
+		
+		String bucket = "bucket";
+		
+		Instant modifiedBefore = Instant.parse("2021-02-03T10:00:00.00Z");
+		Instant inRange = modifiedBefore.minus(1, ChronoUnit.HOURS);
+		
+		List<DBOFileHandle> files = new ArrayList<>();
+		
+		for (String key : Arrays.asList("key3", "key1", "key4", "key2", "key2")) {
+			DBOFileHandle file = FileMetadataUtils.createDBOFromDTO(TestUtils.createS3FileHandle(creatorUserGroupId, idGenerator.generateNewId(IdType.FILE_IDS).toString()));
+			file.setBucketName(bucket);
+			file.setUpdatedOn(Timestamp.from(inRange));
+			file.setStatus(FileHandleStatus.UNLINKED.name());
+			file.setKey(key);
+			files.add(file);
+		}
+		
+		fileHandleDao.createBatchDbo(files);
+		
+		// Call under test
+		List<String> firstPage = fileHandleDao.getUnlinkedKeysForBucket(bucket, modifiedBefore, null, 2);
+		
+		assertEquals(Arrays.asList("key1", "key2"), firstPage);
+		
+		// Call under test
+		List<String> secondPage = fileHandleDao.getUnlinkedKeysForBucket(bucket, modifiedBefore, "key2", 2);
+		
+		assertEquals(Arrays.asList("key3", "key4"), secondPage);
+		
+		// Call under test
+		List<String> lastPage = fileHandleDao.getUnlinkedKeysForBucket(bucket, modifiedBefore, "key4", 2);
+		
+		assertEquals(Collections.emptyList(), lastPage);
+	}
+	
 	@Test
 	public void testGetUnlinkedKeysForBucketWithEmptyBucket() {
 		String bucket = "";
@@ -1145,7 +1182,7 @@ public class DBOFileHandleDaoImplTest {
 		
 		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {			
 			// Call under test		
-			fileHandleDao.getUnlinkedKeysForBucket(bucket, modifiedBefore, 1);
+			fileHandleDao.getUnlinkedKeysForBucket(bucket, modifiedBefore, null, 1);
 		});
 		
 		assertEquals("The bucketName is required and must not be the empty string.", ex.getMessage());
@@ -1162,7 +1199,7 @@ public class DBOFileHandleDaoImplTest {
 		
 		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {			
 			// Call under test		
-			fileHandleDao.getUnlinkedKeysForBucket(bucket, modifiedBefore, 1);
+			fileHandleDao.getUnlinkedKeysForBucket(bucket, modifiedBefore, null, 1);
 		});
 		
 		assertEquals("The modifiedBefore is required.", ex.getMessage());
@@ -1179,7 +1216,7 @@ public class DBOFileHandleDaoImplTest {
 		
 		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {			
 			// Call under test		
-			fileHandleDao.getUnlinkedKeysForBucket(bucket, modifiedBefore, -1);
+			fileHandleDao.getUnlinkedKeysForBucket(bucket, modifiedBefore, null, -1);
 		});
 		
 		assertEquals("The limit must be greater than 0.", ex.getMessage());
@@ -1365,6 +1402,148 @@ public class DBOFileHandleDaoImplTest {
 		assertEquals("The modifiedBefore is required.", ex.getMessage());
 	}
 	
+	@Test
+	public void testUpdateStatusByBucketAndKeys() {
+		
+		String bucket = "bucket";
+		
+		Instant modifiedBefore = Instant.parse("2021-02-03T10:00:00.00Z");
+		
+		Instant inRange = modifiedBefore.minus(1, ChronoUnit.HOURS);
+		Instant afterRange = modifiedBefore.plus(1, ChronoUnit.HOURS);
+		
+		// In the range, matching key
+		DBOFileHandle file1 = FileMetadataUtils.createDBOFromDTO(TestUtils.createS3FileHandle(creatorUserGroupId, idGenerator.generateNewId(IdType.FILE_IDS).toString()));
+		file1.setBucketName(bucket);
+		file1.setUpdatedOn(Timestamp.from(inRange));
+		file1.setStatus(FileHandleStatus.UNLINKED.name());
+		file1.setKey("key1");
+		
+		// In the range, matching key
+		DBOFileHandle file1Dup = FileMetadataUtils.createDBOFromDTO(TestUtils.createS3FileHandle(creatorUserGroupId, idGenerator.generateNewId(IdType.FILE_IDS).toString()));
+		file1Dup.setBucketName(bucket);
+		file1Dup.setUpdatedOn(Timestamp.from(inRange));
+		file1Dup.setStatus(FileHandleStatus.UNLINKED.name());
+		file1Dup.setKey("key1");
+		
+		// After the range
+		DBOFileHandle file2 = FileMetadataUtils.createDBOFromDTO(TestUtils.createS3FileHandle(creatorUserGroupId, idGenerator.generateNewId(IdType.FILE_IDS).toString()));
+		file2.setBucketName(bucket);
+		file2.setUpdatedOn(Timestamp.from(afterRange));
+		file2.setStatus(FileHandleStatus.UNLINKED.name());
+		file2.setKey("key2");
+		
+		// In the range, matching key
+		DBOFileHandle file3 = FileMetadataUtils.createDBOFromDTO(TestUtils.createS3FileHandle(creatorUserGroupId, idGenerator.generateNewId(IdType.FILE_IDS).toString()));
+		file3.setBucketName(bucket);
+		file3.setUpdatedOn(Timestamp.from(inRange));
+		file3.setStatus(FileHandleStatus.UNLINKED.name());
+		file3.setKey("key3");
+		
+		// In the range but different bucket
+		DBOFileHandle file4 = FileMetadataUtils.createDBOFromDTO(TestUtils.createS3FileHandle(creatorUserGroupId, idGenerator.generateNewId(IdType.FILE_IDS).toString()));
+		file4.setBucketName("anotherBucket");
+		file4.setUpdatedOn(Timestamp.from(inRange));
+		file4.setStatus(FileHandleStatus.UNLINKED.name());
+		file4.setKey("key3");
+		
+		fileHandleDao.createBatchDbo(Arrays.asList(file1, file1Dup, file2, file3, file4));
+		
+		// Call under test
+		Map<String, Integer> result = fileHandleDao.updateStatusByBucketAndKeys(bucket, Arrays.asList("key1", "key2", "key3", "key4"), FileHandleStatus.ARCHIVED, FileHandleStatus.UNLINKED, modifiedBefore);
+		
+		Map<String, Integer> expected = Maps.newHashMap();
+		expected.put("key1", 2);
+		expected.put("key3", 1);
+		
+		assertEquals(expected, result);
+		
+		List<DBOFileHandle> files = fileHandleDao.getDBOFileHandlesBatch(Arrays.asList(file1.getId(), file1Dup.getId(), file2.getId(), file3.getId(), file4.getId()), 0);
+		
+		assertEquals(FileHandleStatus.ARCHIVED.name(), files.get(0).getStatus());
+		assertEquals(FileHandleStatus.ARCHIVED.name(), files.get(1).getStatus());
+		assertEquals(FileHandleStatus.UNLINKED.name(), files.get(2).getStatus());
+		assertEquals(FileHandleStatus.ARCHIVED.name(), files.get(3).getStatus());
+		assertEquals(FileHandleStatus.UNLINKED.name(), files.get(4).getStatus());
+	}
+	
+	@Test
+	public void testUpdateStatusByBucketAndKeysWithEmptyKeys() {
+		Instant modifiedBefore = Instant.parse("2021-02-03T10:00:00.00Z");
+		
+		// Call under test
+		Map<String, Integer> result = fileHandleDao.updateStatusByBucketAndKeys("bucket", Collections.emptyList(), FileHandleStatus.ARCHIVED, FileHandleStatus.UNLINKED, modifiedBefore);
+		
+		assertTrue(result.isEmpty());
+	}
+	
+	@Test
+	public void testUpdateStatusByBucketAndKeysWithEmptyKey() {
+		Instant modifiedBefore = Instant.parse("2021-02-03T10:00:00.00Z");
+		
+		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			fileHandleDao.updateStatusByBucketAndKeys("bucket", Arrays.asList("key1", ""), FileHandleStatus.ARCHIVED, FileHandleStatus.UNLINKED, modifiedBefore);
+		});
+		
+		assertEquals("The key is required and must not be the empty string.", ex.getMessage());
+	}
+	
+	@Test
+	public void testGetKeysWithAvailableOrEarlyUnlinkedFileHandles() {
+		String bucket = "bucket";
+		
+		Instant modifiedAfter = Instant.parse("2021-02-03T10:00:00.00Z");
+		
+		Instant inRange = modifiedAfter.minus(1, ChronoUnit.HOURS);
+		Instant afterRange = modifiedAfter.plus(1, ChronoUnit.HOURS);
+		
+		// Unlinked but after the range
+		DBOFileHandle file1 = FileMetadataUtils.createDBOFromDTO(TestUtils.createS3FileHandle(creatorUserGroupId, idGenerator.generateNewId(IdType.FILE_IDS).toString()));
+		file1.setBucketName(bucket);
+		file1.setUpdatedOn(Timestamp.from(afterRange));
+		file1.setStatus(FileHandleStatus.UNLINKED.name());
+		file1.setKey("key1");
+		
+		// Available
+		DBOFileHandle file2 = FileMetadataUtils.createDBOFromDTO(TestUtils.createS3FileHandle(creatorUserGroupId, idGenerator.generateNewId(IdType.FILE_IDS).toString()));
+		file2.setBucketName(bucket);
+		file2.setUpdatedOn(Timestamp.from(inRange));
+		file2.setStatus(FileHandleStatus.AVAILABLE.name());
+		file2.setKey("key2");
+		
+		// Unlinked in the range
+		DBOFileHandle file3 = FileMetadataUtils.createDBOFromDTO(TestUtils.createS3FileHandle(creatorUserGroupId, idGenerator.generateNewId(IdType.FILE_IDS).toString()));
+		file3.setBucketName(bucket);
+		file3.setUpdatedOn(Timestamp.from(inRange));
+		file3.setStatus(FileHandleStatus.UNLINKED.name());
+		file3.setKey("key3");
+		
+		// Available but different bucket
+		DBOFileHandle file4 = FileMetadataUtils.createDBOFromDTO(TestUtils.createS3FileHandle(creatorUserGroupId, idGenerator.generateNewId(IdType.FILE_IDS).toString()));
+		file4.setBucketName("anotherBucket");
+		file4.setUpdatedOn(Timestamp.from(inRange));
+		file4.setStatus(FileHandleStatus.AVAILABLE.name());
+		file4.setKey("key4");
+		
+		fileHandleDao.createBatchDbo(Arrays.asList(file1, file2, file3, file4));
+		
+		// Call under test
+		Set<String> result = fileHandleDao.getKeysWithAvailableOrEarlyUnlinkedFileHandles(bucket, Arrays.asList("key1", "key2", "key3", "key4"), modifiedAfter);
+		
+		assertEquals(Sets.newHashSet("key1", "key2"), result);
+	}
+	
+	@Test
+	public void testGetKeysWithAvailableOrEarlyUnlinkedFileHandlesWithEmptyKeys() {
+		Instant modifiedAfter = Instant.parse("2021-02-03T10:00:00.00Z");
+		
+		// Call under test
+		Set<String> result = fileHandleDao.getKeysWithAvailableOrEarlyUnlinkedFileHandles("bucket", Collections.emptyList(), modifiedAfter);
+		
+		assertTrue(result.isEmpty());
+	}
+	
 	@Test
 	public void testGetAvailableOrEarlyUnlinkedFileHandlesCount() {
 		String bucket = "bucket";
@@ -1827,4 +2006,38 @@ public class DBOFileHandleDaoImplTest {
 		
 		assertEquals(256L, result);
 	}
+	
+	@Test
+	public void testGetContentSizeByKeys() {
+		String bucket = "bucket";
+		
+		DBOFileHandle file1 = FileMetadataUtils.createDBOFromDTO(TestUtils.createS3FileHandle(creatorUserGroupId, idGenerator.generateNewId(IdType.FILE_IDS).toString()));
+		file1.setBucketName(bucket);
+		file1.setKey("key1");
+		file1.setContentSize(123L);
+		
+		DBOFileHandle file1Max = FileMetadataUtils.createDBOFromDTO(TestUtils.createS3FileHandle(creatorUserGroupId, idGenerator.generateNewId(IdType.FILE_IDS).toString()));
+		file1Max.setBucketName(bucket);
+		file1Max.setKey("key1");
+		file1Max.setContentSize(256L);
+		
+		// No size
+		DBOFileHandle file2 = FileMetadataUtils.createDBOFromDTO(TestUtils.createS3FileHandle(creatorUserGroupId, idGenerator.generateNewId(IdType.FILE_IDS).toString()));
+		file2.setBucketName(bucket);
+		file2.setKey("key2");
+		file2.setContentSize(null);
+		
+		// Different bucket
+		DBOFileHandle file3 = FileMetadataUtils.createDBOFromDTO(TestUtils.createS3FileHandle(creatorUserGroupId, idGenerator.generateNewId(IdType.FILE_IDS).toString()));
+		file3.setBucketName("anotherBucket");
+		file3.setKey("key3");
+		file3.setContentSize(123L);
+		
+		fileHandleDao.createBatchDbo(Arrays.asList(file1, file1Max, file2, file3));
+		
+		// Call under test
+		Map<String, Long> result = fileHandleDao.getContentSizeByKeys(bucket, Arrays.asList("key1", "key2", "key3", "key4"));
+		
+		assertEquals(Collections.singletonMap("key1", 256L), result);
+	}
 }
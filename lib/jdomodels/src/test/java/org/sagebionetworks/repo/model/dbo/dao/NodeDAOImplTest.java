@@ -1,6 +1,8 @@
 package org.sagebionetworks.repo.model.dbo.dao;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.apache.commons.codec.digest.DigestUtils;
@@ -26,6 +28,7 @@ import org.sagebionetworks.repo.model.FileSummary;
 import org.sagebionetworks.repo.model.GroupMembersDAO;
 import org.sagebionetworks.repo.model.IdAndAlias;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.InvalidModelException;
 import org.sagebionetworks.repo.model.LimitExceededException;
 import org.sagebionetworks.repo.model.Node;
@@ -1443,6 +1446,89 @@ public class NodeDAOImplTest {
 		
 	}
 	
+	@Test
+	public void testPurgeSubTree() {
+		int depth = 20;
+		
+		List<String> nodeIds = createNestedNodes(depth);
+		List<String> fileIds = new ArrayList<>();
+		
+		fileIds.add(addFile(nodeIds.get(nodeIds.size() - 1)));
+		fileIds.add(addFile(nodeIds.get(nodeIds.size() / 2)));
+		
+		String rootId = nodeIds.get(0);
+		
+		// Call under test
+		long count = nodeDao.enumerateSubTreeForPurge(rootId);
+		
+		assertEquals(depth - 1 + fileIds.size(), count);
+		
+		int limit = 5;
+		int purged = 0;
+		int batches = 0;
+		int batchCount;
+		
+		// Call under test
+		while ((batchCount = nodeDao.purgeSubTreeBatch(rootId, limit)) > 0) {
+			assertTrue(batchCount <= limit);
+			purged += batchCount;
+			batches++;
+		}
+		
+		assertEquals(count, purged);
+		assertEquals(5, batches);
+		
+		// Only the root is left
+		assertTrue(nodeDao.doesNodeExist(KeyFactory.stringToKey(rootId)));
+		
+		for (String nodeId : nodeIds.subList(1, nodeIds.size())) {
+			assertFalse(nodeDao.doesNodeExist(KeyFactory.stringToKey(nodeId)));
+		}
+		
+		for (String fileId : fileIds) {
+			assertFalse(nodeDao.doesNodeExist(KeyFactory.stringToKey(fileId)));
+		}
+		
+		assertTrue(nodeDao.deleteTree(rootId, 1));
+	}
+	
+	@Test
+	public void testPurgeSubTreeResume() {
+		int depth = 10;
+		
+		List<String> nodeIds = createNestedNodes(depth);
+		
+		String rootId = nodeIds.get(0);
+		
+		assertEquals(depth - 1, nodeDao.enumerateSubTreeForPurge(rootId));
+		assertEquals(4, nodeDao.purgeSubTreeBatch(rootId, 4));
+		
+		// The deepest nodes were deleted first
+		for (String nodeId : nodeIds.subList(depth - 4, depth)) {
+			assertFalse(nodeDao.doesNodeExist(KeyFactory.stringToKey(nodeId)));
+		}
+		
+		// Call under test, resumes from the nodes that are left
+		assertEquals(depth - 1 - 4, nodeDao.enumerateSubTreeForPurge(rootId));
+		
+		assertEquals(depth - 1 - 4, nodeDao.purgeSubTreeBatch(rootId, depth));
+		assertEquals(0, nodeDao.purgeSubTreeBatch(rootId, depth));
+		
+		assertTrue(nodeDao.deleteTree(rootId, 1));
+	}
+	
+	@Test
+	public void testPurgeSubTreeNoContainer() {
+		Node node = NodeTestUtils.createNew("parent", creatorUserGroupId);
+		node.setNodeType(EntityType.file);
+		node = nodeDao.createNewNode(node);
+		toDelete.add(node.getId());
+		
+		// Call under test
+		assertEquals(0, nodeDao.enumerateSubTreeForPurge(node.getId()));
+		assertEquals(0, nodeDao.purgeSubTreeBatch(node.getId(), 1));
+	}
+	
 	private String addFile(String parentId) {
 		Node file = NodeTestUtils.createNew("file_" + UUID.randomUUID().toString(), creatorUserGroupId);
 		
@@ -2856,6 +2942,44 @@ public class NodeDAOImplTest {
 		assertEquals(project.getId(), nodeDao.getProjectId(child.getId()).orElseThrow());
 	}
 	
+	@Test
+	public void testGetProjectIdsAndPathIds(){
+		Node project = NodeTestUtils.createNew("Project", creatorUserGroupId);
+		project.setNodeType(EntityType.project);
+		project = nodeDao.createNewNode(project);
+		toDelete.add(project.getId());
+		Node parent = NodeTestUtils.createNew("parent", creatorUserGroupId);
+		parent.setNodeType(EntityType.folder);
+		parent.setParentId(project.getId());
+		parent = nodeDao.createNewNode(parent);
+		toDelete.add(parent.getId());
+		Node child = NodeTestUtils.createNew("child", creatorUserGroupId);
+		child.setParentId(parent.getId());
+		child.setNodeType(EntityType.folder);
+		child = nodeDao.createNewNode(child);
+		toDelete.add(child.getId());
+		
+		Long projectId = KeyFactory.stringToKey(project.getId());
+		Long parentId = KeyFactory.stringToKey(parent.getId());
+		Long childId = KeyFactory.stringToKey(child.getId());
+		Long doesNotExist = childId + 1000;
+		
+		// call under test
+		Map<Long, Long> projectIds = nodeDao.getProjectIds(Arrays.asList(projectId, childId, doesNotExist));
+		
+		assertEquals(ImmutableMap.of(projectId, projectId, childId, projectId), projectIds);
+		
+		// call under test
+		Map<Long, List<Long>> paths = nodeDao.getEntityPathIds(ImmutableSet.of(parentId, childId, doesNotExist));
+		
+		assertEquals(2, paths.size());
+		assertEquals(nodeDao.getEntityPathIds(parent.getId()), paths.get(parentId));
+		assertEquals(nodeDao.getEntityPathIds(child.getId()), paths.get(childId));
+		
+		assertEquals(Collections.emptyMap(), nodeDao.getProjectIds(Collections.emptyList()));
+		assertEquals(Collections.emptyMap(), nodeDao.getEntityPathIds(Collections.emptySet()));
+	}
+	
 	/**
 	 * Test for PLFM-4369.
 	 * A timeout for this test means the function entered
@@ -4098,6 +4222,62 @@ public class NodeDAOImplTest {
 		assertEquals(grandparent.getId(), nodeDao.getBenefactor(grandparent.getId()));
 	}
 	
+	@Test
+	public void testGetNodes(){
+		Node one = nodeDao.createNewNode(NodeTestUtils.createNew("one", creatorUserGroupId));
+		toDelete.add(one.getId());
+		Node two = nodeDao.createNewNode(NodeTestUtils.createNew("two", creatorUserGroupId));
+		toDelete.add(two.getId());
+		List<Long> ids = Lists.newArrayList(KeyFactory.stringToKey(one.getId()), KeyFactory.stringToKey(two.getId()), -1L);
+		// call under test
+		List<Node> results = nodeDao.getNodes(ids);
+		assertEquals(2, results.size());
+		Set<String> resultIds = results.stream().map(Node::getId).collect(Collectors.toSet());
+		assertEquals(ImmutableSet.of(one.getId(), two.getId()), resultIds);
+		assertTrue(nodeDao.getNodes(Collections.emptyList()).isEmpty());
+	}
+	
+	@Test
+	public void testGetUserAnnotationsForCurrentVersions(){
+		Node one = nodeDao.createNewNode(NodeTestUtils.createNew("one", creatorUserGroupId));
+		toDelete.add(one.getId());
+		Annotations annos = nodeDao.getUserAnnotations(one.getId());
+		AnnotationsV2TestUtils.putAnnotations(annos, "string", "value", AnnotationsValueType.STRING);
+		nodeDao.updateUserAnnotations(one.getId(), annos);
+		Node two = nodeDao.createNewNode(NodeTestUtils.createNew("two", creatorUserGroupId));
+		toDelete.add(two.getId());
+		Long oneId = KeyFactory.stringToKey(one.getId());
+		Long twoId = KeyFactory.stringToKey(two.getId());
+		// call under test
+		Map<Long, Annotations> results = nodeDao.getUserAnnotationsForCurrentVersions(Lists.newArrayList(oneId, twoId));
+		assertEquals(2, results.size());
+		assertEquals(nodeDao.getUserAnnotationsForVersion(one.getId(), 1L), results.get(oneId));
+		assertEquals(NodeConstants.ZERO_E_TAG, results.get(twoId).getEtag());
+		assertTrue(results.get(twoId).getAnnotations().isEmpty());
+	}
+	
+	@Test
+	public void testGetBenefactors(){
+		Node parent = nodeDao.createNewNode(NodeTestUtils.createNew("parent", creatorUserGroupId));
+		toDelete.add(parent.getId());
+		Node child = NodeTestUtils.createNew("child", creatorUserGroupId);
+		child.setParentId(parent.getId());
+		child = nodeDao.createNewNode(child);
+		toDelete.add(child.getId());
+		Node orphan = nodeDao.createNewNode(NodeTestUtils.createNew("orphan", creatorUserGroupId));
+		toDelete.add(orphan.getId());
+		AccessControlList acl = AccessControlListUtil.createACLToGrantEntityAdminAccess(parent.getId(), adminUser, new Date());
+		accessControlListDAO.create(acl, ObjectType.ENTITY);
+		Long parentId = KeyFactory.stringToKey(parent.getId());
+		Long childId = KeyFactory.stringToKey(child.getId());
+		Long orphanId = KeyFactory.stringToKey(orphan.getId());
+		// call under test
+		Map<Long, Long> results = nodeDao.getBenefactors(Lists.newArrayList(parentId, childId, orphanId));
+		// The orphan does not have a benefactor
+		assertEquals(ImmutableMap.of(parentId, parentId, childId, parentId), results);
+		assertTrue(nodeDao.getBenefactors(Collections.emptyList()).isEmpty());
+	}
+	
 	@Test
 	public void testGetAvailableNodesEmpty(){
 		List<Long> empty = new LinkedList<Long>();
@@ -5138,6 +5318,45 @@ public class NodeDAOImplTest {
 
 	}
 	
+	@Test
+	public void testGetIdsAndChecksumsForChildrenInRangeAndIdRangeChecksums() throws Exception {
+		Node project = nodeDaoHelper.create(n -> {
+			n.setName("project");
+			n.setCreatedByPrincipalId(creatorUserGroupId);
+		});
+		aclDaoHelper.create(a->{
+			a.setId(project.getId());
+			a.getResourceAccess().add(createResourceAccess(creatorUserGroupId, ACCESS_TYPE.READ));
+		});
+		int numberVersions = 2;
+		List<Long> ids = Arrays.asList(
+				KeyFactory.stringToKey(createNodeWithMultipleVersions(numberVersions, project.getId())),
+				KeyFactory.stringToKey(createNodeWithMultipleVersions(numberVersions, project.getId())),
+				KeyFactory.stringToKey(createNodeWithMultipleVersions(numberVersions, project.getId()))
+		);
+		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
+		Set<Long> parentIds = Sets.newHashSet(KeyFactory.stringToKey(project.getId()));
+		Long salt = 123L;
+		List<IdAndChecksum> all = nodeDao.getIdsAndChecksumsForChildren(salt, parentIds, subTypes);
+		
+		// call under test
+		List<IdAndChecksum> results = nodeDao.getIdsAndChecksumsForChildren(salt, parentIds, subTypes, ids.get(1), ids.get(2));
+		assertEquals(all.subList(1, 3), results);
+		
+		// call under test
+		List<IdRangeChecksum> buckets = nodeDao.getIdRangeChecksumsForChildren(salt, parentIds, subTypes, 0L, Long.MAX_VALUE, Long.MAX_VALUE);
+		IdRangeChecksum expected = new IdRangeChecksum().withBucket(0L).withMinId(ids.get(0)).withMaxId(ids.get(2)).withCount(3L)
+				.withChecksum(all.stream().mapToLong(IdAndChecksum::getChecksum).sum());
+		assertEquals(Collections.singletonList(expected), buckets);
+		
+		// call under test
+		buckets = nodeDao.getIdRangeChecksumsForChildren(salt, parentIds, subTypes, ids.get(0), ids.get(2), ids.get(2) - ids.get(0));
+		assertEquals(2, buckets.size());
+		assertEquals(Long.valueOf(2L), buckets.get(0).getCount());
+		assertEquals(ids.get(2), buckets.get(1).getMinId());
+		assertEquals(all.get(2).getChecksum(), buckets.get(1).getChecksum());
+	}
+	
 	@Test
 	public void testGetIdsAndChecksumsForChildrenWithEmptyParentIds() throws Exception {
 		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
@@ -11,9 +11,11 @@ import static org.sagebionetworks.repo.model.dbo.dao.discussion.DBODiscussionThr
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
@@ -519,6 +521,66 @@ public class DBODiscussionThreadDAOImplTest {
 		assertEquals(0L, threadDao.countThreadView(threadId));
 	}
 
+	@Test
+	public void testUpdateThreadViews() {
+		threadDao.createThread(forumId, threadId.toString(), "title", "messageKey", userId);
+		Long threadId2 = idGenerator.generateNewId(IdType.DISCUSSION_THREAD_ID);
+		threadDao.createThread(forumId, threadId2 .toString(), "title", "messageKey2", userId);
+		String etag = threadDao.getEtagForUpdate(threadId);
+
+		UserGroup user = new UserGroup();
+		user.setIsIndividual(true);
+		userId2 = userGroupDAO.create(user);
+
+		Map<Long, Set<Long>> views = new HashMap<Long, Set<Long>>();
+		views.put(threadId, new HashSet<Long>(Arrays.asList(userId2)));
+		views.put(threadId2, new HashSet<Long>(Arrays.asList(userId, userId2)));
+		// call under test
+		threadDao.updateThreadViews(views);
+		// the same views are written only once
+		threadDao.updateThreadViews(views);
+
+		assertEquals(1L, threadDao.countThreadView(threadId));
+		assertEquals(2L, threadDao.countThreadView(threadId2));
+		assertFalse(etag.equals(threadDao.getEtagForUpdate(threadId)));
+	}
+
+	@Test
+	public void testUpdateThreadViewsWithEmptyMap() {
+		// call under test
+		threadDao.updateThreadViews(new HashMap<Long, Set<Long>>());
+	}
+
+	@Test
+	public void testEstimateThreadViewCount() {
+		threadDao.createThread(forumId, threadId.toString(), "title", "messageKey", userId);
+
+		UserGroup user = new UserGroup();
+		user.setIsIndividual(true);
+		userId2 = userGroupDAO.create(user);
+
+		threadDao.updateThreadView(threadId, userId);
+		// the sketch is built from the existing views
+		assertEquals(1L, threadDao.estimateThreadViewCount(threadId));
+
+		Map<Long, Set<Long>> views = new HashMap<Long, Set<Long>>();
+		views.put(threadId, new HashSet<Long>(Arrays.asList(userId, userId2)));
+		threadDao.updateThreadViews(views);
+		// the sketch is kept current with the new views
+		assertEquals(2L, threadDao.estimateThreadViewCount(threadId));
+	}
+
+	@Test
+	public void testEstimateThreadViewCountForExistingThreadZeroView() {
+		threadDao.createThread(forumId, threadId.toString(), "title", "messageKey", userId);
+		assertEquals(0L, threadDao.estimateThreadViewCount(threadId));
+	}
+
+	@Test (expected = NotFoundException.class)
+	public void testEstimateThreadViewCountForNonExistingThread() {
+		threadDao.estimateThreadViewCount(threadId);
+	}
+
 	@Test
 	public void testGetAllThreadId() {
 		assertTrue(threadDao.getAllThreadId(10L, 0L).isEmpty());
@@ -0,0 +1,85 @@
+package org.sagebionetworks.repo.model.dbo.dao.discussion;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class HyperLogLogTest {
+
+	@Test
+	public void testEstimateEmpty() {
+		assertEquals(0L, new HyperLogLog().estimate());
+	}
+
+	@Test
+	public void testEstimateSmall() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (long id = 1; id <= 10; id++) {
+			sketch.add(id);
+		}
+		assertEquals(10L, sketch.estimate());
+	}
+
+	@Test
+	public void testAddDuplicate() {
+		HyperLogLog sketch = new HyperLogLog();
+		assertTrue(sketch.add(123L));
+		// call under test
+		assertFalse(sketch.add(123L));
+		assertEquals(1L, sketch.estimate());
+	}
+
+	@Test
+	public void testEstimateLarge() {
+		HyperLogLog sketch = new HyperLogLog();
+		long count = 100_000L;
+		for (long id = 0; id < count; id++) {
+			// sequential IDs like the principal IDs
+			sketch.add(3_000_000L + id);
+			sketch.add(3_000_000L + id);
+		}
+		long estimate = sketch.estimate();
+		// allow for three standard errors
+		assertTrue(Math.abs(estimate - count) < count * 0.05, "Estimate was: " + estimate);
+	}
+
+	@Test
+	public void testMerge() {
+		HyperLogLog one = new HyperLogLog();
+		HyperLogLog two = new HyperLogLog();
+		for (long id = 0; id < 1000L; id++) {
+			one.add(id);
+			two.add(id + 500L);
+		}
+		// call under test
+		one.merge(two);
+		long estimate = one.estimate();
+		assertTrue(Math.abs(estimate - 1500L) < 1500L * 0.05, "Estimate was: " + estimate);
+	}
+
+	@Test
+	public void testRoundTrip() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (long id = 0; id < 1000L; id++) {
+			sketch.add(id);
+		}
+		byte[] bytes = sketch.toBytes();
+		assertEquals(HyperLogLog.REGISTER_COUNT, bytes.length);
+		// call under test
+		HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+		assertEquals(sketch.estimate(), restored.estimate());
+		assertArrayEquals(bytes, restored.toBytes());
+	}
+
+	@Test
+	public void testFromBytesWrongLength() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			HyperLogLog.fromBytes(new byte[10]);
+		}).getMessage();
+		assertEquals("Expected 4096 bytes but was: 10", message);
+	}
+}
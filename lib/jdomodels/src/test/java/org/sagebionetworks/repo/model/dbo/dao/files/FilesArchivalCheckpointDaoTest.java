@@ -0,0 +1,115 @@
+package org.sagebionetworks.repo.model.dbo.dao.files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration("classpath:jdomodels-test-context.xml")
+public class FilesArchivalCheckpointDaoTest {
+
+	@Autowired
+	private FilesArchivalCheckpointDao dao;
+
+	private String bucket = "bucket";
+	private Instant modifiedBefore = Instant.parse("2021-02-03T10:00:00.123Z");
+
+	@BeforeEach
+	public void before() {
+		dao.truncateAll();
+	}
+
+	@AfterEach
+	public void after() {
+		dao.truncateAll();
+	}
+
+	@Test
+	public void testSetAndGet() {
+		// Call under test
+		dao.set(bucket, modifiedBefore, "key1");
+
+		DBOFilesArchivalCheckpoint result = dao.get(bucket).get();
+
+		assertEquals(bucket, result.getBucketName());
+		assertEquals(modifiedBefore, result.getModifiedBefore());
+		assertEquals("key1", result.getLastKey());
+		assertNotNull(result.getUpdatedOn());
+	}
+
+	@Test
+	public void testSetWithExisting() {
+		dao.set(bucket, modifiedBefore, "key1");
+
+		Instant otherModifiedBefore = modifiedBefore.plusSeconds(60);
+
+		// Call under test
+		dao.set(bucket, otherModifiedBefore, "key2");
+
+		DBOFilesArchivalCheckpoint result = dao.get(bucket).get();
+
+		assertEquals(otherModifiedBefore, result.getModifiedBefore());
+		assertEquals("key2", result.getLastKey());
+	}
+
+	@Test
+	public void testGetWithOtherBucket() {
+		dao.set(bucket, modifiedBefore, "key1");
+
+		// Call under test
+		Optional<DBOFilesArchivalCheckpoint> result = dao.get("anotherBucket");
+
+		assertFalse(result.isPresent());
+	}
+
+	@Test
+	public void testDelete() {
+		dao.set(bucket, modifiedBefore, "key1");
+		dao.set("anotherBucket", modifiedBefore, "key1");
+
+		// Call under test
+		dao.delete(bucket);
+
+		assertFalse(dao.get(bucket).isPresent());
+		assertEquals("key1", dao.get("anotherBucket").get().getLastKey());
+	}
+
+	@Test
+	public void testDeleteWithNonExisting() {
+		// Call under test
+		dao.delete(bucket);
+	}
+
+	@Test
+	public void testSetWithEmptyKey() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			dao.set(bucket, modifiedBefore, "");
+		}).getMessage();
+
+		assertEquals("The lastKey is required and must not be the empty string.", message);
+	}
+
+	@Test
+	public void testSetWithNullModifiedBefore() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			dao.set(bucket, null, "key1");
+		}).getMessage();
+
+		assertEquals("The modifiedBefore is required.", message);
+	}
+
+}
@@ -1,6 +1,8 @@
 package org.sagebionetworks.repo.model.dbo.dao.table;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -355,6 +357,24 @@ public class MaterializedViewDaoImplTest {
 		assertEquals(expected, result);
 	}
 
+	@Test
+	public void testIsMaterializedViewOrSourceTable() {
+
+		dao.addSourceTablesIds(viewId, ImmutableSet.of(IdAndVersion.parse("syn123.2"), IdAndVersion.parse("456")));
+
+		// Call under test
+		assertTrue(dao.isMaterializedViewOrSourceTable(viewId.getId()));
+		assertTrue(dao.isMaterializedViewOrSourceTable(123L));
+		assertTrue(dao.isMaterializedViewOrSourceTable(456L));
+		assertFalse(dao.isMaterializedViewOrSourceTable(789L));
+	}
 
+	@Test
+	public void testIsMaterializedViewOrSourceTableWithNoData() {
+
+		// Call under test
+		assertFalse(dao.isMaterializedViewOrSourceTable(viewId.getId()));
+		assertFalse(dao.isMaterializedViewOrSourceTable(123L));
+	}
 
 }
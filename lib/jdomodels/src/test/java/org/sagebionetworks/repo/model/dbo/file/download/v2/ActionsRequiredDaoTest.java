@@ -6,46 +6,29 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
 import org.sagebionetworks.repo.model.download.ActionRequiredCount;
 import org.sagebionetworks.repo.model.download.EnableTwoFa;
 import org.sagebionetworks.repo.model.download.MeetAccessRequirement;
 import org.sagebionetworks.repo.model.download.RequestDownload;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.test.context.ContextConfiguration;
-import org.springframework.test.context.junit.jupiter.SpringExtension;
 
-@ExtendWith(SpringExtension.class)
-@ContextConfiguration(locations = { "classpath:jdomodels-test-context.xml" })
 public class ActionsRequiredDaoTest {
 	
-	@Autowired
-	private JdbcTemplate jdbcTemplate;
-	
 	private ActionsRequiredDao dao;
 	
 	private FilesBatchProvider filesProvider;
 	private EntityActionRequiredCallback actionsFilter;
 	
-	private long userId = 123;
 	private long batchSize = 10;
 	
 	@BeforeEach
 	public void before() {
-		dao = new ActionsRequiredDao(jdbcTemplate);		
-	}
-	
-	@AfterEach
-	public void after() {
-		dao.dropActionsRequiredTable(userId);
+		dao = new ActionsRequiredDao();
 	}
 	
 	@Test
-	public void testCreateActionsRequiredTable() {
+	public void testGetActionsRequiredCount() {
 		
 		List<Long> files = List.of(1L, 2L, 3L); 
 		
@@ -59,23 +42,19 @@ public class ActionsRequiredDaoTest {
 			);
 		};
 		
-		// Call under test
-		String tableName = dao.createActionsRequiredTable(userId, batchSize, filesProvider, actionsFilter);
-		
-		assertEquals("U123A", tableName);
-		
 		List<ActionRequiredCount> expectedActions = List.of(
 			new ActionRequiredCount().setCount(2L).setAction(new RequestDownload().setBenefactorId(123L)),
 			new ActionRequiredCount().setCount(1L).setAction(new MeetAccessRequirement().setAccessRequirementId(789L))
 		);
-		List<ActionRequiredCount> result = dao.getActionsRequiredCount(userId, batchSize);
+		// Call under test
+		List<ActionRequiredCount> result = dao.getActionsRequiredCount(batchSize, filesProvider, actionsFilter, batchSize);
 		
 		assertEquals(expectedActions, result);
 		
 	}
 	
 	@Test
-	public void testCreateActionsRequiredTableWithMultipleBatches() {
+	public void testGetActionsRequiredCountWithMultipleBatches() {
 		
 		List<Long> files = List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L); 
 		
@@ -96,51 +75,95 @@ public class ActionsRequiredDaoTest {
 			return actionsRequired;
 		};
 		
-		// Call under test
-		String tableName = dao.createActionsRequiredTable(userId, 3, filesProvider, actionsFilter);
-		
-		assertEquals("U123A", tableName);
-		
 		List<ActionRequiredCount> expectedActions = List.of(
 			new ActionRequiredCount().setCount(5L).setAction(new RequestDownload().setBenefactorId(123L)),
 			new ActionRequiredCount().setCount(2L).setAction(new EnableTwoFa().setAccessRequirementId(456L))
 		);
 		
-		List<ActionRequiredCount> result = dao.getActionsRequiredCount(userId, batchSize);
+		// Call under test
+		List<ActionRequiredCount> result = dao.getActionsRequiredCount(3, filesProvider, actionsFilter, batchSize);
 		
 		assertEquals(expectedActions, result);
 		
 	}
 	
 	@Test
-	public void testCreateActionsRequiredTableWithNoFiles() {
+	public void testGetActionsRequiredCountWithDuplicateActions() {
 		
-		List<Long> files = Collections.emptyList();
+		List<Long> files = List.of(1L, 2L); 
 		
 		filesProvider = getFilesProvider(files);
 		
 		actionsFilter = (fileIds) -> {
 			return List.of(
 				new FileActionRequired().withFileId(1L).withAction(new RequestDownload().setBenefactorId(123L)),
+				new FileActionRequired().withFileId(1L).withAction(new RequestDownload().setBenefactorId(123L)),
+				new FileActionRequired().withFileId(2L).withAction(new RequestDownload().setBenefactorId(123L))
+			);
+		};
+		
+		List<ActionRequiredCount> expectedActions = List.of(
+			new ActionRequiredCount().setCount(2L).setAction(new RequestDownload().setBenefactorId(123L))
+		);
+		
+		// Call under test
+		List<ActionRequiredCount> result = dao.getActionsRequiredCount(batchSize, filesProvider, actionsFilter, batchSize);
+		
+		assertEquals(expectedActions, result);
+		
+	}
+	
+	@Test
+	public void testGetActionsRequiredCountWithLimit() {
+		
+		List<Long> files = List.of(1L, 2L, 3L); 
+		
+		filesProvider = getFilesProvider(files);
+		
+		actionsFilter = (fileIds) -> {
+			return List.of(
+				new FileActionRequired().withFileId(1L).withAction(new MeetAccessRequirement().setAccessRequirementId(789L)),
 				new FileActionRequired().withFileId(2L).withAction(new RequestDownload().setBenefactorId(123L)),
-				new FileActionRequired().withFileId(3L).withAction(new MeetAccessRequirement().setAccessRequirementId(789L))
+				new FileActionRequired().withFileId(3L).withAction(new RequestDownload().setBenefactorId(123L))
 			);
 		};
 		
+		List<ActionRequiredCount> expectedActions = List.of(
+			new ActionRequiredCount().setCount(2L).setAction(new RequestDownload().setBenefactorId(123L))
+		);
+		
 		// Call under test
-		String tableName = dao.createActionsRequiredTable(userId, batchSize, filesProvider, actionsFilter);
+		List<ActionRequiredCount> result = dao.getActionsRequiredCount(batchSize, filesProvider, actionsFilter, 1);
 		
-		assertEquals("U123A", tableName);
+		assertEquals(expectedActions, result);
+		
+	}
+	
+	@Test
+	public void testGetActionsRequiredCountWithNoFiles() {
+		
+		List<Long> files = Collections.emptyList();
+		
+		filesProvider = getFilesProvider(files);
+		
+		actionsFilter = (fileIds) -> {
+			return List.of(
+				new FileActionRequired().withFileId(1L).withAction(new RequestDownload().setBenefactorId(123L)),
+				new FileActionRequired().withFileId(2L).withAction(new RequestDownload().setBenefactorId(123L)),
+				new FileActionRequired().withFileId(3L).withAction(new MeetAccessRequirement().setAccessRequirementId(789L))
+			);
+		};
 		
 		List<ActionRequiredCount> expectedActions = Collections.emptyList();
-		List<ActionRequiredCount> result = dao.getActionsRequiredCount(userId, batchSize);
+		// Call under test
+		List<ActionRequiredCount> result = dao.getActionsRequiredCount(batchSize, filesProvider, actionsFilter, batchSize);
 		
 		assertEquals(expectedActions, result);
 		
 	}
 	
 	@Test
-	public void testCreateActionsRequiredTableWithNoActions() {
+	public void testGetActionsRequiredCountWithNoActions() {
 		List<Long> files = List.of(1L, 2L, 3L); 
 		
 		filesProvider = getFilesProvider(files);
@@ -149,13 +172,9 @@ public class ActionsRequiredDaoTest {
 			return Collections.emptyList();
 		};
 		
-		// Call under test
-		String tableName = dao.createActionsRequiredTable(userId, batchSize, filesProvider, actionsFilter);
-		
-		assertEquals("U123A", tableName);
-		
 		List<ActionRequiredCount> expectedActions = Collections.emptyList();
-		List<ActionRequiredCount> result = dao.getActionsRequiredCount(userId, batchSize);
+		// Call under test
+		List<ActionRequiredCount> result = dao.getActionsRequiredCount(batchSize, filesProvider, actionsFilter, batchSize);
 		
 		assertEquals(expectedActions, result);
 		
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -29,6 +30,7 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_DOWNLOAD
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -901,6 +903,74 @@ public class DownloadListDaoImplTest {
 		}
 	}
 	
+	@Test
+	public void testMergeSortedChunks() {
+		List<List<Integer>> chunks = Arrays.asList(Arrays.asList(1, 4, 7), Arrays.asList(2, 5), Arrays.asList(3, 6, 8));
+		// call under test
+		List<Integer> result = DownloadListDAOImpl.mergeSortedChunks(chunks, Comparator.naturalOrder(), 2L, 4L);
+		assertEquals(Arrays.asList(3, 4, 5, 6), result);
+	}
+	
+	@Test
+	public void testMergeSortedChunksWithReverseOrder() {
+		List<List<Integer>> chunks = Arrays.asList(Arrays.asList(7, 4, 1), Arrays.asList(5, 2), Arrays.asList(8, 6, 3));
+		// call under test
+		List<Integer> result = DownloadListDAOImpl.mergeSortedChunks(chunks, Comparator.reverseOrder(), 0L, 3L);
+		assertEquals(Arrays.asList(8, 7, 6), result);
+	}
+	
+	@Test
+	public void testMergeSortedChunksWithNullComparator() {
+		List<List<Integer>> chunks = Arrays.asList(Arrays.asList(4, 1), Arrays.asList(3, 2));
+		// call under test
+		List<Integer> result = DownloadListDAOImpl.mergeSortedChunks(chunks, null, 1L, 2L);
+		assertEquals(Arrays.asList(1, 3), result);
+	}
+	
+	@Test
+	public void testMergeSortedChunksWithNullLimitAndOffset() {
+		List<List<Integer>> chunks = Arrays.asList(Arrays.asList(1, 3), Collections.emptyList(), Arrays.asList(2));
+		// call under test
+		List<Integer> result = DownloadListDAOImpl.mergeSortedChunks(chunks, Comparator.naturalOrder(), null, null);
+		assertEquals(Arrays.asList(1, 2, 3), result);
+	}
+	
+	@Test
+	public void testMergeSortedChunksWithOffsetPastEnd() {
+		List<List<Integer>> chunks = Arrays.asList(Arrays.asList(1, 3), Arrays.asList(2));
+		// call under test
+		List<Integer> result = DownloadListDAOImpl.mergeSortedChunks(chunks, Comparator.naturalOrder(), 5L, 10L);
+		assertEquals(Collections.emptyList(), result);
+	}
+	
+	@Test
+	public void testCompareCodePoints() {
+		assertTrue(DownloadListDAOImpl.compareCodePoints("a", "b") < 0);
+		assertTrue(DownloadListDAOImpl.compareCodePoints("b", "a") > 0);
+		assertEquals(0, DownloadListDAOImpl.compareCodePoints("abc", "abc"));
+		assertTrue(DownloadListDAOImpl.compareCodePoints("ab", "abc") < 0);
+		assertTrue(DownloadListDAOImpl.compareCodePoints("abc", "ab") > 0);
+		// binary collation is case sensitive
+		assertTrue(DownloadListDAOImpl.compareCodePoints("Z", "a") < 0);
+		// a supplementary character sorts after any character of the basic plane
+		assertTrue(DownloadListDAOImpl.compareCodePoints("\uD83D\uDE00", "\uFFFD") > 0);
+	}
+	
+	@Test
+	public void testGetComparatorEachType() {
+		for (SortField field : SortField.values()) {
+			// call under test
+			assertNotNull(DownloadListDAOImpl.getComparator(field));
+		}
+	}
+	
+	@Test
+	public void testBuildSortComparatorWithNullSort() {
+		// call under test
+		assertNull(DownloadListDAOImpl.buildSortComparator(null));
+		assertNull(DownloadListDAOImpl.buildSortComparator(Collections.emptyList()));
+	}
+	
 	@Test
 	public void testGetFilesAvailableToDownloadFromDownload() {
 		int numberOfProject = 2;
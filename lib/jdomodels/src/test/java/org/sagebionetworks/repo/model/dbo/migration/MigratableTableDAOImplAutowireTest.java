@@ -101,6 +101,7 @@ public class MigratableTableDAOImplAutowireTest {
 		schemaDao.truncateAll();
 		orgDao.truncateAll();
 		fileHandleDao.truncateTable();
+		migratableTableDAO.clearStoredBatchChecksums();
 		creatorUserGroupId = BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId().toString();
 		assertNotNull(creatorUserGroupId);
 	}
@@ -108,6 +109,7 @@ public class MigratableTableDAOImplAutowireTest {
 	@AfterEach
 	public void after(){
 		fileHandleDao.truncateTable();
+		migratableTableDAO.clearStoredBatchChecksums();
 		schemaDao.truncateAll();
 		orgDao.truncateAll();
 	}
@@ -607,6 +609,66 @@ public class MigratableTableDAOImplAutowireTest {
 		assertTrue(range.isEmpty());
 	}
 	
+	@Test
+	public void testCalculateBatchChecksumsIncrementally() {
+		idGenerator.reserveId(10L, IdType.FILE_IDS);
+		fileHandleDao.truncateTable();
+		List<Long> files = new LinkedList<>();
+		for (int i = 0; i < 10; i++) {
+			S3FileHandle file = TestUtils.createS3FileHandle(creatorUserGroupId, ""+i);
+			file = (S3FileHandle) fileHandleDao.createFile(file);
+			files.add(Long.parseLong(file.getId()));
+		}
+		BatchChecksumRequest request = new BatchChecksumRequest();
+		request.setBatchSize(3L);
+		request.setMinimumId(files.get(0));
+		request.setMaximumId(files.get(9));
+		request.setSalt("some salt");
+		request.setMigrationType(MigrationType.FILE_HANDLE);
+		List<RangeChecksum> expected = migratableTableDAO.calculateBatchChecksums(request);
+		
+		// call under test
+		assertEquals(expected, migratableTableDAO.calculateBatchChecksumsIncrementally(request));
+		
+		// A change made outside of migration is not seen since the stored checksums are used
+		Long changedId = files.get(4);
+		jdbcTemplate.update("UPDATE FILES SET ETAG = 'changed' WHERE ID = ?", changedId);
+		List<RangeChecksum> changed = migratableTableDAO.calculateBatchChecksums(request);
+		assertFalse(expected.equals(changed));
+		
+		// call under test
+		assertEquals(expected, migratableTableDAO.calculateBatchChecksumsIncrementally(request));
+		
+		// Restoring the row with migration clears the stored checksum of its bin
+		DatabaseObject<?> backup = migratableTableDAO.streamDatabaseObjects(MigrationType.FILE_HANDLE, changedId, changedId, 1L).iterator().next();
+		migratableTableDAO.createOrUpdate(MigrationType.FILE_HANDLE, List.of(backup));
+		
+		// call under test
+		assertEquals(changed, migratableTableDAO.calculateBatchChecksumsIncrementally(request));
+		
+		// Deleting a range clears the stored checksums of its bins
+		migratableTableDAO.deleteByRange(migratableTableDAO.getTypeData(MigrationType.FILE_HANDLE), files.get(8), files.get(9));
+		
+		// call under test
+		assertEquals(migratableTableDAO.calculateBatchChecksums(request), migratableTableDAO.calculateBatchChecksumsIncrementally(request));
+	}
+	
+	@Test
+	public void testCalculateBatchChecksumsIncrementallyWithZeroBatchSize() {
+		BatchChecksumRequest request = new BatchChecksumRequest();
+		request.setBatchSize(0L);
+		request.setMinimumId(0L);
+		request.setMaximumId(0L);
+		request.setSalt("some salt");
+		request.setMigrationType(MigrationType.FILE_HANDLE);
+		
+		String message = assertThrows(IllegalArgumentException.class, ()->{
+			// call under test
+			this.migratableTableDAO.calculateBatchChecksumsIncrementally(request);
+		}).getMessage();
+		assertEquals("request.batchSize must be greater than zero.", message);
+	}
+	
 	@Test
 	public void testCalculateBatchChecksumsRequestNull() {
 		BatchChecksumRequest request = null;
@@ -30,6 +30,7 @@ import org.sagebionetworks.repo.model.dbo.AutoIncrementDatabaseObject;
 import org.sagebionetworks.repo.model.dbo.FieldColumn;
 import org.sagebionetworks.repo.model.dbo.MigratableDatabaseObject;
 import org.sagebionetworks.repo.model.dbo.TableMapping;
+import org.sagebionetworks.repo.model.migration.IdRange;
 import org.sagebionetworks.repo.model.migration.MigrationType;
 import org.springframework.jdbc.core.JdbcTemplate;
 
@@ -104,6 +105,45 @@ public class MigratableTableDAOImplUnitTest {
 	}
 
 	
+	@Test
+	public void testGetFirstFullBin() {
+		assertEquals(0L, MigratableTableDAOImpl.getFirstFullBin(0L, 10L));
+		assertEquals(1L, MigratableTableDAOImpl.getFirstFullBin(1L, 10L));
+		assertEquals(1L, MigratableTableDAOImpl.getFirstFullBin(10L, 10L));
+		assertEquals(2L, MigratableTableDAOImpl.getFirstFullBin(11L, 10L));
+	}
+	
+	@Test
+	public void testGetLastFullBin() {
+		assertEquals(-1L, MigratableTableDAOImpl.getLastFullBin(8L, 10L));
+		assertEquals(0L, MigratableTableDAOImpl.getLastFullBin(9L, 10L));
+		assertEquals(0L, MigratableTableDAOImpl.getLastFullBin(18L, 10L));
+		assertEquals(1L, MigratableTableDAOImpl.getLastFullBin(19L, 10L));
+	}
+	
+	@Test
+	public void testGetRangesWithoutStoredChecksumsWithNoStoredBins() {
+		List<IdRange> expected = Lists.newArrayList(new IdRange().setMinimumId(5L).setMaximumId(47L));
+		// call under test
+		assertEquals(expected, MigratableTableDAOImpl.getRangesWithoutStoredChecksums(5L, 47L, 10L, Collections.emptyList()));
+	}
+	
+	@Test
+	public void testGetRangesWithoutStoredChecksumsWithGaps() {
+		List<IdRange> expected = Lists.newArrayList(
+				new IdRange().setMinimumId(5L).setMaximumId(9L),
+				new IdRange().setMinimumId(20L).setMaximumId(39L),
+				new IdRange().setMinimumId(50L).setMaximumId(57L));
+		// call under test
+		assertEquals(expected, MigratableTableDAOImpl.getRangesWithoutStoredChecksums(5L, 57L, 10L, Lists.newArrayList(1L, 4L)));
+	}
+	
+	@Test
+	public void testGetRangesWithoutStoredChecksumsWithAllStored() {
+		// call under test
+		assertEquals(Collections.emptyList(), MigratableTableDAOImpl.getRangesWithoutStoredChecksums(10L, 39L, 10L, Lists.newArrayList(1L, 2L, 3L)));
+	}
+	
 	@Test
 	public void testMapSecondaryTablesToPrimaryGroups() {
 		when(primaryMapping.getTableName()).thenReturn("primary_table_name");
@@ -6,6 +6,7 @@ import static org.junit.Assert.assertNotNull;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -577,6 +578,60 @@ public class PrincipalPrefixDAOImplTest {
 		assertEquals(3, results.size());
 	}
 	
+	@Test
+	public void testLoadIndex() {
+		addDefaultAlias();
+		principalPrefixDao.addPrincipalAlias("romane2", romaneId);
+		List<List<Long>> expected = listAllForPrefix("r");
+		List<List<Long>> expectedRom = listAllForPrefix("rom");
+		// call under test
+		principalPrefixDao.loadIndex();
+		// The index must give the same results as the database
+		assertEquals(expected, listAllForPrefix("r"));
+		assertEquals(expectedRom, listAllForPrefix("rom"));
+	}
+
+	@Test
+	public void testRefreshIndex() {
+		addDefaultAlias();
+		principalPrefixDao.loadIndex();
+		principalPrefixDao.addPrincipalAlias("batman", principalOne);
+		groupMembersDAO.addMembers(teamEvenId.toString(), Collections.singletonList(principalOne.toString()));
+		// Not in the index yet
+		assertEquals(new Long(0), countPrincipalsForPrefix("bat"));
+		// call under test
+		principalPrefixDao.refreshIndex(new HashSet<>(Arrays.asList(principalOne, teamEvenId)));
+		assertEquals(Collections.singletonList(principalOne), principalPrefixDao.listPrincipalsForPrefix("bat", 1000L, 0L));
+		assertEquals(Collections.singletonList(principalOne), principalPrefixDao.listTeamMembersForPrefix("bat", teamEvenId, 1000L, 0L));
+		assertEquals(Collections.singletonList(teamEvenId), principalPrefixDao.listTeamsForPrefix("rteame", 1000L, 0L));
+	}
+
+	@Test
+	public void testRefreshIndexWithDeletedPrincipal() {
+		addDefaultAlias();
+		principalPrefixDao.loadIndex();
+		userGroupDAO.delete(nonTeamUserGroupId.toString());
+		// call under test
+		principalPrefixDao.refreshIndex(Collections.singleton(nonTeamUserGroupId));
+		assertEquals(new Long(0), countPrincipalsForPrefix("rz"));
+	}
+
+	/**
+	 * Helper to run all the prefix queries for the given prefix.
+	 */
+	private List<List<Long>> listAllForPrefix(String prefix) {
+		List<List<Long>> results = new LinkedList<>();
+		results.add(principalPrefixDao.listPrincipalsForPrefix(prefix, 1000L, 0L));
+		results.add(principalPrefixDao.listPrincipalsForPrefix(prefix, 3L, 2L));
+		results.add(principalPrefixDao.listPrincipalsForPrefix(prefix, true, 1000L, 0L));
+		results.add(principalPrefixDao.listPrincipalsForPrefix(prefix, false, 1000L, 0L));
+		results.add(principalPrefixDao.listTeamsForPrefix(prefix, 1000L, 0L));
+		results.add(principalPrefixDao.listTeamMembersForPrefix(prefix, teamOddId, 1000L, 0L));
+		results.add(principalPrefixDao.listCertainTeamMembersForPrefix(prefix, teamAllId, null, Collections.singleton(romanusId), 1000L, 0L));
+		results.add(Collections.singletonList(principalPrefixDao.countTeamMembersForPrefix(prefix, teamAllId)));
+		return results;
+	}
+
 	/**
 	 * Add default alias to all named principals.
 	 */
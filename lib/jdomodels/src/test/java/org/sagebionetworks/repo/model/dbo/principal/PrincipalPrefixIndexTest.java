@@ -0,0 +1,222 @@
+package org.sagebionetworks.repo.model.dbo.principal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sagebionetworks.repo.model.dbo.principal.PrincipalPrefixIndex.IndexedPrincipal;
+
+import com.google.common.collect.ImmutableSet;
+
+public class PrincipalPrefixIndexTest {
+
+	private static final Long ROMANE = 1L;
+	private static final Long ROMANUS = 2L;
+	private static final Long ROMULUS = 3L;
+	private static final Long RUBENS = 4L;
+	private static final Long TEAM_ROME = 10L;
+	private static final Long GROUP = 11L;
+
+	private PrincipalPrefixIndex index;
+
+	@BeforeEach
+	public void before() {
+		index = PrincipalPrefixIndex.builder()
+				.addPrincipal(ROMANE, true)
+				.addPrincipal(ROMANUS, true)
+				.addPrincipal(ROMULUS, true)
+				.addPrincipal(RUBENS, true)
+				.addPrincipal(TEAM_ROME, false)
+				.addPrincipal(GROUP, false)
+				.addTeam(TEAM_ROME)
+				.addToken("romane", ROMANE)
+				.addToken("romanus", ROMANUS)
+				.addToken("romecity", TEAM_ROME)
+				.addToken("romegroup", GROUP)
+				.addToken("romulus", ROMULUS)
+				.addToken("rubens", RUBENS)
+				.addToken("rubensalt", ROMANE)
+				.addTeamMember(TEAM_ROME, ROMULUS)
+				.addTeamMember(TEAM_ROME, ROMANE)
+				.build();
+	}
+
+	@Test
+	public void testListPrincipalsForPrefix() {
+		assertEquals(Arrays.asList(ROMANE, ROMANUS, TEAM_ROME, GROUP, ROMULUS), index.listPrincipalsForPrefix("rom", 10L, 0L));
+		assertEquals(Arrays.asList(ROMANE, ROMANUS), index.listPrincipalsForPrefix("roman", 10L, 0L));
+		assertEquals(Arrays.asList(ROMANUS), index.listPrincipalsForPrefix("romanus", 10L, 0L));
+		assertEquals(Collections.emptyList(), index.listPrincipalsForPrefix("romanusx", 10L, 0L));
+		assertEquals(Collections.emptyList(), index.listPrincipalsForPrefix("z", 10L, 0L));
+	}
+
+	@Test
+	public void testListPrincipalsForPrefixWithDuplicates() {
+		// Romane has two tokens starting with 'r'
+		assertEquals(Arrays.asList(ROMANE, ROMANUS, TEAM_ROME, GROUP, ROMULUS, RUBENS), index.listPrincipalsForPrefix("r", 10L, 0L));
+	}
+
+	@Test
+	public void testListPrincipalsForPrefixWithEmptyPrefix() {
+		assertEquals(Arrays.asList(ROMANE, ROMANUS, TEAM_ROME, GROUP, ROMULUS, RUBENS), index.listPrincipalsForPrefix("", 10L, 0L));
+	}
+
+	@Test
+	public void testListPrincipalsForPrefixPaginated() {
+		assertEquals(Arrays.asList(ROMANE, ROMANUS), index.listPrincipalsForPrefix("rom", 2L, 0L));
+		assertEquals(Arrays.asList(TEAM_ROME, GROUP), index.listPrincipalsForPrefix("rom", 2L, 2L));
+		assertEquals(Arrays.asList(ROMULUS), index.listPrincipalsForPrefix("rom", 2L, 4L));
+	}
+
+	@Test
+	public void testListPrincipalsForPrefixByType() {
+		assertEquals(Arrays.asList(ROMANE, ROMANUS, ROMULUS), index.listPrincipalsForPrefix("rom", true, 10L, 0L));
+		assertEquals(Arrays.asList(TEAM_ROME, GROUP), index.listPrincipalsForPrefix("rom", false, 10L, 0L));
+	}
+
+	@Test
+	public void testListTeamsForPrefix() {
+		assertEquals(Arrays.asList(TEAM_ROME), index.listTeamsForPrefix("rom", 10L, 0L));
+	}
+
+	@Test
+	public void testListTeamMembersForPrefix() {
+		assertEquals(Arrays.asList(ROMANE, ROMULUS), index.listTeamMembersForPrefix("r", TEAM_ROME, null, null, 10L, 0L));
+		assertEquals(Arrays.asList(ROMULUS), index.listTeamMembersForPrefix("r", TEAM_ROME, null, null, 10L, 1L));
+		assertEquals(Arrays.asList(ROMULUS), index.listTeamMembersForPrefix("romu", TEAM_ROME, null, null, 10L, 0L));
+		assertEquals(Collections.emptyList(), index.listTeamMembersForPrefix("r", GROUP, null, null, 10L, 0L));
+		assertEquals(2L, index.countTeamMembersForPrefix("r", TEAM_ROME));
+		// Romane matches through a second token
+		assertEquals(1L, index.countTeamMembersForPrefix("rub", TEAM_ROME));
+		assertEquals(0L, index.countTeamMembersForPrefix("romanu", TEAM_ROME));
+	}
+
+	@Test
+	public void testListTeamMembersForPrefixWithIncludeAndExclude() {
+		assertEquals(Arrays.asList(ROMULUS),
+				index.listTeamMembersForPrefix("r", TEAM_ROME, ImmutableSet.of(ROMULUS, RUBENS), null, 10L, 0L));
+		assertEquals(Arrays.asList(ROMANE), index.listTeamMembersForPrefix("r", TEAM_ROME, null, ImmutableSet.of(ROMULUS), 10L, 0L));
+		// exclusion has precedence
+		assertEquals(Collections.emptyList(),
+				index.listTeamMembersForPrefix("r", TEAM_ROME, ImmutableSet.of(ROMULUS), ImmutableSet.of(ROMULUS), 10L, 0L));
+		// an empty include is not a filter
+		assertEquals(Arrays.asList(ROMANE, ROMULUS),
+				index.listTeamMembersForPrefix("r", TEAM_ROME, Collections.emptySet(), null, 10L, 0L));
+	}
+
+	@Test
+	public void testListTeamMembersForPrefixWithLargeTeam() {
+		PrincipalPrefixIndex.Builder builder = PrincipalPrefixIndex.builder();
+		int count = 100;
+		for (long id = 0; id < count; id++) {
+			builder.addPrincipal(id, true);
+		}
+		for (long id = 0; id < count; id++) {
+			builder.addToken(String.format("user%03d", id), id);
+		}
+		for (long id = 0; id < count; id++) {
+			builder.addTeamMember(TEAM_ROME, id);
+		}
+		PrincipalPrefixIndex built = builder.build();
+		// The team is larger than the matching tokens
+		assertEquals(Arrays.asList(11L, 12L), built.listTeamMembersForPrefix("user01", TEAM_ROME, null, null, 2L, 1L));
+		assertEquals(10L, built.countTeamMembersForPrefix("user01", TEAM_ROME));
+	}
+
+	@Test
+	public void testListTeamMembersForPrefixWithSmallTeam() {
+		PrincipalPrefixIndex.Builder builder = PrincipalPrefixIndex.builder();
+		int count = 100;
+		for (long id = 0; id < count; id++) {
+			builder.addPrincipal(id, true);
+		}
+		for (long id = 0; id < count; id++) {
+			builder.addToken(String.format("user%03d", id), id);
+		}
+		builder.addTeamMember(TEAM_ROME, 42L).addTeamMember(TEAM_ROME, 7L).addTeamMember(TEAM_ROME, 13L);
+		PrincipalPrefixIndex built = builder.build();
+		// The matching tokens are more than the members of the team
+		assertEquals(Arrays.asList(7L, 13L, 42L), built.listTeamMembersForPrefix("user", TEAM_ROME, null, null, 10L, 0L));
+		assertEquals(Arrays.asList(13L), built.listTeamMembersForPrefix("user", TEAM_ROME, null, null, 1L, 1L));
+		assertEquals(Arrays.asList(42L), built.listTeamMembersForPrefix("user", TEAM_ROME, null, ImmutableSet.of(7L, 13L), 10L, 0L));
+		assertEquals(3L, built.countTeamMembersForPrefix("user", TEAM_ROME));
+		assertEquals(1L, built.countTeamMembersForPrefix("user01", TEAM_ROME));
+	}
+
+	@Test
+	public void testWithPrincipals() {
+		Long newUser = 20L;
+		// call under test
+		PrincipalPrefixIndex updated = index.withPrincipals(Arrays.asList(
+				IndexedPrincipal.principal(ROMANE, true, ImmutableSet.of("zeno")),
+				IndexedPrincipal.principal(newUser, true, ImmutableSet.of("romana")),
+				IndexedPrincipal.deleted(ROMULUS),
+				IndexedPrincipal.team(TEAM_ROME, ImmutableSet.of("romecity"), ImmutableSet.of(newUser, RUBENS))));
+
+		assertEquals(Arrays.asList(newUser, ROMANUS, TEAM_ROME, GROUP), updated.listPrincipalsForPrefix("rom", 10L, 0L));
+		assertEquals(Arrays.asList(ROMANE), updated.listPrincipalsForPrefix("z", 10L, 0L));
+		assertEquals(Arrays.asList(newUser, RUBENS), updated.listTeamMembersForPrefix("r", TEAM_ROME, null, null, 10L, 0L));
+		assertEquals(Arrays.asList(newUser, ROMANUS), updated.listPrincipalsForPrefix("rom", true, 10L, 0L));
+		assertEquals(4, updated.getOverlaySize());
+		// The original index is unchanged
+		assertEquals(Arrays.asList(ROMANE, ROMANUS, TEAM_ROME, GROUP, ROMULUS), index.listPrincipalsForPrefix("rom", 10L, 0L));
+		assertEquals(0, index.getOverlaySize());
+	}
+
+	@Test
+	public void testWithPrincipalsTeamDeleted() {
+		// call under test
+		PrincipalPrefixIndex updated = index.withPrincipals(Collections.singletonList(IndexedPrincipal.deleted(TEAM_ROME)));
+		assertEquals(Collections.emptyList(), updated.listTeamsForPrefix("rom", 10L, 0L));
+		assertEquals(Collections.emptyList(), updated.listTeamMembersForPrefix("r", TEAM_ROME, null, null, 10L, 0L));
+	}
+
+	@Test
+	public void testBuilderWithUnknownPrincipal() {
+		PrincipalPrefixIndex built = PrincipalPrefixIndex.builder().addPrincipal(1L, true).addToken("abc", 2L).addToken("abc", 1L)
+				.addTeamMember(3L, 2L).build();
+		assertEquals(1, built.getTokenCount());
+		List<Long> results = built.listPrincipalsForPrefix("a", 10L, 0L);
+		assertEquals(Arrays.asList(1L), results);
+	}
+
+	@Test
+	public void testBuilderWithTokensOutOfOrder() {
+		PrincipalPrefixIndex.Builder builder = PrincipalPrefixIndex.builder().addPrincipal(1L, true).addToken("b", 1L);
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			builder.addToken("a", 1L);
+		}).getMessage();
+		assertEquals("Tokens must be added in ascending order.", message);
+	}
+
+	@Test
+	public void testBuilderWithPrincipalsOutOfOrder() {
+		PrincipalPrefixIndex.Builder builder = PrincipalPrefixIndex.builder().addPrincipal(2L, true);
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			builder.addPrincipal(1L, true);
+		}).getMessage();
+		assertEquals("Principals must be added in ascending order.", message);
+	}
+
+	@Test
+	public void testBuilderGrowth() {
+		PrincipalPrefixIndex.Builder builder = PrincipalPrefixIndex.builder();
+		int count = 5000;
+		for (long id = 0; id < count; id++) {
+			builder.addPrincipal(id, true);
+		}
+		for (long id = 0; id < count; id++) {
+			builder.addToken(String.format("user%06d", id), id);
+			builder.addTeamMember(TEAM_ROME, id);
+		}
+		PrincipalPrefixIndex built = builder.build();
+		assertEquals(count, built.getTokenCount());
+		assertEquals(Arrays.asList(1234L), built.listPrincipalsForPrefix("user001234", 10L, 0L));
+		assertEquals(10L, built.countTeamMembersForPrefix("user00123", TEAM_ROME));
+	}
+}
@@ -5,7 +5,11 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.junit.jupiter.api.AfterEach;
@@ -20,6 +24,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(locations = { "classpath:jdomodels-test-context.xml" })
 public class EmailQuarantineDaoImplTest {
@@ -385,6 +392,64 @@ public class EmailQuarantineDaoImplTest {
 		assertFalse(dao.isQuarantined(testEmail));
 	}
 
+	@Test
+	public void testGetQuarantinedEmails() throws Exception {
+		Long timeout = 50L;
+		
+		dao.addToQuarantine(new QuarantinedEmailBatch()
+				.add(getTestQuarantinedEmail())
+				.add(getTestQuarantinedEmail("other@test.com", EmailQuarantineReason.PERMANENT_BOUNCE)));
+		
+		dao.addToQuarantine(new QuarantinedEmailBatch()
+				.withExpirationTimeout(timeout)
+				.add(getTestQuarantinedEmail("expired@test.com", EmailQuarantineReason.PERMANENT_BOUNCE)));
+		
+		Thread.sleep(timeout * 2);
+		
+		// Call under test
+		Set<String> result = dao.getQuarantinedEmails(ImmutableList.of(testEmail, "OTHER@test.com", "expired@test.com", "notquarantined@test.com"));
+		
+		assertEquals(ImmutableSet.of(testEmail, "OTHER@test.com"), result);
+	}
+	
+	@Test
+	public void testGetQuarantinedEmailsWithEmptyInput() {
+		// Call under test
+		Set<String> result = dao.getQuarantinedEmails(Collections.emptyList());
+		
+		assertTrue(result.isEmpty());
+	}
+	
+	@Test
+	public void testGetQuarantinedEmailsWithMultipleChunks() {
+		List<String> emails = new ArrayList<>();
+		
+		for (int i = 0; i < EmailQuarantineDaoImpl.MAX_EMAILS_PER_QUERY + 1; i++) {
+			emails.add("email" + i + "@test.com");
+		}
+		
+		String lastEmail = emails.get(emails.size() - 1);
+		
+		dao.addToQuarantine(new QuarantinedEmailBatch()
+				.add(getTestQuarantinedEmail(emails.get(0), EmailQuarantineReason.PERMANENT_BOUNCE))
+				.add(getTestQuarantinedEmail(lastEmail, EmailQuarantineReason.PERMANENT_BOUNCE)));
+		
+		// Call under test
+		Set<String> result = dao.getQuarantinedEmails(emails);
+		
+		assertEquals(ImmutableSet.of(emails.get(0), lastEmail), result);
+	}
+	
+	@Test
+	public void testGetQuarantinedEmailsWithBlankEmail() {
+		String errorMessage = Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			dao.getQuarantinedEmails(ImmutableList.of(testEmail, " "));
+		}).getMessage();
+		
+		assertEquals("The email address is required and must not be a blank string.", errorMessage);
+	}
+
 	private QuarantinedEmail getTestQuarantinedEmail() {
 		return getTestQuarantinedEmail(testEmail, EmailQuarantineReason.PERMANENT_BOUNCE);
 	}
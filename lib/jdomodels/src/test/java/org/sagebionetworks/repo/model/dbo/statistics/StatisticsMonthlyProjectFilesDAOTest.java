@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.AfterEach;
@@ -21,10 +22,13 @@ import org.sagebionetworks.repo.model.dbo.statistics.StatisticsMonthlyProjectFil
 import org.sagebionetworks.repo.model.statistics.FileEvent;
 import org.sagebionetworks.repo.model.statistics.monthly.StatisticsMonthlyUtils;
 import org.sagebionetworks.repo.model.statistics.project.StatisticsMonthlyProjectFiles;
+import org.sagebionetworks.repo.model.statistics.project.StatisticsMonthlyProjectFilesEvents;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.google.common.collect.ImmutableSet;
+
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(locations = { "classpath:jdomodels-test-context.xml" })
 public class StatisticsMonthlyProjectFilesDAOTest {
@@ -225,6 +229,62 @@ public class StatisticsMonthlyProjectFilesDAOTest {
 
 	}
 
+	@Test
+	public void testAddEvents() {
+		Long projectId = 1L;
+		YearMonth month = YearMonth.of(2019, 8);
+		FileEvent eventType = FileEvent.FILE_DOWNLOAD;
+
+		// Call under test
+		dao.addEvents(Collections.singletonList(getEvents(projectId, eventType, month, 2, ImmutableSet.of(1L, 2L))));
+
+		assertCounts(projectId, eventType, month, 2, 2);
+
+		// Call under test, the second batch adds to the first one
+		dao.addEvents(Collections.singletonList(getEvents(projectId, eventType, month, 3, ImmutableSet.of(2L, 3L))));
+
+		assertCounts(projectId, eventType, month, 5, 3);
+	}
+
+	@Test
+	public void testAddEventsWithMultipleKeys() {
+		YearMonth month = YearMonth.of(2019, 8);
+
+		List<StatisticsMonthlyProjectFilesEvents> batch = new ArrayList<>();
+
+		batch.add(getEvents(2L, FileEvent.FILE_DOWNLOAD, month, 4, ImmutableSet.of(1L, 2L)));
+		batch.add(getEvents(1L, FileEvent.FILE_UPLOAD, month, 1, ImmutableSet.of(1L)));
+		batch.add(getEvents(1L, FileEvent.FILE_DOWNLOAD, month, 3, ImmutableSet.of(1L, 2L, 3L)));
+		batch.add(getEvents(1L, FileEvent.FILE_DOWNLOAD, month.plusMonths(1), 1, ImmutableSet.of(4L)));
+
+		// Call under test
+		dao.addEvents(batch);
+
+		assertCounts(2L, FileEvent.FILE_DOWNLOAD, month, 4, 2);
+		assertCounts(1L, FileEvent.FILE_UPLOAD, month, 1, 1);
+		assertCounts(1L, FileEvent.FILE_DOWNLOAD, month, 3, 3);
+		assertCounts(1L, FileEvent.FILE_DOWNLOAD, month.plusMonths(1), 1, 1);
+	}
+
+	@Test
+	public void testAddEventsWithEmptyBatch() {
+		// Call under test
+		dao.addEvents(Collections.emptyList());
+
+		assertEquals(0L, dao.countProjectsInRange(FileEvent.FILE_DOWNLOAD, YearMonth.of(2019, 8), YearMonth.of(2019, 8)));
+	}
+
+	private StatisticsMonthlyProjectFilesEvents getEvents(Long projectId, FileEvent eventType, YearMonth month, int filesCount,
+			Set<Long> userIds) {
+		StatisticsMonthlyProjectFilesEvents events = new StatisticsMonthlyProjectFilesEvents();
+		events.setProjectId(projectId);
+		events.setEventType(eventType);
+		events.setMonth(month);
+		events.setFilesCount(filesCount);
+		events.setUserIds(userIds);
+		return events;
+	}
+
 	private void assertCounts(Long projectId, FileEvent eventType, YearMonth month, Integer filesCount, Integer usersCount) {
 		Optional<StatisticsMonthlyProjectFiles> result = dao.getProjectFilesStatistics(Long.valueOf(projectId), eventType, month);
 
@@ -16,6 +16,7 @@ import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.sagebionetworks.repo.model.Annotations;
+import org.sagebionetworks.repo.model.UnmodifiableXStream;
 import org.sagebionetworks.repo.model.util.RandomAnnotationsUtil;
 
 /**
@@ -153,6 +154,32 @@ public class AnnotationUtilsTest {
 		Assertions.assertEquals(additionalAnnotations.getStringAnnotations(), deserialziedAdditionalAnnotations.getStringAnnotations());
 	}
 
+	@Test
+	public void testCompressAnnotations_BinaryFormat() throws IOException {
+		Annotations annotations = new Annotations();
+		annotations.addAnnotation("key", "value");
+
+		//method under test
+		byte[] annotationsBytes = AnnotationUtils.compressAnnotationsV1(annotations);
+
+		assertTrue(AnnotationsBinaryCodec.isBinaryFormat(annotationsBytes));
+	}
+
+	@Test
+	public void testDecompressAnnotations_LegacyXML() throws IOException {
+		Annotations annotations = new Annotations();
+		annotations.addAnnotation("key", "value");
+		annotations.addAnnotation("count", 12L);
+		UnmodifiableXStream xStream = UnmodifiableXStream.builder().alias("annotations", Annotations.class).build();
+		byte[] legacyBytes = JDOSecondaryPropertyUtils.compressObject(xStream, annotations);
+
+		//method under test
+		Annotations result = AnnotationUtils.decompressedAnnotationsV1(legacyBytes);
+
+		Assertions.assertEquals(annotations.getStringAnnotations(), result.getStringAnnotations());
+		Assertions.assertEquals(annotations.getLongAnnotations(), result.getLongAnnotations());
+	}
+
 	@Test
 	public void testPLFM_4189() throws IOException{
 		String fileName = "CompressedAnnotationsPLFM_4189.xml.gz";
@@ -0,0 +1,143 @@
+package org.sagebionetworks.repo.model.jdo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.sagebionetworks.repo.model.Annotations;
+import org.sagebionetworks.repo.model.UnmodifiableXStream;
+
+public class AnnotationsBinaryCodecTest {
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		Annotations annotations = new Annotations();
+		annotations.addAnnotation("string", "one");
+		annotations.addAnnotation("string", "two \u00e9\u4e2d");
+		annotations.addAnnotation("double", 1.5);
+		annotations.addAnnotation("double", Double.NaN);
+		annotations.addAnnotation("long", Long.MIN_VALUE);
+		annotations.addAnnotation("long", 123L);
+		annotations.addAnnotation("date", new Date(1234567L));
+		annotations.addAnnotation("blob", new byte[] { 1, 2, 3 });
+		annotations.setId("not encoded");
+		annotations.setEtag("not encoded");
+		// call under test
+		Annotations result = AnnotationsBinaryCodec.decode(AnnotationsBinaryCodec.encode(annotations));
+		assertNull(result.getId());
+		assertNull(result.getEtag());
+		assertEquals(annotations.getStringAnnotations(), result.getStringAnnotations());
+		assertEquals(annotations.getDoubleAnnotations(), result.getDoubleAnnotations());
+		assertEquals(annotations.getLongAnnotations(), result.getLongAnnotations());
+		assertEquals(annotations.getDateAnnotations(), result.getDateAnnotations());
+		assertEquals(1, result.getBlobAnnotations().size());
+		assertArrayEquals(new byte[] { 1, 2, 3 }, result.getBlobAnnotations().get("blob").get(0));
+	}
+
+	@Test
+	public void testRoundTripWithNulls() throws IOException {
+		Annotations annotations = new Annotations();
+		annotations.getStringAnnotations().put("nullValue", Arrays.asList("a", null));
+		annotations.getStringAnnotations().put("nullList", null);
+		annotations.getStringAnnotations().put("emptyList", Collections.emptyList());
+		annotations.getDoubleAnnotations().put("double", Arrays.asList((Double) null));
+		annotations.getLongAnnotations().put("long", Arrays.asList((Long) null));
+		annotations.getDateAnnotations().put("date", Arrays.asList((Date) null));
+		annotations.getBlobAnnotations().put("blob", Arrays.asList((byte[]) null));
+		// call under test
+		Annotations result = AnnotationsBinaryCodec.decode(AnnotationsBinaryCodec.encode(annotations));
+		assertEquals(annotations.getStringAnnotations(), result.getStringAnnotations());
+		assertEquals(annotations.getDoubleAnnotations(), result.getDoubleAnnotations());
+		assertEquals(annotations.getLongAnnotations(), result.getLongAnnotations());
+		assertEquals(annotations.getDateAnnotations(), result.getDateAnnotations());
+		assertEquals(Arrays.asList((byte[]) null), result.getBlobAnnotations().get("blob"));
+	}
+
+	@Test
+	public void testRoundTripRandom() throws IOException {
+		Annotations annotations = RandomAnnotationsUtil.generateRandom(123L, 20);
+		// call under test
+		Annotations result = AnnotationsBinaryCodec.decode(AnnotationsBinaryCodec.encode(annotations));
+		assertEquals(annotations.getStringAnnotations(), result.getStringAnnotations());
+		assertEquals(annotations.getDoubleAnnotations(), result.getDoubleAnnotations());
+		assertEquals(annotations.getLongAnnotations(), result.getLongAnnotations());
+		assertEquals(annotations.getDateAnnotations(), result.getDateAnnotations());
+		assertEquals(annotations.getBlobAnnotations().keySet(), result.getBlobAnnotations().keySet());
+		for (String key : annotations.getBlobAnnotations().keySet()) {
+			List<byte[]> expected = annotations.getBlobAnnotations().get(key);
+			List<byte[]> actual = result.getBlobAnnotations().get(key);
+			assertEquals(expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertArrayEquals(expected.get(i), actual.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void testEncodedSizeSmallerThanLegacy() throws IOException {
+		// The entity property annotations are a handful of short strings, longs and dates
+		Annotations annotations = new Annotations();
+		annotations.addAnnotation("md5", "8f14e45fceea167a5a36dedd4bea2543");
+		annotations.addAnnotation("fileNameOverride", "sample_001_R1.fastq.gz");
+		annotations.addAnnotation("numberOfBytes", 123456789L);
+		annotations.addAnnotation("versionNumber", 3L);
+		annotations.addAnnotation("modifiedOn", new Date(1600000000000L));
+		UnmodifiableXStream xStream = UnmodifiableXStream.builder().alias("annotations", Annotations.class).build();
+		byte[] legacy = JDOSecondaryPropertyUtils.compressObject(xStream, annotations);
+		// call under test
+		byte[] encoded = AnnotationsBinaryCodec.encode(annotations);
+		assertTrue(encoded.length < legacy.length, "Binary: " + encoded.length + " legacy: " + legacy.length);
+	}
+
+	@Test
+	public void testIsBinaryFormat() throws IOException {
+		assertTrue(AnnotationsBinaryCodec.isBinaryFormat(AnnotationsBinaryCodec.encode(new Annotations())));
+		assertFalse(AnnotationsBinaryCodec.isBinaryFormat(null));
+		assertFalse(AnnotationsBinaryCodec.isBinaryFormat(new byte[] { 'S', 'Y', 'N', 'A' }));
+		UnmodifiableXStream xStream = UnmodifiableXStream.builder().alias("annotations", Annotations.class).build();
+		Annotations annotations = new Annotations();
+		annotations.addAnnotation("key", "value");
+		assertFalse(AnnotationsBinaryCodec.isBinaryFormat(JDOSecondaryPropertyUtils.compressObject(xStream, annotations)));
+	}
+
+	@Test
+	public void testDecodeWithUnknownVersion() throws IOException {
+		byte[] bytes = AnnotationsBinaryCodec.encode(new Annotations());
+		bytes[AnnotationsBinaryCodec.MAGIC.length] = 2;
+		String message = assertThrows(IOException.class, () -> {
+			// call under test
+			AnnotationsBinaryCodec.decode(bytes);
+		}).getMessage();
+		assertEquals("Unsupported annotations format version: 2", message);
+	}
+
+	@Test
+	public void testDecodeWithUnknownSection() throws IOException {
+		byte[] bytes = AnnotationsBinaryCodec.encode(new Annotations());
+		bytes[AnnotationsBinaryCodec.MAGIC.length + 1] = 9;
+		String message = assertThrows(IOException.class, () -> {
+			// call under test
+			AnnotationsBinaryCodec.decode(bytes);
+		}).getMessage();
+		assertEquals("Unknown annotations section: 9", message);
+	}
+
+	@Test
+	public void testDecodeWithLegacyBytes() {
+		String message = assertThrows(IOException.class, () -> {
+			// call under test
+			AnnotationsBinaryCodec.decode(new byte[] { 0x1f, (byte) 0x8b, 0, 0, 0 });
+		}).getMessage();
+		assertEquals("The bytes are not binary encoded annotations", message);
+	}
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -14,9 +15,13 @@ import org.sagebionetworks.schema.adapter.JSONObjectAdapterException;
 import org.sagebionetworks.schema.adapter.org.json.EntityFactory;
 import org.sagebionetworks.util.ThreadLocalProvider;
 
+import com.google.common.collect.Sets;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -160,6 +165,41 @@ public class TransactionalMessengerImplTest {
 		verify(mockObserver, times(1)).fireChangeMessage(any(ChangeMessage.class));
 	}
 	
+	@Test
+	public void testSendMessagesAfterCommit(){
+		ThreadLocalProvider.getInstance(AuthorizationConstants.USER_ID_PARAM, Long.class).set(99L);
+		MessageToSend one = new MessageToSend().withObjectId("1").withObjectType(ObjectType.SUBMISSION).withChangeType(ChangeType.UPDATE).withUserId(5L);
+		MessageToSend two = new MessageToSend().withObjectId("2").withObjectType(ObjectType.SUBMISSION).withChangeType(ChangeType.UPDATE);
+		// call under test
+		messenger.sendMessagesAfterCommit(Arrays.asList(one, two));
+		// A single handler for the whole batch
+		assertEquals(1, stubProxy.getSynchronizations().size());
+		ChangeMessage expectedOne = one.buildChangeMessage();
+		ChangeMessage expectedTwo = two.buildChangeMessage();
+		expectedTwo.setUserId(99L);
+		// Simulate the before commit
+		stubProxy.getSynchronizations().get(0).beforeCommit(false);
+		ArgumentCaptor<List<ChangeMessage>> captor = ArgumentCaptor.forClass(List.class);
+		// The batch is written with a single call
+		verify(mockChangeDAO, times(1)).replaceChange(captor.capture());
+		assertEquals(Sets.newHashSet(expectedOne, expectedTwo), new HashSet<>(captor.getValue()));
+		// Simulate the after commit
+		stubProxy.getSynchronizations().get(0).afterCommit();
+		// Each message is still fired for its own object
+		verify(mockObserver).fireChangeMessage(expectedOne);
+		verify(mockObserver).fireChangeMessage(expectedTwo);
+		verify(mockObserver, times(2)).fireChangeMessage(any(ChangeMessage.class));
+	}
+	
+	@Test
+	public void testSendMessagesAfterCommitWithNullBatch(){
+		String result = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			messenger.sendMessagesAfterCommit(null);
+		}).getMessage();
+		assertEquals("The batch is required.", result);
+	}
+	
 	@Test
 	public void testSendMessageTwice() throws JSONObjectAdapterException{
 		ChangeMessage first = new ChangeMessage();
@@ -82,6 +82,14 @@ public class StatisticsMonthlyUtilsTest {
 		assertEquals(1583020800000L, result.getSecond());
 	}
 	
+	@Test
+	public void testGetMonth() {
+		// Call under test
+		assertEquals(YearMonth.of(2019, 8), StatisticsMonthlyUtils.getMonth(1564617600000L));
+		assertEquals(YearMonth.of(2019, 8), StatisticsMonthlyUtils.getMonth(1567296000000L - 1));
+		assertEquals(YearMonth.of(2019, 9), StatisticsMonthlyUtils.getMonth(1567296000000L));
+	}
+	
 	private void testForXMonths(int numberOfMonths) {
 		YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
 		
@@ -0,0 +1,83 @@
+package org.sagebionetworks.audit.dao;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.sagebionetworks.csv.utils.ObjectCSVWriter;
+
+/**
+ * A csv.gz object file in S3 that is still being written. Batches of objects
+ * can be appended to the file until it is closed, the file only becomes
+ * visible in S3 once it is closed.
+ *
+ * @param <T>
+ */
+public class GzipCsvS3ObjectFile<T> {
+
+	private final S3MultipartOutputStream out;
+	private final OutputStreamWriter osw;
+	private final ObjectCSVWriter<T> writer;
+	private final long createdOn;
+
+	GzipCsvS3ObjectFile(S3MultipartOutputStream out, Class<T> objectClass, String[] headers, long createdOn) throws IOException {
+		this.out = out;
+		this.osw = new OutputStreamWriter(new GZIPOutputStream(out));
+		this.writer = new ObjectCSVWriter<T>(osw, objectClass, headers);
+		this.createdOn = createdOn;
+	}
+
+	/**
+	 * Append a batch of objects to the file.
+	 *
+	 * @param batch
+	 * @throws IOException
+	 */
+	public void append(List<T> batch) throws IOException {
+		for (T object : batch) {
+			writer.append(object);
+		}
+		// Push the batch to the compressor so that the compressed size accounts for it
+		osw.flush();
+	}
+
+	public String getKey() {
+		return out.getKey();
+	}
+
+	/**
+	 * @return The number of compressed bytes written to the file so far
+	 */
+	public long getCompressedSize() {
+		return out.getBytesWritten();
+	}
+
+	/**
+	 * @return The time the file was opened (MS)
+	 */
+	public long getCreatedOn() {
+		return createdOn;
+	}
+
+	/**
+	 * Complete the file, making it visible in S3.
+	 *
+	 * @throws IOException
+	 */
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	/**
+	 * Discard the file, nothing is written to S3.
+	 */
+	public void abort() {
+		out.abort();
+		try {
+			osw.close();
+		} catch (IOException e) {
+			// The stream is already aborted
+		}
+	}
+}
@@ -1,20 +1,18 @@
 package org.sagebionetworks.audit.dao;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
 import java.util.List;
-import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.Executor;
 
 import org.sagebionetworks.aws.SynapseS3Client;
-import org.sagebionetworks.csv.utils.ObjectCSVWriter;
 import org.sagebionetworks.util.ContentDispositionUtils;
 
 import com.amazonaws.services.s3.model.ObjectMetadata;
 
 /**
- * A writer that writes csv.gz object files to S3.
+ * A writer that writes csv.gz object files to S3. The compressed data is
+ * streamed to S3 in parts as it is written, so the memory used by a file is
+ * bounded by the part size regardless of the size of the file.
  * 
  * @param <T>
  *            For object of this type provide, a row will be written to a CSV
@@ -22,12 +20,21 @@ import com.amazonaws.services.s3.model.ObjectMetadata;
  */
 public class GzipCsvS3ObjectWriter<T> {
 
+	/**
+	 * The default number of parts of a single file uploaded at the same time.
+	 */
+	public static final int DEFAULT_MAX_PARTS_IN_FLIGHT = 2;
+
 	private SynapseS3Client awsS3Client;
 	private Class<T> objectClass;
 	private String[] headers;
+	private Executor uploadExecutor;
+	private int partSize;
+	private int maxPartsInFlight;
 
 	/**
-	 * Create a new write for each object type to write.
+	 * Create a new write for each object type to write. The parts of each file
+	 * are uploaded one at a time by the writing thread.
 	 * 
 	 * @param awsS3Client
 	 *            A configured S3 client.
@@ -39,10 +46,36 @@ public class GzipCsvS3ObjectWriter<T> {
 	 */
 	public GzipCsvS3ObjectWriter(SynapseS3Client awsS3Client,
 			Class<T> objectClass, String[] headers) {
+		this(awsS3Client, objectClass, headers, Runnable::run, S3MultipartOutputStream.MIN_PART_SIZE, 1);
+	}
+
+	/**
+	 * Create a new write for each object type to write.
+	 * 
+	 * @param awsS3Client
+	 *            A configured S3 client.
+	 * @param objectClass
+	 *            The type of Objects to be written to the CSV.
+	 * @param headers
+	 *            Maps the fields of the given objectClass to columns of the
+	 *            resulting CSV file.
+	 * @param uploadExecutor
+	 *            Used to upload the parts of the files.
+	 * @param partSize
+	 *            The size of the parts of the files.
+	 * @param maxPartsInFlight
+	 *            The maximum number of parts of a single file uploaded at the
+	 *            same time.
+	 */
+	public GzipCsvS3ObjectWriter(SynapseS3Client awsS3Client,
+			Class<T> objectClass, String[] headers, Executor uploadExecutor, int partSize, int maxPartsInFlight) {
 		super();
 		this.awsS3Client = awsS3Client;
 		this.objectClass = objectClass;
 		this.headers = headers;
+		this.uploadExecutor = uploadExecutor;
+		this.partSize = partSize;
+		this.maxPartsInFlight = maxPartsInFlight;
 	}
 
 	/**
@@ -55,25 +88,33 @@ public class GzipCsvS3ObjectWriter<T> {
 	 */
 	public void write(List<T> batch, String bucket, String key)
 			throws IOException {
-		// Write the data to a gzip
-		ByteArrayOutputStream out = new ByteArrayOutputStream();
-		GZIPOutputStream zipOut = new GZIPOutputStream(out);
-		OutputStreamWriter osw = new OutputStreamWriter(zipOut);
-		ObjectCSVWriter<T> writer = new ObjectCSVWriter<T>(osw, objectClass,
-				headers);
-		// Write all of the data
-		for (T ar : batch) {
-			writer.append(ar);
+		GzipCsvS3ObjectFile<T> file = open(bucket, key, System.currentTimeMillis());
+		try {
+			file.append(batch);
+		} catch (IOException | RuntimeException e) {
+			file.abort();
+			throw e;
 		}
-		writer.close();
-		// Create an input stream
-		byte[] bytes = out.toByteArray();
-		ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+		file.close();
+	}
+
+	/**
+	 * Open a new csv.gz file in S3 that batches of objects can be appended to.
+	 * The file is only written to S3 once it is closed.
+	 * 
+	 * @param bucket
+	 * @param key
+	 * @param now
+	 *            The time the file is opened (MS)
+	 * @return
+	 * @throws IOException
+	 */
+	public GzipCsvS3ObjectFile<T> open(String bucket, String key, long now) throws IOException {
 		ObjectMetadata om = new ObjectMetadata();
 		om.setContentType("application/x-gzip");
 		om.setContentEncoding("gzip");
 		om.setContentDisposition(ContentDispositionUtils.getContentDispositionValue(key));
-		om.setContentLength(bytes.length);
-		awsS3Client.putObject(bucket, key, in, om);
+		S3MultipartOutputStream out = new S3MultipartOutputStream(awsS3Client, bucket, key, om, uploadExecutor, partSize, maxPartsInFlight);
+		return new GzipCsvS3ObjectFile<T>(out, objectClass, headers, now);
 	}
 }
@@ -3,6 +3,7 @@ package org.sagebionetworks.audit.dao;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.sagebionetworks.repo.model.audit.ObjectRecord;
 
@@ -13,14 +14,44 @@ import org.sagebionetworks.repo.model.audit.ObjectRecord;
 public interface ObjectRecordDAO {
 
 	/**
-	 * Save a batch of object records to a file and pushes it to S3
+	 * Append a batch of object records to the file of the given type that is
+	 * currently open. The file is pushed to S3 once it is rolled, the call does
+	 * not wait for it.
 	 * 
 	 * @param records - the object records to write
 	 * @param type - the type of the synapse object that is going to be written 
-	 * @return the path of the file that is stored in S3
+	 * @return the path of the file that the batch will be stored in
 	 * @throws IOException
 	 */
 	String saveBatch(List<ObjectRecord> records, String type) throws IOException;
+
+	/**
+	 * Append a batch of object records to the file of the given type that is
+	 * currently open, like {@link #saveBatch(List, String)}. Used by callers
+	 * that acknowledge their work only once the batch is stored.
+	 * 
+	 * @param records - the object records to write
+	 * @param type - the type of the synapse object that is going to be written
+	 * @return A future that completes once the file holding the batch is pushed
+	 *         to S3, or exceptionally if the file failed to be pushed
+	 * @throws IOException
+	 */
+	CompletableFuture<Void> saveBatchAsync(List<ObjectRecord> records, String type) throws IOException;
+
+	/**
+	 * Push to S3 the open files that reached their maximum size or age. Called
+	 * from a timer so that files are rolled even when no new batches come in.
+	 * 
+	 * @throws IOException
+	 */
+	void rollExpiredFiles() throws IOException;
+
+	/**
+	 * Push all of the open files to S3.
+	 * 
+	 * @throws IOException
+	 */
+	void flush() throws IOException;
 	
 	/**
 	 * Get a batch of ObjectRecords from the permanent store using its key
@@ -4,14 +4,29 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 
 import org.sagebionetworks.aws.SynapseS3Client;
 import org.sagebionetworks.aws.utils.s3.BucketDaoImpl;
 import org.sagebionetworks.aws.utils.s3.KeyData;
 import org.sagebionetworks.aws.utils.s3.KeyGeneratorUtil;
 import org.sagebionetworks.repo.model.audit.ObjectRecord;
+import org.sagebionetworks.util.Clock;
+import org.sagebionetworks.util.DefaultClock;
 import org.springframework.beans.factory.annotation.Autowired;
 
+/**
+ * The batches of each type are appended to a single open file, that is rolled
+ * over to a new file once it reaches the maximum size or age. Saving a batch
+ * does not wait for the file to be stored in S3, callers that acknowledge work
+ * once it is saved use {@link #saveBatchAsync(List, String)} and acknowledge it
+ * when the returned future completes. When a file fails to be stored the
+ * futures of all of its batches fail, so that none of them is acknowledged.
+ *
+ */
 public class ObjectRecordDAOImpl implements ObjectRecordDAO {
 
 	private final static String[] HEADERS = new String[] { "timestamp", "jsonClassName", "jsonString" };
@@ -24,12 +39,20 @@ public class ObjectRecordDAOImpl implements ObjectRecordDAO {
 	 */
 	private int stackInstanceNumber;
 	private String snapshotRecordBucketName;
+	private Executor uploadExecutor = Runnable::run;
+	private int partSize = S3MultipartOutputStream.MIN_PART_SIZE;
+	private long maxFileSizeBytes = 0L;
+	private long maxFileAgeMS = 0L;
+
+	private Clock clock = new DefaultClock();
 
 	private GzipCsvS3ObjectReader<ObjectRecord> reader;
 	private GzipCsvS3ObjectWriter<ObjectRecord> writer;
 
 	private BucketDaoImpl bucketDao;
 
+	private final ConcurrentMap<String, RollingFile> rollingFiles = new ConcurrentHashMap<>();
+
 	/**
 	 * Injected via Spring
 	 */
@@ -43,6 +66,50 @@ public class ObjectRecordDAOImpl implements ObjectRecordDAO {
 		this.stackInstanceNumber = stackInstanceNumber;
 	}
 
+	/**
+	 * Injected via Spring
+	 * 
+	 * @param uploadExecutor Used to upload the parts of the files.
+	 */
+	public void setUploadExecutor(Executor uploadExecutor) {
+		this.uploadExecutor = uploadExecutor;
+	}
+
+	/**
+	 * Injected via Spring
+	 * 
+	 * @param partSize The size of the parts the files are uploaded in.
+	 */
+	public void setPartSize(int partSize) {
+		this.partSize = partSize;
+	}
+
+	/**
+	 * Injected via Spring
+	 * 
+	 * @param maxFileSizeBytes A file is rolled once it reaches this compressed
+	 *                         size. Defaults to 0, each batch is written to its
+	 *                         own file.
+	 */
+	public void setMaxFileSizeBytes(long maxFileSizeBytes) {
+		this.maxFileSizeBytes = maxFileSizeBytes;
+	}
+
+	/**
+	 * Injected via Spring
+	 * 
+	 * @param maxFileAgeMS A file is rolled once it has been open for this long.
+	 *                     Defaults to 0, each batch is written to its own file.
+	 */
+	public void setMaxFileAgeMS(long maxFileAgeMS) {
+		this.maxFileAgeMS = maxFileAgeMS;
+	}
+
+	// Exposed for testing
+	void setClock(Clock clock) {
+		this.clock = clock;
+	}
+
 	/**
 	 * Initialize is called when this bean is first created.
 	 * 
@@ -51,17 +118,34 @@ public class ObjectRecordDAOImpl implements ObjectRecordDAO {
 		reader = new GzipCsvS3ObjectReader<ObjectRecord>(s3Client,
 				ObjectRecord.class, HEADERS);
 		writer = new GzipCsvS3ObjectWriter<ObjectRecord>(s3Client,
-				ObjectRecord.class, HEADERS);
+				ObjectRecord.class, HEADERS, uploadExecutor, partSize, GzipCsvS3ObjectWriter.DEFAULT_MAX_PARTS_IN_FLIGHT);
 		bucketDao = new BucketDaoImpl(s3Client.getUSStandardAmazonClient(), snapshotRecordBucketName);
 	}
 
 	@Override
 	public String saveBatch(List<ObjectRecord> batch, String type)
 			throws IOException {
-		String key = KeyGeneratorUtil.createNewKey(stackInstanceNumber, type,
-				System.currentTimeMillis(), true);
-		writer.write(batch, snapshotRecordBucketName, key);
-		return key;
+		return rollingFiles.computeIfAbsent(type, RollingFile::new).append(batch).file.getKey();
+	}
+
+	@Override
+	public CompletableFuture<Void> saveBatchAsync(List<ObjectRecord> batch, String type) throws IOException {
+		// A copy, so that callers cannot complete the future of the file
+		return rollingFiles.computeIfAbsent(type, RollingFile::new).append(batch).closed.copy();
+	}
+
+	@Override
+	public void rollExpiredFiles() throws IOException {
+		for (RollingFile file : rollingFiles.values()) {
+			file.roll(false);
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		for (RollingFile file : rollingFiles.values()) {
+			file.roll(true);
+		}
 	}
 
 	@Override
@@ -84,4 +168,91 @@ public class ObjectRecordDAOImpl implements ObjectRecordDAO {
 		return bucketDao.keyIterator(
 				KeyGeneratorUtil.getInstanceAndTypePrefix(stackInstanceNumber, type));
 	}
+
+	/**
+	 * A file that was opened for appending and the result of storing it in S3.
+	 */
+	private static class PendingFile {
+
+		private final GzipCsvS3ObjectFile<ObjectRecord> file;
+		private final CompletableFuture<Void> closed = new CompletableFuture<>();
+
+		PendingFile(GzipCsvS3ObjectFile<ObjectRecord> file) {
+			this.file = file;
+		}
+	}
+
+	/**
+	 * The file that the batches of a single type are currently appended to.
+	 */
+	private class RollingFile {
+
+		private final String type;
+		private PendingFile current;
+
+		RollingFile(String type) {
+			this.type = type;
+		}
+
+		/**
+		 * Append the given batch to the current file, a new file is opened if
+		 * needed.
+		 * 
+		 * @return The file the batch was appended to
+		 * @throws IOException
+		 */
+		synchronized PendingFile append(List<ObjectRecord> batch) throws IOException {
+			roll(false);
+			long now = clock.currentTimeMillis();
+			if (current == null) {
+				String key = KeyGeneratorUtil.createNewKey(stackInstanceNumber, type, now, true);
+				current = new PendingFile(writer.open(snapshotRecordBucketName, key, now));
+			}
+			PendingFile pending = current;
+			try {
+				pending.file.append(batch);
+			} catch (IOException | RuntimeException e) {
+				// The batches already appended to the file are lost as well
+				current = null;
+				pending.file.abort();
+				pending.closed.completeExceptionally(e);
+				throw e;
+			}
+			if (pending.file.getCompressedSize() >= maxFileSizeBytes) {
+				closeCurrent();
+			}
+			return pending;
+		}
+
+		/**
+		 * Close the current file if it is full or expired.
+		 * 
+		 * @param force When true the current file is closed regardless
+		 * @throws IOException
+		 */
+		synchronized void roll(boolean force) throws IOException {
+			if (current == null) {
+				return;
+			}
+			if (force || current.file.getCompressedSize() >= maxFileSizeBytes
+					|| clock.currentTimeMillis() - current.file.getCreatedOn() >= maxFileAgeMS) {
+				closeCurrent();
+			}
+		}
+
+		/**
+		 * Close the current file and complete the futures of its batches.
+		 */
+		private void closeCurrent() throws IOException {
+			PendingFile pending = current;
+			current = null;
+			try {
+				pending.file.close();
+			} catch (IOException | RuntimeException e) {
+				pending.closed.completeExceptionally(e);
+				throw e;
+			}
+			pending.closed.complete(null);
+		}
+	}
 }
@@ -0,0 +1,228 @@
+package org.sagebionetworks.audit.dao;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+import org.sagebionetworks.aws.SynapseS3Client;
+import org.sagebionetworks.util.ValidateArgument;
+
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+
+/**
+ * An output stream that writes an object to S3 in parts. Each part is handed
+ * to the given executor as soon as it is full, while the next part is filled.
+ * The part buffers are recycled through a fixed ring, once all of them are in
+ * flight a write blocks until an upload completes, so the memory used by a
+ * stream is bounded by the part size times the number of parts in flight.
+ * <p>
+ * When the stream is closed before the first part is full the object is sent
+ * with a single put, so small objects do not pay for a multipart upload.
+ *
+ */
+public class S3MultipartOutputStream extends OutputStream {
+
+	/**
+	 * The minimum size of a part (but the last) of a multipart upload.
+	 */
+	public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+	static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+	private final SynapseS3Client s3Client;
+	private final String bucket;
+	private final String key;
+	private final ObjectMetadata metadata;
+	private final Executor executor;
+	private final int partSize;
+	private final Semaphore partsInFlight;
+	private final ConcurrentLinkedQueue<byte[]> freeBuffers = new ConcurrentLinkedQueue<>();
+	private final List<CompletableFuture<PartETag>> parts = new ArrayList<>();
+
+	private String uploadId;
+	private byte[] buffer;
+	private int bufferLength = 0;
+	private long bytesWritten = 0L;
+	private boolean closed = false;
+
+	/**
+	 * @param s3Client
+	 * @param bucket
+	 * @param key
+	 * @param metadata         The metadata of the object, the content length is
+	 *                         set by the stream
+	 * @param executor         Used to upload the parts
+	 * @param partSize         The size of each part but the last
+	 * @param maxPartsInFlight The maximum number of parts being uploaded at the
+	 *                         same time
+	 */
+	public S3MultipartOutputStream(SynapseS3Client s3Client, String bucket, String key, ObjectMetadata metadata, Executor executor,
+			int partSize, int maxPartsInFlight) {
+		ValidateArgument.required(s3Client, "s3Client");
+		ValidateArgument.required(bucket, "bucket");
+		ValidateArgument.required(key, "key");
+		ValidateArgument.required(metadata, "metadata");
+		ValidateArgument.required(executor, "executor");
+		ValidateArgument.requirement(partSize > 0, "The part size must be greater than zero.");
+		ValidateArgument.requirement(maxPartsInFlight > 0, "At least one part must be allowed in flight.");
+		this.s3Client = s3Client;
+		this.bucket = bucket;
+		this.key = key;
+		this.metadata = metadata;
+		this.executor = executor;
+		this.partSize = partSize;
+		this.partsInFlight = new Semaphore(maxPartsInFlight);
+		// Small objects never need a full part, the buffer grows up to the part size as needed
+		this.buffer = new byte[Math.min(INITIAL_BUFFER_SIZE, partSize)];
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * @return The number of bytes written to the stream so far
+	 */
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		write(new byte[] { (byte) b }, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (closed) {
+			throw new IOException("The stream is closed");
+		}
+		while (len > 0) {
+			if (bufferLength == buffer.length) {
+				buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, partSize));
+			}
+			int toCopy = Math.min(len, buffer.length - bufferLength);
+			System.arraycopy(b, off, buffer, bufferLength, toCopy);
+			bufferLength += toCopy;
+			bytesWritten += toCopy;
+			off += toCopy;
+			len -= toCopy;
+			if (bufferLength == partSize) {
+				uploadPart();
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			if (uploadId == null) {
+				metadata.setContentLength(bufferLength);
+				s3Client.putObject(bucket, key, new ByteArrayInputStream(buffer, 0, bufferLength), metadata);
+				return;
+			}
+			if (bufferLength > 0) {
+				uploadPart();
+			}
+			List<PartETag> partETags = new ArrayList<>(parts.size());
+			for (CompletableFuture<PartETag> part : parts) {
+				partETags.add(part.join());
+			}
+			s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, partETags));
+		} catch (RuntimeException | IOException e) {
+			abortUpload();
+			throw e instanceof IOException ? (IOException) e : new IOException(unwrap(e));
+		} finally {
+			buffer = null;
+			freeBuffers.clear();
+		}
+	}
+
+	/**
+	 * Discard everything written to the stream, nothing is written to S3.
+	 */
+	public void abort() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		abortUpload();
+		buffer = null;
+		freeBuffers.clear();
+	}
+
+	private void uploadPart() throws IOException {
+		if (uploadId == null) {
+			uploadId = s3Client.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucket, key, metadata)).getUploadId();
+		}
+		// Fail fast if a previous part could not be uploaded
+		for (CompletableFuture<PartETag> part : parts) {
+			if (part.isCompletedExceptionally()) {
+				part.join();
+			}
+		}
+		try {
+			partsInFlight.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		}
+		byte[] partBytes = buffer;
+		int partLength = bufferLength;
+		UploadPartRequest request = new UploadPartRequest()
+				.withBucketName(bucket)
+				.withKey(key)
+				.withUploadId(uploadId)
+				.withPartNumber(parts.size() + 1)
+				.withInputStream(new ByteArrayInputStream(partBytes, 0, partLength))
+				.withPartSize(partLength);
+		parts.add(CompletableFuture.supplyAsync(() -> {
+			try {
+				return s3Client.uploadPart(request).getPartETag();
+			} finally {
+				freeBuffers.add(partBytes);
+				partsInFlight.release();
+			}
+		}, executor));
+		byte[] next = freeBuffers.poll();
+		buffer = next != null ? next : new byte[partSize];
+		bufferLength = 0;
+	}
+
+	private void abortUpload() {
+		if (uploadId == null) {
+			return;
+		}
+		// Wait for the parts in flight so none is stored after the upload is aborted
+		for (CompletableFuture<PartETag> part : parts) {
+			try {
+				part.join();
+			} catch (RuntimeException e) {
+				// The upload is aborted anyway
+			}
+		}
+		s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+	}
+
+	private static Throwable unwrap(Throwable e) {
+		return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+	}
+
+}
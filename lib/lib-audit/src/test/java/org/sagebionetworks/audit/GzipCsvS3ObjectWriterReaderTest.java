@@ -2,8 +2,14 @@ package org.sagebionetworks.audit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.List;
 
@@ -17,7 +23,13 @@ import org.sagebionetworks.aws.SynapseS3Client;
 import org.sagebionetworks.csv.utils.ExampleObject;
 import org.sagebionetworks.util.ContentDispositionUtils;
 
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import com.google.common.io.ByteStreams;
 
 public class GzipCsvS3ObjectWriterReaderTest {
 
@@ -67,5 +79,36 @@ public class GzipCsvS3ObjectWriterReaderTest {
 		assertTrue(metaCapture.getValue().getContentLength() > 1);
 	}
 
+	/**
+	 * A file larger than a part is streamed to S3 with a multipart upload.
+	 * @throws Exception
+	 */
+	@Test
+	public void testRoundTripMultipart() throws Exception{
+		List<ExampleObject> data = ExampleObject.buildExampleObjectList(500);
+		String key = "akey";
+		InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+		initiated.setUploadId("uploadId");
+		when(mockS3Client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiated);
+		ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+		when(mockS3Client.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+			UploadPartRequest request = invocation.getArgument(0);
+			// The parts are uploaded in order by the writing thread
+			uploaded.write(ByteStreams.toByteArray(request.getInputStream()));
+			UploadPartResult result = new UploadPartResult();
+			result.setPartNumber(request.getPartNumber());
+			result.setETag("etag");
+			return result;
+		});
+		writer = new GzipCsvS3ObjectWriter<ExampleObject>(mockS3Client, objectClass, headers, Runnable::run, 256, 1);
+		// call under test.
+		writer.write(data, bucketName, key);
+		verify(mockS3Client, never()).putObject(anyString(), anyString(), any(InputStream.class), any(ObjectMetadata.class));
+		verify(mockS3Client).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+		// Can we read the results?
+		List<ExampleObject> results = reader.readFromStream(new ByteArrayInputStream(uploaded.toByteArray()));
+		assertEquals(data, results);
+	}
+
 
 }
@@ -1,11 +1,14 @@
 package org.sagebionetworks.audit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.After;
 import org.junit.Before;
@@ -43,9 +46,34 @@ public class ObjectRecordDAOImplTest {
 		String key = objectRecordDao.saveBatch(toTest, "userprofile");
 		assertNotNull(key);
 		assertTrue(key.contains(KeyGeneratorUtil.ROLLING));
+		objectRecordDao.flush();
 
 		List<ObjectRecord> back = objectRecordDao.getBatch(key, "userprofile");
 		assertEquals(toTest, back);
 	}
 
+	@Test
+	public void testAppendBatches() throws IOException{
+		List<ObjectRecord> first = AuditTestUtils.createUserProfileObjectRecordList(3);
+		List<ObjectRecord> second = AuditTestUtils.createUserProfileObjectRecordList(4);
+		// Both batches are appended to the same file
+		String key = objectRecordDao.saveBatch(first, "userprofile");
+		assertEquals(key, objectRecordDao.saveBatch(second, "userprofile"));
+		objectRecordDao.flush();
+
+		List<ObjectRecord> expected = new ArrayList<>(first);
+		expected.addAll(second);
+		assertEquals(expected, objectRecordDao.getBatch(key, "userprofile"));
+	}
+
+	@Test
+	public void testSaveBatchAsync() throws Exception {
+		List<ObjectRecord> toTest = AuditTestUtils.createUserProfileObjectRecordList(5);
+		CompletableFuture<Void> stored = objectRecordDao.saveBatchAsync(toTest, "userprofile");
+		// The file is still open
+		assertFalse(stored.isDone());
+		objectRecordDao.flush();
+		stored.get();
+	}
+
 }
@@ -0,0 +1,204 @@
+package org.sagebionetworks.audit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.audit.dao.S3MultipartOutputStream;
+import org.sagebionetworks.aws.SynapseS3Client;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import com.google.common.io.ByteStreams;
+
+@ExtendWith(MockitoExtension.class)
+public class S3MultipartOutputStreamTest {
+
+	@Mock
+	private SynapseS3Client mockS3Client;
+
+	private ExecutorService executor;
+	private String bucket;
+	private String key;
+	private String uploadId;
+	private ObjectMetadata metadata;
+	private byte[] data;
+	// The content of each uploaded part, read when the part is uploaded since the buffers are recycled
+	private List<byte[]> uploadedParts;
+
+	@BeforeEach
+	public void before() {
+		executor = Executors.newFixedThreadPool(3);
+		bucket = "some.bucket";
+		key = "some/key.csv.gz";
+		uploadId = "upload-id";
+		metadata = new ObjectMetadata();
+		data = new byte[100];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		uploadedParts = new ArrayList<>();
+	}
+
+	@AfterEach
+	public void after() {
+		executor.shutdownNow();
+	}
+
+	private void setupMultipartUpload() {
+		InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+		initiated.setUploadId(uploadId);
+		when(mockS3Client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiated);
+		when(mockS3Client.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+			UploadPartRequest request = invocation.getArgument(0);
+			byte[] part = ByteStreams.toByteArray(request.getInputStream());
+			synchronized (uploadedParts) {
+				while (uploadedParts.size() < request.getPartNumber()) {
+					uploadedParts.add(null);
+				}
+				uploadedParts.set(request.getPartNumber() - 1, part);
+			}
+			UploadPartResult result = new UploadPartResult();
+			result.setPartNumber(request.getPartNumber());
+			result.setETag("etag" + request.getPartNumber());
+			return result;
+		});
+	}
+
+	@Test
+	public void testSmallObjectSinglePut() throws IOException {
+		S3MultipartOutputStream out = new S3MultipartOutputStream(mockS3Client, bucket, key, metadata, executor, 1024, 2);
+		// call under test
+		out.write(data);
+		out.close();
+
+		ArgumentCaptor<InputStream> inCaptor = ArgumentCaptor.forClass(InputStream.class);
+		verify(mockS3Client).putObject(eq(bucket), eq(key), inCaptor.capture(), eq(metadata));
+		assertArrayEquals(data, ByteStreams.toByteArray(inCaptor.getValue()));
+		assertEquals(data.length, metadata.getContentLength());
+		assertEquals(data.length, out.getBytesWritten());
+		verify(mockS3Client, never()).initiateMultipartUpload(any());
+	}
+
+	@Test
+	public void testMultipleParts() throws IOException {
+		setupMultipartUpload();
+		S3MultipartOutputStream out = new S3MultipartOutputStream(mockS3Client, bucket, key, metadata, executor, 30, 2);
+		// call under test
+		for (byte b : data) {
+			out.write(b);
+		}
+		out.close();
+
+		verify(mockS3Client, times(4)).uploadPart(any(UploadPartRequest.class));
+		ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+		for (byte[] part : uploadedParts) {
+			uploaded.write(part);
+		}
+		assertArrayEquals(data, uploaded.toByteArray());
+		assertEquals(10, uploadedParts.get(3).length);
+
+		ArgumentCaptor<CompleteMultipartUploadRequest> completeCaptor = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+		verify(mockS3Client).completeMultipartUpload(completeCaptor.capture());
+		List<PartETag> partETags = completeCaptor.getValue().getPartETags();
+		assertEquals(4, partETags.size());
+		for (int i = 0; i < partETags.size(); i++) {
+			assertEquals(i + 1, partETags.get(i).getPartNumber());
+			assertEquals("etag" + (i + 1), partETags.get(i).getETag());
+		}
+		verify(mockS3Client, never()).putObject(anyString(), anyString(), any(InputStream.class), any(ObjectMetadata.class));
+	}
+
+	@Test
+	public void testSequentialExecutor() throws IOException {
+		setupMultipartUpload();
+		S3MultipartOutputStream out = new S3MultipartOutputStream(mockS3Client, bucket, key, metadata, Runnable::run, 25, 1);
+		// call under test
+		out.write(data);
+		out.close();
+
+		verify(mockS3Client, times(4)).uploadPart(any(UploadPartRequest.class));
+		verify(mockS3Client).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+	}
+
+	@Test
+	public void testPartFailureAborts() throws IOException {
+		InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+		initiated.setUploadId(uploadId);
+		when(mockS3Client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiated);
+		when(mockS3Client.uploadPart(any(UploadPartRequest.class))).thenThrow(new AmazonServiceException("failed"));
+		S3MultipartOutputStream out = new S3MultipartOutputStream(mockS3Client, bucket, key, metadata, executor, 30, 2);
+		out.write(data, 0, 40);
+
+		assertThrows(IOException.class, () -> {
+			// call under test
+			out.close();
+		});
+
+		ArgumentCaptor<AbortMultipartUploadRequest> abortCaptor = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+		verify(mockS3Client).abortMultipartUpload(abortCaptor.capture());
+		assertEquals(uploadId, abortCaptor.getValue().getUploadId());
+		verify(mockS3Client, never()).completeMultipartUpload(any());
+	}
+
+	@Test
+	public void testAbort() throws IOException {
+		setupMultipartUpload();
+		S3MultipartOutputStream out = new S3MultipartOutputStream(mockS3Client, bucket, key, metadata, executor, 30, 2);
+		out.write(data, 0, 40);
+
+		// call under test
+		out.abort();
+
+		verify(mockS3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+		assertThrows(IOException.class, () -> {
+			out.write(1);
+		});
+		// Closing an aborted stream does nothing
+		out.close();
+		verify(mockS3Client, never()).completeMultipartUpload(any());
+	}
+
+	@Test
+	public void testAbortBeforeFirstPart() throws IOException {
+		S3MultipartOutputStream out = new S3MultipartOutputStream(mockS3Client, bucket, key, metadata, executor, 1024, 2);
+		out.write(data);
+
+		// call under test
+		out.abort();
+		out.close();
+
+		verify(mockS3Client, never()).putObject(anyString(), anyString(), any(InputStream.class), any(ObjectMetadata.class));
+		verify(mockS3Client, never()).abortMultipartUpload(any());
+	}
+
+}
@@ -0,0 +1,301 @@
+package org.sagebionetworks.audit.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.aws.SynapseS3Client;
+import org.sagebionetworks.repo.model.audit.ObjectRecord;
+import org.sagebionetworks.util.Clock;
+
+@ExtendWith(MockitoExtension.class)
+public class ObjectRecordDAOImplUnitTest {
+
+	@Mock
+	private SynapseS3Client mockS3Client;
+	@Mock
+	private GzipCsvS3ObjectWriter<ObjectRecord> mockWriter;
+	@Mock
+	private GzipCsvS3ObjectFile<ObjectRecord> mockFileOne;
+	@Mock
+	private GzipCsvS3ObjectFile<ObjectRecord> mockFileTwo;
+	@Mock
+	private Clock mockClock;
+
+	@InjectMocks
+	private ObjectRecordDAOImpl dao;
+
+	private String bucket;
+	private String type;
+	private List<ObjectRecord> batch;
+
+	@BeforeEach
+	public void before() throws IOException {
+		bucket = "snapshot.bucket";
+		type = "userprofile";
+		dao.setSnapshotRecordBucketName(bucket);
+		dao.setStackInstanceNumber(1);
+		dao.setClock(mockClock);
+		ObjectRecord record = new ObjectRecord();
+		record.setTimestamp(123L);
+		batch = Arrays.asList(record);
+	}
+
+	private void setupFiles() throws IOException {
+		when(mockWriter.open(eq(bucket), anyString(), anyLong())).thenReturn(mockFileOne, mockFileTwo);
+	}
+
+	@Test
+	public void testSaveBatchWithoutRolling() throws IOException {
+		setupFiles();
+		when(mockFileOne.getKey()).thenReturn("keyOne");
+		when(mockFileTwo.getKey()).thenReturn("keyTwo");
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+
+		// call under test
+		assertEquals("keyOne", dao.saveBatch(batch, type));
+		assertEquals("keyTwo", dao.saveBatch(batch, type));
+
+		// Each batch is written to its own file
+		verify(mockFileOne).append(batch);
+		verify(mockFileOne).close();
+		verify(mockFileTwo).append(batch);
+		verify(mockFileTwo).close();
+		verify(mockWriter, times(2)).open(eq(bucket), anyString(), eq(1000L));
+	}
+
+	@Test
+	public void testSaveBatchDoesNotWait() throws IOException {
+		setupFiles();
+		when(mockFileOne.getKey()).thenReturn("keyOne");
+		dao.setMaxFileSizeBytes(1000L);
+		dao.setMaxFileAgeMS(60000L);
+		when(mockFileOne.getCreatedOn()).thenReturn(1000L);
+		when(mockFileOne.getCompressedSize()).thenReturn(10L);
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+
+		// call under test
+		assertEquals("keyOne", dao.saveBatch(batch, type));
+		assertEquals("keyOne", dao.saveBatch(batch, type));
+
+		// Both batches are appended to the open file
+		verify(mockFileOne, times(2)).append(batch);
+		verify(mockFileOne, never()).close();
+		verify(mockWriter).open(anyString(), anyString(), anyLong());
+	}
+
+	@Test
+	public void testSaveBatchAsyncCompletesWhenFull() throws Exception {
+		setupFiles();
+		dao.setMaxFileSizeBytes(1000L);
+		dao.setMaxFileAgeMS(60000L);
+		when(mockFileOne.getCreatedOn()).thenReturn(1000L);
+		when(mockFileOne.getCompressedSize()).thenReturn(10L, 10L, 1000L);
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+
+		// call under test
+		CompletableFuture<Void> first = dao.saveBatchAsync(batch, type);
+		assertFalse(first.isDone());
+		CompletableFuture<Void> second = dao.saveBatchAsync(batch, type);
+
+		// Filling the file completes both batches
+		first.get();
+		second.get();
+		verify(mockFileOne, times(2)).append(batch);
+		verify(mockFileOne).close();
+	}
+
+	@Test
+	public void testSaveBatchRollsWhenFull() throws IOException {
+		setupFiles();
+		when(mockFileOne.getKey()).thenReturn("keyOne");
+		dao.setMaxFileSizeBytes(1000L);
+		dao.setMaxFileAgeMS(60000L);
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		when(mockFileOne.getCompressedSize()).thenReturn(1000L);
+
+		// call under test
+		assertEquals("keyOne", dao.saveBatch(batch, type));
+
+		verify(mockFileOne).close();
+	}
+
+	@Test
+	public void testSaveBatchTypesUseSeparateFiles() throws IOException {
+		setupFiles();
+		when(mockFileOne.getKey()).thenReturn("keyOne");
+		when(mockFileTwo.getKey()).thenReturn("keyTwo");
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+
+		// call under test
+		String keyOne = dao.saveBatch(batch, type);
+		String keyTwo = dao.saveBatch(batch, "otherType");
+
+		assertNotEquals(keyOne, keyTwo);
+		verify(mockWriter).open(eq(bucket), contains(type), anyLong());
+		verify(mockWriter).open(eq(bucket), contains("otherType"), anyLong());
+	}
+
+	@Test
+	public void testSaveBatchAppendFailure() throws IOException {
+		setupFiles();
+		when(mockFileTwo.getKey()).thenReturn("keyTwo");
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		IOException failure = new IOException("failed");
+		doThrow(failure).when(mockFileOne).append(any());
+
+		IOException result = assertThrows(IOException.class, () -> {
+			// call under test
+			dao.saveBatch(batch, type);
+		});
+
+		assertEquals(failure, result);
+		verify(mockFileOne).abort();
+		verify(mockFileOne, never()).close();
+		// The next batch goes to a new file
+		assertEquals("keyTwo", dao.saveBatch(batch, type));
+	}
+
+	@Test
+	public void testSaveBatchAsyncAppendFailureFailsFile() throws Exception {
+		setupFiles();
+		dao.setMaxFileSizeBytes(1000L);
+		dao.setMaxFileAgeMS(60000L);
+		when(mockFileOne.getCreatedOn()).thenReturn(1000L);
+		when(mockFileOne.getCompressedSize()).thenReturn(10L);
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		IOException failure = new IOException("failed");
+		doNothing().doThrow(failure).when(mockFileOne).append(any());
+
+		CompletableFuture<Void> first = dao.saveBatchAsync(batch, type);
+
+		assertThrows(IOException.class, () -> {
+			// call under test
+			dao.saveBatchAsync(batch, type);
+		});
+
+		// The batch that was already appended is not stored either
+		ExecutionException result = assertThrows(ExecutionException.class, () -> {
+			first.get();
+		});
+		assertEquals(failure, result.getCause());
+		verify(mockFileOne).abort();
+	}
+
+	@Test
+	public void testSaveBatchCloseFailure() throws IOException {
+		setupFiles();
+		when(mockFileTwo.getKey()).thenReturn("keyTwo");
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		IOException failure = new IOException("failed");
+		doThrow(failure).when(mockFileOne).close();
+
+		IOException result = assertThrows(IOException.class, () -> {
+			// call under test
+			dao.saveBatch(batch, type);
+		});
+
+		assertEquals(failure, result);
+		// The next batch goes to a new file
+		assertEquals("keyTwo", dao.saveBatch(batch, type));
+		verify(mockFileTwo).close();
+	}
+
+	@Test
+	public void testSaveBatchAsyncCloseFailure() throws Exception {
+		setupFiles();
+		dao.setMaxFileSizeBytes(1000L);
+		dao.setMaxFileAgeMS(60000L);
+		when(mockFileOne.getCompressedSize()).thenReturn(10L);
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		IOException failure = new IOException("failed");
+		doThrow(failure).when(mockFileOne).close();
+
+		CompletableFuture<Void> saved = dao.saveBatchAsync(batch, type);
+
+		assertThrows(IOException.class, () -> {
+			// call under test
+			dao.flush();
+		});
+
+		ExecutionException result = assertThrows(ExecutionException.class, () -> {
+			saved.get();
+		});
+		assertEquals(failure, result.getCause());
+	}
+
+	@Test
+	public void testFlushCompletesSaved() throws Exception {
+		setupFiles();
+		dao.setMaxFileSizeBytes(1000L);
+		dao.setMaxFileAgeMS(60000L);
+		when(mockFileOne.getCompressedSize()).thenReturn(10L);
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+
+		CompletableFuture<Void> saved = dao.saveBatchAsync(batch, type);
+		assertFalse(saved.isDone());
+
+		// call under test
+		dao.flush();
+
+		saved.get();
+		verify(mockFileOne).close();
+	}
+
+	@Test
+	public void testRollExpiredFilesCompletesSaved() throws Exception {
+		setupFiles();
+		dao.setMaxFileSizeBytes(1000L);
+		dao.setMaxFileAgeMS(60000L);
+		when(mockFileOne.getCreatedOn()).thenReturn(1000L);
+		when(mockFileOne.getCompressedSize()).thenReturn(10L);
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+
+		CompletableFuture<Void> saved = dao.saveBatchAsync(batch, type);
+
+		dao.rollExpiredFiles();
+		assertFalse(saved.isDone());
+		verify(mockFileOne, never()).close();
+
+		when(mockClock.currentTimeMillis()).thenReturn(61000L);
+		// call under test
+		dao.rollExpiredFiles();
+
+		assertTrue(saved.isDone());
+		saved.get();
+		verify(mockFileOne).close();
+	}
+
+	@Test
+	public void testFlushWithNoFiles() throws IOException {
+		// call under test
+		dao.flush();
+		dao.rollExpiredFiles();
+		verify(mockWriter, never()).open(anyString(), anyString(), anyLong());
+	}
+}
@@ -11,11 +11,11 @@ import org.sagebionetworks.repo.model.table.QueryFilter;
 import org.sagebionetworks.repo.model.table.SortItem;
 import org.sagebionetworks.table.cluster.columntranslation.ColumnTranslationReference;
 import org.sagebionetworks.table.query.ParseException;
-import org.sagebionetworks.table.query.TableQueryParser;
 import org.sagebionetworks.table.query.model.QueryExpression;
 import org.sagebionetworks.table.query.model.QuerySpecification;
 import org.sagebionetworks.table.query.util.FacetRequestColumnModel;
 import org.sagebionetworks.table.query.util.FacetUtils;
+import org.sagebionetworks.table.query.util.ParsedElementCache;
 import org.sagebionetworks.table.query.util.SqlElementUtils;
 
 /**
@@ -33,7 +33,7 @@ public class CombinedQuery {
 			List<SortItem> sortList, List<FacetColumnRequest> selectedFacets, List<QueryFilter> additionalFilters) {
 		super();
 		try {
-			QueryExpression queryExpression = new TableQueryParser(query).queryExpression();
+			QueryExpression queryExpression = ParsedElementCache.QUERY_EXPRESSIONS.parse(query);
 			QuerySpecification querySpecification = queryExpression.getFirstElementOfType(QuerySpecification.class);
 			
 			this.tableAndColumnMapper = new TableAndColumnMapper(querySpecification, schemaProvider);
@@ -14,7 +14,11 @@ import org.sagebionetworks.repo.model.entity.IdAndVersion;
 public interface ConnectionFactory {
 
 	/**
-	 * Get a connection used for interacting with a given table.
+	 * Get a connection used for interacting with a given table. Tables are
+	 * assigned to one of the database instances in the cluster using consistent
+	 * hashing on the table id, so all versions of a table share the same instance.
+	 * The tables that must share a database with other tables (e.g. a materialized
+	 * view and its sources) are assigned to the first instance.
 	 * 
 	 * @param tableId
 	 * @return
@@ -22,7 +26,8 @@ public interface ConnectionFactory {
 	TableIndexDAO getConnection(IdAndVersion tableId);
 	
 	/**
-	 * Get all connections.
+	 * Get a connection to each database instance in the cluster. The first
+	 * connection is always the connection returned by {@link #getFirstConnection()}.
 	 * @return
 	 */
 	List<TableIndexDAO> getAllConnections();
@@ -40,4 +45,23 @@ public interface ConnectionFactory {
 	 */
 	DataSource getFirstDataSource();
 	
+	/**
+	 * Discover the database instances of the cluster and connect to any instance
+	 * that was added since the last call. Tables are re-assigned across the
+	 * resulting instances, the index of a table that moved to a new instance
+	 * does not exist there and must be rebuilt.
+	 * 
+	 * @return The ids of the tables with an index on an instance that is no
+	 *         longer assigned to the table.
+	 */
+	List<IdAndVersion> refreshInstances();
+	
+	/**
+	 * Get the statistics of the connection pool of each database instance in the
+	 * cluster.
+	 * 
+	 * @return
+	 */
+	List<ConnectionPoolStatistics> getConnectionPoolStatistics();
+	
 }
@@ -1,8 +1,12 @@
 package org.sagebionetworks.table.cluster;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -14,14 +18,24 @@ import org.apache.logging.log4j.Logger;
 import org.sagebionetworks.StackConfiguration;
 import org.sagebionetworks.lib.dbuserhelper.DBUserHelper;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
+import org.sagebionetworks.table.cluster.metadata.ObjectFieldModelResolverFactory;
+import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 /**
- * Note: For the first pass at this feature we are only using one database. This
- * will be extended in the future.
- * 
+ * Connection factory that distributes table indices across all the discovered
+ * database instances using a {@link ConsistentHashRing} on the table id. The
+ * tables that must share a database (see {@link TableIndexPlacement}) are kept
+ * on the first instance.
+ * <p>
+ * The object replication tables are mirrored on each instance: views are built
+ * joining the replication tables so each instance needs a full copy (see
+ * {@link #getAllConnections()}). The first discovered instance is the primary
+ * and is used for any operation that is not bound to a specific table (e.g.
+ * reconciliation of the replication data).
+ *
  * @author jmhill
  *
  */
@@ -31,36 +45,73 @@ public class ConnectionFactoryImpl implements ConnectionFactory {
 	private static Logger log = LogManager.getLogger(ConnectionFactoryImpl.class);
 
 	private InstanceDiscovery instanceDiscovery;
-	/**
-	 * Note: This field will be remove when we actually have more than one
-	 * connection. It is a simple way to get the functionality up and running
-	 * without adding full support for a load balancing.
-	 */
-	private BasicDataSource singleConnectionPool;
 
 	private StackConfiguration stackConfig;
 
 	private DBUserHelper dbUserHelper;
 
 	/**
-	 * Note: The DAO is autowired so it can be profiled. See: PLFM-5984. We might
-	 * need an alternate solution to support multiple database connections in the
-	 * future.
+	 * Note: The DAO is autowired so it can be profiled. See: PLFM-5984. This DAO
+	 * is used for the primary instance, the DAOs for any additional instance are
+	 * created by this factory.
 	 */
 	private TableIndexDAO tableIndexDao;
-	
+
+	private ObjectFieldModelResolverFactory objectFieldModelResolverFactory;
+
+	/**
+	 * Optional, without a placement every table is assigned by its hash.
+	 */
+	private TableIndexPlacement tableIndexPlacement;
+
+	/**
+	 * The connection to each instance in the order they were discovered. Only
+	 * modified within {@link #refreshInstances()}.
+	 */
+	private final Map<InstanceInfo, InstanceConnection> connections = new LinkedHashMap<>();
+
+	/**
+	 * Replaced as a whole each time the instances are refreshed.
+	 */
+	private volatile ConsistentHashRing<InstanceConnection> ring;
+
 	@Autowired
-	public ConnectionFactoryImpl(StackConfiguration config, InstanceDiscovery instanceDiscovery, TableIndexDAO tableIndexDao, DBUserHelper dbuh) {
+	public ConnectionFactoryImpl(StackConfiguration config, InstanceDiscovery instanceDiscovery, TableIndexDAO tableIndexDao, DBUserHelper dbuh,
+			ObjectFieldModelResolverFactory objectFieldModelResolverFactory) {
 		this.stackConfig = config;
 		this.instanceDiscovery = instanceDiscovery;
 		this.tableIndexDao = tableIndexDao;
 		this.dbUserHelper = dbuh;
+		this.objectFieldModelResolverFactory = objectFieldModelResolverFactory;
+	}
+
+	@Autowired(required = false)
+	public void setTableIndexPlacement(TableIndexPlacement tableIndexPlacement) {
+		this.tableIndexPlacement = tableIndexPlacement;
 	}
 
 	@Override
 	public TableIndexDAO getConnection(IdAndVersion tableId) {
-		// Create a new DAO for this call.
-		return tableIndexDao;
+		ValidateArgument.required(tableId, "tableId");
+		return getAssignedConnection(ring, tableId.getId()).getTableIndexDao();
+	}
+
+	/**
+	 * Get the connection to the instance assigned to the table with the given id
+	 * by the given ring.
+	 * 
+	 * @param currentRing
+	 * @param tableId
+	 * @return
+	 */
+	InstanceConnection getAssignedConnection(ConsistentHashRing<InstanceConnection> currentRing, Long tableId) {
+		InstanceConnection connection = currentRing.getNode(tableId);
+		InstanceConnection firstConnection = currentRing.getNodes().get(0);
+		// The placement is only looked up for the tables that are not already hashed to the first instance
+		if (connection != firstConnection && tableIndexPlacement != null && tableIndexPlacement.isOnFirstInstance(tableId)) {
+			return firstConnection;
+		}
+		return connection;
 	}
 
 	/**
@@ -68,46 +119,102 @@ public class ConnectionFactoryImpl implements ConnectionFactory {
 	 */
 	@PostConstruct
 	public void initialize() {
-		// There is nothing to do if the table feature is not enabled.
-		// The features is enabled so we must find all database instances that we can
-		// use
+		refreshInstances();
+	}
+
+	@Override
+	public synchronized List<IdAndVersion> refreshInstances() {
 		List<InstanceInfo> instances = instanceDiscovery.discoverAllInstances();
 		if (instances == null || instances.isEmpty())
 			throw new IllegalArgumentException("Did not find at least one database instances.");
 
-		// This will be improved in the future. For now we just use the first database
-		// we find
-		InstanceInfo instance = instances.get(0);
-		// Use the one instance to create a single connection pool
-		singleConnectionPool = InstanceUtils.createNewDatabaseConnectionPool(stackConfig, instance);
+		boolean added = false;
+		for (InstanceInfo instance : instances) {
+			if (!connections.containsKey(instance)) {
+				// The autowired DAO is always used for the first instance
+				TableIndexDAO dao = connections.isEmpty() ? tableIndexDao : createTableIndexDAO();
+				connections.put(instance, connect(instance, dao));
+				added = true;
+			}
+		}
+		if (!added) {
+			return Collections.emptyList();
+		}
+		ConsistentHashRing<InstanceConnection> previousRing = ring;
+		// Only the assignment of tables that fall on the new instances changes
+		ring = new ConsistentHashRing<>(new ArrayList<>(connections.values()));
+		log.info("Table indices are distributed across " + connections.size() + " database instance(s).");
+		if (previousRing == null) {
+			return Collections.emptyList();
+		}
+		return getMovedTables(previousRing, ring);
+	}
+	
+	/**
+	 * Get the ids of the tables with an index on an instance of the previous ring
+	 * that is not the instance assigned to the table by the current ring.
+	 * 
+	 * @param previousRing
+	 * @param currentRing
+	 * @return
+	 */
+	List<IdAndVersion> getMovedTables(ConsistentHashRing<InstanceConnection> previousRing, ConsistentHashRing<InstanceConnection> currentRing) {
+		List<IdAndVersion> movedTables = new ArrayList<>();
+		for (InstanceConnection connection : previousRing.getNodes()) {
+			for (IdAndVersion tableId : connection.getTableIndexDao().getTableIndexIds()) {
+				if (getAssignedConnection(currentRing, tableId.getId()) != connection) {
+					movedTables.add(tableId);
+				}
+			}
+		}
+		if (!movedTables.isEmpty()) {
+			log.info(movedTables.size() + " table indices were assigned to a new database instance.");
+		}
+		return movedTables;
+	}
+
+	/**
+	 * Create the connection pool to the given instance and bind it to the given DAO.
+	 *
+	 * @param instance
+	 * @param dao
+	 * @return
+	 */
+	InstanceConnection connect(InstanceInfo instance, TableIndexDAO dao) {
+		BasicDataSource connectionPool = InstanceUtils.createNewDatabaseConnectionPool(stackConfig, instance);
+		dao.setDataSource(connectionPool);
 		// ensure the index has the correct tables
-		tableIndexDao.setDataSource(singleConnectionPool);
-		tableIndexDao.createObjectReplicationTablesIfDoesNotExist();
-		createDBUser();
+		dao.createObjectReplicationTablesIfDoesNotExist();
+		dbUserHelper.createDbReadOnlyUser(new JdbcTemplate(connectionPool));
+		return new InstanceConnection(instance, connectionPool, dao);
 	}
 
-	private void createDBUser() {
-		JdbcTemplate template = new JdbcTemplate(singleConnectionPool);
-		dbUserHelper.createDbReadOnlyUser(template);
+	/**
+	 * Create a new DAO for an additional database instance.
+	 *
+	 * @return
+	 */
+	TableIndexDAO createTableIndexDAO() {
+		return new TableIndexDAOImpl(objectFieldModelResolverFactory);
 	}
 
 	/**
 	 * Spring will calls this method when this bean is destroyed. This is our chance
 	 * to shutdown the database connection pools.
-	 * 
+	 *
 	 * @throws SQLException
 	 */
 	@PreDestroy
-	public void close() throws SQLException {
-		if (singleConnectionPool != null) {
-			log.debug("Closing connection pool to: " + singleConnectionPool.getUrl());
-			singleConnectionPool.close();
+	public synchronized void close() throws SQLException {
+		for (InstanceConnection connection : connections.values()) {
+			log.debug("Closing connection pool to: " + connection.getConnectionPool().getUrl());
+			connection.getConnectionPool().close();
 		}
 	}
 
 	@Override
 	public List<TableIndexDAO> getAllConnections() {
-		return Collections.singletonList(tableIndexDao);
+		return ring.getNodes().stream().map(InstanceConnection::getTableIndexDao).collect(Collectors.toList());
 	}
 
 	@Override
@@ -117,7 +224,52 @@ public class ConnectionFactoryImpl implements ConnectionFactory {
 
 	@Override
 	public DataSource getFirstDataSource() {
-		return singleConnectionPool;
+		return ring.getNodes().get(0).getConnectionPool();
+	}
+
+	@Override
+	public List<ConnectionPoolStatistics> getConnectionPoolStatistics() {
+		return ring.getNodes().stream().map(connection -> {
+			BasicDataSource pool = connection.getConnectionPool();
+			return new ConnectionPoolStatistics(connection.getInstance(), pool.getNumActive(), pool.getNumIdle(), pool.getMaxTotal());
+		}).collect(Collectors.toList());
+	}
+
+	/**
+	 * The connection pool and DAO of a single database instance.
+	 *
+	 */
+	static class InstanceConnection {
+
+		private final InstanceInfo instance;
+		private final BasicDataSource connectionPool;
+		private final TableIndexDAO tableIndexDao;
+
+		InstanceConnection(InstanceInfo instance, BasicDataSource connectionPool, TableIndexDAO tableIndexDao) {
+			this.instance = instance;
+			this.connectionPool = connectionPool;
+			this.tableIndexDao = tableIndexDao;
+		}
+
+		InstanceInfo getInstance() {
+			return instance;
+		}
+
+		BasicDataSource getConnectionPool() {
+			return connectionPool;
+		}
+
+		TableIndexDAO getTableIndexDao() {
+			return tableIndexDao;
+		}
+
+		/**
+		 * Used to place the connection on the ring, must be stable across machines.
+		 */
+		@Override
+		public String toString() {
+			return instance.getUrl();
+		}
 	}
 
 }
@@ -0,0 +1,83 @@
+package org.sagebionetworks.table.cluster;
+
+import java.util.Objects;
+
+/**
+ * Snapshot of the state of the connection pool to a single database instance.
+ *
+ */
+public class ConnectionPoolStatistics {
+
+	private final InstanceInfo instance;
+	private final int activeConnections;
+	private final int idleConnections;
+	private final int maxConnections;
+
+	public ConnectionPoolStatistics(InstanceInfo instance, int activeConnections, int idleConnections, int maxConnections) {
+		this.instance = instance;
+		this.activeConnections = activeConnections;
+		this.idleConnections = idleConnections;
+		this.maxConnections = maxConnections;
+	}
+
+	/**
+	 * The database instance of the pool.
+	 *
+	 * @return
+	 */
+	public InstanceInfo getInstance() {
+		return instance;
+	}
+
+	/**
+	 * The number of connections currently borrowed from the pool.
+	 *
+	 * @return
+	 */
+	public int getActiveConnections() {
+		return activeConnections;
+	}
+
+	/**
+	 * The number of connections currently idle in the pool.
+	 *
+	 * @return
+	 */
+	public int getIdleConnections() {
+		return idleConnections;
+	}
+
+	/**
+	 * The maximum number of connections the pool can hold.
+	 *
+	 * @return
+	 */
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(activeConnections, idleConnections, instance, maxConnections);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ConnectionPoolStatistics)) {
+			return false;
+		}
+		ConnectionPoolStatistics other = (ConnectionPoolStatistics) obj;
+		return activeConnections == other.activeConnections && idleConnections == other.idleConnections
+				&& Objects.equals(instance, other.instance) && maxConnections == other.maxConnections;
+	}
+
+	@Override
+	public String toString() {
+		return "ConnectionPoolStatistics [instance=" + instance + ", activeConnections=" + activeConnections + ", idleConnections="
+				+ idleConnections + ", maxConnections=" + maxConnections + "]";
+	}
+
+}
@@ -0,0 +1,83 @@
+package org.sagebionetworks.table.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.sagebionetworks.util.ValidateArgument;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Immutable consistent hash ring used to assign keys (e.g. table ids) to a node
+ * (e.g. a database instance). Each node is placed on the ring multiple times
+ * (virtual nodes) so that keys are spread evenly. When a node is added to the
+ * ring only the keys that fall into the new node's segments are re-assigned,
+ * all other keys keep their original assignment.
+ *
+ * @param <T> The type of the node, the {@link Object#toString()} of a node is
+ *            used to place it on the ring and must be stable and unique.
+ */
+public class ConsistentHashRing<T> {
+
+	public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	private final List<T> nodes;
+	private final NavigableMap<Long, T> ring;
+
+	/**
+	 * @param nodes          The nodes of the ring, at least one node is required.
+	 * @param virtualNodes   The number of times each node is placed on the ring.
+	 */
+	public ConsistentHashRing(Collection<T> nodes, int virtualNodes) {
+		ValidateArgument.requiredNotEmpty(nodes, "nodes");
+		ValidateArgument.requirement(virtualNodes > 0, "virtualNodes must be greater than zero.");
+		this.nodes = ImmutableList.copyOf(nodes);
+		this.ring = new TreeMap<>();
+		for (T node : this.nodes) {
+			for (int i = 0; i < virtualNodes; i++) {
+				long position = HASH_FUNCTION.hashString(node.toString() + "#" + i, StandardCharsets.UTF_8).asLong();
+				// On the (unlikely) collision the first node keeps the position so the result is deterministic
+				ring.putIfAbsent(position, node);
+			}
+		}
+	}
+
+	/**
+	 * @param nodes
+	 */
+	public ConsistentHashRing(Collection<T> nodes) {
+		this(nodes, DEFAULT_VIRTUAL_NODES);
+	}
+
+	/**
+	 * Get the node assigned to the given key.
+	 *
+	 * @param key
+	 * @return
+	 */
+	public T getNode(long key) {
+		long position = HASH_FUNCTION.hashLong(key).asLong();
+		Map.Entry<Long, T> entry = ring.ceilingEntry(position);
+		if (entry == null) {
+			// wrap around the ring
+			entry = ring.firstEntry();
+		}
+		return entry.getValue();
+	}
+
+	/**
+	 * @return The nodes of the ring in the order they were provided.
+	 */
+	public List<T> getNodes() {
+		return nodes;
+	}
+
+}
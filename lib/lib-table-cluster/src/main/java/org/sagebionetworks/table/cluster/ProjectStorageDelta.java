@@ -0,0 +1,71 @@
+package org.sagebionetworks.table.cluster;
+
+import java.util.Objects;
+
+/**
+ * A change to the storage used by a single project in the project storage
+ * ledger.
+ *
+ */
+public class ProjectStorageDelta {
+
+	private final long projectId;
+	private final long sizeInBytes;
+	private final long fileCount;
+
+	public ProjectStorageDelta(long projectId, long sizeInBytes, long fileCount) {
+		this.projectId = projectId;
+		this.sizeInBytes = sizeInBytes;
+		this.fileCount = fileCount;
+	}
+
+	/**
+	 * The id of the project.
+	 *
+	 * @return
+	 */
+	public long getProjectId() {
+		return projectId;
+	}
+
+	/**
+	 * The number of bytes added to the project, negative if bytes were removed.
+	 *
+	 * @return
+	 */
+	public long getSizeInBytes() {
+		return sizeInBytes;
+	}
+
+	/**
+	 * The number of files added to the project, negative if files were removed.
+	 *
+	 * @return
+	 */
+	public long getFileCount() {
+		return fileCount;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(fileCount, projectId, sizeInBytes);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ProjectStorageDelta)) {
+			return false;
+		}
+		ProjectStorageDelta other = (ProjectStorageDelta) obj;
+		return fileCount == other.fileCount && projectId == other.projectId && sizeInBytes == other.sizeInBytes;
+	}
+
+	@Override
+	public String toString() {
+		return "ProjectStorageDelta [projectId=" + projectId + ", sizeInBytes=" + sizeInBytes + ", fileCount=" + fileCount + "]";
+	}
+
+}
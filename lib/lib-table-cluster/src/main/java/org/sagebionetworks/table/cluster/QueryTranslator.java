@@ -19,13 +19,13 @@ import org.sagebionetworks.table.cluster.description.ColumnToAdd;
 import org.sagebionetworks.table.cluster.description.IndexDescription;
 import org.sagebionetworks.table.cluster.utils.TableModelUtils;
 import org.sagebionetworks.table.query.ParseException;
-import org.sagebionetworks.table.query.TableQueryParser;
 import org.sagebionetworks.table.query.model.QueryExpression;
 import org.sagebionetworks.table.query.model.QuerySpecification;
 import org.sagebionetworks.table.query.model.SelectList;
 import org.sagebionetworks.table.query.model.SqlContext;
 import org.sagebionetworks.table.query.model.TextMatchesPredicate;
 import org.sagebionetworks.table.query.model.WithListElement;
+import org.sagebionetworks.table.query.util.ParsedElementCache;
 import org.sagebionetworks.table.query.util.SqlElementUtils;
 import org.sagebionetworks.util.ValidateArgument;
 
@@ -123,7 +123,7 @@ public class QueryTranslator implements TranslatedQuery {
 			} else {
 				this.sqlContext = sqlContextIn;
 			}
-			QueryExpression transformedModel = new TableQueryParser(startingSql).queryExpression();
+			QueryExpression transformedModel = ParsedElementCache.QUERY_EXPRESSIONS.parse(startingSql);
 			transformedModel.setSqlContext(this.sqlContext);
 			SQLTranslatorUtils.translateDefiningClause(transformedModel);
 			
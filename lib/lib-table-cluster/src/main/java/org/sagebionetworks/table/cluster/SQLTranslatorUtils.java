@@ -118,6 +118,7 @@ import org.sagebionetworks.table.query.model.ValueExpressionPrimary;
 import org.sagebionetworks.table.query.model.WhereClause;
 import org.sagebionetworks.table.query.model.WithListElement;
 import org.sagebionetworks.table.query.util.ColumnTypeListMappings;
+import org.sagebionetworks.table.query.util.ParsedElementCache;
 import org.sagebionetworks.table.query.util.SqlElementUtils;
 import org.sagebionetworks.util.ValidateArgument;
 
@@ -574,7 +575,7 @@ public class SQLTranslatorUtils {
 		}
 		builder.append(match.getColumnTranslationReference().getTranslatedColumnName());
 		try {
-			return Optional.of(new TableQueryParser(builder.toString()).columnReference());
+			return Optional.of(ParsedElementCache.COLUMN_REFERENCES.parse(builder.toString()));
 		} catch (ParseException e) {
 			throw new IllegalStateException(e);
 		}
@@ -48,11 +48,13 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.io.IOUtils;
 import org.json.JSONArray;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
+import org.sagebionetworks.repo.model.entity.IdAndVersionBuilder;
 import org.sagebionetworks.repo.model.table.AnnotationType;
 import org.sagebionetworks.repo.model.table.ColumnModel;
 import org.sagebionetworks.repo.model.table.ColumnType;
@@ -446,6 +448,34 @@ public class SQLUtils {
 		builder.append(" IN ('").append(DOUBLE_NEGATIVE_INFINITY).append("', '").append(DOUBLE_POSITIVE_INFINITY).append("'))");
 	}
 
+	/**
+	 * The SQL to list the names of the status tables, there is one for each table that has an index.
+	 */
+	public static final String SHOW_STATUS_TABLES_SQL = "SHOW TABLES LIKE '" + TABLE_PREFIX + "%" + TableIndexType.STATUS.getTablePostFix() + "'";
+	
+	private static final Pattern STATUS_TABLE_NAME_PATTERN = Pattern
+			.compile(TABLE_PREFIX + "(\\d+)(_(\\d+))?" + TableIndexType.STATUS.getTablePostFix(), Pattern.CASE_INSENSITIVE);
+	
+	/**
+	 * Get the id of the table for the given status table name.
+	 * 
+	 * @param statusTableName
+	 * @return {@link Optional#empty()} if the given name is not the name of the status table of a table index (e.g. a
+	 *         temporary index).
+	 */
+	public static Optional<IdAndVersion> getTableIdForStatusTableName(String statusTableName) {
+		ValidateArgument.required(statusTableName, "statusTableName");
+		Matcher matcher = STATUS_TABLE_NAME_PATTERN.matcher(statusTableName);
+		if (!matcher.matches()) {
+			return Optional.empty();
+		}
+		IdAndVersionBuilder builder = IdAndVersion.newBuilder().setId(Long.parseLong(matcher.group(1)));
+		if (matcher.group(3) != null) {
+			builder.setVersion(Long.parseLong(matcher.group(3)));
+		}
+		return Optional.of(builder.build());
+	}
+
 	/**
 	 * Create the DROP table SQL.
 	 * @param tableId
@@ -2015,6 +2045,21 @@ public class SQLUtils {
 		return sql.toString();
 	}
 	
+	/**
+	 * @param id
+	 * @param columns
+	 * @return The SQL to select a page of the table data following the row id bound to the :ROW_ID parameter, the
+	 *         size of the page is bound to the :pLimit parameter
+	 */
+	public static String buildSelectTableDataPageAfterRowId(IdAndVersion id, List<ColumnModel> columns) {
+		
+		StringBuilder sql = buildSelectTableData(id, columns, ROW_ID)
+				.append(" WHERE ").append(ROW_ID).append(" > :").append(ROW_ID)
+				.append(" ORDER BY ").append(ROW_ID).append(" LIMIT :").append(P_LIMIT);
+		
+		return sql.toString();
+	}
+	
 	public static StringBuilder buildSelectTableData(IdAndVersion id, List<ColumnModel> columns, String ...metadataColumns) {
 		ValidateArgument.required(id, "The id");
 		ValidateArgument.requiredNotEmpty(columns, "The columns");
@@ -2040,10 +2085,39 @@ public class SQLUtils {
 		return headers;
 	}
 	 
-	public static String buildBatchUpdateSearchContentSql(IdAndVersion id) {
+	/**
+	 * @param id
+	 * @param rowCount The number of rows updated by the statement
+	 * @return The SQL to update the search content of rowCount rows in a single statement, the parameters are the
+	 *         (row id, search content) pairs of each row followed by the row ids
+	 */
+	public static String buildMultiRowUpdateSearchContentSql(IdAndVersion id, int rowCount) {
+		ValidateArgument.required(id, "The id");
+		ValidateArgument.requirement(rowCount > 0, "The rowCount must be greater than zero.");
+		
+		StringBuilder sql = new StringBuilder("UPDATE ").append(getTableNameForId(id, TableIndexType.INDEX))
+				.append(" SET `").append(ROW_SEARCH_CONTENT).append("` = CASE ").append(ROW_ID);
+		
+		for (int i = 0; i < rowCount; i++) {
+			sql.append(" WHEN ? THEN ?");
+		}
+		
+		sql.append(" END WHERE ").append(ROW_ID).append(" IN(")
+			.append(String.join(",", Collections.nCopies(rowCount, "?")))
+			.append(")");
+		
+		return sql.toString();
+	}
+	
+	/**
+	 * @param id
+	 * @return The SQL to select the MD5 hex of the search content of the rows whose id is bound to the :ROW_ID
+	 *         parameter
+	 */
+	public static String buildSelectSearchContentHashesSql(IdAndVersion id) {
 		ValidateArgument.required(id, "The id");
 		
-		return "UPDATE " + getTableNameForId(id, TableIndexType.INDEX) + " SET `" + ROW_SEARCH_CONTENT + "` = ? WHERE " + ROW_ID + " = ?";
+		return "SELECT " + ROW_ID + ", MD5(`" + ROW_SEARCH_CONTENT + "`) FROM " + getTableNameForId(id, TableIndexType.INDEX) + " WHERE " + ROW_ID + " IN(:" + ROW_ID + ")";
 	}
 	
 	public static String buildClearSearchContentSql(IdAndVersion id) {
@@ -10,6 +10,7 @@ import javax.sql.DataSource;
 
 import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.IdAndEtag;
 import org.sagebionetworks.repo.model.dao.table.RowHandler;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
@@ -64,6 +65,13 @@ public interface TableIndexDAO {
 	 * @return
 	 */
 	void deleteTable(IdAndVersion tableId);
+	
+	/**
+	 * Get the ids of all the tables that have an index in this database.
+	 * 
+	 * @return
+	 */
+	List<IdAndVersion> getTableIndexIds();
 
 	/**
 	 * Create or update the rows passed in the given RowSet.
@@ -444,12 +452,22 @@ public interface TableIndexDAO {
 	long getSumOfFileSizes(ReplicationType mainType, List<IdAndVersion> rowIdAndVersions);
 
 	/**
-	 * Get the statistics about Synapse storage usage per-project.
+	 * Get the statistics about Synapse storage usage per-project. The statistics are read from the project storage
+	 * ledger, that is maintained as objects are replicated.
 	 * 
 	 * @return
 	 */
 	void streamSynapseStorageStats(ReplicationType mainType, Callback<SynapseStorageProjectStats> callback);
 
+	/**
+	 * Compares the project storage ledger with the storage computed by a full scan of the object replication, and
+	 * corrects the ledger entries that do not match.
+	 * 
+	 * @param mainType
+	 * @return The corrections applied to the ledger, empty if the ledger matched the replication
+	 */
+	List<ProjectStorageDelta> reconcileProjectStorageLedger(ReplicationType mainType);
+
 	/**
 	 * Initialize this dao by setting its database connection.
 	 * 
@@ -519,6 +537,36 @@ public interface TableIndexDAO {
 	 */
 	List<IdAndChecksum> getIdAndChecksumsForFilter(Long salt, ViewFilter filter, Long limit, Long offset);
 
+	/**
+	 * Get a single page of IdAndChecksums from the replication table using the
+	 * provided filter, limited to the objects with an ID within the given range
+	 * (inclusive).
+	 * 
+	 * @param salt
+	 * @param filter
+	 * @param minId
+	 * @param maxId
+	 * @param limit
+	 * @param offset
+	 * @return
+	 */
+	List<IdAndChecksum> getIdAndChecksumsForFilter(Long salt, ViewFilter filter, Long minId, Long maxId, Long limit, Long offset);
+
+	/**
+	 * Get the aggregated checksum of the objects in the replication table matching
+	 * the provided filter with an ID within the given range (inclusive). Objects
+	 * are grouped in buckets of bucketSize IDs starting from minId, only non-empty
+	 * buckets are returned.
+	 * 
+	 * @param salt
+	 * @param filter
+	 * @param minId
+	 * @param maxId
+	 * @param bucketSize
+	 * @return
+	 */
+	List<IdRangeChecksum> getIdRangeChecksumsForFilter(Long salt, ViewFilter filter, Long minId, Long maxId, Long bucketSize);
+
 	/**
 	 * @param idAndVersion  The id of the table
 	 * @param selectColumns The columns to fetch
@@ -563,6 +611,26 @@ public interface TableIndexDAO {
 	 */
 	void restoreTableIndexData(IdAndVersion idAndVersion, Iterator<String[]> input, long maxBytesPerBatch);
 
+	/**
+	 * Keyset pagination over the table rows, cheaper than {@link #getTableDataPage(IdAndVersion, List, long, long)}
+	 * on large tables since the rows before the page are not scanned
+	 * 
+	 * @param idAndVersion  The id of the table
+	 * @param selectColumns The columns to fetch
+	 * @param afterRowId    The id of the last row of the previous page, null for the first page
+	 * @param limit
+	 * @return A page of table row content with row ids greater than afterRowId (ordered by row id)
+	 */
+	List<TableRowData> getTableDataPageAfterRowId(IdAndVersion idAndVersion, List<ColumnModel> selectColumns, Long afterRowId, long limit);
+
+	/**
+	 * @param idAndVersion The id of the table
+	 * @param rowIds
+	 * @return The MD5 hex of the current search content of each of the given rows, the value is null if the row
+	 *         has no search content
+	 */
+	Map<Long, String> getSearchContentHashes(IdAndVersion idAndVersion, Set<Long> rowIds);
+
 	/**
 	 * Updates the search index content for the given batch of rows
 	 * 
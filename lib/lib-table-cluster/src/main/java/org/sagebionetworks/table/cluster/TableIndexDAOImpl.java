@@ -42,11 +42,17 @@ import static org.sagebionetworks.repo.model.table.TableConstants.OBJECT_TYPE_PA
 import static org.sagebionetworks.repo.model.table.TableConstants.PARENT_ID_PARAM_NAME;
 import static org.sagebionetworks.repo.model.table.TableConstants.P_LIMIT;
 import static org.sagebionetworks.repo.model.table.TableConstants.P_OFFSET;
+import static org.sagebionetworks.repo.model.table.TableConstants.PROJECT_STORAGE_LEDGER_COL_FILE_COUNT;
+import static org.sagebionetworks.repo.model.table.TableConstants.PROJECT_STORAGE_LEDGER_COL_OBJECT_TYPE;
+import static org.sagebionetworks.repo.model.table.TableConstants.PROJECT_STORAGE_LEDGER_COL_PROJECT_ID;
+import static org.sagebionetworks.repo.model.table.TableConstants.PROJECT_STORAGE_LEDGER_COL_SIZE_IN_BYTES;
+import static org.sagebionetworks.repo.model.table.TableConstants.PROJECT_STORAGE_LEDGER_TABLE;
 import static org.sagebionetworks.repo.model.table.TableConstants.SELECT_NON_EXPIRED_IDS;
 import static org.sagebionetworks.repo.model.table.TableConstants.SELECT_OBJECT_CHILD_CRC;
 import static org.sagebionetworks.repo.model.table.TableConstants.SELECT_OBJECT_CHILD_ID_ETAG;
 import static org.sagebionetworks.repo.model.table.TableConstants.TRUNCATE_ANNOTATION_REPLICATION_TABLE;
 import static org.sagebionetworks.repo.model.table.TableConstants.TRUNCATE_OBJECT_REPLICATION_TABLE;
+import static org.sagebionetworks.repo.model.table.TableConstants.TRUNCATE_PROJECT_STORAGE_LEDGER_TABLE;
 import static org.sagebionetworks.repo.model.table.TableConstants.TRUNCATE_REPLICATION_SYNC_EXPIRATION_TABLE;
 
 import java.sql.Connection;
@@ -76,6 +82,7 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.json.JSONArray;
 import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.IdAndEtag;
 import org.sagebionetworks.repo.model.dao.table.RowHandler;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
@@ -128,6 +135,7 @@ import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
@@ -137,11 +145,19 @@ import com.google.common.collect.Sets;
 @Repository
 public class TableIndexDAOImpl implements TableIndexDAO {
 	
+	/**
+	 * The number of rows whose search content is updated by a single statement
+	 */
+	static final int SEARCH_CONTENT_UPDATE_ROWS_PER_STATEMENT = 100;
+	
 	private static String OBJECT_REPLICATION_TABLE_CREATE = SQLUtils.loadSQLFromClasspath("schema/ObjectReplication.sql");
 	private static String ANNOTATION_REPLICATION_TABLE_CREATE = SQLUtils.loadSQLFromClasspath("schema/AnnotationReplication.sql");
 	private static String REPLICATION_SYNCH_EXPIRATION_TABLE_CREATE = SQLUtils.loadSQLFromClasspath("schema/ReplicationSynchExpiration.sql");
 	private static String QUERY_CACHE_TABLE_CREATE = SQLUtils.loadSQLFromClasspath("schema/QueryCache.sql");
+	private static String PROJECT_STORAGE_LEDGER_TABLE_CREATE = SQLUtils.loadSQLFromClasspath("schema/ProjectStorageLedger.sql");
 	private static String GET_ID_AND_CHECKSUMS_SQL_TEMPLATE = SQLUtils.loadSQLFromClasspath("sql/GetIdAndChecksumsTemplate.sql");
+	private static String GET_ID_AND_CHECKSUMS_IN_RANGE_SQL_TEMPLATE = SQLUtils.loadSQLFromClasspath("sql/GetIdAndChecksumsInRangeTemplate.sql");
+	private static String GET_ID_RANGE_CHECKSUMS_SQL_TEMPLATE = SQLUtils.loadSQLFromClasspath("sql/GetIdRangeChecksumsTemplate.sql");
 	
 	public static RowMapper<ObjectDataDTO> OBJECT_DATA_ROW_MAPPER = (ResultSet rs, int rowNum) -> {
 		ObjectDataDTO dto = new ObjectDataDTO();
@@ -210,19 +226,93 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 			+ " WHERE " + OBJECT_REPLICATION_COL_OBJECT_TYPE + " =:" + OBJECT_TYPE_PARAM_NAME 
 			+ " AND (" + OBJECT_REPLICATION_COL_OBJECT_ID + ", " + OBJECT_REPLICATION_COL_OBJECT_VERSION +") IN (:" +ID_PARAM_NAME+ ")";
 
+	/**
+	 * The storage used by each project is read from the ledger, the project name is joined from the replication.
+	 */
 	public static final String SQL_SELECT_PROJECTS_BY_SIZE =
-			"SELECT t1."+OBJECT_REPLICATION_COL_PROJECT_ID + ", t2." + OBJECT_REPLICATION_COL_NAME + ", t1.PROJECT_SIZE_BYTES "
-			+ " FROM (SELECT " + OBJECT_REPLICATION_COL_PROJECT_ID + ", "
-					+ " SUM(" + OBJECT_REPLICATION_COL_FILE_SIZE_BYTES + ") AS PROJECT_SIZE_BYTES"
-					+ " FROM " + OBJECT_REPLICATION_TABLE 
-					+ " WHERE " 
-					+ OBJECT_REPLICATION_COL_OBJECT_TYPE + " = :" + OBJECT_TYPE_PARAM_NAME
-					+ " AND " + OBJECT_REPLICATION_COL_IN_SYNAPSE_STORAGE+" = 1"
-					+ " GROUP BY " + OBJECT_REPLICATION_COL_PROJECT_ID + ") t1," + OBJECT_REPLICATION_TABLE + " t2"
-					+ " WHERE"
-					+ " t2." + OBJECT_REPLICATION_COL_OBJECT_TYPE + " = :" + OBJECT_TYPE_PARAM_NAME
-					+ " AND t1." + OBJECT_REPLICATION_COL_PROJECT_ID + " = t2." + OBJECT_REPLICATION_COL_OBJECT_ID
-					+ " ORDER BY t1.PROJECT_SIZE_BYTES DESC";
+			"SELECT L." + PROJECT_STORAGE_LEDGER_COL_PROJECT_ID + ", R." + OBJECT_REPLICATION_COL_NAME + ", L." + PROJECT_STORAGE_LEDGER_COL_SIZE_IN_BYTES
+			+ " FROM " + PROJECT_STORAGE_LEDGER_TABLE + " L JOIN " + OBJECT_REPLICATION_TABLE + " R"
+			+ " ON (L." + PROJECT_STORAGE_LEDGER_COL_OBJECT_TYPE + " = R." + OBJECT_REPLICATION_COL_OBJECT_TYPE
+			+ " AND L." + PROJECT_STORAGE_LEDGER_COL_PROJECT_ID + " = R." + OBJECT_REPLICATION_COL_OBJECT_ID + ")"
+			+ " WHERE L." + PROJECT_STORAGE_LEDGER_COL_OBJECT_TYPE + " = :" + OBJECT_TYPE_PARAM_NAME
+			+ " AND L." + PROJECT_STORAGE_LEDGER_COL_FILE_COUNT + " > 0"
+			+ " ORDER BY L." + PROJECT_STORAGE_LEDGER_COL_SIZE_IN_BYTES + " DESC";
+	
+	/**
+	 * The bytes and number of files in synapse storage per project of the replicated objects with the given ids. 
+	 */
+	private static final String SQL_SELECT_PROJECT_STORAGE_FOR_OBJECTS =
+			"SELECT " + OBJECT_REPLICATION_COL_OBJECT_TYPE + ", " + OBJECT_REPLICATION_COL_PROJECT_ID + ","
+			+ " COALESCE(SUM(" + OBJECT_REPLICATION_COL_FILE_SIZE_BYTES + "), 0) AS BYTES, COUNT(*) AS FILES"
+			+ " FROM " + OBJECT_REPLICATION_TABLE
+			+ " WHERE " + OBJECT_REPLICATION_COL_OBJECT_TYPE + " = :" + OBJECT_TYPE_PARAM_NAME
+			+ " AND " + OBJECT_REPLICATION_COL_OBJECT_ID + " IN (:" + ID_PARAM_NAME + ")"
+			+ " AND " + OBJECT_REPLICATION_COL_IN_SYNAPSE_STORAGE + " = 1"
+			+ " AND " + OBJECT_REPLICATION_COL_PROJECT_ID + " IS NOT NULL"
+			+ " GROUP BY " + OBJECT_REPLICATION_COL_OBJECT_TYPE + ", " + OBJECT_REPLICATION_COL_PROJECT_ID;
+	
+	/**
+	 * Adds the storage of the replicated objects with the given ids to the ledger. Note: the aggregate is wrapped in
+	 * a derived table since the ON DUPLICATE KEY UPDATE clause cannot reference the columns of a grouped select.
+	 */
+	private static final String SQL_ADD_OBJECTS_TO_PROJECT_STORAGE_LEDGER = 
+			"INSERT INTO " + PROJECT_STORAGE_LEDGER_TABLE + " (" 
+			+ PROJECT_STORAGE_LEDGER_COL_OBJECT_TYPE + ", "
+			+ PROJECT_STORAGE_LEDGER_COL_PROJECT_ID + ", "
+			+ PROJECT_STORAGE_LEDGER_COL_SIZE_IN_BYTES + ", "
+			+ PROJECT_STORAGE_LEDGER_COL_FILE_COUNT + ")"
+			+ " SELECT D." + OBJECT_REPLICATION_COL_OBJECT_TYPE + ", D." + OBJECT_REPLICATION_COL_PROJECT_ID + ", D.BYTES, D.FILES"
+			+ " FROM (" + SQL_SELECT_PROJECT_STORAGE_FOR_OBJECTS + ") D"
+			+ " ON DUPLICATE KEY UPDATE "
+			+ PROJECT_STORAGE_LEDGER_COL_SIZE_IN_BYTES + " = " + PROJECT_STORAGE_LEDGER_COL_SIZE_IN_BYTES + " + D.BYTES, "
+			+ PROJECT_STORAGE_LEDGER_COL_FILE_COUNT + " = " + PROJECT_STORAGE_LEDGER_COL_FILE_COUNT + " + D.FILES";
+	
+	/**
+	 * Subtracts the storage of the replicated objects with the given ids from the ledger.
+	 */
+	private static final String SQL_SUBTRACT_OBJECTS_FROM_PROJECT_STORAGE_LEDGER = 
+			"INSERT INTO " + PROJECT_STORAGE_LEDGER_TABLE + " (" 
+			+ PROJECT_STORAGE_LEDGER_COL_OBJECT_TYPE + ", "
+			+ PROJECT_STORAGE_LEDGER_COL_PROJECT_ID + ", "
+			+ PROJECT_STORAGE_LEDGER_COL_SIZE_IN_BYTES + ", "
+			+ PROJECT_STORAGE_LEDGER_COL_FILE_COUNT + ")"
+			+ " SELECT D." + OBJECT_REPLICATION_COL_OBJECT_TYPE + ", D." + OBJECT_REPLICATION_COL_PROJECT_ID + ", -D.BYTES, -D.FILES"
+			+ " FROM (" + SQL_SELECT_PROJECT_STORAGE_FOR_OBJECTS + ") D"
+			+ " ON DUPLICATE KEY UPDATE "
+			+ PROJECT_STORAGE_LEDGER_COL_SIZE_IN_BYTES + " = " + PROJECT_STORAGE_LEDGER_COL_SIZE_IN_BYTES + " - D.BYTES, "
+			+ PROJECT_STORAGE_LEDGER_COL_FILE_COUNT + " = " + PROJECT_STORAGE_LEDGER_COL_FILE_COUNT + " - D.FILES";
+	
+	/**
+	 * The difference between the storage of each project computed with a full scan of the replication and the
+	 * storage in the ledger, only the projects that do not match are returned. A single statement reads both tables
+	 * so that they are compared at the same point in time.
+	 */
+	private static final String SQL_SELECT_PROJECT_STORAGE_LEDGER_DRIFT =
+			"SELECT " + PROJECT_STORAGE_LEDGER_COL_PROJECT_ID + ", SUM(BYTES), SUM(FILES) FROM ("
+			+ " SELECT " + OBJECT_REPLICATION_COL_PROJECT_ID + " AS " + PROJECT_STORAGE_LEDGER_COL_PROJECT_ID + ","
+			+ " COALESCE(SUM(" + OBJECT_REPLICATION_COL_FILE_SIZE_BYTES + "), 0) AS BYTES, COUNT(*) AS FILES"
+			+ " FROM " + OBJECT_REPLICATION_TABLE
+			+ " WHERE " + OBJECT_REPLICATION_COL_OBJECT_TYPE + " = :" + OBJECT_TYPE_PARAM_NAME
+			+ " AND " + OBJECT_REPLICATION_COL_IN_SYNAPSE_STORAGE + " = 1"
+			+ " AND " + OBJECT_REPLICATION_COL_PROJECT_ID + " IS NOT NULL"
+			+ " GROUP BY " + OBJECT_REPLICATION_COL_PROJECT_ID
+			+ " UNION ALL"
+			+ " SELECT " + PROJECT_STORAGE_LEDGER_COL_PROJECT_ID + ", -" + PROJECT_STORAGE_LEDGER_COL_SIZE_IN_BYTES + ", -" + PROJECT_STORAGE_LEDGER_COL_FILE_COUNT
+			+ " FROM " + PROJECT_STORAGE_LEDGER_TABLE
+			+ " WHERE " + PROJECT_STORAGE_LEDGER_COL_OBJECT_TYPE + " = :" + OBJECT_TYPE_PARAM_NAME
+			+ ") D GROUP BY " + PROJECT_STORAGE_LEDGER_COL_PROJECT_ID
+			+ " HAVING SUM(BYTES) <> 0 OR SUM(FILES) <> 0"
+			+ " ORDER BY " + PROJECT_STORAGE_LEDGER_COL_PROJECT_ID;
+	
+	private static final String SQL_APPLY_PROJECT_STORAGE_LEDGER_DELTA = 
+			"INSERT INTO " + PROJECT_STORAGE_LEDGER_TABLE + " (" 
+			+ PROJECT_STORAGE_LEDGER_COL_OBJECT_TYPE + ", "
+			+ PROJECT_STORAGE_LEDGER_COL_PROJECT_ID + ", "
+			+ PROJECT_STORAGE_LEDGER_COL_SIZE_IN_BYTES + ", "
+			+ PROJECT_STORAGE_LEDGER_COL_FILE_COUNT + ")"
+			+ " VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+			+ PROJECT_STORAGE_LEDGER_COL_SIZE_IN_BYTES + " = " + PROJECT_STORAGE_LEDGER_COL_SIZE_IN_BYTES + " + ?, "
+			+ PROJECT_STORAGE_LEDGER_COL_FILE_COUNT + " = " + PROJECT_STORAGE_LEDGER_COL_FILE_COUNT + " + ?";
 	
 	private static final String KEY_NAME = "Key_name";
 	private static final String COLUMN_NAME = "Column_name";
@@ -304,6 +394,15 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 		deleteSecondaryTables(tableId);
 	}
 	
+	@Override
+	public List<IdAndVersion> getTableIndexIds() {
+		List<IdAndVersion> tableIds = new ArrayList<>();
+		for (String statusTableName : template.queryForList(SQLUtils.SHOW_STATUS_TABLES_SQL, String.class)) {
+			SQLUtils.getTableIdForStatusTableName(statusTableName).ifPresent(tableIds::add);
+		}
+		return tableIds;
+	}
+	
 	/**
 	 * Delete secondary table associated with the given tableId.
 	 * @param tableId
@@ -757,6 +856,7 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 		template.update(ANNOTATION_REPLICATION_TABLE_CREATE);
 		template.update(REPLICATION_SYNCH_EXPIRATION_TABLE_CREATE);
 		template.update(QUERY_CACHE_TABLE_CREATE);
+		template.update(PROJECT_STORAGE_LEDGER_TABLE_CREATE);
 	}
 
 	@Override
@@ -764,6 +864,8 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 		final List<Long> sorted = new ArrayList<Long>(objectIds);
 		// sort to prevent deadlock.
 		Collections.sort(sorted);
+		// The storage of the objects is removed from the ledger before the objects are deleted
+		updateProjectStorageLedger(SQL_SUBTRACT_OBJECTS_FROM_PROJECT_STORAGE_LEDGER, mainType, sorted);
 		// Batch delete.
 		template.batchUpdate(TableConstants.OBJECT_REPLICATION_DELETE_ALL, new BatchPreparedStatementSetter(){
 
@@ -787,6 +889,11 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 		final List<ObjectDataDTO> sorted = new ArrayList<ObjectDataDTO>(ObjectDataDTO.deDuplicate(objectDtos));
 		Collections.sort(sorted);
 		
+		final List<Long> objectIds = sorted.stream().map(ObjectDataDTO::getId).distinct().collect(Collectors.toList());
+		
+		// Any existing row of the objects is replaced, its storage is removed from the ledger first
+		updateProjectStorageLedger(SQL_SUBTRACT_OBJECTS_FROM_PROJECT_STORAGE_LEDGER, mainType, objectIds);
+		
 		// batch update the object replication table
 		template.batchUpdate(TableConstants.OBJECT_REPLICATION_INSERT_OR_UPDATE, new BatchPreparedStatementSetter(){
 
@@ -928,6 +1035,8 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 			public int getBatchSize() {
 				return sorted.size();
 			}});
+		// Add back the storage of the objects as now replicated
+		updateProjectStorageLedger(SQL_ADD_OBJECTS_TO_PROJECT_STORAGE_LEDGER, mainType, objectIds);
 		// map the entities with annotations
 		final List<ObjectAnnotationDTO> annotations = new ArrayList<ObjectAnnotationDTO>();
 		for(int i=0; i<sorted.size(); i++){
@@ -1302,6 +1411,63 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 		return sum;
 	}
 
+	/**
+	 * Applies the storage of the replicated objects with the given ids to the ledger using the given statement
+	 * 
+	 * @param ledgerSql
+	 * @param mainType
+	 * @param objectIds
+	 */
+	private void updateProjectStorageLedger(String ledgerSql, ReplicationType mainType, List<Long> objectIds) {
+		if (objectIds.isEmpty()) {
+			return;
+		}
+		MapSqlParameterSource params = new MapSqlParameterSource()
+				.addValue(OBJECT_TYPE_PARAM_NAME, mainType.name())
+				.addValue(ID_PARAM_NAME, objectIds);
+		namedTemplate.update(ledgerSql, params);
+	}
+	
+	@Override
+	public List<ProjectStorageDelta> reconcileProjectStorageLedger(ReplicationType mainType) {
+		ValidateArgument.required(mainType, "mainType");
+		
+		MapSqlParameterSource params = new MapSqlParameterSource(OBJECT_TYPE_PARAM_NAME, mainType.name());
+		
+		List<ProjectStorageDelta> drift = namedTemplate.query(SQL_SELECT_PROJECT_STORAGE_LEDGER_DRIFT, params, (ResultSet rs, int rowNum) -> 
+			new ProjectStorageDelta(rs.getLong(1), rs.getLong(2), rs.getLong(3))
+		);
+		
+		if (drift.isEmpty()) {
+			return drift;
+		}
+		
+		// The drift is applied as an increment so that the changes made to the ledger after the comparison are preserved
+		writeTransactionTemplate.executeWithoutResult(txStatus -> {
+			template.batchUpdate(SQL_APPLY_PROJECT_STORAGE_LEDGER_DELTA, new BatchPreparedStatementSetter() {
+				
+				@Override
+				public void setValues(PreparedStatement ps, int i) throws SQLException {
+					ProjectStorageDelta delta = drift.get(i);
+					int parameterIndex = 1;
+					ps.setString(parameterIndex++, mainType.name());
+					ps.setLong(parameterIndex++, delta.getProjectId());
+					ps.setLong(parameterIndex++, delta.getSizeInBytes());
+					ps.setLong(parameterIndex++, delta.getFileCount());
+					ps.setLong(parameterIndex++, delta.getSizeInBytes());
+					ps.setLong(parameterIndex++, delta.getFileCount());
+				}
+				
+				@Override
+				public int getBatchSize() {
+					return drift.size();
+				}
+			});
+		});
+		
+		return drift;
+	}
+	
 	@Override
 	public void streamSynapseStorageStats(ReplicationType mainType, Callback<SynapseStorageProjectStats> callback) {
 		MapSqlParameterSource params = new MapSqlParameterSource(OBJECT_TYPE_PARAM_NAME, mainType.name());
@@ -1364,6 +1530,7 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 		truncateReplicationSyncExpiration();
 		template.update(TRUNCATE_ANNOTATION_REPLICATION_TABLE);
 		template.update(TRUNCATE_OBJECT_REPLICATION_TABLE);
+		template.update(TRUNCATE_PROJECT_STORAGE_LEDGER_TABLE);
 		template.update("DELETE FROM QUERY_CACHE");
 	}
 
@@ -1395,6 +1562,56 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 			return new IdAndChecksum().withId(rs.getLong("ID")).withChecksum(rs.getLong("CHECK_SUM"));
 		});
 	}
+
+	@Override
+	public List<IdAndChecksum> getIdAndChecksumsForFilter(Long salt, ViewFilter filter, Long minId, Long maxId, Long limit, Long offset) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(filter, "filter");
+		if(filter.isEmpty()) {
+			return Collections.emptyList();
+		}
+		ValidateArgument.required(minId, "minId");
+		ValidateArgument.required(maxId, "maxId");
+		ValidateArgument.required(limit, "limit");
+		ValidateArgument.required(offset, "offset");
+		
+		String sql = String.format(GET_ID_AND_CHECKSUMS_IN_RANGE_SQL_TEMPLATE, filter.getObjectIdFilterSql());
+		Map<String, Object> params = new HashMap<String, Object>(filter.getParameters());
+		params.put("salt", salt);
+		params.put("minId", minId);
+		params.put("maxId", maxId);
+		params.put("limit", limit);
+		params.put("offset", offset);
+		
+		return namedTemplate.query(sql, params, (ResultSet rs, int rowNum) -> {
+			return new IdAndChecksum().withId(rs.getLong("ID")).withChecksum(rs.getLong("CHECK_SUM"));
+		});
+	}
+
+	@Override
+	public List<IdRangeChecksum> getIdRangeChecksumsForFilter(Long salt, ViewFilter filter, Long minId, Long maxId, Long bucketSize) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(filter, "filter");
+		if(filter.isEmpty()) {
+			return Collections.emptyList();
+		}
+		ValidateArgument.required(minId, "minId");
+		ValidateArgument.required(maxId, "maxId");
+		ValidateArgument.required(bucketSize, "bucketSize");
+		ValidateArgument.requirement(bucketSize > 0, "bucketSize must be greater than zero.");
+		
+		String sql = String.format(GET_ID_RANGE_CHECKSUMS_SQL_TEMPLATE, filter.getObjectIdFilterSql());
+		Map<String, Object> params = new HashMap<String, Object>(filter.getParameters());
+		params.put("salt", salt);
+		params.put("minId", minId);
+		params.put("maxId", maxId);
+		params.put("bucketSize", bucketSize);
+		
+		return namedTemplate.query(sql, params, (ResultSet rs, int rowNum) -> {
+			return new IdRangeChecksum().withBucket(rs.getLong("BUCKET")).withMinId(rs.getLong("MIN_ID")).withMaxId(rs.getLong("MAX_ID"))
+					.withCount(rs.getLong("ID_COUNT")).withChecksum(rs.getLong("CHECK_SUM"));
+		});
+	}
 		
 	@Override
 	public List<TableRowData> getTableDataForRowIds(IdAndVersion idAndVersion, List<ColumnModel> selectColumns, Set<Long> rowIds) {
@@ -1432,6 +1649,23 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 		return namedTemplate.query(sql, params, rowMapper);
 	}
 	
+	@Override
+	public List<TableRowData> getTableDataPageAfterRowId(IdAndVersion idAndVersion, List<ColumnModel> selectColumns, Long afterRowId, long limit) {
+		ValidateArgument.required(idAndVersion, "idAndVersion");
+		ValidateArgument.requiredNotEmpty(selectColumns, "selectColumns");
+		
+		String sql = SQLUtils.buildSelectTableDataPageAfterRowId(idAndVersion, selectColumns);
+		
+		Map<String, Object> params = ImmutableMap.of(
+			TableConstants.ROW_ID, afterRowId == null ? -1L : afterRowId,
+			TableConstants.P_LIMIT, limit
+		);
+		
+		RowMapper<TableRowData> rowMapper = getTableDataMapper(selectColumns);
+		
+		return namedTemplate.query(sql, params, rowMapper);
+	}
+	
 	private RowMapper<TableRowData> getTableDataMapper(List<ColumnModel> selectColumns) {
 		return (rs, rowNum) -> {
 			int columnIndex = 1;
@@ -1518,18 +1752,48 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 		ValidateArgument.required(idAndVersion, "idAndVersion");
 		ValidateArgument.requiredNotEmpty(searchContentRows, "searchContentRows");
 		
-		String updateSql = SQLUtils.buildBatchUpdateSearchContentSql(idAndVersion);
+		// Each statement updates a chunk of rows, saving a round trip and an index lookup per row
+		List<List<RowSearchContent>> chunks = Lists.partition(searchContentRows, SEARCH_CONTENT_UPDATE_ROWS_PER_STATEMENT);
+
+		writeTransactionTemplate.executeWithoutResult( txStatus -> {
+			for (List<RowSearchContent> chunk : chunks) {
+				String updateSql = SQLUtils.buildMultiRowUpdateSearchContentSql(idAndVersion, chunk.size());
+				
+				Object[] args = new Object[chunk.size() * 3];
+				int index = 0;
+				
+				for (RowSearchContent searchContent : chunk) {
+					args[index++] = searchContent.getRowId();
+					args[index++] = searchContent.getSearchContent();
+				}
+				
+				for (RowSearchContent searchContent : chunk) {
+					args[index++] = searchContent.getRowId();
+				}
+				
+				template.update(updateSql, args);
+			}
+		});
+	}
+	
+	@Override
+	public Map<Long, String> getSearchContentHashes(IdAndVersion idAndVersion, Set<Long> rowIds) {
+		ValidateArgument.required(idAndVersion, "idAndVersion");
+		ValidateArgument.required(rowIds, "rowIds");
 		
-		List<Object[]> batchUpdateArgs = new ArrayList<>(searchContentRows.size());
+		Map<Long, String> hashes = new HashMap<>(rowIds.size());
 		
-		for (RowSearchContent searchContent : searchContentRows) {
-			batchUpdateArgs.add(new Object[] { 
-				searchContent.getSearchContent(), 
-				searchContent.getRowId()
-			});
+		if (rowIds.isEmpty()) {
+			return hashes;
 		}
-
-		writeTransactionTemplate.executeWithoutResult( txStatus -> template.batchUpdate(updateSql, batchUpdateArgs));
+		
+		String sql = SQLUtils.buildSelectSearchContentHashesSql(idAndVersion);
+		
+		namedTemplate.query(sql, Collections.singletonMap(TableConstants.ROW_ID, rowIds), (ResultSet rs) -> {
+			hashes.put(rs.getLong(1), rs.getString(2));
+		});
+		
+		return hashes;
 	}
 	
 	@Override
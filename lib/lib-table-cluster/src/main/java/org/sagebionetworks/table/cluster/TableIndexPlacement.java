@@ -0,0 +1,19 @@
+package org.sagebionetworks.table.cluster;
+
+/**
+ * Decides which tables must have their index on the first database instance of
+ * the cluster, regardless of the instance their id is hashed to. A materialized
+ * view is built with a query that joins the indices of its source tables, so the
+ * view and its sources must share the same database.
+ *
+ */
+public interface TableIndexPlacement {
+
+	/**
+	 * @param tableId
+	 * @return True if the index of the table with the given id must be on the
+	 *         first database instance.
+	 */
+	boolean isOnFirstInstance(Long tableId);
+
+}
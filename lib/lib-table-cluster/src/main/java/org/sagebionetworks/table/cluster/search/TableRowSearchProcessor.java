@@ -1,15 +1,30 @@
 package org.sagebionetworks.table.cluster.search;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 @FunctionalInterface
 public interface TableRowSearchProcessor {
 
 	/**
 	 * Process the given {@link TableRowData} to compute a single string to use in the search index.
-	 * 
+	 *
 	 * @param rowData The data fetched from a single row in a table
 	 * @param includeRowId True if the id of the row should be included in the output
 	 * @return A string denoting the value computed from the given list, can be null
 	 */
 	String process(TableRowData rowData, boolean includeRowId);
-	
+
+	/**
+	 * Process the given batch of {@link TableRowData} to compute the search content of each row, the content of a row
+	 * matches the one computed by {@link #process(TableRowData, boolean)}.
+	 *
+	 * @param rows The data fetched from a batch of rows in a table
+	 * @param includeRowId True if the id of the rows should be included in the output
+	 * @return The search content of each row, in the same order as the given rows
+	 */
+	default List<RowSearchContent> processRows(List<TableRowData> rows, boolean includeRowId) {
+		return rows.stream().map(rowData -> new RowSearchContent(rowData.getRowId(), process(rowData, includeRowId))).collect(Collectors.toList());
+	}
+
 }
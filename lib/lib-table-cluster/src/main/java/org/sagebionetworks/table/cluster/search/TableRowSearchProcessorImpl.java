@@ -1,5 +1,11 @@
 package org.sagebionetworks.table.cluster.search;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONArray;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
@@ -10,46 +16,413 @@ import org.springframework.stereotype.Component;
 
 @Component
 public class TableRowSearchProcessorImpl implements TableRowSearchProcessor {
-	
-	private static final String SEPARATOR = " ";
-	
+
+	private static final char SEPARATOR = ' ';
+
+	private static final String ENTITY_ID_PREFIX = "syn";
+
+	/**
+	 * Builders that grew over this capacity while processing a batch are not kept for the next batch
+	 */
+	static final int MAX_POOLED_BUILDER_CAPACITY = 16 * 1024;
+
+	/**
+	 * Builders that collected more than this number of distinct tokens while processing a batch are not kept for the
+	 * next batch, the token set is not shrunk when cleared
+	 */
+	static final int MAX_POOLED_BUILDER_TOKENS = 1024;
+
+	/**
+	 * The maximum number of builders kept by each thread, the builders for the rows of a larger batch are not pooled
+	 */
+	static final int MAX_POOLED_BUILDERS = 256;
+
+	/**
+	 * The row builders are reused across the batches processed by the same thread
+	 */
+	private static final ThreadLocal<List<RowContentBuilder>> BUILDER_POOL = ThreadLocal.withInitial(ArrayList::new);
+
 	@Override
 	public String process(TableRowData rowData, boolean includeRowId) {
 		ValidateArgument.required(rowData, "rowData");
-		
-		StringBuilder output = new StringBuilder();
-		
-		if (includeRowId) {
-			// We treat the id as an entity id so that the syn prefix variant is also included
-			appendValue(output, ColumnType.ENTITYID, rowData.getRowId().toString());
-		}
-		
-		rowData.getRowValues().forEach( rawValue -> appendValue(output, rawValue.getColumnType(), rawValue.getRawValue()));
-		
-		return StringUtils.trimToNull(output.toString());
-	}
-	
-	private static void appendValue(StringBuilder builder, ColumnType type, String value) {
-		if (StringUtils.isBlank(value)) {
-			return;
-		}
-		
-		if (ColumnTypeListMappings.isList(type)) {
-			ColumnType nonListType = ColumnTypeListMappings.nonListType(type);
-			new JSONArray(value).toList().stream()
-				.map(obj -> obj == null ? null : obj.toString())
-				.filter(str -> !StringUtils.isBlank(str))
-				.forEach((singleValue) -> appendValue(builder, nonListType, singleValue));
-			return;
-		}
-		
-		if (ColumnType.ENTITYID == type) {
-			Long id = KeyFactory.stringToKey(value.trim());
-			builder.append(id).append(SEPARATOR);
-			value = KeyFactory.keyToString(id);
-		}
-		
-		builder.append(value.trim()).append(SEPARATOR);
-	}
-	
+
+		return processRows(Collections.singletonList(rowData), includeRowId).get(0).getSearchContent();
+	}
+
+	@Override
+	public List<RowSearchContent> processRows(List<TableRowData> rows, boolean includeRowId) {
+		ValidateArgument.required(rows, "rows");
+
+		List<RowContentBuilder> builders = acquireBuilders(rows.size());
+
+		try {
+			int columnCount = 0;
+
+			for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
+				TableRowData rowData = rows.get(rowIndex);
+				ValidateArgument.required(rowData, "rowData");
+				if (includeRowId) {
+					// We treat the id as an entity id so that the syn prefix variant is also included
+					builders.get(rowIndex).appendEntityId(rowData.getRowId());
+				}
+				columnCount = Math.max(columnCount, rowData.getRowValues().size());
+			}
+
+			// The values are appended one column at a time so that the type of a column is resolved once for all the rows
+			for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+				ColumnType columnType = null;
+				ColumnType nonListType = null;
+
+				for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
+					List<TypedCellValue> rowValues = rows.get(rowIndex).getRowValues();
+
+					if (columnIndex >= rowValues.size()) {
+						continue;
+					}
+
+					TypedCellValue cell = rowValues.get(columnIndex);
+
+					if (StringUtils.isBlank(cell.getRawValue())) {
+						continue;
+					}
+
+					if (cell.getColumnType() != columnType) {
+						columnType = cell.getColumnType();
+						nonListType = ColumnTypeListMappings.isList(columnType) ? ColumnTypeListMappings.nonListType(columnType) : null;
+					}
+
+					RowContentBuilder builder = builders.get(rowIndex);
+
+					if (nonListType == null) {
+						builder.appendValue(columnType, cell.getRawValue());
+					} else {
+						builder.appendListValues(nonListType, cell.getRawValue());
+					}
+				}
+			}
+
+			List<RowSearchContent> results = new ArrayList<>(rows.size());
+
+			for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
+				results.add(new RowSearchContent(rows.get(rowIndex).getRowId(), builders.get(rowIndex).build()));
+			}
+
+			return results;
+		} finally {
+			releaseBuilders(builders);
+		}
+	}
+
+	private static List<RowContentBuilder> acquireBuilders(int count) {
+		List<RowContentBuilder> pool = BUILDER_POOL.get();
+		int pooledCount = Math.min(count, MAX_POOLED_BUILDERS);
+		while (pool.size() < pooledCount) {
+			pool.add(new RowContentBuilder());
+		}
+		List<RowContentBuilder> builders = new ArrayList<>(count);
+		builders.addAll(pool.subList(0, pooledCount));
+		while (builders.size() < count) {
+			builders.add(new RowContentBuilder());
+		}
+		return builders;
+	}
+
+	private static void releaseBuilders(List<RowContentBuilder> builders) {
+		List<RowContentBuilder> pool = BUILDER_POOL.get();
+		int pooledCount = Math.min(builders.size(), MAX_POOLED_BUILDERS);
+		for (int i = 0; i < pooledCount; i++) {
+			if (!builders.get(i).reset()) {
+				pool.set(i, new RowContentBuilder());
+			}
+		}
+	}
+
+	// Exposed for testing
+	static int getPooledBuilderCount() {
+		return BUILDER_POOL.get().size();
+	}
+
+	/**
+	 * Parses the given JSON array of a list column, adding its values to the given list without materializing the
+	 * array. Only arrays of strings, integers and nulls are parsed, null values are skipped.
+	 *
+	 * @param json
+	 * @param values
+	 * @return False if the given JSON cannot be parsed by this method, in which case the content of the values is
+	 *         undefined
+	 */
+	static boolean tokenizeListValue(String json, List<String> values) {
+		int length = json.length();
+		int index = skipWhitespace(json, 0);
+
+		if (index >= length || json.charAt(index) != '[') {
+			return false;
+		}
+
+		index = skipWhitespace(json, index + 1);
+
+		if (index < length && json.charAt(index) == ']') {
+			return skipWhitespace(json, index + 1) == length;
+		}
+
+		while (index < length) {
+			if (json.charAt(index) == '"') {
+				index = tokenizeString(json, index + 1, values);
+			} else {
+				index = tokenizeLiteral(json, index, values);
+			}
+
+			if (index < 0) {
+				return false;
+			}
+
+			index = skipWhitespace(json, index);
+
+			if (index >= length) {
+				return false;
+			}
+
+			char next = json.charAt(index);
+
+			if (next == ']') {
+				return skipWhitespace(json, index + 1) == length;
+			}
+
+			if (next != ',') {
+				return false;
+			}
+
+			index = skipWhitespace(json, index + 1);
+		}
+
+		return false;
+	}
+
+	private static int tokenizeString(String json, int start, List<String> values) {
+		StringBuilder decoded = null;
+		int index = start;
+
+		while (index < json.length()) {
+			char current = json.charAt(index);
+
+			if (current == '"') {
+				values.add(decoded == null ? json.substring(start, index) : decoded.toString());
+				return index + 1;
+			}
+
+			if (current == 0 || current == '\n' || current == '\r') {
+				// Unterminated string, left to the JSON parser
+				return -1;
+			}
+
+			if (current == '\\') {
+				if (decoded == null) {
+					decoded = new StringBuilder(json.length());
+					decoded.append(json, start, index);
+				}
+
+				if (++index >= json.length()) {
+					return -1;
+				}
+
+				char escaped = json.charAt(index);
+
+				switch (escaped) {
+				case '"':
+				case '\\':
+				case '/':
+					decoded.append(escaped);
+					break;
+				case 'b':
+					decoded.append('\b');
+					break;
+				case 'f':
+					decoded.append('\f');
+					break;
+				case 'n':
+					decoded.append('\n');
+					break;
+				case 'r':
+					decoded.append('\r');
+					break;
+				case 't':
+					decoded.append('\t');
+					break;
+				case 'u':
+					if (index + 4 >= json.length()) {
+						return -1;
+					}
+					int codePoint = 0;
+					for (int i = index + 1; i <= index + 4; i++) {
+						int digit = Character.digit(json.charAt(i), 16);
+						if (digit < 0) {
+							return -1;
+						}
+						codePoint = codePoint * 16 + digit;
+					}
+					decoded.append((char) codePoint);
+					index += 4;
+					break;
+				default:
+					return -1;
+				}
+			} else if (decoded != null) {
+				decoded.append(current);
+			}
+
+			index++;
+		}
+
+		return -1;
+	}
+
+	private static int tokenizeLiteral(String json, int start, List<String> values) {
+		int index = start;
+
+		while (index < json.length() && json.charAt(index) != ',' && json.charAt(index) != ']' && !Character.isWhitespace(json.charAt(index))) {
+			index++;
+		}
+
+		String literal = json.substring(start, index);
+
+		if ("null".equals(literal)) {
+			return index;
+		}
+
+		if (!isPlainInteger(literal)) {
+			// Decimals, booleans and nested values are left to the JSON parser
+			return -1;
+		}
+
+		values.add(literal);
+
+		return index;
+	}
+
+	/**
+	 * @param literal
+	 * @return True if the given literal is an integer that the JSON parser would print back unchanged
+	 */
+	private static boolean isPlainInteger(String literal) {
+		int start = literal.startsWith("-") ? 1 : 0;
+		int digits = literal.length() - start;
+
+		// Leading zeros and -0 are not printed back the same
+		if (digits < 1 || digits > 18 || (literal.charAt(start) == '0' && (digits > 1 || start == 1))) {
+			return false;
+		}
+
+		for (int i = start; i < literal.length(); i++) {
+			char current = literal.charAt(i);
+			if (current < '0' || current > '9') {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static int skipWhitespace(String json, int start) {
+		int index = start;
+		while (index < json.length() && Character.isWhitespace(json.charAt(index))) {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * @param value A trimmed entity id
+	 * @return The numeric id of the given entity id, plain numbers with or without the syn prefix are parsed without
+	 *         going through the {@link KeyFactory}
+	 */
+	static Long parseEntityId(String value) {
+		int start = value.regionMatches(true, 0, ENTITY_ID_PREFIX, 0, ENTITY_ID_PREFIX.length()) ? ENTITY_ID_PREFIX.length() : 0;
+		int digits = value.length() - start;
+
+		if (digits < 1 || digits > 18) {
+			return KeyFactory.stringToKey(value);
+		}
+
+		long id = 0;
+
+		for (int i = start; i < value.length(); i++) {
+			char current = value.charAt(i);
+			if (current < '0' || current > '9') {
+				return KeyFactory.stringToKey(value);
+			}
+			id = id * 10 + (current - '0');
+		}
+
+		return id;
+	}
+
+	/**
+	 * Accumulates the search content of a single row, a value that was already added to the row is not repeated
+	 */
+	private static final class RowContentBuilder {
+
+		private final StringBuilder content = new StringBuilder();
+		private final Set<String> tokens = new HashSet<>();
+		private final List<String> listValues = new ArrayList<>();
+
+		void appendValue(ColumnType type, String value) {
+			String trimmed = value.trim();
+
+			if (ColumnType.ENTITYID == type) {
+				appendEntityId(parseEntityId(trimmed));
+			} else {
+				appendToken(trimmed);
+			}
+		}
+
+		void appendListValues(ColumnType nonListType, String value) {
+			listValues.clear();
+
+			if (!tokenizeListValue(value, listValues)) {
+				listValues.clear();
+				new JSONArray(value).toList().forEach(obj -> {
+					if (obj != null) {
+						listValues.add(obj.toString());
+					}
+				});
+			}
+
+			for (String singleValue : listValues) {
+				if (!StringUtils.isBlank(singleValue)) {
+					appendValue(nonListType, singleValue);
+				}
+			}
+		}
+
+		void appendEntityId(Long id) {
+			String idString = id.toString();
+			appendToken(idString);
+			appendToken(ENTITY_ID_PREFIX + idString);
+		}
+
+		private void appendToken(String token) {
+			if (tokens.add(token)) {
+				content.append(token).append(SEPARATOR);
+			}
+		}
+
+		String build() {
+			// Drops the trailing separator
+			return content.length() == 0 ? null : content.substring(0, content.length() - 1);
+		}
+
+		/**
+		 * @return False if the builder grew too much to be reused
+		 */
+		boolean reset() {
+			if (content.capacity() > MAX_POOLED_BUILDER_CAPACITY || tokens.size() > MAX_POOLED_BUILDER_TOKENS) {
+				return false;
+			}
+			content.setLength(0);
+			tokens.clear();
+			listValues.clear();
+			return true;
+		}
+	}
+
 }
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS PROJECT_STORAGE_LEDGER (
+    OBJECT_TYPE ENUM('SUBMISSION', 'ENTITY') NOT NULL,
+    PROJECT_ID BIGINT NOT NULL,
+    SIZE_IN_BYTES BIGINT NOT NULL,
+    FILE_COUNT BIGINT NOT NULL,
+    PRIMARY KEY (OBJECT_TYPE, PROJECT_ID),
+    INDEX (SIZE_IN_BYTES)
+)
@@ -0,0 +1,8 @@
+SELECT 
+ R.OBJECT_ID AS ID,
+ SUM(CRC32(CONCAT(:salt,'-',R.ETAG,'-',R.OBJECT_VERSION,'-',R.BENEFACTOR_ID))) AS CHECK_SUM
+  FROM OBJECT_REPLICATION R
+   WHERE %s AND R.OBJECT_ID BETWEEN :minId AND :maxId
+   GROUP BY R.OBJECT_ID
+    ORDER BY R.OBJECT_ID ASC
+     LIMIT :limit OFFSET :offset
\ No newline at end of file
@@ -0,0 +1,10 @@
+SELECT 
+ (R.OBJECT_ID - :minId) DIV :bucketSize AS BUCKET,
+ MIN(R.OBJECT_ID) AS MIN_ID,
+ MAX(R.OBJECT_ID) AS MAX_ID,
+ COUNT(DISTINCT R.OBJECT_ID) AS ID_COUNT,
+ SUM(CRC32(CONCAT(:salt,'-',R.ETAG,'-',R.OBJECT_VERSION,'-',R.BENEFACTOR_ID))) AS CHECK_SUM
+  FROM OBJECT_REPLICATION R
+   WHERE %s AND R.OBJECT_ID BETWEEN :minId AND :maxId
+   GROUP BY BUCKET
+    ORDER BY BUCKET ASC
\ No newline at end of file
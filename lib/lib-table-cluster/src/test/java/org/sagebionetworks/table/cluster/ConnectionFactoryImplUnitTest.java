@@ -0,0 +1,307 @@
+package org.sagebionetworks.table.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.StackConfiguration;
+import org.sagebionetworks.lib.dbuserhelper.DBUserHelper;
+import org.sagebionetworks.repo.model.entity.IdAndVersion;
+import org.sagebionetworks.table.cluster.metadata.ObjectFieldModelResolverFactory;
+
+@ExtendWith(MockitoExtension.class)
+public class ConnectionFactoryImplUnitTest {
+
+	@Mock
+	private StackConfiguration mockConfig;
+	@Mock
+	private InstanceDiscovery mockInstanceDiscovery;
+	@Mock
+	private TableIndexDAO mockTableIndexDao;
+	@Mock
+	private TableIndexDAO mockOtherTableIndexDao;
+	@Mock
+	private DBUserHelper mockDbUserHelper;
+	@Mock
+	private ObjectFieldModelResolverFactory mockObjectFieldModelResolverFactory;
+	@Mock
+	private TableIndexPlacement mockTableIndexPlacement;
+
+	@Spy
+	@InjectMocks
+	private ConnectionFactoryImpl connectionFactory;
+
+	private InstanceInfo first;
+	private InstanceInfo second;
+
+	@BeforeEach
+	public void before() {
+		first = new InstanceInfo("endpoint", "schemaOne", false);
+		second = new InstanceInfo("endpoint", "schemaTwo", false);
+	}
+
+	/**
+	 * Stub the configuration used to create the connection pools.
+	 */
+	private void setupConnectionPoolConfig() {
+		when(mockConfig.getTableDatabaseDriver()).thenReturn("com.mysql.cj.jdbc.Driver");
+		when(mockConfig.getRepositoryDatabaseUsername()).thenReturn("user");
+		when(mockConfig.getRepositoryDatabasePassword()).thenReturn("password");
+		when(mockConfig.getDatabaseConnectionPoolMinNumberConnections()).thenReturn("1");
+		when(mockConfig.getDatabaseConnectionPoolMaxNumberConnections()).thenReturn("10");
+		when(mockConfig.getDatabaseConnectionPoolShouldValidate()).thenReturn("false");
+		when(mockConfig.getDatabaseConnectionPoolValidateSql()).thenReturn("SELECT 1");
+	}
+
+	@Test
+	public void testInitializeWithSingleInstance() {
+		setupConnectionPoolConfig();
+		when(mockInstanceDiscovery.discoverAllInstances()).thenReturn(Collections.singletonList(first));
+		// call under test
+		connectionFactory.initialize();
+
+		verify(mockTableIndexDao).setDataSource(any(BasicDataSource.class));
+		verify(mockTableIndexDao).createObjectReplicationTablesIfDoesNotExist();
+		verify(mockDbUserHelper).createDbReadOnlyUser(any());
+		verify(connectionFactory, never()).createTableIndexDAO();
+
+		assertSame(mockTableIndexDao, connectionFactory.getConnection(IdAndVersion.parse("syn123")));
+		assertSame(mockTableIndexDao, connectionFactory.getFirstConnection());
+		assertEquals(Collections.singletonList(mockTableIndexDao), connectionFactory.getAllConnections());
+		assertEquals(first.getUrl(), ((BasicDataSource) connectionFactory.getFirstDataSource()).getUrl());
+	}
+
+	@Test
+	public void testInitializeWithNoInstances() {
+		when(mockInstanceDiscovery.discoverAllInstances()).thenReturn(Collections.emptyList());
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			connectionFactory.initialize();
+		}).getMessage();
+		assertEquals("Did not find at least one database instances.", message);
+	}
+
+	@Test
+	public void testInitializeWithMultipleInstances() {
+		setupConnectionPoolConfig();
+		when(mockInstanceDiscovery.discoverAllInstances()).thenReturn(Arrays.asList(first, second));
+		doReturn(mockOtherTableIndexDao).when(connectionFactory).createTableIndexDAO();
+		// call under test
+		connectionFactory.initialize();
+
+		// The replication tables are mirrored on each instance
+		verify(mockTableIndexDao).createObjectReplicationTablesIfDoesNotExist();
+		verify(mockOtherTableIndexDao).createObjectReplicationTablesIfDoesNotExist();
+		verify(mockDbUserHelper, times(2)).createDbReadOnlyUser(any());
+
+		assertEquals(Arrays.asList(mockTableIndexDao, mockOtherTableIndexDao), connectionFactory.getAllConnections());
+		assertSame(mockTableIndexDao, connectionFactory.getFirstConnection());
+		assertEquals(first.getUrl(), ((BasicDataSource) connectionFactory.getFirstDataSource()).getUrl());
+
+		Set<TableIndexDAO> used = new HashSet<>();
+		for (long id = 0; id < 100; id++) {
+			TableIndexDAO dao = connectionFactory.getConnection(IdAndVersion.newBuilder().setId(id).build());
+			// All the versions of a table are on the same instance
+			assertSame(dao, connectionFactory.getConnection(IdAndVersion.newBuilder().setId(id).setVersion(2L).build()));
+			used.add(dao);
+		}
+		assertEquals(new HashSet<>(Arrays.asList(mockTableIndexDao, mockOtherTableIndexDao)), used);
+	}
+
+	@Test
+	public void testRefreshInstancesWithAddedInstance() {
+		setupConnectionPoolConfig();
+		when(mockInstanceDiscovery.discoverAllInstances()).thenReturn(Collections.singletonList(first), Arrays.asList(first, second));
+		doReturn(mockOtherTableIndexDao).when(connectionFactory).createTableIndexDAO();
+		connectionFactory.initialize();
+		
+		ConsistentHashRing<String> expectedRing = new ConsistentHashRing<>(Arrays.asList(first.getUrl(), second.getUrl()));
+		
+		// All the existing indices are on the first instance
+		List<IdAndVersion> existingTables = new ArrayList<>();
+		List<IdAndVersion> expectedMovedTables = new ArrayList<>();
+		for (long id = 0; id < 100; id++) {
+			IdAndVersion tableId = IdAndVersion.newBuilder().setId(id).build();
+			existingTables.add(tableId);
+			if (expectedRing.getNode(id).equals(second.getUrl())) {
+				expectedMovedTables.add(tableId);
+			}
+		}
+		when(mockTableIndexDao.getTableIndexIds()).thenReturn(existingTables);
+
+		// call under test
+		List<IdAndVersion> movedTables = connectionFactory.refreshInstances();
+
+		// The existing instance is not reconnected
+		verify(mockTableIndexDao).setDataSource(any());
+		verify(mockOtherTableIndexDao).setDataSource(any());
+		verify(connectionFactory).createTableIndexDAO();
+		assertEquals(Arrays.asList(mockTableIndexDao, mockOtherTableIndexDao), connectionFactory.getAllConnections());
+
+		for (long id = 0; id < 100; id++) {
+			TableIndexDAO expected = expectedRing.getNode(id).equals(first.getUrl()) ? mockTableIndexDao : mockOtherTableIndexDao;
+			assertSame(expected, connectionFactory.getConnection(IdAndVersion.newBuilder().setId(id).build()));
+		}
+		
+		assertFalse(expectedMovedTables.isEmpty());
+		assertEquals(expectedMovedTables, movedTables);
+		// Only the instances of the previous ring are checked
+		verify(mockOtherTableIndexDao, never()).getTableIndexIds();
+	}
+
+	@Test
+	public void testRefreshInstancesWithNoChange() {
+		setupConnectionPoolConfig();
+		when(mockInstanceDiscovery.discoverAllInstances()).thenReturn(Collections.singletonList(first));
+		connectionFactory.initialize();
+		DataSource dataSource = connectionFactory.getFirstDataSource();
+
+		// call under test
+		List<IdAndVersion> movedTables = connectionFactory.refreshInstances();
+
+		verify(mockTableIndexDao).setDataSource(any());
+		assertSame(dataSource, connectionFactory.getFirstDataSource());
+		assertEquals(Collections.emptyList(), movedTables);
+		verify(mockTableIndexDao, never()).getTableIndexIds();
+	}
+
+	@Test
+	public void testGetConnectionWithPlacement() {
+		setupConnectionPoolConfig();
+		when(mockInstanceDiscovery.discoverAllInstances()).thenReturn(Arrays.asList(first, second));
+		doReturn(mockOtherTableIndexDao).when(connectionFactory).createTableIndexDAO();
+		connectionFactory.setTableIndexPlacement(mockTableIndexPlacement);
+		connectionFactory.initialize();
+		
+		ConsistentHashRing<String> expectedRing = new ConsistentHashRing<>(Arrays.asList(first.getUrl(), second.getUrl()));
+		
+		Long hashedToFirst = null;
+		Long hashedToSecond = null;
+		for (long id = 0; id < 100 && (hashedToFirst == null || hashedToSecond == null); id++) {
+			if (expectedRing.getNode(id).equals(first.getUrl())) {
+				hashedToFirst = id;
+			} else {
+				hashedToSecond = id;
+			}
+		}
+		
+		when(mockTableIndexPlacement.isOnFirstInstance(hashedToSecond)).thenReturn(true);
+		
+		// call under test
+		assertSame(mockTableIndexDao, connectionFactory.getConnection(IdAndVersion.newBuilder().setId(hashedToSecond).build()));
+		assertSame(mockTableIndexDao, connectionFactory.getConnection(IdAndVersion.newBuilder().setId(hashedToFirst).build()));
+		
+		// The placement is only looked up for the tables hashed to another instance
+		verify(mockTableIndexPlacement, never()).isOnFirstInstance(hashedToFirst);
+	}
+	
+	@Test
+	public void testGetConnectionWithPlacementNotOnFirstInstance() {
+		setupConnectionPoolConfig();
+		when(mockInstanceDiscovery.discoverAllInstances()).thenReturn(Arrays.asList(first, second));
+		doReturn(mockOtherTableIndexDao).when(connectionFactory).createTableIndexDAO();
+		connectionFactory.setTableIndexPlacement(mockTableIndexPlacement);
+		connectionFactory.initialize();
+		
+		ConsistentHashRing<String> expectedRing = new ConsistentHashRing<>(Arrays.asList(first.getUrl(), second.getUrl()));
+		
+		long hashedToSecond = 0;
+		while (!expectedRing.getNode(hashedToSecond).equals(second.getUrl())) {
+			hashedToSecond++;
+		}
+		
+		when(mockTableIndexPlacement.isOnFirstInstance(hashedToSecond)).thenReturn(false);
+		
+		// call under test
+		assertSame(mockOtherTableIndexDao, connectionFactory.getConnection(IdAndVersion.newBuilder().setId(hashedToSecond).build()));
+	}
+	
+	@Test
+	public void testRefreshInstancesWithPlacement() {
+		setupConnectionPoolConfig();
+		when(mockInstanceDiscovery.discoverAllInstances()).thenReturn(Collections.singletonList(first), Arrays.asList(first, second));
+		doReturn(mockOtherTableIndexDao).when(connectionFactory).createTableIndexDAO();
+		connectionFactory.setTableIndexPlacement(mockTableIndexPlacement);
+		connectionFactory.initialize();
+		
+		ConsistentHashRing<String> expectedRing = new ConsistentHashRing<>(Arrays.asList(first.getUrl(), second.getUrl()));
+		
+		// All the existing indices are on the first instance
+		List<IdAndVersion> existingTables = new ArrayList<>();
+		List<IdAndVersion> expectedMovedTables = new ArrayList<>();
+		boolean pinned = false;
+		for (long id = 0; id < 100; id++) {
+			IdAndVersion tableId = IdAndVersion.newBuilder().setId(id).build();
+			existingTables.add(tableId);
+			if (expectedRing.getNode(id).equals(second.getUrl())) {
+				// The first table hashed to the new instance must stay on the first instance
+				when(mockTableIndexPlacement.isOnFirstInstance(id)).thenReturn(!pinned);
+				if (pinned) {
+					expectedMovedTables.add(tableId);
+				}
+				pinned = true;
+			}
+		}
+		when(mockTableIndexDao.getTableIndexIds()).thenReturn(existingTables);
+
+		// call under test
+		List<IdAndVersion> movedTables = connectionFactory.refreshInstances();
+
+		assertFalse(expectedMovedTables.isEmpty());
+		assertEquals(expectedMovedTables, movedTables);
+	}
+
+	@Test
+	public void testGetConnectionWithNullId() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			connectionFactory.getConnection(null);
+		}).getMessage();
+		assertEquals("tableId is required.", message);
+	}
+
+	@Test
+	public void testGetConnectionPoolStatistics() {
+		setupConnectionPoolConfig();
+		when(mockInstanceDiscovery.discoverAllInstances()).thenReturn(Arrays.asList(first, second));
+		doReturn(mockOtherTableIndexDao).when(connectionFactory).createTableIndexDAO();
+		connectionFactory.initialize();
+
+		// call under test
+		List<ConnectionPoolStatistics> stats = connectionFactory.getConnectionPoolStatistics();
+
+		assertEquals(Arrays.asList(new ConnectionPoolStatistics(first, 0, 0, 10), new ConnectionPoolStatistics(second, 0, 0, 10)), stats);
+	}
+
+	@Test
+	public void testCreateTableIndexDAO() {
+		// call under test
+		TableIndexDAO dao = connectionFactory.createTableIndexDAO();
+		assertTrue(dao instanceof TableIndexDAOImpl);
+	}
+}
@@ -0,0 +1,97 @@
+package org.sagebionetworks.table.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class ConsistentHashRingTest {
+
+	private static final int KEY_COUNT = 10_000;
+
+	@Test
+	public void testGetNodeWithSingleNode() {
+		ConsistentHashRing<String> ring = new ConsistentHashRing<>(Collections.singletonList("one"));
+		for (long key = 0; key < 100; key++) {
+			// call under test
+			assertEquals("one", ring.getNode(key));
+		}
+	}
+
+	@Test
+	public void testGetNodeIsStable() {
+		ConsistentHashRing<String> ring = new ConsistentHashRing<>(Arrays.asList("one", "two", "three"));
+		// The order of the nodes should not matter
+		ConsistentHashRing<String> other = new ConsistentHashRing<>(Arrays.asList("three", "one", "two"));
+		for (long key = 0; key < KEY_COUNT; key++) {
+			// call under test
+			assertEquals(ring.getNode(key), other.getNode(key));
+		}
+	}
+
+	@Test
+	public void testGetNodeDistribution() {
+		List<String> nodes = Arrays.asList("one", "two", "three", "four");
+		ConsistentHashRing<String> ring = new ConsistentHashRing<>(nodes);
+		Map<String, Integer> counts = new HashMap<>();
+		for (long key = 0; key < KEY_COUNT; key++) {
+			// call under test
+			counts.merge(ring.getNode(key), 1, Integer::sum);
+		}
+		assertEquals(nodes.size(), counts.size());
+		int expected = KEY_COUNT / nodes.size();
+		for (Integer count : counts.values()) {
+			assertTrue(Math.abs(count - expected) < expected / 4, "Unbalanced distribution: " + counts);
+		}
+	}
+
+	@Test
+	public void testGetNodeWithAddedNode() {
+		ConsistentHashRing<String> ring = new ConsistentHashRing<>(Arrays.asList("one", "two", "three"));
+		ConsistentHashRing<String> rebalanced = new ConsistentHashRing<>(Arrays.asList("one", "two", "three", "four"));
+		int moved = 0;
+		for (long key = 0; key < KEY_COUNT; key++) {
+			String before = ring.getNode(key);
+			// call under test
+			String after = rebalanced.getNode(key);
+			if (!before.equals(after)) {
+				// Keys can only move to the new node
+				assertEquals("four", after);
+				moved++;
+			}
+		}
+		// About a quarter of the keys should move
+		assertTrue(moved > KEY_COUNT / 8 && moved < KEY_COUNT / 2, "Moved: " + moved);
+	}
+
+	@Test
+	public void testGetNodes() {
+		List<String> nodes = Arrays.asList("one", "two");
+		ConsistentHashRing<String> ring = new ConsistentHashRing<>(nodes);
+		// call under test
+		assertEquals(nodes, ring.getNodes());
+	}
+
+	@Test
+	public void testConstructorWithNoNodes() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			new ConsistentHashRing<>(Collections.emptyList());
+		}).getMessage();
+		assertEquals("nodes is required and must not be empty.", message);
+	}
+
+	@Test
+	public void testConstructorWithNoVirtualNodes() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			new ConsistentHashRing<>(Collections.singletonList("one"), 0);
+		}).getMessage();
+		assertEquals("virtualNodes must be greater than zero.", message);
+	}
+}
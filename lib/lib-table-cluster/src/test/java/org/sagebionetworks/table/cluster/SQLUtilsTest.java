@@ -222,6 +222,22 @@ public class SQLUtilsTest {
 		assertEquals("T__999", SQLUtils.getTableNameForId(tableId, TableIndexType.INDEX));
 		assertEquals("T__999S", SQLUtils.getTableNameForId(tableId, TableIndexType.STATUS));
 	}
+	
+	@Test
+	public void testGetTableIdForStatusTableName(){
+		assertEquals(Optional.of(IdAndVersion.parse("syn999")), SQLUtils.getTableIdForStatusTableName("T999S"));
+		assertEquals(Optional.of(IdAndVersion.parse("syn123.456")), SQLUtils.getTableIdForStatusTableName("T123_456S"));
+		assertEquals(Optional.of(IdAndVersion.parse("syn123")), SQLUtils.getTableIdForStatusTableName("t123s"));
+	}
+	
+	@Test
+	public void testGetTableIdForStatusTableNameWithOtherTables(){
+		// Temporary indices and other tables are not included
+		assertEquals(Optional.empty(), SQLUtils.getTableIdForStatusTableName("T__999S"));
+		assertEquals(Optional.empty(), SQLUtils.getTableIdForStatusTableName("TEMPT999S"));
+		assertEquals(Optional.empty(), SQLUtils.getTableIdForStatusTableName("T999"));
+		assertEquals(Optional.empty(), SQLUtils.getTableIdForStatusTableName("T999F"));
+	}
 
 	@Test
 	public void testGetColumnNameForId(){
@@ -2922,6 +2938,16 @@ public class SQLUtilsTest {
 		assertEquals(expected, sql);
 	}
 	
+	@Test
+	public void testBuildSelectTableDataPageAfterRowIdSQL() {
+		String expected = "SELECT ROW_ID,_C456_,_C789_,_C123_ FROM T999 WHERE ROW_ID > :ROW_ID ORDER BY ROW_ID LIMIT :pLimit";
+		
+		// Call under test
+		String sql = SQLUtils.buildSelectTableDataPageAfterRowId(tableId, simpleSchema);
+		
+		assertEquals(expected, sql);
+	}
+	
 	@Test
 	public void testBuildSelectTableDataSQL() {
 		String expected = "SELECT _C456_,_C789_,_C123_ FROM T999";
@@ -3042,27 +3068,58 @@ public class SQLUtilsTest {
 	}
 	
 	@Test
-	public void testBuildBatchUpdateSearchContentSql() {
-		String expected = "UPDATE T999 SET `ROW_SEARCH_CONTENT` = ? WHERE ROW_ID = ?";
+	public void testBuildMultiRowUpdateSearchContentSql() {
+		String expected = "UPDATE T999 SET `ROW_SEARCH_CONTENT` = CASE ROW_ID WHEN ? THEN ? WHEN ? THEN ? END WHERE ROW_ID IN(?,?)";
 		
 		// Call under test
-		String sql = SQLUtils.buildBatchUpdateSearchContentSql(tableId);
+		String sql = SQLUtils.buildMultiRowUpdateSearchContentSql(tableId, 2);
 		
 		assertEquals(expected, sql);
 	}
 	
 	@Test
-	public void testBuildBatchUpdateSearchContentSqlWithNullId() {
+	public void testBuildMultiRowUpdateSearchContentSqlWithSingleRow() {
+		String expected = "UPDATE T999 SET `ROW_SEARCH_CONTENT` = CASE ROW_ID WHEN ? THEN ? END WHERE ROW_ID IN(?)";
+		
+		// Call under test
+		String sql = SQLUtils.buildMultiRowUpdateSearchContentSql(tableId, 1);
+		
+		assertEquals(expected, sql);
+	}
+	
+	@Test
+	public void testBuildMultiRowUpdateSearchContentSqlWithNullId() {
 		tableId = null;
 		
 		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {			
 			// Call under test
-			SQLUtils.buildBatchUpdateSearchContentSql(tableId);
+			SQLUtils.buildMultiRowUpdateSearchContentSql(tableId, 2);
 		});
 		
 		assertEquals("The id is required.", ex.getMessage());
 	}
 	
+	@Test
+	public void testBuildMultiRowUpdateSearchContentSqlWithNoRows() {
+		
+		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {			
+			// Call under test
+			SQLUtils.buildMultiRowUpdateSearchContentSql(tableId, 0);
+		});
+		
+		assertEquals("The rowCount must be greater than zero.", ex.getMessage());
+	}
+	
+	@Test
+	public void testBuildSelectSearchContentHashesSql() {
+		String expected = "SELECT ROW_ID, MD5(`ROW_SEARCH_CONTENT`) FROM T999 WHERE ROW_ID IN(:ROW_ID)";
+		
+		// Call under test
+		String sql = SQLUtils.buildSelectSearchContentHashesSql(tableId);
+		
+		assertEquals(expected, sql);
+	}
+	
 	@Test
 	public void testBuildClearSearchContentSql() {
 		String expected = "UPDATE T999 SET `ROW_SEARCH_CONTENT` = NULL";
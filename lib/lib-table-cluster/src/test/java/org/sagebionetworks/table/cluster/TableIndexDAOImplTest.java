@@ -48,6 +48,7 @@ import org.mockito.Mockito;
 import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.repo.model.EntityType;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.IdAndEtag;
 import org.sagebionetworks.repo.model.dao.table.TableType;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableModelTestUtils;
@@ -98,6 +99,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 
@@ -475,6 +477,19 @@ public class TableIndexDAOImplTest {
 		assertEquals(4L, maxVersion.longValue());
 	}
 	
+	@Test
+	public void testGetTableIndexIds(){
+		tableIndexDAO.createSecondaryTables(tableId);
+		// call under test
+		List<IdAndVersion> tableIds = tableIndexDAO.getTableIndexIds();
+		assertTrue(tableIds.contains(tableId));
+		
+		tableIndexDAO.deleteTable(tableId);
+		// call under test
+		tableIds = tableIndexDAO.getTableIndexIds();
+		assertFalse(tableIds.contains(tableId));
+	}
+	
 	@Test
 	public void testGetSchemaHashForTableWithTableDoesNotExist(){
 		tableIndexDAO.deleteTable(tableId);
@@ -1243,6 +1258,75 @@ public class TableIndexDAOImplTest {
 		assertEquals(expected, result);
 	}
 		
+	@Test
+	public void testGetTableDataPageAfterRowId() {
+		List<ColumnModel> columns = Arrays.asList(
+			TableModelTestUtils.createColumn(1L, "one", ColumnType.STRING),
+			TableModelTestUtils.createColumn(2L, "two", ColumnType.STRING_LIST)
+		);
+		
+		createOrUpdateTable(columns, indexDescription);
+		
+		List<Row> rows = generateAndAppendRows(tableId, columns, 100);
+		
+		List<TableRowData> expected = rows.stream().map(row -> {
+			List<TypedCellValue> rowData = new ArrayList<>();
+			for (int i=0; i<columns.size(); i++) {
+				rowData.add(new TypedCellValue(columns.get(i).getColumnType(), row.getValues().get(i)));
+			}
+			return new TableRowData(row.getRowId(), rowData);
+		}).collect(Collectors.toList());
+		
+		long limit = 30;
+		
+		List<TableRowData> result = new ArrayList<>();
+		Long afterRowId = null;
+		List<TableRowData> page;
+		
+		do {
+			// Call under test
+			page = tableIndexDAO.getTableDataPageAfterRowId(tableId, columns, afterRowId, limit);
+			result.addAll(page);
+			afterRowId = page.isEmpty() ? null : page.get(page.size() - 1).getRowId();
+		} while (page.size() == limit);
+		
+		assertEquals(expected, result);
+	}
+	
+	@Test
+	public void testGetSearchContentHashes() {
+		List<ColumnModel> columns = Arrays.asList(
+			TableModelTestUtils.createColumn(1L, "one", ColumnType.STRING),
+			TableModelTestUtils.createColumn(2L, "two", ColumnType.STRING_LIST)
+		);
+		
+		createOrUpdateTable(columns, indexDescription);
+		
+		List<Row> rows = generateAndAppendRows(tableId, columns, 2);
+		
+		Long firstRowId = rows.get(0).getRowId();
+		Long secondRowId = rows.get(1).getRowId();
+		
+		tableIndexDAO.updateSearchIndex(tableId, Arrays.asList(new RowSearchContent(firstRowId, "search content")));
+		
+		Map<Long, String> expected = new HashMap<>();
+		expected.put(firstRowId, DigestUtils.md5Hex("search content"));
+		expected.put(secondRowId, null);
+		
+		// Call under test
+		Map<Long, String> result = tableIndexDAO.getSearchContentHashes(tableId, ImmutableSet.of(firstRowId, secondRowId));
+		
+		assertEquals(expected, result);
+	}
+	
+	@Test
+	public void testGetSearchContentHashesWithNoRows() {
+		// Call under test
+		Map<Long, String> result = tableIndexDAO.getSearchContentHashes(tableId, Collections.emptySet());
+		
+		assertTrue(result.isEmpty());
+	}
+	
 	@Test
 	public void testUpdateSearchIndex() {
 		List<ColumnModel> columns = Arrays.asList(
@@ -3423,6 +3507,92 @@ public class TableIndexDAOImplTest {
 		assertEquals((Long) (file1Size + file2Size), result.get(1).getSizeInBytes());
 	}
 	
+	@Test
+	public void testProjectStorageLedgerWithReplicationChanges() {
+		ObjectDataDTO project1 = createObjectDataDTO(1L, EntityType.project, 0);
+		ObjectDataDTO project2 = createObjectDataDTO(2L, EntityType.project, 0);
+		ObjectDataDTO file1 = createObjectDataDTO(3L, EntityType.file, 0);
+		ObjectDataDTO file2 = createObjectDataDTO(4L, EntityType.file, 0);
+		
+		file1.setIsInSynapseStorage(true);
+		file1.setFileSizeBytes(100L);
+		file1.setProjectId(1L);
+		file2.setIsInSynapseStorage(true);
+		file2.setFileSizeBytes(50L);
+		file2.setProjectId(1L);
+		
+		// Create
+		tableIndexDAO.addObjectData(mainType, Lists.newArrayList(project1, project2, file1, file2));
+		
+		assertEquals(ImmutableMap.of("1", 150L), getProjectSizes());
+		
+		// Update, the object is replaced without being deleted first
+		file1.setFileSizeBytes(300L);
+		tableIndexDAO.addObjectData(mainType, Lists.newArrayList(file1));
+		
+		assertEquals(ImmutableMap.of("1", 350L), getProjectSizes());
+		
+		// Move
+		file2.setProjectId(2L);
+		tableIndexDAO.deleteObjectData(mainType, Lists.newArrayList(file2.getId()));
+		tableIndexDAO.addObjectData(mainType, Lists.newArrayList(file2));
+		
+		assertEquals(ImmutableMap.of("1", 300L, "2", 50L), getProjectSizes());
+		
+		// Delete
+		tableIndexDAO.deleteObjectData(mainType, Lists.newArrayList(file1.getId()));
+		
+		assertEquals(ImmutableMap.of("2", 50L), getProjectSizes());
+		
+		// The ledger matches a full scan
+		assertEquals(Collections.emptyList(), tableIndexDAO.reconcileProjectStorageLedger(mainType));
+	}
+	
+	@Test
+	public void testReconcileProjectStorageLedger() {
+		ObjectDataDTO project1 = createObjectDataDTO(1L, EntityType.project, 0);
+		ObjectDataDTO file1 = createObjectDataDTO(3L, EntityType.file, 0);
+		ObjectDataDTO file2 = createObjectDataDTO(4L, EntityType.file, 0);
+		
+		file1.setIsInSynapseStorage(true);
+		file1.setFileSizeBytes(100L);
+		file1.setProjectId(1L);
+		file2.setIsInSynapseStorage(true);
+		file2.setFileSizeBytes(50L);
+		file2.setProjectId(1L);
+		
+		tableIndexDAO.addObjectData(mainType, Lists.newArrayList(project1, file1, file2));
+		
+		// Simulate a ledger that drifted from the replication
+		tableIndexDAO.update("UPDATE PROJECT_STORAGE_LEDGER SET SIZE_IN_BYTES = 1, FILE_COUNT = 5", Collections.emptyMap());
+		
+		// Call under test
+		List<ProjectStorageDelta> result = tableIndexDAO.reconcileProjectStorageLedger(mainType);
+		
+		assertEquals(Lists.newArrayList(new ProjectStorageDelta(1L, 149L, -3L)), result);
+		assertEquals(ImmutableMap.of("1", 150L), getProjectSizes());
+		
+		// A missing ledger is rebuilt
+		tableIndexDAO.update("DELETE FROM PROJECT_STORAGE_LEDGER", Collections.emptyMap());
+		
+		// Call under test
+		result = tableIndexDAO.reconcileProjectStorageLedger(mainType);
+		
+		assertEquals(Lists.newArrayList(new ProjectStorageDelta(1L, 150L, 2L)), result);
+		assertEquals(ImmutableMap.of("1", 150L), getProjectSizes());
+		
+		// Call under test
+		result = tableIndexDAO.reconcileProjectStorageLedger(mainType);
+		
+		assertEquals(Collections.emptyList(), result);
+	}
+	
+	private Map<String, Long> getProjectSizes() {
+		Map<String, Long> sizes = new LinkedHashMap<>();
+		tableIndexDAO.streamSynapseStorageStats(mainType, stats -> sizes.put(stats.getId(), stats.getSizeInBytes()));
+		return sizes;
+	}
+	
 	@Test
 	public void testPLFM_5445() throws UnsupportedEncodingException, DecoderException {
 		List<ColumnModel> schema = Lists.newArrayList(TableModelTestUtils
@@ -4527,6 +4697,43 @@ public class TableIndexDAOImplTest {
 		assertEquals(2, page.stream().filter(i->i.getChecksum() != null).count());
 	}
 	
+	@Test
+	public void testGetIdAndChecksumsForFilterInRangeAndIdRangeChecksums() {
+		Long objectIdOne = 22L;
+		Long objectIdTwo = 33L;
+		Long objectIdThree = 44L;
+		// delete all data
+		tableIndexDAO.deleteObjectData(mainType, Lists.newArrayList(objectIdOne, objectIdTwo, objectIdThree));
+		
+		int annotationCoun = 1;
+		int versionCount = 2;
+		tableIndexDAO.addObjectData(mainType, createMultipleVersions(objectIdOne, EntityType.file, annotationCoun, versionCount));
+		tableIndexDAO.addObjectData(mainType, createMultipleVersions(objectIdTwo, EntityType.file, annotationCoun, versionCount));
+		tableIndexDAO.addObjectData(mainType, createMultipleVersions(objectIdThree, EntityType.file, annotationCoun, versionCount));
+		
+		ViewFilter filter = new HierarchicaFilter(ReplicationType.ENTITY, Set.of(SubType.file), Set.of(1L));
+		Long salt = 123L;
+		List<IdAndChecksum> all = tableIndexDAO.getIdAndChecksumsForFilter(salt, filter, 10L, 0L);
+		
+		// call under test
+		List<IdAndChecksum> page = tableIndexDAO.getIdAndChecksumsForFilter(salt, filter, 30L, 50L, 10L, 0L);
+		assertEquals(all.subList(1, 3), page);
+		
+		// call under test
+		List<IdRangeChecksum> buckets = tableIndexDAO.getIdRangeChecksumsForFilter(salt, filter, 0L, Long.MAX_VALUE, Long.MAX_VALUE);
+		IdRangeChecksum expected = new IdRangeChecksum().withBucket(0L).withMinId(objectIdOne).withMaxId(objectIdThree).withCount(3L)
+				.withChecksum(all.stream().mapToLong(IdAndChecksum::getChecksum).sum());
+		assertEquals(Collections.singletonList(expected), buckets);
+		
+		// call under test
+		buckets = tableIndexDAO.getIdRangeChecksumsForFilter(salt, filter, 20L, 49L, 10L);
+		assertEquals(Arrays.asList(
+				new IdRangeChecksum().withBucket(0L).withMinId(objectIdOne).withMaxId(objectIdOne).withCount(1L).withChecksum(all.get(0).getChecksum()),
+				new IdRangeChecksum().withBucket(1L).withMinId(objectIdTwo).withMaxId(objectIdTwo).withCount(1L).withChecksum(all.get(1).getChecksum()),
+				new IdRangeChecksum().withBucket(2L).withMinId(objectIdThree).withMaxId(objectIdThree).withCount(1L).withChecksum(all.get(2).getChecksum())
+		), buckets);
+	}
+	
 	@Test
 	public void testGetIdAndChecksumsForFilterWithHierarchyFilter() {
 		tableId = IdAndVersion.parse("syn123");
@@ -1,16 +1,21 @@
 package org.sagebionetworks.table.cluster.search;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.json.JSONException;
 import org.sagebionetworks.repo.model.table.ColumnType;
 
 @ExtendWith(MockitoExtension.class)
@@ -179,5 +184,277 @@ public class TableRowSearchProcessorImplTest {
 		
 		assertEquals("rowData is required.", ex.getMessage());
 	}
+	
+	@Test
+	public void testProcessWithDuplicateValues() {
+		
+		List<TypedCellValue> data = Arrays.asList(
+			new TypedCellValue(ColumnType.STRING, "a"),
+			new TypedCellValue(ColumnType.STRING_LIST, "[\"a\", \"b\", \"a\"]"),
+			new TypedCellValue(ColumnType.ENTITYID, "syn1"),
+			new TypedCellValue(ColumnType.ENTITYID_LIST, "[\"1\", \"syn2\"]")
+		);
+		
+		// Call under test
+		String result = processor.process(new TableRowData(1L, data), true);
+		
+		assertEquals("1 syn1 a b 2 syn2", result);
+	}
+	
+	@Test
+	public void testProcessWithEntityIdListOfNumbers() {
+		
+		List<TypedCellValue> data = Arrays.asList(
+			new TypedCellValue(ColumnType.ENTITYID_LIST, "[123, 456]")
+		);
+		
+		// Call under test
+		String result = processor.process(new TableRowData(1L, data), false);
+		
+		assertEquals("123 syn123 456 syn456", result);
+	}
+	
+	@Test
+	public void testProcessWithEntityIdUpperCasePrefix() {
+		
+		List<TypedCellValue> data = Arrays.asList(
+			new TypedCellValue(ColumnType.ENTITYID, " SYN123 ")
+		);
+		
+		// Call under test
+		String result = processor.process(new TableRowData(1L, data), false);
+		
+		assertEquals("123 syn123", result);
+	}
+	
+	@Test
+	public void testProcessWithInvalidEntityId() {
+		
+		List<TypedCellValue> data = Arrays.asList(
+			new TypedCellValue(ColumnType.ENTITYID, "synABC")
+		);
+		
+		assertThrows(IllegalArgumentException.class, () -> {			
+			// Call under test
+			processor.process(new TableRowData(1L, data), false);
+		});
+	}
+	
+	@Test
+	public void testProcessWithEscapedMultiValues() {
+		
+		List<TypedCellValue> data = Arrays.asList(
+			new TypedCellValue(ColumnType.STRING_LIST, "[\"a\\\"b\", \"c\\u0041\", \"d\\/e\"]")
+		);
+		
+		// Call under test
+		String result = processor.process(new TableRowData(1L, data), false);
+		
+		assertEquals("a\"b cA d/e", result);
+	}
+	
+	@Test
+	public void testProcessWithNonStringMultiValues() {
+		
+		List<TypedCellValue> data = Arrays.asList(
+			new TypedCellValue(ColumnType.STRING_LIST, "[true, \"a\", false]")
+		);
+		
+		// Call under test
+		String result = processor.process(new TableRowData(1L, data), false);
+		
+		assertEquals("true a false", result);
+	}
+	
+	@Test
+	public void testProcessWithInvalidMultiValues() {
+		
+		List<TypedCellValue> data = Arrays.asList(
+			new TypedCellValue(ColumnType.STRING_LIST, "[\"a\"")
+		);
+		
+		assertThrows(JSONException.class, () -> {			
+			// Call under test
+			processor.process(new TableRowData(1L, data), false);
+		});
+	}
+	
+	@Test
+	public void testProcessRows() {
+		
+		List<TableRowData> rows = Arrays.asList(
+			new TableRowData(1L, Arrays.asList(
+				new TypedCellValue(ColumnType.STRING, "value"),
+				new TypedCellValue(ColumnType.STRING_LIST, "[\"a\", \"b\"]"),
+				new TypedCellValue(ColumnType.ENTITYID, "syn3")
+			)),
+			new TableRowData(2L, Arrays.asList(
+				new TypedCellValue(ColumnType.STRING, null),
+				new TypedCellValue(ColumnType.STRING_LIST, "[\"b\", \"c\"]")
+			)),
+			new TableRowData(3L, Collections.emptyList())
+		);
+		
+		List<RowSearchContent> expected = Arrays.asList(
+			new RowSearchContent(1L, "1 syn1 value a b 3 syn3"),
+			new RowSearchContent(2L, "2 syn2 b c"),
+			new RowSearchContent(3L, "3 syn3")
+		);
+		
+		// Call under test
+		List<RowSearchContent> result = processor.processRows(rows, true);
+		
+		assertEquals(expected, result);
+	}
+	
+	@Test
+	public void testProcessRowsMatchesProcess() {
+		
+		List<TableRowData> rows = Arrays.asList(
+			new TableRowData(1L, Arrays.asList(
+				new TypedCellValue(ColumnType.STRING, "value"),
+				new TypedCellValue(ColumnType.ENTITYID_LIST, "[\"syn1\", \"syn2\"]")
+			)),
+			new TableRowData(2L, Arrays.asList(
+				new TypedCellValue(ColumnType.STRING, "value"),
+				new TypedCellValue(ColumnType.ENTITYID_LIST, "[]")
+			))
+		);
+		
+		// Call under test
+		List<RowSearchContent> result = processor.processRows(rows, false);
+		
+		for (int i = 0; i < rows.size(); i++) {
+			assertEquals(processor.process(rows.get(i), false), result.get(i).getSearchContent());
+		}
+	}
+	
+	@Test
+	public void testProcessRowsWithReusedBuilders() {
+		
+		List<TableRowData> rows = Arrays.asList(
+			new TableRowData(1L, Arrays.asList(new TypedCellValue(ColumnType.STRING, "value")))
+		);
+		
+		processor.processRows(rows, false);
+		
+		// Call under test, the values of the previous batch do not leak in the next one
+		List<RowSearchContent> result = processor.processRows(rows, false);
+		
+		assertEquals(Arrays.asList(new RowSearchContent(1L, "value")), result);
+	}
+	
+	@Test
+	public void testProcessRowsWithLargeRow() {
+		
+		String largeValue = String.join("", Collections.nCopies(TableRowSearchProcessorImpl.MAX_POOLED_BUILDER_CAPACITY + 1, "a"));
+		
+		processor.processRows(Arrays.asList(new TableRowData(1L, Arrays.asList(new TypedCellValue(ColumnType.LARGETEXT, largeValue)))), false);
+		
+		// Call under test
+		List<RowSearchContent> result = processor.processRows(Arrays.asList(new TableRowData(2L, Arrays.asList(new TypedCellValue(ColumnType.STRING, "value")))), false);
+		
+		assertEquals(Arrays.asList(new RowSearchContent(2L, "value")), result);
+	}
+	
+	@Test
+	public void testProcessRowsWithManyTokens() {
+		
+		List<String> tokens = new ArrayList<>();
+		
+		for (int i = 0; i <= TableRowSearchProcessorImpl.MAX_POOLED_BUILDER_TOKENS; i++) {
+			tokens.add("\"" + i + "\"");
+		}
+		
+		String listValue = "[" + String.join(",", tokens) + "]";
+		
+		processor.processRows(Arrays.asList(new TableRowData(1L, Arrays.asList(new TypedCellValue(ColumnType.STRING_LIST, listValue)))), false);
+		
+		// Call under test
+		List<RowSearchContent> result = processor.processRows(Arrays.asList(new TableRowData(2L, Arrays.asList(new TypedCellValue(ColumnType.STRING, "0")))), false);
+		
+		assertEquals(Arrays.asList(new RowSearchContent(2L, "0")), result);
+	}
+	
+	@Test
+	public void testProcessRowsWithLargeBatch() {
+		
+		List<TableRowData> rows = new ArrayList<>();
+		List<RowSearchContent> expected = new ArrayList<>();
+		
+		for (long rowId = 0; rowId < TableRowSearchProcessorImpl.MAX_POOLED_BUILDERS * 2; rowId++) {
+			rows.add(new TableRowData(rowId, Arrays.asList(new TypedCellValue(ColumnType.STRING, "value" + rowId))));
+			expected.add(new RowSearchContent(rowId, "value" + rowId));
+		}
+		
+		// Call under test
+		List<RowSearchContent> result = processor.processRows(rows, false);
+		
+		assertEquals(expected, result);
+		// The builders of the rows over the limit are not kept
+		assertEquals(TableRowSearchProcessorImpl.MAX_POOLED_BUILDERS, TableRowSearchProcessorImpl.getPooledBuilderCount());
+	}
+	
+	@Test
+	public void testProcessRowsWithEmptyRows() {
+		// Call under test
+		List<RowSearchContent> result = processor.processRows(Collections.emptyList(), true);
+		
+		assertEquals(Collections.emptyList(), result);
+	}
+	
+	@Test
+	public void testProcessRowsWithNullRows() {
+		
+		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			processor.processRows(null, false);
+		});
+		
+		assertEquals("rows is required.", ex.getMessage());
+	}
+	
+	@Test
+	public void testTokenizeListValue() {
+		List<String> values = new ArrayList<>();
+		
+		// Call under test
+		assertTrue(TableRowSearchProcessorImpl.tokenizeListValue(" [ \"a\" , 1 , null, -20, \"\" ] ", values));
+		
+		assertEquals(Arrays.asList("a", "1", "-20", ""), values);
+	}
+	
+	@Test
+	public void testTokenizeListValueWithEmptyArray() {
+		List<String> values = new ArrayList<>();
+		
+		// Call under test
+		assertTrue(TableRowSearchProcessorImpl.tokenizeListValue(" [ ] ", values));
+		
+		assertEquals(Collections.emptyList(), values);
+	}
+	
+	@Test
+	public void testTokenizeListValueWithUnsupportedValues() {
+		List<String> unsupported = Arrays.asList(
+			"[1.5]", "[true]", "[-0]", "[007]", "[\"a\",]", "[\"a\"] x", "{\"a\": 1}", "[\"a\nb\"]", "[\"a\\x\"]",
+			"[\"\\u00G1\"]", "[[\"a\"]]", "[\"a\"", "[", "", "[1234567890123456789]"
+		);
+		
+		for (String json : unsupported) {
+			// Call under test
+			assertFalse(TableRowSearchProcessorImpl.tokenizeListValue(json, new ArrayList<>()), json);
+		}
+	}
+	
+	@Test
+	public void testParseEntityId() {
+		assertEquals(123L, TableRowSearchProcessorImpl.parseEntityId("syn123"));
+		assertEquals(123L, TableRowSearchProcessorImpl.parseEntityId("SyN123"));
+		assertEquals(123L, TableRowSearchProcessorImpl.parseEntityId("123"));
+		// Falls back to the KeyFactory
+		assertEquals(123L, TableRowSearchProcessorImpl.parseEntityId("+123"));
+		assertThrows(IllegalArgumentException.class, () -> TableRowSearchProcessorImpl.parseEntityId("syn"));
+	}
 
 }
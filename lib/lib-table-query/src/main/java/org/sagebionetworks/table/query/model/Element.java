@@ -113,5 +113,15 @@ public interface Element {
 	 * Recursively clear the parent element for all elements in this tree.
 	 */
 	void recursiveClearParent();
+	
+	/**
+	 * Create a deep copy of this element. The copy does not share any element
+	 * with this tree, the parent hierarchy of the copy mirrors this tree and the
+	 * copy itself has no parent. This is a much cheaper alternative to parsing
+	 * the SQL of this element.
+	 * 
+	 * @return
+	 */
+	Element deepCopy();
 
 }
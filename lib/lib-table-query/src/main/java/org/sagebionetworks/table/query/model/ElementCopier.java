@@ -0,0 +1,100 @@
+package org.sagebionetworks.table.query.model;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structural deep copy of a tree of {@link SQLElement}s.
+ * <p>
+ * Each element is first shallow copied and then each field that references an
+ * element (or a list of elements) is replaced with a copy of the referenced
+ * element. All other field values (Strings, boxed primitives and enums) are
+ * immutable and are shared with the original. Elements that are referenced
+ * more than once in the original tree are copied exactly once, and the parent
+ * of each copy is the copy of the original parent.
+ *
+ */
+class ElementCopier {
+
+	/**
+	 * The instance fields (excluding the parent) of each element class, computed
+	 * once per class.
+	 */
+	private static final ClassValue<List<Field>> COPY_FIELDS = new ClassValue<List<Field>>() {
+		@Override
+		protected List<Field> computeValue(Class<?> type) {
+			List<Field> fields = new ArrayList<>();
+			for (Class<?> current = type; !Object.class.equals(current); current = current.getSuperclass()) {
+				for (Field field : current.getDeclaredFields()) {
+					if (Modifier.isStatic(field.getModifiers()) || isParentField(field)) {
+						continue;
+					}
+					field.setAccessible(true);
+					fields.add(field);
+				}
+			}
+			return fields;
+		}
+	};
+
+	private final Map<Element, Element> copies = new IdentityHashMap<>();
+
+	/**
+	 * Create a deep copy of the given tree. The root of the copy has no parent.
+	 * 
+	 * @param <T>
+	 * @param root
+	 * @return
+	 */
+	static <T extends SQLElement> T deepCopy(T root) {
+		return new ElementCopier().copyElement(root);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T extends Element> T copyElement(T original) {
+		Element existing = copies.get(original);
+		if (existing != null) {
+			return (T) existing;
+		}
+		if (!(original instanceof SQLElement)) {
+			throw new IllegalArgumentException("Cannot copy element of type: " + original.getClass().getName());
+		}
+		SQLElement copy = ((SQLElement) original).shallowCopy();
+		copies.put(original, copy);
+		// Parents are always copied before their children, a parent outside of the copied tree is dropped
+		copy.setParent(original.getParent() == null ? null : copies.get(original.getParent()));
+		for (Field field : COPY_FIELDS.get(original.getClass())) {
+			try {
+				Object value = field.get(original);
+				if (value instanceof Element || value instanceof List) {
+					field.set(copy, copyValue(value));
+				}
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		return (T) copy;
+	}
+
+	private Object copyValue(Object value) {
+		if (value instanceof Element) {
+			return copyElement((Element) value);
+		}
+		List<?> originalList = (List<?>) value;
+		List<Object> listCopy = value instanceof LinkedList ? new LinkedList<>() : new ArrayList<>(originalList.size());
+		for (Object item : originalList) {
+			listCopy.add(item instanceof Element ? copyElement((Element) item) : item);
+		}
+		return listCopy;
+	}
+
+	private static boolean isParentField(Field field) {
+		return SQLElement.class.equals(field.getDeclaringClass()) && "parent".equals(field.getName());
+	}
+
+}
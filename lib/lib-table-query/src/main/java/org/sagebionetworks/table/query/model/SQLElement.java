@@ -12,7 +12,7 @@ import java.util.stream.StreamSupport;
  * An element that be serialized to SQL.
  *
  */
-public abstract class SQLElement implements Element {
+public abstract class SQLElement implements Element, Cloneable {
 	
 	Element parent;
 			
@@ -208,6 +208,24 @@ public abstract class SQLElement implements Element {
 		}
 	}
 	
+	@Override
+	public SQLElement deepCopy() {
+		return ElementCopier.deepCopy(this);
+	}
+	
+	/**
+	 * Shallow copy of this element, used by {@link ElementCopier}.
+	 * 
+	 * @return
+	 */
+	final SQLElement shallowCopy() {
+		try {
+			return (SQLElement) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
 	@Override
 	public final Element getParent() {
 		return this.parent;
@@ -0,0 +1,95 @@
+package org.sagebionetworks.table.query.util;
+
+import org.sagebionetworks.table.query.ParseException;
+import org.sagebionetworks.table.query.TableQueryParser;
+import org.sagebionetworks.table.query.model.ColumnReference;
+import org.sagebionetworks.table.query.model.Element;
+import org.sagebionetworks.table.query.model.QueryExpression;
+import org.sagebionetworks.table.query.model.QuerySpecification;
+import org.sagebionetworks.util.ValidateArgument;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A bounded cache of parsed SQL elements keyed by the SQL text. The parsed
+ * elements are never handed out, each call returns a deep copy of the cached
+ * element that the caller is free to modify. Copying a tree is much cheaper
+ * than parsing the same SQL again.
+ *
+ * @param <T>
+ */
+public class ParsedElementCache<T extends Element> {
+
+	/**
+	 * Shared cache of parsed {@link QueryExpression}s.
+	 */
+	public static final ParsedElementCache<QueryExpression> QUERY_EXPRESSIONS = new ParsedElementCache<>(500,
+			TableQueryParser::queryExpression);
+
+	/**
+	 * Shared cache of parsed {@link QuerySpecification}s.
+	 */
+	public static final ParsedElementCache<QuerySpecification> QUERY_SPECIFICATIONS = new ParsedElementCache<>(500,
+			TableQueryParser::querySpecification);
+
+	/**
+	 * Shared cache of parsed {@link ColumnReference}s.
+	 */
+	public static final ParsedElementCache<ColumnReference> COLUMN_REFERENCES = new ParsedElementCache<>(10_000,
+			TableQueryParser::columnReference);
+
+	/**
+	 * Abstraction for the parser production that creates an element.
+	 *
+	 * @param <T>
+	 */
+	@FunctionalInterface
+	public interface Production<T extends Element> {
+
+		T parse(TableQueryParser parser) throws ParseException;
+	}
+
+	private final Cache<String, T> cache;
+	private final Production<T> production;
+
+	public ParsedElementCache(long maximumSize, Production<T> production) {
+		ValidateArgument.required(production, "production");
+		this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+		this.production = production;
+	}
+
+	/**
+	 * Parse the given SQL, the SQL is only parsed if it is not already in the
+	 * cache.
+	 * 
+	 * @param sql
+	 * @return A copy of the parsed element that is not shared with any other
+	 *         caller.
+	 * @throws ParseException
+	 */
+	@SuppressWarnings("unchecked")
+	public T parse(String sql) throws ParseException {
+		ValidateArgument.required(sql, "sql");
+		T parsed = cache.getIfPresent(sql);
+		if (parsed == null) {
+			parsed = production.parse(new TableQueryParser(sql));
+			cache.put(sql, parsed);
+		}
+		return (T) parsed.deepCopy();
+	}
+
+	/**
+	 * @return The number of elements currently in the cache.
+	 */
+	public long size() {
+		return cache.size();
+	}
+
+	/**
+	 * Remove all elements from the cache.
+	 */
+	public void clear() {
+		cache.invalidateAll();
+	}
+}
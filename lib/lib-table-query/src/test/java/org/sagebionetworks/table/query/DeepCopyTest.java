@@ -0,0 +1,124 @@
+package org.sagebionetworks.table.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.sagebionetworks.table.query.model.ColumnReference;
+import org.sagebionetworks.table.query.model.Element;
+import org.sagebionetworks.table.query.model.QueryExpression;
+import org.sagebionetworks.table.query.model.QuerySpecification;
+import org.sagebionetworks.table.query.model.SQLElement;
+import org.sagebionetworks.table.query.model.SqlContext;
+import org.sagebionetworks.table.query.model.TableExpression;
+import org.sagebionetworks.table.query.model.WhereClause;
+
+public class DeepCopyTest {
+
+	@Test
+	public void testDeepCopyAllExamples() throws ParseException {
+		for (SQLExample example : SQLExampleProvider.getSQLExamples()) {
+			QuerySpecification original = TableQueryParser.parserQuery(example.getSql());
+			// call under test
+			SQLElement copy = original.deepCopy();
+			assertCopy(original, copy);
+		}
+	}
+
+	@Test
+	public void testDeepCopyWithUnionAndCte() throws ParseException {
+		QueryExpression original = new TableQueryParser(
+				"with cte as (select * from syn1), cte2(a,b,c) as (select * from syn2) select * from cte union select * from cte2")
+				.queryExpression();
+		// call under test
+		SQLElement copy = original.deepCopy();
+		assertCopy(original, copy);
+	}
+
+	@Test
+	public void testDeepCopyWithParents() throws ParseException {
+		QuerySpecification original = new TableQueryParser("select a, count(*) from syn123 where b = 'c' group by a")
+				.querySpecification();
+		original.recursiveSetParent();
+		// call under test
+		QuerySpecification copy = (QuerySpecification) original.deepCopy();
+
+		assertNull(copy.getParent());
+		Set<Element> copyElements = identitySet(copy);
+		for (Element element : copy.createAllElementsIterable()) {
+			if (element != copy) {
+				assertTrue(copyElements.contains(element.getParent()));
+			}
+		}
+		ColumnReference copyReference = copy.getFirstElementOfType(WhereClause.class)
+				.getFirstElementOfType(ColumnReference.class);
+		assertSame(copy, copyReference.getContext(QuerySpecification.class).get());
+	}
+
+	@Test
+	public void testDeepCopyOfSubTreeWithParent() throws ParseException {
+		QuerySpecification original = new TableQueryParser("select * from syn123 where b = 'c'").querySpecification();
+		original.recursiveSetParent();
+		TableExpression tableExpression = original.getTableExpression();
+		// call under test
+		TableExpression copy = (TableExpression) tableExpression.deepCopy();
+
+		assertNull(copy.getParent());
+		assertCopy(tableExpression, copy);
+	}
+
+	@Test
+	public void testDeepCopyIsIndependent() throws ParseException {
+		QueryExpression original = new TableQueryParser("select * from syn123 where b = 'c' order by b limit 10")
+				.queryExpression();
+		QueryExpression copy = (QueryExpression) original.deepCopy();
+		// call under test
+		TableExpression copyTableExpression = copy.getFirstElementOfType(TableExpression.class);
+		copyTableExpression.replaceOrderBy(null);
+		copyTableExpression.replacePagination(null);
+		copy.setSqlContext(SqlContext.build);
+
+		assertEquals("SELECT * FROM syn123 WHERE b = 'c' ORDER BY b LIMIT 10", original.toSql());
+		assertEquals("SELECT * FROM syn123 WHERE b = 'c'", copy.toSql());
+		assertEquals(SqlContext.query, original.getSqlContext());
+	}
+
+	/**
+	 * The copy must have the same structure as the original without sharing any
+	 * element.
+	 * 
+	 * @param original
+	 * @param copy
+	 */
+	static void assertCopy(SQLElement original, SQLElement copy) {
+		assertNotSame(original, copy);
+		assertEquals(original.toSql(), copy.toSql());
+		assertEquals(elementTypes(original), elementTypes(copy));
+		Set<Element> originalElements = identitySet(original);
+		for (Element element : copy.createAllElementsIterable()) {
+			assertFalse(originalElements.contains(element), "Element is shared with the original: " + element);
+		}
+	}
+
+	static List<Class<?>> elementTypes(SQLElement root) {
+		List<Class<?>> types = new ArrayList<>();
+		root.createAllElementsIterable().forEach(e -> types.add(e.getClass()));
+		return types;
+	}
+
+	static Set<Element> identitySet(SQLElement root) {
+		Set<Element> set = Collections.newSetFromMap(new IdentityHashMap<>());
+		root.createAllElementsIterable().forEach(set::add);
+		return set;
+	}
+}
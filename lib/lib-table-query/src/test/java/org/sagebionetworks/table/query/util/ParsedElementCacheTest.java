@@ -0,0 +1,100 @@
+package org.sagebionetworks.table.query.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sagebionetworks.table.query.ParseException;
+import org.sagebionetworks.table.query.TableQueryParser;
+import org.sagebionetworks.table.query.model.QueryExpression;
+import org.sagebionetworks.table.query.model.TableExpression;
+
+public class ParsedElementCacheTest {
+
+	private ParsedElementCache<QueryExpression> cache;
+
+	private int parseCount;
+
+	@BeforeEach
+	public void before() {
+		parseCount = 0;
+		cache = new ParsedElementCache<>(2, (TableQueryParser parser) -> {
+			parseCount++;
+			return parser.queryExpression();
+		});
+	}
+
+	@Test
+	public void testParse() throws ParseException {
+		// call under test
+		QueryExpression first = cache.parse("select * from syn123 where a > 1");
+		QueryExpression second = cache.parse("select * from syn123 where a > 1");
+
+		assertEquals("SELECT * FROM syn123 WHERE a > 1", first.toSql());
+		assertEquals("SELECT * FROM syn123 WHERE a > 1", second.toSql());
+		assertNotSame(first, second);
+		assertEquals(1, parseCount);
+		assertEquals(1L, cache.size());
+	}
+
+	@Test
+	public void testParseWithModifiedResult() throws ParseException {
+		QueryExpression first = cache.parse("select * from syn123 order by a");
+		first.getFirstElementOfType(TableExpression.class).replaceOrderBy(null);
+
+		// call under test
+		QueryExpression second = cache.parse("select * from syn123 order by a");
+
+		assertEquals("SELECT * FROM syn123", first.toSql());
+		assertEquals("SELECT * FROM syn123 ORDER BY a", second.toSql());
+	}
+
+	@Test
+	public void testParseWithMaximumSize() throws ParseException {
+		cache.parse("select * from syn1");
+		cache.parse("select * from syn2");
+		cache.parse("select * from syn3");
+
+		assertEquals(3, parseCount);
+		assertEquals(2L, cache.size());
+	}
+
+	@Test
+	public void testParseWithParseException() {
+		assertThrows(ParseException.class, () -> {
+			// call under test
+			cache.parse("select from");
+		});
+		assertEquals(0L, cache.size());
+	}
+
+	@Test
+	public void testParseWithNullSql() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			cache.parse(null);
+		}).getMessage();
+		assertEquals("sql is required.", message);
+	}
+
+	@Test
+	public void testClear() throws ParseException {
+		cache.parse("select * from syn1");
+		// call under test
+		cache.clear();
+		assertEquals(0L, cache.size());
+		cache.parse("select * from syn1");
+		assertEquals(2, parseCount);
+	}
+
+	@Test
+	public void testSharedCaches() throws ParseException {
+		assertEquals("SELECT * FROM syn123 UNION SELECT * FROM syn456",
+				ParsedElementCache.QUERY_EXPRESSIONS.parse("select * from syn123 union select * from syn456").toSql());
+		assertEquals("SELECT * FROM syn123",
+				ParsedElementCache.QUERY_SPECIFICATIONS.parse("select * from syn123").toSql());
+		assertEquals("_A0._C123_", ParsedElementCache.COLUMN_REFERENCES.parse("_A0._C123_").toSql());
+	}
+}
@@ -2,6 +2,7 @@ package org.sagebionetworks.asynchronous.workers.concurrent;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -146,20 +147,29 @@ public class ConcurrentManagerImpl implements ConcurrentManager {
 		Future<Void> future = executorService.submit(() -> {
 			boolean deleteMessage = true;
 			try {
-				worker.run(callback, message);
+				if (worker instanceof DeferredAckMessageDrivenRunner) {
+					CompletableFuture<Void> durable = ((DeferredAckMessageDrivenRunner) worker).runDeferred(callback, message);
+					// The message is deleted once its work is durable, or left to be delivered again. The
+					// future might be completed while its producer holds a lock, so the message is not deleted inline.
+					deleteMessage = false;
+					durable.whenCompleteAsync((result, e) -> {
+						if (e == null) {
+							deleteMessage(queueUrl, message);
+						} else {
+							log.warn("The work of the message failed to complete, the message will be delivered again", e);
+						}
+					}, executorService);
+				} else {
+					worker.run(callback, message);
+				}
 			} catch (RecoverableMessageException e) {
 				deleteMessage = false;
 				amazonSQSClient.changeMessageVisibility(new ChangeMessageVisibilityRequest().withQueueUrl(queueUrl)
 						.withReceiptHandle(message.getReceiptHandle()).withVisibilityTimeout(TWO_SECONDS));
 			} finally {
-				try {
-					callback.removeProgressListener(listener);
-					if (deleteMessage && !isShutdown) {
-						amazonSQSClient.deleteMessage(new DeleteMessageRequest().withQueueUrl(queueUrl)
-								.withReceiptHandle(message.getReceiptHandle()));
-					}
-				} catch (Exception e) {
-					log.warn("failed to delete message", e);
+				callback.removeProgressListener(listener);
+				if (deleteMessage) {
+					deleteMessage(queueUrl, message);
 				}
 			}
 			return null;
@@ -167,6 +177,17 @@ public class ConcurrentManagerImpl implements ConcurrentManager {
 		return new WorkerJob(future, callback);
 	}
 
+	void deleteMessage(String queueUrl, Message message) {
+		try {
+			if (!isShutdown) {
+				amazonSQSClient.deleteMessage(
+						new DeleteMessageRequest().withQueueUrl(queueUrl).withReceiptHandle(message.getReceiptHandle()));
+			}
+		} catch (Exception e) {
+			log.warn("failed to delete message", e);
+		}
+	}
+
 	@Override
 	public AmazonSQSClient getAmazonSQSClient() {
 		return amazonSQSClient;
@@ -0,0 +1,44 @@
+package org.sagebionetworks.asynchronous.workers.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.sagebionetworks.common.util.progress.ProgressCallback;
+import org.sagebionetworks.workers.util.aws.message.MessageDrivenRunner;
+import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
+
+import com.amazonaws.services.sqs.model.Message;
+
+/**
+ * A {@link MessageDrivenRunner} whose work is only durable some time after the
+ * run returns, for example once a buffered file is pushed to S3. When run by a
+ * {@link ConcurrentWorkerStack} the message is deleted once the returned future
+ * completes, rather than when the run returns.
+ *
+ */
+public interface DeferredAckMessageDrivenRunner extends MessageDrivenRunner {
+
+	/**
+	 * Process the given message.
+	 *
+	 * @param progressCallback
+	 * @param message
+	 * @return A future that completes once the work of the message is durable.
+	 *         The message is deleted when the future completes normally. When
+	 *         the future completes exceptionally the message is left on the
+	 *         queue and delivered again after its visibility timeout.
+	 * @throws RecoverableMessageException
+	 * @throws Exception
+	 */
+	CompletableFuture<Void> runDeferred(ProgressCallback progressCallback, Message message)
+			throws RecoverableMessageException, Exception;
+
+	/**
+	 * Waits for the work of the message to be durable, for stacks that delete the
+	 * message as soon as the run returns.
+	 */
+	@Override
+	default void run(ProgressCallback progressCallback, Message message) throws RecoverableMessageException, Exception {
+		runDeferred(progressCallback, message).get();
+	}
+
+}
@@ -8,9 +8,11 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -19,6 +21,7 @@ import static org.mockito.Mockito.when;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
@@ -61,6 +64,8 @@ public class ConcurrentManagerImplTest {
 	@Mock
 	private MessageDrivenRunner mockWorker;
 	@Mock
+	private DeferredAckMessageDrivenRunner mockDeferredWorker;
+	@Mock
 	private Message mockMessage;
 	@Mock
 	private ProgressListener mockProgressListener;
@@ -323,6 +328,44 @@ public class ConcurrentManagerImplTest {
 				.deleteMessage(new DeleteMessageRequest().withQueueUrl(queueUrl).withReceiptHandle(receiptHandle));
 	}
 
+	@Test
+	public void testStartWorkerJobWithDeferredAck() throws RecoverableMessageException, Exception {
+		String receiptHandle = "receiptHandle";
+		when(mockMessage.getReceiptHandle()).thenReturn(receiptHandle);
+
+		CompletableFuture<Void> durable = new CompletableFuture<>();
+		when(mockDeferredWorker.runDeferred(any(), any())).thenReturn(durable);
+
+		// call under test
+		WorkerJob job = manager.startWorkerJob(queueUrl, lockTimeoutSec, mockDeferredWorker, mockMessage);
+		waitForFuture(job.getFuture());
+
+		verify(mockDeferredWorker).runDeferred((ProgressCallback) job.getListener(), mockMessage);
+		// the message is not deleted until its work is durable
+		verify(mockAmazonSQSClient, never()).deleteMessage(any());
+
+		durable.complete(null);
+
+		verify(mockAmazonSQSClient, timeout(5000))
+				.deleteMessage(new DeleteMessageRequest().withQueueUrl(queueUrl).withReceiptHandle(receiptHandle));
+	}
+
+	@Test
+	public void testStartWorkerJobWithDeferredAckFailure() throws RecoverableMessageException, Exception {
+		CompletableFuture<Void> durable = new CompletableFuture<>();
+		when(mockDeferredWorker.runDeferred(any(), any())).thenReturn(durable);
+
+		// call under test
+		WorkerJob job = manager.startWorkerJob(queueUrl, lockTimeoutSec, mockDeferredWorker, mockMessage);
+		waitForFuture(job.getFuture());
+
+		durable.completeExceptionally(new IllegalStateException("Failed to push"));
+
+		// the message is delivered again once its visibility expires
+		verify(mockAmazonSQSClient, after(500).never()).deleteMessage(any());
+		verify(mockAmazonSQSClient, never()).changeMessageVisibility(any());
+	}
+
 	@Test
 	public void testPollForMessagesAndStartJobsWithNoMessages() {
 		when(mockAmazonSQSClient.receiveMessage(any(ReceiveMessageRequest.class)))
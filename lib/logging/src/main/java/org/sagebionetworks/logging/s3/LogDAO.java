@@ -2,6 +2,7 @@ package org.sagebionetworks.logging.s3;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
@@ -23,6 +24,16 @@ public interface LogDAO {
 	 */
 	public String saveLogFile(File toSave, long timestamp);
 	
+	/**
+	 * Start a new log file that is uploaded while it is written. The returned
+	 * stream must be closed to complete the log file.
+	 * 
+	 * @param type      The type of the log
+	 * @param timestamp Used to create the key of the log file
+	 * @return
+	 */
+	public LogFileOutputStream createLogFileOutputStream(String type, long timestamp);
+	
 	/**
 	 * Delete a log file using its key
 	 * @param key
@@ -37,6 +48,23 @@ public interface LogDAO {
 	 */
 	public LogReader getLogFileReader(String key) throws IOException;
 	
+	/**
+	 * Get the size in bytes of a log file.
+	 * @param key
+	 * @return
+	 */
+	public long getLogFileSize(String key);
+	
+	/**
+	 * Open a stream over a range of the bytes of a log file.
+	 * @param key
+	 * @param start The index of the first byte of the range
+	 * @param end The index of the last byte of the range (inclusive)
+	 * @return
+	 * @throws IOException
+	 */
+	public InputStream getLogFileRange(String key, long start, long end) throws IOException;
+	
 	/**
 	 * Download a log to the passed destiantion file.
 	 * @param key
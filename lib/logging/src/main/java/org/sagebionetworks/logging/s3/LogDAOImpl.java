@@ -3,7 +3,9 @@ package org.sagebionetworks.logging.s3;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.UUID;
 import java.util.zip.GZIPInputStream;
 
 import org.apache.logging.log4j.LogManager;
@@ -57,13 +59,24 @@ public class LogDAOImpl implements LogDAO {
 		// Create the key for the new log file.
 		String key = LogKeyUtils.createKeyForFile(this.stackInstanceNumber,
 				toSave.getName(), timestamp);
+		s3Client.putObject(new PutObjectRequest(bucketName, key, toSave)
+				.withMetadata(createLogFileMetadata(key)));
+		return key;
+	}
+
+	@Override
+	public LogFileOutputStream createLogFileOutputStream(String type, long timestamp) {
+		String key = LogKeyUtils.createKey(this.stackInstanceNumber, type.toLowerCase(),
+				LogKeyUtils.extractDataParts(timestamp), UUID.randomUUID().toString());
+		return new S3LogFileOutputStream(s3Client, bucketName, key, createLogFileMetadata(key), S3LogFileOutputStream.PART_SIZE);
+	}
+	
+	private static ObjectMetadata createLogFileMetadata(String key) {
 		ObjectMetadata om = new ObjectMetadata();
 		om.setContentType("application/x-gzip");
 		om.setContentEncoding("gzip");
 		om.setContentDisposition(ContentDispositionUtils.getContentDispositionValue(key));
-		s3Client.putObject(new PutObjectRequest(bucketName, key, toSave)
-				.withMetadata(om));
-		return key;
+		return om;
 	}
 
 	@Override
@@ -147,6 +160,16 @@ public class LogDAOImpl implements LogDAO {
 
 	}
 
+	@Override
+	public long getLogFileSize(String key) {
+		return s3Client.getObjectMetadata(bucketName, key).getContentLength();
+	}
+
+	@Override
+	public InputStream getLogFileRange(String key, long start, long end) throws IOException {
+		return s3Client.getObject(new GetObjectRequest(bucketName, key).withRange(start, end)).getObjectContent();
+	}
+
 	@Override
 	public ObjectMetadata downloadLogFile(String key, File destination)
 			throws IOException {
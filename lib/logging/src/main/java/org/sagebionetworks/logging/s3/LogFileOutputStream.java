@@ -0,0 +1,23 @@
+package org.sagebionetworks.logging.s3;
+
+import java.io.OutputStream;
+
+/**
+ * A stream used to write a new log file straight to the log storage, without
+ * staging it on local disk. Closing the stream completes the log file, while a
+ * stream that is aborted leaves nothing behind.
+ * 
+ */
+public abstract class LogFileOutputStream extends OutputStream {
+
+	/**
+	 * @return The key of the log file being written
+	 */
+	public abstract String getKey();
+
+	/**
+	 * Discard all the data written so far, the log file will not be created.
+	 */
+	public abstract void abort();
+
+}
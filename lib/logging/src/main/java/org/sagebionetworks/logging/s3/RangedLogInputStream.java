@@ -0,0 +1,95 @@
+package org.sagebionetworks.logging.s3;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a log file as a sequence of byte ranges. Each range is only requested
+ * once the previous one is consumed, so no more than a single range is ever
+ * read ahead of the caller and nothing is requested until the first read.
+ *
+ */
+public class RangedLogInputStream extends InputStream {
+
+	private final LogDAO logDAO;
+	private final String key;
+	private final long size;
+	private final long rangeSize;
+
+	private InputStream current;
+	private long position = 0;
+	private long rangeEnd = 0;
+	private boolean closed = false;
+
+	/**
+	 * @param logDAO
+	 * @param key       The key of the log file
+	 * @param size      The size in bytes of the log file
+	 * @param rangeSize The maximum number of bytes requested at once
+	 */
+	public RangedLogInputStream(LogDAO logDAO, String key, long size, long rangeSize) {
+		if (rangeSize < 1) {
+			throw new IllegalArgumentException("The range size must be greater than zero");
+		}
+		this.logDAO = logDAO;
+		this.key = key;
+		this.size = size;
+		this.rangeSize = rangeSize;
+	}
+
+	@Override
+	public int read() throws IOException {
+		byte[] single = new byte[1];
+		int read = read(single, 0, 1);
+		return read < 0 ? -1 : single[0] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (closed) {
+			throw new IOException("The stream is closed");
+		}
+		if (len == 0) {
+			return 0;
+		}
+		while (true) {
+			if (current == null) {
+				if (position >= size) {
+					return -1;
+				}
+				rangeEnd = Math.min(position + rangeSize, size);
+				// The range is inclusive of the last byte
+				current = logDAO.getLogFileRange(key, position, rangeEnd - 1);
+			}
+			int read = current.read(b, off, (int) Math.min(len, rangeEnd - position));
+			if (read > 0) {
+				position += read;
+				if (position == rangeEnd) {
+					closeCurrent();
+				}
+				return read;
+			}
+			if (position < rangeEnd) {
+				throw new IOException("Unexpected end of range of " + key + " at " + position + ", expected " + rangeEnd);
+			}
+			closeCurrent();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		closeCurrent();
+	}
+
+	private void closeCurrent() throws IOException {
+		if (current != null) {
+			try {
+				current.close();
+			} finally {
+				current = null;
+			}
+		}
+	}
+
+}
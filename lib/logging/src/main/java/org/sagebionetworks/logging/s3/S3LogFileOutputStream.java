@@ -0,0 +1,122 @@
+package org.sagebionetworks.logging.s3;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.sagebionetworks.aws.SynapseS3Client;
+
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+
+/**
+ * Writes a log file to S3 with a multipart upload, each part is sent as soon
+ * as it is filled so at most a single part is kept in memory.
+ *
+ */
+class S3LogFileOutputStream extends LogFileOutputStream {
+
+	/**
+	 * The minimum size of a part (but the last) of a multipart upload.
+	 */
+	static final int PART_SIZE = 5 * 1024 * 1024;
+
+	private final SynapseS3Client s3Client;
+	private final String bucketName;
+	private final String key;
+	private final byte[] part;
+	private final List<PartETag> partETags = new ArrayList<>();
+
+	private String uploadId;
+	private int partLength = 0;
+	private boolean closed = false;
+
+	S3LogFileOutputStream(SynapseS3Client s3Client, String bucketName, String key, ObjectMetadata metadata, int partSize) {
+		this.s3Client = s3Client;
+		this.bucketName = bucketName;
+		this.key = key;
+		this.part = new byte[partSize];
+		this.uploadId = s3Client.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucketName, key, metadata)).getUploadId();
+	}
+
+	@Override
+	public String getKey() {
+		return key;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		ensureOpen();
+		part[partLength++] = (byte) b;
+		if (partLength == part.length) {
+			uploadPart();
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		while (len > 0) {
+			int toCopy = Math.min(len, part.length - partLength);
+			System.arraycopy(b, off, part, partLength, toCopy);
+			partLength += toCopy;
+			off += toCopy;
+			len -= toCopy;
+			if (partLength == part.length) {
+				uploadPart();
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		try {
+			// The last part can be smaller than the minimum, and is always sent so that the upload has at least one part
+			if (partLength > 0 || partETags.isEmpty()) {
+				uploadPart();
+			}
+			s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, key, uploadId, partETags));
+			closed = true;
+		} catch (RuntimeException e) {
+			abort();
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public void abort() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+	}
+
+	private void uploadPart() {
+		int partNumber = partETags.size() + 1;
+		UploadPartRequest request = new UploadPartRequest()
+				.withBucketName(bucketName)
+				.withKey(key)
+				.withUploadId(uploadId)
+				.withPartNumber(partNumber)
+				.withInputStream(new ByteArrayInputStream(part, 0, partLength))
+				.withPartSize(partLength);
+		partETags.add(s3Client.uploadPart(request).getPartETag());
+		partLength = 0;
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("The log file stream is closed");
+		}
+	}
+
+}
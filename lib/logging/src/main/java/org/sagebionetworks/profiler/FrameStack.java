@@ -0,0 +1,95 @@
+package org.sagebionetworks.profiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The profiling state of a single thread: the stack of the frames currently
+ * being profiled and the top level frames aggregated since the last flush. The
+ * stack is backed by an array that is allocated once per thread. The stack is
+ * only ever used by its own thread. The top level frames can be flushed by
+ * another thread while the stack is empty, so the stack is locked whenever it
+ * becomes empty or stops being empty.
+ *
+ */
+class FrameStack {
+
+	static final int INITIAL_CAPACITY = 32;
+
+	private Frame[] frames = new Frame[INITIAL_CAPACITY];
+	private int size = 0;
+	private Map<String, Frame> rootFrames = new LinkedHashMap<>();
+	private final Thread owner = Thread.currentThread();
+
+	/**
+	 * The depth of the current top level call when it was not sampled.
+	 */
+	int skippedDepth = 0;
+
+	/**
+	 * The last time the top level frames were sent to the handlers.
+	 */
+	long lastFlushMillis = 0L;
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return True if the thread that owns this stack is still alive
+	 */
+	boolean isOwnerAlive() {
+		return owner.isAlive();
+	}
+
+	void push(Frame frame) {
+		if (size == frames.length) {
+			frames = Arrays.copyOf(frames, size * 2);
+		}
+		frames[size++] = frame;
+	}
+
+	Frame peek() {
+		if (size == 0) {
+			throw new IllegalStateException("The frame stack is empty");
+		}
+		return frames[size - 1];
+	}
+
+	Frame pop() {
+		Frame frame = peek();
+		frames[--size] = null;
+		return frame;
+	}
+
+	/**
+	 * @param methodName
+	 * @return The top level frame of the given method, created if this is the
+	 *         first call since the last flush.
+	 */
+	Frame getRootFrame(String methodName) {
+		return rootFrames.computeIfAbsent(methodName, Frame::new);
+	}
+
+	/**
+	 * Remove all of the top level frames aggregated since the last flush.
+	 *
+	 * @return
+	 */
+	Collection<Frame> removeRootFrames() {
+		if (rootFrames.isEmpty()) {
+			return rootFrames.values();
+		}
+		List<Frame> removed = new ArrayList<>(rootFrames.values());
+		rootFrames.clear();
+		return removed;
+	}
+}
@@ -24,9 +24,18 @@ public class LoggingProfiler implements ProfileHandler {
 				.isErrorEnabled());
 	}
 
+	/**
+	 * Slow calls are always logged, even when they were not sampled.
+	 */
+	@Override
+	public long getUnsampledThresholdMillis() {
+		return elapseTimeThresholdMilis;
+	}
+
 	@Override
 	public void fireProfile(Frame data) {
-		if (data.getTotalTimeMilis() < elapseTimeThresholdMilis) {
+		// The frame can aggregate several calls, only the slowest is compared to the threshold
+		if (data.getMaxTimeMilis() < elapseTimeThresholdMilis) {
 			if (log.isTraceEnabled())
 				log.trace(data.toString());
 		} else {
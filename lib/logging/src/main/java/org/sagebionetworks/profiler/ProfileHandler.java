@@ -14,4 +14,15 @@ public interface ProfileHandler {
 	 */
 	public void fireProfile(Frame data);
 
+	/**
+	 * The top level calls that were not sampled are still sent to the handler,
+	 * without their nested calls, when they take at least this long.
+	 * 
+	 * @return Defaults to Long.MAX_VALUE, the calls that were not sampled are
+	 *         never sent
+	 */
+	default long getUnsampledThresholdMillis() {
+		return Long.MAX_VALUE;
+	}
+
 }
@@ -1,14 +1,32 @@
 package org.sagebionetworks.profiler;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Stack;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+import org.sagebionetworks.util.ValidateArgument;
 
 public class ProfilerFrameStackManager {
-	// Each thread gets its own stack.
-	private static ThreadLocal<Stack<Frame>> threadFrameStack = ThreadLocal.withInitial(Stack::new);
+	// Each thread gets its own stack, that is only ever touched by that thread outside of a flush of the idle threads.
+	private ThreadLocal<FrameStack> threadFrameStack = ThreadLocal.withInitial(this::createFrameStack);
+
+	// The stacks of all the threads, used to flush the idle threads
+	private Set<FrameStack> frameStacks = ConcurrentHashMap.newKeySet();
 
 	private List<ProfileHandler> handlers = null;
 
+	// The fraction of the top level calls that are profiled
+	private double samplingRatio = 1.0;
+
+	// The top level frames of each thread are aggregated and sent to the handlers at most once per interval
+	private long flushIntervalMillis = 0L;
+
+	private LongSupplier clock = System::currentTimeMillis;
 
 	public List<ProfileHandler> getHandlers() {
 		return handlers;
@@ -23,33 +41,145 @@ public class ProfilerFrameStackManager {
 		this.handlers = handlers;
 	}
 
+	/**
+	 * Injected via Spring.
+	 *
+	 * @param samplingRatio The fraction of the top level calls that are profiled, between 0 and 1. Defaults to 1.
+	 */
+	public void setSamplingRatio(double samplingRatio) {
+		ValidateArgument.requirement(samplingRatio >= 0 && samplingRatio <= 1, "The sampling ratio must be between 0 and 1.");
+		this.samplingRatio = samplingRatio;
+	}
+
+	/**
+	 * Injected via Spring.
+	 *
+	 * @param flushIntervalMillis The repeated call paths of a thread are aggregated and sent to the handlers
+	 *                            at most once per interval. Defaults to 0, each top level call is sent when it
+	 *                            ends.
+	 */
+	public void setFlushIntervalMillis(long flushIntervalMillis) {
+		ValidateArgument.requirement(flushIntervalMillis >= 0, "The flush interval cannot be negative.");
+		this.flushIntervalMillis = flushIntervalMillis;
+	}
+
+	// Exposed for testing
+	void setClock(LongSupplier clock) {
+		this.clock = clock;
+	}
+
+	private FrameStack createFrameStack() {
+		FrameStack stack = new FrameStack();
+		frameStacks.add(stack);
+		return stack;
+	}
+
 	public void startProfiling(String methodName){
-		Stack<Frame> parentFramesStack = threadFrameStack.get();
+		FrameStack stack = threadFrameStack.get();
+
+		if (stack.skippedDepth > 0 || (stack.isEmpty() && !isSampled())) {
+			// The top level call was not sampled, just track the depth so we know when it ends
+			stack.skippedDepth++;
+			return;
+		}
 
-		Frame currentFrame = getCurrentFrame(methodName);
+		if (stack.isEmpty()) {
+			// Repeated top level calls share the same frame until the next flush
+			synchronized (stack) {
+				stack.push(stack.getRootFrame(methodName));
+			}
+			return;
+		}
 
 		//add the current frame to the stack before proceeding
-		parentFramesStack.push(currentFrame);
+		stack.push(stack.peek().addChildFrameIfAbsent(methodName));
 	}
 
 	public void endProfiling(String methodName, long elapsedTimeMillis){
-		Stack<Frame> parentFramesStack = threadFrameStack.get();
+		FrameStack stack = threadFrameStack.get();
+
+		if (stack.skippedDepth > 0) {
+			stack.skippedDepth--;
+			if (stack.skippedDepth == 0) {
+				doFireUnsampled(methodName, elapsedTimeMillis);
+			}
+			return;
+		}
+
+		if (stack.size() > 1) {
+			// now that the method finished pop the current frame off the stack
+			endFrame(stack.pop(), methodName, elapsedTimeMillis);
+			return;
+		}
 
-		// now that the method finished pop the current frame off the stack
-		Frame currentFrame = parentFramesStack.pop();
+		// If this is the first frame, flush the profiling data once the interval is over
+		Collection<Frame> rootFrames = Collections.emptyList();
+		synchronized (stack) {
+			endFrame(stack.pop(), methodName, elapsedTimeMillis);
+			long now = clock.getAsLong();
+			if (now - stack.lastFlushMillis >= flushIntervalMillis) {
+				rootFrames = stack.removeRootFrames();
+				stack.lastFlushMillis = now;
+			}
+		}
+		for (Frame rootFrame : rootFrames) {
+			doFireProfile(rootFrame);
+		}
+	}
 
+	private static void endFrame(Frame currentFrame, String methodName, long elapsedTimeMillis) {
 		if(!currentFrame.getName().equals(methodName)){
 			throw new IllegalArgumentException("Expected to end profiling on " + currentFrame.getName() + " but got " + methodName);
 		}
-
 		currentFrame.addElapsedTime(elapsedTimeMillis);
+	}
 
-		// If this is the first frame, log the profiling data
-		if (parentFramesStack.isEmpty()) {
-			doFireProfile(currentFrame);
+	/**
+	 * Send the top level frames aggregated by the threads that did not end a top level call since the flush interval
+	 * is over, they would otherwise wait for the next call of the same thread. Called by a timer.
+	 */
+	public void flushIdleThreads() {
+		long now = clock.getAsLong();
+		Iterator<FrameStack> iterator = frameStacks.iterator();
+		while (iterator.hasNext()) {
+			FrameStack stack = iterator.next();
+			boolean ownerAlive = stack.isOwnerAlive();
+			Collection<Frame> rootFrames = Collections.emptyList();
+			synchronized (stack) {
+				if (stack.isEmpty() && (!ownerAlive || now - stack.lastFlushMillis >= flushIntervalMillis)) {
+					rootFrames = stack.removeRootFrames();
+					stack.lastFlushMillis = now;
+				}
+			}
+			for (Frame rootFrame : rootFrames) {
+				doFireProfile(rootFrame);
+			}
+			if (!ownerAlive) {
+				iterator.remove();
+			}
 		}
 	}
 
+	/**
+	 * Stop profiling the calls of the current thread until {@link #resumeProfiling()} is called. Used by threads that
+	 * work on behalf of a profiled call of another thread, since their calls cannot be attached to the frames of that
+	 * call. Must be called outside of any profiled call.
+	 */
+	public void suspendProfiling() {
+		threadFrameStack.get().skippedDepth++;
+	}
+
+	/**
+	 * Resume the profiling of the current thread after a call to {@link #suspendProfiling()}.
+	 */
+	public void resumeProfiling() {
+		threadFrameStack.get().skippedDepth--;
+	}
+
+	boolean isSampled() {
+		return samplingRatio >= 1.0 || ThreadLocalRandom.current().nextDouble() < samplingRatio;
+	}
+
 	/**
 	 * Should we even profile.
 	 *
@@ -67,19 +197,23 @@ public class ProfilerFrameStackManager {
 		return false;
 	}
 
-	//NOTE: this method could be static but it makes it impossible to Mock its behavior
-	Frame getCurrentFrame(String methodName) {
-		Stack<Frame> parentFramesStack = threadFrameStack.get();
-		Frame currentFrame;
-		if (parentFramesStack.isEmpty()) {
-			// There are no parent frames, so create a new frame
-			currentFrame = new Frame(methodName);
-		} else{
-			// A parent frame exists so add it to the parent frame
-			Frame parentFrame = parentFramesStack.peek();
-			currentFrame = parentFrame.addChildFrameIfAbsent(methodName);
+	/**
+	 * Send a top level call that was not sampled, without its nested calls, to the handlers that want it.
+	 */
+	void doFireUnsampled(String methodName, long elapsedTimeMillis) {
+		if (handlers == null) {
+			return;
+		}
+		Frame frame = null;
+		for (ProfileHandler handler : this.handlers) {
+			if (elapsedTimeMillis >= handler.getUnsampledThresholdMillis() && handler.shouldCaptureProfile()) {
+				if (frame == null) {
+					frame = new Frame(methodName);
+					frame.addElapsedTime(elapsedTimeMillis);
+				}
+				handler.fireProfile(frame);
+			}
 		}
-		return currentFrame;
 	}
 
 	void doFireProfile(Frame frame) {
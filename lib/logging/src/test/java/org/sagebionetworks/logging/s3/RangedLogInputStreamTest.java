@@ -0,0 +1,119 @@
+package org.sagebionetworks.logging.s3;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.google.common.io.ByteStreams;
+
+@ExtendWith(MockitoExtension.class)
+public class RangedLogInputStreamTest {
+
+	@Mock
+	LogDAO mockLogDAO;
+
+	String key;
+	byte[] data;
+
+	@BeforeEach
+	public void before() throws IOException {
+		key = "000000001/repo/2020-01-01/01-02-03-004-uuid.log.gz";
+		data = "some log data that spans more than a single range".getBytes(StandardCharsets.UTF_8);
+	}
+
+	void setupRanges() throws IOException {
+		when(mockLogDAO.getLogFileRange(anyString(), anyLong(), anyLong())).thenAnswer(invocation -> {
+			int start = ((Long) invocation.getArgument(1)).intValue();
+			int end = ((Long) invocation.getArgument(2)).intValue();
+			return new ByteArrayInputStream(Arrays.copyOfRange(data, start, end + 1));
+		});
+	}
+
+	@Test
+	public void testReadAll() throws IOException {
+		setupRanges();
+		try (InputStream in = new RangedLogInputStream(mockLogDAO, key, data.length, 16)) {
+			// call under test
+			assertArrayEquals(data, ByteStreams.toByteArray(in));
+		}
+		verify(mockLogDAO).getLogFileRange(key, 0, 15);
+		verify(mockLogDAO).getLogFileRange(key, 16, 31);
+		verify(mockLogDAO).getLogFileRange(key, 32, 47);
+		verify(mockLogDAO).getLogFileRange(key, 48, data.length - 1);
+	}
+
+	@Test
+	public void testReadSingleBytes() throws IOException {
+		setupRanges();
+		try (InputStream in = new RangedLogInputStream(mockLogDAO, key, data.length, 7)) {
+			for (int i = 0; i < data.length; i++) {
+				// call under test
+				assertEquals(data[i], (byte) in.read());
+			}
+			assertEquals(-1, in.read());
+		}
+	}
+
+	@Test
+	public void testNothingRequestedUntilRead() throws IOException {
+		InputStream in = new RangedLogInputStream(mockLogDAO, key, data.length, 16);
+		in.close();
+		verify(mockLogDAO, never()).getLogFileRange(anyString(), anyLong(), anyLong());
+	}
+
+	@Test
+	public void testEmpty() throws IOException {
+		try (InputStream in = new RangedLogInputStream(mockLogDAO, key, 0, 16)) {
+			// call under test
+			assertEquals(-1, in.read());
+		}
+		verify(mockLogDAO, never()).getLogFileRange(anyString(), anyLong(), anyLong());
+	}
+
+	@Test
+	public void testUnexpectedEndOfRange() throws IOException {
+		when(mockLogDAO.getLogFileRange(key, 0, 15)).thenReturn(new ByteArrayInputStream(Arrays.copyOfRange(data, 0, 10)));
+		try (InputStream in = new RangedLogInputStream(mockLogDAO, key, data.length, 16)) {
+			IOException e = assertThrows(IOException.class, () -> {
+				// call under test
+				ByteStreams.toByteArray(in);
+			});
+			assertEquals("Unexpected end of range of " + key + " at 10, expected 16", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testReadAfterClose() throws IOException {
+		InputStream in = new RangedLogInputStream(mockLogDAO, key, data.length, 16);
+		in.close();
+		assertThrows(IOException.class, () -> {
+			// call under test
+			in.read();
+		});
+	}
+
+	@Test
+	public void testInvalidRangeSize() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new RangedLogInputStream(mockLogDAO, key, data.length, 0);
+		});
+	}
+
+}
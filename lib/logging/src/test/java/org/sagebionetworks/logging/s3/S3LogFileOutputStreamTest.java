@@ -0,0 +1,139 @@
+package org.sagebionetworks.logging.s3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.aws.SynapseS3Client;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+
+@ExtendWith(MockitoExtension.class)
+public class S3LogFileOutputStreamTest {
+
+	@Mock
+	SynapseS3Client mockS3Client;
+
+	String bucketName;
+	String key;
+	String uploadId;
+	ObjectMetadata metadata;
+
+	@BeforeEach
+	public void before() {
+		bucketName = "some-bucket";
+		key = "000000001/repo/2020-01-01/01-02-03-004-uuid.log.gz";
+		uploadId = "upload-id";
+		metadata = new ObjectMetadata();
+		InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+		initiated.setUploadId(uploadId);
+		when(mockS3Client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiated);
+	}
+
+	void setupUploadPart() {
+		when(mockS3Client.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+			UploadPartRequest request = invocation.getArgument(0);
+			UploadPartResult result = new UploadPartResult();
+			result.setPartNumber(request.getPartNumber());
+			result.setETag("etag" + request.getPartNumber());
+			return result;
+		});
+	}
+
+	@Test
+	public void testWriteMultipleParts() throws IOException {
+		setupUploadPart();
+		byte[] data = new byte[25];
+		Arrays.fill(data, (byte) 1);
+
+		try (S3LogFileOutputStream out = new S3LogFileOutputStream(mockS3Client, bucketName, key, metadata, 10)) {
+			// call under test
+			out.write(data);
+			assertEquals(key, out.getKey());
+		}
+
+		ArgumentCaptor<UploadPartRequest> partCaptor = ArgumentCaptor.forClass(UploadPartRequest.class);
+		verify(mockS3Client, times(3)).uploadPart(partCaptor.capture());
+		List<UploadPartRequest> parts = partCaptor.getAllValues();
+		assertEquals(10L, parts.get(0).getPartSize());
+		assertEquals(10L, parts.get(1).getPartSize());
+		assertEquals(5L, parts.get(2).getPartSize());
+		assertEquals(3, parts.get(2).getPartNumber());
+
+		ArgumentCaptor<CompleteMultipartUploadRequest> completeCaptor = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+		verify(mockS3Client).completeMultipartUpload(completeCaptor.capture());
+		assertEquals(uploadId, completeCaptor.getValue().getUploadId());
+		assertEquals(Arrays.asList(new PartETag(1, "etag1"), new PartETag(2, "etag2"), new PartETag(3, "etag3")).toString(),
+				completeCaptor.getValue().getPartETags().toString());
+		verify(mockS3Client, never()).abortMultipartUpload(any());
+	}
+
+	@Test
+	public void testCloseEmpty() throws IOException {
+		setupUploadPart();
+		S3LogFileOutputStream out = new S3LogFileOutputStream(mockS3Client, bucketName, key, metadata, 10);
+
+		// call under test
+		out.close();
+
+		// An upload must have at least one part
+		verify(mockS3Client).uploadPart(any(UploadPartRequest.class));
+		verify(mockS3Client).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+	}
+
+	@Test
+	public void testCloseFailureAborts() throws IOException {
+		when(mockS3Client.uploadPart(any(UploadPartRequest.class))).thenThrow(new AmazonServiceException("failed"));
+		S3LogFileOutputStream out = new S3LogFileOutputStream(mockS3Client, bucketName, key, metadata, 10);
+		out.write(1);
+
+		assertThrows(IOException.class, () -> {
+			// call under test
+			out.close();
+		});
+
+		ArgumentCaptor<AbortMultipartUploadRequest> abortCaptor = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+		verify(mockS3Client).abortMultipartUpload(abortCaptor.capture());
+		assertEquals(uploadId, abortCaptor.getValue().getUploadId());
+		verify(mockS3Client, never()).completeMultipartUpload(any());
+	}
+
+	@Test
+	public void testWriteAfterAbort() throws IOException {
+		S3LogFileOutputStream out = new S3LogFileOutputStream(mockS3Client, bucketName, key, metadata, 10);
+		out.abort();
+
+		assertThrows(IOException.class, () -> {
+			// call under test
+			out.write(1);
+		});
+		// A second abort or close does nothing
+		out.abort();
+		out.close();
+		verify(mockS3Client, times(1)).abortMultipartUpload(any());
+		verify(mockS3Client, never()).completeMultipartUpload(any());
+	}
+
+}
@@ -2,38 +2,30 @@ package org.sagebionetworks.profiler;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Stack;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import org.springframework.test.util.ReflectionTestUtils;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ProfilerFrameStackManagerTest {
-	@Mock
-	ThreadLocal<Stack<Frame>> mockThreadLocalStack;
-
-	@Mock
-	Stack<Frame> mockFrameStack;
 
 	@Mock
 	Frame mockFrame;
@@ -46,47 +38,43 @@ public class ProfilerFrameStackManagerTest {
 
 	List<ProfileHandler> profileHandlers;
 
-	ProfilerFrameStackManager spyProfilerFrameStackManager;
+	ProfilerFrameStackManager manager;
+
+	AtomicLong now;
 
 	final String methodName = "myMethodNameIsSoCool";
 
-	long elapsedTime;
+	final String childMethodName = "childMethod";
 
 	@Before
 	public void setUp(){
-		elapsedTime = 1234567890;
-		spyProfilerFrameStackManager = spy(new ProfilerFrameStackManager());
+		manager = new ProfilerFrameStackManager();
 		profileHandlers = Arrays.asList(mockProfileHandler1, mockProfileHandler2);
-		when(mockProfileHandler1.shouldCaptureProfile()).thenReturn(false);
-		when(mockProfileHandler2.shouldCaptureProfile()).thenReturn(true);
-		when(mockThreadLocalStack.get()).thenReturn(mockFrameStack);
-		when(mockFrameStack.peek()).thenReturn(mockFrame);
-		when(mockFrameStack.pop()).thenReturn(mockFrame);
-		when(mockFrame.getName()).thenReturn(methodName);
-
-		ReflectionTestUtils.setField(ProfilerFrameStackManager.class,"threadFrameStack", mockThreadLocalStack);
-
+		now = new AtomicLong(1000L);
+		manager.setClock(now::get);
 	}
 
 	@Test
 	public void testShouldCaptureData_nullHandlers(){
-		spyProfilerFrameStackManager.setHandlers(null);
+		manager.setHandlers(null);
 
-		assertFalse(spyProfilerFrameStackManager.shouldCaptureData());
+		assertFalse(manager.shouldCaptureData());
 	}
 
 	@Test
 	public void testShouldCaptureData_emptyHandlers(){
-		spyProfilerFrameStackManager.setHandlers(Collections.emptyList());
+		manager.setHandlers(Collections.emptyList());
 
-		assertFalse(spyProfilerFrameStackManager.shouldCaptureData());
+		assertFalse(manager.shouldCaptureData());
 	}
 
 	@Test
 	public void testShouldCaptureData_multipleHandlers(){
-		spyProfilerFrameStackManager.setHandlers(profileHandlers);
+		when(mockProfileHandler1.shouldCaptureProfile()).thenReturn(false);
+		when(mockProfileHandler2.shouldCaptureProfile()).thenReturn(true);
+		manager.setHandlers(profileHandlers);
 
-		assertTrue(spyProfilerFrameStackManager.shouldCaptureData());
+		assertTrue(manager.shouldCaptureData());
 
 		verify(mockProfileHandler1).shouldCaptureProfile();
 		verify(mockProfileHandler2).shouldCaptureProfile();
@@ -94,9 +82,9 @@ public class ProfilerFrameStackManagerTest {
 
 	@Test
 	public void testDoFireProfile_nullHandlers(){
-		spyProfilerFrameStackManager.setHandlers(null);
+		manager.setHandlers(null);
 
-		spyProfilerFrameStackManager.doFireProfile(mockFrame);
+		manager.doFireProfile(mockFrame);
 
 		verify(mockProfileHandler1, never()).shouldCaptureProfile();
 		verify(mockProfileHandler2, never()).shouldCaptureProfile();
@@ -106,9 +94,9 @@ public class ProfilerFrameStackManagerTest {
 
 	@Test
 	public void testDoFireProfile_emptyHandlers(){
-		spyProfilerFrameStackManager.setHandlers(Collections.emptyList());
+		manager.setHandlers(Collections.emptyList());
 
-		spyProfilerFrameStackManager.doFireProfile(mockFrame);
+		manager.doFireProfile(mockFrame);
 
 		verify(mockProfileHandler1, never()).shouldCaptureProfile();
 		verify(mockProfileHandler2, never()).shouldCaptureProfile();
@@ -118,128 +106,245 @@ public class ProfilerFrameStackManagerTest {
 
 	@Test
 	public void testDoFireProfile_multipleHandlers(){
-		spyProfilerFrameStackManager.setHandlers(profileHandlers);
+		when(mockProfileHandler1.shouldCaptureProfile()).thenReturn(false);
+		when(mockProfileHandler2.shouldCaptureProfile()).thenReturn(true);
+		manager.setHandlers(profileHandlers);
 
-		spyProfilerFrameStackManager.doFireProfile(mockFrame);
+		manager.doFireProfile(mockFrame);
 
-		verify(mockProfileHandler1).shouldCaptureProfile();
-		verify(mockProfileHandler2).shouldCaptureProfile();
 		verify(mockProfileHandler1, never()).fireProfile(any());
 		verify(mockProfileHandler2).fireProfile(mockFrame);
 	}
 
 	@Test
-	public void testGetCurrentFrame__emptyStack(){
-		String methodName = "asdf";
-		when(mockFrameStack.isEmpty()).thenReturn(true);
-		Frame currentFrame = spyProfilerFrameStackManager.getCurrentFrame(methodName);
-
-		assertEquals(methodName, currentFrame.getName());
-		assertNotEquals(mockFrame, currentFrame);
+	public void testProfiling_nestedCalls(){
+		when(mockProfileHandler2.shouldCaptureProfile()).thenReturn(true);
+		manager.setHandlers(Collections.singletonList(mockProfileHandler2));
 
-		verify(mockThreadLocalStack).get();
-		verify(mockFrameStack).isEmpty();
+		manager.startProfiling(methodName);
+		manager.startProfiling(childMethodName);
+		manager.endProfiling(childMethodName, 3L);
+		manager.startProfiling(childMethodName);
+		manager.endProfiling(childMethodName, 5L);
+		verify(mockProfileHandler2, never()).fireProfile(any());
+		manager.endProfiling(methodName, 10L);
+
+		ArgumentCaptor<Frame> captor = ArgumentCaptor.forClass(Frame.class);
+		verify(mockProfileHandler2).fireProfile(captor.capture());
+		Frame root = captor.getValue();
+		assertEquals(methodName, root.getName());
+		assertEquals(10L, root.getTotalTimeMilis());
+		Frame child = root.getChild(childMethodName);
+		assertNotNull(child);
+		assertEquals(2L, child.getCallsCount());
+		assertEquals(8L, child.getTotalTimeMilis());
 	}
 
-
 	@Test
-	public void testGetCurrentFrame__nonEmptyStack(){
-		String methodName = "asdf";
-
-		when(mockFrame.addChildFrameIfAbsent(methodName)).thenReturn(new Frame(methodName));
+	public void testProfiling_withoutFlushIntervalFiresEachCall(){
+		when(mockProfileHandler2.shouldCaptureProfile()).thenReturn(true);
+		manager.setHandlers(Collections.singletonList(mockProfileHandler2));
 
-		Frame currentFrame = spyProfilerFrameStackManager.getCurrentFrame(methodName);
+		manager.startProfiling(methodName);
+		manager.endProfiling(methodName, 1L);
+		manager.startProfiling(methodName);
+		manager.endProfiling(methodName, 2L);
 
-		assertEquals(methodName, currentFrame.getName());
+		ArgumentCaptor<Frame> captor = ArgumentCaptor.forClass(Frame.class);
+		verify(mockProfileHandler2, times(2)).fireProfile(captor.capture());
+		assertEquals(1L, captor.getAllValues().get(0).getCallsCount());
+		assertEquals(1L, captor.getAllValues().get(1).getCallsCount());
+	}
 
-		verify(mockThreadLocalStack).get();
-		verify(mockFrameStack).isEmpty();
-		verify(mockFrameStack).peek();
-		verify(mockFrame).addChildFrameIfAbsent(methodName);
+	@Test
+	public void testProfiling_aggregatesUntilFlushInterval(){
+		when(mockProfileHandler2.shouldCaptureProfile()).thenReturn(true);
+		manager.setHandlers(Collections.singletonList(mockProfileHandler2));
+		manager.setFlushIntervalMillis(1000L);
+
+		// The first call flushes since nothing was ever flushed
+		manager.startProfiling(methodName);
+		manager.endProfiling(methodName, 1L);
+		verify(mockProfileHandler2, times(1)).fireProfile(any());
+
+		for (int i = 0; i < 3; i++) {
+			manager.startProfiling(methodName);
+			manager.startProfiling(childMethodName);
+			manager.endProfiling(childMethodName, 1L);
+			manager.endProfiling(methodName, 2L);
+			now.addAndGet(100L);
+		}
+		verify(mockProfileHandler2, times(1)).fireProfile(any());
+
+		now.addAndGet(1000L);
+		manager.startProfiling(methodName);
+		manager.endProfiling(methodName, 4L);
+
+		ArgumentCaptor<Frame> captor = ArgumentCaptor.forClass(Frame.class);
+		verify(mockProfileHandler2, times(2)).fireProfile(captor.capture());
+		Frame aggregated = captor.getAllValues().get(1);
+		assertEquals(methodName, aggregated.getName());
+		assertEquals(4L, aggregated.getCallsCount());
+		assertEquals(10L, aggregated.getTotalTimeMilis());
+		assertEquals(4L, aggregated.getMaxTimeMilis());
+		assertEquals(3L, aggregated.getChild(childMethodName).getCallsCount());
 	}
 
 	@Test
-	public void testStartProfiling(){
-		doReturn(mockFrame).when(spyProfilerFrameStackManager).getCurrentFrame(methodName);
+	public void testProfiling_notSampled(){
+		when(mockProfileHandler2.shouldCaptureProfile()).thenReturn(true);
+		when(mockProfileHandler2.getUnsampledThresholdMillis()).thenReturn(Long.MAX_VALUE);
+		manager.setHandlers(Collections.singletonList(mockProfileHandler2));
+		manager.setSamplingRatio(0.0);
 
+		manager.startProfiling(methodName);
+		manager.startProfiling(childMethodName);
+		manager.endProfiling(childMethodName, 1L);
+		manager.endProfiling(methodName, 2L);
 
-		spyProfilerFrameStackManager.startProfiling(methodName);
+		verify(mockProfileHandler2, never()).fireProfile(any());
 
-		verify(spyProfilerFrameStackManager).startProfiling(methodName);
-		verify(mockThreadLocalStack).get();
-		verify(spyProfilerFrameStackManager).getCurrentFrame(methodName);
-		verify(mockFrameStack).push(mockFrame);
+		// The next top level call is profiled once sampling is back on
+		manager.setSamplingRatio(1.0);
+		manager.startProfiling(methodName);
+		manager.endProfiling(methodName, 2L);
 
-		verifyNoMoreInteractions(mockFrame);
-		verifyNoMoreInteractions(mockThreadLocalStack);
-		verifyNoMoreInteractions(mockFrameStack);
-		verifyNoMoreInteractions(mockProfileHandler1);
-		verifyNoMoreInteractions(mockProfileHandler2);
+		verify(mockProfileHandler2).fireProfile(any());
 	}
 
-
 	@Test
 	public void testEndProfiling_methodNameNotMatchTopOfStack(){
+		manager.startProfiling(methodName);
 		String unmatchingMethodName = "This is not the method name you are looking for";
 		try {
-			spyProfilerFrameStackManager.endProfiling(unmatchingMethodName, elapsedTime);
-			fail("An IllegalStateException should have been thrown");
+			manager.endProfiling(unmatchingMethodName, 1L);
+			fail("An IllegalArgumentException should have been thrown");
 		}catch (IllegalArgumentException e){
-			// expected Exception
+			assertEquals("Expected to end profiling on " + methodName + " but got " + unmatchingMethodName, e.getMessage());
 		}
+	}
 
-		verify(mockThreadLocalStack).get();
-		verify(mockFrameStack).pop();
-		verify(mockFrame, times(2)).getName();
+	@Test
+	public void testProfiling_notSampledSlowCall(){
+		when(mockProfileHandler2.shouldCaptureProfile()).thenReturn(true);
+		when(mockProfileHandler2.getUnsampledThresholdMillis()).thenReturn(100L);
+		manager.setHandlers(Collections.singletonList(mockProfileHandler2));
+		manager.setSamplingRatio(0.0);
+
+		manager.startProfiling(methodName);
+		manager.startProfiling(childMethodName);
+		manager.endProfiling(childMethodName, 1L);
+		manager.endProfiling(methodName, 99L);
+
+		verify(mockProfileHandler2, never()).fireProfile(any());
 
-		verifyNoMoreInteractions(mockFrame);
-		verifyNoMoreInteractions(mockThreadLocalStack);
-		verifyNoMoreInteractions(mockFrameStack);
-		verifyNoMoreInteractions(mockProfileHandler1);
-		verifyNoMoreInteractions(mockProfileHandler2);
+		manager.startProfiling(methodName);
+		manager.startProfiling(childMethodName);
+		manager.endProfiling(childMethodName, 150L);
+		manager.endProfiling(methodName, 150L);
+
+		// The slow call is sent without its nested calls
+		ArgumentCaptor<Frame> captor = ArgumentCaptor.forClass(Frame.class);
+		verify(mockProfileHandler2).fireProfile(captor.capture());
+		Frame frame = captor.getValue();
+		assertEquals(methodName, frame.getName());
+		assertEquals(150L, frame.getTotalTimeMilis());
+		assertNull(frame.getChild(childMethodName));
 	}
 
 	@Test
-	public void testEndProfiling_methodNameMatchesTopOfStack_FrameStackNotEmpty(){
-		doNothing().when(spyProfilerFrameStackManager).doFireProfile(mockFrame);
-		when(mockFrameStack.isEmpty()).thenReturn(false);
+	public void testFlushIdleThreads(){
+		when(mockProfileHandler2.shouldCaptureProfile()).thenReturn(true);
+		manager.setHandlers(Collections.singletonList(mockProfileHandler2));
+		manager.setFlushIntervalMillis(1000L);
+
+		// The first call flushes since nothing was ever flushed
+		manager.startProfiling(methodName);
+		manager.endProfiling(methodName, 1L);
+		manager.startProfiling(methodName);
+		manager.endProfiling(methodName, 2L);
+		verify(mockProfileHandler2, times(1)).fireProfile(any());
+
+		now.addAndGet(999L);
+		manager.flushIdleThreads();
+		verify(mockProfileHandler2, times(1)).fireProfile(any());
+
+		now.addAndGet(1L);
+		// call under test
+		manager.flushIdleThreads();
+
+		ArgumentCaptor<Frame> captor = ArgumentCaptor.forClass(Frame.class);
+		verify(mockProfileHandler2, times(2)).fireProfile(captor.capture());
+		assertEquals(2L, captor.getAllValues().get(1).getTotalTimeMilis());
+
+		// Nothing is left to flush
+		now.addAndGet(1000L);
+		manager.flushIdleThreads();
+		verify(mockProfileHandler2, times(2)).fireProfile(any());
+	}
+
+	@Test
+	public void testFlushIdleThreads_activeThread(){
+		when(mockProfileHandler2.shouldCaptureProfile()).thenReturn(true);
+		manager.setHandlers(Collections.singletonList(mockProfileHandler2));
+		manager.setFlushIntervalMillis(1000L);
 
-		spyProfilerFrameStackManager.endProfiling(methodName, elapsedTime);
+		manager.startProfiling(methodName);
+		manager.endProfiling(methodName, 1L);
+		manager.startProfiling(methodName);
+		now.addAndGet(1000L);
 
-		verify(mockThreadLocalStack).get();
-		verify(mockFrameStack).pop();
-		verify(mockFrameStack).isEmpty();
-		verify(mockFrame).addElapsedTime(elapsedTime);
-		verify(mockFrame).getName();
-		verify(spyProfilerFrameStackManager,never()).doFireProfile(any());
+		// call under test
+		manager.flushIdleThreads();
 
-		verifyNoMoreInteractions(mockFrame);
-		verifyNoMoreInteractions(mockThreadLocalStack);
-		verifyNoMoreInteractions(mockFrameStack);
-		verifyNoMoreInteractions(mockProfileHandler1);
-		verifyNoMoreInteractions(mockProfileHandler2);
+		// The frames of a thread in the middle of a call are not touched
+		verify(mockProfileHandler2, times(1)).fireProfile(any());
+		manager.endProfiling(methodName, 2L);
+		verify(mockProfileHandler2, times(2)).fireProfile(any());
 	}
 
 	@Test
-	public void testEndProfiling_methodNameMatchesTopOfStack_FrameStackEmpty(){
-		doNothing().when(spyProfilerFrameStackManager).doFireProfile(mockFrame);
-		when(mockFrameStack.isEmpty()).thenReturn(true);
+	public void testProfiling_suspended(){
+		when(mockProfileHandler2.shouldCaptureProfile()).thenReturn(true);
+		manager.setHandlers(Collections.singletonList(mockProfileHandler2));
 
-		spyProfilerFrameStackManager.endProfiling(methodName, elapsedTime);
+		manager.suspendProfiling();
+		manager.startProfiling(methodName);
+		manager.startProfiling(childMethodName);
+		manager.endProfiling(childMethodName, 1L);
+		manager.endProfiling(methodName, 2L);
+		manager.resumeProfiling();
 
-		verify(mockThreadLocalStack).get();
-		verify(mockFrameStack).pop();
-		verify(mockFrameStack).isEmpty();
-		verify(mockFrame).addElapsedTime(elapsedTime);
-		verify(mockFrame).getName();
-		verify(spyProfilerFrameStackManager).doFireProfile(mockFrame);
+		verify(mockProfileHandler2, never()).fireProfile(any());
+
+		manager.startProfiling(methodName);
+		manager.endProfiling(methodName, 2L);
+
+		verify(mockProfileHandler2).fireProfile(any());
+	}
 
-		verifyNoMoreInteractions(mockFrame);
-		verifyNoMoreInteractions(mockThreadLocalStack);
-		verifyNoMoreInteractions(mockFrameStack);
-		verifyNoMoreInteractions(mockProfileHandler1);
-		verifyNoMoreInteractions(mockProfileHandler2);
+	@Test
+	public void testSetSamplingRatio_outOfRange(){
+		try {
+			manager.setSamplingRatio(1.5);
+			fail("An IllegalArgumentException should have been thrown");
+		}catch (IllegalArgumentException e){
+			assertEquals("The sampling ratio must be between 0 and 1.", e.getMessage());
+		}
 	}
 
+	@Test
+	public void testFrameStack_growsPastInitialCapacity(){
+		FrameStack stack = new FrameStack();
+		int depth = FrameStack.INITIAL_CAPACITY * 2 + 1;
+		for (int i = 0; i < depth; i++) {
+			stack.push(new Frame("frame" + i));
+		}
+		assertEquals(depth, stack.size());
+		for (int i = depth - 1; i >= 0; i--) {
+			assertEquals("frame" + i, stack.pop().getName());
+		}
+		assertTrue(stack.isEmpty());
+	}
 
 }
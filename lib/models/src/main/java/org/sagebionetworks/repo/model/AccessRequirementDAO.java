@@ -92,6 +92,16 @@ public interface AccessRequirementDAO {
 	 */
 	AccessRequirementStats getAccessRequirementStats(List<Long> subjectIds, RestrictableObjectType type);
 
+	/**
+	 * Retrieve the statistic of the access requirements bound directly to each of the given subjects, in a single
+	 * query. Subjects without any access requirement are not included in the results.
+	 * 
+	 * @param subjectIds
+	 * @param type
+	 * @return Map of subject ID to the statistic of the access requirements of the subject
+	 */
+	Map<Long, AccessRequirementStats> getAccessRequirementStatsBySubject(Set<Long> subjectIds, RestrictableObjectType type);
+
 	/**
 	 * Retrieve information to update an AccessRequirement.
 	 * 
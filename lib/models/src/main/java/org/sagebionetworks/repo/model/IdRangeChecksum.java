@@ -0,0 +1,119 @@
+package org.sagebionetworks.repo.model;
+
+import java.util.Objects;
+
+/**
+ * Aggregate of the {@link IdAndChecksum} of all the objects that fall into a
+ * single bucket of a range of object IDs. The checksum of a bucket is the sum
+ * of the checksums of its objects, so two buckets match if they contain the
+ * same objects with the same checksums.
+ *
+ */
+public class IdRangeChecksum {
+
+	private Long bucket;
+	private Long minId;
+	private Long maxId;
+	private Long count;
+	private Long checksum;
+
+	/**
+	 * @return the index of the bucket within the range.
+	 */
+	public Long getBucket() {
+		return bucket;
+	}
+
+	/**
+	 * @param bucket the bucket to set
+	 */
+	public IdRangeChecksum withBucket(Long bucket) {
+		this.bucket = bucket;
+		return this;
+	}
+
+	/**
+	 * @return the smallest object ID in the bucket
+	 */
+	public Long getMinId() {
+		return minId;
+	}
+
+	/**
+	 * @param minId the minId to set
+	 */
+	public IdRangeChecksum withMinId(Long minId) {
+		this.minId = minId;
+		return this;
+	}
+
+	/**
+	 * @return the largest object ID in the bucket
+	 */
+	public Long getMaxId() {
+		return maxId;
+	}
+
+	/**
+	 * @param maxId the maxId to set
+	 */
+	public IdRangeChecksum withMaxId(Long maxId) {
+		this.maxId = maxId;
+		return this;
+	}
+
+	/**
+	 * @return the number of objects in the bucket
+	 */
+	public Long getCount() {
+		return count;
+	}
+
+	/**
+	 * @param count the count to set
+	 */
+	public IdRangeChecksum withCount(Long count) {
+		this.count = count;
+		return this;
+	}
+
+	/**
+	 * @return the sum of the checksums of the objects in the bucket
+	 */
+	public Long getChecksum() {
+		return checksum;
+	}
+
+	/**
+	 * @param checksum the checksum to set
+	 */
+	public IdRangeChecksum withChecksum(Long checksum) {
+		this.checksum = checksum;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(bucket, checksum, count, maxId, minId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof IdRangeChecksum)) {
+			return false;
+		}
+		IdRangeChecksum other = (IdRangeChecksum) obj;
+		return Objects.equals(bucket, other.bucket) && Objects.equals(checksum, other.checksum) && Objects.equals(count, other.count)
+				&& Objects.equals(maxId, other.maxId) && Objects.equals(minId, other.minId);
+	}
+
+	@Override
+	public String toString() {
+		return "IdRangeChecksum [bucket=" + bucket + ", minId=" + minId + ", maxId=" + maxId + ", count=" + count + ", checksum="
+				+ checksum + "]";
+	}
+
+}
@@ -17,6 +17,7 @@ import org.sagebionetworks.repo.web.NotFoundException;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -87,6 +88,15 @@ public interface NodeDAO {
 	 * @throws DatastoreException 
 	 */
 	public Node getNodeForVersion(String id, Long versionNumber);
+
+	/**
+	 * Get the current version of each of the given nodes. Nodes that do not
+	 * exist are not included in the results.
+	 * 
+	 * @param ids
+	 * @return
+	 */
+	public List<Node> getNodes(List<Long> ids);
 	
 	/**
 	 * Deletes the node with the given id. If the node is a container the sub-tree must have less than 15 levels of depth.
@@ -106,6 +116,27 @@ public interface NodeDAO {
 	 * number of nodes and additional calls are needed in order to delete the node.
 	 */
 	public boolean deleteTree(String id, int subTreeLimit);
+	
+	/**
+	 * Records all the nodes in the sub-tree rooted in the node with the given id (excluding the node itself) in a work
+	 * table along with their distance from the node, using a single statement. If a previous purge of the same node was
+	 * interrupted the remaining recorded nodes are kept and the sub-tree is not enumerated again. This method runs in a
+	 * new transaction.
+	 * 
+	 * @param id The id of the root node
+	 * @return The number of nodes recorded for the sub-tree
+	 */
+	public long enumerateSubTreeForPurge(String id);
+	
+	/**
+	 * Deletes a batch of the nodes recorded by {@link #enumerateSubTreeForPurge(String)} starting from the nodes farthest
+	 * from the root, along with their records in the work table. This method runs in a new transaction.
+	 * 
+	 * @param id The id of the root node
+	 * @param limit The maximum number of nodes to delete
+	 * @return The number of nodes that were deleted, 0 once the whole sub-tree is deleted
+	 */
+	public int purgeSubTreeBatch(String id, int limit);
 		
 	/**
 	 * Delete a specific version.
@@ -166,6 +197,16 @@ public interface NodeDAO {
 	 */
 	Annotations getUserAnnotationsForVersion(String id, Long versionNumber);
 
+	/**
+	 * Get the user annotations of the current version of each of the given
+	 * nodes, keyed by node ID. Nodes that do not exist are not included in the
+	 * results.
+	 * 
+	 * @param ids
+	 * @return
+	 */
+	Map<Long, Annotations> getUserAnnotationsForCurrentVersions(List<Long> ids);
+
 	/**
 	 * Get Entity properties that could not be stored as a Node
 	 * @param id
@@ -297,6 +338,15 @@ public interface NodeDAO {
 	@Deprecated 
 	List<Long> getEntityPathIds(String entityId, boolean includeSelf);
 	
+	/**
+	 * Get the IDs of the entities in the path of each of the given nodes, in a single query. Nodes that do not exist
+	 * are not included in the results.
+	 * 
+	 * @param nodeIds
+	 * @return Map of node ID to the IDs of its path, see {@link #getEntityPathIds(String)} for the order of each path.
+	 */
+	Map<Long, List<Long>> getEntityPathIds(Set<Long> nodeIds);
+	
 	/**
 	 * Lookup a node id using its unique path.
 	 * @param path
@@ -507,6 +557,15 @@ public interface NodeDAO {
 	 */
 	public Optional<String> getProjectId(String objectId);
 	
+	/**
+	 * Get the project of each of the given nodes, keyed by node ID. Nodes that
+	 * do not exist or are in the trash are not included in the results.
+	 * 
+	 * @param nodeIds
+	 * @return
+	 */
+	public Map<Long, Long> getProjectIds(List<Long> nodeIds);
+	
 	/**
 	 * A node's permissions benefactor is the node which its permissions are inherited from.
 	 * This is the non-cached version of the node's benefactor.  The returned value is always consistent.
@@ -515,6 +574,15 @@ public interface NodeDAO {
 	 */
 	public String getBenefactor(String beneficiaryId);
 
+	/**
+	 * Get the benefactor of each of the given nodes, keyed by node ID. Nodes
+	 * that do not exist are not included in the results.
+	 * 
+	 * @param beneficiaryIds
+	 * @return
+	 */
+	public Map<Long, Long> getBenefactors(List<Long> beneficiaryIds);
+
 	/**
 	 * Return a set of fileHandleIds that associated with entityId and appear in the provided list.
 	 * 
@@ -676,6 +744,34 @@ public interface NodeDAO {
 	 */
 	public List<IdAndChecksum> getIdsAndChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes);
 	
+	/**
+	 * Get all of the IdAndChecksums for children of the given parents with an ID
+	 * within the given range (inclusive).
+	 * 
+	 * @param salt
+	 * @param parentIds
+	 * @param subTypes
+	 * @param minId
+	 * @param maxId
+	 * @return
+	 */
+	public List<IdAndChecksum> getIdsAndChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes, Long minId, Long maxId);
+	
+	/**
+	 * Get the aggregated checksum of the children of the given parents with an ID
+	 * within the given range (inclusive). Children are grouped in buckets of
+	 * bucketSize IDs starting from minId, only non-empty buckets are returned.
+	 * 
+	 * @param salt
+	 * @param parentIds
+	 * @param subTypes
+	 * @param minId
+	 * @param maxId
+	 * @param bucketSize
+	 * @return
+	 */
+	public List<IdRangeChecksum> getIdRangeChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes, Long minId, Long maxId, Long bucketSize);
+	
 	/**
 	 * Get a single page of IdAndChecksums for the given objectIds.
 	 * @param objectIds
@@ -168,6 +168,13 @@ public class TableConstants {
 	public static final String REPLICATION_SYNC_EXP_COL_OBJECT_ID 			= "OBJECT_ID";
 	public static final String REPLICATION_SYNC_EXP_COL_EXPIRES				= "EXPIRES_MS";
 	
+	// PROJECT_STORAGE_LEDGER
+	public static final String PROJECT_STORAGE_LEDGER_TABLE					= "PROJECT_STORAGE_LEDGER";
+	public static final String PROJECT_STORAGE_LEDGER_COL_OBJECT_TYPE		= "OBJECT_TYPE";
+	public static final String PROJECT_STORAGE_LEDGER_COL_PROJECT_ID		= "PROJECT_ID";
+	public static final String PROJECT_STORAGE_LEDGER_COL_SIZE_IN_BYTES		= "SIZE_IN_BYTES";
+	public static final String PROJECT_STORAGE_LEDGER_COL_FILE_COUNT		= "FILE_COUNT";
+	
 	public static final String ANNOTATION_KEYS_PARAM_NAME = "annotationKeys";
 
 	public static final String SUBTYPE_PARAM_NAME = "subTypes";
@@ -270,6 +277,9 @@ public class TableConstants {
 	public static final String TRUNCATE_OBJECT_REPLICATION_TABLE = 
 			"DELETE FROM "+OBJECT_REPLICATION_TABLE;	
 	
+	public static final String TRUNCATE_PROJECT_STORAGE_LEDGER_TABLE = 
+			"DELETE FROM "+PROJECT_STORAGE_LEDGER_TABLE;
+	
 	public static final String OBJECT_REPLICATION_ALIAS = "R";
 	public static final String ANNOTATION_REPLICATION_ALIAS = "A";
 		
@@ -84,6 +84,18 @@ public interface V2WikiPageDao {
 	 * @throws NotFoundException
 	 */
 	public String getMarkdown(WikiPageKey key, Long version) throws IOException, NotFoundException;
+
+	/**
+	 * Get the markdown stored in the given markdown file handle as a string.
+	 * Since a new file handle is created for each version of the markdown, the
+	 * result can be cached by file handle ID.
+	 * 
+	 * @param markdownFileHandleId
+	 * @return
+	 * @throws IOException
+	 * @throws NotFoundException
+	 */
+	public String getMarkdownForFileHandle(String markdownFileHandleId) throws IOException, NotFoundException;
 	
 	/**
 	 * Get ALL the file handle ids used (in the past/currently) for a wiki page.
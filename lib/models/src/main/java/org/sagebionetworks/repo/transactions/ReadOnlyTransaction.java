@@ -0,0 +1,26 @@
+package org.sagebionetworks.repo.transactions;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Used on a method that only reads from the database. If there is no existing
+ * transaction a new read-only transaction is started that can be served by the
+ * read replica of the database, otherwise the method joins the existing
+ * transaction (and its database).
+ * </p>
+ * Transaction-isolation-level = READ_COMMITED. Warning: The data read from the
+ * replica might lag behind the main database, any data that is read in order
+ * to be written must be read within a write transaction.
+ */
+@Target({ ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface ReadOnlyTransaction {
+
+}
@@ -111,6 +111,23 @@ public interface StackConfiguration {
 	 */
 	public String getRepositoryDatabaseConnectionUrl();
 
+	/**
+	 * The connection string of the read replica of the repository database.
+	 * 
+	 * @return null if there is no read replica, in which case read-only
+	 *         transactions use the main database
+	 */
+	public String getRepositoryDatabaseReplicaConnectionUrl();
+
+	/**
+	 * The maximum replication lag of the read replica of the repository database
+	 * in MS, read-only transactions use the main database while the replica lags
+	 * behind more than this.
+	 * 
+	 * @return
+	 */
+	public long getRepositoryDatabaseReplicaMaxLagMS();
+
 	/**
 	 * The repository database schema name.
 	 * 
@@ -264,6 +281,14 @@ public interface StackConfiguration {
 	 */
 	public boolean getSearchEnabled();
 
+	/**
+	 * Should the number of views of a discussion thread be estimated from a
+	 * HyperLogLog sketch of its viewers, instead of being counted?
+	 * 
+	 * @return
+	 */
+	public boolean getDiscussionThreadViewEstimateEnabled();
+
 	/**
 	 * Is the DOI feature enabled?
 	 * 
@@ -645,6 +670,13 @@ public interface StackConfiguration {
 	 */
 	public boolean getDeliverEmail();
 
+	/**
+	 * @return The maximum number of emails sent per second when the emails are
+	 *         sent in bulk and written to files rather than delivered, the
+	 *         delivered emails are sent within the SES sending quota
+	 */
+	public double getEmailMaxSendRate();
+
 	/*
 	 * Credentials used by CloudMailIn to send authenticated requests to the repo
 	 * services.
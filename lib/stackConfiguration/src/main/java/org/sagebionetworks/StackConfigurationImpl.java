@@ -226,6 +226,31 @@ public class StackConfigurationImpl implements StackConfiguration {
 		return configuration.getProperty("org.sagebionetworks.repository.database.connection.url");
 	}
 
+	@Override
+	public String getRepositoryDatabaseReplicaConnectionUrl() {
+		// First try to load the system property
+		String jdbcConnection = System.getProperty("REPLICA_JDBC_CONNECTION_STRING");
+		if (jdbcConnection != null && !"".equals(jdbcConnection))
+			return jdbcConnection;
+		// Now try the environment variable
+		jdbcConnection = System.getenv("REPLICA_JDBC_CONNECTION_STRING");
+		if (jdbcConnection != null && !"".equals(jdbcConnection))
+			return jdbcConnection;
+		// Last try the stack configuration
+		if (configuration.hasProperty("org.sagebionetworks.repository.database.replica.connection.url")) {
+			jdbcConnection = configuration.getProperty("org.sagebionetworks.repository.database.replica.connection.url");
+			if (!"".equals(jdbcConnection)) {
+				return jdbcConnection;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public long getRepositoryDatabaseReplicaMaxLagMS() {
+		return Long.parseLong(configuration.getProperty("org.sagebionetworks.repository.database.replica.max.lag.ms"));
+	}
+
 	/**
 	 * The repository database schema name.
 	 * 
@@ -442,6 +467,11 @@ public class StackConfigurationImpl implements StackConfiguration {
 		return Boolean.parseBoolean(configuration.getProperty("org.sagebionetworks.search.enabled"));
 	}
 
+	@Override
+	public boolean getDiscussionThreadViewEstimateEnabled() {
+		return Boolean.parseBoolean(configuration.getProperty("org.sagebionetworks.discussion.thread.view.estimate.enabled"));
+	}
+
 	/**
 	 * Is the DOI feature enabled?
 	 * 
@@ -976,6 +1006,11 @@ public class StackConfigurationImpl implements StackConfiguration {
 		return Boolean.parseBoolean(emailDeliveredString);
 	}
 
+	@Override
+	public double getEmailMaxSendRate() {
+		return Double.parseDouble(configuration.getProperty("org.sagebionetworks.email.max.send.rate"));
+	}
+
 	/*
 	 * Credentials used by CloudMailIn to send authenticated requests to the repo
 	 * services.
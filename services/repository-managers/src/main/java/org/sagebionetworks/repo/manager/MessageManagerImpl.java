@@ -16,6 +16,7 @@ import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.repo.manager.SendRawEmailRequestBuilder.BodyType;
 import org.sagebionetworks.repo.manager.file.FileHandleManager;
 import org.sagebionetworks.repo.manager.file.FileHandleUrlRequest;
+import org.sagebionetworks.repo.manager.principal.BulkEmailSender;
 import org.sagebionetworks.repo.manager.principal.SynapseEmailService;
 import org.sagebionetworks.repo.model.ACCESS_TYPE;
 import org.sagebionetworks.repo.model.ACLInheritanceException;
@@ -83,6 +84,11 @@ public class MessageManagerImpl implements MessageManager {
 	 */
 	private static final long MESSAGE_CREATION_INTERVAL_MILLISECONDS = 60000L;
 	
+	/**
+	 * The maximum number of emails of a message that are sent together
+	 */
+	protected static final int EMAIL_BATCH_SIZE = 500;
+	
 	// Message templates
 	private static final String MESSAGE_TEMPLATE_PASSWORD_CHANGE_CONFIRMATION = "message/PasswordChangeConfirmationTemplate.txt";
 
@@ -120,7 +126,9 @@ public class MessageManagerImpl implements MessageManager {
 	
 	private EmailQuarantineDao emailQuarantineDao;
 	
-	// Note: This class has 14 dependencies, needs refactoring
+	private BulkEmailSender bulkEmailSender;
+	
+	// Note: This class has 15 dependencies, needs refactoring
 	@Autowired
 	public MessageManagerImpl(MessageDAO messageDAO, UserGroupDAO userGroupDAO,
 			GroupMembersDAO groupMembersDAO, UserManager userManager,
@@ -132,7 +140,8 @@ public class MessageManagerImpl implements MessageManager {
 			FileHandleManager fileHandleManager, NodeDAO nodeDAO,
 			EntityAclManager entityAclManager,
 			FileHandleDao fileHandleDao,
-			EmailQuarantineDao emailQuarantineDao) {
+			EmailQuarantineDao emailQuarantineDao,
+			BulkEmailSender bulkEmailSender) {
 		this.messageDAO = messageDAO;
 		this.userGroupDAO = userGroupDAO;
 		this.groupMembersDAO = groupMembersDAO;
@@ -147,6 +156,7 @@ public class MessageManagerImpl implements MessageManager {
 		this.entityAclManager = entityAclManager;
 		this.fileHandleDao = fileHandleDao;
 		this.emailQuarantineDao = emailQuarantineDao;
+		this.bulkEmailSender = bulkEmailSender;
 	}
 	
 	@Override
@@ -402,6 +412,7 @@ public class MessageManagerImpl implements MessageManager {
 		Set<String> recipients = expandRecipientSet(userInfo, dto.getRecipients(), errors);
 		
 		// Now that the recipients list has been expanded, begin processing the message
+		List<EmailRecipient> emailRecipients = new ArrayList<EmailRecipient>();
 		for (String userId : recipients) {
 			// Try to send messages to each user individually
 			try {
@@ -423,22 +434,37 @@ public class MessageManagerImpl implements MessageManager {
 				// Should emails be sent?
 				if (settings.getSendEmailNotifications() == null || settings.getSendEmailNotifications()) {
 					String email = getEmailForUser(Long.parseLong(userId));
-					
-					if (emailQuarantineDao.isQuarantined(email)) {
-						errors.add("Cannot deliver message to recipient (" + userId + "). The recipient does not have a valid notification email.");
-						continue;
-					}
-					
-					SendRawEmailRequestBuilder.BodyType bodyType;
-					if (ContentType.APPLICATION_JSON.getMimeType().equals(mimeType)) {
-						bodyType = SendRawEmailRequestBuilder.BodyType.JSON;
-					} else {
-						boolean isHtml= ContentType.TEXT_HTML.getMimeType().equals(mimeType);
-						bodyType = isHtml ? SendRawEmailRequestBuilder.BodyType.HTML : SendRawEmailRequestBuilder.BodyType.PLAIN_TEXT;
-					}
-
+					// Should the message be marked as READ once emailed?
+					boolean markAsRead = settings.getMarkEmailedMessagesAsRead() != null && settings.getMarkEmailedMessagesAsRead();
+					emailRecipients.add(new EmailRecipient(userId, email, markAsRead));
+				}
+			} catch (Exception e) {
+				LOG.info("Error caught while processing message", e);
+				errors.add("Failed while processing message for recipient (" + userId + "): " + e.getMessage());
+			}
+		}
+		
+		SendRawEmailRequestBuilder.BodyType bodyType;
+		if (ContentType.APPLICATION_JSON.getMimeType().equals(mimeType)) {
+			bodyType = SendRawEmailRequestBuilder.BodyType.JSON;
+		} else {
+			boolean isHtml= ContentType.TEXT_HTML.getMimeType().equals(mimeType);
+			bodyType = isHtml ? SendRawEmailRequestBuilder.BodyType.HTML : SendRawEmailRequestBuilder.BodyType.PLAIN_TEXT;
+		}
+		
+		// The emails are sent in batches, with a single quarantine lookup per batch
+		for (List<EmailRecipient> batch : Lists.partition(emailRecipients, EMAIL_BATCH_SIZE)) {
+			Set<String> quarantinedEmails = emailQuarantineDao.getQuarantinedEmails(Lists.transform(batch, EmailRecipient::getEmail));
+			List<EmailRecipient> sendTo = new ArrayList<EmailRecipient>(batch.size());
+			List<SendRawEmailRequest> emailRequests = new ArrayList<SendRawEmailRequest>(batch.size());
+			for (EmailRecipient recipient : batch) {
+				if (quarantinedEmails.contains(recipient.getEmail())) {
+					errors.add("Cannot deliver message to recipient (" + recipient.getUserId() + "). The recipient does not have a valid notification email.");
+					continue;
+				}
+				try {
 					SendRawEmailRequest sendRawEmailRequest = new SendRawEmailRequestBuilder()
-						.withRecipientEmail(email)
+						.withRecipientEmail(recipient.getEmail())
 						.withSubject(dto.getSubject())
 						.withTo(dto.getTo())
 						.withCc(dto.getCc())
@@ -446,31 +472,42 @@ public class MessageManagerImpl implements MessageManager {
 						.withBody(messageBody, bodyType)
 						.withSenderUserName(senderUserName)
 						.withSenderDisplayName(senderDisplayName)
-						.withUserId(userId)
+						.withUserId(recipient.getUserId())
 						.withNotificationUnsubscribeEndpoint(dto.getNotificationUnsubscribeEndpoint())
 						.withUnsubscribeLink(dto.getWithUnsubscribeLink())
 						.withUserProfileSettingEndpoint(dto.getUserProfileSettingEndpoint())
 						.withProfileSettingLink(dto.getWithProfileSettingLink())
 						.withIsNotificationMessage(dto.getIsNotificationMessage())
 						.build();
-					sesClient.sendRawEmail(sendRawEmailRequest);
-					// Should the message be marked as READ?
-					if (settings.getMarkEmailedMessagesAsRead() != null && settings.getMarkEmailedMessagesAsRead()) {
-						userMessageStatus = MessageStatusType.READ;
-					}
+					sendTo.add(recipient);
+					emailRequests.add(sendRawEmailRequest);
+				} catch (Exception e) {
+					LOG.info("Error caught while processing message", e);
+					errors.add("Failed while processing message for recipient (" + recipient.getUserId() + "): " + e.getMessage());
 				}
-				
-				if (userMessageStatus!=null) {
-					// the status has been changed, so we have to update it again
-					MessageStatus messageStatus = new MessageStatus();
-					messageStatus.setMessageId(dto.getId());
-					messageStatus.setRecipientId(userId);
-					messageStatus.setStatus(userMessageStatus);
-					messageDAO.updateMessageStatus(messageStatus);
+			}
+			
+			Map<Integer, RuntimeException> failures = bulkEmailSender.sendRawEmails(emailRequests);
+			
+			for (int i = 0; i < sendTo.size(); i++) {
+				EmailRecipient recipient = sendTo.get(i);
+				try {
+					RuntimeException failure = failures.get(i);
+					if (failure != null) {
+						throw failure;
+					}
+					if (recipient.isMarkAsRead()) {
+						// the status has been changed, so we have to update it again
+						MessageStatus messageStatus = new MessageStatus();
+						messageStatus.setMessageId(dto.getId());
+						messageStatus.setRecipientId(recipient.getUserId());
+						messageStatus.setStatus(MessageStatusType.READ);
+						messageDAO.updateMessageStatus(messageStatus);
+					}
+				} catch (Exception e) {
+					LOG.info("Error caught while processing message", e);
+					errors.add("Failed while processing message for recipient (" + recipient.getUserId() + "): " + e.getMessage());
 				}
-			} catch (Exception e) {
-				LOG.info("Error caught while processing message", e);
-				errors.add("Failed while processing message for recipient (" + userId + "): " + e.getMessage());
 			}
 		}
 		
@@ -708,4 +745,32 @@ public class MessageManagerImpl implements MessageManager {
 		LOG.warn("Cannot send {} to quarantined address: {}", messageType, email);
 	}
 
+	/**
+	 * A recipient of a message that should receive the message by email
+	 */
+	private static final class EmailRecipient {
+		
+		private final String userId;
+		private final String email;
+		private final boolean markAsRead;
+		
+		EmailRecipient(String userId, String email, boolean markAsRead) {
+			this.userId = userId;
+			this.email = email;
+			this.markAsRead = markAsRead;
+		}
+		
+		String getUserId() {
+			return userId;
+		}
+		
+		String getEmail() {
+			return email;
+		}
+		
+		boolean isMarkAsRead() {
+			return markAsRead;
+		}
+	}
+
 }
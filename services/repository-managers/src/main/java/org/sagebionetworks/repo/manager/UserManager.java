@@ -26,6 +26,12 @@ public interface UserManager {
 	 */
 	UserInfo getUserInfo(Long principalId) throws NotFoundException;
 	
+	/**
+	 * Publishes the hit rate and average load time of the principal context cache used by
+	 * {@link #getUserInfo(Long)} since the last call. Called from a timer.
+	 */
+	void publishPrincipalContextCacheMetrics();
+	
 	/**
 	 * Creates a new user
 	 * 
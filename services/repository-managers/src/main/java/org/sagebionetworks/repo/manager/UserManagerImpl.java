@@ -1,18 +1,25 @@
 package org.sagebionetworks.repo.manager;
 
+import java.time.Duration;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import javax.annotation.PostConstruct;
+
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.ProfileData;
 import org.sagebionetworks.repo.manager.principal.NewUserUtils;
 import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL;
 import org.sagebionetworks.repo.model.AuthorizationUtils;
 import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.GroupMembersDAO;
 import org.sagebionetworks.repo.model.NameConflictException;
+import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.SessionIdThreadLocal;
 import org.sagebionetworks.repo.model.TeamConstants;
 import org.sagebionetworks.repo.model.UnauthorizedException;
@@ -29,6 +36,10 @@ import org.sagebionetworks.repo.model.dbo.DBOBasicDao;
 import org.sagebionetworks.repo.model.dbo.persistence.DBOCredential;
 import org.sagebionetworks.repo.model.dbo.persistence.DBOTermsOfUseAgreement;
 import org.sagebionetworks.repo.model.dbo.principal.PrincipalOIDCBindingDao;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.repo.model.message.LocalStackMessage;
+import org.sagebionetworks.repo.model.message.TransactionalMessenger;
+import org.sagebionetworks.repo.model.message.TransactionalMessengerObserver;
 import org.sagebionetworks.repo.model.oauth.OAuthProvider;
 import org.sagebionetworks.repo.model.principal.AliasType;
 import org.sagebionetworks.repo.model.principal.PrincipalAlias;
@@ -39,9 +50,30 @@ import org.sagebionetworks.securitytools.HMACUtils;
 import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
-public class UserManagerImpl implements UserManager {
+public class UserManagerImpl implements UserManager, TransactionalMessengerObserver {
+	
+	/**
+	 * The maximum number of principals kept in the principal context cache
+	 */
+	public static final long PRINCIPAL_CONTEXT_CACHE_MAX_SIZE = 10_000;
+	/**
+	 * Change messages are only observed by the instance that committed the change, entries expire
+	 * after a short time to bound how stale the context seen by the other instances can be.
+	 */
+	public static final Duration PRINCIPAL_CONTEXT_CACHE_EXPIRATION = Duration.ofSeconds(30);
+	
+	public static final String PRINCIPAL_CONTEXT_CACHE_METRIC_NAMESPACE = "PrincipalContextCache";
+	public static final String METRIC_HIT_RATE = "hitRate";
+	public static final String METRIC_AVERAGE_LOAD_TIME = "averageLoadTime";
 
 	private final UserGroupDAO userGroupDAO;
 	private final UserProfileDAO userProfileDAO;
@@ -58,11 +90,21 @@ public class UserManagerImpl implements UserManager {
 	 */
 	private final DBOBasicDao basicDAO;
 	
+	private final TransactionalMessenger transactionalMessenger;
+	private final Consumer consumer;
+	
+	/**
+	 * Caches the groups, admin flag, ToU and 2FA state of principals, keyed by principal ID
+	 */
+	private final LoadingCache<Long, PrincipalContext> principalContextCache;
+	
+	private CacheStats lastPublishedStats;
+	
 	@Autowired
 	public UserManagerImpl(UserGroupDAO userGroupDAO, UserProfileDAO userProfileDAO, GroupMembersDAO groupMembersDAO,
 			AuthenticationDAO authDAO, PrincipalAliasDAO principalAliasDAO, NotificationEmailDAO notificationEmailDao,
 			PrincipalOIDCBindingDao principalOIDCBindingDao,
-			DBOBasicDao basicDAO) {
+			DBOBasicDao basicDAO, TransactionalMessenger transactionalMessenger, Consumer consumer) {
 		super();
 		this.userGroupDAO = userGroupDAO;
 		this.userProfileDAO = userProfileDAO;
@@ -72,6 +114,25 @@ public class UserManagerImpl implements UserManager {
 		this.notificationEmailDao = notificationEmailDao;
 		this.principalOIDCBindingDao = principalOIDCBindingDao;
 		this.basicDAO = basicDAO;
+		this.transactionalMessenger = transactionalMessenger;
+		this.consumer = consumer;
+		this.principalContextCache = CacheBuilder.newBuilder()
+			.maximumSize(PRINCIPAL_CONTEXT_CACHE_MAX_SIZE)
+			.expireAfterWrite(PRINCIPAL_CONTEXT_CACHE_EXPIRATION)
+			.recordStats()
+			.build(CacheLoader.from(this::loadPrincipalContext));
+		this.lastPublishedStats = principalContextCache.stats();
+	}
+	
+	/**
+	 * Called by Spring when this bean is created, registers this manager as an observer of the
+	 * TransactionalMessenger so that changes to principals invalidate the cached context
+	 */
+	@PostConstruct
+	public void initialize() {
+		// We only want to be in the list once
+		transactionalMessenger.removeObserver(this);
+		transactionalMessenger.registerObserver(this);
 	}
 
 	@Override
@@ -194,6 +255,35 @@ public class UserManagerImpl implements UserManager {
 
 	@Override
 	public UserInfo getUserInfo(Long principalId) throws NotFoundException {
+		PrincipalContext principalContext = getPrincipalContext(principalId);
+		UserInfo ui = new UserInfo(principalContext.isAdmin());
+		ui.setId(principalId);
+		ui.setCreationDate(principalContext.getCreationDate());
+		// Put all the pieces together, the groups are copied since the caller might modify them
+		ui.setGroups(new HashSet<>(principalContext.getGroups()));
+		ui.setAcceptsTermsOfUse(principalContext.acceptsTermsOfUse());
+		ui.setTwoFactorAuthEnabled(principalContext.isTwoFactorAuthEnabled());
+		ui.setContext(new CallersContext().setSessionId(SessionIdThreadLocal.getThreadsSessionId().orElse("missing")));
+		return ui;
+	}
+	
+	private PrincipalContext getPrincipalContext(Long principalId) {
+		try {
+			return principalContextCache.getUnchecked(principalId);
+		} catch (UncheckedExecutionException e) {
+			// Surface the original exception thrown while loading (e.g. a NotFoundException)
+			Throwables.throwIfUnchecked(e.getCause());
+			throw e;
+		}
+	}
+	
+	/**
+	 * Loads the context of the principal with the given id from the database
+	 * 
+	 * @param principalId
+	 * @return
+	 */
+	PrincipalContext loadPrincipalContext(Long principalId) {
 		UserGroup principal = userGroupDAO.get(principalId);
 		if(!principal.getIsIndividual()) throw new IllegalArgumentException("Principal: "+principalId+" is not a User");
 		// Lookup the user's name
@@ -222,15 +312,60 @@ public class UserManagerImpl implements UserManager {
 		if(groups.contains(TeamConstants.ADMINISTRATORS_TEAM_ID)){
 			isAdmin = true;
 		}
-		UserInfo ui = new UserInfo(isAdmin);
-		ui.setId(principalId);
-		ui.setCreationDate(principal.getCreationDate());
-		// Put all the pieces together
-		ui.setGroups(groups);
-		ui.setAcceptsTermsOfUse(authDAO.hasUserAcceptedToU(principalId));
-		ui.setTwoFactorAuthEnabled(authDAO.isTwoFactorAuthEnabled(principalId));
-		ui.setContext(new CallersContext().setSessionId(SessionIdThreadLocal.getThreadsSessionId().orElse("missing")));
-		return ui;
+		boolean acceptsTermsOfUse = authDAO.hasUserAcceptedToU(principalId);
+		boolean twoFactorAuthEnabled = authDAO.isTwoFactorAuthEnabled(principalId);
+		return new PrincipalContext(principal.getCreationDate(), groups, isAdmin, acceptsTermsOfUse, twoFactorAuthEnabled);
+	}
+	
+	/**
+	 * Removes the context of the given principal from the cache. Membership changes send an update for
+	 * each affected member, so only the entry of the given principal is removed.
+	 * 
+	 * @param principalId
+	 */
+	void invalidatePrincipalContext(Long principalId) {
+		principalContextCache.invalidate(principalId);
+	}
+	
+	@Override
+	public void fireChangeMessage(ChangeMessage message) {
+		// Team membership, ToU and 2FA changes are all sent as principal updates
+		if (!ObjectType.PRINCIPAL.equals(message.getObjectType())) {
+			return;
+		}
+		invalidatePrincipalContext(Long.parseLong(message.getObjectId()));
+	}
+	
+	@Override
+	public void fireLocalStackMessage(LocalStackMessage message) {
+		// Local stack messages do not affect the principal context
+	}
+	
+	@Override
+	public void publishPrincipalContextCacheMetrics() {
+		CacheStats currentStats = principalContextCache.stats();
+		CacheStats periodStats = currentStats.minus(lastPublishedStats);
+		lastPublishedStats = currentStats;
+		if (periodStats.requestCount() == 0) {
+			return;
+		}
+		Date now = new Date();
+		consumer.addProfileData(createCacheMetric(METRIC_HIT_RATE, periodStats.hitRate() * 100, StandardUnit.Percent, now));
+		if (periodStats.loadCount() > 0) {
+			// The load penalty is in nanoseconds
+			double averageLoadTimeMs = periodStats.averageLoadPenalty() / 1_000_000;
+			consumer.addProfileData(createCacheMetric(METRIC_AVERAGE_LOAD_TIME, averageLoadTimeMs, StandardUnit.Milliseconds, now));
+		}
+	}
+	
+	private static ProfileData createCacheMetric(String name, double value, StandardUnit unit, Date timestamp) {
+		ProfileData profileData = new ProfileData();
+		profileData.setNamespace(PRINCIPAL_CONTEXT_CACHE_METRIC_NAMESPACE);
+		profileData.setName(name);
+		profileData.setValue(value);
+		profileData.setUnit(unit.name());
+		profileData.setTimestamp(timestamp);
+		return profileData;
 	}
 
 	@WriteTransaction
@@ -241,6 +376,7 @@ public class UserManagerImpl implements UserManager {
 		}
 		
 		userGroupDAO.delete(principalId.toString());
+		invalidatePrincipalContext(principalId);
 	}
 
 	@Override
@@ -309,6 +445,47 @@ public class UserManagerImpl implements UserManager {
 	@Override
 	public void truncateAll() {
 		userGroupDAO.truncateAll();
+		principalContextCache.invalidateAll();
+	}
+	
+	/**
+	 * The immutable, cacheable part of a {@link UserInfo}
+	 */
+	static class PrincipalContext {
+		
+		private final Date creationDate;
+		private final Set<Long> groups;
+		private final boolean isAdmin;
+		private final boolean acceptsTermsOfUse;
+		private final boolean twoFactorAuthEnabled;
+		
+		PrincipalContext(Date creationDate, Set<Long> groups, boolean isAdmin, boolean acceptsTermsOfUse, boolean twoFactorAuthEnabled) {
+			this.creationDate = creationDate;
+			this.groups = Collections.unmodifiableSet(groups);
+			this.isAdmin = isAdmin;
+			this.acceptsTermsOfUse = acceptsTermsOfUse;
+			this.twoFactorAuthEnabled = twoFactorAuthEnabled;
+		}
+		
+		Date getCreationDate() {
+			return creationDate;
+		}
+		
+		Set<Long> getGroups() {
+			return groups;
+		}
+		
+		boolean isAdmin() {
+			return isAdmin;
+		}
+		
+		boolean acceptsTermsOfUse() {
+			return acceptsTermsOfUse;
+		}
+		
+		boolean isTwoFactorAuthEnabled() {
+			return twoFactorAuthEnabled;
+		}
 	}
 
 }
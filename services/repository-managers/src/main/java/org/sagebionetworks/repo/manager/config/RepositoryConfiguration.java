@@ -250,4 +250,22 @@ public class RepositoryConfiguration {
 		return Executors.newCachedThreadPool();
 	}
 	
+	/**
+	 * @return The pool used to compute the search content of the table rows when a search index is rebuilt, the work
+	 *         is CPU bound so the pool is bounded by the number of processors
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService tableSearchIndexThreadPool() {
+		return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * @return The pool used to tag the archived objects in S3 concurrently, the size of the pool bounds the number of
+	 *         concurrent S3 requests while the tagging rate is bounded by the archival manager
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService fileHandleArchivalThreadPool() {
+		return Executors.newFixedThreadPool(10);
+	}
+	
 }
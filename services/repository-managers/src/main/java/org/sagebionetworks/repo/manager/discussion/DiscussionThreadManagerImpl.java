@@ -71,6 +71,8 @@ public class DiscussionThreadManagerImpl implements DiscussionThreadManager {
 	private AccessControlListDAO aclDao;
 	@Autowired
 	private GroupMembersDAO groupMembersDao;
+	@Autowired
+	private DiscussionThreadViewAggregator threadViewAggregator;
 
 	@WriteTransaction
 	@Override
@@ -105,7 +107,6 @@ public class DiscussionThreadManagerImpl implements DiscussionThreadManager {
 		return thread;
 	}
 
-	@WriteTransaction
 	@Override
 	public DiscussionThreadBundle getThread(UserInfo userInfo, String threadId) {
 		ValidateArgument.required(threadId, "threadId");
@@ -121,17 +122,8 @@ public class DiscussionThreadManagerImpl implements DiscussionThreadManager {
 		} else {
 			authorizationManager.canAccess(userInfo, thread.getProjectId(), ObjectType.ENTITY, ACCESS_TYPE.READ).checkAuthorizationOrElseThrow();
 		}
-		threadDao.updateThreadView(threadIdLong, userInfo.getId());
-		
-		// An additional message is sent to re-compute the statistics about the thread
-		MessageToSend changeMessage = new MessageToSend()
-			.withUserId(userInfo.getId())
-			.withObjectType(ObjectType.THREAD_VIEW)
-			.withObjectId(threadId)
-			.withChangeType(ChangeType.UPDATE);
-				
-		transactionalMessenger.sendMessageAfterCommit(changeMessage);
-		
+		// The statistics of the thread are re-computed once the view is written
+		threadViewAggregator.recordView(threadIdLong, userInfo.getId());
 		return thread;
 	}
 
@@ -265,7 +257,7 @@ public class DiscussionThreadManagerImpl implements DiscussionThreadManager {
 		ValidateArgument.required(messageKey, "messageKey");
 		String threadId = MessageKeyUtils.getThreadId(messageKey);
 		checkPermission(userInfo, threadId, ACCESS_TYPE.READ);
-		threadDao.updateThreadView(Long.parseLong(threadId), userInfo.getId());
+		threadViewAggregator.recordView(Long.parseLong(threadId), userInfo.getId());
 		return uploadDao.getThreadUrl(messageKey);
 	}
 
@@ -0,0 +1,25 @@
+package org.sagebionetworks.repo.manager.discussion;
+
+/**
+ * Buffers the views of the discussion threads in memory so that they are
+ * written to the database in batches rather than on each read of a thread.
+ *
+ */
+public interface DiscussionThreadViewAggregator {
+
+	/**
+	 * Record that the given user viewed the given thread. Repeated views of a
+	 * thread by the same user are only recorded once per window.
+	 *
+	 * @param threadId
+	 * @param userId
+	 */
+	void recordView(long threadId, long userId);
+
+	/**
+	 * Driven by a timer. Writes the views recorded since the last flush and
+	 * sends a message to re-compute the statistics of each viewed thread.
+	 */
+	void flush();
+
+}
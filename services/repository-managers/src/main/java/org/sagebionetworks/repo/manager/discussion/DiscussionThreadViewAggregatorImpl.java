@@ -0,0 +1,134 @@
+package org.sagebionetworks.repo.manager.discussion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PreDestroy;
+
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.dbo.dao.discussion.DiscussionThreadDAO;
+import org.sagebionetworks.repo.model.message.ChangeType;
+import org.sagebionetworks.repo.model.message.MessageToSend;
+import org.sagebionetworks.repo.model.message.TransactionalMessenger;
+import org.sagebionetworks.repo.transactions.WriteTransaction;
+import org.sagebionetworks.util.Clock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class DiscussionThreadViewAggregatorImpl implements DiscussionThreadViewAggregator {
+
+	/**
+	 * A user who keeps reading the same thread is only recorded once in this
+	 * window.
+	 */
+	public static final long DEDUPLICATION_WINDOW_MS = 10 * 60 * 1000L;
+
+	/**
+	 * Bounds the memory used to remember the recent views, beyond this the views
+	 * are still recorded but no longer deduplicated until the next flush.
+	 */
+	public static final int MAX_RECENT_VIEWS = 100_000;
+
+	private final DiscussionThreadDAO threadDao;
+	private final TransactionalMessenger transactionalMessenger;
+	private final Clock clock;
+
+	// The last time each view was recorded
+	private final Map<ThreadView, Long> recentViews = new ConcurrentHashMap<>();
+	private final Set<ThreadView> pendingViews = ConcurrentHashMap.newKeySet();
+
+	@Autowired
+	public DiscussionThreadViewAggregatorImpl(DiscussionThreadDAO threadDao, TransactionalMessenger transactionalMessenger, Clock clock) {
+		this.threadDao = threadDao;
+		this.transactionalMessenger = transactionalMessenger;
+		this.clock = clock;
+	}
+
+	@Override
+	public void recordView(long threadId, long userId) {
+		ThreadView view = new ThreadView(threadId, userId);
+		long now = clock.currentTimeMillis();
+		Long lastRecorded = recentViews.get(view);
+		if (lastRecorded != null && now - lastRecorded < DEDUPLICATION_WINDOW_MS) {
+			return;
+		}
+		if (lastRecorded != null || recentViews.size() < MAX_RECENT_VIEWS) {
+			recentViews.put(view, now);
+		}
+		pendingViews.add(view);
+	}
+
+	@WriteTransaction
+	@Override
+	@PreDestroy
+	public void flush() {
+		long now = clock.currentTimeMillis();
+		recentViews.values().removeIf((Long lastRecorded) -> now - lastRecorded >= DEDUPLICATION_WINDOW_MS);
+
+		List<ThreadView> views = new ArrayList<>();
+		Map<Long, Set<Long>> viewersByThreadId = new HashMap<>();
+		Iterator<ThreadView> iterator = pendingViews.iterator();
+		while (iterator.hasNext()) {
+			ThreadView view = iterator.next();
+			iterator.remove();
+			views.add(view);
+			viewersByThreadId.computeIfAbsent(view.threadId, (Long threadId) -> new TreeSet<>()).add(view.userId);
+		}
+		if (views.isEmpty()) {
+			return;
+		}
+		try {
+			threadDao.updateThreadViews(viewersByThreadId);
+		} catch (RuntimeException e) {
+			// The views are written with the next flush
+			pendingViews.addAll(views);
+			throw e;
+		}
+		for (Map.Entry<Long, Set<Long>> entry : viewersByThreadId.entrySet()) {
+			// A message is sent to re-compute the statistics about the thread
+			MessageToSend changeMessage = new MessageToSend()
+				.withUserId(entry.getValue().iterator().next())
+				.withObjectType(ObjectType.THREAD_VIEW)
+				.withObjectId(entry.getKey().toString())
+				.withChangeType(ChangeType.UPDATE);
+			transactionalMessenger.sendMessageAfterCommit(changeMessage);
+		}
+	}
+
+	private static final class ThreadView {
+
+		private final long threadId;
+		private final long userId;
+
+		ThreadView(long threadId, long userId) {
+			this.threadId = threadId;
+			this.userId = userId;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(threadId, userId);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ThreadView)) {
+				return false;
+			}
+			ThreadView other = (ThreadView) obj;
+			return threadId == other.threadId && userId == other.userId;
+		}
+	}
+
+}
@@ -18,6 +18,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.http.entity.ContentType;
 import org.sagebionetworks.evaluation.dao.EvaluationDAO;
@@ -469,9 +470,11 @@ public class SubmissionManagerImpl implements SubmissionManager {
 		// update the Submissions
 		submissionStatusDAO.update(batch.getStatuses());
 		
-		batch.getStatuses().forEach( status-> {
-			sendSubmissionMessage(userInfo, ChangeType.UPDATE, status.getId());
-		});
+		// The change messages of the whole batch are sent together
+		List<MessageToSend> messages = batch.getStatuses().stream()
+				.map(status -> buildSubmissionMessage(userInfo, ChangeType.UPDATE, status.getId()))
+				.collect(Collectors.toList());
+		transactionalMessenger.sendMessagesAfterCommit(messages);
 		
 		String newEvaluationSubmissionsEtag = 
 				evaluationSubmissionsDAO.updateEtagForEvaluation(evalIdLong, batch.getIsLastBatch(), ChangeType.UPDATE);
@@ -749,13 +752,14 @@ public class SubmissionManagerImpl implements SubmissionManager {
 	}
 	
 	private void sendSubmissionMessage(UserInfo userInfo, ChangeType changeType, String submissionId) {
-		
-		MessageToSend message = new MessageToSend()
+		transactionalMessenger.sendMessageAfterCommit(buildSubmissionMessage(userInfo, changeType, submissionId));
+	}
+	
+	private static MessageToSend buildSubmissionMessage(UserInfo userInfo, ChangeType changeType, String submissionId) {
+		return new MessageToSend()
 			.withObjectType(ObjectType.SUBMISSION)
 			.withObjectId(submissionId)
 			.withChangeType(changeType)
 			.withUserId(userInfo.getId());
-		
-		transactionalMessenger.sendMessageAfterCommit(message);
 	}
 }
@@ -1,6 +1,8 @@
 package org.sagebionetworks.repo.manager.file;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.file.FileHandleArchivalRequest;
@@ -28,7 +30,9 @@ public interface FileHandleArchivalManager {
 	long S3_TAG_SIZE_THRESHOLD = 128 * 1024;
 
 	/**
-	 * Process a request to submit a batch of UNLINKED file handles for archival
+	 * Process a request to submit a batch of UNLINKED file handles for archival. The keys are streamed in pages and the
+	 * position of the scan is saved after each page, a following request resumes the scan after the last submitted key
+	 * until all the keys in the bucket have been submitted.
 	 * 
 	 * @param user    Must be an administrator
 	 * @param request The archival request
@@ -50,6 +54,20 @@ public interface FileHandleArchivalManager {
 	 * @param modifedBefore Defines the upper bound for the modifiedOn when updating the matching file handles
 	 */
 	FileHandleKeyArchiveResult archiveUnlinkedFileHandlesByKey(UserInfo user, String bucket, String key, Instant modifedBefore) throws RecoverableMessageException;
+	
+	/**
+	 * Batch version of {@link #archiveUnlinkedFileHandlesByKey(UserInfo, String, String, Instant)}, the status of the file
+	 * handles of all the keys is updated with batched statements and the objects are tagged in S3 concurrently within a
+	 * bounded rate. The status update is committed before the objects are tagged, the objects of the keys whose file
+	 * handles are already ARCHIVED are tagged as well so that the batch can be retried if the tagging fails.
+	 * 
+	 * @param user The user asking for the archival, must be an admin
+	 * @param bucket The bucket name
+	 * @param keys The S3 object keys
+	 * @param modifedBefore Defines the upper bound for the modifiedOn when updating the matching file handles
+	 * @return The result of the archival of each of the given keys
+	 */
+	Map<String, FileHandleKeyArchiveResult> archiveUnlinkedFileHandlesByKeys(UserInfo user, String bucket, List<String> keys, Instant modifedBefore) throws RecoverableMessageException;
 
 	/**
 	 * Restore the file handle with the given id. If the operation fails the exception is thrown
@@ -4,9 +4,15 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.apache.http.HttpStatus;
@@ -20,6 +26,8 @@ import org.sagebionetworks.repo.model.UnauthorizedException;
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.dao.FileHandleMetadataType;
 import org.sagebionetworks.repo.model.dbo.DBOBasicDao;
+import org.sagebionetworks.repo.model.dbo.dao.files.DBOFilesArchivalCheckpoint;
+import org.sagebionetworks.repo.model.dbo.dao.files.FilesArchivalCheckpointDao;
 import org.sagebionetworks.repo.model.dbo.file.FileHandleDao;
 import org.sagebionetworks.repo.model.file.FileHandle;
 import org.sagebionetworks.repo.model.file.FileHandleArchivalRequest;
@@ -36,6 +44,7 @@ import org.sagebionetworks.util.ValidateArgument;
 import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.AmazonServiceException.ErrorType;
@@ -46,6 +55,7 @@ import com.amazonaws.services.s3.model.Tag;
 import com.amazonaws.services.sqs.AmazonSQS;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.RateLimiter;
 
 @Service
 public class FileHandleArchivalManagerImpl implements FileHandleArchivalManager {
@@ -56,27 +66,45 @@ public class FileHandleArchivalManagerImpl implements FileHandleArchivalManager
 	
 	static final int DEFAULT_ARCHIVE_LIMIT = 100_000;
 	
+	static final int MAX_ARCHIVE_LIMIT = 10_000_000;
+	
+	// The number of keys fetched from the database at once, the scan position is saved after each page
+	static final int SCAN_PAGE_SIZE = 1_000;
+	
 	static final int KEYS_PER_MESSAGE = 100;
 	static final String PROCESS_QUEUE_NAME = "FILE_KEY_ARCHIVE";
 	
+	// The maximum number of objects tagged in S3 per second by each instance
+	static final double S3_TAG_MAX_RATE = 100;
+	
 	private AmazonSQS sqsClient;
 	private SynapseS3Client s3Client;
 	private ObjectMapper objectMapper;
 	private FileHandleDao fileHandleDao;
 	private DBOBasicDao basicDao;
 	private FileHandleManager fileHandleManager;
+	private FilesArchivalCheckpointDao checkpointDao;
+	private ExecutorService fileHandleArchivalThreadPool;
+	// Shared by all the batches so that concurrent workers stay within the rate
+	private RateLimiter s3TagRateLimiter;
+	private TransactionTemplate readCommitedTransactionTemplate;
 	
 	private String processQueueUrl;
 	private String synapseBucketName;
 	
 	@Autowired
-	public FileHandleArchivalManagerImpl(AmazonSQS sqsClient, SynapseS3Client s3Client, ObjectMapper objectMapper, FileHandleDao fileHandleDao, DBOBasicDao basicDao, FileHandleManager fileHandleManager) {
+	public FileHandleArchivalManagerImpl(AmazonSQS sqsClient, SynapseS3Client s3Client, ObjectMapper objectMapper, FileHandleDao fileHandleDao, DBOBasicDao basicDao, FileHandleManager fileHandleManager,
+			FilesArchivalCheckpointDao checkpointDao, ExecutorService fileHandleArchivalThreadPool, TransactionTemplate readCommitedTransactionTemplate) {
 		this.sqsClient = sqsClient;
 		this.s3Client = s3Client;
 		this.objectMapper = objectMapper;
 		this.fileHandleDao = fileHandleDao;
 		this.basicDao = basicDao;
 		this.fileHandleManager = fileHandleManager;
+		this.checkpointDao = checkpointDao;
+		this.fileHandleArchivalThreadPool = fileHandleArchivalThreadPool;
+		this.s3TagRateLimiter = RateLimiter.create(S3_TAG_MAX_RATE);
+		this.readCommitedTransactionTemplate = readCommitedTransactionTemplate;
 	}
 	
 	@Autowired
@@ -89,32 +117,66 @@ public class FileHandleArchivalManagerImpl implements FileHandleArchivalManager
 	public FileHandleArchivalResponse processFileHandleArchivalRequest(UserInfo user, FileHandleArchivalRequest request) {
 		ValidateArgument.required(user, "The user");
 		ValidateArgument.required(request, "The request");
-		ValidateArgument.requirement(request.getLimit() == null || (request.getLimit() > 0 && request.getLimit() <= DEFAULT_ARCHIVE_LIMIT), "If supplied the limit must be in the range (0, " + DEFAULT_ARCHIVE_LIMIT + "]");
+		ValidateArgument.requirement(request.getLimit() == null || (request.getLimit() > 0 && request.getLimit() <= MAX_ARCHIVE_LIMIT), "If supplied the limit must be in the range (0, " + MAX_ARCHIVE_LIMIT + "]");
 		
 		if (!user.isAdmin()) {
 			throw new UnauthorizedException("Only administrators can access this service.");
 		}
 		
-		int limit = request.getLimit() == null ? DEFAULT_ARCHIVE_LIMIT : request.getLimit().intValue();
+		long limit = request.getLimit() == null ? DEFAULT_ARCHIVE_LIMIT : request.getLimit();
 		
-		long timestamp = basicDao.getDatabaseTimestampMillis();
+		Optional<DBOFilesArchivalCheckpoint> checkpoint = checkpointDao.get(synapseBucketName);
 		
-		Instant now = Instant.ofEpochMilli(timestamp);
-		Instant modifiedBefore = now.minus(ARCHIVE_BUFFER_DAYS, ChronoUnit.DAYS);
+		Instant modifiedBefore;
+		String lastKey;
+		
+		if (checkpoint.isPresent()) {
+			// Resume the scan with the same range, after the last key that was submitted
+			modifiedBefore = checkpoint.get().getModifiedBefore();
+			lastKey = checkpoint.get().getLastKey();
+		} else {
+			long timestamp = basicDao.getDatabaseTimestampMillis();
+			
+			Instant now = Instant.ofEpochMilli(timestamp);
+			modifiedBefore = now.minus(ARCHIVE_BUFFER_DAYS, ChronoUnit.DAYS);
+			lastKey = null;
+		}
 		
-		List<String> unlinkedKeys = fileHandleDao.getUnlinkedKeysForBucket(synapseBucketName, modifiedBefore, limit);
 		List<String> keysBatch = new ArrayList<>(KEYS_PER_MESSAGE);
-
-		for (String key : unlinkedKeys) {
-			keysBatch.add(key);
-			if (keysBatch.size() >= KEYS_PER_MESSAGE) {
-				pushAndClearBatch(modifiedBefore, synapseBucketName, keysBatch);
+		long count = 0;
+		boolean scanCompleted = false;
+		
+		while (count < limit && !scanCompleted) {
+			int pageSize = (int) Math.min(SCAN_PAGE_SIZE, limit - count);
+			
+			List<String> unlinkedKeys = fileHandleDao.getUnlinkedKeysForBucket(synapseBucketName, modifiedBefore, lastKey, pageSize);
+			
+			for (String key : unlinkedKeys) {
+				keysBatch.add(key);
+				if (keysBatch.size() >= KEYS_PER_MESSAGE) {
+					pushAndClearBatch(modifiedBefore, synapseBucketName, keysBatch);
+				}
+			}
+			
+			// All the keys of the page are submitted before moving the checkpoint, a failure will at most submit the keys of the page again
+			pushAndClearBatch(modifiedBefore, synapseBucketName, keysBatch);
+			
+			count += unlinkedKeys.size();
+			scanCompleted = unlinkedKeys.size() < pageSize;
+			
+			if (!unlinkedKeys.isEmpty()) {
+				lastKey = unlinkedKeys.get(unlinkedKeys.size() - 1);
+			}
+			
+			if (scanCompleted) {
+				// The next request will start a new scan
+				checkpointDao.delete(synapseBucketName);
+			} else {
+				checkpointDao.set(synapseBucketName, modifiedBefore, lastKey);
 			}
 		}
-
-		pushAndClearBatch(modifiedBefore, synapseBucketName, keysBatch);
 		
-		return new FileHandleArchivalResponse().setCount(Long.valueOf(unlinkedKeys.size()));
+		return new FileHandleArchivalResponse().setCount(count);
 	}
 	
 	@Override
@@ -137,37 +199,108 @@ public class FileHandleArchivalManagerImpl implements FileHandleArchivalManager
 		
 		final int availableAfterUpdate = fileHandleDao.getAvailableOrEarlyUnlinkedFileHandlesCount(bucketName, key, modifedBefore);
 		
-		boolean tagged = false;
-		boolean keyUnavailable = false;
+		TagOutcome tagOutcome = TagOutcome.NOT_TAGGED;
 		
 		// The key is not referenced anymore by any available (or unlinked but too early) file handles, we can proceed and tag the objects in S3
 		if (availableAfterUpdate <= 0) {
-			try {
-				Long contentSize = fileHandleDao.getContentSizeByKey(bucketName, key);
-				tagged = addOrClearArchivalTag(bucketName, key, contentSize, false);
-			} catch (AmazonServiceException ex) {
-				if (ex instanceof AmazonS3Exception && HttpStatus.SC_NOT_FOUND == ex.getStatusCode()) {
-					LOG.warn("Attempted to tag key {} in bucket {} for archival but the object didn't exist: {}", key, bucketName, ex.getMessage());
-					keyUnavailable = true;
-				} else if (ErrorType.Service.equals(ex.getErrorType())) {
-					throw new RecoverableMessageException(ex);
-				} else {
-					throw ex;
-				}
-			} catch (CannotDetermineBucketLocationException ex) {
-				LOG.warn("Attempted to tag key {} in bucket {} for archival but the bucket didn't exist: {}", key, bucketName, ex.getMessage());
-				keyUnavailable = true;
-			}
-			
+			Long contentSize = fileHandleDao.getContentSizeByKey(bucketName, key);
+			tagOutcome = tagForArchival(bucketName, key, contentSize);
 		}
 		
 		cleanupArchivedFileHandlesPreviews(bucketName, key);
 		
-		if (keyUnavailable) {
+		if (TagOutcome.UNAVAILABLE == tagOutcome) {
+			fileHandleDao.deleteUnavailableByBucketAndKey(bucketName, key);
+		}
+		
+		return new FileHandleKeyArchiveResult(archived, TagOutcome.TAGGED == tagOutcome);
+	}
+	
+	@Override
+	public Map<String, FileHandleKeyArchiveResult> archiveUnlinkedFileHandlesByKeys(UserInfo user, String bucketName, List<String> keys, Instant modifedBefore) {
+		ValidateArgument.required(user, "The userInfo");
+		ValidateArgument.requiredNotBlank(bucketName, "The bucketName");
+		ValidateArgument.required(keys, "The keys");
+		ValidateArgument.required(modifedBefore, "The modifiedBefore");
+		
+		if (!user.isAdmin()) {
+			throw new UnauthorizedException("Only administrators can access this service.");
+		}
+		
+		Map<String, FileHandleKeyArchiveResult> results = new LinkedHashMap<>(keys.size());
+		
+		if (keys.isEmpty()) {
+			return results;
+		}
+		
+		// The transaction is committed before tagging the objects, so that no connection or row lock is held while waiting on S3
+		Map<String, Integer> archivedByKey = readCommitedTransactionTemplate.execute(status -> {
+			Map<String, Integer> archived = fileHandleDao.updateStatusByBucketAndKeys(bucketName, keys, FileHandleStatus.ARCHIVED, FileHandleStatus.UNLINKED, modifedBefore);
+			for (String key : archived.keySet()) {
+				cleanupArchivedFileHandlesPreviews(bucketName, key);
+			}
+			return archived;
+		});
+		
+		keys.forEach(key -> results.put(key, new FileHandleKeyArchiveResult(archivedByKey.getOrDefault(key, 0), false)));
+		
+		// The keys that are not referenced anymore by any available (or unlinked but too early) file handles can be tagged in S3. All the keys
+		// are considered, since the file handles of a key might have been archived by a previous attempt that failed to tag its object
+		Set<String> availableKeys = fileHandleDao.getKeysWithAvailableOrEarlyUnlinkedFileHandles(bucketName, keys, modifedBefore);
+		Set<String> keysToTag = keys.stream().filter(key -> !availableKeys.contains(key)).collect(Collectors.toSet());
+		
+		if (keysToTag.isEmpty()) {
+			return results;
+		}
+		
+		Map<String, Long> contentSizes = fileHandleDao.getContentSizeByKeys(bucketName, keysToTag);
+		
+		Map<String, Future<TagOutcome>> tagOutcomes = new LinkedHashMap<>(keysToTag.size());
+		
+		for (String key : keysToTag) {
+			Long contentSize = contentSizes.get(key);
+			// Small objects are never tagged, no need to wait for the rate limiter
+			if (contentSize == null || contentSize < S3_TAG_SIZE_THRESHOLD) {
+				continue;
+			}
+			tagOutcomes.put(key, fileHandleArchivalThreadPool.submit(() -> {
+				s3TagRateLimiter.acquire();
+				// A file handle of the key might have been restored while waiting for the rate limiter
+				if (fileHandleDao.getAvailableOrEarlyUnlinkedFileHandlesCount(bucketName, key, modifedBefore) > 0) {
+					return TagOutcome.NOT_TAGGED;
+				}
+				return tagForArchival(bucketName, key, contentSize);
+			}));
+		}
+		
+		Set<String> unavailableKeys = new HashSet<>();
+		
+		try {
+			for (Map.Entry<String, Future<TagOutcome>> entry : tagOutcomes.entrySet()) {
+				TagOutcome tagOutcome = entry.getValue().get();
+				if (TagOutcome.TAGGED == tagOutcome) {
+					results.get(entry.getKey()).withWasTagged(true);
+				} else if (TagOutcome.UNAVAILABLE == tagOutcome) {
+					unavailableKeys.add(entry.getKey());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			tagOutcomes.values().forEach(future -> future.cancel(true));
+			throw new IllegalStateException("Interrupted while tagging the archived keys", e);
+		} catch (ExecutionException e) {
+			tagOutcomes.values().forEach(future -> future.cancel(true));
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+		
+		for (String key : unavailableKeys) {
 			fileHandleDao.deleteUnavailableByBucketAndKey(bucketName, key);
 		}
 		
-		return new FileHandleKeyArchiveResult(archived, tagged);
+		return results;
 	}
 	
 	@Override
@@ -225,6 +358,24 @@ public class FileHandleArchivalManagerImpl implements FileHandleArchivalManager
 		return result.setStatus(restoreStatus).setStatusMessage(statusMessage);
 	}
 	
+	TagOutcome tagForArchival(String bucketName, String key, Long contentSize) {
+		try {
+			return addOrClearArchivalTag(bucketName, key, contentSize, false) ? TagOutcome.TAGGED : TagOutcome.NOT_TAGGED;
+		} catch (AmazonServiceException ex) {
+			if (ex instanceof AmazonS3Exception && HttpStatus.SC_NOT_FOUND == ex.getStatusCode()) {
+				LOG.warn("Attempted to tag key {} in bucket {} for archival but the object didn't exist: {}", key, bucketName, ex.getMessage());
+				return TagOutcome.UNAVAILABLE;
+			} else if (ErrorType.Service.equals(ex.getErrorType())) {
+				throw new RecoverableMessageException(ex);
+			} else {
+				throw ex;
+			}
+		} catch (CannotDetermineBucketLocationException ex) {
+			LOG.warn("Attempted to tag key {} in bucket {} for archival but the bucket didn't exist: {}", key, bucketName, ex.getMessage());
+			return TagOutcome.UNAVAILABLE;
+		}
+	}
+	
 	boolean addOrClearArchivalTag(String bucketName, String key, Long contentSize, boolean clearTag) {
 		if (contentSize == null || contentSize < S3_TAG_SIZE_THRESHOLD) {
 			return false;
@@ -317,6 +468,13 @@ public class FileHandleArchivalManagerImpl implements FileHandleArchivalManager
 		keysBatch.clear();
 	}
 	
+	enum TagOutcome {
+		TAGGED,
+		NOT_TAGGED,
+		// The object or the bucket does not exist
+		UNAVAILABLE
+	}
+	
 	
 
 }
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.http.client.ClientProtocolException;
 import org.apache.logging.log4j.LogManager;
@@ -14,7 +15,7 @@ import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.markdown.MarkdownClientException;
 import org.sagebionetworks.repo.manager.AuthorizationManager;
 import org.sagebionetworks.repo.manager.UserManager;
-import org.sagebionetworks.repo.manager.principal.SynapseEmailService;
+import org.sagebionetworks.repo.manager.principal.BulkEmailSender;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.UnauthorizedException;
 import org.sagebionetworks.repo.model.UserInfo;
@@ -32,6 +33,7 @@ import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.amazonaws.services.simpleemail.model.SendRawEmailRequest;
+import com.google.common.collect.Lists;
 
 public class BroadcastMessageManagerImpl implements BroadcastMessageManager {
 	
@@ -42,6 +44,11 @@ public class BroadcastMessageManagerImpl implements BroadcastMessageManager {
 	 */
 	public static final long MESSAGE_EXPIRATION_MS = 1000*60*60*24; // 24 hours
 	
+	/**
+	 * The maximum number of subscribers that are emailed together.
+	 */
+	public static final int EMAIL_BATCH_SIZE = 500;
+	
 	/*
 	 *  For each ChangeMessage that is processed by this manager, we map the
 	 *  message's ObjectType to a MessageBuilderFactory. A MessageBuilderFactory
@@ -61,7 +68,7 @@ public class BroadcastMessageManagerImpl implements BroadcastMessageManager {
 	private BroadcastMessageDao broadcastMessageDao;
 	
 	@Autowired
-	private SynapseEmailService sesClient;
+	private BulkEmailSender bulkEmailSender;
 	
 	@Autowired
 	private DBOChangeDAO changeDao;
@@ -123,21 +130,28 @@ public class BroadcastMessageManagerImpl implements BroadcastMessageManager {
 		valdiateTopic(topic);
 		// Get all of the email subscribers for this topic.
 		List<Subscriber> subscribers = subscriptionDAO.getAllEmailSubscribers(topic.getObjectId(), topic.getObjectType());
-		List<String> subscriberIds = new ArrayList<String>();
-		// The builder will prepare an email for each subscriber
+		List<String> subscriberIds = new ArrayList<String>(subscribers.size());
+		List<Subscriber> recipients = new ArrayList<Subscriber>(subscribers.size());
 		for(Subscriber subscriber: subscribers){
 			subscriberIds.add(subscriber.getSubscriberId());
 			// do not send an email to the user who created this change
 			if (subscriber.getSubscriberId().equals(changeMessage.getUserId().toString())) {
 				continue;
 			}
-			if (emailQuarantineDao.isQuarantined(subscriber.getNotificationEmail())) {
-				log.warn("Cannot send message to quarantined address: {}", subscriber.getNotificationEmail());
-				continue;
+			recipients.add(subscriber);
+		}
+		// The builder will prepare an email for each subscriber, the emails are sent in batches
+		for (List<Subscriber> batch : Lists.partition(recipients, EMAIL_BATCH_SIZE)) {
+			Set<String> quarantinedEmails = emailQuarantineDao.getQuarantinedEmails(Lists.transform(batch, Subscriber::getNotificationEmail));
+			List<SendRawEmailRequest> emailRequests = new ArrayList<SendRawEmailRequest>(batch.size());
+			for (Subscriber subscriber : batch) {
+				if (quarantinedEmails.contains(subscriber.getNotificationEmail())) {
+					log.warn("Cannot send message to quarantined address: {}", subscriber.getNotificationEmail());
+					continue;
+				}
+				emailRequests.add(builder.buildEmailForSubscriber(subscriber));
 			}
-			SendRawEmailRequest emailRequest = builder.buildEmailForSubscriber(subscriber);
-			log.debug("sending email to "+subscriber.getNotificationEmail());
-			sesClient.sendRawEmail(emailRequest);
+			sendEmails(emailRequests);
 		}
 
 		sendMessageToNonSubscribers(progressCallback, changeMessage, builder, subscriberIds, topic);
@@ -161,23 +175,45 @@ public class BroadcastMessageManagerImpl implements BroadcastMessageManager {
 		mentionedUserIds.removeAll(subscriberIds);
 		// create list of MentionedUser from their ids
 		List<UserNotificationInfo> mentionedUsers = userProfileDao.getUserNotificationInfo(mentionedUserIds);
-		// build and send email to each mentioned user
+		// do not send an email to the user who created this change
+		mentionedUsers = mentionedUsers.stream()
+				.filter((UserNotificationInfo user) -> !user.getUserId().equals(changeMessage.getUserId().toString()))
+				.collect(Collectors.toList());
+		// the number of mentioned users is limited by the builder
+		Set<String> quarantinedEmails = emailQuarantineDao.getQuarantinedEmails(Lists.transform(mentionedUsers, UserNotificationInfo::getNotificationEmail));
+		// build an email for each mentioned user
+		List<SendRawEmailRequest> emailRequests = new ArrayList<SendRawEmailRequest>(mentionedUsers.size());
 		for(UserNotificationInfo userNotificationInfo: mentionedUsers){
-			// do not send an email to the user who created this change
-			if (userNotificationInfo.getUserId().equals(changeMessage.getUserId().toString())) {
-				continue;
-			}
-			if (emailQuarantineDao.isQuarantined(userNotificationInfo.getNotificationEmail())) {
+			if (quarantinedEmails.contains(userNotificationInfo.getNotificationEmail())) {
 				log.warn("Cannot send message to quarantined address: {}", userNotificationInfo.getNotificationEmail());
 				continue;
 			}
 			UserInfo userInfo = userManager.getUserInfo(Long.parseLong(userNotificationInfo.getUserId()));
 			if (authManager.canSubscribe(userInfo, topic.getObjectId(), topic.getObjectType()).isAuthorized()) {
-				SendRawEmailRequest emailRequest = builder.buildEmailForNonSubscriber(userNotificationInfo);
-				log.debug("sending email to "+userNotificationInfo.getNotificationEmail());
-				sesClient.sendRawEmail(emailRequest);
+				emailRequests.add(builder.buildEmailForNonSubscriber(userNotificationInfo));
 			}
 		}
+		sendEmails(emailRequests);
+	}
+	
+	/**
+	 * Send the given emails in bulk. The emails that fail to send do not prevent
+	 * the other emails from being sent, the first failure is then re-thrown.
+	 * 
+	 * @param emailRequests
+	 */
+	void sendEmails(List<SendRawEmailRequest> emailRequests) {
+		if (emailRequests.isEmpty()) {
+			return;
+		}
+		Map<Integer, RuntimeException> failures = bulkEmailSender.sendRawEmails(emailRequests);
+		if (failures.isEmpty()) {
+			return;
+		}
+		failures.forEach((Integer index, RuntimeException failure) -> {
+			log.warn("Failed to send email to " + emailRequests.get(index).getDestinations(), failure);
+		});
+		throw failures.values().iterator().next();
 	}
 	
 	/**
@@ -19,6 +19,8 @@ import org.sagebionetworks.repo.model.subscription.Topic;
 import org.sagebionetworks.util.ValidateArgument;
 
 import com.amazonaws.services.simpleemail.model.SendRawEmailRequest;
+import com.google.common.escape.Escaper;
+import com.google.common.html.HtmlEscapers;
 
 public class DiscussionBroadcastMessageBuilder implements BroadcastMessageBuilder {
 	
@@ -26,6 +28,13 @@ public class DiscussionBroadcastMessageBuilder implements BroadcastMessageBuilde
 	public static final long MAX_USER_IDS_PER_MESSAGE = 1000L;
 	public static final String GREETING = "Hello %1$s,\n\n";
 	public static final String SUBSCRIBE_THREAD = "[Subscribe to the thread](https://www.synapse.org/#!Subscription:objectID=%1$s&objectType=THREAD)\n";
+	/*
+	 * The markdown is rendered once for the change and the topic, the values that
+	 * are specific to each recipient are then substituted in the rendered HTML.
+	 */
+	public static final String RECIPIENT_NAME_PLACEHOLDER = "SynapseRecipientNamePlaceholder";
+	public static final String SUBSCRIPTION_ID_PLACEHOLDER = "SynapseSubscriptionIdPlaceholder";
+	private static final Escaper HTML_ESCAPER = HtmlEscapers.htmlEscaper();
 	MarkdownDao markdownDao;
 	String actorUsername;
 	String actorUserId;
@@ -39,6 +48,8 @@ public class DiscussionBroadcastMessageBuilder implements BroadcastMessageBuilde
 	String unsubscribe;
 	Topic broadcastTopic;
 	UserManager userManager;
+	String renderedSubscriberBody;
+	String renderedNonSubscriberBody;
 
 	public DiscussionBroadcastMessageBuilder(String actorUsername, String actorUserId,
 			String threadTitle, String threadId, String projectId, String projectName,
@@ -79,11 +90,17 @@ public class DiscussionBroadcastMessageBuilder implements BroadcastMessageBuilde
 
 	@Override
 	public SendRawEmailRequest buildEmailForSubscriber(Subscriber subscriber) throws ClientProtocolException, JSONException, IOException, MarkdownClientException {
+		if (renderedSubscriberBody == null) {
+			renderedSubscriberBody = markdownDao.convertMarkdown(buildRawBodyForSubscriber(RECIPIENT_NAME_PLACEHOLDER, SUBSCRIPTION_ID_PLACEHOLDER), null);
+		}
 		// build the email body
-		String body = buildRawBodyForSubscriber(subscriber);
+		String recipientName = EmailUtils.getDisplayNameWithUsername(subscriber.getFirstName(), subscriber.getLastName(), subscriber.getUsername());
+		String body = renderedSubscriberBody
+				.replace(RECIPIENT_NAME_PLACEHOLDER, HTML_ESCAPER.escape(recipientName))
+				.replace(SUBSCRIPTION_ID_PLACEHOLDER, HTML_ESCAPER.escape(subscriber.getSubscriptionId()));
 		return new SendRawEmailRequestBuilder()
 		.withSubject(subject)
-		.withBody(markdownDao.convertMarkdown(body, null), BodyType.HTML)
+		.withBody(body, BodyType.HTML)
 		.withSenderDisplayName("noreply")
 		.withRecipientEmail(subscriber.getNotificationEmail())
 		.build();
@@ -91,11 +108,15 @@ public class DiscussionBroadcastMessageBuilder implements BroadcastMessageBuilde
 
 	@Override
 	public SendRawEmailRequest buildEmailForNonSubscriber(UserNotificationInfo user) throws ClientProtocolException, JSONException, IOException, MarkdownClientException {
+		if (renderedNonSubscriberBody == null) {
+			renderedNonSubscriberBody = markdownDao.convertMarkdown(buildRawBodyForNonSubscriber(RECIPIENT_NAME_PLACEHOLDER), null);
+		}
 		// build the email body
-		String body = buildRawBodyForNonSubscriber(user);
+		String recipientName = EmailUtils.getDisplayNameWithUsername(user.getFirstName(), user.getLastName(), user.getUsername());
+		String body = renderedNonSubscriberBody.replace(RECIPIENT_NAME_PLACEHOLDER, HTML_ESCAPER.escape(recipientName));
 		return new SendRawEmailRequestBuilder()
 		.withSubject(subject)
-		.withBody(markdownDao.convertMarkdown(body, null), BodyType.HTML)
+		.withBody(body, BodyType.HTML)
 		.withSenderDisplayName("noreply")
 		.withRecipientEmail(user.getNotificationEmail())
 		.build();
@@ -107,8 +128,12 @@ public class DiscussionBroadcastMessageBuilder implements BroadcastMessageBuilde
 	 * @return
 	 */
 	public String buildRawBodyForSubscriber(Subscriber subscriber){
-		StringBuilder sb = new StringBuilder();
 		String recipientName = EmailUtils.getDisplayNameWithUsername(subscriber.getFirstName(), subscriber.getLastName(), subscriber.getUsername());
+		return buildRawBodyForSubscriber(recipientName, subscriber.getSubscriptionId());
+	}
+
+	String buildRawBodyForSubscriber(String recipientName, String subscriptionId){
+		StringBuilder sb = new StringBuilder();
 		sb.append(String.format(GREETING, recipientName));
 		sb.append(String.format(emailTemplate, actorUsername, actorUserId, threadTitleTruncated, projectId, threadId, projectName));
 		sb.append(markdown+"\n\n");
@@ -116,7 +141,7 @@ public class DiscussionBroadcastMessageBuilder implements BroadcastMessageBuilde
 		if (broadcastTopic.getObjectType() != SubscriptionObjectType.THREAD) {
 			sb.append(String.format(SUBSCRIBE_THREAD, threadId));
 		}
-		sb.append(String.format(unsubscribe, subscriber.getSubscriptionId()));
+		sb.append(String.format(unsubscribe, subscriptionId));
 		return sb.toString();
 	}
 
@@ -126,8 +151,12 @@ public class DiscussionBroadcastMessageBuilder implements BroadcastMessageBuilde
 	 * @return
 	 */
 	public String buildRawBodyForNonSubscriber(UserNotificationInfo user){
-		StringBuilder sb = new StringBuilder();
 		String recipientName = EmailUtils.getDisplayNameWithUsername(user.getFirstName(), user.getLastName(), user.getUsername());
+		return buildRawBodyForNonSubscriber(recipientName);
+	}
+
+	String buildRawBodyForNonSubscriber(String recipientName){
+		StringBuilder sb = new StringBuilder();
 		sb.append(String.format(GREETING, recipientName));
 		sb.append(String.format(emailTemplate, actorUsername, actorUserId, threadTitleTruncated, projectId, threadId, projectName));
 		sb.append(markdown+"\n\n");
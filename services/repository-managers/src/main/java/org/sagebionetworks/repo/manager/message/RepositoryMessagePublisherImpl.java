@@ -120,7 +120,7 @@ public class RepositoryMessagePublisherImpl implements RepositoryMessagePublishe
 	@Override
 	public void timerFired(){
 		// Poll all data from the queue.
-		List<Message> currentQueue = pollListFromQueue();
+		List<ChangeMessage> currentQueue = pollListFromQueue();
 		if(!stackConfiguration.getShouldMessagesBePublishedToTopic()){
 			// The messages should not be broadcast
 			if(log.isDebugEnabled() && currentQueue.size() > 0){
@@ -128,31 +128,44 @@ public class RepositoryMessagePublisherImpl implements RepositoryMessagePublishe
 			}
 			return;
 		}
+		List<ChangeMessage> submissionMessages = Lists.newLinkedList();
 		// Publish each message to the topic
-		for (Message queueItem : currentQueue) {
+		for (ChangeMessage message : currentQueue) {
+			if (ObjectType.SUBMISSION == message.getObjectType()) {
+				submissionMessages.add(message);
+				continue;
+			}
 			try {
-				if (queueItem instanceof ChangeMessage) {
-					ChangeMessage message = (ChangeMessage) queueItem;
-					publishToTopic(message);
-				} else {
-					throw new IllegalArgumentException("Unknown message type " + queueItem.getClass().getName());
-				}
+				publishToTopic(message);
 			} catch (Throwable e) {
 				// If one messages fails, we must send the rest.
 				log.error("Failed to publish message.", e);
 			}
 		}
+		// The statuses of the submissions are updated in batches, their messages are published together
+		for (List<ChangeMessage> batch : Lists.partition(submissionMessages, ChangeMessageUtils.MAX_NUMBER_OF_CHANGE_MESSAGES_PER_SQS_MESSAGE)) {
+			try {
+				publishBatchToTopic(ObjectType.SUBMISSION, batch);
+			} catch (Throwable e) {
+				// If one batch fails, we must send the rest.
+				log.error("Failed to publish messages.", e);
+			}
+		}
 	}
 	
 	/**
 	 * Poll all data currently on the queue and add it to a list.
 	 * @return
 	 */
-	private List<Message> pollListFromQueue() {
-		List<Message> list = Lists.newLinkedList();
+	private List<ChangeMessage> pollListFromQueue() {
+		List<ChangeMessage> list = Lists.newLinkedList();
 		for (Message cm = this.messageQueue.poll(); cm != null; cm = this.messageQueue.poll()) {
-			// Add to the list
-			list.add(cm);
+			if (cm instanceof ChangeMessage) {
+				// Add to the list
+				list.add((ChangeMessage) cm);
+			} else {
+				log.error("Unknown message type " + cm.getClass().getName());
+			}
 		}
 		return list;
 	}
@@ -722,7 +722,13 @@ public class MigrationManagerImpl implements MigrationManager {
 	public BatchChecksumResponse calculateBatchChecksums(UserInfo user, BatchChecksumRequest request) {
 		ValidateArgument.required(user, "User");
 		validateUser(user);
-		List<RangeChecksum> batches = migratableTableDao.calculateBatchChecksums(request);
+		List<RangeChecksum> batches;
+		if (stackStatusDao.getCurrentStatus() == StatusEnum.READ_ONLY) {
+			// Migration is the only writer so the checksums stored by the previous pass are still valid
+			batches = migratableTableDao.calculateBatchChecksumsIncrementally(request);
+		} else {
+			batches = migratableTableDao.calculateBatchChecksums(request);
+		}
 		BatchChecksumResponse response = new BatchChecksumResponse();
 		response.setCheksums(batches);
 		response.setMigrationType(request.getMigrationType());
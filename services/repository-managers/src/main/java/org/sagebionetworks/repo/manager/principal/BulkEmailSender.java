@@ -0,0 +1,27 @@
+package org.sagebionetworks.repo.manager.principal;
+
+import java.util.List;
+import java.util.Map;
+
+import com.amazonaws.services.simpleemail.model.SendRawEmailRequest;
+
+/**
+ * Sends a batch of emails through the {@link SynapseEmailService}
+ * concurrently, without exceeding the maximum send rate. The emails to the
+ * same recipient are sent in the order they appear in the batch.
+ *
+ */
+public interface BulkEmailSender {
+
+	/**
+	 * Send the given emails, blocking until all of them are sent. The failure to
+	 * send one email does not prevent the other emails from being sent.
+	 *
+	 * @param requests
+	 * @return The failures of the emails that could not be sent, keyed by the
+	 *         index of the email in the given list. Empty if all the emails were
+	 *         sent.
+	 */
+	Map<Integer, RuntimeException> sendRawEmails(List<SendRawEmailRequest> requests);
+
+}
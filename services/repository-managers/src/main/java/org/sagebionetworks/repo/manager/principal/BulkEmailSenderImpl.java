@@ -0,0 +1,81 @@
+package org.sagebionetworks.repo.manager.principal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.sagebionetworks.util.ValidateArgument;
+
+import com.amazonaws.services.simpleemail.model.SendRawEmailRequest;
+import com.google.common.util.concurrent.RateLimiter;
+
+public class BulkEmailSenderImpl implements BulkEmailSender {
+
+	private final SynapseEmailService sesClient;
+	private final ExecutorService executorService;
+	// Shared by all the batches so that concurrent batches stay within the rate
+	private final RateLimiter rateLimiter;
+
+	/**
+	 *
+	 * @param sesClient
+	 * @param executorService The size of the pool bounds the number of emails sent concurrently
+	 * @param maxSendRate The maximum number of emails sent per second
+	 */
+	public BulkEmailSenderImpl(SynapseEmailService sesClient, ExecutorService executorService, double maxSendRate) {
+		ValidateArgument.required(sesClient, "sesClient");
+		ValidateArgument.required(executorService, "executorService");
+		ValidateArgument.requirement(maxSendRate > 0, "The maximum send rate must be greater than zero.");
+		this.sesClient = sesClient;
+		this.executorService = executorService;
+		this.rateLimiter = RateLimiter.create(maxSendRate);
+	}
+
+	@Override
+	public Map<Integer, RuntimeException> sendRawEmails(List<SendRawEmailRequest> requests) {
+		ValidateArgument.required(requests, "requests");
+		if (requests.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		// The emails to the same recipient are sent one after the other by the same task
+		Map<List<String>, List<Integer>> indicesByRecipient = new LinkedHashMap<>();
+		for (int i = 0; i < requests.size(); i++) {
+			indicesByRecipient.computeIfAbsent(requests.get(i).getDestinations(), (List<String> recipient) -> new ArrayList<>()).add(i);
+		}
+		Map<Integer, RuntimeException> failures = new ConcurrentHashMap<>();
+		List<Future<?>> futures = new ArrayList<>(indicesByRecipient.size());
+		for (List<Integer> indices : indicesByRecipient.values()) {
+			futures.add(executorService.submit(() -> {
+				for (Integer index : indices) {
+					rateLimiter.acquire();
+					try {
+						sesClient.sendRawEmail(requests.get(index));
+					} catch (RuntimeException e) {
+						failures.put(index, e);
+					}
+				}
+			}));
+		}
+		try {
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			futures.forEach((Future<?> future) -> future.cancel(true));
+			throw new IllegalStateException("Interrupted while sending emails", e);
+		} catch (ExecutionException e) {
+			// The failures of each email are captured by the task
+			throw new IllegalStateException(e.getCause());
+		}
+		return new TreeMap<>(failures);
+	}
+
+}
@@ -0,0 +1,16 @@
+package org.sagebionetworks.repo.manager.principal;
+
+/**
+ * Keeps the in-memory principal prefix index of this instance current.
+ *
+ */
+public interface PrincipalPrefixIndexManager {
+
+	/**
+	 * Driven by a timer. Loads the index the first time it is called and
+	 * periodically afterwards, in between the principals that changed since the
+	 * last call are reloaded into the index.
+	 */
+	void refreshIndex();
+
+}
@@ -0,0 +1,81 @@
+package org.sagebionetworks.repo.manager.principal;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.dbo.dao.DBOChangeDAO;
+import org.sagebionetworks.repo.model.dbo.principal.PrincipalPrefixDAO;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.util.Clock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PrincipalPrefixIndexManagerImpl implements PrincipalPrefixIndexManager {
+
+	private static final Logger LOG = LogManager.getLogger(PrincipalPrefixIndexManagerImpl.class);
+
+	public static final long CHANGES_PAGE_SIZE = 1000L;
+
+	/**
+	 * The prefix tokens are written by a worker after the change message is
+	 * sent, a changed principal is reloaded on each refresh for this long so
+	 * that its new tokens are picked up once written.
+	 */
+	public static final long RECENT_CHANGE_WINDOW_MS = 5 * 60 * 1000L;
+
+	/**
+	 * The whole index is periodically reloaded to fold the changed principals
+	 * back into the snapshot.
+	 */
+	public static final long RELOAD_INTERVAL_MS = 60 * 60 * 1000L;
+
+	private final PrincipalPrefixDAO principalPrefixDao;
+	private final DBOChangeDAO changeDao;
+	private final Clock clock;
+
+	private Long lastChangeNumber;
+	private long lastLoadTime;
+	// The last time each recently changed principal was seen
+	private final Map<Long, Long> recentChanges = new HashMap<>();
+
+	@Autowired
+	public PrincipalPrefixIndexManagerImpl(PrincipalPrefixDAO principalPrefixDao, DBOChangeDAO changeDao, Clock clock) {
+		this.principalPrefixDao = principalPrefixDao;
+		this.changeDao = changeDao;
+		this.clock = clock;
+	}
+
+	@Override
+	public void refreshIndex() {
+		long now = clock.currentTimeMillis();
+		if (lastChangeNumber == null || now - lastLoadTime >= RELOAD_INTERVAL_MS) {
+			// Changes committed while the index is loading are picked up below
+			long currentChangeNumber = changeDao.getCurrentChangeNumber();
+			principalPrefixDao.loadIndex();
+			lastLoadTime = now;
+			if (lastChangeNumber == null) {
+				lastChangeNumber = currentChangeNumber;
+			}
+			LOG.info("Loaded the principal prefix index in {} ms.", clock.currentTimeMillis() - now);
+		}
+		List<ChangeMessage> changes;
+		do {
+			changes = changeDao.listChanges(lastChangeNumber + 1, ObjectType.PRINCIPAL, CHANGES_PAGE_SIZE);
+			for (ChangeMessage change : changes) {
+				recentChanges.put(Long.parseLong(change.getObjectId()), now);
+				lastChangeNumber = Math.max(lastChangeNumber, change.getChangeNumber());
+			}
+		} while (changes.size() == CHANGES_PAGE_SIZE);
+
+		recentChanges.values().removeIf((Long seen) -> now - seen > RECENT_CHANGE_WINDOW_MS);
+		// Also re-applies the recent changes after the index is reloaded
+		principalPrefixDao.refreshIndex(new HashSet<>(recentChanges.keySet()));
+	}
+
+}
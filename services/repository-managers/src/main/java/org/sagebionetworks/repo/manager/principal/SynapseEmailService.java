@@ -9,4 +9,9 @@ public interface SynapseEmailService {
 
 	public void sendRawEmail(SendRawEmailRequest sendRawEmailRequest);
 
+	/**
+	 * @return The maximum number of emails that can be sent per second
+	 */
+	public double getMaxSendRate();
+
 }
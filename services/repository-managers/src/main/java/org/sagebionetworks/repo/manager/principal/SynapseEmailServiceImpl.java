@@ -55,6 +55,16 @@ public class SynapseEmailServiceImpl implements SynapseEmailService {
 		}
 	}
 
+	@Override
+	public double getMaxSendRate() {
+		if (stackConfiguration.isProductionStack() || stackConfiguration.getDeliverEmail()) {
+			// The sending quota of the SES account
+			return amazonSESClient.getSendQuota().getMaxSendRate();
+		}
+		// The emails are only written to files
+		return stackConfiguration.getEmailMaxSendRate();
+	}
+
 	public void writeToFile(SendEmailRequest emailRequest) {
 		String to = emailRequest.getDestination().getToAddresses().get(0);
 		String body = null;
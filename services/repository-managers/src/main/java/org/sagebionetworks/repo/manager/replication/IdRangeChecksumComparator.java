@@ -0,0 +1,192 @@
+package org.sagebionetworks.repo.manager.replication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.sagebionetworks.repo.model.IdRangeChecksum;
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * Finds the ranges of object IDs where the 'truth' and the 'replication'
+ * differ by comparing checksums aggregated over buckets of IDs, rather than
+ * the checksum of each object.
+ * <p>
+ * The comparison starts with a single bucket covering all the IDs. Any bucket
+ * where the count or the checksum differs is split into {@link #FAN_OUT}
+ * smaller buckets that are compared in turn, until a bucket contains at most
+ * {@link #LEAF_SIZE} objects. Only the objects in these leaf buckets need to
+ * be compared one by one, so a view with a few changes is reconciled reading a
+ * handful of aggregates instead of the checksum of every object.
+ *
+ */
+public class IdRangeChecksumComparator {
+
+	/**
+	 * The number of buckets a mismatched bucket is split into.
+	 */
+	public static final long FAN_OUT = 100L;
+	/**
+	 * Buckets with at most this many objects are compared object by object.
+	 */
+	public static final long LEAF_SIZE = 1000L;
+
+	private final IdRangeChecksumProvider truth;
+	private final IdRangeChecksumProvider replication;
+
+	private long bucketsCompared;
+	private long rowsToScan;
+
+	public IdRangeChecksumComparator(IdRangeChecksumProvider truth, IdRangeChecksumProvider replication) {
+		ValidateArgument.required(truth, "truth");
+		ValidateArgument.required(replication, "replication");
+		this.truth = truth;
+		this.replication = replication;
+	}
+
+	/**
+	 * Find the ranges of IDs that differ between the truth and the replication.
+	 *
+	 * @return The disjoint ranges ordered by ID ascending
+	 */
+	public List<IdRange> findMismatchedRanges() {
+		List<IdRange> results = new ArrayList<>();
+		// A single bucket over all the IDs
+		findMismatchedRanges(0L, Long.MAX_VALUE, Long.MAX_VALUE, results);
+		return results;
+	}
+
+	private void findMismatchedRanges(long minId, long maxId, long bucketSize, List<IdRange> results) {
+		Map<Long, IdRangeChecksum> truthBuckets = toMap(truth.getIdRangeChecksums(minId, maxId, bucketSize));
+		Map<Long, IdRangeChecksum> replicationBuckets = toMap(replication.getIdRangeChecksums(minId, maxId, bucketSize));
+		TreeSet<Long> buckets = new TreeSet<>(truthBuckets.keySet());
+		buckets.addAll(replicationBuckets.keySet());
+		bucketsCompared += buckets.size();
+
+		for (Long bucket : buckets) {
+			IdRangeChecksum truthBucket = truthBuckets.get(bucket);
+			IdRangeChecksum replicationBucket = replicationBuckets.get(bucket);
+			if (isMatch(truthBucket, replicationBucket)) {
+				continue;
+			}
+			long bucketMinId = Math.min(getMinId(truthBucket), getMinId(replicationBucket));
+			long bucketMaxId = Math.max(getMaxId(truthBucket), getMaxId(replicationBucket));
+			long truthCount = getCount(truthBucket);
+			long replicationCount = getCount(replicationBucket);
+			if (Math.max(truthCount, replicationCount) <= LEAF_SIZE || bucketMaxId - bucketMinId < FAN_OUT) {
+				rowsToScan += truthCount + replicationCount;
+				results.add(new IdRange(bucketMinId, bucketMaxId));
+			} else {
+				findMismatchedRanges(bucketMinId, bucketMaxId, (bucketMaxId - bucketMinId) / FAN_OUT + 1, results);
+			}
+		}
+	}
+
+	private static Map<Long, IdRangeChecksum> toMap(List<IdRangeChecksum> buckets) {
+		Map<Long, IdRangeChecksum> map = new TreeMap<>();
+		for (IdRangeChecksum bucket : buckets) {
+			map.put(bucket.getBucket(), bucket);
+		}
+		return map;
+	}
+
+	private static boolean isMatch(IdRangeChecksum truth, IdRangeChecksum replication) {
+		if (truth == null || replication == null) {
+			return false;
+		}
+		return Objects.equals(truth.getCount(), replication.getCount()) && Objects.equals(truth.getChecksum(), replication.getChecksum());
+	}
+
+	private static long getMinId(IdRangeChecksum bucket) {
+		return bucket == null ? Long.MAX_VALUE : bucket.getMinId();
+	}
+
+	private static long getMaxId(IdRangeChecksum bucket) {
+		return bucket == null ? Long.MIN_VALUE : bucket.getMaxId();
+	}
+
+	private static long getCount(IdRangeChecksum bucket) {
+		return bucket == null ? 0L : bucket.getCount();
+	}
+
+	/**
+	 * @return The number of buckets compared on each side
+	 */
+	public long getBucketsCompared() {
+		return bucketsCompared;
+	}
+
+	/**
+	 * @return The number of rows, on both sides, within the mismatched ranges
+	 */
+	public long getRowsToScan() {
+		return rowsToScan;
+	}
+
+	/**
+	 * Abstraction over the source of the bucket checksums.
+	 *
+	 */
+	@FunctionalInterface
+	public interface IdRangeChecksumProvider {
+
+		/**
+		 * Get the non-empty buckets of size bucketSize, starting from minId, of the
+		 * objects with an ID within the given range (inclusive).
+		 *
+		 * @param minId
+		 * @param maxId
+		 * @param bucketSize
+		 * @return
+		 */
+		List<IdRangeChecksum> getIdRangeChecksums(long minId, long maxId, long bucketSize);
+	}
+
+	/**
+	 * An inclusive range of object IDs.
+	 *
+	 */
+	public static class IdRange {
+
+		private final long minId;
+		private final long maxId;
+
+		public IdRange(long minId, long maxId) {
+			this.minId = minId;
+			this.maxId = maxId;
+		}
+
+		public long getMinId() {
+			return minId;
+		}
+
+		public long getMaxId() {
+			return maxId;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(maxId, minId);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof IdRange)) {
+				return false;
+			}
+			IdRange other = (IdRange) obj;
+			return maxId == other.maxId && minId == other.minId;
+		}
+
+		@Override
+		public String toString() {
+			return "IdRange [minId=" + minId + ", maxId=" + maxId + "]";
+		}
+	}
+}
@@ -2,15 +2,18 @@ package org.sagebionetworks.repo.manager.replication;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.Logger;
 import org.sagebionetworks.LoggerProvider;
+import org.sagebionetworks.repo.manager.replication.IdRangeChecksumComparator.IdRange;
 import org.sagebionetworks.repo.manager.table.TableIndexConnectionFactory;
 import org.sagebionetworks.repo.manager.table.TableIndexManager;
 import org.sagebionetworks.repo.manager.table.TableManagerSupport;
@@ -98,22 +101,41 @@ public class ReplicationManagerImpl implements ReplicationManager {
 
 	/**
 	 * Update the replication tables within a single transaction that removes rows to be deleted
-	 * and creates or updates rows from the provided group.
+	 * and creates or updates rows from the provided group. The replication tables are mirrored
+	 * on each database of the cluster so the update is applied to all of them. A failure on one
+	 * database does not prevent the update of the others, the first failure is re-thrown once all
+	 * the databases were attempted so that the changes are retried (reconciliation repairs any
+	 * database left behind).
 	 * 
 	 * @param replicationType
 	 * @param toDelete
 	 * @param objectData
 	 */
 	void updateReplicationTables(ReplicationDataGroup group) {
-		TableIndexManager indexManager = indexConnectionFactory.connectToFirstIndex();
+		ObjectDataProvider provider = objectDataProviderFactory.getObjectDataProvider(group.getObjectType());
 		
-		indexManager.deleteObjectData(group.getObjectType(), group.getToDeleteIds());
+		RuntimeException firstFailure = null;
 		
-		ObjectDataProvider provider = objectDataProviderFactory.getObjectDataProvider(group.getObjectType());
-		Iterator<ObjectDataDTO> objectData = provider.getObjectData(group.getCreateOrUpdateIds(),
-				MAX_ANNOTATION_CHARS);
+		for (TableIndexManager indexManager : indexConnectionFactory.connectToAllIndices()) {
+			try {
+				indexManager.deleteObjectData(group.getObjectType(), group.getToDeleteIds());
+				
+				// The data is streamed so it is fetched for each index
+				Iterator<ObjectDataDTO> objectData = provider.getObjectData(group.getCreateOrUpdateIds(),
+						MAX_ANNOTATION_CHARS);
+				
+				indexManager.updateObjectReplication(group.getObjectType(), objectData);
+			} catch (RuntimeException e) {
+				log.error("Failed to update the replication tables of an index: " + e.getMessage(), e);
+				if (firstFailure == null) {
+					firstFailure = e;
+				}
+			}
+		}
 		
-		indexManager.updateObjectReplication(group.getObjectType(), objectData);
+		if (firstFailure != null) {
+			throw firstFailure;
+		}
 	}
 
 	/**
@@ -301,12 +323,67 @@ public class ReplicationManagerImpl implements ReplicationManager {
 	Iterator<ChangeMessage> createReconcileIterator(ViewFilter filter) {
 		ValidateArgument.required(filter, "filter");
 		long salt = random.nextLong();
+		/*
+		 * The replication tables are mirrored on each database of the cluster. Each copy is compared to the truth
+		 * so that a database that was just added, or that missed an update, is repaired. The replication of a
+		 * change is applied to all the databases, so an object out-of-synch in more than one copy is only sent once.
+		 */
+		Iterator<Iterator<ChangeMessage>> perIndex = Iterators.transform(indexConnectionFactory.connectToAllIndices().iterator(),
+				(TableIndexManager indexManager) -> createReconcileIterator(salt, filter, indexManager));
+		Set<String> sentObjectIds = new HashSet<>();
+		return Iterators.filter(Iterators.concat(perIndex), (ChangeMessage message) -> sentObjectIds.add(message.getObjectId()));
+	}
+	
+	/**
+	 * Create a reconcile iterator that compares the truth with the replication tables of the given index.
+	 * 
+	 * @param salt
+	 * @param filter
+	 * @param indexManager
+	 * @return
+	 */
+	Iterator<ChangeMessage> createReconcileIterator(Long salt, ViewFilter filter, TableIndexManager indexManager) {
+		if (filter instanceof HierarchicaFilter) {
+			return createHierarchicalReconcileIterator(salt, (HierarchicaFilter) filter, indexManager);
+		}
 		Iterator<IdAndChecksum> truthStream = createTruthStream(salt, filter);
-		TableIndexManager indexManager = indexConnectionFactory.connectToFirstIndex();
 		Iterator<IdAndChecksum> replicationStream = indexManager.streamOverIdsAndChecksums(salt, filter);
 		return new ReconcileIterator(filter.getReplicationType().getObjectType(), truthStream, replicationStream);
 	}
 	
+	/**
+	 * Create a reconcile iterator for a hierarchical filter that only compares the
+	 * objects one by one within the ranges of IDs where the bucketed checksums of
+	 * the truth and the replication differ (See: {@link IdRangeChecksumComparator}).
+	 * 
+	 * @param salt
+	 * @param filter
+	 * @param indexManager
+	 * @return
+	 */
+	Iterator<ChangeMessage> createHierarchicalReconcileIterator(Long salt, HierarchicaFilter filter, TableIndexManager indexManager) {
+		ObjectDataProvider provider = objectDataProviderFactory.getObjectDataProvider(filter.getReplicationType());
+		Set<Long> parentIds = filter.getParentIds();
+		Set<SubType> subTypes = filter.getSubTypes();
+
+		IdRangeChecksumComparator comparator = new IdRangeChecksumComparator(
+				(minId, maxId, bucketSize) -> provider.getIdRangeChecksumsForChildren(salt, parentIds, subTypes, minId, maxId, bucketSize),
+				(minId, maxId, bucketSize) -> indexManager.getIdRangeChecksums(salt, filter, minId, maxId, bucketSize));
+		List<IdRange> ranges = comparator.findMismatchedRanges();
+		log.info(String.format("Compared %d checksum buckets and found %d mismatched ID ranges with %d rows to scan for parents: %s.",
+				comparator.getBucketsCompared(), ranges.size(), comparator.getRowsToScan(), parentIds.toString()));
+
+		ObjectType objectType = filter.getReplicationType().getObjectType();
+		// The ranges are disjoint and ordered so each range is reconciled on its own
+		return Iterators.concat(Iterators.transform(ranges.iterator(), (IdRange range) -> {
+			Iterator<IdAndChecksum> truthStream = provider.streamOverIdsAndChecksumsForChildren(salt, parentIds, subTypes,
+					range.getMinId(), range.getMaxId());
+			Iterator<IdAndChecksum> replicationStream = indexManager.streamOverIdsAndChecksums(salt, filter, range.getMinId(),
+					range.getMaxId());
+			return new ReconcileIterator(objectType, truthStream, replicationStream);
+		}));
+	}
+	
 	@Override
 	public boolean isReplicationSynchronizedForView(ObjectType viewObjectType, IdAndVersion viewId) {
 		ViewFilter filter = getFilter(viewId, viewObjectType);
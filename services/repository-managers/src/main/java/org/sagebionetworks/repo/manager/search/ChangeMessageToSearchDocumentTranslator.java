@@ -1,9 +1,17 @@
 package org.sagebionetworks.repo.manager.search;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.dao.WikiPageKey;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.message.ChangeMessage;
 import org.sagebionetworks.repo.model.search.Document;
 import org.sagebionetworks.repo.model.search.DocumentTypeNames;
@@ -30,6 +38,80 @@ public class ChangeMessageToSearchDocumentTranslator {
 	@Autowired
 	CloudSearchLogger recordLogger;
 
+	/**
+	 * Generate the documents for a batch of changes. Wiki changes are converted
+	 * into changes of their owner entities, an entity changed by several
+	 * messages is only processed once, and the documents of all existing
+	 * entities are formulated in bulk.
+	 * 
+	 * @param changes
+	 * @return
+	 */
+	List<Document> generateSearchDocuments(List<ChangeMessage> changes) {
+		Map<String, List<CloudSearchDocumentLogRecord>> entityRecords = new LinkedHashMap<>(changes.size());
+		for (ChangeMessage change : changes) {
+			// start a log record for this message.
+			CloudSearchDocumentLogRecord record = recordLogger.startRecordForChangeMessage(change);
+			String entityId = getChangedEntityId(change, record);
+			if (entityId == null) {
+				// this change will be ignored.
+				record.withAction(DocumentAction.IGNORE);
+				continue;
+			}
+			entityRecords.computeIfAbsent(entityId, (String key) -> new ArrayList<>()).add(record);
+		}
+		List<Document> documents = new ArrayList<>(entityRecords.size());
+		if (entityRecords.isEmpty()) {
+			return documents;
+		}
+		List<Long> entityIds = new ArrayList<>(entityRecords.size());
+		for (String entityId : entityRecords.keySet()) {
+			entityIds.add(KeyFactory.stringToKey(entityId));
+		}
+		Set<Long> existingIds = searchDocumentDriver.getEntitiesExistingInRepository(entityIds);
+		Set<Long> idsToFormulate = new LinkedHashSet<>(existingIds.size());
+		for (Map.Entry<String, List<CloudSearchDocumentLogRecord>> entry : entityRecords.entrySet()) {
+			Long entityId = KeyFactory.stringToKey(entry.getKey());
+			DocumentAction action;
+			if (existingIds.contains(entityId)) {
+				action = DocumentAction.CREATE_OR_UPDATE;
+				idsToFormulate.add(entityId);
+			} else {
+				action = DocumentAction.DELETE;
+				documents.add(createDeleteDocument(entry.getKey()));
+			}
+			for (CloudSearchDocumentLogRecord record : entry.getValue()) {
+				record.withAction(action);
+			}
+		}
+		if (!idsToFormulate.isEmpty()) {
+			documents.addAll(searchDocumentDriver.formulateSearchDocuments(new ArrayList<>(idsToFormulate)));
+		}
+		return documents;
+	}
+
+	/**
+	 * Get the ID of the entity affected by the given change.
+	 * 
+	 * @param change
+	 * @param record
+	 * @return null if the change does not affect an entity.
+	 */
+	String getChangedEntityId(ChangeMessage change, CloudSearchDocumentLogRecord record) {
+		switch (change.getObjectType()) {
+		case ENTITY:
+			return change.getObjectId();
+		case WIKI:
+			String ownerId = lookupWikiOwnerEntityId(change.getObjectId());
+			if (ownerId != null) {
+				record.withWikiOwner(ownerId);
+			}
+			return ownerId;
+		default:
+			throw new IllegalArgumentException("Unknown change type: " + change.getChangeType());
+		}
+	}
+
 	Document generateSearchDocumentIfNecessary(ChangeMessage change) {
 		// start a log record for this message.
 		CloudSearchDocumentLogRecord record = recordLogger.startRecordForChangeMessage(change);
@@ -50,21 +132,34 @@ public class ChangeMessageToSearchDocumentTranslator {
 	 * @return
 	 */
 	Document wikiChange(String wikiId, CloudSearchDocumentLogRecord record) {
-		// Lookup the owner of the page
+		String ownerId = lookupWikiOwnerEntityId(wikiId);
+		// If the owner of the wiki is a an entity then pass along the
+		// message.
+		if (ownerId != null) {
+			record.withWikiOwner(ownerId);
+			return entityChange(ownerId, record);
+		}
+		// this change will be ignored.
+		record.withAction(DocumentAction.IGNORE);
+		return null;
+	}
+
+	/**
+	 * Lookup the entity that owns the given wiki page.
+	 * 
+	 * @param wikiId
+	 * @return null if the wiki does not exist or is not owned by an entity.
+	 */
+	String lookupWikiOwnerEntityId(String wikiId) {
 		try {
 			WikiPageKey key = wikiPageDao.lookupWikiKey(wikiId);
-			// If the owner of the wiki is a an entity then pass along the
-			// message.
 			if (ObjectType.ENTITY == key.getOwnerObjectType()) {
-				record.withWikiOwner(key.getOwnerObjectId());
-				return entityChange(key.getOwnerObjectId(), record);
+				return key.getOwnerObjectId();
 			}
 		} catch (NotFoundException e) {
 			// Nothing to do if the wiki does not exist
 			log.info("Wiki not found for id: " + wikiId + " Message: " + e.getMessage());
 		}
-		// this change will be ignored.
-		record.withAction(DocumentAction.IGNORE);
 		return null;
 	}
 
@@ -26,6 +26,15 @@ public interface SearchDocumentDriver {
 	 */
 	boolean doesEntityExistInRepository(String entityId);
 
+	/**
+	 * From the given entity IDs, get the sub-set of entities that exist in the
+	 * repository.
+	 * 
+	 * @param entityIds
+	 * @return
+	 */
+	Set<Long> getEntitiesExistingInRepository(List<Long> entityIds);
+
 	/**
 	 * Create a search document for a given NodeId.
 	 * @param nodeId
@@ -35,6 +44,18 @@ public interface SearchDocumentDriver {
 	 * @throws IOException TODO
 	 */
 	public Document formulateSearchDocument(String nodeId) throws DatastoreException, NotFoundException;
+
+	/**
+	 * Create the search documents for a batch of nodes. The nodes, annotations,
+	 * benefactors and ACLs are loaded in bulk while the wiki text of the nodes is
+	 * fetched concurrently. Nodes that no longer exist are skipped.
+	 * 
+	 * @param nodeIds
+	 * @return The documents, in the order of the given IDs
+	 * @throws DatastoreException
+	 */
+	public List<Document> formulateSearchDocuments(List<Long> nodeIds) throws DatastoreException;
+
 	/**
 	 * Create a search document and return it.
 	 *
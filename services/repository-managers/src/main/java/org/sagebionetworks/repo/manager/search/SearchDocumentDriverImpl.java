@@ -10,8 +10,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -33,6 +39,7 @@ import org.sagebionetworks.repo.model.annotation.v2.AnnotationsValue;
 import org.sagebionetworks.repo.model.dao.WikiPageKey;
 import org.sagebionetworks.repo.model.dao.WikiPageKeyHelper;
 import org.sagebionetworks.repo.model.entity.NameIdType;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.search.Document;
 import org.sagebionetworks.repo.model.search.DocumentFields;
 import org.sagebionetworks.repo.model.search.DocumentTypeNames;
@@ -43,6 +50,11 @@ import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.search.SearchUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 /**
  * This class writes out search documents in batch.
  * 
@@ -60,6 +72,11 @@ public class SearchDocumentDriverImpl implements SearchDocumentDriver {
 	 */
 	public static final int FIELD_VALUE_SIZE_LIMIT = 100;
 
+	/**
+	 * The maximum number of markdown characters kept in the wiki text cache.
+	 */
+	public static final long WIKI_MARKDOWN_CACHE_MAX_CHARACTERS = 20_000_000L;
+
 	private static Log log = LogFactory.getLog(SearchDocumentDriverImpl.class);
 
 	static final Map<String, List<String>> SEARCHABLE_NODE_ANNOTATIONS;
@@ -71,6 +88,18 @@ public class SearchDocumentDriverImpl implements SearchDocumentDriver {
 	@Autowired
 	V2WikiPageDao wikiPageDao;
 
+	private ExecutorService wikiExecutorService;
+
+	/**
+	 * The markdown of each version of a wiki page is stored in a new file
+	 * handle, so the markdown can be cached by file handle ID and is not
+	 * downloaded again when an entity is re-indexed for other changes.
+	 */
+	private final Cache<String, String> markdownCache = CacheBuilder.newBuilder()
+			.maximumWeight(WIKI_MARKDOWN_CACHE_MAX_CHARACTERS)
+			.weigher((String fileHandleId, String markdown) -> markdown.length())
+			.build();
+
 	static { // initialize SEARCHABLE_NODE_ANNOTATIONS
 		// NOTE: ORDER MATTERS. Earlier annotation key names will be preferred over later ones if both keys are present.
 		Map<String, List<String>> searchableNodeAnnotations = new HashMap<>();
@@ -89,6 +118,15 @@ public class SearchDocumentDriverImpl implements SearchDocumentDriver {
 	public SearchDocumentDriverImpl() {
 	}
 
+	/**
+	 * Injected.
+	 * 
+	 * @param wikiExecutorService The pool used to fetch the wiki text of several entities concurrently
+	 */
+	public void setWikiExecutorService(ExecutorService wikiExecutorService) {
+		this.wikiExecutorService = wikiExecutorService;
+	}
+
 	/**
 	 * @param node
 	 * @return
@@ -260,6 +298,73 @@ public class SearchDocumentDriverImpl implements SearchDocumentDriver {
 	}
 
 
+	@Override
+	public List<Document> formulateSearchDocuments(List<Long> nodeIds) throws DatastoreException {
+		if (nodeIds == null)
+			throw new IllegalArgumentException("NodeIds cannot be null");
+		if (nodeIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		// The wiki text is fetched in the background while the rest is loaded in bulk
+		Map<String, Future<String>> wikiTexts = new LinkedHashMap<>(nodeIds.size());
+		for (Long nodeId : nodeIds) {
+			String entityId = KeyFactory.keyToString(nodeId);
+			if (wikiExecutorService == null) {
+				wikiTexts.put(entityId, CompletableFuture.completedFuture(getAllWikiPageText(entityId)));
+			} else {
+				wikiTexts.put(entityId, wikiExecutorService.submit(() -> getAllWikiPageText(entityId)));
+			}
+		}
+		try {
+			Map<Long, Node> nodes = new HashMap<>(nodeIds.size());
+			for (Node node : nodeDao.getNodes(nodeIds)) {
+				nodes.put(KeyFactory.stringToKey(node.getId()), node);
+			}
+			Map<Long, Annotations> annotations = nodeDao.getUserAnnotationsForCurrentVersions(nodeIds);
+			Map<Long, Long> benefactors = nodeDao.getBenefactors(nodeIds);
+			// Most entities of a batch share a few benefactors
+			Map<Long, AccessControlList> acls = new HashMap<>();
+			List<Document> documents = new ArrayList<>(nodes.size());
+			for (Long nodeId : nodeIds) {
+				Node node = nodes.get(nodeId);
+				Long benefactorId = benefactors.get(nodeId);
+				if (node == null || benefactorId == null) {
+					// The node was deleted while the batch was loading
+					continue;
+				}
+				AccessControlList benefactorACL;
+				try {
+					benefactorACL = acls.computeIfAbsent(benefactorId,
+							(Long id) -> aclDAO.get(KeyFactory.keyToString(id), ObjectType.ENTITY));
+				} catch (NotFoundException e) {
+					// The benefactor was deleted or changed while the batch was loading, the change
+					// of the entity is indexed with its own message
+					continue;
+				}
+				Annotations annos = annotations.getOrDefault(nodeId, AnnotationsV2Utils.emptyAnnotations());
+				String wikiPagesText = getWikiText(wikiTexts.get(KeyFactory.keyToString(nodeId)));
+				documents.add(formulateSearchDocument(node, annos, benefactorACL, wikiPagesText));
+			}
+			return documents;
+		} finally {
+			for (Future<String> future : wikiTexts.values()) {
+				future.cancel(false);
+			}
+		}
+	}
+
+	private static String getWikiText(Future<String> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
 	@Override
 	public Document formulateSearchDocument(String nodeId) throws DatastoreException, NotFoundException {
 		if (nodeId == null)
@@ -295,22 +400,45 @@ public class SearchDocumentDriverImpl implements SearchDocumentDriver {
 					builder.append("\n");
 					builder.append(page.getTitle());
 				}
-				String markdownString = wikiPageDao.getMarkdown(key, null);
+				String markdownString = getMarkdown(page.getMarkdownFileHandleId());
 				builder.append("\n");
 				builder.append(markdownString);
 			}
 			return builder.toString();
-		} catch (IOException e){
-			throw new RuntimeException(e);
 		} catch (NotFoundException e) {
 			// There is no WikiPage for this node.
 			return null;
 		}
 	}
 
+	/**
+	 * Get the markdown stored in the given file handle, from the cache if
+	 * possible.
+	 * 
+	 * @param markdownFileHandleId
+	 * @return
+	 */
+	String getMarkdown(String markdownFileHandleId) {
+		try {
+			return markdownCache.get(markdownFileHandleId, () -> wikiPageDao.getMarkdownForFileHandle(markdownFileHandleId));
+		} catch (ExecutionException e) {
+			// The markdown could not be downloaded
+			throw new RuntimeException(e.getCause());
+		} catch (UncheckedExecutionException e) {
+			// Surface the original exception (e.g. a NotFoundException)
+			Throwables.throwIfUnchecked(e.getCause());
+			throw e;
+		}
+	}
+
 	@Override
 	public boolean doesEntityExistInRepository(String entityId){
 		return nodeDao.isNodeAvailable(entityId);
 	}
 
+	@Override
+	public Set<Long> getEntitiesExistingInRepository(List<Long> entityIds) {
+		return nodeDao.getAvailableNodes(entityIds);
+	}
+
 }
@@ -52,6 +52,7 @@ public interface SearchManager {
 	/**
 	 * Creates a document based on Entity or Wiki changes that occurred in Synapse. Used by SearchQueueWorker.
 	 * @param changeMessages a batch of ChangeMessages representing changes in Synapse
+	 * @return the number of documents sent to the search index
 	 */
-	void documentChangeMessages(List<ChangeMessage> changeMessages);
+	int documentChangeMessages(List<ChangeMessage> changeMessages);
 }
@@ -0,0 +1,82 @@
+package org.sagebionetworks.repo.manager.stack;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.sagebionetworks.StackConfiguration;
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.ProfileData;
+import org.sagebionetworks.repo.model.config.DataSourcePoolStatistics;
+import org.sagebionetworks.repo.model.config.DataSourcePoolStatisticsProvider;
+import org.sagebionetworks.repo.model.config.ReadReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+
+/**
+ * Driven by a timer to push the statistics of the primary and replica
+ * connection pools of the repository database, and the lag of the replica, to
+ * CloudWatch.
+ *
+ */
+@Service
+public class RepositoryConnectionPoolMonitor {
+
+	public static final String NAMESPACE_PREFIX = "Repository-Connection-Pools-";
+	public static final String DIMENSION_POOL = "Pool";
+	public static final String METRIC_ACTIVE_CONNECTIONS = "Active Connections";
+	public static final String METRIC_IDLE_CONNECTIONS = "Idle Connections";
+	public static final String METRIC_PERCENT_ACTIVE_CONNECTIONS = "% Active Connections";
+	public static final String METRIC_ROUTED_CONNECTIONS = "Routed Connections";
+	public static final String METRIC_REPLICA_LAG = "Replica Lag";
+
+	private final DataSourcePoolStatisticsProvider dataSource;
+	private final Consumer consumer;
+	private final String namespace;
+
+	@Autowired
+	public RepositoryConnectionPoolMonitor(DataSourcePoolStatisticsProvider dataSource, Consumer consumer, StackConfiguration config) {
+		this.dataSource = dataSource;
+		this.consumer = consumer;
+		this.namespace = NAMESPACE_PREFIX + config.getStackInstance();
+	}
+
+	/**
+	 * Called from a timer.
+	 */
+	public void timerFired() {
+		Date timestamp = new Date();
+		List<ProfileData> metrics = new LinkedList<>();
+		for (DataSourcePoolStatistics stats : dataSource.getPoolStatistics()) {
+			Map<String, String> dimension = Collections.singletonMap(DIMENSION_POOL, stats.getType().name());
+			metrics.add(createMetric(METRIC_ACTIVE_CONNECTIONS, stats.getActiveConnections(), StandardUnit.Count, dimension, timestamp));
+			metrics.add(createMetric(METRIC_IDLE_CONNECTIONS, stats.getIdleConnections(), StandardUnit.Count, dimension, timestamp));
+			metrics.add(createMetric(METRIC_ROUTED_CONNECTIONS, stats.getRoutedConnections(), StandardUnit.Count, dimension, timestamp));
+			if (stats.getMaxConnections() > 0) {
+				double percentActive = 100.0 * stats.getActiveConnections() / stats.getMaxConnections();
+				metrics.add(createMetric(METRIC_PERCENT_ACTIVE_CONNECTIONS, percentActive, StandardUnit.Percent, dimension, timestamp));
+			}
+		}
+		dataSource.getReplicaLagMS().ifPresent(lagMS -> {
+			Map<String, String> dimension = Collections.singletonMap(DIMENSION_POOL, ReadReplicaRoutingDataSource.DataSourceType.REPLICA.name());
+			metrics.add(createMetric(METRIC_REPLICA_LAG, lagMS, StandardUnit.Milliseconds, dimension, timestamp));
+		});
+		consumer.addProfileData(metrics);
+	}
+
+	ProfileData createMetric(String name, double value, StandardUnit unit, Map<String, String> dimension, Date timestamp) {
+		ProfileData data = new ProfileData();
+		data.setNamespace(namespace);
+		data.setName(name);
+		data.setValue(value);
+		data.setUnit(unit.name());
+		data.setDimension(dimension);
+		data.setTimestamp(timestamp);
+		return data;
+	}
+
+}
@@ -3,7 +3,9 @@ package org.sagebionetworks.repo.manager.stack;
 import org.sagebionetworks.repo.model.StackStatusDao;
 import org.sagebionetworks.repo.model.UnauthorizedException;
 import org.sagebionetworks.repo.model.UserInfo;
+import org.sagebionetworks.repo.model.dbo.migration.MigratableTableDAO;
 import org.sagebionetworks.repo.model.status.StackStatus;
+import org.sagebionetworks.repo.model.status.StatusEnum;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -17,10 +19,12 @@ import org.springframework.stereotype.Service;
 public class StackStatusManagerImpl implements StackStatusManager {
 
 	private StackStatusDao stackStatusDao;
+	private MigratableTableDAO migratableTableDao;
 	
 	@Autowired
-	public StackStatusManagerImpl(final StackStatusDao stackStatusDao) {
+	public StackStatusManagerImpl(final StackStatusDao stackStatusDao, final MigratableTableDAO migratableTableDao) {
 		this.stackStatusDao = stackStatusDao;
+		this.migratableTableDao = migratableTableDao;
 	}
 
 	@Override
@@ -36,8 +40,13 @@ public class StackStatusManagerImpl implements StackStatusManager {
 		UserInfo.validateUserInfo(username);
 		// Only an admin can change the status.
 		if(!username.isAdmin()) throw new UnauthorizedException("Must be an administrator to change the status of the stack");
+		StatusEnum previousStatus = stackStatusDao.getCurrentStatus();
 		// Update the status
 		stackStatusDao.updateStatus(updated);
+		if (previousStatus != updated.getStatus()) {
+			// The stored migration checksums are only kept current while the stack is read-only
+			migratableTableDao.clearStoredBatchChecksums();
+		}
 		return stackStatusDao.getFullCurrentStatus();
 	}
 
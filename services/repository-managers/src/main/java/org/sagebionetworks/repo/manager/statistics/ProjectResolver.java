@@ -6,7 +6,7 @@ import java.util.Optional;
 
 /**
  * Utility class used to resolve a project id from a file handle association
- * 
+ *
  * @author Marco
  *
  */
@@ -14,4 +14,10 @@ public interface ProjectResolver {
 
 	Optional<Long> resolveProject(FileHandleAssociateType associationType, String associationId) throws IllegalStateException;
 
+	/**
+	 * Publishes the hit rate and the load time of the project cache since the last
+	 * call to this method
+	 */
+	void publishProjectCacheMetrics();
+
 }
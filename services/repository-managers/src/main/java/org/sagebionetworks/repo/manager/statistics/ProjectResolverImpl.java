@@ -1,37 +1,120 @@
 package org.sagebionetworks.repo.manager.statistics;
 
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.ProfileData;
 import org.sagebionetworks.repo.model.NodeDAO;
 import org.sagebionetworks.repo.model.file.FileHandleAssociateType;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.time.Duration;
+import java.util.Date;
 import java.util.Optional;
 
 @Service
 public class ProjectResolverImpl implements ProjectResolver {
 
-	private NodeDAO nodeDao;
+	/**
+	 * The maximum number of entities kept in the project cache
+	 */
+	public static final long PROJECT_CACHE_MAX_SIZE = 100_000;
+	/**
+	 * Entries are not invalidated when an entity is moved, they expire after a short time to bound how long an event
+	 * can be attributed to the project an entity was moved from.
+	 */
+	public static final Duration PROJECT_CACHE_EXPIRATION = Duration.ofMinutes(5);
+
+	public static final String PROJECT_CACHE_METRIC_NAMESPACE = "ProjectResolverCache";
+	public static final String METRIC_HIT_RATE = "hitRate";
+	public static final String METRIC_AVERAGE_LOAD_TIME = "averageLoadTime";
+
+	private final NodeDAO nodeDao;
+	private final Consumer consumer;
+
+	/**
+	 * Caches the project of entities keyed by entity ID, the value is empty if the entity does not exist or is in the trash
+	 */
+	private final LoadingCache<Long, Optional<Long>> projectCache;
+
+	private CacheStats lastPublishedStats;
 
 	@Autowired
-	public ProjectResolverImpl(NodeDAO nodeDao) {
+	public ProjectResolverImpl(NodeDAO nodeDao, Consumer consumer) {
 		this.nodeDao = nodeDao;
+		this.consumer = consumer;
+		this.projectCache = CacheBuilder.newBuilder()
+			.maximumSize(PROJECT_CACHE_MAX_SIZE)
+			.expireAfterWrite(PROJECT_CACHE_EXPIRATION)
+			.recordStats()
+			.build(new CacheLoader<Long, Optional<Long>>() {
+
+				@Override
+				public Optional<Long> load(Long entityId) {
+					return nodeDao.getProjectId(KeyFactory.keyToString(entityId)).map(KeyFactory::stringToKey);
+				}
+
+			});
+		this.lastPublishedStats = projectCache.stats();
 	}
 
 	@Override
 	public Optional<Long> resolveProject(FileHandleAssociateType associationType, String associationId) {
+		if (!isEntityAssociation(associationType)) {
+			return Optional.empty();
+		}
+		try {
+			return projectCache.getUnchecked(KeyFactory.stringToKey(associationId));
+		} catch (UncheckedExecutionException e) {
+			// Surface the original exception thrown while loading (e.g. an IllegalStateException)
+			Throwables.throwIfUnchecked(e.getCause());
+			throw e;
+		}
+	}
+
+	private static boolean isEntityAssociation(FileHandleAssociateType associationType) {
 		switch (associationType) {
 		case FileEntity:
 		case TableEntity:
-			return getProjectForNode(associationId);
+			return true;
 		default:
-			return Optional.empty();
+			return false;
+		}
+	}
+
+	@Override
+	public void publishProjectCacheMetrics() {
+		CacheStats currentStats = projectCache.stats();
+		CacheStats periodStats = currentStats.minus(lastPublishedStats);
+		lastPublishedStats = currentStats;
+		if (periodStats.requestCount() == 0) {
+			return;
+		}
+		Date now = new Date();
+		consumer.addProfileData(createCacheMetric(METRIC_HIT_RATE, periodStats.hitRate() * 100, StandardUnit.Percent, now));
+		if (periodStats.loadCount() > 0) {
+			// The load penalty is in nanoseconds
+			double averageLoadTimeMs = periodStats.averageLoadPenalty() / 1_000_000;
+			consumer.addProfileData(createCacheMetric(METRIC_AVERAGE_LOAD_TIME, averageLoadTimeMs, StandardUnit.Milliseconds, now));
 		}
 	}
 
-	private Optional<Long> getProjectForNode(String objectId) {
-		Optional<String> projectIdString = nodeDao.getProjectId(objectId);
-		return projectIdString.map(KeyFactory::stringToKey);
+	private static ProfileData createCacheMetric(String name, double value, StandardUnit unit, Date timestamp) {
+		ProfileData profileData = new ProfileData();
+		profileData.setNamespace(PROJECT_CACHE_METRIC_NAMESPACE);
+		profileData.setName(name);
+		profileData.setValue(value);
+		profileData.setUnit(unit.name());
+		profileData.setTimestamp(timestamp);
+		return profileData;
 	}
 
 }
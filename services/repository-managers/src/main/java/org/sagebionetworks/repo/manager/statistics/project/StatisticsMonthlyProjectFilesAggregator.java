@@ -0,0 +1,30 @@
+package org.sagebionetworks.repo.manager.statistics.project;
+
+import org.sagebionetworks.repo.model.statistics.FileEvent;
+
+/**
+ * Aggregates the file events in memory as they are recorded, so that the
+ * monthly project files statistics are maintained incrementally rather than
+ * re-computed from the raw file events of a month.
+ *
+ */
+public interface StatisticsMonthlyProjectFilesAggregator {
+
+	/**
+	 * Record a file event performed by the given user in the given project.
+	 * 
+	 * @param eventType
+	 * @param projectId
+	 * @param userId
+	 * @param timestamp The time of the event (ms, epoch time), used to compute
+	 *                  the month of the event
+	 */
+	void recordEvent(FileEvent eventType, long projectId, long userId, long timestamp);
+
+	/**
+	 * Driven by a timer and called on shutdown. Adds the events recorded since
+	 * the last flush to the monthly project files statistics.
+	 */
+	void flush();
+
+}
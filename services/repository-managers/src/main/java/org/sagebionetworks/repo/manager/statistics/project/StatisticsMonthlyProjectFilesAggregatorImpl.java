@@ -0,0 +1,148 @@
+package org.sagebionetworks.repo.manager.statistics.project;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.sagebionetworks.repo.model.dbo.statistics.StatisticsMonthlyProjectFilesDAO;
+import org.sagebionetworks.repo.model.dbo.statistics.StatisticsMonthlyStatusDAO;
+import org.sagebionetworks.repo.model.statistics.FileEvent;
+import org.sagebionetworks.repo.model.statistics.StatisticsObjectType;
+import org.sagebionetworks.repo.model.statistics.monthly.StatisticsMonthlyUtils;
+import org.sagebionetworks.repo.model.statistics.project.StatisticsMonthlyProjectFilesEvents;
+import org.sagebionetworks.util.ValidateArgument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class StatisticsMonthlyProjectFilesAggregatorImpl implements StatisticsMonthlyProjectFilesAggregator {
+
+	private static final Logger LOG = LogManager.getLogger(StatisticsMonthlyProjectFilesAggregatorImpl.class);
+
+	private final StatisticsMonthlyProjectFilesDAO statisticsDao;
+	private final StatisticsMonthlyStatusDAO statusDao;
+
+	private final Map<EventsKey, PendingEvents> pendingEvents = new ConcurrentHashMap<>();
+
+	@Autowired
+	public StatisticsMonthlyProjectFilesAggregatorImpl(StatisticsMonthlyProjectFilesDAO statisticsDao, StatisticsMonthlyStatusDAO statusDao) {
+		this.statisticsDao = statisticsDao;
+		this.statusDao = statusDao;
+	}
+
+	@Override
+	public void recordEvent(FileEvent eventType, long projectId, long userId, long timestamp) {
+		ValidateArgument.required(eventType, "eventType");
+		EventsKey key = new EventsKey(projectId, StatisticsMonthlyUtils.getMonth(timestamp), eventType);
+		// The pending events of a key are only modified within the compute, that is atomic with the removal in the flush
+		pendingEvents.compute(key, (EventsKey k, PendingEvents pending) -> {
+			PendingEvents result = pending == null ? new PendingEvents() : pending;
+			result.add(userId);
+			return result;
+		});
+	}
+
+	@Override
+	@PreDestroy
+	public void flush() {
+		Map<EventsKey, PendingEvents> toFlush = new HashMap<>();
+		for (EventsKey key : pendingEvents.keySet()) {
+			PendingEvents pending = pendingEvents.remove(key);
+			if (pending != null) {
+				toFlush.put(key, pending);
+			}
+		}
+		if (toFlush.isEmpty()) {
+			return;
+		}
+		List<StatisticsMonthlyProjectFilesEvents> batch = new ArrayList<>(toFlush.size());
+		try {
+			Map<YearMonth, Boolean> processedMonths = new HashMap<>();
+			toFlush.forEach((EventsKey key, PendingEvents pending) -> {
+				// Once the processing of a month started its statistics are computed from all the raw file events of the month
+				if (processedMonths.computeIfAbsent(key.month, this::isProcessingStarted)) {
+					return;
+				}
+				StatisticsMonthlyProjectFilesEvents events = new StatisticsMonthlyProjectFilesEvents();
+				events.setProjectId(key.projectId);
+				events.setMonth(key.month);
+				events.setEventType(key.eventType);
+				events.setFilesCount(pending.count);
+				events.setUserIds(pending.userIds);
+				batch.add(events);
+			});
+			statisticsDao.addEvents(batch);
+		} catch (RuntimeException e) {
+			// The events are added with the next flush
+			toFlush.forEach((EventsKey key, PendingEvents pending) -> {
+				pendingEvents.merge(key, pending, PendingEvents::merge);
+			});
+			throw e;
+		}
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Added the file events of {} projects and months to the statistics", batch.size());
+		}
+	}
+
+	private boolean isProcessingStarted(YearMonth month) {
+		return statusDao.getStatus(StatisticsObjectType.PROJECT, month).isPresent();
+	}
+
+	private static final class PendingEvents {
+
+		private int count = 0;
+		private final Set<Long> userIds = new HashSet<>();
+
+		void add(long userId) {
+			count++;
+			userIds.add(userId);
+		}
+
+		PendingEvents merge(PendingEvents other) {
+			count += other.count;
+			userIds.addAll(other.userIds);
+			return this;
+		}
+	}
+
+	private static final class EventsKey {
+
+		private final long projectId;
+		private final YearMonth month;
+		private final FileEvent eventType;
+
+		EventsKey(long projectId, YearMonth month, FileEvent eventType) {
+			this.projectId = projectId;
+			this.month = month;
+			this.eventType = eventType;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(eventType, month, projectId);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof EventsKey)) {
+				return false;
+			}
+			EventsKey other = (EventsKey) obj;
+			return projectId == other.projectId && eventType == other.eventType && Objects.equals(month, other.month);
+		}
+	}
+
+}
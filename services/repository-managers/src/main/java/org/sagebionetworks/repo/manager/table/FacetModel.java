@@ -14,8 +14,6 @@ import org.sagebionetworks.repo.model.table.FacetColumnRequest;
 import org.sagebionetworks.repo.model.table.FacetColumnValuesRequest;
 import org.sagebionetworks.repo.model.table.JsonSubColumnModel;
 import org.sagebionetworks.table.cluster.TranslationDependencies;
-import org.sagebionetworks.table.query.ParseException;
-import org.sagebionetworks.table.query.TableQueryParser;
 import org.sagebionetworks.table.query.model.QueryExpression;
 import org.sagebionetworks.table.query.model.TableName;
 import org.sagebionetworks.table.query.util.FacetRequestColumnModel;
@@ -177,10 +175,6 @@ public class FacetModel {
 	}
 	
 	private static QueryExpression cloneQuery(QueryExpression toClone) {
-		try {
-			return new TableQueryParser(toClone.toSql()).queryExpression();
-		} catch (ParseException e) {
-			throw new RuntimeException(e);
-		}
+		return (QueryExpression) toClone.deepCopy();
 	}
 }
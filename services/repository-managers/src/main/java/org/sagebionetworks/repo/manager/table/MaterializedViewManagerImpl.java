@@ -86,6 +86,10 @@ public class MaterializedViewManagerImpl implements MaterializedViewManager {
 			
 			materializedViewDao.deleteSourceTablesIds(idAndVersion, toDelete);
 			materializedViewDao.addSourceTablesIds(idAndVersion, newSourceTables);
+			
+			// A table that is no longer the source of any view goes back to the database it is hashed to, where it is rebuilt
+			// the next time its status is checked
+			toDelete.forEach(connectionFactory::deleteStaleIndices);
 		}
 		
 		bindSchemaToView(idAndVersion, query);
@@ -161,8 +165,8 @@ public class MaterializedViewManagerImpl implements MaterializedViewManager {
 
 	@Override
 	public void deleteViewIndex(IdAndVersion idAndVersion) {
-		TableIndexManager indexManager = connectionFactory.connectToTableIndex(idAndVersion);
-		indexManager.deleteTableIndex(idAndVersion);
+		// Once the view is deleted it is no longer assigned to the database of its sources, so the index is dropped from each database
+		connectionFactory.connectToAllIndices().forEach(indexManager -> indexManager.deleteTableIndex(idAndVersion));
 	}
 
 	@Override
@@ -235,6 +239,8 @@ public class MaterializedViewManagerImpl implements MaterializedViewManager {
 			
 			IdAndVersion[] dependentArray = getAvailableDependentIds(sqlQuery);
 			
+			deleteStaleDependentIndices(dependentArray);
+			
 			LOG.info("Rebuilding materialized view index " + idAndVersion);
 			// continue with a read lock on each dependent table.
 			tableManagerSupport.tryRunWithTableNonExclusiveLock(callback, parentContext, (ProgressCallback innerCallback) -> {
@@ -277,6 +283,8 @@ public class MaterializedViewManagerImpl implements MaterializedViewManager {
 			
 			IdAndVersion[] dependentArray = getAvailableDependentIds(sqlQuery);
 			
+			deleteStaleDependentIndices(dependentArray);
+			
 			LOG.info("Building temporary materialized view index " + temporaryId);
 			
 			TableIndexManager indexManager = connectionFactory.connectToTableIndex(idAndVersion);
@@ -376,4 +384,18 @@ public class MaterializedViewManagerImpl implements MaterializedViewManager {
 		
 		return dependentTables.toArray(new IdAndVersion[dependentTables.size()]);
 	}
+	
+	/**
+	 * The view is populated with a query that reads the indices of the dependent tables on the database of the
+	 * view, a view and its sources are always assigned to the same database. A dependency that was on another database
+	 * before it became a source of the view was rebuilt on the database of the view when its status was checked (see
+	 * {@link #getAvailableDependentIds(QueryTranslator)}), the index left on the previous database is dropped.
+	 * 
+	 * @param dependentIds
+	 */
+	void deleteStaleDependentIndices(IdAndVersion[] dependentIds) {
+		for (IdAndVersion dependent : dependentIds) {
+			connectionFactory.deleteStaleIndices(dependent);
+		}
+	}
 }
@@ -1,5 +1,7 @@
 package org.sagebionetworks.repo.manager.table;
 
+import java.util.List;
+
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
 
 /**
@@ -42,5 +44,33 @@ public interface TableIndexConnectionFactory {
 	 * @return
 	 */
 	TableIndexManager connectToFirstIndex();
+	
+	/**
+	 * Acquire an index manager for each database in the cluster, the first manager
+	 * is always the one returned by {@link #connectToFirstIndex()}. Used to apply
+	 * changes that must be mirrored on every database (e.g. object replication).
+	 * 
+	 * @return
+	 */
+	List<TableIndexManager> connectToAllIndices();
+	
+	/**
+	 * Pick up any database added to the cluster. Each table whose index is on a
+	 * database that is no longer assigned to the table is set to processing so
+	 * that its index is rebuilt on the assigned database, and its index is
+	 * dropped from the other databases. Called from a timer in each tier so that
+	 * all the machines route tables the same way.
+	 */
+	void refreshIndices();
+	
+	/**
+	 * Drop the index of the given table from each database of the cluster that is
+	 * not assigned to the table. An index is left behind when the table is
+	 * assigned to another database, e.g. when a database is added or when the
+	 * table becomes the source of a materialized view.
+	 * 
+	 * @param tableId
+	 */
+	void deleteStaleIndices(IdAndVersion tableId);
 
 }
@@ -1,18 +1,57 @@
 package org.sagebionetworks.repo.manager.table;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.sagebionetworks.repo.manager.table.metadata.MetadataIndexProviderFactory;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
+import org.sagebionetworks.repo.web.NotFoundException;
+import org.sagebionetworks.table.cluster.ConnectionFactory;
+import org.sagebionetworks.table.cluster.TableIndexDAO;
+import org.sagebionetworks.table.cluster.metadata.ObjectFieldModelResolverFactory;
+import org.sagebionetworks.table.cluster.search.TableRowSearchProcessor;
+import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
 public class TableIndexConnectionFactoryImpl implements TableIndexConnectionFactory {
-	
 
+	private static final Logger LOG = LogManager.getLogger(TableIndexConnectionFactoryImpl.class);
+
+	/**
+	 * Note: This manager is autowired so it can be profiled (See: PLFM-5984), it
+	 * wraps the DAO of the first database.
+	 */
 	private final TableIndexManager manager;
+	private final ConnectionFactory connectionFactory;
+	private final TableManagerSupport tableManagerSupport;
+	private final MetadataIndexProviderFactory metadataIndexProviderFactory;
+	private final ObjectFieldModelResolverFactory objectFieldModelResolverFactory;
+	private final TableRowSearchProcessor searchProcessor;
+	private final ExecutorService tableSearchIndexThreadPool;
+
+	/**
+	 * Managers of the additional databases in the cluster, keyed by their DAO.
+	 */
+	private final Map<TableIndexDAO, TableIndexManager> managers = new ConcurrentHashMap<>();
 
 	@Autowired
-	public TableIndexConnectionFactoryImpl(TableIndexManager manager) {
+	public TableIndexConnectionFactoryImpl(TableIndexManager manager, ConnectionFactory connectionFactory, TableManagerSupport tableManagerSupport,
+			MetadataIndexProviderFactory metadataIndexProviderFactory, ObjectFieldModelResolverFactory objectFieldModelResolverFactory,
+			TableRowSearchProcessor searchProcessor, ExecutorService tableSearchIndexThreadPool) {
 		this.manager = manager;
+		this.connectionFactory = connectionFactory;
+		this.tableManagerSupport = tableManagerSupport;
+		this.metadataIndexProviderFactory = metadataIndexProviderFactory;
+		this.objectFieldModelResolverFactory = objectFieldModelResolverFactory;
+		this.searchProcessor = searchProcessor;
+		this.tableSearchIndexThreadPool = tableSearchIndexThreadPool;
 	}
 
 	@Override
@@ -20,12 +59,64 @@ public class TableIndexConnectionFactoryImpl implements TableIndexConnectionFact
 		if(tableId == null){
 			throw new IllegalArgumentException("TableId cannot be null");
 		}
-		return manager;
+		return getManager(connectionFactory.getConnection(tableId));
 	}
-	
+
 	@Override
 	public TableIndexManager connectToFirstIndex(){
 		return manager;
 	}
 
+	@Override
+	public List<TableIndexManager> connectToAllIndices() {
+		return connectionFactory.getAllConnections().stream().map(this::getManager).collect(Collectors.toList());
+	}
+
+	@Override
+	public void refreshIndices() {
+		List<IdAndVersion> movedTables = connectionFactory.refreshInstances();
+		for (IdAndVersion tableId : movedTables) {
+			try {
+				// The status of the table would still be available, while its index does not exist on the assigned database
+				tableManagerSupport.setTableToProcessingAndTriggerUpdate(tableId);
+			} catch (NotFoundException e) {
+				// The index of a deleted table is not rebuilt
+				LOG.warn("Will not rebuild the index of " + tableId + ": " + e.getMessage());
+			}
+			deleteStaleIndices(tableId);
+		}
+	}
+
+	@Override
+	public void deleteStaleIndices(IdAndVersion tableId) {
+		ValidateArgument.required(tableId, "tableId");
+		TableIndexDAO assignedDao = connectionFactory.getConnection(tableId);
+		for (TableIndexDAO dao : connectionFactory.getAllConnections()) {
+			if (dao == assignedDao) {
+				continue;
+			}
+			TableIndexManager staleManager = getManager(dao);
+			// Avoids dropping the tables of an index that does not exist, the version is -1 when the index does not exist
+			if (staleManager.getCurrentVersionOfIndex(tableId) > -1L) {
+				LOG.info("Deleting the stale index of " + tableId + " from a database that is not assigned to the table");
+				staleManager.deleteTableIndex(tableId);
+			}
+		}
+	}
+
+	/**
+	 * Get the manager that wraps the given DAO.
+	 *
+	 * @param dao
+	 * @return
+	 */
+	TableIndexManager getManager(TableIndexDAO dao) {
+		if (dao == connectionFactory.getFirstConnection()) {
+			return manager;
+		}
+		return managers.computeIfAbsent(dao,
+				(TableIndexDAO key) -> new TableIndexManagerImpl(key, tableManagerSupport, metadataIndexProviderFactory, objectFieldModelResolverFactory, searchProcessor,
+						tableSearchIndexThreadPool));
+	}
+
 }
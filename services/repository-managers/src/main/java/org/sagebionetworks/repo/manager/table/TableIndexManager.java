@@ -8,6 +8,7 @@ import java.util.Set;
 import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.repo.manager.table.change.TableChangeMetaData;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
 import org.sagebionetworks.repo.model.table.ColumnModel;
 import org.sagebionetworks.repo.model.table.ColumnModelPage;
@@ -16,6 +17,7 @@ import org.sagebionetworks.repo.model.table.ReplicationType;
 import org.sagebionetworks.repo.model.table.ViewScope;
 import org.sagebionetworks.repo.model.table.ViewScopeType;
 import org.sagebionetworks.table.cluster.ColumnChangeDetails;
+import org.sagebionetworks.table.cluster.ProjectStorageDelta;
 import org.sagebionetworks.table.cluster.QueryTranslator;
 import org.sagebionetworks.table.cluster.description.IndexDescription;
 import org.sagebionetworks.table.cluster.view.filter.ViewFilter;
@@ -243,6 +245,15 @@ public interface TableIndexManager {
 	 */
 	void deleteObjectData(ReplicationType objectType, List<Long> toDeleteIds);
 
+	/**
+	 * Verify the project storage ledger of the given object type against a full
+	 * scan of the object replication, correcting any entry that does not match.
+	 * 
+	 * @param objectType
+	 * @return The corrections applied to the ledger
+	 */
+	List<ProjectStorageDelta> reconcileProjectStorageLedger(ReplicationType objectType);
+
 	/**
 	 * Stream over the IdAndChecksum for all objects defined by the provided filter.
 	 * The checksum must include all version of the objects that match the
@@ -256,6 +267,34 @@ public interface TableIndexManager {
 	 */
 	Iterator<IdAndChecksum> streamOverIdsAndChecksums(Long salt, ViewFilter filter);
 
+	/**
+	 * Stream over the IdAndChecksum for all objects defined by the provided filter
+	 * with an ID within the given range (inclusive).
+	 * 
+	 * @param salt
+	 * @param filter
+	 * @param minId
+	 * @param maxId
+	 * @return
+	 */
+	Iterator<IdAndChecksum> streamOverIdsAndChecksums(Long salt, ViewFilter filter, Long minId, Long maxId);
+
+	/**
+	 * Get the aggregated checksums of the objects defined by the provided filter
+	 * with an ID within the given range (inclusive), grouped in buckets of
+	 * bucketSize IDs starting from minId. The checksum of each bucket is the sum of
+	 * the checksums returned by {@link #streamOverIdsAndChecksums(Long, ViewFilter)}
+	 * for the objects in the bucket.
+	 * 
+	 * @param salt
+	 * @param filter
+	 * @param minId
+	 * @param maxId
+	 * @param bucketSize
+	 * @return
+	 */
+	List<IdRangeChecksum> getIdRangeChecksums(Long salt, ViewFilter filter, Long minId, Long maxId, Long bucketSize);
+
 	/**
 	 * Is the synchronization lock for the given view expires?
 	 * 
@@ -5,10 +5,16 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -18,6 +24,7 @@ import org.sagebionetworks.repo.manager.table.metadata.DefaultColumnModel;
 import org.sagebionetworks.repo.manager.table.metadata.MetadataIndexProvider;
 import org.sagebionetworks.repo.manager.table.metadata.MetadataIndexProviderFactory;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.NextPageToken;
 import org.sagebionetworks.repo.model.dao.table.TableType;
 import org.sagebionetworks.repo.model.dbo.dao.table.InvalidStatusTokenException;
@@ -40,6 +47,7 @@ import org.sagebionetworks.repo.model.table.ViewTypeMask;
 import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.table.cluster.ColumnChangeDetails;
 import org.sagebionetworks.table.cluster.DatabaseColumnInfo;
+import org.sagebionetworks.table.cluster.ProjectStorageDelta;
 import org.sagebionetworks.table.cluster.QueryTranslator;
 import org.sagebionetworks.table.cluster.SQLTranslatorUtils;
 import org.sagebionetworks.table.cluster.SQLUtils;
@@ -60,7 +68,6 @@ import org.sagebionetworks.table.model.SearchChange;
 import org.sagebionetworks.table.model.SparseChangeSet;
 import org.sagebionetworks.table.query.util.ColumnTypeListMappings;
 import org.sagebionetworks.util.PaginationIterator;
-import org.sagebionetworks.util.PaginationProvider;
 import org.sagebionetworks.util.ValidateArgument;
 import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
 import org.sagebionetworks.workers.util.semaphore.LockUnavilableException;
@@ -69,6 +76,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionStatus;
 
 import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 
 /**
  * Note: This manager is created as a beans to support profiling calls to the manger. See: PLFM-5984.
@@ -76,6 +84,11 @@ import com.google.common.collect.Iterators;
 @Service
 public class TableIndexManagerImpl implements TableIndexManager {
 	public static final int BATCH_SIZE = 10_000;
+	
+	/**
+	 * The number of rows of a batch processed by a single task when the search index is rebuilt
+	 */
+	public static final int SEARCH_PROCESSING_CHUNK_SIZE = 1_000;
 
 	static private Logger log = LogManager.getLogger(TableIndexManagerImpl.class);
 
@@ -93,18 +106,21 @@ public class TableIndexManagerImpl implements TableIndexManager {
 	private final MetadataIndexProviderFactory metadataIndexProviderFactory;
 	private final ObjectFieldModelResolverFactory objectFieldModelResolverFactory;
 	private final TableRowSearchProcessor searchProcessor;
+	private final ExecutorService tableSearchIndexThreadPool;
 
-	public TableIndexManagerImpl(TableIndexDAO dao, TableManagerSupport tableManagerSupport, MetadataIndexProviderFactory metadataIndexProviderFactory, ObjectFieldModelResolverFactory objectFieldModelResolverFactory, TableRowSearchProcessor searchProcessor){
+	public TableIndexManagerImpl(TableIndexDAO dao, TableManagerSupport tableManagerSupport, MetadataIndexProviderFactory metadataIndexProviderFactory, ObjectFieldModelResolverFactory objectFieldModelResolverFactory, TableRowSearchProcessor searchProcessor, ExecutorService tableSearchIndexThreadPool){
 		ValidateArgument.required(dao, "TableIndexDao");
 		ValidateArgument.required(tableManagerSupport, "TableManagerSupport");
 		ValidateArgument.required(metadataIndexProviderFactory, "MetadataIndexProviderFactory");
 		ValidateArgument.required(objectFieldModelResolverFactory, "ObjectFieldModelResolverFactory");
 		ValidateArgument.required(searchProcessor, "RowSearchProcessor");
+		ValidateArgument.required(tableSearchIndexThreadPool, "TableSearchIndexThreadPool");
 		this.tableIndexDao = dao;
 		this.tableManagerSupport = tableManagerSupport;
 		this.metadataIndexProviderFactory = metadataIndexProviderFactory;
 		this.objectFieldModelResolverFactory = objectFieldModelResolverFactory;
 		this.searchProcessor = searchProcessor;
+		this.tableSearchIndexThreadPool = tableSearchIndexThreadPool;
 	}
 	/*
 	 * (non-Javadoc)
@@ -878,6 +894,12 @@ public class TableIndexManagerImpl implements TableIndexManager {
 		}
 	}
 	
+	@Override
+	public List<ProjectStorageDelta> reconcileProjectStorageLedger(ReplicationType objectType) {
+		ValidateArgument.required(objectType, "objectType");
+		return tableIndexDao.reconcileProjectStorageLedger(objectType);
+	}
+	
 	@Override
 	public Iterator<IdAndChecksum> streamOverIdsAndChecksums(Long salt, ViewFilter filter) {
 		return new PaginationIterator<IdAndChecksum>((long limit, long offset) -> {
@@ -885,6 +907,18 @@ public class TableIndexManagerImpl implements TableIndexManager {
 		}, BATCH_SIZE);
 	}
 	
+	@Override
+	public Iterator<IdAndChecksum> streamOverIdsAndChecksums(Long salt, ViewFilter filter, Long minId, Long maxId) {
+		return new PaginationIterator<IdAndChecksum>((long limit, long offset) -> {
+			return tableIndexDao.getIdAndChecksumsForFilter(salt, filter, minId, maxId, limit, offset);
+		}, BATCH_SIZE);
+	}
+	
+	@Override
+	public List<IdRangeChecksum> getIdRangeChecksums(Long salt, ViewFilter filter, Long minId, Long maxId, Long bucketSize) {
+		return tableIndexDao.getIdRangeChecksumsForFilter(salt, filter, minId, maxId, bucketSize);
+	}
+	
 	@Override
 	public boolean isViewSynchronizeLockExpired(ReplicationType type, IdAndVersion idAndVersion) {
 		return tableIndexDao.isSynchronizationLockExpiredForObject(type,idAndVersion.getId());
@@ -980,7 +1014,8 @@ public class TableIndexManagerImpl implements TableIndexManager {
 	}
 	
 	/**
-	 * Updates the search index for the table with the given id
+	 * Updates the search index for the table with the given id. The rows are read in pages keyed by the row id and the
+	 * search content of each page is computed in parallel, only the rows whose search content changed are written back
 	 * 
 	 * @param tableId
 	 */
@@ -995,11 +1030,67 @@ public class TableIndexManagerImpl implements TableIndexManager {
 			return;
 		}
 				
-		Iterator<TableRowData> tableRowsIterator = new PaginationIterator<>((PaginationProvider<TableRowData>) (limit, offset) -> {
-			return tableIndexDao.getTableDataPage(index.getIdAndVersion(), searchIndexSchema, limit, offset);
-		}, BATCH_SIZE);
+		boolean includeRowId = index.addRowIdToSearchIndex();
+		Long afterRowId = null;
+		List<TableRowData> page;
+		
+		do {
+			page = tableIndexDao.getTableDataPageAfterRowId(index.getIdAndVersion(), searchIndexSchema, afterRowId, BATCH_SIZE);
+			
+			if (page.isEmpty()) {
+				break;
+			}
+			
+			updateChangedSearchContent(index.getIdAndVersion(), page, includeRowId);
+			
+			afterRowId = page.get(page.size() - 1).getRowId();
+		} while (page.size() == BATCH_SIZE);
+	}
+	
+	/**
+	 * Computes the search content of the given batch of rows and updates the search index for the rows whose search
+	 * content does not match the current one
+	 * 
+	 * @param idAndVersion
+	 * @param batch
+	 * @param includeRowId
+	 */
+	void updateChangedSearchContent(IdAndVersion idAndVersion, List<TableRowData> batch, boolean includeRowId) {
+		List<CompletableFuture<List<RowSearchContent>>> chunks = Lists.partition(batch, SEARCH_PROCESSING_CHUNK_SIZE).stream()
+			.map(chunk -> CompletableFuture.supplyAsync(() -> searchProcessor.processRows(chunk, includeRowId), tableSearchIndexThreadPool))
+			.collect(Collectors.toList());
+		
+		List<RowSearchContent> searchContent;
+		
+		try {
+			searchContent = chunks.stream().flatMap(chunk -> chunk.join().stream()).collect(Collectors.toList());
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
 		
-		updateSearchIndex(index, tableRowsIterator);
+		Set<Long> rowIds = searchContent.stream().map(RowSearchContent::getRowId).collect(Collectors.toSet());
+		
+		Map<Long, String> currentHashes = tableIndexDao.getSearchContentHashes(idAndVersion, rowIds);
+		
+		List<RowSearchContent> changedSearchContent = searchContent.stream()
+			.filter(content -> !Objects.equals(currentHashes.get(content.getRowId()), hashSearchContent(content.getSearchContent())))
+			.collect(Collectors.toList());
+		
+		if (!changedSearchContent.isEmpty()) {
+			tableIndexDao.updateSearchIndex(idAndVersion, changedSearchContent);
+		}
+	}
+	
+	/**
+	 * @param searchContent
+	 * @return The MD5 hex of the given search content, matching the MD5 computed by the database, null if the content
+	 *         is null
+	 */
+	static String hashSearchContent(String searchContent) {
+		return searchContent == null ? null : DigestUtils.md5Hex(searchContent);
 	}
 	
 	/**
@@ -1012,9 +1103,7 @@ public class TableIndexManagerImpl implements TableIndexManager {
 	void updateSearchIndex(IndexDescription index, Iterator<TableRowData> tableRowDataIterator) {
 		boolean includeRowId = index.addRowIdToSearchIndex();
 		Iterators.partition(tableRowDataIterator, BATCH_SIZE).forEachRemaining(batch -> {
-			List<RowSearchContent> transformedBatch = batch.stream()
-				.map((rawData) -> mapTableRowDataToSearchContent(rawData, includeRowId))
-				.collect(Collectors.toList());
+			List<RowSearchContent> transformedBatch = searchProcessor.processRows(batch, includeRowId);
 			
 			if (!transformedBatch.isEmpty()) {
 				tableIndexDao.updateSearchIndex(index.getIdAndVersion(), transformedBatch);
@@ -1022,11 +1111,6 @@ public class TableIndexManagerImpl implements TableIndexManager {
 		});
 	}
 	
-	private RowSearchContent mapTableRowDataToSearchContent(TableRowData rowData, boolean includeRowId) {
-		String processedValue = searchProcessor.process(rowData, includeRowId);
-		return new RowSearchContent(rowData.getRowId(), processedValue);
-	}
-	
 	/**
 	 * A change in the schema of a table requires a full re-index of the table if:
 	 * 
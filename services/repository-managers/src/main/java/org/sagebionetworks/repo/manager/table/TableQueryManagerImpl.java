@@ -83,6 +83,7 @@ public class TableQueryManagerImpl implements TableQueryManager {
 	private EntityAuthorizationManager entityAuthorizationManager;
 	private ExecutorService threadPool;
 	private QueryCacheManager queryCacheManager;
+	private ActionsRequiredDao actionsRequiredDao;
 
 	@Autowired
 	public TableQueryManagerImpl(TableManagerSupport tableManagerSupport, ConnectionFactory tableConnectionFactory, EntityAuthorizationManager entityAuthorizationManager, ExecutorService cachedThreadPool, QueryCacheManager queryCacheManager) {
@@ -91,6 +92,7 @@ public class TableQueryManagerImpl implements TableQueryManager {
 		this.entityAuthorizationManager = entityAuthorizationManager;
 		this.threadPool = cachedThreadPool;
 		this.queryCacheManager = queryCacheManager;
+		this.actionsRequiredDao = new ActionsRequiredDao();
 	}
 	
 	/**
@@ -640,18 +642,7 @@ public class TableQueryManagerImpl implements TableQueryManager {
 			
 		EntityActionRequiredCallback actionsProvider = (fileIds) -> entityAuthorizationManager.getActionsRequiredForDownload(user, fileIds);
 		
-		ActionsRequiredDao actionsRequiredDao = tableManagerSupport.getActionsRequiredDao(idAndVersion);
-		
-		return indexDao.executeInWriteTransaction((txState) -> {
-			
-			try {
-				actionsRequiredDao.createActionsRequiredTable(user.getId(), ACTIONS_REQUIRED_BATCH_SIZE, filesProvider, actionsProvider);
-		
-				return actionsRequiredDao.getActionsRequiredCount(user.getId(), MAX_ACTIONS_REQUIRED);
-			} finally {
-				actionsRequiredDao.dropActionsRequiredTable(user.getId());
-			}
-		});
+		return actionsRequiredDao.getActionsRequiredCount(ACTIONS_REQUIRED_BATCH_SIZE, filesProvider, actionsProvider, MAX_ACTIONS_REQUIRED);
 	}
 
 	/**
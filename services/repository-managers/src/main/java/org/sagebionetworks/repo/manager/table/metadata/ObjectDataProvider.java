@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.table.ObjectDataDTO;
 import org.sagebionetworks.repo.model.table.ReplicationType;
 import org.sagebionetworks.repo.model.table.SubType;
@@ -49,6 +50,39 @@ public interface ObjectDataProvider {
 	 */
 	public Iterator<IdAndChecksum> streamOverIdsAndChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes);
 
+	/**
+	 * Provide a stream of IdAndChecksum data for the given parentIds and subTypes
+	 * limited to the objects with an ID within the given range (inclusive) and
+	 * ordered by the IDs ascending.
+	 * 
+	 * @param salt
+	 * @param parentIds
+	 * @param subTypes
+	 * @param minId
+	 * @param maxId
+	 * @return
+	 */
+	public Iterator<IdAndChecksum> streamOverIdsAndChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes, Long minId,
+			Long maxId);
+
+	/**
+	 * Get the aggregated checksums of the children of the given parentIds and
+	 * subTypes with an ID within the given range (inclusive), grouped in buckets
+	 * of bucketSize IDs starting from minId. The checksum of each bucket is the
+	 * sum of the checksums of the objects in the bucket, see
+	 * {@link #streamOverIdsAndChecksumsForChildren(Long, Set, Set)}.
+	 * 
+	 * @param salt
+	 * @param parentIds
+	 * @param subTypes
+	 * @param minId
+	 * @param maxId
+	 * @param bucketSize
+	 * @return
+	 */
+	public List<IdRangeChecksum> getIdRangeChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes, Long minId, Long maxId,
+			Long bucketSize);
+
 	/**
 	 * Provide a stream of IdAndChecksum data for the given objectIds ordered by the
 	 * IDs ascending. The checksum must include all version of the objects that
@@ -6,6 +6,7 @@ import java.util.Set;
 
 import org.sagebionetworks.repo.manager.table.metadata.ObjectDataProvider;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.NodeDAO;
 import org.sagebionetworks.repo.model.table.ObjectDataDTO;
 import org.sagebionetworks.repo.model.table.ReplicationType;
@@ -44,6 +45,18 @@ public class EntityObjectProvider implements ObjectDataProvider {
 		return  nodeDao.getIdsAndChecksumsForChildren(salt, parentIds, subTypes).iterator();
 	}
 
+	@Override
+	public Iterator<IdAndChecksum> streamOverIdsAndChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes, Long minId,
+			Long maxId) {
+		return nodeDao.getIdsAndChecksumsForChildren(salt, parentIds, subTypes, minId, maxId).iterator();
+	}
+
+	@Override
+	public List<IdRangeChecksum> getIdRangeChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes, Long minId, Long maxId,
+			Long bucketSize) {
+		return nodeDao.getIdRangeChecksumsForChildren(salt, parentIds, subTypes, minId, maxId, bucketSize);
+	}
+
 	@Override
 	public Iterator<IdAndChecksum> streamOverIdsAndChecksumsForObjects(Long salt, Set<Long> objectIds) {
 		return nodeDao.getIdsAndChecksumsForObjects(salt, objectIds).iterator();
@@ -7,6 +7,7 @@ import java.util.Set;
 import org.sagebionetworks.evaluation.dao.SubmissionDAO;
 import org.sagebionetworks.repo.manager.table.metadata.ObjectDataProvider;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.table.ObjectDataDTO;
 import org.sagebionetworks.repo.model.table.ReplicationType;
 import org.sagebionetworks.repo.model.table.SubType;
@@ -45,6 +46,20 @@ public class SubmissionObjectProvider implements ObjectDataProvider {
 		}, PAGE_SIZE);
 	}
 
+	@Override
+	public Iterator<IdAndChecksum> streamOverIdsAndChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes, Long minId,
+			Long maxId) {
+		return new PaginationIterator<IdAndChecksum>((long limit, long offset) -> {
+			return submissionDao.getIdAndChecksumsPage(salt, parentIds, minId, maxId, limit, offset);
+		}, PAGE_SIZE);
+	}
+
+	@Override
+	public List<IdRangeChecksum> getIdRangeChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes, Long minId, Long maxId,
+			Long bucketSize) {
+		return submissionDao.getIdRangeChecksums(salt, parentIds, minId, maxId, bucketSize);
+	}
+
 	@Override
 	public Iterator<IdAndChecksum> streamOverIdsAndChecksumsForObjects(Long salt, Set<Long> objectIds) {
 		throw new UnsupportedOperationException("All submission views are hierarchical");
@@ -8,12 +8,12 @@ import org.sagebionetworks.table.cluster.CombinedQuery;
 import org.sagebionetworks.table.cluster.QueryTranslator;
 import org.sagebionetworks.table.cluster.TableAndColumnMapper;
 import org.sagebionetworks.table.query.ParseException;
-import org.sagebionetworks.table.query.TableQueryParser;
 import org.sagebionetworks.table.query.model.OrderByClause;
 import org.sagebionetworks.table.query.model.QueryExpression;
 import org.sagebionetworks.table.query.model.QuerySpecification;
 import org.sagebionetworks.table.query.model.SelectList;
 import org.sagebionetworks.table.query.model.SetQuantifier;
+import org.sagebionetworks.table.query.util.ParsedElementCache;
 import org.sagebionetworks.util.Pair;
 import org.sagebionetworks.util.ValidateArgument;
 
@@ -32,7 +32,7 @@ public class ActionsRequiredQuery {
 				.setAdditionalFilters(expansion.getAdditionalFilters())
 				.build();
 			
-			QueryExpression expression = new TableQueryParser(combined.getCombinedSql()).queryExpression();
+			QueryExpression expression = ParsedElementCache.QUERY_EXPRESSIONS.parse(combined.getCombinedSql());
 			
 			QuerySpecification querySpec = expression.getFirstElementOfType(QuerySpecification.class);
 			
@@ -5,10 +5,10 @@ import java.util.Optional;
 import org.sagebionetworks.table.cluster.CombinedQuery;
 import org.sagebionetworks.table.cluster.QueryTranslator;
 import org.sagebionetworks.table.query.ParseException;
-import org.sagebionetworks.table.query.TableQueryParser;
 import org.sagebionetworks.table.query.model.Pagination;
 import org.sagebionetworks.table.query.model.QueryExpression;
 import org.sagebionetworks.table.query.model.QuerySpecification;
+import org.sagebionetworks.table.query.util.ParsedElementCache;
 import org.sagebionetworks.table.query.util.SqlElementUtils;
 import org.sagebionetworks.util.ValidateArgument;
 
@@ -32,7 +32,7 @@ public class CountQuery {
 					.setSchemaProvider(expansion.getSchemaProvider()).setSelectedFacets(expansion.getSelectedFacets())
 					.build();
 
-			QueryExpression queryExpression = new TableQueryParser(combined.getCombinedSql()).queryExpression();
+			QueryExpression queryExpression = ParsedElementCache.QUERY_EXPRESSIONS.parse(combined.getCombinedSql());
 			QuerySpecification model = queryExpression.getFirstElementOfType(QuerySpecification.class);
 			originalPagination = model.getFirstElementOfType(Pagination.class);
 			if(SqlElementUtils.createCountSql(model)) {
@@ -7,8 +7,8 @@ import org.sagebionetworks.repo.manager.table.FacetTransformer;
 import org.sagebionetworks.table.cluster.CombinedQuery;
 import org.sagebionetworks.table.cluster.TranslationDependencies;
 import org.sagebionetworks.table.query.ParseException;
-import org.sagebionetworks.table.query.TableQueryParser;
 import org.sagebionetworks.table.query.model.QueryExpression;
+import org.sagebionetworks.table.query.util.ParsedElementCache;
 import org.sagebionetworks.util.ValidateArgument;
 
 public class FacetQueries {
@@ -29,7 +29,7 @@ public class FacetQueries {
 					 */
 					.setSelectedFacets(null).setAdditionalFilters(expansion.getAdditionalFilters()).build();
 
-			QueryExpression originalQuery = new TableQueryParser(combined.getCombinedSql()).queryExpression();
+			QueryExpression originalQuery = ParsedElementCache.QUERY_EXPRESSIONS.parse(combined.getCombinedSql());
 			boolean returnFacets = true;
 			TranslationDependencies deps = TranslationDependencies.builder()
 					.setIndexDescription(expansion.getIndexDescription())
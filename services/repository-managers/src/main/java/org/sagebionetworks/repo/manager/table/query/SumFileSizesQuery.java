@@ -6,8 +6,8 @@ import org.sagebionetworks.repo.model.dao.table.TableType;
 import org.sagebionetworks.table.cluster.CombinedQuery;
 import org.sagebionetworks.table.cluster.QueryTranslator;
 import org.sagebionetworks.table.query.ParseException;
-import org.sagebionetworks.table.query.TableQueryParser;
 import org.sagebionetworks.table.query.model.QuerySpecification;
+import org.sagebionetworks.table.query.util.ParsedElementCache;
 import org.sagebionetworks.table.query.util.SqlElementUtils;
 import org.sagebionetworks.util.ValidateArgument;
 
@@ -25,7 +25,7 @@ public class SumFileSizesQuery {
 				CombinedQuery combined = CombinedQuery.builder().setQuery(expansion.getStartingSql())
 						.setAdditionalFilters(expansion.getAdditionalFilters()).setSelectedFacets(expansion.getSelectedFacets())
 						.setSchemaProvider(expansion.getSchemaProvider()).build();
-				QuerySpecification model = new TableQueryParser(combined.getCombinedSql()).querySpecification();
+				QuerySpecification model = ParsedElementCache.QUERY_SPECIFICATIONS.parse(combined.getCombinedSql());
 				QueryTranslator sqlQuery = QueryTranslator.builder(model.toSql(), expansion.getUserId()).schemaProvider(expansion.getSchemaProvider()).indexDescription(expansion.getIndexDescription()).build();
 				// first get the rowId and rowVersions for the given query up to the limit + 1.
 				rowIdAndVersionQuery = SqlElementUtils.buildSqlSelectRowIdAndVersions(
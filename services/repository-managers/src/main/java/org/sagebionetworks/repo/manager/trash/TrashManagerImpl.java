@@ -43,6 +43,11 @@ public class TrashManagerImpl implements TrashManager {
 	 */
 	public static final int MAX_IDS_TO_LOAD = 10*1000;
 
+	/**
+	 * The maximum number of nodes of a purged sub-tree deleted in each transaction.
+	 */
+	public static final int PURGE_BATCH_SIZE = 1000;
+
 	private static final String UNABLE_TO_DELETE_TOO_MANY_SUB_FOLDERS = "Unable to delete a project/folder with more than "+MAX_IDS_TO_LOAD+" sub-folders. Please delete the sub-folders first.";
 
 	@Autowired
@@ -281,6 +286,12 @@ public class TrashManagerImpl implements TrashManager {
 		
 		String keyId = KeyFactory.keyToString(nodeId);
 		
+		// The sub-tree is enumerated once, each batch then deletes the deepest nodes that are left
+		if (nodeDao.enumerateSubTreeForPurge(keyId) > 0) {
+			while (nodeDao.purgeSubTreeBatch(keyId, PURGE_BATCH_SIZE) > 0);
+		}
+		
+		// Deletes the node itself (and any node added to the sub-tree in the meanwhile)
 		do {
 			deleted = nodeDao.deleteTree(keyId, MAX_IDS_TO_LOAD);
 		} while (!deleted);
@@ -29,6 +29,7 @@ import org.sagebionetworks.ids.IdGenerator;
 import org.sagebionetworks.ids.IdType;
 import org.sagebionetworks.repo.manager.file.FileHandleManager;
 import org.sagebionetworks.repo.manager.file.FileHandleUrlRequest;
+import org.sagebionetworks.repo.manager.principal.BulkEmailSenderImpl;
 import org.sagebionetworks.repo.manager.principal.SynapseEmailService;
 import org.sagebionetworks.repo.manager.team.MembershipRequestManager;
 import org.sagebionetworks.repo.manager.team.TeamManager;
@@ -79,6 +80,7 @@ import com.amazonaws.services.simpleemail.model.SendEmailRequest;
 import com.amazonaws.services.simpleemail.model.SendRawEmailRequest;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
 
 /**
  * Tests message access requirement checking and the sending of messages
@@ -210,7 +212,8 @@ public class MessageManagerImplTest {
 				userProfileManager, notificationEmailDao, principalAliasDAO, 
 				authorizationManager, emailService,
 				mockFileHandleManager, nodeDAO, entityAclManager,
-				fileDAO, emailQuarantineDao);
+				fileDAO, emailQuarantineDao,
+				new BulkEmailSenderImpl(emailService, MoreExecutors.newDirectExecutorService(), 1000));
 		
 		aliasesToDelete = new ArrayList<PrincipalAlias>();
 		
@@ -29,10 +29,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.repo.manager.file.FileHandleManager;
+import org.sagebionetworks.repo.manager.principal.BulkEmailSender;
 import org.sagebionetworks.repo.manager.principal.SynapseEmailService;
 import org.sagebionetworks.repo.model.ACCESS_TYPE;
 import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL;
@@ -53,7 +55,10 @@ import org.sagebionetworks.repo.model.dbo.ses.EmailQuarantineDao;
 import org.sagebionetworks.repo.model.file.FileHandle;
 import org.sagebionetworks.repo.model.file.S3FileHandle;
 import org.sagebionetworks.repo.model.message.MessageRecipientSet;
+import org.sagebionetworks.repo.model.message.MessageStatus;
+import org.sagebionetworks.repo.model.message.MessageStatusType;
 import org.sagebionetworks.repo.model.message.MessageToUser;
+import org.sagebionetworks.repo.model.message.Settings;
 import org.sagebionetworks.repo.model.message.multipart.MessageBody;
 import org.sagebionetworks.repo.model.principal.AliasType;
 import org.sagebionetworks.repo.model.principal.PrincipalAlias;
@@ -65,6 +70,8 @@ import org.sagebionetworks.util.SerializationUtils;
 
 import com.amazonaws.services.simpleemail.model.SendRawEmailRequest;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 import jakarta.mail.Session;
 import jakarta.mail.internet.MimeMessage;
@@ -100,6 +107,10 @@ public class MessageManagerImplUnitTest {
 	private FileHandleManager fileHandleManager;
 	@Mock
 	private EmailQuarantineDao mockEmailQuarantineDao;
+	@Mock
+	private BulkEmailSender mockBulkEmailSender;
+	@Captor
+	private ArgumentCaptor<List<SendRawEmailRequest>> emailsCaptor;
 	
 	@InjectMocks
 	private MessageManagerImpl messageManager;
@@ -284,9 +295,9 @@ public class MessageManagerImplUnitTest {
 		
 		messageManager.processMessage(MESSAGE_ID, null);
 		
-		ArgumentCaptor<SendRawEmailRequest> argument = ArgumentCaptor.forClass(SendRawEmailRequest.class);
-		verify(sesClient).sendRawEmail(argument.capture());
-		SendRawEmailRequest ser = argument.getValue();
+		verify(mockBulkEmailSender).sendRawEmails(emailsCaptor.capture());
+		assertEquals(1, emailsCaptor.getValue().size());
+		SendRawEmailRequest ser = emailsCaptor.getValue().get(0);
 		assertEquals("Foo FOO <foo@synapse.org>", ser.getSource());
 		assertEquals(1, ser.getDestinations().size());
 		assertEquals(RECIPIENT_EMAIL, ser.getDestinations().get(0));
@@ -312,9 +323,9 @@ public class MessageManagerImplUnitTest {
 		
 		messageManager.processMessage(MESSAGE_ID, null);
 		
-		ArgumentCaptor<SendRawEmailRequest> argument = ArgumentCaptor.forClass(SendRawEmailRequest.class);
-		verify(sesClient).sendRawEmail(argument.capture());
-		SendRawEmailRequest ser = argument.getValue();
+		verify(mockBulkEmailSender).sendRawEmails(emailsCaptor.capture());
+		assertEquals(1, emailsCaptor.getValue().size());
+		SendRawEmailRequest ser = emailsCaptor.getValue().get(0);
 		assertEquals("Foo FOO <foo@synapse.org>", ser.getSource());
 		assertEquals(1, ser.getDestinations().size());
 		assertEquals(RECIPIENT_EMAIL, ser.getDestinations().get(0));
@@ -342,9 +353,9 @@ public class MessageManagerImplUnitTest {
 		
 		messageManager.processMessage(MESSAGE_ID, null);
 		
-		ArgumentCaptor<SendRawEmailRequest> argument = ArgumentCaptor.forClass(SendRawEmailRequest.class);
-		verify(sesClient).sendRawEmail(argument.capture());
-		SendRawEmailRequest ser = argument.getValue();
+		verify(mockBulkEmailSender).sendRawEmails(emailsCaptor.capture());
+		assertEquals(1, emailsCaptor.getValue().size());
+		SendRawEmailRequest ser = emailsCaptor.getValue().get(0);
 		assertEquals("Foo FOO <foo@synapse.org>", ser.getSource());
 		assertEquals(1, ser.getDestinations().size());
 		assertEquals(RECIPIENT_EMAIL, ser.getDestinations().get(0));
@@ -652,14 +663,55 @@ public class MessageManagerImplUnitTest {
 		
 		when(fileHandleManager.downloadFileToString(FILE_HANDLE_ID)).thenReturn(messageBody);
 		when(fileHandleDAO.get(FILE_HANDLE_ID)).thenReturn(fileHandle);
-		when(mockEmailQuarantineDao.isQuarantined(RECIPIENT_EMAIL)).thenReturn(true);
+		when(mockEmailQuarantineDao.getQuarantinedEmails(any())).thenReturn(ImmutableSet.of(RECIPIENT_EMAIL));
 		
 		List<String> errors = messageManager.processMessage(MESSAGE_ID, null);
 		
-		verify(mockEmailQuarantineDao).isQuarantined(RECIPIENT_EMAIL);
+		verify(mockEmailQuarantineDao).getQuarantinedEmails(ImmutableList.of(RECIPIENT_EMAIL));
 		assertEquals(ImmutableList.of("Cannot deliver message to recipient (" + RECIPIENT_ID + "). The recipient does not have a valid notification email."), errors);
+		verify(mockBulkEmailSender).sendRawEmails(Collections.emptyList());
 		verifyZeroInteractions(sesClient);
 	}
+	
+	@Test
+	public void testSendMessageWithSendFailure() throws Exception {
+		setupCreatorRecipientMocks(false);
+		fileHandle.setContentType("text/plain");
+		
+		when(fileHandleManager.downloadFileToString(FILE_HANDLE_ID)).thenReturn("message body");
+		when(fileHandleDAO.get(FILE_HANDLE_ID)).thenReturn(fileHandle);
+		when(mockBulkEmailSender.sendRawEmails(any())).thenReturn(ImmutableMap.of(0, new IllegalStateException("failed")));
+		
+		List<String> errors = messageManager.processMessage(MESSAGE_ID, null);
+		
+		assertEquals(ImmutableList.of("Failed while processing message for recipient (" + RECIPIENT_ID + "): failed"), errors);
+		verify(messageDAO).updateMessageTransmissionAsComplete(MESSAGE_ID);
+	}
+	
+	@Test
+	public void testSendMessageWithMarkAsRead() throws Exception {
+		Settings settings = new Settings();
+		settings.setMarkEmailedMessagesAsRead(true);
+		userProfileRecipient.setNotificationSettings(settings);
+		setupCreatorRecipientMocks(false);
+		fileHandle.setContentType("text/plain");
+		
+		when(fileHandleManager.downloadFileToString(FILE_HANDLE_ID)).thenReturn("message body");
+		when(fileHandleDAO.get(FILE_HANDLE_ID)).thenReturn(fileHandle);
+		
+		List<String> errors = messageManager.processMessage(MESSAGE_ID, null);
+		
+		assertTrue(errors.isEmpty());
+		verify(mockBulkEmailSender).sendRawEmails(emailsCaptor.capture());
+		assertEquals(RECIPIENT_EMAIL, emailsCaptor.getValue().get(0).getDestinations().get(0));
+		
+		MessageStatus expectedStatus = new MessageStatus();
+		expectedStatus.setMessageId(MESSAGE_ID);
+		expectedStatus.setRecipientId(RECIPIENT_ID.toString());
+		expectedStatus.setStatus(MessageStatusType.READ);
+		
+		verify(messageDAO).updateMessageStatus(expectedStatus);
+	}
 
 	@Test
 	public void testForwardMessage() throws Exception {
@@ -701,10 +753,9 @@ public class MessageManagerImplUnitTest {
 		// Call under test
 		messageManager.processMessage(MESSAGE_ID, null);
 		
-		ArgumentCaptor<SendRawEmailRequest> argument = ArgumentCaptor.forClass(SendRawEmailRequest.class);
-
-		verify(sesClient).sendRawEmail(argument.capture());
-		SendRawEmailRequest ser = argument.getValue();
+		verify(mockBulkEmailSender).sendRawEmails(emailsCaptor.capture());
+		assertEquals(1, emailsCaptor.getValue().size());
+		SendRawEmailRequest ser = emailsCaptor.getValue().get(0);
 		assertEquals("Foo FOO <foo@synapse.org>", ser.getSource());
 		assertEquals(1, ser.getDestinations().size());
 		assertEquals(RECIPIENT_EMAIL, ser.getDestinations().get(0));
@@ -736,10 +787,9 @@ public class MessageManagerImplUnitTest {
 		// Verify that no call to the recipient user profile is performed
 		verify(userProfileManager, times(0)).getUserProfile(RECIPIENT_ID.toString());
 		
-		ArgumentCaptor<SendRawEmailRequest> argument = ArgumentCaptor.forClass(SendRawEmailRequest.class);
-
-		verify(sesClient).sendRawEmail(argument.capture());
-		SendRawEmailRequest ser = argument.getValue();
+		verify(mockBulkEmailSender).sendRawEmails(emailsCaptor.capture());
+		assertEquals(1, emailsCaptor.getValue().size());
+		SendRawEmailRequest ser = emailsCaptor.getValue().get(0);
 		assertEquals("Foo FOO <foo@synapse.org>", ser.getSource());
 		assertEquals(1, ser.getDestinations().size());
 		assertEquals(RECIPIENT_EMAIL, ser.getDestinations().get(0));
@@ -12,6 +12,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -29,12 +30,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.ProfileData;
 import org.sagebionetworks.repo.model.AuthorizationConstants;
 import org.sagebionetworks.repo.model.GroupMembersDAO;
 import org.sagebionetworks.repo.model.NameConflictException;
+import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.SessionIdThreadLocal;
 import org.sagebionetworks.repo.model.TeamConstants;
 import org.sagebionetworks.repo.model.UnauthorizedException;
@@ -49,6 +54,9 @@ import org.sagebionetworks.repo.model.auth.NewUser;
 import org.sagebionetworks.repo.model.dao.NotificationEmailDAO;
 import org.sagebionetworks.repo.model.dbo.DBOBasicDao;
 import org.sagebionetworks.repo.model.dbo.principal.PrincipalOIDCBindingDao;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.repo.model.message.ChangeType;
+import org.sagebionetworks.repo.model.message.TransactionalMessenger;
 import org.sagebionetworks.repo.model.oauth.OAuthProvider;
 import org.sagebionetworks.repo.model.principal.AliasType;
 import org.sagebionetworks.repo.model.principal.PrincipalAlias;
@@ -77,6 +85,12 @@ public class UserManagerImplUnitTest {
 	private NotificationEmailDAO notificationEmailDao;
 	@Mock
 	private PrincipalOIDCBindingDao mockPrincipalOIDCDao;
+	@Mock
+	private TransactionalMessenger mockTransactionalMessenger;
+	@Mock
+	private Consumer mockConsumer;
+	@Captor
+	private ArgumentCaptor<ProfileData> profileDataCaptor;
 	
 	@InjectMocks
 	private UserManagerImpl userManager;
@@ -197,6 +211,214 @@ public class UserManagerImplUnitTest {
 		assertTrue(userInfo.hasTwoFactorAuthEnabled());
 	}
 	
+	@Test
+	public void testGetUserInfoWithCachedContext() {
+		Long principalId = 111L;
+		setupPrincipal(principalId, "222");
+		
+		userManager.getUserInfo(principalId);
+		// method under test
+		UserInfo userInfo = userManager.getUserInfo(principalId);
+		
+		assertEquals(Sets.newHashSet(principalId, 222L,
+				AuthorizationConstants.BOOTSTRAP_PRINCIPAL.AUTHENTICATED_USERS_GROUP.getPrincipalId(),
+				AuthorizationConstants.BOOTSTRAP_PRINCIPAL.PUBLIC_GROUP.getPrincipalId()), userInfo.getGroups());
+		
+		verify(mockUserGroupDAO).get(principalId);
+		verify(mockGroupMembersDAO).getUsersGroups(principalId.toString());
+		verify(mockAuthDAO).hasUserAcceptedToU(principalId);
+		verify(mockAuthDAO).isTwoFactorAuthEnabled(principalId);
+	}
+	
+	@Test
+	public void testGetUserInfoWithModifiedGroups() {
+		Long principalId = 111L;
+		setupPrincipal(principalId, "222");
+		
+		userManager.getUserInfo(principalId).getGroups().add(333L);
+		
+		// method under test
+		UserInfo userInfo = userManager.getUserInfo(principalId);
+		
+		assertFalse(userInfo.getGroups().contains(333L));
+	}
+	
+	@Test
+	public void testGetUserInfoWithNotFound() {
+		Long principalId = 111L;
+		NotFoundException notFound = new NotFoundException("not found");
+		when(mockUserGroupDAO.get(principalId)).thenThrow(notFound);
+		
+		NotFoundException result = assertThrows(NotFoundException.class, () -> {			
+			// method under test
+			userManager.getUserInfo(principalId);
+		});
+		
+		assertEquals(notFound, result);
+	}
+	
+	@Test
+	public void testGetUserInfoWithGroupPrincipal() {
+		Long principalId = 111L;
+		UserGroup principal = new UserGroup();
+		principal.setId(principalId.toString());
+		principal.setIsIndividual(false);
+		when(mockUserGroupDAO.get(principalId)).thenReturn(principal);
+		
+		String message = assertThrows(IllegalArgumentException.class, () -> {			
+			// method under test
+			userManager.getUserInfo(principalId);
+		}).getMessage();
+		
+		assertEquals("Principal: 111 is not a User", message);
+	}
+	
+	@Test
+	public void testInitialize() {
+		// method under test
+		userManager.initialize();
+		
+		verify(mockTransactionalMessenger).removeObserver(userManager);
+		verify(mockTransactionalMessenger).registerObserver(userManager);
+	}
+	
+	@Test
+	public void testFireChangeMessageWithPrincipalUpdate() {
+		Long principalId = 111L;
+		setupPrincipal(principalId, "222");
+		
+		userManager.getUserInfo(principalId);
+		
+		// method under test
+		userManager.fireChangeMessage(createChangeMessage(principalId.toString(), ObjectType.PRINCIPAL));
+		
+		userManager.getUserInfo(principalId);
+		
+		verify(mockUserGroupDAO, times(2)).get(principalId);
+		verify(mockAuthDAO, times(2)).hasUserAcceptedToU(principalId);
+		verify(mockAuthDAO, times(2)).isTwoFactorAuthEnabled(principalId);
+	}
+	
+	@Test
+	public void testFireChangeMessageWithGroupUpdate() {
+		Long principalId = 111L;
+		setupPrincipal(principalId, "222");
+		
+		userManager.getUserInfo(principalId);
+		
+		// method under test
+		userManager.fireChangeMessage(createChangeMessage("222", ObjectType.PRINCIPAL));
+		
+		userManager.getUserInfo(principalId);
+		
+		// Membership changes are sent for each member, the context of the member is not invalidated by the group update
+		verify(mockGroupMembersDAO).getUsersGroups(principalId.toString());
+	}
+	
+	@Test
+	public void testFireChangeMessageWithUnrelatedGroupUpdate() {
+		Long principalId = 111L;
+		setupPrincipal(principalId, "222");
+		
+		userManager.getUserInfo(principalId);
+		
+		// method under test
+		userManager.fireChangeMessage(createChangeMessage("333", ObjectType.PRINCIPAL));
+		
+		userManager.getUserInfo(principalId);
+		
+		verify(mockGroupMembersDAO).getUsersGroups(principalId.toString());
+	}
+	
+	@Test
+	public void testFireChangeMessageWithOtherObjectType() {
+		Long principalId = 111L;
+		setupPrincipal(principalId, "222");
+		
+		userManager.getUserInfo(principalId);
+		
+		// method under test
+		userManager.fireChangeMessage(createChangeMessage(principalId.toString(), ObjectType.ENTITY));
+		
+		userManager.getUserInfo(principalId);
+		
+		verify(mockUserGroupDAO).get(principalId);
+	}
+	
+	@Test
+	public void testPublishPrincipalContextCacheMetrics() {
+		Long principalId = 111L;
+		setupPrincipal(principalId, "222");
+		
+		// One miss and one hit
+		userManager.getUserInfo(principalId);
+		userManager.getUserInfo(principalId);
+		
+		// method under test
+		userManager.publishPrincipalContextCacheMetrics();
+		
+		verify(mockConsumer, times(2)).addProfileData(profileDataCaptor.capture());
+		
+		ProfileData hitRate = profileDataCaptor.getAllValues().get(0);
+		assertEquals(UserManagerImpl.PRINCIPAL_CONTEXT_CACHE_METRIC_NAMESPACE, hitRate.getNamespace());
+		assertEquals(UserManagerImpl.METRIC_HIT_RATE, hitRate.getName());
+		assertEquals(50.0, hitRate.getValue());
+		assertEquals("Percent", hitRate.getUnit());
+		
+		ProfileData loadTime = profileDataCaptor.getAllValues().get(1);
+		assertEquals(UserManagerImpl.PRINCIPAL_CONTEXT_CACHE_METRIC_NAMESPACE, loadTime.getNamespace());
+		assertEquals(UserManagerImpl.METRIC_AVERAGE_LOAD_TIME, loadTime.getName());
+		assertEquals("Milliseconds", loadTime.getUnit());
+	}
+	
+	@Test
+	public void testPublishPrincipalContextCacheMetricsWithNoRequests() {
+		// method under test
+		userManager.publishPrincipalContextCacheMetrics();
+		
+		verifyZeroInteractions(mockConsumer);
+	}
+	
+	@Test
+	public void testPublishPrincipalContextCacheMetricsWithOnlyHitsInPeriod() {
+		Long principalId = 111L;
+		setupPrincipal(principalId, "222");
+		
+		userManager.getUserInfo(principalId);
+		userManager.publishPrincipalContextCacheMetrics();
+		userManager.getUserInfo(principalId);
+		
+		// method under test
+		userManager.publishPrincipalContextCacheMetrics();
+		
+		// Two metrics for the first period, only the hit rate for the second
+		verify(mockConsumer, times(3)).addProfileData(profileDataCaptor.capture());
+		
+		ProfileData hitRate = profileDataCaptor.getAllValues().get(2);
+		assertEquals(UserManagerImpl.METRIC_HIT_RATE, hitRate.getName());
+		assertEquals(100.0, hitRate.getValue());
+	}
+	
+	private void setupPrincipal(Long principalId, String groupId) {
+		UserGroup principal = new UserGroup();
+		principal.setId(principalId.toString());
+		principal.setIsIndividual(true);
+		when(mockUserGroupDAO.get(principalId)).thenReturn(principal);
+		
+		UserGroup someGroup = new UserGroup();
+		someGroup.setIsIndividual(false);
+		someGroup.setId(groupId);
+		when(mockGroupMembersDAO.getUsersGroups(principalId.toString())).thenReturn(Collections.singletonList(someGroup));
+	}
+	
+	private static ChangeMessage createChangeMessage(String objectId, ObjectType objectType) {
+		ChangeMessage message = new ChangeMessage();
+		message.setObjectId(objectId);
+		message.setObjectType(objectType);
+		message.setChangeType(ChangeType.UPDATE);
+		return message;
+	}
+	
 	@Test
 	public void testCreateUserAdmin() throws Exception {
 		// Call with a non admin
@@ -91,6 +91,8 @@ public class DiscussionThreadManagerImplTest {
 	private List<String> mockList;
 	@Mock
 	private GroupMembersDAO mockGroupMembersDao;
+	@Mock
+	private DiscussionThreadViewAggregator mockThreadViewAggregator;
 
 	@InjectMocks
 	private DiscussionThreadManagerImpl threadManager;
@@ -268,15 +270,8 @@ public class DiscussionThreadManagerImplTest {
 		when(mockAuthorizationManager.canAccess(userInfo, projectId, ObjectType.ENTITY, ACCESS_TYPE.READ))
 				.thenReturn(AuthorizationStatus.authorized());
 		assertEquals(dto, threadManager.getThread(userInfo, threadId.toString()));
-		verify(mockThreadDao).updateThreadView(Mockito.anyLong(), Mockito.anyLong());
-		
-		MessageToSend expectedMessage = new MessageToSend()
-				.withUserId(userInfo.getId())
-				.withObjectType(ObjectType.THREAD_VIEW)
-				.withObjectId(threadId.toString())
-				.withChangeType(ChangeType.UPDATE);
-		
-		verify(mockTransactionalMessenger).sendMessageAfterCommit(expectedMessage);
+		verify(mockThreadViewAggregator).recordView(threadId, userInfo.getId());
+		verify(mockThreadDao, Mockito.never()).updateThreadView(Mockito.anyLong(), Mockito.anyLong());
 	}
 
 	@Test
@@ -286,7 +281,7 @@ public class DiscussionThreadManagerImplTest {
 		when(mockAuthorizationManager.canAccess(userInfo, projectId, ObjectType.ENTITY, ACCESS_TYPE.MODERATE))
 				.thenReturn(AuthorizationStatus.authorized());
 		assertEquals(dto, threadManager.getThread(userInfo, threadId.toString()));
-		verify(mockThreadDao).updateThreadView(Mockito.anyLong(), Mockito.anyLong());
+		verify(mockThreadViewAggregator).recordView(Mockito.anyLong(), Mockito.anyLong());
 	}
 
 	@Test
@@ -332,7 +327,7 @@ public class DiscussionThreadManagerImplTest {
 		when(mockAuthorizationManager.canAccess(userInfo, projectId, ObjectType.ENTITY, ACCESS_TYPE.READ))
 				.thenReturn(AuthorizationStatus.authorized());
 		threadManager.checkPermission(userInfo, threadId.toString(), ACCESS_TYPE.READ);
-		verify(mockThreadDao, Mockito.never()).updateThreadView(Mockito.anyLong(), Mockito.anyLong());
+		verify(mockThreadViewAggregator, Mockito.never()).recordView(Mockito.anyLong(), Mockito.anyLong());
 	}
 
 	@Test
@@ -635,7 +630,7 @@ public class DiscussionThreadManagerImplTest {
 		MessageURL url = threadManager.getMessageUrl(userInfo, messageKey);
 		assertNotNull(url);
 		assertNotNull(url.getMessageUrl());
-		verify(mockThreadDao).updateThreadView(threadId, userId);
+		verify(mockThreadViewAggregator).recordView(threadId, userId);
 	}
 
 	@Test
@@ -0,0 +1,138 @@
+package org.sagebionetworks.repo.manager.discussion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.dbo.dao.discussion.DiscussionThreadDAO;
+import org.sagebionetworks.repo.model.message.ChangeType;
+import org.sagebionetworks.repo.model.message.MessageToSend;
+import org.sagebionetworks.repo.model.message.TransactionalMessenger;
+import org.sagebionetworks.util.Clock;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+@ExtendWith(MockitoExtension.class)
+public class DiscussionThreadViewAggregatorImplTest {
+
+	@Mock
+	private DiscussionThreadDAO mockThreadDao;
+	@Mock
+	private TransactionalMessenger mockTransactionalMessenger;
+	@Mock
+	private Clock mockClock;
+	@Captor
+	private ArgumentCaptor<Map<Long, Set<Long>>> viewsCaptor;
+	@Captor
+	private ArgumentCaptor<MessageToSend> messageCaptor;
+
+	private DiscussionThreadViewAggregatorImpl aggregator;
+
+	@BeforeEach
+	public void before() {
+		aggregator = new DiscussionThreadViewAggregatorImpl(mockThreadDao, mockTransactionalMessenger, mockClock);
+	}
+
+	@Test
+	public void testFlushWithNoViews() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		// call under test
+		aggregator.flush();
+		verifyZeroInteractions(mockThreadDao);
+		verifyZeroInteractions(mockTransactionalMessenger);
+	}
+
+	@Test
+	public void testFlush() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		aggregator.recordView(1L, 3L);
+		aggregator.recordView(1L, 2L);
+		aggregator.recordView(2L, 3L);
+		// call under test
+		aggregator.flush();
+		verify(mockThreadDao).updateThreadViews(viewsCaptor.capture());
+		Map<Long, Set<Long>> expected = ImmutableMap.of(1L, ImmutableSet.of(2L, 3L), 2L, ImmutableSet.of(3L));
+		assertEquals(expected, viewsCaptor.getValue());
+		verify(mockTransactionalMessenger, times(2)).sendMessageAfterCommit(messageCaptor.capture());
+		List<MessageToSend> messages = messageCaptor.getAllValues();
+		for (MessageToSend message : messages) {
+			assertEquals(ObjectType.THREAD_VIEW, message.getObjectType());
+			assertEquals(ChangeType.UPDATE, message.getChangeType());
+		}
+		Map<String, Long> userByThread = ImmutableMap.of(messages.get(0).getObjectId(), messages.get(0).getUserId(),
+				messages.get(1).getObjectId(), messages.get(1).getUserId());
+		assertEquals(ImmutableMap.of("1", 2L, "2", 3L), userByThread);
+	}
+
+	@Test
+	public void testFlushOnlyOnce() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		aggregator.recordView(1L, 2L);
+		aggregator.flush();
+		// call under test
+		aggregator.flush();
+		verify(mockThreadDao, times(1)).updateThreadViews(any());
+	}
+
+	@Test
+	public void testRecordViewWithinWindow() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L, 2000L, 3000L);
+		aggregator.recordView(1L, 2L);
+		aggregator.flush();
+		// call under test
+		aggregator.recordView(1L, 2L);
+		aggregator.flush();
+		verify(mockThreadDao, times(1)).updateThreadViews(any());
+	}
+
+	@Test
+	public void testRecordViewAfterWindow() {
+		long start = 1000L;
+		long end = start + DiscussionThreadViewAggregatorImpl.DEDUPLICATION_WINDOW_MS;
+		when(mockClock.currentTimeMillis()).thenReturn(start, start, end, end);
+		aggregator.recordView(1L, 2L);
+		aggregator.flush();
+		// call under test
+		aggregator.recordView(1L, 2L);
+		aggregator.flush();
+		verify(mockThreadDao, times(2)).updateThreadViews(viewsCaptor.capture());
+		assertEquals(ImmutableMap.of(1L, ImmutableSet.of(2L)), viewsCaptor.getValue());
+	}
+
+	@Test
+	public void testFlushWithFailure() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		aggregator.recordView(1L, 2L);
+		IllegalStateException exception = new IllegalStateException("Failed");
+		doThrow(exception).doNothing().when(mockThreadDao).updateThreadViews(any());
+		IllegalStateException result = assertThrows(IllegalStateException.class, () -> {
+			// call under test
+			aggregator.flush();
+		});
+		assertEquals(exception, result);
+		verifyZeroInteractions(mockTransactionalMessenger);
+		// The views are written with the next flush
+		aggregator.flush();
+		verify(mockThreadDao, times(2)).updateThreadViews(viewsCaptor.capture());
+		assertEquals(ImmutableMap.of(1L, ImmutableSet.of(2L)), viewsCaptor.getValue());
+		verify(mockTransactionalMessenger).sendMessageAfterCommit(any(MessageToSend.class));
+	}
+}
@@ -325,7 +325,8 @@ public class SubmissionManagerTest {
 		verify(mockSubmissionStatusDAO).create(any(SubmissionStatus.class));
 		verify(mockTransactionalMessenger).sendMessageAfterCommit(getSubmissionMessage(userInfo, SUB_ID, ChangeType.CREATE));
 		verify(mockSubmissionStatusDAO, times(2)).update(any(List.class));
-		verify(mockTransactionalMessenger, times(2)).sendMessageAfterCommit(getSubmissionMessage(ownerInfo, SUB_ID, ChangeType.UPDATE));
+		verify(mockTransactionalMessenger).sendMessageAfterCommit(getSubmissionMessage(ownerInfo, SUB_ID, ChangeType.UPDATE));
+		verify(mockTransactionalMessenger).sendMessagesAfterCommit(Collections.singletonList(getSubmissionMessage(ownerInfo, SUB_ID, ChangeType.UPDATE)));
 		verify(mockSubmissionFileHandleDAO).create(eq(SUB_ID), eq(fileHandle1.getId()));
 		verify(mockSubmissionFileHandleDAO).create(eq(SUB_ID), eq(fileHandle2.getId()));
 		verify(mockEvaluationSubmissionsDAO, times(1)).lockAndGetForEvaluation(EVAL_ID_LONG);
@@ -1000,6 +1001,25 @@ public class SubmissionManagerTest {
 		assertNull(resp.getNextUploadToken());
 	}
 	
+	@Test
+	public void testUpdateSubmissionStatusBatchSendsMessagesTogether() throws Exception {
+		when(mockEvalPermissionsManager.hasAccess(eq(ownerInfo), eq(EVAL_ID), any(ACCESS_TYPE.class))).thenReturn(AuthorizationStatus.authorized());
+		when(mockSubmissionStatusDAO.getEvaluationIdForBatch((List<SubmissionStatus>)anyObject())).thenReturn(Long.parseLong(EVAL_ID));
+		SubmissionStatus otherStatus = new SubmissionStatus();
+		otherStatus.setId(SUB_ID + "1");
+		otherStatus.setEtag(subStatus.getEtag());
+		otherStatus.setStatus(subStatus.getStatus());
+		batch.setStatuses(Arrays.asList(subStatus, otherStatus));
+		
+		// call under test
+		submissionManager.updateSubmissionStatusBatch(ownerInfo, EVAL_ID, batch);
+		
+		verify(mockTransactionalMessenger).sendMessagesAfterCommit(Arrays.asList(
+				getSubmissionMessage(ownerInfo, SUB_ID, ChangeType.UPDATE),
+				getSubmissionMessage(ownerInfo, SUB_ID + "1", ChangeType.UPDATE)));
+		verify(mockTransactionalMessenger, never()).sendMessageAfterCommit(any(MessageToSend.class));
+	}
+	
 	@Test
 	public void testCreateSubmissionNotification() throws Exception {
 		assertNull(sub.getContributors());
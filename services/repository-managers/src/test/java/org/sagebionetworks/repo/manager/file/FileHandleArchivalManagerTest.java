@@ -9,6 +9,8 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -17,16 +19,20 @@ import static org.mockito.Mockito.when;
 import static  org.sagebionetworks.repo.manager.file.FileHandleArchivalManager.S3_TAG_ARCHIVED;
 import static  org.sagebionetworks.repo.manager.file.FileHandleArchivalManager.S3_TAG_SIZE_THRESHOLD;
 import static  org.sagebionetworks.repo.manager.file.FileHandleArchivalManagerImpl.ARCHIVE_BUFFER_DAYS;
-import static  org.sagebionetworks.repo.manager.file.FileHandleArchivalManagerImpl.DEFAULT_ARCHIVE_LIMIT;
 import static  org.sagebionetworks.repo.manager.file.FileHandleArchivalManagerImpl.KEYS_PER_MESSAGE;
+import static  org.sagebionetworks.repo.manager.file.FileHandleArchivalManagerImpl.MAX_ARCHIVE_LIMIT;
 import static  org.sagebionetworks.repo.manager.file.FileHandleArchivalManagerImpl.PROCESS_QUEUE_NAME;
+import static  org.sagebionetworks.repo.manager.file.FileHandleArchivalManagerImpl.SCAN_PAGE_SIZE;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -37,7 +43,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.StackConfiguration;
@@ -48,6 +54,8 @@ import org.sagebionetworks.repo.model.UnauthorizedException;
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.dao.FileHandleMetadataType;
 import org.sagebionetworks.repo.model.dbo.DBOBasicDao;
+import org.sagebionetworks.repo.model.dbo.dao.files.DBOFilesArchivalCheckpoint;
+import org.sagebionetworks.repo.model.dbo.dao.files.FilesArchivalCheckpointDao;
 import org.sagebionetworks.repo.model.dbo.file.FileHandleDao;
 import org.sagebionetworks.repo.model.file.FileHandle;
 import org.sagebionetworks.repo.model.file.FileHandleArchivalRequest;
@@ -60,6 +68,8 @@ import org.sagebionetworks.repo.model.file.FileHandleStatus;
 import org.sagebionetworks.repo.model.file.S3FileHandle;
 import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.amazonaws.AmazonServiceException.ErrorType;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
@@ -72,6 +82,9 @@ import com.amazonaws.services.sqs.model.Message;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
 
 @ExtendWith(MockitoExtension.class)
 public class FileHandleArchivalManagerTest {
@@ -97,7 +110,12 @@ public class FileHandleArchivalManagerTest {
 	@Mock
 	private FileHandleManager mockFileHandleManager;
 	
-	@InjectMocks
+	@Mock
+	private FilesArchivalCheckpointDao mockCheckpointDao;
+	
+	@Mock
+	private PlatformTransactionManager mockTransactionManager;
+	
 	private FileHandleArchivalManagerImpl manager;
 	
 	@Mock
@@ -131,6 +149,9 @@ public class FileHandleArchivalManagerTest {
 	
 	@BeforeEach
 	public void setup() {
+		manager = new FileHandleArchivalManagerImpl(mockSqs, mockS3Client, mockMapper, mockFileDao, mockBasicDao, mockFileHandleManager, mockCheckpointDao,
+				MoreExecutors.newDirectExecutorService(), new TransactionTemplate(mockTransactionManager));
+		
 		when(mockConfig.getS3Bucket()).thenReturn(bucket);
 		when(mockConfig.getQueueName(anyString())).thenReturn("queueName");
 		when(mockSqs.getQueueUrl(anyString())).thenReturn(new GetQueueUrlResult().withQueueUrl(queueUrl));
@@ -152,7 +173,7 @@ public class FileHandleArchivalManagerTest {
 		when(mockBasicDao.getDatabaseTimestampMillis()).thenReturn(timestamp);
 		when(mockRequest.getLimit()).thenReturn(Long.valueOf(limit));
 		when(mockUser.isAdmin()).thenReturn(true);
-		when(mockFileDao.getUnlinkedKeysForBucket(any(), any(), anyInt())).thenReturn(keys);
+		when(mockFileDao.getUnlinkedKeysForBucket(any(), any(), any(), anyInt())).thenReturn(keys);
 		when(mockMapper.writeValueAsString(any())).thenReturn("messageBody");
 		
 		FileHandleArchivalResponse expectedResponse = new FileHandleArchivalResponse().setCount(Long.valueOf(keys.size()));
@@ -168,9 +189,13 @@ public class FileHandleArchivalManagerTest {
 		
 		assertEquals(expectedResponse, response);
 		
-		verify(mockFileDao).getUnlinkedKeysForBucket(bucket, expectedModifiedBefore, limit);
+		verify(mockCheckpointDao).get(bucket);
+		verify(mockFileDao).getUnlinkedKeysForBucket(bucket, expectedModifiedBefore, null, SCAN_PAGE_SIZE);
 		verify(mockMapper).writeValueAsString(expectedMessage);
 		verify(mockSqs).sendMessage(queueUrl, "messageBody");
+		// The scan is completed
+		verify(mockCheckpointDao).delete(bucket);
+		verifyNoMoreInteractions(mockCheckpointDao);
 		
 	}
 	
@@ -183,7 +208,7 @@ public class FileHandleArchivalManagerTest {
 		when(mockBasicDao.getDatabaseTimestampMillis()).thenReturn(timestamp);
 		when(mockRequest.getLimit()).thenReturn(null);
 		when(mockUser.isAdmin()).thenReturn(true);
-		when(mockFileDao.getUnlinkedKeysForBucket(any(), any(), anyInt())).thenReturn(keys);
+		when(mockFileDao.getUnlinkedKeysForBucket(any(), any(), any(), anyInt())).thenReturn(keys);
 		when(mockMapper.writeValueAsString(any())).thenReturn("messageBody");
 		
 		FileHandleArchivalResponse expectedResponse = new FileHandleArchivalResponse().setCount(Long.valueOf(keys.size()));
@@ -199,7 +224,7 @@ public class FileHandleArchivalManagerTest {
 		
 		assertEquals(expectedResponse, response);
 		
-		verify(mockFileDao).getUnlinkedKeysForBucket(bucket, expectedModifiedBefore, DEFAULT_ARCHIVE_LIMIT);
+		verify(mockFileDao).getUnlinkedKeysForBucket(bucket, expectedModifiedBefore, null, SCAN_PAGE_SIZE);
 		verify(mockMapper).writeValueAsString(expectedMessage);
 		verify(mockSqs).sendMessage(queueUrl, "messageBody");
 		
@@ -216,7 +241,7 @@ public class FileHandleArchivalManagerTest {
 		when(mockBasicDao.getDatabaseTimestampMillis()).thenReturn(timestamp);
 		when(mockRequest.getLimit()).thenReturn(Long.valueOf(limit));
 		when(mockUser.isAdmin()).thenReturn(true);
-		when(mockFileDao.getUnlinkedKeysForBucket(any(), any(), anyInt())).thenReturn(keys);
+		when(mockFileDao.getUnlinkedKeysForBucket(any(), any(), any(), anyInt())).thenReturn(keys);
 		when(mockMapper.writeValueAsString(any())).thenReturn("messageBody");
 		
 		FileHandleArchivalResponse expectedResponse = new FileHandleArchivalResponse().setCount(Long.valueOf(keys.size()));
@@ -231,13 +256,115 @@ public class FileHandleArchivalManagerTest {
 		
 		assertEquals(expectedResponse, response);
 		
-		verify(mockFileDao).getUnlinkedKeysForBucket(bucket, expectedModifiedBefore, limit);
+		verify(mockFileDao).getUnlinkedKeysForBucket(bucket, expectedModifiedBefore, null, SCAN_PAGE_SIZE);
 		verify(mockMapper, times(keys.size()/KEYS_PER_MESSAGE)).writeValueAsString(requestCaptor.capture());
 		assertEquals(expectedRequests, requestCaptor.getAllValues());
 		verify(mockSqs, times(keys.size()/KEYS_PER_MESSAGE)).sendMessage(queueUrl, "messageBody");
 		
 	}
 		
+	@Test
+	public void testProcessArchivalRequestWithMultiplePages() throws JsonProcessingException {
+		
+		long timestamp = 1624584423000L;
+		
+		List<String> firstPage = IntStream.range(0, SCAN_PAGE_SIZE).boxed().map(i -> String.format("key_%05d", i)).collect(Collectors.toList());
+		List<String> lastPage = Arrays.asList("key_99999");
+		
+		when(mockBasicDao.getDatabaseTimestampMillis()).thenReturn(timestamp);
+		when(mockRequest.getLimit()).thenReturn(null);
+		when(mockUser.isAdmin()).thenReturn(true);
+		when(mockFileDao.getUnlinkedKeysForBucket(any(), any(), any(), anyInt())).thenReturn(firstPage, lastPage);
+		when(mockMapper.writeValueAsString(any())).thenReturn("messageBody");
+		
+		FileHandleArchivalResponse expectedResponse = new FileHandleArchivalResponse().setCount(Long.valueOf(SCAN_PAGE_SIZE + 1));
+		Instant expectedModifiedBefore = Instant.ofEpochMilli(timestamp).minus(ARCHIVE_BUFFER_DAYS, ChronoUnit.DAYS);
+		String expectedLastKey = firstPage.get(SCAN_PAGE_SIZE - 1);
+		
+		// Call under test
+		FileHandleArchivalResponse response = manager.processFileHandleArchivalRequest(mockUser, mockRequest);
+		
+		assertEquals(expectedResponse, response);
+		
+		verify(mockFileDao).getUnlinkedKeysForBucket(bucket, expectedModifiedBefore, null, SCAN_PAGE_SIZE);
+		verify(mockCheckpointDao).set(bucket, expectedModifiedBefore, expectedLastKey);
+		verify(mockFileDao).getUnlinkedKeysForBucket(bucket, expectedModifiedBefore, expectedLastKey, SCAN_PAGE_SIZE);
+		verify(mockCheckpointDao).delete(bucket);
+		verify(mockSqs, times(SCAN_PAGE_SIZE / KEYS_PER_MESSAGE + 1)).sendMessage(queueUrl, "messageBody");
+		
+	}
+	
+	@Test
+	public void testProcessArchivalRequestWithLimitReached() throws JsonProcessingException {
+		
+		long timestamp = 1624584423000L;
+		int limit = SCAN_PAGE_SIZE + KEYS_PER_MESSAGE;
+		
+		List<String> firstPage = IntStream.range(0, SCAN_PAGE_SIZE).boxed().map(i -> String.format("key_%05d", i)).collect(Collectors.toList());
+		List<String> lastPage = IntStream.range(SCAN_PAGE_SIZE, limit).boxed().map(i -> String.format("key_%05d", i)).collect(Collectors.toList());
+		
+		when(mockBasicDao.getDatabaseTimestampMillis()).thenReturn(timestamp);
+		when(mockRequest.getLimit()).thenReturn(Long.valueOf(limit));
+		when(mockUser.isAdmin()).thenReturn(true);
+		when(mockFileDao.getUnlinkedKeysForBucket(any(), any(), any(), anyInt())).thenReturn(firstPage, lastPage);
+		when(mockMapper.writeValueAsString(any())).thenReturn("messageBody");
+		
+		FileHandleArchivalResponse expectedResponse = new FileHandleArchivalResponse().setCount(Long.valueOf(limit));
+		Instant expectedModifiedBefore = Instant.ofEpochMilli(timestamp).minus(ARCHIVE_BUFFER_DAYS, ChronoUnit.DAYS);
+		
+		// Call under test
+		FileHandleArchivalResponse response = manager.processFileHandleArchivalRequest(mockUser, mockRequest);
+		
+		assertEquals(expectedResponse, response);
+		
+		verify(mockFileDao).getUnlinkedKeysForBucket(bucket, expectedModifiedBefore, null, SCAN_PAGE_SIZE);
+		verify(mockCheckpointDao).set(bucket, expectedModifiedBefore, firstPage.get(SCAN_PAGE_SIZE - 1));
+		// Only the remaining keys are fetched
+		verify(mockFileDao).getUnlinkedKeysForBucket(bucket, expectedModifiedBefore, firstPage.get(SCAN_PAGE_SIZE - 1), KEYS_PER_MESSAGE);
+		// The next request will resume the scan
+		verify(mockCheckpointDao).set(bucket, expectedModifiedBefore, lastPage.get(KEYS_PER_MESSAGE - 1));
+		verify(mockCheckpointDao, never()).delete(any());
+		verify(mockSqs, times(limit / KEYS_PER_MESSAGE)).sendMessage(queueUrl, "messageBody");
+		
+	}
+	
+	@Test
+	public void testProcessArchivalRequestWithCheckpoint() throws JsonProcessingException {
+		
+		Instant checkpointModifiedBefore = Instant.parse("2021-02-03T10:00:00.00Z");
+		List<String> keys = Arrays.asList("key3", "key4");
+		
+		DBOFilesArchivalCheckpoint checkpoint = new DBOFilesArchivalCheckpoint();
+		checkpoint.setBucketName(bucket);
+		checkpoint.setModifiedBefore(checkpointModifiedBefore);
+		checkpoint.setLastKey("key2");
+		
+		when(mockCheckpointDao.get(any())).thenReturn(Optional.of(checkpoint));
+		when(mockRequest.getLimit()).thenReturn(null);
+		when(mockUser.isAdmin()).thenReturn(true);
+		when(mockFileDao.getUnlinkedKeysForBucket(any(), any(), any(), anyInt())).thenReturn(keys);
+		when(mockMapper.writeValueAsString(any())).thenReturn("messageBody");
+		
+		FileHandleArchivalResponse expectedResponse = new FileHandleArchivalResponse().setCount(Long.valueOf(keys.size()));
+		
+		FileHandleKeysArchiveRequest expectedMessage = new FileHandleKeysArchiveRequest()
+				.withBucket(bucket)
+				.withModifiedBefore(checkpointModifiedBefore.toEpochMilli())
+				.withKeys(keys);
+		
+		// Call under test
+		FileHandleArchivalResponse response = manager.processFileHandleArchivalRequest(mockUser, mockRequest);
+		
+		assertEquals(expectedResponse, response);
+		
+		verify(mockCheckpointDao).get(bucket);
+		verifyZeroInteractions(mockBasicDao);
+		verify(mockFileDao).getUnlinkedKeysForBucket(bucket, checkpointModifiedBefore, "key2", SCAN_PAGE_SIZE);
+		verify(mockMapper).writeValueAsString(expectedMessage);
+		verify(mockCheckpointDao).delete(bucket);
+		
+	}
+		
 	@Test
 	public void testProcessArchivalRequestWithSerializeException() throws JsonProcessingException {
 		
@@ -248,7 +375,7 @@ public class FileHandleArchivalManagerTest {
 		when(mockBasicDao.getDatabaseTimestampMillis()).thenReturn(timestamp);
 		when(mockRequest.getLimit()).thenReturn(Long.valueOf(limit));
 		when(mockUser.isAdmin()).thenReturn(true);
-		when(mockFileDao.getUnlinkedKeysForBucket(any(), any(), anyInt())).thenReturn(keys);
+		when(mockFileDao.getUnlinkedKeysForBucket(any(), any(), any(), anyInt())).thenReturn(keys);
 		
 		JsonProcessingException ex = new JsonParseException(null, "error");
 		
@@ -266,7 +393,7 @@ public class FileHandleArchivalManagerTest {
 			manager.processFileHandleArchivalRequest(mockUser, mockRequest);
 		});
 		
-		verify(mockFileDao).getUnlinkedKeysForBucket(bucket, expectedModifiedBefore, limit);
+		verify(mockFileDao).getUnlinkedKeysForBucket(bucket, expectedModifiedBefore, null, SCAN_PAGE_SIZE);
 		verify(mockMapper).writeValueAsString(expectedMessage);
 		verifyNoMoreInteractions(mockSqs);
 		
@@ -321,21 +448,21 @@ public class FileHandleArchivalManagerTest {
 			manager.processFileHandleArchivalRequest(mockUser, mockRequest);			
 		});
 		
-		assertEquals("If supplied the limit must be in the range (0, 100000]", ex.getMessage());
+		assertEquals("If supplied the limit must be in the range (0, 10000000]", ex.getMessage());
 				
 	}
 	
 	@Test
 	public void testProcessArchivalRequestWithExceedLimit() {
 		
-		when(mockRequest.getLimit()).thenReturn(DEFAULT_ARCHIVE_LIMIT + 1L);
+		when(mockRequest.getLimit()).thenReturn(MAX_ARCHIVE_LIMIT + 1L);
 		
 		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
 			// Call under test
 			manager.processFileHandleArchivalRequest(mockUser, mockRequest);			
 		});
 		
-		assertEquals("If supplied the limit must be in the range (0, 100000]", ex.getMessage());
+		assertEquals("If supplied the limit must be in the range (0, 10000000]", ex.getMessage());
 				
 	}
 		
@@ -610,6 +737,222 @@ public class FileHandleArchivalManagerTest {
 		verifyZeroInteractions(mockFileDao);
 	}
 	
+	@Test
+	public void testArchiveUnlinkedFileHandlesByKeys() {
+		List<String> keys = Arrays.asList("key1", "key2", "key3", "key4");
+		
+		Instant modifiedBefore = Instant.parse("2021-02-03T10:00:00.00Z");
+		
+		when(mockUser.isAdmin()).thenReturn(true);
+		when(mockFileDao.updateStatusByBucketAndKeys(anyString(), any(), any(), any(), any())).thenReturn(ImmutableMap.of("key1", 2, "key2", 1, "key3", 1));
+		// key2 is still available
+		when(mockFileDao.getKeysWithAvailableOrEarlyUnlinkedFileHandles(anyString(), any(), any())).thenReturn(ImmutableSet.of("key2"));
+		// key3 is too small to be tagged
+		when(mockFileDao.getContentSizeByKeys(anyString(), any())).thenReturn(ImmutableMap.of("key1", S3_TAG_SIZE_THRESHOLD, "key3", 1L));
+		when(mockS3Client.getObjectTags(anyString(), anyString())).thenReturn(Collections.emptyList());
+		when(mockFileDao.clearPreviewByKeyAndStatus(any(), any(), any())).thenReturn(Collections.emptySet());
+		
+		Map<String, FileHandleKeyArchiveResult> expected = new LinkedHashMap<>();
+		expected.put("key1", new FileHandleKeyArchiveResult(2, true));
+		expected.put("key2", new FileHandleKeyArchiveResult(1, false));
+		expected.put("key3", new FileHandleKeyArchiveResult(1, false));
+		expected.put("key4", new FileHandleKeyArchiveResult(0, false));
+		
+		// Call under test
+		Map<String, FileHandleKeyArchiveResult> result = manager.archiveUnlinkedFileHandlesByKeys(mockUser, bucket, keys, modifiedBefore);
+		
+		assertEquals(expected, result);
+		
+		InOrder inOrder = inOrder(mockFileDao, mockTransactionManager, mockS3Client);
+		
+		inOrder.verify(mockFileDao).updateStatusByBucketAndKeys(bucket, keys, FileHandleStatus.ARCHIVED, FileHandleStatus.UNLINKED, modifiedBefore);
+		// The objects are tagged after the status update is committed
+		inOrder.verify(mockTransactionManager).commit(any());
+		inOrder.verify(mockFileDao).getKeysWithAvailableOrEarlyUnlinkedFileHandles(bucket, keys, modifiedBefore);
+		inOrder.verify(mockFileDao).getContentSizeByKeys(bucket, ImmutableSet.of("key1", "key3", "key4"));
+		inOrder.verify(mockFileDao).getAvailableOrEarlyUnlinkedFileHandlesCount(bucket, "key1", modifiedBefore);
+		inOrder.verify(mockS3Client).getObjectTags(bucket, "key1");
+		inOrder.verify(mockS3Client).setObjectTags(bucket, "key1", Arrays.asList(S3_TAG_ARCHIVED));
+		verify(mockFileDao).clearPreviewByKeyAndStatus(bucket, "key1", FileHandleStatus.ARCHIVED);
+		verify(mockFileDao).clearPreviewByKeyAndStatus(bucket, "key2", FileHandleStatus.ARCHIVED);
+		verify(mockFileDao).clearPreviewByKeyAndStatus(bucket, "key3", FileHandleStatus.ARCHIVED);
+		verifyNoMoreInteractions(mockS3Client);
+		verifyNoMoreInteractions(mockFileDao);
+	}
+	
+	@Test
+	public void testArchiveUnlinkedFileHandlesByKeysWithRestoredBeforeTagging() {
+		List<String> keys = Arrays.asList("key1");
+		
+		Instant modifiedBefore = Instant.parse("2021-02-03T10:00:00.00Z");
+		
+		when(mockUser.isAdmin()).thenReturn(true);
+		when(mockFileDao.updateStatusByBucketAndKeys(anyString(), any(), any(), any(), any())).thenReturn(ImmutableMap.of("key1", 1));
+		when(mockFileDao.getKeysWithAvailableOrEarlyUnlinkedFileHandles(anyString(), any(), any())).thenReturn(Collections.emptySet());
+		when(mockFileDao.getContentSizeByKeys(anyString(), any())).thenReturn(ImmutableMap.of("key1", S3_TAG_SIZE_THRESHOLD));
+		// A file handle of the key is restored while waiting to tag the object
+		when(mockFileDao.getAvailableOrEarlyUnlinkedFileHandlesCount(anyString(), anyString(), any())).thenReturn(1);
+		
+		Map<String, FileHandleKeyArchiveResult> expected = new LinkedHashMap<>();
+		expected.put("key1", new FileHandleKeyArchiveResult(1, false));
+		
+		// Call under test
+		Map<String, FileHandleKeyArchiveResult> result = manager.archiveUnlinkedFileHandlesByKeys(mockUser, bucket, keys, modifiedBefore);
+		
+		assertEquals(expected, result);
+		
+		verify(mockFileDao).getAvailableOrEarlyUnlinkedFileHandlesCount(bucket, "key1", modifiedBefore);
+		verify(mockFileDao, never()).deleteUnavailableByBucketAndKey(any(), any());
+		verifyZeroInteractions(mockS3Client);
+	}
+	
+	@Test
+	public void testArchiveUnlinkedFileHandlesByKeysWithObjectNotFoundExceptionWhileTagging() {
+		List<String> keys = Arrays.asList("key1", "key2");
+		
+		Instant modifiedBefore = Instant.parse("2021-02-03T10:00:00.00Z");
+		
+		when(mockUser.isAdmin()).thenReturn(true);
+		when(mockFileDao.updateStatusByBucketAndKeys(anyString(), any(), any(), any(), any())).thenReturn(ImmutableMap.of("key1", 1, "key2", 1));
+		when(mockFileDao.getKeysWithAvailableOrEarlyUnlinkedFileHandles(anyString(), any(), any())).thenReturn(Collections.emptySet());
+		when(mockFileDao.getContentSizeByKeys(anyString(), any())).thenReturn(ImmutableMap.of("key1", S3_TAG_SIZE_THRESHOLD, "key2", S3_TAG_SIZE_THRESHOLD));
+		when(mockS3Client.getObjectTags(anyString(), anyString())).thenReturn(Collections.emptyList());
+		when(mockFileDao.clearPreviewByKeyAndStatus(any(), any(), any())).thenReturn(Collections.emptySet());
+		
+		AmazonS3Exception ex = new AmazonS3Exception("Key not found");
+		
+		ex.setStatusCode(HttpStatus.SC_NOT_FOUND);
+		
+		doThrow(ex).when(mockS3Client).getObjectTags(bucket, "key2");
+		
+		Map<String, FileHandleKeyArchiveResult> expected = new LinkedHashMap<>();
+		expected.put("key1", new FileHandleKeyArchiveResult(1, true));
+		expected.put("key2", new FileHandleKeyArchiveResult(1, false));
+		
+		// Call under test
+		Map<String, FileHandleKeyArchiveResult> result = manager.archiveUnlinkedFileHandlesByKeys(mockUser, bucket, keys, modifiedBefore);
+		
+		assertEquals(expected, result);
+		
+		verify(mockS3Client).setObjectTags(bucket, "key1", Arrays.asList(S3_TAG_ARCHIVED));
+		verify(mockFileDao).deleteUnavailableByBucketAndKey(bucket, "key2");
+		verify(mockFileDao, never()).deleteUnavailableByBucketAndKey(bucket, "key1");
+	}
+	
+	@Test
+	public void testArchiveUnlinkedFileHandlesByKeysWithRecoverableExceptionWhileTagging() {
+		List<String> keys = Arrays.asList("key1");
+		
+		Instant modifiedBefore = Instant.parse("2021-02-03T10:00:00.00Z");
+		
+		when(mockUser.isAdmin()).thenReturn(true);
+		when(mockFileDao.updateStatusByBucketAndKeys(anyString(), any(), any(), any(), any())).thenReturn(ImmutableMap.of("key1", 1));
+		when(mockFileDao.getKeysWithAvailableOrEarlyUnlinkedFileHandles(anyString(), any(), any())).thenReturn(Collections.emptySet());
+		when(mockFileDao.getContentSizeByKeys(anyString(), any())).thenReturn(ImmutableMap.of("key1", S3_TAG_SIZE_THRESHOLD));
+		
+		AmazonS3Exception ex = new AmazonS3Exception("Some error");
+		
+		ex.setErrorType(ErrorType.Service);
+		
+		doThrow(ex).when(mockS3Client).getObjectTags(any(), any());
+		
+		RecoverableMessageException result = assertThrows(RecoverableMessageException.class, () -> {
+			// Call under test
+			manager.archiveUnlinkedFileHandlesByKeys(mockUser, bucket, keys, modifiedBefore);
+		});
+		
+		assertEquals(ex, result.getCause());
+		
+		// The status update is kept, the object is tagged when the batch is retried
+		verify(mockTransactionManager).commit(any());
+		verify(mockS3Client).getObjectTags(bucket, "key1");
+		verifyNoMoreInteractions(mockS3Client);
+		verify(mockFileDao, never()).deleteUnavailableByBucketAndKey(any(), any());
+	}
+	
+	@Test
+	public void testArchiveUnlinkedFileHandlesByKeysWithAlreadyArchived() {
+		List<String> keys = Arrays.asList("key1", "key2");
+		
+		Instant modifiedBefore = Instant.parse("2021-02-03T10:00:00.00Z");
+		
+		when(mockUser.isAdmin()).thenReturn(true);
+		// The file handles were archived by a previous attempt that failed to tag the objects
+		when(mockFileDao.updateStatusByBucketAndKeys(anyString(), any(), any(), any(), any())).thenReturn(Collections.emptyMap());
+		when(mockFileDao.getKeysWithAvailableOrEarlyUnlinkedFileHandles(anyString(), any(), any())).thenReturn(Collections.emptySet());
+		when(mockFileDao.getContentSizeByKeys(anyString(), any())).thenReturn(ImmutableMap.of("key1", S3_TAG_SIZE_THRESHOLD));
+		when(mockS3Client.getObjectTags(anyString(), anyString())).thenReturn(Collections.emptyList());
+		
+		Map<String, FileHandleKeyArchiveResult> expected = new LinkedHashMap<>();
+		expected.put("key1", new FileHandleKeyArchiveResult(0, true));
+		expected.put("key2", new FileHandleKeyArchiveResult(0, false));
+		
+		// Call under test
+		Map<String, FileHandleKeyArchiveResult> result = manager.archiveUnlinkedFileHandlesByKeys(mockUser, bucket, keys, modifiedBefore);
+		
+		assertEquals(expected, result);
+		
+		verify(mockFileDao).getContentSizeByKeys(bucket, ImmutableSet.of("key1", "key2"));
+		verify(mockS3Client).setObjectTags(bucket, "key1", Arrays.asList(S3_TAG_ARCHIVED));
+		verify(mockFileDao, never()).clearPreviewByKeyAndStatus(any(), any(), any());
+	}
+	
+	@Test
+	public void testArchiveUnlinkedFileHandlesByKeysWithNoUpdates() {
+		List<String> keys = Arrays.asList("key1", "key2");
+		
+		Instant modifiedBefore = Instant.parse("2021-02-03T10:00:00.00Z");
+		
+		when(mockUser.isAdmin()).thenReturn(true);
+		when(mockFileDao.updateStatusByBucketAndKeys(anyString(), any(), any(), any(), any())).thenReturn(Collections.emptyMap());
+		// Both keys are still available
+		when(mockFileDao.getKeysWithAvailableOrEarlyUnlinkedFileHandles(anyString(), any(), any())).thenReturn(ImmutableSet.of("key1", "key2"));
+		
+		Map<String, FileHandleKeyArchiveResult> expected = new LinkedHashMap<>();
+		expected.put("key1", new FileHandleKeyArchiveResult(0, false));
+		expected.put("key2", new FileHandleKeyArchiveResult(0, false));
+		
+		// Call under test
+		Map<String, FileHandleKeyArchiveResult> result = manager.archiveUnlinkedFileHandlesByKeys(mockUser, bucket, keys, modifiedBefore);
+		
+		assertEquals(expected, result);
+		
+		verify(mockFileDao).updateStatusByBucketAndKeys(bucket, keys, FileHandleStatus.ARCHIVED, FileHandleStatus.UNLINKED, modifiedBefore);
+		verify(mockFileDao).getKeysWithAvailableOrEarlyUnlinkedFileHandles(bucket, keys, modifiedBefore);
+		verifyNoMoreInteractions(mockFileDao);
+		verifyZeroInteractions(mockS3Client);
+	}
+	
+	@Test
+	public void testArchiveUnlinkedFileHandlesByKeysWithEmptyKeys() {
+		Instant modifiedBefore = Instant.parse("2021-02-03T10:00:00.00Z");
+		
+		when(mockUser.isAdmin()).thenReturn(true);
+		
+		// Call under test
+		Map<String, FileHandleKeyArchiveResult> result = manager.archiveUnlinkedFileHandlesByKeys(mockUser, bucket, Collections.emptyList(), modifiedBefore);
+		
+		assertTrue(result.isEmpty());
+		
+		verifyZeroInteractions(mockFileDao);
+	}
+	
+	@Test
+	public void testArchiveUnlinkedFileHandlesByKeysWithNotAdmin() {
+		Instant modifiedBefore = Instant.parse("2021-02-03T10:00:00.00Z");
+		
+		when(mockUser.isAdmin()).thenReturn(false);
+		
+		UnauthorizedException ex = assertThrows(UnauthorizedException.class, () -> {
+			// Call under test
+			manager.archiveUnlinkedFileHandlesByKeys(mockUser, bucket, Arrays.asList("key1"), modifiedBefore);
+		});
+		
+		assertEquals("Only administrators can access this service.", ex.getMessage());
+		
+		verifyZeroInteractions(mockFileDao);
+	}
+	
 	@Test
 	public void testAddOrClearArchivalTagWithAddAndEmptyTags() {
 		String key = "key";
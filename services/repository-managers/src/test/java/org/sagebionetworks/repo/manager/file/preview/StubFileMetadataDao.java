@@ -1,6 +1,7 @@
 package org.sagebionetworks.repo.manager.file.preview;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -175,7 +176,13 @@ public class StubFileMetadataDao implements FileHandleDao {
 	}
 	
 	@Override
-	public List<String> getUnlinkedKeysForBucket(String bucketName, Instant modifiedBefore, int limit) {
+	public List<String> getUnlinkedKeysForBucket(String bucketName, Instant modifiedBefore, String afterKey, int limit) {
+		// TODO Auto-generated method stub
+		return null;
+	}
+	
+	@Override
+	public Set<String> getKeysWithAvailableOrEarlyUnlinkedFileHandles(String bucketName, Collection<String> keys, Instant modifiedAfter) {
 		// TODO Auto-generated method stub
 		return null;
 	}
@@ -193,6 +200,13 @@ public class StubFileMetadataDao implements FileHandleDao {
 		return 0;
 	}
 	
+	@Override
+	public Map<String, Integer> updateStatusByBucketAndKeys(String bucketName, List<String> keys, FileHandleStatus newStatus,
+			FileHandleStatus currentStatus, Instant modifiedBefore) {
+		// TODO Auto-generated method stub
+		return null;
+	}
+	
 	@Override
 	public Set<Long> clearPreviewByKeyAndStatus(String bucketName, String key, FileHandleStatus status) {
 		// TODO Auto-generated method stub
@@ -228,5 +242,11 @@ public class StubFileMetadataDao implements FileHandleDao {
 		// TODO Auto-generated method stub
 		return null;
 	}
+	
+	@Override
+	public Map<String, Long> getContentSizeByKeys(String bucketName, Collection<String> keys) {
+		// TODO Auto-generated method stub
+		return null;
+	}
 
 }
@@ -1,5 +1,6 @@
 package org.sagebionetworks.repo.manager.message;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.lenient;
@@ -22,6 +23,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -29,7 +32,7 @@ import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.markdown.MarkdownClientException;
 import org.sagebionetworks.repo.manager.AuthorizationManager;
 import org.sagebionetworks.repo.manager.UserManager;
-import org.sagebionetworks.repo.manager.principal.SynapseEmailService;
+import org.sagebionetworks.repo.manager.principal.BulkEmailSender;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.UnauthorizedException;
 import org.sagebionetworks.repo.model.UserInfo;
@@ -61,7 +64,7 @@ public class BroadcastMessageManagerImplTest {
 	@Mock
 	private DBOChangeDAO mockChangeDao;
 	@Mock
-	private SynapseEmailService mockSesClient;
+	private BulkEmailSender mockBulkEmailSender;
 	@Mock
 	private TimeoutUtils mockTimeoutUtils;
 	@Mock
@@ -82,6 +85,8 @@ public class BroadcastMessageManagerImplTest {
 	private AuthorizationManager mockAuthManager;
 	@Mock
 	private EmailQuarantineDao mockEmailQuarantineDao;
+	@Captor
+	private ArgumentCaptor<List<SendRawEmailRequest>> emailsCaptor;
 
 	@InjectMocks
 	private BroadcastMessageManagerImpl manager;
@@ -141,7 +146,8 @@ public class BroadcastMessageManagerImplTest {
 		// The message state should be sent.
 		verify(mockBroadcastMessageDao).setBroadcast(change.getChangeNumber());
 		// two messages should be sent
-		verify(mockSesClient, times(2)).sendRawEmail(any(SendRawEmailRequest.class));
+		verify(mockBulkEmailSender).sendRawEmails(emailsCaptor.capture());
+		assertEquals(2, emailsCaptor.getValue().size());
 	}
 
 	@Test
@@ -181,7 +187,10 @@ public class BroadcastMessageManagerImplTest {
 		verify(mockUserManager, never()).getUserInfo(2L);
 		verify(mockAuthManager).canSubscribe(hasAccessUserInfo, topic.getObjectId(), topic.getObjectType());
 		verify(mockAuthManager).canSubscribe(accessDeniedUserInfo, topic.getObjectId(), topic.getObjectType());
-		verify(mockSesClient, times(2)).sendRawEmail(any(SendRawEmailRequest.class));
+		// one batch for the subscribers and one for the mentioned users
+		verify(mockBulkEmailSender, times(2)).sendRawEmails(emailsCaptor.capture());
+		assertEquals(2, emailsCaptor.getAllValues().get(0).size());
+		assertEquals(1, emailsCaptor.getAllValues().get(1).size());
 	}
 	
 	@Test
@@ -190,15 +199,58 @@ public class BroadcastMessageManagerImplTest {
 		
 		subscribers.get(0).setNotificationEmail(quarantinedEmail);
 		
-		when(mockEmailQuarantineDao.isQuarantined(quarantinedEmail)).thenReturn(true);
+		when(mockEmailQuarantineDao.getQuarantinedEmails(any())).thenReturn(Collections.singleton(quarantinedEmail));
 		when(mockSubscriptionDAO.getAllEmailSubscribers(topic.getObjectId(), topic.getObjectType())).thenReturn(subscribers);
 		when(mockBroadcastMessageBuilder.buildEmailForSubscriber(any(Subscriber.class))).thenReturn(new SendRawEmailRequest());
 		// call under test
 		manager.broadcastMessage(mockUser, mockCallback, change);
 
-		verify(mockEmailQuarantineDao).isQuarantined(quarantinedEmail);
+		// A single lookup for all the subscribers
+		verify(mockEmailQuarantineDao).getQuarantinedEmails(Arrays.asList(quarantinedEmail, null));
+		verify(mockBroadcastMessageBuilder).buildEmailForSubscriber(subscribers.get(1));
 		// Only one message should be sent
-		verify(mockSesClient).sendRawEmail(any(SendRawEmailRequest.class));
+		verify(mockBulkEmailSender).sendRawEmails(emailsCaptor.capture());
+		assertEquals(1, emailsCaptor.getValue().size());
+	}
+	
+	@Test
+	public void testBroadcastMessageToSubscribersInBatches() throws Exception {
+		subscribers = new ArrayList<Subscriber>();
+		for (int i = 0; i < BroadcastMessageManagerImpl.EMAIL_BATCH_SIZE + 1; i++) {
+			Subscriber subscriber = new Subscriber();
+			subscriber.setSubscriptionId("" + i);
+			subscriber.setSubscriberId("" + i);
+			subscriber.setNotificationEmail(i + "@example.com");
+			subscribers.add(subscriber);
+		}
+		when(mockSubscriptionDAO.getAllEmailSubscribers(topic.getObjectId(), topic.getObjectType())).thenReturn(subscribers);
+		when(mockBroadcastMessageBuilder.buildEmailForSubscriber(any(Subscriber.class))).thenReturn(new SendRawEmailRequest());
+		when(mockBroadcastMessageBuilder.getRelatedUsers()).thenReturn(Collections.emptySet());
+		// call under test
+		manager.broadcastMessage(mockUser, mockCallback, change);
+
+		verify(mockEmailQuarantineDao, times(2)).getQuarantinedEmails(any());
+		verify(mockBulkEmailSender, times(2)).sendRawEmails(emailsCaptor.capture());
+		assertEquals(BroadcastMessageManagerImpl.EMAIL_BATCH_SIZE, emailsCaptor.getAllValues().get(0).size());
+		assertEquals(1, emailsCaptor.getAllValues().get(1).size());
+	}
+	
+	@Test
+	public void testBroadcastMessageWithSendFailure() throws Exception {
+		IllegalStateException failure = new IllegalStateException("failed");
+		when(mockSubscriptionDAO.getAllEmailSubscribers(topic.getObjectId(), topic.getObjectType())).thenReturn(subscribers);
+		when(mockBroadcastMessageBuilder.buildEmailForSubscriber(any(Subscriber.class))).thenReturn(new SendRawEmailRequest());
+		when(mockBulkEmailSender.sendRawEmails(any())).thenReturn(Collections.singletonMap(1, failure));
+		
+		IllegalStateException result = Assertions.assertThrows(IllegalStateException.class, () -> {
+			// call under test
+			manager.broadcastMessage(mockUser, mockCallback, change);
+		});
+		
+		assertEquals(failure, result);
+		// The other email is still sent
+		verify(mockBulkEmailSender).sendRawEmails(emailsCaptor.capture());
+		assertEquals(2, emailsCaptor.getValue().size());
 	}
 
 	@SuppressWarnings("unchecked")
@@ -238,6 +290,7 @@ public class BroadcastMessageManagerImplTest {
 		verify(mockBroadcastMessageBuilder).getRelatedUsers();
 		verify(mockUserProfileDao).getUserNotificationInfo(userIds);
 		verify(mockUserManager, never()).getUserInfo(anyLong());
+		verify(mockBulkEmailSender, never()).sendRawEmails(any());
 	}
 	
 
@@ -273,7 +326,8 @@ public class BroadcastMessageManagerImplTest {
 		verify(mockUserManager).getUserInfo(222L);
 		verify(mockAuthManager).canSubscribe(hasAccessUserInfo, topic.getObjectId(), topic.getObjectType());
 		verify(mockAuthManager).canSubscribe(accessDeniedUserInfo, topic.getObjectId(), topic.getObjectType());
-		verify(mockSesClient).sendRawEmail(any(SendRawEmailRequest.class));
+		verify(mockBulkEmailSender).sendRawEmails(emailsCaptor.capture());
+		assertEquals(1, emailsCaptor.getValue().size());
 	}
 
 	@Test
@@ -308,7 +362,8 @@ public class BroadcastMessageManagerImplTest {
 		verify(mockUserManager).getUserInfo(222L);
 		verify(mockAuthManager).canSubscribe(hasAccessUserInfo1, topic.getObjectId(), topic.getObjectType());
 		verify(mockAuthManager).canSubscribe(hasAccessUserInfo2, topic.getObjectId(), topic.getObjectType());
-		verify(mockSesClient, times(2)).sendRawEmail(any(SendRawEmailRequest.class));
+		verify(mockBulkEmailSender).sendRawEmails(emailsCaptor.capture());
+		assertEquals(2, emailsCaptor.getValue().size());
 	}
 	
 	@Test
@@ -316,7 +371,7 @@ public class BroadcastMessageManagerImplTest {
 		
 		String quarantinedEmail = "quarantined@example.com";
 
-		when(mockEmailQuarantineDao.isQuarantined(quarantinedEmail)).thenReturn(true);
+		when(mockEmailQuarantineDao.getQuarantinedEmails(any())).thenReturn(Collections.singleton(quarantinedEmail));
 		when(mockBroadcastMessageBuilder.buildEmailForNonSubscriber(any(UserNotificationInfo.class))).thenReturn(new SendRawEmailRequest());
 		
 		
@@ -338,11 +393,12 @@ public class BroadcastMessageManagerImplTest {
 		
 		verify(mockBroadcastMessageBuilder).getRelatedUsers();
 		verify(mockUserProfileDao).getUserNotificationInfo(userIds);
-		verify(mockEmailQuarantineDao).isQuarantined(quarantinedEmail);
+		verify(mockEmailQuarantineDao).getQuarantinedEmails(Arrays.asList(quarantinedEmail, null));
 		verify(mockUserManager).getUserInfo(222L);
 		
 		// Only one should have been sent
-		verify(mockSesClient).sendRawEmail(any(SendRawEmailRequest.class));
+		verify(mockBulkEmailSender).sendRawEmails(emailsCaptor.capture());
+		assertEquals(1, emailsCaptor.getValue().size());
 	}
 
 	@Test
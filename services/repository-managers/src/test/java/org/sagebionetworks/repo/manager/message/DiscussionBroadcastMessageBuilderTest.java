@@ -10,6 +10,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -21,6 +22,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.sagebionetworks.markdown.MarkdownClientException;
 import org.sagebionetworks.markdown.MarkdownDao;
@@ -29,6 +31,7 @@ import org.sagebionetworks.repo.model.broadcast.UserNotificationInfo;
 import org.sagebionetworks.repo.model.dao.subscription.Subscriber;
 import org.sagebionetworks.repo.model.subscription.SubscriptionObjectType;
 import org.sagebionetworks.repo.model.subscription.Topic;
+import org.sagebionetworks.repo.util.MessageTestUtil;
 
 import com.amazonaws.services.simpleemail.model.SendRawEmailRequest;
 import com.google.common.collect.Sets;
@@ -177,6 +180,48 @@ public class DiscussionBroadcastMessageBuilderTest {
 		assertNotNull(request);
 	}
 
+	@Test
+	public void testBuildEmailForSubscriberRendersMarkdownOnce() throws Exception{
+		when(mockMarkdownDao.convertMarkdown(anyString(), isNull())).thenAnswer((InvocationOnMock invocation) -> {
+			return "<p>" + invocation.getArgument(0) + "</p>";
+		});
+		Subscriber other = new Subscriber();
+		other.setFirstName("<b>other</b>");
+		other.setLastName("subscriber");
+		other.setNotificationEmail("other@domain.org");
+		other.setUsername("otherUsername");
+		other.setSubscriptionId("1000");
+		// call under test
+		String body = MessageTestUtil.getBodyFromRawMessage(builder.buildEmailForSubscriber(subscriber), "text/html");
+		String otherBody = MessageTestUtil.getBodyFromRawMessage(builder.buildEmailForSubscriber(other), "text/html");
+		verify(mockMarkdownDao, times(1)).convertMarkdown(builder.buildRawBodyForSubscriber(
+				DiscussionBroadcastMessageBuilder.RECIPIENT_NAME_PLACEHOLDER, DiscussionBroadcastMessageBuilder.SUBSCRIPTION_ID_PLACEHOLDER), null);
+		assertTrue(body.contains("Hello subscriberFirstName subscriberLastName (subscriberUsername)"));
+		assertTrue(body.contains("https://www.synapse.org/#!Subscription:subscriptionID=999"));
+		// the name of the recipient is not interpreted as HTML
+		assertTrue(otherBody.contains("Hello &lt;b&gt;other&lt;/b&gt; subscriber (otherUsername)"));
+		assertTrue(otherBody.contains("https://www.synapse.org/#!Subscription:subscriptionID=1000"));
+		assertFalse(otherBody.contains(DiscussionBroadcastMessageBuilder.RECIPIENT_NAME_PLACEHOLDER));
+	}
+
+	@Test
+	public void testBuildEmailForNonSubscriberRendersMarkdownOnce() throws Exception{
+		when(mockMarkdownDao.convertMarkdown(anyString(), isNull())).thenAnswer((InvocationOnMock invocation) -> {
+			return "<p>" + invocation.getArgument(0) + "</p>";
+		});
+		UserNotificationInfo other = new UserNotificationInfo();
+		other.setFirstName("other");
+		other.setLastName("user");
+		other.setNotificationEmail("other@domain.org");
+		other.setUsername("otherUsername");
+		// call under test
+		String body = MessageTestUtil.getBodyFromRawMessage(builder.buildEmailForNonSubscriber(user), "text/html");
+		String otherBody = MessageTestUtil.getBodyFromRawMessage(builder.buildEmailForNonSubscriber(other), "text/html");
+		verify(mockMarkdownDao, times(1)).convertMarkdown(builder.buildRawBodyForNonSubscriber(DiscussionBroadcastMessageBuilder.RECIPIENT_NAME_PLACEHOLDER), null);
+		assertTrue(body.contains("Hello firstName lastName (username)"));
+		assertTrue(otherBody.contains("Hello other user (otherUsername)"));
+	}
+
 	@Test
 	public void testTruncateStringOver(){
 		String input = "123456789";
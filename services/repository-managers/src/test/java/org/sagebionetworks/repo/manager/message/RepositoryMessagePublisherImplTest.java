@@ -3,10 +3,12 @@ package org.sagebionetworks.repo.manager.message;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Date;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.StackConfiguration;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.repo.model.message.ChangeMessages;
 import org.sagebionetworks.repo.model.message.ChangeType;
 import org.sagebionetworks.repo.model.message.LocalStackMessage;
 import org.sagebionetworks.repo.model.message.TransactionalMessenger;
@@ -108,6 +111,68 @@ public class RepositoryMessagePublisherImplTest {
 		messagePublisher.fireChangeMessage(message);
 	}
 	
+	@Test
+	public void testTimerFiredPublishesSubmissionsTogether() throws JSONObjectAdapterException {
+		ChangeMessage second = new ChangeMessage();
+		second.setChangeNumber(124L);
+		second.setTimestamp(new Date());
+		second.setChangeType(ChangeType.UPDATE);
+		second.setObjectId("syn789");
+		second.setObjectType(ObjectType.ENTITY);
+		ChangeMessage submission = new ChangeMessage();
+		submission.setChangeNumber(125L);
+		submission.setTimestamp(new Date());
+		submission.setChangeType(ChangeType.UPDATE);
+		submission.setObjectId("111");
+		submission.setObjectType(ObjectType.SUBMISSION);
+		ChangeMessage secondSubmission = new ChangeMessage();
+		secondSubmission.setChangeNumber(126L);
+		secondSubmission.setTimestamp(new Date());
+		secondSubmission.setChangeType(ChangeType.UPDATE);
+		secondSubmission.setObjectId("222");
+		secondSubmission.setObjectType(ObjectType.SUBMISSION);
+		
+		when(mockConfig.getShouldMessagesBePublishedToTopic()).thenReturn(true);
+		when(mockConfig.getRepositoryChangeTopic(any())).thenReturn("topic");
+		when(mockAwsSNSClient.createTopic(any(CreateTopicRequest.class))).thenReturn(new CreateTopicResult().withTopicArn("topicArn"));
+		
+		messagePublisher.fireChangeMessage(message);
+		messagePublisher.fireChangeMessage(submission);
+		messagePublisher.fireChangeMessage(second);
+		messagePublisher.fireChangeMessage(secondSubmission);
+		
+		ChangeMessages firstMessages = new ChangeMessages();
+		firstMessages.setList(Arrays.asList(message));
+		ChangeMessages secondMessages = new ChangeMessages();
+		secondMessages.setList(Arrays.asList(second));
+		ChangeMessages submissionMessages = new ChangeMessages();
+		submissionMessages.setList(Arrays.asList(submission, secondSubmission));
+		
+		// Call under test
+		messagePublisher.timerFired();
+		
+		// Only the messages of the submissions are published together
+		verify(mockTransactionalMessanger).registerMessagesSent(ObjectType.ENTITY, Arrays.asList(message));
+		verify(mockTransactionalMessanger).registerMessagesSent(ObjectType.ENTITY, Arrays.asList(second));
+		verify(mockTransactionalMessanger).registerMessagesSent(ObjectType.SUBMISSION, Arrays.asList(submission, secondSubmission));
+		verify(mockAwsSNSClient).publish(new PublishRequest("topicArn", EntityFactory.createJSONStringForEntity(firstMessages)));
+		verify(mockAwsSNSClient).publish(new PublishRequest("topicArn", EntityFactory.createJSONStringForEntity(secondMessages)));
+		verify(mockAwsSNSClient).publish(new PublishRequest("topicArn", EntityFactory.createJSONStringForEntity(submissionMessages)));
+		verify(mockAwsSNSClient, times(3)).publish(any(PublishRequest.class));
+	}
+	
+	@Test
+	public void testTimerFiredWithPublishDisabled() {
+		when(mockConfig.getShouldMessagesBePublishedToTopic()).thenReturn(false);
+		messagePublisher.fireChangeMessage(message);
+		
+		// Call under test
+		messagePublisher.timerFired();
+		
+		verifyZeroInteractions(mockTransactionalMessanger);
+		verifyZeroInteractions(mockAwsSNSClient);
+	}
+	
 	@Test
 	public void testFireLocalStackMessage() throws JSONObjectAdapterException {
 		ObjectType type = ObjectType.TABLE_STATUS_EVENT;
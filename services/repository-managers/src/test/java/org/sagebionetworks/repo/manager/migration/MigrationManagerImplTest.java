@@ -1056,6 +1056,7 @@ public class MigrationManagerImplTest {
 	@Test
 	public void testCalculateBatchChecksums() throws IOException {
 		when(mockUser.isAdmin()).thenReturn(true);
+		when(mockStatusDao.getCurrentStatus()).thenReturn(StatusEnum.READ_WRITE);
 		when(mockDao.calculateBatchChecksums(any())).thenReturn(Lists.newArrayList(sum));
 		
 		BatchChecksumRequest request = new BatchChecksumRequest();
@@ -1073,6 +1074,26 @@ public class MigrationManagerImplTest {
 		assertEquals(1, response.getCheksums().size());
 	}
 	
+	@Test
+	public void testCalculateBatchChecksumsReadOnly() throws IOException {
+		when(mockUser.isAdmin()).thenReturn(true);
+		when(mockStatusDao.getCurrentStatus()).thenReturn(StatusEnum.READ_ONLY);
+		when(mockDao.calculateBatchChecksumsIncrementally(any())).thenReturn(Lists.newArrayList(sum));
+		
+		BatchChecksumRequest request = new BatchChecksumRequest();
+		request.setBatchSize(3L);
+		request.setMinimumId(0L);
+		request.setMaximumId(0L);
+		request.setSalt("some salt");
+		request.setMigrationType(MigrationType.FILE_HANDLE);
+		// call under test
+		BatchChecksumResponse response = manager.calculateBatchChecksums(mockUser, request);
+		verify(mockDao).calculateBatchChecksumsIncrementally(request);
+		verify(mockDao, never()).calculateBatchChecksums(any());
+		assertEquals(request.getMigrationType(), response.getMigrationType());
+		assertEquals(Lists.newArrayList(sum), response.getCheksums());
+	}
+	
 	@Test
 	public void testCalculateBatchChecksumsNonAdmin() {
 		when(mockUser.isAdmin()).thenReturn(false);
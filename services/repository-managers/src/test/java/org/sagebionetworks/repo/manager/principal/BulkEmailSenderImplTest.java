@@ -0,0 +1,136 @@
+package org.sagebionetworks.repo.manager.principal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amazonaws.services.simpleemail.model.SendRawEmailRequest;
+import com.google.common.collect.ImmutableList;
+
+public class BulkEmailSenderImplTest {
+
+	private static final int POOL_SIZE = 8;
+
+	private ExecutorService executorService;
+
+	@BeforeEach
+	public void before() {
+		executorService = Executors.newFixedThreadPool(POOL_SIZE);
+	}
+
+	@AfterEach
+	public void after() {
+		executorService.shutdownNow();
+	}
+
+	@Test
+	public void testSendRawEmailsWithEmptyList() {
+		InMemorySynapseEmailService ses = new InMemorySynapseEmailService(0);
+		BulkEmailSenderImpl sender = new BulkEmailSenderImpl(ses, executorService, 1000);
+		// call under test
+		Map<Integer, RuntimeException> failures = sender.sendRawEmails(Collections.emptyList());
+		assertTrue(failures.isEmpty());
+		assertEquals(0, ses.getSentCount());
+	}
+
+	@Test
+	public void testSendRawEmailsConcurrently() {
+		long latencyMs = 50;
+		int count = 40;
+		InMemorySynapseEmailService ses = new InMemorySynapseEmailService(latencyMs);
+		BulkEmailSenderImpl sender = new BulkEmailSenderImpl(ses, executorService, 1000);
+		List<SendRawEmailRequest> requests = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			requests.add(createRequest("user" + i + "@test.com", i));
+		}
+		long start = System.currentTimeMillis();
+		// call under test
+		Map<Integer, RuntimeException> failures = sender.sendRawEmails(requests);
+		long elapsed = System.currentTimeMillis() - start;
+		assertTrue(failures.isEmpty());
+		assertEquals(count, ses.getSentCount());
+		assertTrue(ses.getMaxInFlight() > 1, "Max in flight: " + ses.getMaxInFlight());
+		assertTrue(ses.getMaxInFlight() <= POOL_SIZE, "Max in flight: " + ses.getMaxInFlight());
+		// Sending one at a time would take count * latency
+		assertTrue(elapsed < count * latencyMs / 2, "Elapsed: " + elapsed);
+	}
+
+	@Test
+	public void testSendRawEmailsPerRecipientOrder() {
+		InMemorySynapseEmailService ses = new InMemorySynapseEmailService(5);
+		BulkEmailSenderImpl sender = new BulkEmailSenderImpl(ses, executorService, 1000);
+		List<String> recipients = ImmutableList.of("one@test.com", "two@test.com", "three@test.com");
+		List<SendRawEmailRequest> requests = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			requests.add(createRequest(recipients.get(i % recipients.size()), i));
+		}
+		// call under test
+		Map<Integer, RuntimeException> failures = sender.sendRawEmails(requests);
+		assertTrue(failures.isEmpty());
+		for (String recipient : recipients) {
+			List<SendRawEmailRequest> expected = requests.stream()
+					.filter((SendRawEmailRequest request) -> request.getDestinations().get(0).equals(recipient))
+					.collect(Collectors.toList());
+			assertEquals(expected, ses.getSentTo(recipient));
+		}
+	}
+
+	@Test
+	public void testSendRawEmailsWithRateLimit() {
+		InMemorySynapseEmailService ses = new InMemorySynapseEmailService(0);
+		double maxSendRate = 20;
+		BulkEmailSenderImpl sender = new BulkEmailSenderImpl(ses, executorService, maxSendRate);
+		List<SendRawEmailRequest> requests = new ArrayList<>();
+		for (int i = 0; i < 11; i++) {
+			requests.add(createRequest("user" + i + "@test.com", i));
+		}
+		long start = System.currentTimeMillis();
+		// call under test
+		sender.sendRawEmails(requests);
+		long elapsed = System.currentTimeMillis() - start;
+		assertEquals(11, ses.getSentCount());
+		// The first email is sent right away, the other ten are spaced by 50 ms
+		assertTrue(elapsed >= 400, "Elapsed: " + elapsed);
+	}
+
+	@Test
+	public void testSendRawEmailsWithFailure() {
+		InMemorySynapseEmailService ses = new InMemorySynapseEmailService(0);
+		ses.failFor("bad@test.com");
+		BulkEmailSenderImpl sender = new BulkEmailSenderImpl(ses, executorService, 1000);
+		List<SendRawEmailRequest> requests = ImmutableList.of(
+				createRequest("good@test.com", 0),
+				createRequest("bad@test.com", 1),
+				createRequest("good@test.com", 2));
+		// call under test
+		Map<Integer, RuntimeException> failures = sender.sendRawEmails(requests);
+		assertEquals(Collections.singleton(1), failures.keySet());
+		assertEquals("Address blacklisted: bad@test.com", failures.get(1).getMessage());
+		assertEquals(ImmutableList.of(requests.get(0), requests.get(2)), ses.getSentTo("good@test.com"));
+	}
+
+	@Test
+	public void testConstructorWithInvalidRate() {
+		InMemorySynapseEmailService ses = new InMemorySynapseEmailService(0);
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			new BulkEmailSenderImpl(ses, executorService, 0);
+		}).getMessage();
+		assertEquals("The maximum send rate must be greater than zero.", message);
+	}
+
+	private static SendRawEmailRequest createRequest(String recipient, int index) {
+		return new SendRawEmailRequest().withDestinations(recipient).withSource("sender" + index + "@test.com");
+	}
+}
@@ -0,0 +1,97 @@
+package org.sagebionetworks.repo.manager.principal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.amazonaws.services.simpleemail.model.SendEmailRequest;
+import com.amazonaws.services.simpleemail.model.SendRawEmailRequest;
+
+/**
+ * A local stand-in for SES that keeps the sent emails in memory. Each send
+ * takes the configured latency so that tests can measure the throughput and
+ * the concurrency of the senders, and the order in which each recipient
+ * received its emails.
+ *
+ */
+public class InMemorySynapseEmailService implements SynapseEmailService {
+
+	private final long latencyMs;
+	private final Map<String, List<SendRawEmailRequest>> sentByRecipient = new ConcurrentHashMap<>();
+	private final Set<String> failingRecipients = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger sentCount = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	public InMemorySynapseEmailService(long latencyMs) {
+		this.latencyMs = latencyMs;
+	}
+
+	@Override
+	public void sendEmail(SendEmailRequest emailRequest) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void sendRawEmail(SendRawEmailRequest sendRawEmailRequest) {
+		int current = inFlight.incrementAndGet();
+		maxInFlight.accumulateAndGet(current, Math::max);
+		try {
+			if (latencyMs > 0) {
+				Thread.sleep(latencyMs);
+			}
+			String recipient = sendRawEmailRequest.getDestinations().get(0);
+			if (failingRecipients.contains(recipient)) {
+				throw new IllegalStateException("Address blacklisted: " + recipient);
+			}
+			sentByRecipient.computeIfAbsent(recipient, (String key) -> Collections.synchronizedList(new ArrayList<>())).add(sendRawEmailRequest);
+			sentCount.incrementAndGet();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} finally {
+			inFlight.decrementAndGet();
+		}
+	}
+
+	@Override
+	public double getMaxSendRate() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Any email sent to the given recipient will fail.
+	 *
+	 * @param recipient
+	 */
+	public void failFor(String recipient) {
+		failingRecipients.add(recipient);
+	}
+
+	/**
+	 * @param recipient
+	 * @return The emails received by the given recipient, in the order they were received.
+	 */
+	public List<SendRawEmailRequest> getSentTo(String recipient) {
+		return new ArrayList<>(sentByRecipient.getOrDefault(recipient, Collections.emptyList()));
+	}
+
+	/**
+	 * @return The total number of emails sent.
+	 */
+	public int getSentCount() {
+		return sentCount.get();
+	}
+
+	/**
+	 * @return The maximum number of emails that were sent concurrently.
+	 */
+	public int getMaxInFlight() {
+		return maxInFlight.get();
+	}
+
+}
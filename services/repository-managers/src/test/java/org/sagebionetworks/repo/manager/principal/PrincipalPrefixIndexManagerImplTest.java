@@ -0,0 +1,120 @@
+package org.sagebionetworks.repo.manager.principal;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.dbo.dao.DBOChangeDAO;
+import org.sagebionetworks.repo.model.dbo.principal.PrincipalPrefixDAO;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.util.Clock;
+
+import com.google.common.collect.ImmutableSet;
+
+@ExtendWith(MockitoExtension.class)
+public class PrincipalPrefixIndexManagerImplTest {
+
+	@Mock
+	private PrincipalPrefixDAO mockPrincipalPrefixDao;
+	@Mock
+	private DBOChangeDAO mockChangeDao;
+	@Mock
+	private Clock mockClock;
+
+	@InjectMocks
+	private PrincipalPrefixIndexManagerImpl manager;
+
+	private long now;
+
+	@BeforeEach
+	public void before() {
+		now = 1_000_000L;
+	}
+
+	@Test
+	public void testRefreshIndexFirstCall() {
+		when(mockClock.currentTimeMillis()).thenReturn(now);
+		when(mockChangeDao.getCurrentChangeNumber()).thenReturn(100L);
+		when(mockChangeDao.listChanges(anyLong(), eq(ObjectType.PRINCIPAL), anyLong())).thenReturn(
+				Arrays.asList(change("1", 101L), change("2", 102L)));
+
+		// call under test
+		manager.refreshIndex();
+
+		verify(mockPrincipalPrefixDao).loadIndex();
+		verify(mockChangeDao).listChanges(101L, ObjectType.PRINCIPAL, PrincipalPrefixIndexManagerImpl.CHANGES_PAGE_SIZE);
+		verify(mockPrincipalPrefixDao).refreshIndex(ImmutableSet.of(1L, 2L));
+	}
+
+	@Test
+	public void testRefreshIndexWithRecentChanges() {
+		when(mockClock.currentTimeMillis()).thenReturn(now, now, now + 1000L);
+		when(mockChangeDao.getCurrentChangeNumber()).thenReturn(100L);
+		when(mockChangeDao.listChanges(anyLong(), eq(ObjectType.PRINCIPAL), anyLong())).thenReturn(
+				Arrays.asList(change("1", 101L)), Arrays.asList(change("2", 105L)));
+		manager.refreshIndex();
+
+		// call under test
+		manager.refreshIndex();
+
+		// only loaded once
+		verify(mockPrincipalPrefixDao).loadIndex();
+		verify(mockChangeDao).listChanges(102L, ObjectType.PRINCIPAL, PrincipalPrefixIndexManagerImpl.CHANGES_PAGE_SIZE);
+		// The first principal is still within the window
+		verify(mockPrincipalPrefixDao).refreshIndex(ImmutableSet.of(1L, 2L));
+	}
+
+	@Test
+	public void testRefreshIndexWithExpiredChanges() {
+		long later = now + PrincipalPrefixIndexManagerImpl.RECENT_CHANGE_WINDOW_MS + 1;
+		when(mockClock.currentTimeMillis()).thenReturn(now, now, later);
+		when(mockChangeDao.getCurrentChangeNumber()).thenReturn(100L);
+		when(mockChangeDao.listChanges(anyLong(), eq(ObjectType.PRINCIPAL), anyLong())).thenReturn(
+				Arrays.asList(change("1", 101L)), Collections.emptyList());
+		manager.refreshIndex();
+
+		// call under test
+		manager.refreshIndex();
+
+		verify(mockPrincipalPrefixDao).refreshIndex(ImmutableSet.of(1L));
+		verify(mockPrincipalPrefixDao).refreshIndex(Collections.emptySet());
+	}
+
+	@Test
+	public void testRefreshIndexWithReload() {
+		long later = now + PrincipalPrefixIndexManagerImpl.RELOAD_INTERVAL_MS;
+		when(mockClock.currentTimeMillis()).thenReturn(now, now, later, later);
+		when(mockChangeDao.getCurrentChangeNumber()).thenReturn(100L, 200L);
+		when(mockChangeDao.listChanges(anyLong(), eq(ObjectType.PRINCIPAL), anyLong())).thenReturn(Collections.emptyList());
+		manager.refreshIndex();
+
+		// call under test
+		manager.refreshIndex();
+
+		verify(mockPrincipalPrefixDao, times(2)).loadIndex();
+		// polling continues from the last change seen
+		verify(mockChangeDao, times(2)).listChanges(101L, ObjectType.PRINCIPAL, PrincipalPrefixIndexManagerImpl.CHANGES_PAGE_SIZE);
+		verify(mockChangeDao, never()).listChanges(201L, ObjectType.PRINCIPAL, PrincipalPrefixIndexManagerImpl.CHANGES_PAGE_SIZE);
+	}
+
+	private static ChangeMessage change(String objectId, Long changeNumber) {
+		ChangeMessage change = new ChangeMessage();
+		change.setObjectId(objectId);
+		change.setObjectType(ObjectType.PRINCIPAL);
+		change.setChangeNumber(changeNumber);
+		return change;
+	}
+}
@@ -0,0 +1,144 @@
+package org.sagebionetworks.repo.manager.replication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sagebionetworks.repo.manager.replication.IdRangeChecksumComparator.IdRange;
+import org.sagebionetworks.repo.manager.replication.IdRangeChecksumComparator.IdRangeChecksumProvider;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
+
+public class IdRangeChecksumComparatorTest {
+
+	private TreeMap<Long, Long> truth;
+	private TreeMap<Long, Long> replication;
+	private int truthCalls;
+
+	@BeforeEach
+	public void before() {
+		truth = new TreeMap<>();
+		replication = new TreeMap<>();
+		for (long id = 1000; id < 101_000; id++) {
+			truth.put(id, id * 7);
+			replication.put(id, id * 7);
+		}
+		truthCalls = 0;
+	}
+
+	@Test
+	public void testFindMismatchedRangesWithMatch() {
+		IdRangeChecksumComparator comparator = new IdRangeChecksumComparator(countingProvider(truth), provider(replication));
+		// call under test
+		List<IdRange> ranges = comparator.findMismatchedRanges();
+		assertEquals(Collections.emptyList(), ranges);
+		// only the root bucket is compared
+		assertEquals(1, truthCalls);
+		assertEquals(1L, comparator.getBucketsCompared());
+		assertEquals(0L, comparator.getRowsToScan());
+	}
+
+	@Test
+	public void testFindMismatchedRangesWithSingleChange() {
+		replication.put(50_123L, 0L);
+		IdRangeChecksumComparator comparator = new IdRangeChecksumComparator(countingProvider(truth), provider(replication));
+		// call under test
+		List<IdRange> ranges = comparator.findMismatchedRanges();
+		assertEquals(1, ranges.size());
+		IdRange range = ranges.get(0);
+		assertContains(range, 50_123L);
+		// Only a leaf is scanned rather than all the 100K objects
+		assertTrue(comparator.getRowsToScan() <= 2 * IdRangeChecksumComparator.LEAF_SIZE);
+		assertTrue(truthCalls < 5);
+	}
+
+	@Test
+	public void testFindMismatchedRangesWithMissingAndExtra() {
+		truth.remove(1500L);
+		replication.remove(99_000L);
+		replication.put(200_000L, 1L);
+		IdRangeChecksumComparator comparator = new IdRangeChecksumComparator(provider(truth), provider(replication));
+		// call under test
+		List<IdRange> ranges = comparator.findMismatchedRanges();
+		assertEquals(3, ranges.size());
+		assertContains(ranges.get(0), 1500L);
+		assertContains(ranges.get(1), 99_000L);
+		assertContains(ranges.get(2), 200_000L);
+		// Ranges are disjoint and ordered
+		for (int i = 1; i < ranges.size(); i++) {
+			assertTrue(ranges.get(i - 1).getMaxId() < ranges.get(i).getMinId());
+		}
+	}
+
+	@Test
+	public void testFindMismatchedRangesWithEmptyReplication() {
+		replication.clear();
+		IdRangeChecksumComparator comparator = new IdRangeChecksumComparator(provider(truth), provider(replication));
+		// call under test
+		List<IdRange> ranges = comparator.findMismatchedRanges();
+		// All the objects must be compared but the ranges cover everything
+		long covered = ranges.stream().mapToLong(r -> truth.subMap(r.getMinId(), true, r.getMaxId(), true).size()).sum();
+		assertEquals(truth.size(), covered);
+		assertEquals((long) truth.size(), comparator.getRowsToScan());
+	}
+
+	@Test
+	public void testFindMismatchedRangesWithSmallView() {
+		truth = new TreeMap<>();
+		truth.put(1L, 1L);
+		truth.put(3L, 3L);
+		replication = new TreeMap<>();
+		replication.put(3L, 3L);
+		IdRangeChecksumComparator comparator = new IdRangeChecksumComparator(provider(truth), provider(replication));
+		// call under test
+		List<IdRange> ranges = comparator.findMismatchedRanges();
+		assertEquals(Arrays.asList(new IdRange(1L, 3L)), ranges);
+		assertEquals(3L, comparator.getRowsToScan());
+	}
+
+	@Test
+	public void testConstructorWithNullTruth() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			new IdRangeChecksumComparator(null, provider(replication));
+		}).getMessage();
+		assertEquals("truth is required.", message);
+	}
+
+	void assertContains(IdRange range, long id) {
+		assertTrue(range.getMinId() <= id && id <= range.getMaxId(), range.toString());
+	}
+
+	IdRangeChecksumProvider countingProvider(TreeMap<Long, Long> checksums) {
+		IdRangeChecksumProvider provider = provider(checksums);
+		return (minId, maxId, bucketSize) -> {
+			truthCalls++;
+			return provider.getIdRangeChecksums(minId, maxId, bucketSize);
+		};
+	}
+
+	/**
+	 * In-memory equivalent of the bucket queries.
+	 */
+	static IdRangeChecksumProvider provider(TreeMap<Long, Long> checksums) {
+		return (minId, maxId, bucketSize) -> {
+			TreeMap<Long, IdRangeChecksum> buckets = new TreeMap<>();
+			checksums.subMap(minId, true, maxId, true).forEach((id, checksum) -> {
+				long bucket = (id - minId) / bucketSize;
+				IdRangeChecksum current = buckets.get(bucket);
+				if (current == null) {
+					buckets.put(bucket, new IdRangeChecksum().withBucket(bucket).withMinId(id).withMaxId(id).withCount(1L).withChecksum(checksum));
+				} else {
+					current.withMaxId(id).withCount(current.getCount() + 1).withChecksum(current.getChecksum() + checksum);
+				}
+			});
+			return new ArrayList<>(buckets.values());
+		};
+	}
+}
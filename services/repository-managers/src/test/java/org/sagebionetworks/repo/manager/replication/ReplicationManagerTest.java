@@ -9,7 +9,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -44,6 +46,7 @@ import org.sagebionetworks.repo.manager.table.metadata.MetadataIndexProviderFact
 import org.sagebionetworks.repo.manager.table.metadata.ObjectDataProvider;
 import org.sagebionetworks.repo.manager.table.metadata.ObjectDataProviderFactory;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
@@ -74,6 +77,8 @@ public class ReplicationManagerTest {
 	@Mock
 	private TableIndexManager mockTableIndexManager;
 	@Mock
+	private TableIndexManager mockOtherTableIndexManager;
+	@Mock
 	private TableManagerSupport mockTableManagerSupport;
 	@Mock
 	private MetadataIndexProviderFactory mockIndexProviderFactory;
@@ -191,14 +196,14 @@ public class ReplicationManagerTest {
 		List<Long> expectedDeleteIds = ImmutableList.of(333L);
 		List<Long> expectedCreateOrUpdateIds = ImmutableList.of(111L, 222L);
 
-		when(mockIndexConnectionFactory.connectToFirstIndex()).thenReturn(mockTableIndexManager);
+		when(mockIndexConnectionFactory.connectToAllIndices()).thenReturn(Collections.singletonList(mockTableIndexManager));
 		when(mockObjectDataProviderFactory.getObjectDataProvider(any())).thenReturn(mockObjectDataProvider);
 		when(mockObjectDataProvider.getObjectData(any(), anyInt())).thenReturn(entityData.iterator());
 
 		// call under test
 		manager.replicate(changes);
 
-		verify(mockIndexConnectionFactory).connectToFirstIndex();
+		verify(mockIndexConnectionFactory).connectToAllIndices();
 		verify(mockObjectDataProviderFactory).getObjectDataProvider(mainType);
 		verify(mockObjectDataProvider).getObjectData(expectedCreateOrUpdateIds,
 				ReplicationManagerImpl.MAX_ANNOTATION_CHARS);
@@ -218,14 +223,14 @@ public class ReplicationManagerTest {
 
 		List<Long> expectedDeleteIds = Collections.emptyList();
 
-		when(mockIndexConnectionFactory.connectToFirstIndex()).thenReturn(mockTableIndexManager);
+		when(mockIndexConnectionFactory.connectToAllIndices()).thenReturn(Collections.singletonList(mockTableIndexManager));
 		when(mockObjectDataProviderFactory.getObjectDataProvider(any())).thenReturn(mockObjectDataProvider);
 		when(mockObjectDataProvider.getObjectData(any(), anyInt())).thenReturn(entityData.iterator());
 
 		// call under test
 		manager.replicate(mainType, entityId);
 
-		verify(mockIndexConnectionFactory).connectToFirstIndex();
+		verify(mockIndexConnectionFactory).connectToAllIndices();
 		verify(mockObjectDataProviderFactory).getObjectDataProvider(mainType);
 		verify(mockObjectDataProvider).getObjectData(entityids, ReplicationManagerImpl.MAX_ANNOTATION_CHARS);
 		verify(mockTableIndexManager).deleteObjectData(mainType, expectedDeleteIds);
@@ -234,6 +239,67 @@ public class ReplicationManagerTest {
 		assertEquals(entityData, actualList);
 	}
 
+	@Test
+	public void testReplicateChangesWithMultipleIndices() throws RecoverableMessageException, Exception {
+
+		int count = 2;
+		List<ObjectDataDTO> entityData = createEntityDtos(count);
+
+		List<Long> expectedDeleteIds = ImmutableList.of(333L);
+		List<Long> expectedCreateOrUpdateIds = ImmutableList.of(111L, 222L);
+
+		when(mockIndexConnectionFactory.connectToAllIndices()).thenReturn(ImmutableList.of(mockTableIndexManager, mockOtherTableIndexManager));
+		when(mockObjectDataProviderFactory.getObjectDataProvider(any())).thenReturn(mockObjectDataProvider);
+		when(mockObjectDataProvider.getObjectData(any(), anyInt())).thenReturn(entityData.iterator(), entityData.iterator());
+
+		// call under test
+		manager.replicate(changes);
+
+		verify(mockIndexConnectionFactory).connectToAllIndices();
+		verify(mockObjectDataProviderFactory).getObjectDataProvider(mainType);
+		verify(mockObjectDataProvider, times(2)).getObjectData(expectedCreateOrUpdateIds,
+				ReplicationManagerImpl.MAX_ANNOTATION_CHARS);
+		
+		for (TableIndexManager indexManager : ImmutableList.of(mockTableIndexManager, mockOtherTableIndexManager)) {
+			verify(indexManager).deleteObjectData(mainType, expectedDeleteIds);
+			verify(indexManager).updateObjectReplication(eq(mainType), iteratorCaptor.capture());
+			List<ObjectDataDTO> actualList = ImmutableList.copyOf(iteratorCaptor.getValue());
+			assertEquals(entityData, actualList);
+		}
+	}
+
+	@Test
+	public void testReplicateChangesWithMultipleIndicesAndFailure() throws RecoverableMessageException, Exception {
+
+		int count = 2;
+		List<ObjectDataDTO> entityData = createEntityDtos(count);
+
+		List<Long> expectedDeleteIds = ImmutableList.of(333L);
+
+		when(mockIndexConnectionFactory.connectToAllIndices()).thenReturn(ImmutableList.of(mockTableIndexManager, mockOtherTableIndexManager));
+		when(mockObjectDataProviderFactory.getObjectDataProvider(any())).thenReturn(mockObjectDataProvider);
+		when(mockObjectDataProvider.getObjectData(any(), anyInt())).thenReturn(entityData.iterator());
+		
+		IllegalStateException failure = new IllegalStateException("failed");
+		
+		doThrow(failure).when(mockTableIndexManager).deleteObjectData(any(), any());
+
+		IllegalStateException result = assertThrows(IllegalStateException.class, () -> {
+			// call under test
+			manager.replicate(changes);
+		});
+		
+		assertEquals(failure, result);
+
+		verify(mockTableIndexManager).deleteObjectData(mainType, expectedDeleteIds);
+		verify(mockTableIndexManager, never()).updateObjectReplication(any(), any());
+		// The failure on the first index does not prevent the update of the other
+		verify(mockOtherTableIndexManager).deleteObjectData(mainType, expectedDeleteIds);
+		verify(mockOtherTableIndexManager).updateObjectReplication(eq(mainType), iteratorCaptor.capture());
+		assertEquals(entityData, ImmutableList.copyOf(iteratorCaptor.getValue()));
+		verify(mockLogger).error("Failed to update the replication tables of an index: failed", failure);
+	}
+
 	/**
 	 * Test helper
 	 *
@@ -596,7 +662,7 @@ public class ReplicationManagerTest {
 		Iterator<IdAndChecksum> truthStream = Arrays.asList(new IdAndChecksum().withId(1L).withChecksum(0L)).iterator();
 		doReturn(truthStream).when(managerSpy).createTruthStream(any(), any());
 
-		when(mockIndexConnectionFactory.connectToFirstIndex()).thenReturn(mockTableIndexManager);
+		when(mockIndexConnectionFactory.connectToAllIndices()).thenReturn(Collections.singletonList(mockTableIndexManager));
 
 		when(mockFilter.getReplicationType()).thenReturn(ReplicationType.ENTITY);
 
@@ -614,10 +680,101 @@ public class ReplicationManagerTest {
 		assertFalse(result.hasNext());
 
 		verify(managerSpy).createTruthStream(salt, mockFilter);
-		verify(mockIndexConnectionFactory).connectToFirstIndex();
+		verify(mockIndexConnectionFactory).connectToAllIndices();
 		verify(mockTableIndexManager).streamOverIdsAndChecksums(salt, mockFilter);
 	}
 
+	@Test
+	public void testCreateReconcileIteratorWithMultipleIndices() {
+		long salt = 1235L;
+		when(mockRandom.nextLong()).thenReturn(salt);
+
+		doReturn(
+			List.of(new IdAndChecksum().withId(1L).withChecksum(1L), new IdAndChecksum().withId(2L).withChecksum(2L)).iterator(),
+			List.of(new IdAndChecksum().withId(1L).withChecksum(1L), new IdAndChecksum().withId(2L).withChecksum(2L)).iterator()
+		).when(managerSpy).createTruthStream(any(), any());
+
+		when(mockIndexConnectionFactory.connectToAllIndices()).thenReturn(ImmutableList.of(mockTableIndexManager, mockOtherTableIndexManager));
+
+		when(mockFilter.getReplicationType()).thenReturn(ReplicationType.ENTITY);
+
+		// The first index is missing the object 2
+		when(mockTableIndexManager.streamOverIdsAndChecksums(any(), any())).thenReturn(
+				List.of(new IdAndChecksum().withId(1L).withChecksum(1L)).iterator());
+		// The other index (e.g. a new database) is missing both
+		when(mockOtherTableIndexManager.streamOverIdsAndChecksums(any(), any())).thenReturn(Collections.emptyIterator());
+
+		// call under test
+		Iterator<ChangeMessage> result = managerSpy.createReconcileIterator(mockFilter);
+		List<ChangeMessage> messages = new ArrayList<>();
+		result.forEachRemaining(messages::add);
+		
+		// Each object is sent only once
+		assertEquals(List.of(
+			new ChangeMessage().setObjectId("2").setObjectType(ObjectType.ENTITY).setChangeType(ChangeType.CREATE),
+			new ChangeMessage().setObjectId("1").setObjectType(ObjectType.ENTITY).setChangeType(ChangeType.CREATE)
+		), messages);
+
+		verify(managerSpy, times(2)).createTruthStream(salt, mockFilter);
+		verify(mockTableIndexManager).streamOverIdsAndChecksums(salt, mockFilter);
+		verify(mockOtherTableIndexManager).streamOverIdsAndChecksums(salt, mockFilter);
+	}
+
+	@Test
+	public void testCreateReconcileIteratorWithHierarchicalFilter() {
+		long salt = 1235L;
+		when(mockRandom.nextLong()).thenReturn(salt);
+		when(mockObjectDataProviderFactory.getObjectDataProvider(any())).thenReturn(mockObjectDataProvider);
+		when(mockIndexConnectionFactory.connectToAllIndices()).thenReturn(Collections.singletonList(mockTableIndexManager));
+		Set<Long> scope = Set.of(1L);
+		Set<SubType> subTypes = Set.of(SubType.file);
+		HierarchicaFilter filter = new HierarchicaFilter(ReplicationType.ENTITY, subTypes, scope);
+
+		// The root bucket differs on the object 3 only
+		IdRangeChecksum truthRoot = new IdRangeChecksum().withBucket(0L).withMinId(2L).withMaxId(3L).withCount(2L).withChecksum(5L);
+		IdRangeChecksum replicationRoot = new IdRangeChecksum().withBucket(0L).withMinId(2L).withMaxId(3L).withCount(2L).withChecksum(6L);
+		when(mockObjectDataProvider.getIdRangeChecksumsForChildren(any(), any(), any(), any(), any(), any())).thenReturn(List.of(truthRoot));
+		when(mockTableIndexManager.getIdRangeChecksums(any(), any(), any(), any(), any())).thenReturn(List.of(replicationRoot));
+		when(mockObjectDataProvider.streamOverIdsAndChecksumsForChildren(any(), any(), any(), any(), any())).thenReturn(
+				List.of(new IdAndChecksum().withId(2L).withChecksum(2L), new IdAndChecksum().withId(3L).withChecksum(3L)).iterator());
+		when(mockTableIndexManager.streamOverIdsAndChecksums(any(), any(), any(), any())).thenReturn(
+				List.of(new IdAndChecksum().withId(2L).withChecksum(2L), new IdAndChecksum().withId(3L).withChecksum(4L)).iterator());
+
+		// call under test
+		Iterator<ChangeMessage> result = managerSpy.createReconcileIterator(filter);
+		List<ChangeMessage> messages = new ArrayList<>();
+		result.forEachRemaining(messages::add);
+		assertEquals(List.of(new ChangeMessage().setObjectId("3").setObjectType(ObjectType.ENTITY).setChangeType(ChangeType.UPDATE)),
+				messages);
+
+		verify(managerSpy, never()).createTruthStream(any(), any());
+		verify(mockObjectDataProvider).getIdRangeChecksumsForChildren(salt, scope, subTypes, 0L, Long.MAX_VALUE, Long.MAX_VALUE);
+		verify(mockTableIndexManager).getIdRangeChecksums(salt, filter, 0L, Long.MAX_VALUE, Long.MAX_VALUE);
+		verify(mockObjectDataProvider).streamOverIdsAndChecksumsForChildren(salt, scope, subTypes, 2L, 3L);
+		verify(mockTableIndexManager).streamOverIdsAndChecksums(salt, filter, 2L, 3L);
+		verify(mockLogger).info("Compared 1 checksum buckets and found 1 mismatched ID ranges with 4 rows to scan for parents: [1].");
+	}
+
+	@Test
+	public void testCreateReconcileIteratorWithHierarchicalFilterAndMatchingChecksums() {
+		long salt = 1235L;
+		when(mockRandom.nextLong()).thenReturn(salt);
+		when(mockObjectDataProviderFactory.getObjectDataProvider(any())).thenReturn(mockObjectDataProvider);
+		when(mockIndexConnectionFactory.connectToAllIndices()).thenReturn(Collections.singletonList(mockTableIndexManager));
+		HierarchicaFilter filter = new HierarchicaFilter(ReplicationType.ENTITY, Set.of(SubType.file), Set.of(1L));
+
+		IdRangeChecksum root = new IdRangeChecksum().withBucket(0L).withMinId(2L).withMaxId(3L).withCount(2L).withChecksum(5L);
+		when(mockObjectDataProvider.getIdRangeChecksumsForChildren(any(), any(), any(), any(), any(), any())).thenReturn(List.of(root));
+		when(mockTableIndexManager.getIdRangeChecksums(any(), any(), any(), any(), any())).thenReturn(List.of(root));
+
+		// call under test
+		Iterator<ChangeMessage> result = managerSpy.createReconcileIterator(filter);
+		assertFalse(result.hasNext());
+
+		verify(mockObjectDataProvider, never()).streamOverIdsAndChecksumsForChildren(any(), any(), any(), any(), any());
+		verify(mockTableIndexManager, never()).streamOverIdsAndChecksums(any(), any(), any(), any());
+	}
+
 	@Test
 	public void testCreateReconcileIteratorWithNullFilter() {
 		mockFilter = null;
@@ -5,9 +5,14 @@ import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -28,6 +33,8 @@ import org.sagebionetworks.search.CloudSearchLogger;
 import org.sagebionetworks.search.DocumentAction;
 import org.sagebionetworks.search.SearchDao;
 
+import com.google.common.collect.ImmutableSet;
+
 @RunWith(MockitoJUnitRunner.class)
 public class ChangeMessageToSearchDocumentTranslatorTest{
 
@@ -160,4 +167,56 @@ public class ChangeMessageToSearchDocumentTranslatorTest{
 		verify(mockRecordLogger).startRecordForChangeMessage(message);
 		verify(mockWikiPageDao).lookupWikiKey(wikiId);
 	}
+
+	@Test
+	public void testGenerateSearchDocuments() {
+		ChangeMessage wikiMessage = new ChangeMessage();
+		wikiMessage.setObjectId(wikiId);
+		wikiMessage.setObjectType(ObjectType.WIKI);
+		ChangeMessage deletedMessage = new ChangeMessage();
+		deletedMessage.setObjectId("445566");
+		deletedMessage.setObjectType(ObjectType.ENTITY);
+		List<Long> entityIds = Arrays.asList(112233L, 445566L);
+		when(mockSearchDocumentDriver.getEntitiesExistingInRepository(entityIds)).thenReturn(ImmutableSet.of(112233L));
+		when(mockSearchDocumentDriver.formulateSearchDocuments(Collections.singletonList(112233L))).thenReturn(Collections.singletonList(docOne));
+
+		// call under test
+		List<Document> docs = translator.generateSearchDocuments(Arrays.asList(message, wikiMessage, deletedMessage));
+
+		Document expectedDelete = new Document();
+		expectedDelete.setId("445566");
+		expectedDelete.setType(DocumentTypeNames.delete);
+		assertEquals(Arrays.asList(expectedDelete, docOne), docs);
+		verify(mocKRecord).withWikiOwner(synapseId);
+		// the entity and its wiki share a single document
+		verify(mocKRecord, times(2)).withAction(DocumentAction.CREATE_OR_UPDATE);
+		verify(mocKRecord).withAction(DocumentAction.DELETE);
+		verify(mockSearchDocumentDriver, never()).formulateSearchDocument(anyString());
+	}
+
+	@Test
+	public void testGenerateSearchDocumentsWikiNotFound() {
+		when(mockWikiPageDao.lookupWikiKey(wikiId)).thenThrow(new NotFoundException(""));
+		message.setObjectId(wikiId);
+		message.setObjectType(ObjectType.WIKI);
+
+		// call under test
+		List<Document> docs = translator.generateSearchDocuments(Collections.singletonList(message));
+
+		assertEquals(Collections.emptyList(), docs);
+		verify(mocKRecord).withAction(DocumentAction.IGNORE);
+		verify(mockSearchDocumentDriver, never()).getEntitiesExistingInRepository(any());
+	}
+
+	@Test
+	public void testGenerateSearchDocumentsAllDeleted() {
+		when(mockSearchDocumentDriver.getEntitiesExistingInRepository(Collections.singletonList(112233L))).thenReturn(Collections.emptySet());
+
+		// call under test
+		List<Document> docs = translator.generateSearchDocuments(Collections.singletonList(message));
+
+		assertEquals(1, docs.size());
+		assertEquals(DocumentTypeNames.delete, docs.get(0).getType());
+		verify(mockSearchDocumentDriver, never()).formulateSearchDocuments(any());
+	}
 }
@@ -1,6 +1,7 @@
 package org.sagebionetworks.repo.manager.search;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -8,17 +9,24 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.sagebionetworks.search.SearchConstants.FIELD_CONSORTIUM;
 import static org.sagebionetworks.search.SearchConstants.FIELD_DIAGNOSIS;
 import static org.sagebionetworks.search.SearchConstants.FIELD_ORGAN;
 import static org.sagebionetworks.search.SearchConstants.FIELD_TISSUE;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -27,13 +35,21 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.sagebionetworks.repo.model.AccessControlList;
+import org.sagebionetworks.repo.model.AccessControlListDAO;
 import org.sagebionetworks.repo.model.EntityType;
 import org.sagebionetworks.repo.model.Node;
+import org.sagebionetworks.repo.model.NodeDAO;
+import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.annotation.v2.Annotations;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsV2TestUtils;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsValueType;
 import org.sagebionetworks.repo.model.search.Document;
 import org.sagebionetworks.repo.model.search.DocumentFields;
+import org.sagebionetworks.repo.model.v2.dao.V2WikiPageDao;
+import org.sagebionetworks.repo.web.NotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.ImmutableMap;
 
 @RunWith(MockitoJUnitRunner.class)
 public class SearchDocumentDriverImplTest {
@@ -49,6 +65,15 @@ public class SearchDocumentDriverImplTest {
 	@Mock
 	private AccessControlList mockAcl;
 
+	@Mock
+	private NodeDAO mockNodeDao;
+
+	@Mock
+	private AccessControlListDAO mockAclDao;
+
+	@Mock
+	private V2WikiPageDao mockWikiPageDao;
+
 	private Node node;
 
 	private final String annoKey1 = "annoKey1";
@@ -72,6 +97,9 @@ public class SearchDocumentDriverImplTest {
 
 		documentFields = new DocumentFields();
 		spySearchDocumentDriver = Mockito.spy(new SearchDocumentDriverImpl());
+		ReflectionTestUtils.setField(spySearchDocumentDriver, "nodeDao", mockNodeDao);
+		ReflectionTestUtils.setField(spySearchDocumentDriver, "aclDAO", mockAclDao);
+		ReflectionTestUtils.setField(spySearchDocumentDriver, "wikiPageDao", mockWikiPageDao);
 
 		annoValuesMap = new HashMap<>();
 
@@ -192,4 +220,123 @@ public class SearchDocumentDriverImplTest {
 		assertEquals(sanitizedString, result.getFields().getDescription());
 	}
 
+	@Test
+	public void testFormulateSearchDocuments() {
+		Node nodeTwo = new Node();
+		nodeTwo.setId("syn456");
+		Annotations annotationsTwo = new Annotations();
+		List<Long> nodeIds = Arrays.asList(123L, 456L);
+		when(mockNodeDao.getNodes(nodeIds)).thenReturn(Arrays.asList(node, nodeTwo));
+		when(mockNodeDao.getUserAnnotationsForCurrentVersions(nodeIds)).thenReturn(ImmutableMap.of(123L, annotationsV2, 456L, annotationsTwo));
+		when(mockNodeDao.getBenefactors(nodeIds)).thenReturn(ImmutableMap.of(123L, 1L, 456L, 1L));
+		when(mockAclDao.get("syn1", ObjectType.ENTITY)).thenReturn(mockAcl);
+		doReturn("one").when(spySearchDocumentDriver).getAllWikiPageText("syn123");
+		doReturn("two").when(spySearchDocumentDriver).getAllWikiPageText("syn456");
+		Document docOne = new Document();
+		Document docTwo = new Document();
+		doReturn(docOne).when(spySearchDocumentDriver).formulateSearchDocument(node, annotationsV2, mockAcl, "one");
+		doReturn(docTwo).when(spySearchDocumentDriver).formulateSearchDocument(nodeTwo, annotationsTwo, mockAcl, "two");
+
+		// method under test
+		List<Document> results = spySearchDocumentDriver.formulateSearchDocuments(nodeIds);
+
+		assertEquals(Arrays.asList(docOne, docTwo), results);
+		// the ACL of the shared benefactor is only loaded once
+		verify(mockAclDao, times(1)).get("syn1", ObjectType.ENTITY);
+	}
+
+	@Test
+	public void testFormulateSearchDocumentsWithExecutor() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			spySearchDocumentDriver.setWikiExecutorService(executor);
+			List<Long> nodeIds = Collections.singletonList(123L);
+			when(mockNodeDao.getNodes(nodeIds)).thenReturn(Collections.singletonList(node));
+			when(mockNodeDao.getUserAnnotationsForCurrentVersions(nodeIds)).thenReturn(Collections.emptyMap());
+			when(mockNodeDao.getBenefactors(nodeIds)).thenReturn(ImmutableMap.of(123L, 123L));
+			when(mockAclDao.get("syn123", ObjectType.ENTITY)).thenReturn(mockAcl);
+			doReturn("wiki").when(spySearchDocumentDriver).getAllWikiPageText("syn123");
+			doNothing().when(spySearchDocumentDriver).addAnnotationsToSearchDocument(any(), any());
+
+			// method under test
+			List<Document> results = spySearchDocumentDriver.formulateSearchDocuments(nodeIds);
+
+			assertEquals(1, results.size());
+			assertEquals("wiki", results.get(0).getFields().getDescription());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testFormulateSearchDocumentsWithDeletedNode() {
+		List<Long> nodeIds = Collections.singletonList(123L);
+		when(mockNodeDao.getNodes(nodeIds)).thenReturn(Collections.singletonList(node));
+		when(mockNodeDao.getUserAnnotationsForCurrentVersions(nodeIds)).thenReturn(Collections.emptyMap());
+		when(mockNodeDao.getBenefactors(nodeIds)).thenReturn(Collections.emptyMap());
+		doReturn("wiki").when(spySearchDocumentDriver).getAllWikiPageText("syn123");
+
+		// method under test
+		List<Document> results = spySearchDocumentDriver.formulateSearchDocuments(nodeIds);
+
+		assertEquals(Collections.emptyList(), results);
+		verify(mockAclDao, never()).get(anyString(), any(ObjectType.class));
+	}
+
+	@Test
+	public void testFormulateSearchDocumentsWithDeletedBenefactor() {
+		Node nodeTwo = new Node();
+		nodeTwo.setId("syn456");
+		List<Long> nodeIds = Arrays.asList(123L, 456L);
+		when(mockNodeDao.getNodes(nodeIds)).thenReturn(Arrays.asList(node, nodeTwo));
+		when(mockNodeDao.getUserAnnotationsForCurrentVersions(nodeIds)).thenReturn(Collections.emptyMap());
+		when(mockNodeDao.getBenefactors(nodeIds)).thenReturn(ImmutableMap.of(123L, 1L, 456L, 2L));
+		when(mockAclDao.get("syn1", ObjectType.ENTITY)).thenThrow(new NotFoundException("Not found"));
+		when(mockAclDao.get("syn2", ObjectType.ENTITY)).thenReturn(mockAcl);
+		doReturn("one").when(spySearchDocumentDriver).getAllWikiPageText("syn123");
+		doReturn("two").when(spySearchDocumentDriver).getAllWikiPageText("syn456");
+		Document docTwo = new Document();
+		doReturn(docTwo).when(spySearchDocumentDriver).formulateSearchDocument(eq(nodeTwo), any(), eq(mockAcl), eq("two"));
+
+		// method under test
+		List<Document> results = spySearchDocumentDriver.formulateSearchDocuments(nodeIds);
+
+		// only the entity without an ACL is skipped
+		assertEquals(Collections.singletonList(docTwo), results);
+	}
+
+	@Test
+	public void testFormulateSearchDocumentsEmpty() {
+		// method under test
+		List<Document> results = spySearchDocumentDriver.formulateSearchDocuments(Collections.emptyList());
+		assertEquals(Collections.emptyList(), results);
+		verify(mockNodeDao, never()).getNodes(any());
+	}
+
+	@Test
+	public void testGetMarkdownCached() throws IOException {
+		String markdown = "some markdown";
+		when(mockWikiPageDao.getMarkdownForFileHandle("99")).thenReturn(markdown);
+
+		// method under test
+		assertSame(markdown, spySearchDocumentDriver.getMarkdown("99"));
+		assertSame(markdown, spySearchDocumentDriver.getMarkdown("99"));
+
+		verify(mockWikiPageDao, times(1)).getMarkdownForFileHandle("99");
+	}
+
+	@Test(expected = NotFoundException.class)
+	public void testGetMarkdownNotFound() throws IOException {
+		when(mockWikiPageDao.getMarkdownForFileHandle("99")).thenThrow(new NotFoundException("missing"));
+		// method under test
+		spySearchDocumentDriver.getMarkdown("99");
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testGetMarkdownIOException() throws IOException {
+		when(mockWikiPageDao.getMarkdownForFileHandle("99")).thenThrow(new IOException("failed"));
+		// method under test
+		spySearchDocumentDriver.getMarkdown("99");
+	}
+
 }
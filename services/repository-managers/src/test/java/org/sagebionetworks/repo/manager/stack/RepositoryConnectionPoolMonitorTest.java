@@ -0,0 +1,100 @@
+package org.sagebionetworks.repo.manager.stack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.StackConfiguration;
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.ProfileData;
+import org.sagebionetworks.repo.model.config.DataSourcePoolStatistics;
+import org.sagebionetworks.repo.model.config.DataSourcePoolStatisticsProvider;
+import org.sagebionetworks.repo.model.config.ReadReplicaRoutingDataSource.DataSourceType;
+
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+
+@ExtendWith(MockitoExtension.class)
+public class RepositoryConnectionPoolMonitorTest {
+
+	@Mock
+	private DataSourcePoolStatisticsProvider mockDataSource;
+	@Mock
+	private Consumer mockConsumer;
+	@Mock
+	private StackConfiguration mockConfig;
+	@Captor
+	private ArgumentCaptor<List<ProfileData>> metricsCaptor;
+
+	private RepositoryConnectionPoolMonitor monitor;
+
+	@BeforeEach
+	public void before() {
+		when(mockConfig.getStackInstance()).thenReturn("123-0");
+		monitor = new RepositoryConnectionPoolMonitor(mockDataSource, mockConsumer, mockConfig);
+	}
+
+	@Test
+	public void testTimerFired() {
+		when(mockDataSource.getPoolStatistics()).thenReturn(Arrays.asList(new DataSourcePoolStatistics(DataSourceType.PRIMARY, 5, 3, 10, 100),
+				new DataSourcePoolStatistics(DataSourceType.REPLICA, 1, 2, 0, 40)));
+		when(mockDataSource.getReplicaLagMS()).thenReturn(Optional.of(2000L));
+
+		// call under test
+		monitor.timerFired();
+
+		verify(mockConsumer).addProfileData(metricsCaptor.capture());
+		List<ProfileData> metrics = metricsCaptor.getValue();
+		// No percentage for a pool without a max
+		assertEquals(8, metrics.size());
+
+		ProfileData active = metrics.get(0);
+		assertEquals("Repository-Connection-Pools-123-0", active.getNamespace());
+		assertEquals(RepositoryConnectionPoolMonitor.METRIC_ACTIVE_CONNECTIONS, active.getName());
+		assertEquals(5.0, active.getValue());
+		assertEquals(StandardUnit.Count.name(), active.getUnit());
+		assertEquals(Collections.singletonMap(RepositoryConnectionPoolMonitor.DIMENSION_POOL, "PRIMARY"), active.getDimension());
+
+		assertEquals(RepositoryConnectionPoolMonitor.METRIC_IDLE_CONNECTIONS, metrics.get(1).getName());
+		assertEquals(3.0, metrics.get(1).getValue());
+		assertEquals(RepositoryConnectionPoolMonitor.METRIC_ROUTED_CONNECTIONS, metrics.get(2).getName());
+		assertEquals(100.0, metrics.get(2).getValue());
+
+		ProfileData percent = metrics.get(3);
+		assertEquals(RepositoryConnectionPoolMonitor.METRIC_PERCENT_ACTIVE_CONNECTIONS, percent.getName());
+		assertEquals(50.0, percent.getValue());
+		assertEquals(StandardUnit.Percent.name(), percent.getUnit());
+
+		assertEquals(Collections.singletonMap(RepositoryConnectionPoolMonitor.DIMENSION_POOL, "REPLICA"), metrics.get(4).getDimension());
+
+		ProfileData lag = metrics.get(7);
+		assertEquals(RepositoryConnectionPoolMonitor.METRIC_REPLICA_LAG, lag.getName());
+		assertEquals(2000.0, lag.getValue());
+		assertEquals(StandardUnit.Milliseconds.name(), lag.getUnit());
+		assertEquals(Collections.singletonMap(RepositoryConnectionPoolMonitor.DIMENSION_POOL, "REPLICA"), lag.getDimension());
+	}
+
+	@Test
+	public void testTimerFiredWithNoReplica() {
+		when(mockDataSource.getPoolStatistics())
+				.thenReturn(Collections.singletonList(new DataSourcePoolStatistics(DataSourceType.PRIMARY, 5, 3, 10, 100)));
+		when(mockDataSource.getReplicaLagMS()).thenReturn(Optional.empty());
+
+		// call under test
+		monitor.timerFired();
+
+		verify(mockConsumer).addProfileData(metricsCaptor.capture());
+		assertEquals(4, metricsCaptor.getValue().size());
+	}
+}
@@ -2,42 +2,59 @@ package org.sagebionetworks.repo.manager.statistics;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.ProfileData;
 import org.sagebionetworks.repo.model.NodeDAO;
 import org.sagebionetworks.repo.model.file.FileHandleAssociateType;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
 public class ProjectResolverUnitTest {
-	
+
 	@Mock
 	NodeDAO mockNodeDao;
-	
+
+	@Mock
+	Consumer mockConsumer;
+
 	@InjectMocks
 	ProjectResolverImpl projectResolver;
-	
+
+	@Captor
+	ArgumentCaptor<ProfileData> profileDataCaptor;
+
 	@Test
 	public void testResolveProjectForSupportedEntity() {
 		String objectId = "123";
 		String projectIdString = "456";
-		when(mockNodeDao.getProjectId(objectId)).thenReturn(Optional.of(projectIdString));
-		
+		when(mockNodeDao.getProjectId("syn123")).thenReturn(Optional.of(projectIdString));
+
 		// Call under test
 		Optional<Long> projectId = projectResolver.resolveProject(FileHandleAssociateType.FileEntity, objectId);
-		
+
 		assertEquals(Long.valueOf(projectIdString), projectId.orElseThrow());
-		
+
 	}
-	
+
 	@Test
 	public void testResolveProjectForUnsupportedEntity() {
 		String objectId = "123";
@@ -47,6 +64,82 @@ public class ProjectResolverUnitTest {
 		Optional<Long> projectId = projectResolver.resolveProject(FileHandleAssociateType.WikiAttachment, objectId);
 
 		assertEquals(null, projectId.orElse(null));
+		verifyZeroInteractions(mockNodeDao);
+	}
+
+	@Test
+	public void testResolveProjectWithCachedProject() {
+		when(mockNodeDao.getProjectId("syn123")).thenReturn(Optional.of("syn456"));
+
+		projectResolver.resolveProject(FileHandleAssociateType.FileEntity, "syn123");
+
+		// Call under test
+		Optional<Long> projectId = projectResolver.resolveProject(FileHandleAssociateType.TableEntity, "123");
+
+		assertEquals(Optional.of(456L), projectId);
+		verify(mockNodeDao).getProjectId("syn123");
+	}
+
+	@Test
+	public void testResolveProjectWithCachedTrashedEntity() {
+		when(mockNodeDao.getProjectId("syn123")).thenReturn(Optional.empty());
+
+		projectResolver.resolveProject(FileHandleAssociateType.FileEntity, "syn123");
+
+		// Call under test
+		Optional<Long> projectId = projectResolver.resolveProject(FileHandleAssociateType.FileEntity, "syn123");
+
+		assertEquals(Optional.empty(), projectId);
+		verify(mockNodeDao).getProjectId("syn123");
+	}
+
+	@Test
+	public void testResolveProjectWithIllegalState() {
+		IllegalStateException ex = new IllegalStateException("Infinite loop detected for: syn123");
+
+		when(mockNodeDao.getProjectId(any())).thenThrow(ex);
+
+		IllegalStateException result = assertThrows(IllegalStateException.class, () -> {
+			// Call under test
+			projectResolver.resolveProject(FileHandleAssociateType.FileEntity, "syn123");
+		});
+
+		assertEquals(ex, result);
+	}
+
+	@Test
+	public void testPublishProjectCacheMetrics() {
+		when(mockNodeDao.getProjectId("syn123")).thenReturn(Optional.of("syn456"));
+
+		projectResolver.resolveProject(FileHandleAssociateType.FileEntity, "syn123");
+		projectResolver.resolveProject(FileHandleAssociateType.FileEntity, "syn123");
+
+		// Call under test
+		projectResolver.publishProjectCacheMetrics();
+
+		verify(mockConsumer, times(2)).addProfileData(profileDataCaptor.capture());
+
+		List<ProfileData> metrics = profileDataCaptor.getAllValues();
+
+		assertEquals(ProjectResolverImpl.PROJECT_CACHE_METRIC_NAMESPACE, metrics.get(0).getNamespace());
+		assertEquals(ProjectResolverImpl.METRIC_HIT_RATE, metrics.get(0).getName());
+		assertEquals(50.0, metrics.get(0).getValue());
+		assertEquals(ProjectResolverImpl.METRIC_AVERAGE_LOAD_TIME, metrics.get(1).getName());
+	}
+
+	@Test
+	public void testPublishProjectCacheMetricsWithNoRequests() {
+		when(mockNodeDao.getProjectId("syn123")).thenReturn(Optional.of("syn456"));
+
+		projectResolver.resolveProject(FileHandleAssociateType.FileEntity, "syn123");
+
+		projectResolver.publishProjectCacheMetrics();
+
+		// Call under test, no requests since the last call
+		projectResolver.publishProjectCacheMetrics();
+
+		verify(mockConsumer, times(2)).addProfileData(any());
+		verifyNoMoreInteractions(mockConsumer);
 	}
 
 }
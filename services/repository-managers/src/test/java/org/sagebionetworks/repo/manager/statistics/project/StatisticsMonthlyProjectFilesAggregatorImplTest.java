@@ -0,0 +1,176 @@
+package org.sagebionetworks.repo.manager.statistics.project;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.dbo.statistics.StatisticsMonthlyProjectFilesDAO;
+import org.sagebionetworks.repo.model.dbo.statistics.StatisticsMonthlyStatusDAO;
+import org.sagebionetworks.repo.model.statistics.FileEvent;
+import org.sagebionetworks.repo.model.statistics.StatisticsObjectType;
+import org.sagebionetworks.repo.model.statistics.StatisticsStatus;
+import org.sagebionetworks.repo.model.statistics.monthly.StatisticsMonthlyStatus;
+import org.sagebionetworks.repo.model.statistics.project.StatisticsMonthlyProjectFilesEvents;
+
+import com.google.common.collect.ImmutableSet;
+
+@ExtendWith(MockitoExtension.class)
+public class StatisticsMonthlyProjectFilesAggregatorImplTest {
+
+	// 2019-08-01T00:00:00Z
+	private static final long AUGUST = 1564617600000L;
+	// 2019-09-01T00:00:00Z
+	private static final long SEPTEMBER = 1567296000000L;
+
+	@Mock
+	private StatisticsMonthlyProjectFilesDAO mockStatisticsDao;
+
+	@Mock
+	private StatisticsMonthlyStatusDAO mockStatusDao;
+
+	@InjectMocks
+	private StatisticsMonthlyProjectFilesAggregatorImpl aggregator;
+
+	@Captor
+	private ArgumentCaptor<List<StatisticsMonthlyProjectFilesEvents>> batchCaptor;
+
+	@Test
+	public void testFlush() {
+		aggregator.recordEvent(FileEvent.FILE_DOWNLOAD, 1L, 10L, AUGUST);
+		aggregator.recordEvent(FileEvent.FILE_DOWNLOAD, 1L, 10L, AUGUST + 1000);
+		aggregator.recordEvent(FileEvent.FILE_DOWNLOAD, 1L, 11L, AUGUST + 2000);
+		aggregator.recordEvent(FileEvent.FILE_UPLOAD, 1L, 10L, AUGUST);
+		aggregator.recordEvent(FileEvent.FILE_DOWNLOAD, 1L, 12L, SEPTEMBER);
+		aggregator.recordEvent(FileEvent.FILE_DOWNLOAD, 2L, 10L, AUGUST);
+
+		// Call under test
+		aggregator.flush();
+
+		verify(mockStatisticsDao).addEvents(batchCaptor.capture());
+
+		Set<StatisticsMonthlyProjectFilesEvents> expected = ImmutableSet.of(
+				getEvents(1L, FileEvent.FILE_DOWNLOAD, YearMonth.of(2019, 8), 3, ImmutableSet.of(10L, 11L)),
+				getEvents(1L, FileEvent.FILE_UPLOAD, YearMonth.of(2019, 8), 1, ImmutableSet.of(10L)),
+				getEvents(1L, FileEvent.FILE_DOWNLOAD, YearMonth.of(2019, 9), 1, ImmutableSet.of(12L)),
+				getEvents(2L, FileEvent.FILE_DOWNLOAD, YearMonth.of(2019, 8), 1, ImmutableSet.of(10L)));
+
+		assertEquals(4, batchCaptor.getValue().size());
+		assertEquals(expected, new HashSet<>(batchCaptor.getValue()));
+	}
+
+	@Test
+	public void testFlushWithProcessedMonth() {
+		StatisticsMonthlyStatus status = new StatisticsMonthlyStatus();
+		status.setObjectType(StatisticsObjectType.PROJECT);
+		status.setMonth(YearMonth.of(2019, 8));
+		status.setStatus(StatisticsStatus.AVAILABLE);
+
+		when(mockStatusDao.getStatus(StatisticsObjectType.PROJECT, YearMonth.of(2019, 8))).thenReturn(Optional.of(status));
+		when(mockStatusDao.getStatus(StatisticsObjectType.PROJECT, YearMonth.of(2019, 9))).thenReturn(Optional.empty());
+
+		aggregator.recordEvent(FileEvent.FILE_DOWNLOAD, 1L, 10L, AUGUST);
+		aggregator.recordEvent(FileEvent.FILE_UPLOAD, 2L, 10L, AUGUST);
+		aggregator.recordEvent(FileEvent.FILE_DOWNLOAD, 1L, 12L, SEPTEMBER);
+
+		// Call under test
+		aggregator.flush();
+
+		verify(mockStatisticsDao).addEvents(batchCaptor.capture());
+
+		// The statistics of august are computed by its processing
+		assertEquals(
+				Collections.singletonList(getEvents(1L, FileEvent.FILE_DOWNLOAD, YearMonth.of(2019, 9), 1, ImmutableSet.of(12L))),
+				batchCaptor.getValue());
+		verify(mockStatusDao, times(2)).getStatus(any(), any());
+	}
+
+	@Test
+	public void testFlushWithNoEvents() {
+		// Call under test
+		aggregator.flush();
+
+		verifyZeroInteractions(mockStatisticsDao);
+		verifyZeroInteractions(mockStatusDao);
+	}
+
+	@Test
+	public void testFlushClearsEvents() {
+		aggregator.recordEvent(FileEvent.FILE_DOWNLOAD, 1L, 10L, AUGUST);
+
+		aggregator.flush();
+
+		// Call under test
+		aggregator.flush();
+
+		verify(mockStatisticsDao).addEvents(any());
+	}
+
+	@Test
+	public void testFlushWithFailure() {
+		aggregator.recordEvent(FileEvent.FILE_DOWNLOAD, 1L, 10L, AUGUST);
+
+		IllegalStateException error = new IllegalStateException("Nope");
+
+		doThrow(error).doNothing().when(mockStatisticsDao).addEvents(any());
+
+		IllegalStateException result = assertThrows(IllegalStateException.class, () -> {
+			// Call under test
+			aggregator.flush();
+		});
+
+		assertEquals(error, result);
+
+		// Recorded while the flush failed
+		aggregator.recordEvent(FileEvent.FILE_DOWNLOAD, 1L, 11L, AUGUST);
+
+		// Call under test, the events are kept for the next flush
+		aggregator.flush();
+
+		verify(mockStatisticsDao, times(2)).addEvents(batchCaptor.capture());
+
+		assertEquals(
+				Collections.singletonList(getEvents(1L, FileEvent.FILE_DOWNLOAD, YearMonth.of(2019, 8), 2, ImmutableSet.of(10L, 11L))),
+				batchCaptor.getAllValues().get(1));
+	}
+
+	@Test
+	public void testRecordEventWithNullType() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			aggregator.recordEvent(null, 1L, 10L, AUGUST);
+		}).getMessage();
+
+		assertEquals("eventType is required.", message);
+	}
+
+	private static StatisticsMonthlyProjectFilesEvents getEvents(Long projectId, FileEvent eventType, YearMonth month, int filesCount,
+			Set<Long> userIds) {
+		StatisticsMonthlyProjectFilesEvents events = new StatisticsMonthlyProjectFilesEvents();
+		events.setProjectId(projectId);
+		events.setEventType(eventType);
+		events.setMonth(month);
+		events.setFilesCount(filesCount);
+		events.setUserIds(userIds);
+		return events;
+	}
+
+}
@@ -222,6 +222,7 @@ public class MaterializedViewManagerImplTest {
 		verify(mockMaterializedViewDao).getSourceTablesIds(idAndVersion);
 		verify(mockMaterializedViewDao).deleteSourceTablesIds(idAndVersion, expectedDeletes);
 		verify(mockMaterializedViewDao).addSourceTablesIds(idAndVersion, expectedSources);
+		verify(mockConnectionFactory, never()).deleteStaleIndices(any());
 		verify(managerSpy).bindSchemaToView(eq(idAndVersion), any(QueryExpression.class));
 		verify(mockTableManagerSupport).setTableToProcessingAndTriggerUpdate(idAndVersion);
 
@@ -246,6 +247,7 @@ public class MaterializedViewManagerImplTest {
 		verify(mockMaterializedViewDao).getSourceTablesIds(idAndVersion);
 		verify(mockMaterializedViewDao).deleteSourceTablesIds(idAndVersion, expectedDeletes);
 		verify(mockMaterializedViewDao).addSourceTablesIds(idAndVersion, expectedSources);
+		verify(mockConnectionFactory).deleteStaleIndices(IdAndVersion.parse("syn456"));
 		verify(managerSpy).bindSchemaToView(eq(idAndVersion), any(QueryExpression.class));
 		verify(mockTableManagerSupport).setTableToProcessingAndTriggerUpdate(idAndVersion);
 		
@@ -271,6 +273,7 @@ public class MaterializedViewManagerImplTest {
 		verify(mockMaterializedViewDao).getSourceTablesIds(idAndVersion);
 		verify(mockMaterializedViewDao).deleteSourceTablesIds(idAndVersion, expectedDeletes);
 		verify(mockMaterializedViewDao).addSourceTablesIds(idAndVersion, expectedSources);
+		verify(mockConnectionFactory).deleteStaleIndices(IdAndVersion.parse("syn456"));
 		verify(managerSpy).bindSchemaToView(eq(idAndVersion), any(QueryExpression.class));
 		verify(mockTableManagerSupport).setTableToProcessingAndTriggerUpdate(idAndVersion);
 
@@ -637,13 +640,14 @@ public class MaterializedViewManagerImplTest {
 	
 	@Test
 	public void testDeleteViewIndex() {
-		when(mockConnectionFactory.connectToTableIndex(any())).thenReturn(mockTableIndexManager);
+		TableIndexManager mockOtherTableIndexManager = Mockito.mock(TableIndexManager.class);
+		when(mockConnectionFactory.connectToAllIndices()).thenReturn(List.of(mockTableIndexManager, mockOtherTableIndexManager));
 		
 		// call under test
 		manager.deleteViewIndex(idAndVersion);
 		
-		verify(mockConnectionFactory).connectToTableIndex(idAndVersion);
 		verify(mockTableIndexManager).deleteTableIndex(idAndVersion);
+		verify(mockOtherTableIndexManager).deleteTableIndex(idAndVersion);
 	}
 	
 	@Test
@@ -765,6 +769,7 @@ public class MaterializedViewManagerImplTest {
 		IndexDescription indexDescription = new MaterializedViewIndexDescription(idAndVersion, Collections.emptyList());
 		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(indexDescription);
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(any())).thenReturn(new TableStatus().setState(TableState.AVAILABLE));
+		doNothing().when(managerSpy).deleteStaleDependentIndices(any());
 		when(mockTableManagerSupport.isTableSearchEnabled(any())).thenReturn(false);
 		doNothing().when(managerSpy).bindSchemaToView(any(), any(QueryTranslator.class));
 		doNothing().when(managerSpy).createOrRebuildViewHoldingWriteLockAndAllDependentReadLocks(any(), any(), anyBoolean());
@@ -779,6 +784,7 @@ public class MaterializedViewManagerImplTest {
 		verify(mockNodeDAO).getDefiningSql(idAndVersion);
 		verify(managerSpy).bindSchemaToView(eq(idAndVersion), any(QueryTranslator.class));
 		verify(mockTableManagerSupport).getTableStatusOrCreateIfNotExists(dependentIdAndVersion);
+		verify(managerSpy).deleteStaleDependentIndices(new IdAndVersion[] { dependentIdAndVersion });
 		verify(mockTableManagerSupport).tryRunWithTableNonExclusiveLock(eq(mockProgressCallback), eq(expectedLockContext), any(), eq( dependentIdAndVersion));
 		verify(mockTableManagerSupport).getTableSchema(idAndVersion);
 		verify(mockTableManagerSupport).isTableSearchEnabled(idAndVersion);
@@ -806,6 +812,7 @@ public class MaterializedViewManagerImplTest {
 		IndexDescription indexDescription = new MaterializedViewIndexDescription(idAndVersion, Collections.emptyList());
 		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(indexDescription);
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(any())).thenReturn(new TableStatus().setState(TableState.AVAILABLE));
+		doNothing().when(managerSpy).deleteStaleDependentIndices(any());
 		when(mockTableManagerSupport.isTableSearchEnabled(any())).thenReturn(false);
 		doNothing().when(managerSpy).bindSchemaToView(any(), any(QueryTranslator.class));
 		doNothing().when(managerSpy).createOrRebuildViewHoldingWriteLockAndAllDependentReadLocks(any(), any(), anyBoolean());
@@ -892,6 +899,17 @@ public class MaterializedViewManagerImplTest {
 		verify(managerSpy, never()).createOrRebuildViewHoldingWriteLockAndAllDependentReadLocks(any(), any(), anyBoolean());
 	}
 	
+	@Test
+	public void testDeleteStaleDependentIndices() {
+		IdAndVersion[] dependentIdAndVersions = new IdAndVersion[] { IdAndVersion.parse("syn456"), IdAndVersion.parse("syn789") };
+		
+		// call under test
+		managerSpy.deleteStaleDependentIndices(dependentIdAndVersions);
+		
+		verify(mockConnectionFactory).deleteStaleIndices(dependentIdAndVersions[0]);
+		verify(mockConnectionFactory).deleteStaleIndices(dependentIdAndVersions[1]);
+	}
+	
 	@Test
 	public void testCreateOrRebuildViewHoldingExclusiveLockWithNoDefiningSql() throws Exception {
 		idAndVersion = IdAndVersion.parse("syn123");
@@ -937,6 +955,7 @@ public class MaterializedViewManagerImplTest {
 		when(mockTableManagerSupport.getTableSchema(any())).thenReturn(syn456Schema);		
 		when(mockColumnModelManager.createColumnModel(any())).thenReturn(syn123Schema.get(0), syn123Schema.get(1), syn456Schema.get(0), syn456Schema.get(1));
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(any())).thenReturn(new TableStatus().setState(TableState.AVAILABLE));
+		doNothing().when(managerSpy).deleteStaleDependentIndices(any());
 		when(mockConnectionFactory.connectToTableIndex(any())).thenReturn(mockTableIndexManager);
 		when(mockTableIndexManager.getVersionFromIndexDependencies(any())).thenReturn(10L);
 		when(mockTableManagerSupport.isTableSearchEnabled(any())).thenReturn(false);
@@ -958,6 +977,7 @@ public class MaterializedViewManagerImplTest {
 		verify(mockTableManagerSupport).getTableStatusOrCreateIfNotExists(dependentIdAndVersions[0]);
 		verify(mockTableManagerSupport).getTableStatusOrCreateIfNotExists(dependentIdAndVersions[1]);
 		verify(mockTableManagerSupport).getTableStatusState(idAndVersion);
+		verify(managerSpy).deleteStaleDependentIndices(dependentIdAndVersions);
 		verify(mockTableManagerSupport).tryRunWithTableNonExclusiveLock(eq(mockProgressCallback), eq(expectedLockContext), any(), eq(dependentIdAndVersions[0]), eq(dependentIdAndVersions[1]));
 		verify(mockTableIndexManager).getVersionFromIndexDependencies(indexDescription);
 		verify(mockTableManagerSupport).isTableSearchEnabled(idAndVersion);
@@ -996,6 +1016,7 @@ public class MaterializedViewManagerImplTest {
 		when(mockTableManagerSupport.getTableSchema(any())).thenReturn(syn456Schema);		
 		when(mockColumnModelManager.createColumnModel(any())).thenReturn(syn123Schema.get(0), syn123Schema.get(1), syn456Schema.get(0), syn456Schema.get(1));
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(any())).thenReturn(new TableStatus().setState(TableState.AVAILABLE));
+		doNothing().when(managerSpy).deleteStaleDependentIndices(any());
 		when(mockConnectionFactory.connectToTableIndex(any())).thenReturn(mockTableIndexManager);
 		when(mockTableIndexManager.getVersionFromIndexDependencies(any())).thenReturn(10L);
 		when(mockTableManagerSupport.isTableSearchEnabled(any())).thenReturn(false);
@@ -1040,6 +1061,7 @@ public class MaterializedViewManagerImplTest {
 		when(mockTableManagerSupport.getTableSchema(any())).thenReturn(syn456Schema);		
 		when(mockColumnModelManager.createColumnModel(any())).thenReturn(syn123Schema.get(0), syn123Schema.get(1), syn456Schema.get(0), syn456Schema.get(1));
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(any())).thenReturn(new TableStatus().setState(TableState.AVAILABLE));
+		doNothing().when(managerSpy).deleteStaleDependentIndices(any());
 		when(mockConnectionFactory.connectToTableIndex(any())).thenReturn(mockTableIndexManager);
 		when(mockTableIndexManager.getVersionFromIndexDependencies(any())).thenReturn(10L);
 		when(mockTableManagerSupport.isTableSearchEnabled(any())).thenReturn(false);
@@ -1125,6 +1147,7 @@ public class MaterializedViewManagerImplTest {
 		when(mockTableManagerSupport.getTableSchema(any())).thenReturn(syn456Schema);		
 		when(mockColumnModelManager.createColumnModel(any())).thenReturn(syn123Schema.get(0), syn123Schema.get(1), syn456Schema.get(0), syn456Schema.get(1));
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(any())).thenReturn(new TableStatus().setState(TableState.AVAILABLE));
+		doNothing().when(managerSpy).deleteStaleDependentIndices(any());
 				
 		IdAndVersion[] dependentIdAndVersions = new IdAndVersion[] { IdAndVersion.parse("syn123"), IdAndVersion.parse("syn456") };
 
@@ -1,23 +1,59 @@
 package org.sagebionetworks.repo.manager.table;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.manager.table.metadata.MetadataIndexProviderFactory;
+import org.sagebionetworks.repo.model.entity.IdAndVersion;
+import org.sagebionetworks.repo.web.NotFoundException;
+import org.sagebionetworks.table.cluster.ConnectionFactory;
+import org.sagebionetworks.table.cluster.TableIndexDAO;
+import org.sagebionetworks.table.cluster.metadata.ObjectFieldModelResolverFactory;
+import org.sagebionetworks.table.cluster.search.TableRowSearchProcessor;
 
 @ExtendWith(MockitoExtension.class)
 public class TableIndexConnectionFactoryImplTest {
 	
 	@Mock
 	private TableIndexManager mockIndexManager;
+	@Mock
+	private ConnectionFactory mockConnectionFactory;
+	@Mock
+	private TableManagerSupport mockTableManagerSupport;
+	@Mock
+	private MetadataIndexProviderFactory mockMetadataIndexProviderFactory;
+	@Mock
+	private ObjectFieldModelResolverFactory mockObjectFieldModelResolverFactory;
+	@Mock
+	private TableRowSearchProcessor mockSearchProcessor;
+	@Mock
+	private ExecutorService mockTableSearchIndexThreadPool;
+	@Mock
+	private TableIndexDAO mockFirstDao;
+	@Mock
+	private TableIndexDAO mockOtherDao;
 	
 	@InjectMocks
 	private TableIndexConnectionFactoryImpl indexFactory;
 	
+	private IdAndVersion tableId = IdAndVersion.parse("syn123");
 	
 	@Test
 	public void testConnectToTableIndex(){
@@ -25,11 +61,112 @@ public class TableIndexConnectionFactoryImplTest {
 			indexFactory.connectToTableIndex(null);
 		});
 	}
+	
+	@Test
+	public void testConnectToTableIndexWithFirstConnection(){
+		when(mockConnectionFactory.getConnection(tableId)).thenReturn(mockFirstDao);
+		when(mockConnectionFactory.getFirstConnection()).thenReturn(mockFirstDao);
+		// call under test
+		TableIndexManager manager = indexFactory.connectToTableIndex(tableId);
+		assertEquals(mockIndexManager, manager);
+		verify(mockConnectionFactory).getConnection(tableId);
+	}
+	
+	@Test
+	public void testConnectToTableIndexWithOtherConnection(){
+		when(mockConnectionFactory.getConnection(tableId)).thenReturn(mockOtherDao);
+		when(mockConnectionFactory.getFirstConnection()).thenReturn(mockFirstDao);
+		// call under test
+		TableIndexManager manager = indexFactory.connectToTableIndex(tableId);
+		assertNotEquals(mockIndexManager, manager);
+		// The manager of the same connection is reused
+		assertSame(manager, indexFactory.connectToTableIndex(tableId));
+	}
 		
 	@Test
 	public void testGetFirstConnection(){
 		TableIndexManager manager = indexFactory.connectToFirstIndex();
 		assertEquals(mockIndexManager, manager);
 	}
+	
+	@Test
+	public void testConnectToAllIndices(){
+		when(mockConnectionFactory.getAllConnections()).thenReturn(Arrays.asList(mockFirstDao, mockOtherDao));
+		when(mockConnectionFactory.getFirstConnection()).thenReturn(mockFirstDao);
+		when(mockConnectionFactory.getConnection(tableId)).thenReturn(mockOtherDao);
+		// call under test
+		List<TableIndexManager> managers = indexFactory.connectToAllIndices();
+		assertEquals(2, managers.size());
+		assertEquals(mockIndexManager, managers.get(0));
+		assertSame(indexFactory.connectToTableIndex(tableId), managers.get(1));
+	}
+	
+	@Test
+	public void testRefreshIndices(){
+		IdAndVersion otherTableId = IdAndVersion.parse("syn456.2");
+		when(mockConnectionFactory.refreshInstances()).thenReturn(Arrays.asList(tableId, otherTableId));
+		when(mockConnectionFactory.getConnection(any())).thenReturn(mockOtherDao);
+		when(mockConnectionFactory.getAllConnections()).thenReturn(Arrays.asList(mockFirstDao, mockOtherDao));
+		when(mockConnectionFactory.getFirstConnection()).thenReturn(mockFirstDao);
+		when(mockIndexManager.getCurrentVersionOfIndex(any())).thenReturn(3L);
+		// call under test
+		indexFactory.refreshIndices();
+		verify(mockTableManagerSupport).setTableToProcessingAndTriggerUpdate(tableId);
+		verify(mockTableManagerSupport).setTableToProcessingAndTriggerUpdate(otherTableId);
+		// The indices are dropped from the database they moved from
+		verify(mockIndexManager).deleteTableIndex(tableId);
+		verify(mockIndexManager).deleteTableIndex(otherTableId);
+	}
+	
+	@Test
+	public void testRefreshIndicesWithDeletedTable(){
+		IdAndVersion otherTableId = IdAndVersion.parse("syn456.2");
+		when(mockConnectionFactory.refreshInstances()).thenReturn(Arrays.asList(tableId, otherTableId));
+		when(mockTableManagerSupport.setTableToProcessingAndTriggerUpdate(tableId)).thenThrow(new NotFoundException("deleted"));
+		// call under test
+		indexFactory.refreshIndices();
+		// The other tables are still rebuilt
+		verify(mockTableManagerSupport).setTableToProcessingAndTriggerUpdate(otherTableId);
+	}
+	
+	@Test
+	public void testRefreshIndicesWithNoMovedTables(){
+		when(mockConnectionFactory.refreshInstances()).thenReturn(Collections.emptyList());
+		// call under test
+		indexFactory.refreshIndices();
+		verifyZeroInteractions(mockTableManagerSupport);
+	}
+	
+	@Test
+	public void testDeleteStaleIndices(){
+		when(mockConnectionFactory.getConnection(tableId)).thenReturn(mockFirstDao);
+		when(mockConnectionFactory.getAllConnections()).thenReturn(Arrays.asList(mockFirstDao, mockOtherDao));
+		when(mockConnectionFactory.getFirstConnection()).thenReturn(mockFirstDao);
+		when(mockOtherDao.getMaxCurrentCompleteVersionForTable(tableId)).thenReturn(5L);
+		// call under test
+		indexFactory.deleteStaleIndices(tableId);
+		verify(mockOtherDao).deleteTable(tableId);
+		// The index on the assigned database is kept
+		verifyZeroInteractions(mockIndexManager);
+	}
+	
+	@Test
+	public void testDeleteStaleIndicesWithNoStaleIndex(){
+		when(mockConnectionFactory.getConnection(tableId)).thenReturn(mockFirstDao);
+		when(mockConnectionFactory.getAllConnections()).thenReturn(Arrays.asList(mockFirstDao, mockOtherDao));
+		when(mockConnectionFactory.getFirstConnection()).thenReturn(mockFirstDao);
+		when(mockOtherDao.getMaxCurrentCompleteVersionForTable(tableId)).thenReturn(-1L);
+		// call under test
+		indexFactory.deleteStaleIndices(tableId);
+		verify(mockOtherDao, never()).deleteTable(any());
+	}
+	
+	@Test
+	public void testDeleteStaleIndicesWithNullId(){
+		assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			indexFactory.deleteStaleIndices(null);
+		});
+	}
 
 }
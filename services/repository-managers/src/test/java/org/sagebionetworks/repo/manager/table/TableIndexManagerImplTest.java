@@ -28,11 +28,15 @@ import static org.mockito.Mockito.when;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
 
@@ -78,6 +82,7 @@ import org.sagebionetworks.repo.model.table.ViewTypeMask;
 import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.table.cluster.ColumnChangeDetails;
 import org.sagebionetworks.table.cluster.DatabaseColumnInfo;
+import org.sagebionetworks.table.cluster.ProjectStorageDelta;
 import org.sagebionetworks.table.cluster.QueryTranslator;
 import org.sagebionetworks.table.cluster.SQLUtils;
 import org.sagebionetworks.table.cluster.TableIndexDAO;
@@ -110,7 +115,9 @@ import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallback;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
 
 @ExtendWith(MockitoExtension.class)
 public class TableIndexManagerImplTest {
@@ -142,6 +149,8 @@ public class TableIndexManagerImplTest {
 	@Mock
 	private ViewFilter mockNewFilter;
 	
+	private ExecutorService tableSearchIndexThreadPool;
+	
 	@Captor
 	private ArgumentCaptor<List<ColumnChangeDetails>> changeCaptor;
 	
@@ -182,8 +191,9 @@ public class TableIndexManagerImplTest {
 
 		objectType = ViewObjectType.ENTITY;
 		tableId = IdAndVersion.parse("syn123");
+		tableSearchIndexThreadPool = MoreExecutors.newDirectExecutorService();
 		manager = new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, mockMetadataProviderFactory,
-				mockObjectFieldModelResolverFactory, mockSearchProcessor);
+				mockObjectFieldModelResolverFactory, mockSearchProcessor, tableSearchIndexThreadPool);
 		managerSpy = Mockito.spy(manager);
 		versionNumber = 99L;
 		schema = Arrays.asList(TableModelTestUtils.createColumn(99L, "aString", ColumnType.STRING),
@@ -239,7 +249,7 @@ public class TableIndexManagerImplTest {
 	public void testNullDao() {
 		assertThrows(IllegalArgumentException.class, () -> {
 			new TableIndexManagerImpl(null, mockManagerSupport, mockMetadataProviderFactory,
-					mockObjectFieldModelResolverFactory, mockSearchProcessor);
+					mockObjectFieldModelResolverFactory, mockSearchProcessor, tableSearchIndexThreadPool);
 		});
 	}
 
@@ -247,28 +257,35 @@ public class TableIndexManagerImplTest {
 	public void testNullSupport() {
 		assertThrows(IllegalArgumentException.class, () -> {
 			new TableIndexManagerImpl(mockIndexDao, null, mockMetadataProviderFactory,
-					mockObjectFieldModelResolverFactory, mockSearchProcessor);
+					mockObjectFieldModelResolverFactory, mockSearchProcessor, tableSearchIndexThreadPool);
 		});
 	}
 
 	@Test
 	public void testNullProviderFactory() {
 		assertThrows(IllegalArgumentException.class, () -> {
-			new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, null, mockObjectFieldModelResolverFactory, mockSearchProcessor);
+			new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, null, mockObjectFieldModelResolverFactory, mockSearchProcessor, tableSearchIndexThreadPool);
 		});
 	}
 
 	@Test
 	public void testNullObjectFieldFactory() {
 		assertThrows(IllegalArgumentException.class, () -> {
-			new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, mockMetadataProviderFactory, null, mockSearchProcessor);
+			new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, mockMetadataProviderFactory, null, mockSearchProcessor, tableSearchIndexThreadPool);
 		});
 	}
 	
 	@Test
 	public void testNullSearchProcessor() {
 		assertThrows(IllegalArgumentException.class, () -> {
-			new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, mockMetadataProviderFactory, mockObjectFieldModelResolverFactory, null);
+			new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, mockMetadataProviderFactory, mockObjectFieldModelResolverFactory, null, tableSearchIndexThreadPool);
+		});
+	}
+	
+	@Test
+	public void testNullTableSearchIndexThreadPool() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, mockMetadataProviderFactory, mockObjectFieldModelResolverFactory, mockSearchProcessor, null);
 		});
 	}
 	
@@ -394,7 +411,7 @@ public class TableIndexManagerImplTest {
 		RowSearchContent searchRowContent = new RowSearchContent(102L, "processed row");
 		
 		when(mockIndexDao.getTableDataForRowIds(any(), any(), any())).thenReturn(Arrays.asList(rowData, rowData));
-		when(mockSearchProcessor.process(any(), anyBoolean())).thenReturn(searchRowContent.getSearchContent());
+		stubProcessRows(searchRowContent.getSearchContent());
 		
 		
 		// call under test.
@@ -407,7 +424,7 @@ public class TableIndexManagerImplTest {
 		// there are no files
 		verify(mockIndexDao, never()).applyFileHandleIdsToTable(any(IdAndVersion.class), anySet());
 		verify(mockIndexDao).getTableDataForRowIds(tableId, Arrays.asList(schema.get(0), schema.get(1)), Set.of(0L, 5L));
-		verify(mockSearchProcessor, times(2)).process(rowData, false);
+		verify(mockSearchProcessor).processRows(Arrays.asList(rowData, rowData), false);
 		verify(mockIndexDao).updateSearchIndex(tableId, Arrays.asList(searchRowContent, searchRowContent));
 		// The new version should be set
 		verify(mockIndexDao).setMaxCurrentCompleteVersionForTable(tableId, versionNumber);
@@ -1948,6 +1965,34 @@ public class TableIndexManagerImplTest {
 		verify(mockIndexDao).deleteObjectData(type, toDeleteIds);
 	}
 	
+	@Test
+	public void testReconcileProjectStorageLedger() {
+		ReplicationType type = ReplicationType.ENTITY;
+		
+		List<ProjectStorageDelta> expected = Arrays.asList(new ProjectStorageDelta(1L, 100L, 2L));
+		
+		when(mockIndexDao.reconcileProjectStorageLedger(any())).thenReturn(expected);
+
+		// call under test
+		List<ProjectStorageDelta> result = manager.reconcileProjectStorageLedger(type);
+
+		assertEquals(expected, result);
+		verify(mockIndexDao).reconcileProjectStorageLedger(type);
+	}
+	
+	@Test
+	public void testReconcileProjectStorageLedgerWithNullType() {
+		ReplicationType type = null;
+		
+		String message = assertThrows(IllegalArgumentException.class, ()->{
+			// call under test
+			manager.reconcileProjectStorageLedger(type);
+		}).getMessage();
+		
+		assertEquals("objectType is required.", message);
+		verifyZeroInteractions(mockIndexDao);
+	}
+	
 	@Test
 	public void testIsViewSynchronizeLockExpiredWithEmpty() {
 		ReplicationType type = ReplicationType.ENTITY;
@@ -2028,18 +2073,108 @@ public class TableIndexManagerImplTest {
 			expectedSearchSchema.stream().map(model -> new TypedCellValue(model.getColumnType(), "some value")).collect(Collectors.toList())
 		);
 		
-		// The pagination iterator calls this twice unconditionally, so the second time we return an empty list
-		when(mockIndexDao.getTableDataPage(any(), any(), anyLong(), anyLong())).thenReturn(Arrays.asList(tableRow1Data, tableRow2Data), Collections.emptyList());
+		// A page smaller than the batch size is the last page
+		when(mockIndexDao.getTableDataPageAfterRowId(any(), any(), any(), anyLong())).thenReturn(Arrays.asList(tableRow1Data, tableRow2Data));
+		
+		stubProcessRows("processed value");
+		
+		// The first row already has the same content
+		Map<Long, String> currentHashes = new HashMap<>();
+		currentHashes.put(1L, TableIndexManagerImpl.hashSearchContent("processed value"));
+		currentHashes.put(2L, null);
+		
+		when(mockIndexDao.getSearchContentHashes(any(), any())).thenReturn(currentHashes);
+		
+		IndexDescription indexDescription = new TableIndexDescription(tableId);
+		
+		// Call under test
+		manager.updateSearchIndex(indexDescription);
+		
+		verify(mockIndexDao).getTableDataPageAfterRowId(tableId, expectedSearchSchema, null, TableIndexManagerImpl.BATCH_SIZE);
+		verify(mockIndexDao).getSearchContentHashes(tableId, ImmutableSet.of(1L, 2L));
+		verify(mockIndexDao).updateSearchIndex(tableId, Arrays.asList(new RowSearchContent(2L, "processed value")));
+	}
+	
+	@Test
+	public void testUpdateSearchIndexWithMultiplePages() {
+		
+		schema = Arrays.asList(
+				new ColumnModel().setId("44").setColumnType(ColumnType.STRING)
+		);
+		
+		DatabaseColumnInfo column1Info = new DatabaseColumnInfo();
+		column1Info.setColumnName("_C44_");
+		column1Info.setColumnType(ColumnType.STRING);
+		
+		when(mockIndexDao.getDatabaseInfo(any(), any(Boolean.class))).thenReturn(Arrays.asList(column1Info));
+		
+		List<TableRowData> firstPage = LongStream.range(0, TableIndexManagerImpl.BATCH_SIZE).mapToObj(rowId -> 
+			new TableRowData(rowId, Arrays.asList(new TypedCellValue(ColumnType.STRING, "some value")))
+		).collect(Collectors.toList());
+		
+		Long lastRowId = TableIndexManagerImpl.BATCH_SIZE - 1L;
 		
-		when(mockSearchProcessor.process(any(), anyBoolean())).thenReturn("processed value");
+		when(mockIndexDao.getTableDataPageAfterRowId(any(), any(), any(), anyLong())).thenReturn(firstPage, Collections.emptyList());
+		stubProcessRows("processed value");
+		when(mockIndexDao.getSearchContentHashes(any(), any())).thenReturn(Collections.emptyMap());
 		
 		IndexDescription indexDescription = new TableIndexDescription(tableId);
 		
 		// Call under test
 		manager.updateSearchIndex(indexDescription);
 		
-		verify(mockIndexDao).getTableDataPage(tableId, expectedSearchSchema, TableIndexManagerImpl.BATCH_SIZE, 0);
-		verify(mockIndexDao).updateSearchIndex(tableId, Arrays.asList(new RowSearchContent(1L, "processed value"), new RowSearchContent(2L, "processed value")));
+		verify(mockIndexDao).getTableDataPageAfterRowId(tableId, schema, null, TableIndexManagerImpl.BATCH_SIZE);
+		verify(mockIndexDao).getTableDataPageAfterRowId(tableId, schema, lastRowId, TableIndexManagerImpl.BATCH_SIZE);
+		verify(mockIndexDao).updateSearchIndex(tableId, firstPage.stream().map(row -> new RowSearchContent(row.getRowId(), "processed value")).collect(Collectors.toList()));
+	}
+	
+	@Test
+	public void testUpdateChangedSearchContentWithNoChanges() {
+		
+		List<TableRowData> batch = Arrays.asList(
+			new TableRowData(1L, Arrays.asList(new TypedCellValue(ColumnType.STRING, "some value"))),
+			new TableRowData(2L, Arrays.asList(new TypedCellValue(ColumnType.STRING, null)))
+		);
+		
+		stubProcessRows("processed value", null);
+		
+		Map<Long, String> currentHashes = new HashMap<>();
+		currentHashes.put(1L, TableIndexManagerImpl.hashSearchContent("processed value"));
+		currentHashes.put(2L, null);
+		
+		when(mockIndexDao.getSearchContentHashes(any(), any())).thenReturn(currentHashes);
+		
+		// Call under test
+		manager.updateChangedSearchContent(tableId, batch, true);
+		
+		verify(mockSearchProcessor).processRows(batch, true);
+		verify(mockIndexDao, never()).updateSearchIndex(any(), any());
+	}
+	
+	@Test
+	public void testUpdateChangedSearchContentWithProcessingFailure() {
+		
+		List<TableRowData> batch = Arrays.asList(
+			new TableRowData(1L, Arrays.asList(new TypedCellValue(ColumnType.STRING, "some value")))
+		);
+		
+		IllegalArgumentException ex = new IllegalArgumentException("failed");
+		
+		when(mockSearchProcessor.processRows(any(), anyBoolean())).thenThrow(ex);
+		
+		IllegalArgumentException result = assertThrows(IllegalArgumentException.class, () -> {			
+			// Call under test
+			manager.updateChangedSearchContent(tableId, batch, false);
+		});
+		
+		assertEquals(ex, result);
+		verifyZeroInteractions(mockIndexDao);
+	}
+	
+	@Test
+	public void testHashSearchContent() {
+		assertEquals("5eb63bbbe01eeed093cb22bb8f5acdc3", TableIndexManagerImpl.hashSearchContent("hello world"));
+		assertEquals(null, TableIndexManagerImpl.hashSearchContent(null));
 	}
 	
 	@Test
@@ -2077,18 +2212,14 @@ public class TableIndexManagerImplTest {
 			new TableRowData(2L, Arrays.asList(new TypedCellValue(ColumnType.STRING, "column 1 value"), new TypedCellValue(ColumnType.STRING, "column 2 value")))
 		);
 		
-		when(mockSearchProcessor.process(any(), anyBoolean())).thenReturn("processed value");
+		stubProcessRows("processed value");
 
 		IndexDescription indexDescription = new TableIndexDescription(tableId);
 		
 		// Call under test
 		manager.updateSearchIndex(indexDescription, rows.iterator());
 
-		ArgumentCaptor<TableRowData> dataCaptor = ArgumentCaptor.forClass(TableRowData.class);
-		
-		verify(mockSearchProcessor, times(rows.size())).process(dataCaptor.capture(), eq(false));
-		
-		assertEquals(rows, dataCaptor.getAllValues());
+		verify(mockSearchProcessor).processRows(rows, false);
 		
 		verifyNoMoreInteractions(mockSearchProcessor);
 		
@@ -2106,7 +2237,7 @@ public class TableIndexManagerImplTest {
 			new TableRowData(2L, Arrays.asList(new TypedCellValue(ColumnType.STRING, "column 1 value"), new TypedCellValue(ColumnType.STRING, "column 2 value")))
 		);
 		
-		when(mockSearchProcessor.process(any(), anyBoolean())).thenReturn("processed value");
+		stubProcessRows("processed value");
 
 		IndexDescription indexDescription = Mockito.mock(IndexDescription.class);
 		
@@ -2116,11 +2247,7 @@ public class TableIndexManagerImplTest {
 		// Call under test
 		manager.updateSearchIndex(indexDescription, rows.iterator());
 
-		ArgumentCaptor<TableRowData> dataCaptor = ArgumentCaptor.forClass(TableRowData.class);
-		
-		verify(mockSearchProcessor, times(rows.size())).process(dataCaptor.capture(), eq(true));
-		
-		assertEquals(rows, dataCaptor.getAllValues());
+		verify(mockSearchProcessor).processRows(rows, true);
 		
 		verifyNoMoreInteractions(mockSearchProcessor);
 		
@@ -2138,18 +2265,14 @@ public class TableIndexManagerImplTest {
 			new TableRowData(2L, Arrays.asList(new TypedCellValue(ColumnType.STRING, "column 1 value"), new TypedCellValue(ColumnType.STRING, "column 2 value")))
 		);
 		
-		when(mockSearchProcessor.process(any(), anyBoolean())).thenReturn("processed value", null);
+		stubProcessRows("processed value", null);
 
 		IndexDescription indexDescription = new TableIndexDescription(tableId);
 		
 		// Call under test
 		manager.updateSearchIndex(indexDescription, rows.iterator());
 		
-		ArgumentCaptor<TableRowData> dataCaptor = ArgumentCaptor.forClass(TableRowData.class);
-		
-		verify(mockSearchProcessor, times(rows.size())).process(dataCaptor.capture(), eq(false));
-		
-		assertEquals(rows, dataCaptor.getAllValues());
+		verify(mockSearchProcessor).processRows(rows, false);
 		
 		verifyNoMoreInteractions(mockSearchProcessor);
 		
@@ -2182,22 +2305,17 @@ public class TableIndexManagerImplTest {
 			new TableRowData(rowId, Arrays.asList(new TypedCellValue(ColumnType.STRING, "column 1 value"), new TypedCellValue(ColumnType.STRING, "column 2 value")))
 		).collect(Collectors.toList());
 		
-		when(mockSearchProcessor.process(any(), anyBoolean())).thenReturn("processed value");
+		stubProcessRows("processed value");
 
 		IndexDescription indexDescription = new TableIndexDescription(tableId);
 		
 		// Call under test
 		manager.updateSearchIndex(indexDescription, rows.iterator());
 		
-		ArgumentCaptor<TableRowData> dataCaptor = ArgumentCaptor.forClass(TableRowData.class);
-		
-		verify(mockSearchProcessor, times(rows.size())).process(dataCaptor.capture(), eq(false));
-		
-		assertEquals(rows, dataCaptor.getAllValues());
-
 		List<List<TableRowData>> expectedBatches = Lists.partition(rows, TableIndexManagerImpl.BATCH_SIZE);
 		
 		for (List<TableRowData> batch : expectedBatches) {
+			verify(mockSearchProcessor).processRows(batch, false);
 			List<RowSearchContent> expectedTransformedBatch = batch.stream().map( data -> new RowSearchContent(data.getRowId(), "processed value")).collect(Collectors.toList());
 			verify(mockIndexDao).updateSearchIndex(tableId, expectedTransformedBatch);
 		}
@@ -2991,6 +3109,22 @@ public class TableIndexManagerImplTest {
 		return testChange;
 	}
 
+	/**
+	 * Stubs the batch processing of the search processor, each processed row gets the next of the given contents and
+	 * the last content is used for the remaining rows
+	 * 
+	 * @param contents
+	 */
+	private void stubProcessRows(String... contents) {
+		AtomicInteger processedRows = new AtomicInteger();
+		when(mockSearchProcessor.processRows(any(), anyBoolean())).thenAnswer(invocation -> {
+			List<TableRowData> rows = invocation.getArgument(0);
+			return rows.stream().map(row -> 
+				new RowSearchContent(row.getRowId(), contents[Math.min(processedRows.getAndIncrement(), contents.length - 1)])
+			).collect(Collectors.toList());
+		});
+	}
+
 	/**
 	 * Create the default EntityField schema with IDs for each column.
 	 * 
@@ -74,7 +74,6 @@ import org.sagebionetworks.repo.model.dbo.dao.table.TableRowTruthDAO;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableSnapshot;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableSnapshotDao;
 import org.sagebionetworks.repo.model.dbo.dao.table.ViewScopeDao;
-import org.sagebionetworks.repo.model.dbo.file.download.v2.ActionsRequiredDao;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
 import org.sagebionetworks.repo.model.entity.IdAndVersionParser;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
@@ -112,7 +111,6 @@ import org.sagebionetworks.workers.util.semaphore.ReadLockRequest;
 import org.sagebionetworks.workers.util.semaphore.WriteLock;
 import org.sagebionetworks.workers.util.semaphore.WriteLockRequest;
 import org.sagebionetworks.workers.util.semaphore.WriteReadSemaphore;
-import org.springframework.jdbc.core.JdbcTemplate;
 
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.AmazonServiceException.ErrorType;
@@ -171,8 +169,6 @@ public class TableManagerSupportTest {
 	@Mock
 	private Logger mockLogger;
 	@Mock
-	private JdbcTemplate mockJdbcTemplate;
-	@Mock
 	private TableExceptionTranslator mockTableExceptionTranslator;
 	
 	private TableManagerSupportImpl manager;
@@ -1754,21 +1750,6 @@ public class TableManagerSupportTest {
 		
 	}
 	
-	@Test
-	public void testGetActionsRequiredDao() {
-		when(mockTableConnectionFactory.getConnection(any())).thenReturn(mockTableIndexDAO);
-		when(mockTableIndexDAO.getConnection()).thenReturn(mockJdbcTemplate);
-		
-		// Call under test
-		ActionsRequiredDao result = manager.getActionsRequiredDao(idAndVersion);
-		
-		assertEquals(mockJdbcTemplate, result.getJdbcTemplate());
-		
-		verify(mockTableConnectionFactory).getConnection(idAndVersion);
-		verify(mockTableIndexDAO).getConnection();
-		
-	}
-	
 	@Test
 	public void testAttemptToSetTableStatusToFailed() {
 		IllegalArgumentException e = new IllegalArgumentException("abc");
@@ -67,9 +67,9 @@ import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.dao.table.RowHandler;
 import org.sagebionetworks.repo.model.dao.table.TableType;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableModelTestUtils;
-import org.sagebionetworks.repo.model.dbo.file.download.v2.ActionsRequiredDao;
-import org.sagebionetworks.repo.model.dbo.file.download.v2.EntityActionRequiredCallback;
-import org.sagebionetworks.repo.model.dbo.file.download.v2.FilesBatchProvider;
+import org.sagebionetworks.repo.model.dbo.file.download.v2.FileActionRequired;
+import org.sagebionetworks.repo.model.download.ActionRequiredCount;
+import org.sagebionetworks.repo.model.download.RequestDownload;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
 import org.sagebionetworks.repo.model.table.ColumnModel;
 import org.sagebionetworks.repo.model.table.ColumnMultiValueFunction;
@@ -122,7 +122,6 @@ import org.sagebionetworks.util.csv.CSVWriterStream;
 import org.sagebionetworks.workers.util.semaphore.LockType;
 import org.sagebionetworks.workers.util.semaphore.LockUnavilableException;
 import org.springframework.jdbc.BadSqlGrammarException;
-import org.springframework.transaction.support.TransactionCallback;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -143,8 +142,6 @@ public class TableQueryManagerImplTest {
 	@Mock
 	private ProgressCallback mockProgressCallback2;
 	@Mock
-	private ActionsRequiredDao mockActionsRequiredDao;
-	@Mock
 	private ExecutorService mockThreadPool;
 	@Mock
 	private QueryCacheManager mockQueryCacheManager;
@@ -939,13 +936,11 @@ public class TableQueryManagerImplTest {
 		when(mockTableConnectionFactory.getConnection(idAndVersion)).thenReturn(mockTableIndexDAO);
 		when(mockSchemaProvider.getTableSchema(any())).thenReturn(models);
 		setupQueryCallback();
-		when(mockTableIndexDAO.executeInWriteTransaction(any())).thenAnswer(new Answer<Object>() {
-			@Override
-			public Object answer(InvocationOnMock invocation) throws Throwable {
-				return invocation.getArgument(0, TransactionCallback.class).doInTransaction(null);
-			}
-		});
-		when(mockTableManagerSupport.getActionsRequiredDao(any())).thenReturn(mockActionsRequiredDao);
+		when(mockTableIndexDAO.querySingleColumn(any(), any(), eq(Long.class))).thenReturn(List.of(1L, 2L, 3L));
+		when(mockAuthManager.getActionsRequiredForDownload(any(), any())).thenReturn(List.of(
+			new FileActionRequired().withFileId(1L).withAction(new RequestDownload().setBenefactorId(123L)),
+			new FileActionRequired().withFileId(3L).withAction(new RequestDownload().setBenefactorId(123L))
+		));
 		
 		when(mockSchemaProvider.getColumnModel(any())).thenReturn(models.get(0));
 		
@@ -965,17 +960,11 @@ public class TableQueryManagerImplTest {
 		// call under test
 		QueryResultBundle results = manager.queryAsStreamAfterAuthorization(user, mockProgressCallbackVoid, query, rowHandler, queryOptions);
 				
-		verify(mockTableIndexDAO).executeInWriteTransaction(any());
-		
-		ArgumentCaptor<FilesBatchProvider> filesProviderCaptor = ArgumentCaptor.forClass(FilesBatchProvider.class);
-		ArgumentCaptor<EntityActionRequiredCallback> actionsCaptor = ArgumentCaptor.forClass(EntityActionRequiredCallback.class);
-		
-		verify(mockActionsRequiredDao).createActionsRequiredTable(eq(user.getId()), eq(10_000L), filesProviderCaptor.capture(), actionsCaptor.capture());
-		verify(mockActionsRequiredDao).getActionsRequiredCount(user.getId(), 50);
+		List<ActionRequiredCount> expectedActions = List.of(
+			new ActionRequiredCount().setCount(2L).setAction(new RequestDownload().setBenefactorId(123L))
+		);
 		
-		// Emulates the actions required dao invoking the providers
-		filesProviderCaptor.getValue().getBatchOfFiles(10_000L, 0);
-		actionsCaptor.getValue().filter(List.of(1L, 2L, 3L));
+		assertEquals(expectedActions, results.getActionsRequired());
 		
 		verify(mockTableIndexDAO).querySingleColumn("SELECT DISTINCT _C6_ FROM T123 ORDER BY _C6_ LIMIT :pLimit OFFSET :pOffset", Map.of("pLimit", 10_000L, "pOffset", 0L), Long.class);
 		verify(mockAuthManager).getActionsRequiredForDownload(user, List.of(1L, 2L, 3L));
@@ -21,6 +21,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.repo.model.IdAndChecksum;
 import org.sagebionetworks.repo.model.IdAndEtag;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.NodeDAO;
 import org.sagebionetworks.repo.model.table.ObjectDataDTO;
 import org.sagebionetworks.repo.model.table.SubType;
@@ -83,6 +84,42 @@ public class EntityObjectProviderTest {
 		verify(mockNodeDao).getIdsAndChecksumsForChildren(eq(salt), eq(parentId), eq(subTypes));
 	}
 	
+	@Test
+	public void testStreamOverIdsAndChecksumsWithParentIdsInRange() {
+		Long salt = 123L;
+		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
+		Set<Long> parentId = Sets.newHashSet(1L, 2L, 3L);
+
+		List<IdAndChecksum> all = buildIdsAndChecksum(4);
+
+		when(mockNodeDao.getIdsAndChecksumsForChildren(any(), any(), any(), any(), any())).thenReturn(all);
+
+		// call under test
+		Iterator<IdAndChecksum> resultsIt = provider.streamOverIdsAndChecksumsForChildren(salt, parentId, subTypes, 0L, 3L);
+		List<IdAndChecksum> allResults = new ArrayList<IdAndChecksum>();
+		resultsIt.forEachRemaining(i -> allResults.add(i));
+		assertEquals(all, allResults);
+		
+		verify(mockNodeDao).getIdsAndChecksumsForChildren(salt, parentId, subTypes, 0L, 3L);
+	}
+	
+	@Test
+	public void testGetIdRangeChecksumsForChildren() {
+		Long salt = 123L;
+		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
+		Set<Long> parentId = Sets.newHashSet(1L, 2L, 3L);
+		List<IdRangeChecksum> expected = Collections.singletonList(new IdRangeChecksum().withBucket(0L).withMinId(1L).withMaxId(9L)
+				.withCount(3L).withChecksum(99L));
+
+		when(mockNodeDao.getIdRangeChecksumsForChildren(any(), any(), any(), any(), any(), any())).thenReturn(expected);
+
+		// call under test
+		List<IdRangeChecksum> result = provider.getIdRangeChecksumsForChildren(salt, parentId, subTypes, 0L, 100L, 10L);
+		assertEquals(expected, result);
+
+		verify(mockNodeDao).getIdRangeChecksumsForChildren(salt, parentId, subTypes, 0L, 100L, 10L);
+	}
+	
 	@Test
 	public void testStreamOverIdsAndChecksumsWithObjectIds() {
 		Long salt = 123L;
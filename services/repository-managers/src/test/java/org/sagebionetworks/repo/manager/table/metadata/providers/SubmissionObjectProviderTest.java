@@ -24,6 +24,7 @@ import org.sagebionetworks.evaluation.dao.EvaluationDAO;
 import org.sagebionetworks.evaluation.dao.SubmissionDAO;
 import org.sagebionetworks.repo.model.IdAndChecksum;
 import org.sagebionetworks.repo.model.IdAndEtag;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.table.ObjectDataDTO;
 import org.sagebionetworks.repo.model.table.SubType;
 
@@ -89,6 +90,43 @@ public class SubmissionObjectProviderTest {
 		verify(mockSubmissionDao).getIdAndChecksumsPage(eq(salt), eq(parentId), eq(pageSize), eq(0L));
 	}
 	
+	@Test
+	public void testStreamOverIdsAndChecksumsWithParentIdsInRange() {
+		Long salt = 123L;
+		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
+		Set<Long> parentId = Sets.newHashSet(1L, 2L, 3L);
+
+		List<IdAndChecksum> all = buildIdsAndChecksum(4);
+
+		when(mockSubmissionDao.getIdAndChecksumsPage(any(), any(), any(), any(), any(), any())).thenReturn(all);
+
+		// call under test
+		Iterator<IdAndChecksum> resultsIt = provider.streamOverIdsAndChecksumsForChildren(salt, parentId, subTypes, 0L, 3L);
+		List<IdAndChecksum> allResults = new ArrayList<IdAndChecksum>();
+		resultsIt.forEachRemaining(i -> allResults.add(i));
+		assertEquals(all, allResults);
+		
+		long pageSize = SubmissionObjectProvider.PAGE_SIZE;
+		verify(mockSubmissionDao).getIdAndChecksumsPage(salt, parentId, 0L, 3L, pageSize, 0L);
+	}
+	
+	@Test
+	public void testGetIdRangeChecksumsForChildren() {
+		Long salt = 123L;
+		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
+		Set<Long> parentId = Sets.newHashSet(1L, 2L, 3L);
+		List<IdRangeChecksum> expected = Collections.singletonList(new IdRangeChecksum().withBucket(0L).withMinId(1L).withMaxId(9L)
+				.withCount(3L).withChecksum(99L));
+
+		when(mockSubmissionDao.getIdRangeChecksums(any(), any(), any(), any(), any())).thenReturn(expected);
+
+		// call under test
+		List<IdRangeChecksum> result = provider.getIdRangeChecksumsForChildren(salt, parentId, subTypes, 0L, 100L, 10L);
+		assertEquals(expected, result);
+
+		verify(mockSubmissionDao).getIdRangeChecksums(salt, parentId, 0L, 100L, 10L);
+	}
+	
 	@Test
 	public void teststreamOverIdsAndChecksumsForObjects() {
 		Long salt = 123L;
@@ -18,6 +18,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.sagebionetworks.repo.manager.trash.TrashManagerImpl.MAX_IDS_TO_LOAD;
+import static org.sagebionetworks.repo.manager.trash.TrashManagerImpl.PURGE_BATCH_SIZE;
 
 import java.sql.Date;
 import java.util.ArrayList;
@@ -615,6 +616,26 @@ public class TrashManagerImplTest {
 
 		trashManager.purgeTrash(adminUserInfo, trashIDList);
 
+		verify(mockNodeDAO).enumerateSubTreeForPurge(nodeID);
+		verify(mockNodeDAO, never()).purgeSubTreeBatch(anyString(), anyInt());
+		verify(mockNodeDAO, times(1)).deleteTree(nodeID, MAX_IDS_TO_LOAD);
+		verify(mockAclDAO, times(1)).delete(nodeID, ObjectType.ENTITY);
+		verify(mockTrashCanDao, times(1)).delete(trashIDList);
+	}
+
+	@Test
+	public void testPurgeTrashWithSubTree() {
+
+		when(mockNodeDAO.enumerateSubTreeForPurge(nodeID)).thenReturn(2500L);
+		when(mockNodeDAO.purgeSubTreeBatch(nodeID, PURGE_BATCH_SIZE)).thenReturn(1000, 1000, 500, 0);
+		when(mockNodeDAO.deleteTree(nodeID, MAX_IDS_TO_LOAD)).thenReturn(true);
+
+		List<Long> trashIDList = Collections.singletonList(KeyFactory.stringToKey(nodeID));
+
+		trashManager.purgeTrash(adminUserInfo, trashIDList);
+
+		verify(mockNodeDAO).enumerateSubTreeForPurge(nodeID);
+		verify(mockNodeDAO, times(4)).purgeSubTreeBatch(nodeID, PURGE_BATCH_SIZE);
 		verify(mockNodeDAO, times(1)).deleteTree(nodeID, MAX_IDS_TO_LOAD);
 		verify(mockAclDAO, times(1)).delete(nodeID, ObjectType.ENTITY);
 		verify(mockTrashCanDao, times(1)).delete(trashIDList);
@@ -0,0 +1,39 @@
+package org.sagebionetworks.repo.web.filter;
+
+import java.io.IOException;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.sagebionetworks.repo.model.config.ReadReplicaRoutingDataSource;
+
+/**
+ * A request that writes to the database is pinned to the primary database so
+ * that it can read its own writes. Since the pin is bound to the thread it is
+ * cleared once the request completes, before the thread serves another request.
+ */
+public class ReadReplicaPinFilter implements Filter {
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain filterChain) throws IOException, ServletException {
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			ReadReplicaRoutingDataSource.clearPrimaryPin();
+		}
+	}
+
+	@Override
+	public void init(FilterConfig config) throws ServletException {
+		// Nothing to do
+	}
+
+	@Override
+	public void destroy() {
+		// Nothing to do
+	}
+}
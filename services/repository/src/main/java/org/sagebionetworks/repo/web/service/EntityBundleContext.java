@@ -0,0 +1,70 @@
+package org.sagebionetworks.repo.web.service;
+
+import java.util.List;
+
+import org.sagebionetworks.repo.model.Entity;
+import org.sagebionetworks.repo.model.auth.UserEntityPermissions;
+import org.sagebionetworks.repo.model.entity.IdAndVersion;
+import org.sagebionetworks.repo.model.file.FileHandle;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
+import org.sagebionetworks.util.ValidateArgument;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
+/**
+ * State shared by the parts of a single entity bundle. The entity, its file
+ * handles and the permissions of the user on the entity are each loaded at most
+ * once, by the first part that needs them, even when the parts are assembled
+ * concurrently.
+ *
+ */
+public class EntityBundleContext {
+
+	private final IdAndVersion idAndVersion;
+	private final Supplier<Entity> entity;
+	private final Supplier<List<FileHandle>> fileHandles;
+	private final Supplier<UserEntityPermissions> permissions;
+
+	/**
+	 * @param entityId
+	 * @param versionNumber The version of the entity, null for the current version
+	 * @param entity        Loads the entity
+	 * @param fileHandles   Loads the file handles of the entity
+	 * @param permissions   Loads the permissions of the user on the entity
+	 */
+	public EntityBundleContext(String entityId, Long versionNumber, Supplier<Entity> entity, Supplier<List<FileHandle>> fileHandles,
+			Supplier<UserEntityPermissions> permissions) {
+		ValidateArgument.required(entityId, "entityId");
+		this.idAndVersion = KeyFactory.idAndVersion(entityId, versionNumber);
+		this.entity = Suppliers.memoize(entity);
+		this.fileHandles = Suppliers.memoize(fileHandles);
+		this.permissions = Suppliers.memoize(permissions);
+	}
+
+	public IdAndVersion getIdAndVersion() {
+		return idAndVersion;
+	}
+
+	/**
+	 * @return The entity, loaded on the first call
+	 */
+	public Entity getEntity() {
+		return entity.get();
+	}
+
+	/**
+	 * @return The file handles of the entity, loaded on the first call
+	 */
+	public List<FileHandle> getFileHandles() {
+		return fileHandles.get();
+	}
+
+	/**
+	 * @return The permissions of the user on the entity, loaded on the first call
+	 */
+	public UserEntityPermissions getPermissions() {
+		return permissions.get();
+	}
+
+}
@@ -0,0 +1,94 @@
+package org.sagebionetworks.repo.web.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.sagebionetworks.cloudwatch.MetricStats;
+import org.sagebionetworks.cloudwatch.ProfileData;
+
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+
+/**
+ * Gathers the time taken to assemble each part of the entity bundles, so the
+ * parts that dominate the latency of a bundle can be identified. The
+ * statistics are accumulated per part until they are drained into CloudWatch
+ * metrics.
+ *
+ */
+public class EntityBundlePartStatistics {
+
+	public static final String METRIC_PART_TIME = "Part Time";
+	public static final String DIMENSION_PART = "Part";
+
+	private final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+
+	/**
+	 * Record the time taken by a single part of a bundle.
+	 *
+	 * @param part
+	 * @param elapsedMS
+	 */
+	public void record(String part, long elapsedMS) {
+		statistics.compute(part, (String key, Statistics current) -> {
+			Statistics stats = current == null ? new Statistics() : current;
+			stats.add(elapsedMS);
+			return stats;
+		});
+	}
+
+	/**
+	 * Create a metric for each part recorded since the last call and reset the
+	 * statistics.
+	 *
+	 * @param namespace
+	 * @param timestamp
+	 * @return
+	 */
+	public List<ProfileData> drainMetrics(String namespace, Date timestamp) {
+		List<ProfileData> metrics = new ArrayList<>(statistics.size());
+		for (String part : statistics.keySet()) {
+			Statistics stats = statistics.remove(part);
+			if (stats == null) {
+				continue;
+			}
+			ProfileData data = new ProfileData();
+			data.setNamespace(namespace);
+			data.setName(METRIC_PART_TIME);
+			data.setUnit(StandardUnit.Milliseconds.name());
+			data.setMetricStats(stats.toMetricStats());
+			data.setDimension(Collections.singletonMap(DIMENSION_PART, part));
+			data.setTimestamp(timestamp);
+			metrics.add(data);
+		}
+		return metrics;
+	}
+
+	private static class Statistics {
+
+		private long count;
+		private long sum;
+		private long minimum = Long.MAX_VALUE;
+		private long maximum;
+
+		void add(long elapsedMS) {
+			count++;
+			sum += elapsedMS;
+			minimum = Math.min(minimum, elapsedMS);
+			maximum = Math.max(maximum, elapsedMS);
+		}
+
+		MetricStats toMetricStats() {
+			MetricStats stats = new MetricStats();
+			stats.setCount((double) count);
+			stats.setSum((double) sum);
+			stats.setMinimum((double) minimum);
+			stats.setMaximum((double) maximum);
+			return stats;
+		}
+	}
+
+}
@@ -139,4 +139,10 @@ public interface EntityBundleService {
 			ConflictingUpdateException,	DatastoreException,
 			InvalidModelException, UnauthorizedException, NotFoundException,
 			ACLInheritanceException, ParseException;
+
+	/**
+	 * Publish the time taken to assemble each part of the bundles to CloudWatch,
+	 * called from a timer.
+	 */
+	public void publishPartMetrics();
 }
@@ -2,10 +2,21 @@ package org.sagebionetworks.repo.web.service;
 
 import static org.apache.commons.lang3.BooleanUtils.isTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
-
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.sagebionetworks.StackConfiguration;
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.ProfileData;
+import org.sagebionetworks.profiler.ProfilerFrameStackManager;
 import org.sagebionetworks.repo.manager.UserManager;
 import org.sagebionetworks.repo.manager.dataaccess.AccessRequirementManager;
 import org.sagebionetworks.repo.model.ACLInheritanceException;
@@ -27,21 +38,45 @@ import org.sagebionetworks.repo.model.RestrictableObjectType;
 import org.sagebionetworks.repo.model.RestrictionInformationRequest;
 import org.sagebionetworks.repo.model.RestrictionInformationResponse;
 import org.sagebionetworks.repo.model.UnauthorizedException;
+import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.VersionableEntity;
 import org.sagebionetworks.repo.model.annotation.v2.Annotations;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsV2Translator;
+import org.sagebionetworks.repo.model.config.ReadReplicaRoutingDataSource;
 import org.sagebionetworks.repo.model.dao.WikiPageKey;
 import org.sagebionetworks.repo.model.discussion.EntityThreadCounts;
-import org.sagebionetworks.repo.model.entity.IdAndVersion;
 import org.sagebionetworks.repo.model.file.FileHandle;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.table.Table;
 import org.sagebionetworks.repo.queryparser.ParseException;
 import org.sagebionetworks.repo.transactions.WriteTransaction;
 import org.sagebionetworks.repo.web.NotFoundException;
+import org.sagebionetworks.repo.web.TemporarilyUnavailableException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 public class EntityBundleServiceImpl implements EntityBundleService {
+
+	/**
+	 * The parts of a bundle must be assembled within this time.
+	 */
+	public static final long DEFAULT_DEADLINE_MS = 30_000L;
+	public static final String METRIC_NAMESPACE_PREFIX = "Entity-Bundle-";
+
+	public static final String PART_ENTITY = "Entity";
+	public static final String PART_ANNOTATIONS = "Annotations";
+	public static final String PART_PERMISSIONS = "Permissions";
+	public static final String PART_PATH = "Path";
+	public static final String PART_HAS_CHILDREN = "HasChildren";
+	public static final String PART_ACL = "AccessControlList";
+	public static final String PART_BENEFACTOR_ACL = "BenefactorAcl";
+	public static final String PART_FILE_HANDLES = "FileHandles";
+	public static final String PART_TABLE_BUNDLE = "TableBundle";
+	public static final String PART_ROOT_WIKI_ID = "RootWikiId";
+	public static final String PART_DOI_ASSOCIATION = "DoiAssociation";
+	public static final String PART_FILE_NAME = "FileName";
+	public static final String PART_THREAD_COUNT = "ThreadCount";
+	public static final String PART_RESTRICTION_INFORMATION = "RestrictionInformation";
 	
 	@Autowired
 	ServiceProvider serviceProvider;
@@ -52,15 +87,54 @@ public class EntityBundleServiceImpl implements EntityBundleService {
 	@Autowired
 	AccessRequirementManager accessRequirementManager;
 
+	@Autowired
+	Consumer consumer;
+
+	@Autowired
+	StackConfiguration stackConfiguration;
+
+	@Autowired
+	ProfilerFrameStackManager frameStackManager;
+
+	private ExecutorService executorService;
+
+	private long deadlineMS = DEFAULT_DEADLINE_MS;
+
+	private final EntityBundlePartStatistics partStatistics = new EntityBundlePartStatistics();
+
 	public EntityBundleServiceImpl() {}
 
 	/**
 	 * Direct constructor (for testing purposes)
 	 * 
 	 * @param serviceProvider
+	 * @param userManager
+	 * @param executorService
 	 */
-	public EntityBundleServiceImpl(ServiceProvider serviceProvider) {
+	public EntityBundleServiceImpl(ServiceProvider serviceProvider, UserManager userManager, ExecutorService executorService) {
 		this.serviceProvider = serviceProvider;
+		this.userManager = userManager;
+		this.executorService = executorService;
+	}
+
+	/**
+	 * Injected.
+	 * 
+	 * @param executorService The pool used to assemble the parts of a bundle concurrently
+	 */
+	public void setExecutorService(ExecutorService executorService) {
+		this.executorService = executorService;
+	}
+
+	/**
+	 * @param deadlineMS The time allowed to assemble the parts of a bundle
+	 */
+	public void setDeadlineMS(long deadlineMS) {
+		this.deadlineMS = deadlineMS;
+	}
+
+	EntityBundlePartStatistics getPartStatistics() {
+		return partStatistics;
 	}
 
 	@Override
@@ -76,137 +150,329 @@ public class EntityBundleServiceImpl implements EntityBundleService {
 			UnauthorizedException, ACLInheritanceException, ParseException {
 
 		EntityBundle eb = new EntityBundle();
-		Entity entity = null;
-		IdAndVersion idAndVersion = KeyFactory.idAndVersion(entityId, versionNumber);
-		if (isTrue(request.getIncludeEntity()) || isTrue(request.getIncludeFileName())) {
-			if(versionNumber == null) {
-				entity = serviceProvider.getEntityService().getEntity(userId, entityId);
-			} else {
-				entity = serviceProvider.getEntityService().getEntityForVersion(userId, entityId, versionNumber);
-			}
-			if (isTrue(request.getIncludeEntity())) {
+		EntityService entityService = serviceProvider.getEntityService();
+		// The user is resolved once and shared by all the parts
+		UserInfo userInfo = userManager.getUserInfo(userId);
+		EntityBundleContext context = new EntityBundleContext(entityId, versionNumber,
+				() -> getEntity(entityService, userInfo, entityId, versionNumber),
+				() -> getFileHandles(entityService, userInfo, entityId, versionNumber),
+				() -> entityService.getUserEntityPermissions(userInfo, entityId));
+		// The entity is only fetched if required, since it could fail the request.
+		boolean fetchEntity = isTrue(request.getIncludeEntity()) || isTrue(request.getIncludeFileName());
+
+		List<BundlePart> parts = new ArrayList<>();
+		if (isTrue(request.getIncludeEntity())) {
+			parts.add(new BundlePart(PART_ENTITY, () -> {
+				Entity entity = context.getEntity();
 				eb.setEntity(entity);
 				eb.setEntityType(EntityTypeUtils.getEntityTypeForClass(entity.getClass()));
-			}
+			}));
 		}
 		if (isTrue(request.getIncludeAnnotations())) {
-			if(versionNumber == null) {
-				eb.setAnnotations(serviceProvider.getEntityService().getEntityAnnotations(userId, entityId));
-			} else {
-				eb.setAnnotations(serviceProvider.getEntityService().getEntityAnnotationsForVersion(userId, entityId, versionNumber));
-			}
+			parts.add(new BundlePart(PART_ANNOTATIONS, () -> {
+				if(versionNumber == null) {
+					eb.setAnnotations(entityService.getEntityAnnotations(userInfo, entityId));
+				} else {
+					eb.setAnnotations(entityService.getEntityAnnotationsForVersion(userInfo, entityId, versionNumber));
+				}
+			}));
 		}
 		if (isTrue(request.getIncludePermissions())) {
-			eb.setPermissions(serviceProvider.getEntityService().getUserEntityPermissions(userId, entityId));
+			parts.add(new BundlePart(PART_PERMISSIONS, () -> {
+				eb.setPermissions(context.getPermissions());
+			}));
 		}
 		if (isTrue(request.getIncludeEntityPath())) {
-			List<EntityHeader> path = serviceProvider.getEntityService().getEntityPath(userId, entityId);
-			EntityPath ep = new EntityPath();
-			ep.setPath(path);
-			eb.setPath(ep);
+			parts.add(new BundlePart(PART_PATH, () -> {
+				List<EntityHeader> path = entityService.getEntityPath(userInfo, entityId);
+				EntityPath ep = new EntityPath();
+				ep.setPath(path);
+				eb.setPath(ep);
+			}));
 		}
 		if (isTrue(request.getIncludeHasChildren())) {
-			eb.setHasChildren(serviceProvider.getEntityService().doesEntityHaveChildren(userId, entityId));
+			parts.add(new BundlePart(PART_HAS_CHILDREN, () -> {
+				eb.setHasChildren(entityService.doesEntityHaveChildren(userInfo, entityId));
+			}));
 		}
 		if (isTrue(request.getIncludeAccessControlList())) {
-			try {
-				eb.setAccessControlList(serviceProvider.getEntityService().getEntityACL(entityId, userId));
-			} catch (ACLInheritanceException e) {
-				// ACL is inherited from benefactor. Set ACL to null.
-				eb.setAccessControlList(null);
-			}
+			parts.add(new BundlePart(PART_ACL, () -> {
+				try {
+					eb.setAccessControlList(entityService.getEntityACL(entityId, userInfo));
+				} catch (ACLInheritanceException e) {
+					// ACL is inherited from benefactor. Set ACL to null.
+					eb.setAccessControlList(null);
+				}
+			}));
 		}
 		if (isTrue(request.getIncludeBenefactorACL())) {
-			try {
-				// If this entity is its own benefactor then we just get the ACL
-				eb.setBenefactorAcl(serviceProvider.getEntityService().getEntityACL(entityId, userId));
-			} catch (ACLInheritanceException e) {
-				// ACL is inherited from benefactor. So get the benefactor's ACL
-				eb.setBenefactorAcl(serviceProvider.getEntityService().getEntityACL(e.getBenefactorId(), userId));
-			}
-		}
-		List<FileHandle> fileHandles = null;
-		if (isTrue(request.getIncludeFileHandles()) || isTrue(request.getIncludeFileName())) {
-			try {
-				if (versionNumber == null) {
-					fileHandles = serviceProvider.getEntityService().
-							getEntityFileHandlesForCurrentVersion(userId, entityId).getList();
-				} else{
-					fileHandles = serviceProvider.getEntityService().
-							getEntityFileHandlesForVersion(userId, entityId, versionNumber).getList();
+			parts.add(new BundlePart(PART_BENEFACTOR_ACL, () -> {
+				try {
+					// If this entity is its own benefactor then we just get the ACL
+					eb.setBenefactorAcl(entityService.getEntityACL(entityId, userInfo));
+				} catch (ACLInheritanceException e) {
+					// ACL is inherited from benefactor. So get the benefactor's ACL
+					eb.setBenefactorAcl(entityService.getEntityACL(e.getBenefactorId(), userInfo));
 				}
-			}catch (NotFoundException | UnauthorizedException e) {
-				// If there are no file handle(s) or if the user does not have permission to see the handles then set them to be an empty list.
-				fileHandles = new LinkedList<FileHandle>();
-			}
-			if (isTrue(request.getIncludeFileHandles())) {
-				eb.setFileHandles(fileHandles);
-			}
+			}));
+		}
+		if (isTrue(request.getIncludeFileHandles())) {
+			parts.add(new BundlePart(PART_FILE_HANDLES, () -> {
+				eb.setFileHandles(context.getFileHandles());
+			}));
 		}
 		if (isTrue(request.getIncludeTableBundle())) {
 			// This mask only has meaning for implementations of tables.
-			eb.setTableBundle(serviceProvider.getTableServices().getTableBundle(idAndVersion));
+			parts.add(new BundlePart(PART_TABLE_BUNDLE, () -> {
+				eb.setTableBundle(serviceProvider.getTableServices().getTableBundle(context.getIdAndVersion()));
+			}));
 		}
 		if(isTrue(request.getIncludeRootWikiId())){
-			try {
-				WikiPageKey rootKey = serviceProvider.getWikiService().getRootWikiKey(userId, entityId, ObjectType.ENTITY);
-				eb.setRootWikiId(rootKey.getWikiPageId());
-			} catch (NotFoundException e) {
-				// does not exist
-				eb.setRootWikiId(null);
-			}
+			parts.add(new BundlePart(PART_ROOT_WIKI_ID, () -> {
+				try {
+					WikiPageKey rootKey = serviceProvider.getWikiService().getRootWikiKey(userId, entityId, ObjectType.ENTITY);
+					eb.setRootWikiId(rootKey.getWikiPageId());
+				} catch (NotFoundException e) {
+					// does not exist
+					eb.setRootWikiId(null);
+				}
+			}));
 		}
 		if(isTrue(request.getIncludeDOIAssociation()) ){
-			try {
-				if (versionNumber == null && (entity instanceof FileEntity)) {
-					// For File Entities, we assume that the user wants the DOI of the most recent version, if it exists.
-					Long currentVersionNumber = ((VersionableEntity) entity).getVersionNumber();
-					eb.setDoiAssociation(serviceProvider.getDoiServiceV2().getDoiAssociation(entityId, ObjectType.ENTITY, currentVersionNumber));
-				} else { // Handle non-versionable entities and other types of versionable entities
-					// For other versionable entity types (e.g. tables), the 'current version' is mutable.
-					// In this case, we get the DOI of the specified version, which may be null.
-					eb.setDoiAssociation(serviceProvider.getDoiServiceV2().getDoiAssociation(entityId, ObjectType.ENTITY, versionNumber));
+			parts.add(new BundlePart(PART_DOI_ASSOCIATION, () -> {
+				Entity entity = fetchEntity ? context.getEntity() : null;
+				try {
+					if (versionNumber == null && (entity instanceof FileEntity)) {
+						// For File Entities, we assume that the user wants the DOI of the most recent version, if it exists.
+						Long currentVersionNumber = ((VersionableEntity) entity).getVersionNumber();
+						eb.setDoiAssociation(serviceProvider.getDoiServiceV2().getDoiAssociation(entityId, ObjectType.ENTITY, currentVersionNumber));
+					} else { // Handle non-versionable entities and other types of versionable entities
+						// For other versionable entity types (e.g. tables), the 'current version' is mutable.
+						// In this case, we get the DOI of the specified version, which may be null.
+						eb.setDoiAssociation(serviceProvider.getDoiServiceV2().getDoiAssociation(entityId, ObjectType.ENTITY, versionNumber));
+					}
+				} catch (NotFoundException e) {
+					// does not exist
+					eb.setDoiAssociation(null);
 				}
-			} catch (NotFoundException e) {
-				// does not exist
-				eb.setDoiAssociation(null);
-			}
+			}));
 		}
-		if(isTrue(request.getIncludeFileName()) && (entity instanceof FileEntity)){
-			FileEntity fileEntity = (FileEntity)entity;
-			if (fileEntity.getFileNameOverride()==null) {
-				for (FileHandle fileHandle : fileHandles) {
-					if (fileHandle.getId().equals(fileEntity.getDataFileHandleId())) {
-						eb.setFileName(fileHandle.getFileName());
-						break;
+		if(isTrue(request.getIncludeFileName())){
+			parts.add(new BundlePart(PART_FILE_NAME, () -> {
+				Entity entity = context.getEntity();
+				if (!(entity instanceof FileEntity)) {
+					return;
+				}
+				FileEntity fileEntity = (FileEntity)entity;
+				if (fileEntity.getFileNameOverride()==null) {
+					for (FileHandle fileHandle : context.getFileHandles()) {
+						if (fileHandle.getId().equals(fileEntity.getDataFileHandleId())) {
+							eb.setFileName(fileHandle.getFileName());
+							break;
+						}
 					}
+				} else {
+					eb.setFileName(fileEntity.getFileNameOverride());
 				}
-			} else {
-				eb.setFileName(fileEntity.getFileNameOverride());
-			}
+			}));
 		}
 		if (isTrue(request.getIncludeThreadCount())) {
-			EntityIdList entityIdList = new EntityIdList();
-			entityIdList.setIdList(Arrays.asList(entityId));
-			EntityThreadCounts result = serviceProvider.getDiscussionService().getThreadCounts(userId, entityIdList );
-			if (result.getList().isEmpty()) {
-				eb.setThreadCount(0L);
-			} else if (result.getList().size() == 1) {
-				eb.setThreadCount(result.getList().get(0).getCount());
-			} else {
-				throw new IllegalStateException("Unexpected EntityThreadCount list size: "+result.getList().size());
-			}
+			parts.add(new BundlePart(PART_THREAD_COUNT, () -> {
+				EntityIdList entityIdList = new EntityIdList();
+				entityIdList.setIdList(Arrays.asList(entityId));
+				EntityThreadCounts result = serviceProvider.getDiscussionService().getThreadCounts(userId, entityIdList );
+				if (result.getList().isEmpty()) {
+					eb.setThreadCount(0L);
+				} else if (result.getList().size() == 1) {
+					eb.setThreadCount(result.getList().get(0).getCount());
+				} else {
+					throw new IllegalStateException("Unexpected EntityThreadCount list size: "+result.getList().size());
+				}
+			}));
 		}
 		if (isTrue(request.getIncludeRestrictionInformation())) {
-			RestrictionInformationRequest restrictionInfoRequest = new RestrictionInformationRequest();
-			restrictionInfoRequest.setObjectId(entityId);
-			restrictionInfoRequest.setRestrictableObjectType(RestrictableObjectType.ENTITY);
-			RestrictionInformationResponse restrictionInfo = serviceProvider.getDataAccessService().getRestrictionInformation(userId, restrictionInfoRequest);
-			eb.setRestrictionInformation(restrictionInfo);
+			parts.add(new BundlePart(PART_RESTRICTION_INFORMATION, () -> {
+				RestrictionInformationRequest restrictionInfoRequest = new RestrictionInformationRequest();
+				restrictionInfoRequest.setObjectId(entityId);
+				restrictionInfoRequest.setRestrictableObjectType(RestrictableObjectType.ENTITY);
+				RestrictionInformationResponse restrictionInfo = serviceProvider.getDataAccessService().getRestrictionInformation(userId, restrictionInfoRequest);
+				eb.setRestrictionInformation(restrictionInfo);
+			}));
 		}
+		assembleParts(parts);
 		return eb;
 	}
 
+	private static Entity getEntity(EntityService entityService, UserInfo userInfo, String entityId, Long versionNumber) {
+		if(versionNumber == null) {
+			return entityService.getEntity(userInfo, entityId);
+		}
+		return entityService.getEntityForVersion(userInfo, entityId, versionNumber);
+	}
+
+	private static List<FileHandle> getFileHandles(EntityService entityService, UserInfo userInfo, String entityId, Long versionNumber) {
+		try {
+			if (versionNumber == null) {
+				return entityService.getEntityFileHandlesForCurrentVersion(userInfo, entityId).getList();
+			}
+			return entityService.getEntityFileHandlesForVersion(userInfo, entityId, versionNumber).getList();
+		} catch (NotFoundException | UnauthorizedException e) {
+			// If there are no file handle(s) or if the user does not have permission to see the handles then set them to be an empty list.
+			return new LinkedList<FileHandle>();
+		}
+	}
+
+	/**
+	 * Assemble the given parts of a bundle. The parts are independent of each
+	 * other so they are assembled concurrently, unless this is called within a
+	 * transaction: the other threads would not see the changes made by the
+	 * transaction (e.g. when a bundle is created).
+	 * <p>
+	 * If any part fails, the exception of the first failed part (in the order of
+	 * the parts) is thrown, as if the parts were assembled one after the other.
+	 * 
+	 * @param parts
+	 * @throws ACLInheritanceException
+	 * @throws ParseException
+	 */
+	void assembleParts(List<BundlePart> parts) throws ACLInheritanceException, ParseException {
+		if (parts.size() < 2 || executorService == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+			for (BundlePart part : parts) {
+				try {
+					assemblePart(part);
+				} catch (Exception e) {
+					throwPartException(e);
+				}
+			}
+			return;
+		}
+		Thread caller = Thread.currentThread();
+		Long primaryPin = ReadReplicaRoutingDataSource.getPrimaryPin();
+		List<Future<Void>> futures = new ArrayList<>(parts.size());
+		for (BundlePart part : parts) {
+			futures.add(executorService.submit(() -> {
+				assemblePartOnBehalfOf(caller, primaryPin, part);
+				return null;
+			}));
+		}
+		long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMS);
+		try {
+			for (Future<Void> future : futures) {
+				future.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+			}
+		} catch (ExecutionException e) {
+			throwPartException(e.getCause());
+		} catch (TimeoutException e) {
+			throw new TemporarilyUnavailableException(new TimeoutException("The entity bundle could not be assembled within " + deadlineMS + " ms"));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TemporarilyUnavailableException(e);
+		} finally {
+			// Parts that did not start yet are no longer needed
+			for (Future<Void> future : futures) {
+				future.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * Assemble a part on a thread of the pool on behalf of the caller thread,
+	 * whose thread locals are not visible to the pool thread: the pin of the
+	 * caller to the primary database is handed over so that the part reads the
+	 * writes of the caller, while the calls of the part are not profiled since
+	 * they cannot be attached to the profiler frame of the caller. When the pool
+	 * is saturated the part runs on the caller thread itself.
+	 * 
+	 * @param caller
+	 * @param primaryPin The pin of the caller to the primary database
+	 * @param part
+	 * @throws Exception
+	 */
+	void assemblePartOnBehalfOf(Thread caller, Long primaryPin, BundlePart part) throws Exception {
+		if (Thread.currentThread() == caller) {
+			assemblePart(part);
+			return;
+		}
+		ReadReplicaRoutingDataSource.setPrimaryPin(primaryPin);
+		if (frameStackManager != null) {
+			frameStackManager.suspendProfiling();
+		}
+		try {
+			assemblePart(part);
+		} finally {
+			if (frameStackManager != null) {
+				frameStackManager.resumeProfiling();
+			}
+			ReadReplicaRoutingDataSource.clearPrimaryPin();
+		}
+	}
+
+	private void assemblePart(BundlePart part) throws Exception {
+		long startNanos = System.nanoTime();
+		try {
+			part.getAssembler().assemble();
+		} finally {
+			partStatistics.record(part.getName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+		}
+	}
+
+	private static void throwPartException(Throwable cause) throws ACLInheritanceException, ParseException {
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		if (cause instanceof ACLInheritanceException) {
+			throw (ACLInheritanceException) cause;
+		}
+		if (cause instanceof ParseException) {
+			throw (ParseException) cause;
+		}
+		throw new IllegalStateException(cause);
+	}
+
+	@Override
+	public void publishPartMetrics() {
+		List<ProfileData> metrics = partStatistics.drainMetrics(METRIC_NAMESPACE_PREFIX + stackConfiguration.getStackInstance(), new Date());
+		if (!metrics.isEmpty()) {
+			consumer.addProfileData(metrics);
+		}
+	}
+
+	/**
+	 * A named part of an entity bundle.
+	 *
+	 */
+	static class BundlePart {
+
+		private final String name;
+		private final PartAssembler assembler;
+
+		BundlePart(String name, PartAssembler assembler) {
+			this.name = name;
+			this.assembler = assembler;
+		}
+
+		String getName() {
+			return name;
+		}
+
+		PartAssembler getAssembler() {
+			return assembler;
+		}
+	}
+
+	/**
+	 * Adds a part to the bundle.
+	 *
+	 */
+	@FunctionalInterface
+	interface PartAssembler {
+
+		void assemble() throws Exception;
+	}
+
 
 	@WriteTransaction
 	@Override
@@ -94,6 +94,11 @@ public interface EntityService {
 	 */
 	Entity getEntity(Long userId, String id) throws NotFoundException, DatastoreException, UnauthorizedException;
 
+	/**
+	 * Same as above but takes a UserInfo instead of a user ID.
+	 */
+	Entity getEntity(UserInfo userInfo, String id) throws NotFoundException, DatastoreException, UnauthorizedException;
+
 	/**
 	 * Gets the header information for entities whose file's MD5 matches the given
 	 * MD5 checksum.
@@ -147,6 +152,12 @@ public interface EntityService {
 	Entity getEntityForVersion(Long userId, String id, Long versionNumber)
 			throws NotFoundException, DatastoreException, UnauthorizedException;
 
+	/**
+	 * Same as above but takes a UserInfo instead of a user ID.
+	 */
+	Entity getEntityForVersion(UserInfo userInfo, String id, Long versionNumber)
+			throws NotFoundException, DatastoreException, UnauthorizedException;
+
 	/**
 	 * Get a specific version of an entity.
 	 * 
@@ -191,6 +202,12 @@ public interface EntityService {
 	List<EntityHeader> getEntityPath(Long userId, String entityId)
 			throws DatastoreException, NotFoundException, UnauthorizedException;
 
+	/**
+	 * Same as above but takes a UserInfo instead of a user ID.
+	 */
+	List<EntityHeader> getEntityPath(UserInfo userInfo, String entityId)
+			throws DatastoreException, NotFoundException, UnauthorizedException;
+
 	/**
 	 * Update an existing entity
 	 * <p>
@@ -264,6 +281,12 @@ public interface EntityService {
 	
 	Annotations getEntityAnnotations(Long userId, String id, boolean includeDerived);
 
+	/**
+	 * Same as above but takes a UserInfo instead of a user ID.
+	 */
+	Annotations getEntityAnnotations(UserInfo userInfo, String id)
+			throws NotFoundException, DatastoreException, UnauthorizedException;
+
 	/**
 	 * Get the annotations of an entity for a specific version.
 	 * 
@@ -278,6 +301,12 @@ public interface EntityService {
 	Annotations getEntityAnnotationsForVersion(Long userId, String id, Long versionNumber)
 			throws NotFoundException, DatastoreException, UnauthorizedException;
 
+	/**
+	 * Same as above but takes a UserInfo instead of a user ID.
+	 */
+	Annotations getEntityAnnotationsForVersion(UserInfo userInfo, String id, Long versionNumber)
+			throws NotFoundException, DatastoreException, UnauthorizedException;
+
 
 	Annotations updateEntityAnnotations(Long userId, String entityId, Annotations updatedAnnotations)
 			throws ConflictingUpdateException, NotFoundException, DatastoreException, UnauthorizedException,
@@ -317,6 +346,12 @@ public interface EntityService {
 	AccessControlList getEntityACL(String entityId, Long userId)
 			throws NotFoundException, DatastoreException, UnauthorizedException, ACLInheritanceException;
 
+	/**
+	 * Same as above but takes a UserInfo instead of a user ID.
+	 */
+	AccessControlList getEntityACL(String entityId, UserInfo userInfo)
+			throws NotFoundException, DatastoreException, UnauthorizedException, ACLInheritanceException;
+
 	/**
 	 * Get information about an entity's permissions.
 	 * 
@@ -460,6 +495,12 @@ public interface EntityService {
 	UserEntityPermissions getUserEntityPermissions(Long userId, String entityId)
 			throws NotFoundException, DatastoreException;
 
+	/**
+	 * Same as above but takes a UserInfo instead of a user ID.
+	 */
+	UserEntityPermissions getUserEntityPermissions(UserInfo userInfo, String entityId)
+			throws NotFoundException, DatastoreException;
+
 	/**
 	 * Get the number of children that this entity has.
 	 * 
@@ -474,6 +515,12 @@ public interface EntityService {
 	boolean doesEntityHaveChildren(Long userId, String entityId)
 			throws DatastoreException, ParseException, NotFoundException, UnauthorizedException;
 
+	/**
+	 * Same as above but takes a UserInfo instead of a user ID.
+	 */
+	boolean doesEntityHaveChildren(UserInfo userInfo, String entityId)
+			throws DatastoreException, ParseException, NotFoundException, UnauthorizedException;
+
 	/**
 	 * Gets the activity for the given Entity
 	 * 
@@ -589,6 +636,12 @@ public interface EntityService {
 	FileHandleResults getEntityFileHandlesForCurrentVersion(Long userId, String entityId)
 			throws DatastoreException, NotFoundException;
 
+	/**
+	 * Same as above but takes a UserInfo instead of a user ID.
+	 */
+	FileHandleResults getEntityFileHandlesForCurrentVersion(UserInfo userInfo, String entityId)
+			throws DatastoreException, NotFoundException;
+
 	/**
 	 * Get the entity file handles for a given version of an entity.
 	 * 
@@ -602,6 +655,12 @@ public interface EntityService {
 	FileHandleResults getEntityFileHandlesForVersion(Long userId, String entityId, Long versionNumber)
 			throws DatastoreException, NotFoundException;
 
+	/**
+	 * Same as above but takes a UserInfo instead of a user ID.
+	 */
+	FileHandleResults getEntityFileHandlesForVersion(UserInfo userInfo, String entityId, Long versionNumber)
+			throws DatastoreException, NotFoundException;
+
 	/**
 	 * Lookup an Entity ID using an alias.
 	 * 
@@ -130,6 +130,11 @@ public class EntityServiceImpl implements EntityService {
 	@Override
 	public Entity getEntity(Long userId, String id) throws NotFoundException, DatastoreException, UnauthorizedException {
 		UserInfo userInfo = userManager.getUserInfo(userId);
+		return getEntity(userInfo, id);
+	}
+
+	@Override
+	public Entity getEntity(UserInfo userInfo, String id) throws NotFoundException, DatastoreException, UnauthorizedException {
 		EntityHeader header = entityManager.getEntityHeader(userInfo, id);
 		EntityType type = EntityTypeUtils.getEntityTypeForClassName(header.getType());
 		return getEntity(userInfo, id, EntityTypeUtils.getClassForType(type), EventType.GET);
@@ -203,8 +208,14 @@ public class EntityServiceImpl implements EntityService {
 	public Entity getEntityForVersion(Long userId, String id, Long versionNumber)
 			throws NotFoundException, DatastoreException, UnauthorizedException {
 		UserInfo userInfo = userManager.getUserInfo(userId);
+		return getEntityForVersion(userInfo, id, versionNumber);
+	}
+
+	@Override
+	public Entity getEntityForVersion(UserInfo userInfo, String id, Long versionNumber)
+			throws NotFoundException, DatastoreException, UnauthorizedException {
 		EntityType type = entityManager.getEntityType(userInfo, id);
-		return getEntityForVersion(userId, id, versionNumber, EntityTypeUtils.getClassForType(type));
+		return getEntityForVersion(userInfo, id, versionNumber, EntityTypeUtils.getClassForType(type));
 	}
 
 	@Override
@@ -428,12 +439,24 @@ public class EntityServiceImpl implements EntityService {
 		UserInfo userInfo = userManager.getUserInfo(userId);
 		return entityManager.getAnnotations(userInfo, id, includeDerived);
 	}
+
+	@Override
+	public Annotations getEntityAnnotations(UserInfo userInfo, String id) throws NotFoundException, DatastoreException, UnauthorizedException {
+		boolean includeDerived = false;
+		return entityManager.getAnnotations(userInfo, id, includeDerived);
+	}
 	
 	
 	@Override
 	public Annotations getEntityAnnotationsForVersion(Long userId, String id, Long versionNumber)
 			throws NotFoundException, DatastoreException, UnauthorizedException {
 		UserInfo userInfo = userManager.getUserInfo(userId);
+		return getEntityAnnotationsForVersion(userInfo, id, versionNumber);
+	}
+
+	@Override
+	public Annotations getEntityAnnotationsForVersion(UserInfo userInfo, String id, Long versionNumber)
+			throws NotFoundException, DatastoreException, UnauthorizedException {
 		return entityManager.getAnnotationsForVersion(userInfo, id, versionNumber);
 	}
 
@@ -462,10 +485,13 @@ public class EntityServiceImpl implements EntityService {
 			throws NotFoundException, DatastoreException, UnauthorizedException, ACLInheritanceException {
 		// First try the updated
 		UserInfo userInfo = userManager.getUserInfo(userId);
-		AccessControlList acl = entityAclManager.getACL(entityId, userInfo);
-		
+		return getEntityACL(entityId, userInfo);
+	}
 
-		return acl;
+	@Override
+	public AccessControlList getEntityACL(String entityId, UserInfo userInfo)
+			throws NotFoundException, DatastoreException, UnauthorizedException, ACLInheritanceException {
+		return entityAclManager.getACL(entityId, userInfo);
 	}
 
 	@WriteTransaction
@@ -510,6 +536,11 @@ public class EntityServiceImpl implements EntityService {
 	@Override
 	public List<EntityHeader> getEntityPath(Long userId, String entityId) throws DatastoreException, NotFoundException, UnauthorizedException {
 		UserInfo userInfo = userManager.getUserInfo(userId);
+		return getEntityPath(userInfo, entityId);
+	}
+
+	@Override
+	public List<EntityHeader> getEntityPath(UserInfo userInfo, String entityId) throws DatastoreException, NotFoundException, UnauthorizedException {
 		return entityManager.getEntityPath(userInfo, entityId);
 	}
 
@@ -542,6 +573,11 @@ public class EntityServiceImpl implements EntityService {
 	@Override
 	public UserEntityPermissions getUserEntityPermissions(Long userId, String entityId) throws NotFoundException, DatastoreException {
 		UserInfo userInfo = userManager.getUserInfo(userId);
+		return getUserEntityPermissions(userInfo, entityId);
+	}
+
+	@Override
+	public UserEntityPermissions getUserEntityPermissions(UserInfo userInfo, String entityId) throws NotFoundException, DatastoreException {
 		return entityAuthorizationMangaer.getUserPermissionsForEntity(userInfo, entityId);
 	}
 
@@ -551,6 +587,13 @@ public class EntityServiceImpl implements EntityService {
 		if(entityId == null) throw new IllegalArgumentException("EntityId cannot be null");
 		if(userId == null) throw new IllegalArgumentException("UserId cannot be null");
 		UserInfo userInfo = userManager.getUserInfo(userId);
+		return doesEntityHaveChildren(userInfo, entityId);
+	}
+
+	@Override
+	public boolean doesEntityHaveChildren(UserInfo userInfo, String entityId) throws DatastoreException,
+			ParseException, NotFoundException, UnauthorizedException {
+		if(entityId == null) throw new IllegalArgumentException("EntityId cannot be null");
 		return entityManager.doesEntityHaveChildren(userInfo, entityId);
 	}
 	
@@ -665,6 +708,12 @@ public class EntityServiceImpl implements EntityService {
 		if(entityId == null) throw new IllegalArgumentException("Entity Id cannot be null");
 		if(userId == null) throw new IllegalArgumentException("UserId cannot be null");
 		UserInfo userInfo = userManager.getUserInfo(userId);
+		return getEntityFileHandlesForCurrentVersion(userInfo, entityId);
+	}
+
+	@Override
+	public FileHandleResults getEntityFileHandlesForCurrentVersion(UserInfo userInfo, String entityId) throws DatastoreException, NotFoundException {
+		if(entityId == null) throw new IllegalArgumentException("Entity Id cannot be null");
 		// Get the file handle.
 		String fileHandleId = entityManager.getFileHandleIdForVersion(userInfo, entityId, null);
 		List<String> idsList = new LinkedList<String>();
@@ -678,6 +727,13 @@ public class EntityServiceImpl implements EntityService {
 		if(userId == null) throw new IllegalArgumentException("UserId cannot be null");
 		if(versionNumber == null) throw new IllegalArgumentException("versionNumber cannot be null");
 		UserInfo userInfo = userManager.getUserInfo(userId);
+		return getEntityFileHandlesForVersion(userInfo, entityId, versionNumber);
+	}
+
+	@Override
+	public FileHandleResults getEntityFileHandlesForVersion(UserInfo userInfo, String entityId, Long versionNumber) throws DatastoreException, NotFoundException {
+		if(entityId == null) throw new IllegalArgumentException("Entity Id cannot be null");
+		if(versionNumber == null) throw new IllegalArgumentException("versionNumber cannot be null");
 		// Get the file handle.
 		String fileHandleId = entityManager.getFileHandleIdForVersion(userInfo, entityId, versionNumber);
 		List<String> idsList = new LinkedList<String>();
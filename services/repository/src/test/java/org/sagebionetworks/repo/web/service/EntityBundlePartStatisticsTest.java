@@ -0,0 +1,60 @@
+package org.sagebionetworks.repo.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sagebionetworks.cloudwatch.MetricStats;
+import org.sagebionetworks.cloudwatch.ProfileData;
+
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+
+public class EntityBundlePartStatisticsTest {
+
+	private EntityBundlePartStatistics statistics;
+	private Date timestamp;
+
+	@BeforeEach
+	public void before() {
+		statistics = new EntityBundlePartStatistics();
+		timestamp = new Date(123L);
+	}
+
+	@Test
+	public void testDrainMetrics() {
+		statistics.record("Entity", 5L);
+		statistics.record("Entity", 15L);
+		statistics.record("Entity", 10L);
+
+		// call under test
+		List<ProfileData> metrics = statistics.drainMetrics("namespace", timestamp);
+
+		assertEquals(1, metrics.size());
+		ProfileData data = metrics.get(0);
+		assertEquals("namespace", data.getNamespace());
+		assertEquals(EntityBundlePartStatistics.METRIC_PART_TIME, data.getName());
+		assertEquals(StandardUnit.Milliseconds.name(), data.getUnit());
+		assertEquals(Collections.singletonMap(EntityBundlePartStatistics.DIMENSION_PART, "Entity"), data.getDimension());
+		assertEquals(timestamp, data.getTimestamp());
+		MetricStats expected = new MetricStats();
+		expected.setCount(3.0);
+		expected.setSum(30.0);
+		expected.setMinimum(5.0);
+		expected.setMaximum(15.0);
+		assertEquals(expected, data.getMetricStats());
+	}
+
+	@Test
+	public void testDrainMetricsResets() {
+		statistics.record("Entity", 5L);
+		statistics.record("Path", 1L);
+		assertEquals(2, statistics.drainMetrics("namespace", timestamp).size());
+
+		// call under test
+		assertEquals(Collections.emptyList(), statistics.drainMetrics("namespace", timestamp));
+	}
+}
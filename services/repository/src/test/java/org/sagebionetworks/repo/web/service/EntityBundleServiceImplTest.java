@@ -8,13 +8,14 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -24,12 +25,22 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.StackConfiguration;
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.ProfileData;
+import org.sagebionetworks.profiler.ProfilerFrameStackManager;
+import org.sagebionetworks.repo.manager.UserManager;
 import org.sagebionetworks.repo.model.ACCESS_TYPE;
 import org.sagebionetworks.repo.model.ACLInheritanceException;
 import org.sagebionetworks.repo.model.AccessControlList;
@@ -43,10 +54,12 @@ import org.sagebionetworks.repo.model.ResourceAccess;
 import org.sagebionetworks.repo.model.RestrictableObjectType;
 import org.sagebionetworks.repo.model.RestrictionInformationRequest;
 import org.sagebionetworks.repo.model.RestrictionInformationResponse;
+import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.annotation.v2.Annotations;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsV2TestUtils;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsV2Translator;
 import org.sagebionetworks.repo.model.auth.UserEntityPermissions;
+import org.sagebionetworks.repo.model.config.ReadReplicaRoutingDataSource;
 import org.sagebionetworks.repo.model.dao.WikiPageKey;
 import org.sagebionetworks.repo.model.discussion.EntityThreadCount;
 import org.sagebionetworks.repo.model.discussion.EntityThreadCounts;
@@ -62,20 +75,32 @@ import org.sagebionetworks.repo.model.table.ColumnModel;
 import org.sagebionetworks.repo.model.table.TableBundle;
 import org.sagebionetworks.repo.model.table.TableEntity;
 import org.sagebionetworks.repo.web.NotFoundException;
+import org.sagebionetworks.repo.web.TemporarilyUnavailableException;
 import org.sagebionetworks.repo.web.service.dataaccess.DataAccessService;
 import org.sagebionetworks.repo.web.service.discussion.DiscussionService;
 import org.sagebionetworks.repo.web.service.table.TableServices;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @ExtendWith(MockitoExtension.class)
 public class EntityBundleServiceImplTest {
 	
-	private EntityBundleService entityBundleService;
+	private EntityBundleServiceImpl entityBundleService;
 	
 	private static final Long TEST_USER1 = 8745962384L;
 
 	@Mock
 	private ServiceProvider mockServiceProvider;
 	@Mock
+	private UserManager mockUserManager;
+	@Mock
+	private Consumer mockConsumer;
+	@Mock
+	private StackConfiguration mockStackConfiguration;
+	@Mock
+	private ProfilerFrameStackManager mockFrameStackManager;
+	@Captor
+	private ArgumentCaptor<List<ProfileData>> metricsCaptor;
+	@Mock
 	private EntityService mockEntityService;
 	@Mock
 	private TableServices mockTableService;
@@ -97,6 +122,8 @@ public class EntityBundleServiceImplTest {
 	private Annotations annotationsV2;
 	private AccessControlList acl;
 	private EntityThreadCounts threadCounts;
+	private UserInfo userInfo;
+	private ExecutorService executorService;
 
 	private org.sagebionetworks.repo.model.EntityBundle responseBundle;
 
@@ -112,7 +139,10 @@ public class EntityBundleServiceImplTest {
 	
 	@BeforeEach
 	public void setUp() {
-		entityBundleService = new EntityBundleServiceImpl(mockServiceProvider);
+		executorService = Executors.newFixedThreadPool(4);
+		entityBundleService = new EntityBundleServiceImpl(mockServiceProvider, mockUserManager, executorService);
+		userInfo = new UserInfo(false, TEST_USER1);
+		lenient().when(mockUserManager.getUserInfo(TEST_USER1)).thenReturn(userInfo);
 		mockTableService = mock(TableServices.class);
 		lenient().when(mockServiceProvider.getTableServices()).thenReturn(mockTableService);
 		lenient().when(mockServiceProvider.getWikiService()).thenReturn(mockWikiService);
@@ -172,6 +202,11 @@ public class EntityBundleServiceImplTest {
 		responseBundle.setAnnotations(annos);
 		responseBundle.setAccessControlList(acl);
 	}
+
+	@AfterEach
+	public void after() {
+		executorService.shutdownNow();
+	}
 	
 	@Test
 	public void testTableData() throws Exception {
@@ -239,7 +274,7 @@ public class EntityBundleServiceImplTest {
 		doi.setObjectId(FILE_ID);
 		doi.setObjectVersion(FILE_VERSION); // The DOI should be tied to a version even though the bundle request has no version!
 
-		when(mockEntityService.getEntity(eq(TEST_USER1), eq(FILE_ID))).thenReturn(file);
+		when(mockEntityService.getEntity(userInfo, FILE_ID)).thenReturn(file);
 		when(mockDoiServiceV2.getDoiAssociation(FILE_ID, ObjectType.ENTITY, FILE_VERSION)).thenReturn(doi);
 
 		// Call under test. Note the bundle requests 'null' version
@@ -260,7 +295,7 @@ public class EntityBundleServiceImplTest {
 		doi.setObjectId(TABLE_ID);
 		doi.setObjectVersion(null);
 
-		when(mockEntityService.getEntity(eq(TEST_USER1), eq(TABLE_ID))).thenReturn(table);
+		when(mockEntityService.getEntity(userInfo, TABLE_ID)).thenReturn(table);
 		when(mockDoiServiceV2.getDoiAssociation(TABLE_ID, ObjectType.ENTITY, null)).thenReturn(doi);
 
 		// Call under test. Note the bundle requests 'null' version
@@ -324,7 +359,7 @@ public class EntityBundleServiceImplTest {
 		String entityId = "syn123";
 		EntityBundleRequest request = new EntityBundleRequest();
 		request.setIncludeBenefactorACL(true);
-		when(mockEntityService.getEntityACL(anyString(), anyLong())).thenReturn(acl);
+		when(mockEntityService.getEntityACL(anyString(), any(UserInfo.class))).thenReturn(acl);
 		EntityBundle bundle = entityBundleService.getEntityBundle(TEST_USER1, entityId, request);
 		assertNotNull(bundle);
 		assertEquals(acl, bundle.getBenefactorAcl());
@@ -339,9 +374,9 @@ public class EntityBundleServiceImplTest {
 		EntityBundleRequest request = new EntityBundleRequest();
 		request.setIncludeBenefactorACL(true);
 		// this entity inherits its permissions.
-		when(mockEntityService.getEntityACL(entityId, TEST_USER1)).thenThrow(new ACLInheritanceException("Has a benefactor", benefactorId));
+		when(mockEntityService.getEntityACL(entityId, userInfo)).thenThrow(new ACLInheritanceException("Has a benefactor", benefactorId));
 		// return the benefactor ACL.
-		when(mockEntityService.getEntityACL(benefactorId, TEST_USER1)).thenReturn(acl);
+		when(mockEntityService.getEntityACL(benefactorId, userInfo)).thenReturn(acl);
 		EntityBundle bundle = entityBundleService.getEntityBundle(TEST_USER1, entityId, request);
 		assertNotNull(bundle);
 		assertEquals(acl, bundle.getBenefactorAcl());
@@ -356,7 +391,7 @@ public class EntityBundleServiceImplTest {
 		long dataFileHandleId = 101L;
 		entity.setDataFileHandleId(""+dataFileHandleId);
 		String fileName = "foo.txt";
-		when(mockEntityService.getEntity(TEST_USER1, entityId)).thenReturn(entity);
+		when(mockEntityService.getEntity(userInfo, entityId)).thenReturn(entity);
 		FileHandleResults fhr = new FileHandleResults();
 		List<FileHandle> fhs = new ArrayList<FileHandle>();
 		fhr.setList(fhs);
@@ -369,7 +404,7 @@ public class EntityBundleServiceImplTest {
 		fh.setFileName("preview.txt");
 		fhs.add(fh);
 		fhr.setList(fhs);
-		when(mockEntityService.getEntityFileHandlesForCurrentVersion(TEST_USER1, entityId)).thenReturn(fhr);
+		when(mockEntityService.getEntityFileHandlesForCurrentVersion(userInfo, entityId)).thenReturn(fhr);
 		EntityBundle bundle = entityBundleService.getEntityBundle(TEST_USER1, entityId, request);
 		assertNotNull(bundle);
 		assertEquals(fileName, bundle.getFileName());
@@ -398,8 +433,8 @@ public class EntityBundleServiceImplTest {
 		FileEntity entity = new FileEntity();
 		String fileNameOverride = "foo.txt";
 		entity.setFileNameOverride(fileNameOverride);
-		when(mockEntityService.getEntity(TEST_USER1, entityId)).thenReturn(entity);
-		when(mockEntityService.getEntityFileHandlesForCurrentVersion(TEST_USER1, entityId)).thenReturn(fhr);
+		when(mockEntityService.getEntity(userInfo, entityId)).thenReturn(entity);
+		when(mockEntityService.getEntityFileHandlesForCurrentVersion(userInfo, entityId)).thenReturn(fhr);
 		EntityBundle bundle = entityBundleService.getEntityBundle(TEST_USER1, entityId, request);
 		assertNotNull(bundle);
 		assertEquals(fileNameOverride, bundle.getFileName());
@@ -470,6 +505,168 @@ public class EntityBundleServiceImplTest {
 		assertEquals(response, bundle.getRestrictionInformation());
 		verify(mockDataAccessService).getRestrictionInformation(TEST_USER1, request);
 	}
+	@Test
+	public void testGetEntityBundleSharesUserAndEntity() throws Exception {
+		EntityBundleRequest request = new EntityBundleRequest();
+		request.setIncludeEntity(true);
+		request.setIncludeFileName(true);
+		request.setIncludeFileHandles(true);
+		request.setIncludeDOIAssociation(true);
+		request.setIncludePermissions(true);
+		request.setIncludeHasChildren(true);
+		file.setDataFileHandleId("101");
+		S3FileHandle fh = new S3FileHandle();
+		fh.setId("101");
+		fh.setFileName("foo.txt");
+		FileHandleResults fhr = new FileHandleResults();
+		fhr.setList(Arrays.asList(fh));
+		UserEntityPermissions permissions = new UserEntityPermissions();
+		when(mockEntityService.getEntity(userInfo, FILE_ID)).thenReturn(file);
+		when(mockEntityService.getEntityFileHandlesForCurrentVersion(userInfo, FILE_ID)).thenReturn(fhr);
+		when(mockEntityService.getUserEntityPermissions(userInfo, FILE_ID)).thenReturn(permissions);
+		when(mockEntityService.doesEntityHaveChildren(userInfo, FILE_ID)).thenReturn(false);
+		// call under test
+		EntityBundle bundle = entityBundleService.getEntityBundle(TEST_USER1, FILE_ID, request);
+		assertEquals(file, bundle.getEntity());
+		assertEquals("foo.txt", bundle.getFileName());
+		assertEquals(Arrays.asList(fh), bundle.getFileHandles());
+		assertEquals(permissions, bundle.getPermissions());
+		assertFalse(bundle.getHasChildren());
+		// The user, the entity and its file handles are loaded once for all the parts
+		verify(mockUserManager).getUserInfo(TEST_USER1);
+		verify(mockEntityService).getEntity(userInfo, FILE_ID);
+		verify(mockEntityService).getEntityFileHandlesForCurrentVersion(userInfo, FILE_ID);
+		verify(mockDoiServiceV2).getDoiAssociation(FILE_ID, ObjectType.ENTITY, FILE_VERSION);
+	}
+
+	@Test
+	public void testGetEntityBundleWithFailedPart() throws Exception {
+		EntityBundleRequest request = new EntityBundleRequest();
+		request.setIncludeEntity(true);
+		request.setIncludeRootWikiId(true);
+		NotFoundException notFound = new NotFoundException("gone");
+		when(mockEntityService.getEntity(userInfo, FILE_ID)).thenThrow(notFound);
+		lenient().when(mockWikiService.getRootWikiKey(TEST_USER1, FILE_ID, ObjectType.ENTITY)).thenThrow(new IllegalStateException("not first"));
+		// call under test
+		NotFoundException result = assertThrows(NotFoundException.class, () -> {
+			entityBundleService.getEntityBundle(TEST_USER1, FILE_ID, request);
+		});
+		// The exception of the first part is thrown
+		assertSame(notFound, result);
+	}
+
+	@Test
+	public void testGetEntityBundleWithDeadline() throws Exception {
+		entityBundleService.setDeadlineMS(10L);
+		EntityBundleRequest request = new EntityBundleRequest();
+		request.setIncludeEntity(true);
+		request.setIncludeRootWikiId(true);
+		when(mockEntityService.getEntity(userInfo, FILE_ID)).thenAnswer(invocation -> {
+			Thread.sleep(1000L);
+			return file;
+		});
+		lenient().when(mockWikiService.getRootWikiKey(TEST_USER1, FILE_ID, ObjectType.ENTITY)).thenThrow(new NotFoundException(""));
+		// call under test
+		String message = assertThrows(TemporarilyUnavailableException.class, () -> {
+			entityBundleService.getEntityBundle(TEST_USER1, FILE_ID, request);
+		}).getCause().getMessage();
+		assertEquals("The entity bundle could not be assembled within 10 ms", message);
+	}
+
+	@Test
+	public void testGetEntityBundleWithinTransaction() throws Exception {
+		EntityBundleRequest request = new EntityBundleRequest();
+		request.setIncludeEntity(true);
+		request.setIncludeRootWikiId(true);
+		Thread caller = Thread.currentThread();
+		List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+		when(mockEntityService.getEntity(userInfo, FILE_ID)).thenAnswer(invocation -> {
+			threads.add(Thread.currentThread());
+			return file;
+		});
+		when(mockWikiService.getRootWikiKey(TEST_USER1, FILE_ID, ObjectType.ENTITY)).thenAnswer(invocation -> {
+			threads.add(Thread.currentThread());
+			throw new NotFoundException("");
+		});
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		try {
+			// call under test
+			entityBundleService.getEntityBundle(TEST_USER1, FILE_ID, request);
+		} finally {
+			TransactionSynchronizationManager.setActualTransactionActive(false);
+		}
+		// The parts must see the changes of the transaction
+		assertEquals(Arrays.asList(caller, caller), threads);
+	}
+
+	@Test
+	public void testAssemblePartOnBehalfOfWithPoolThread() throws Exception {
+		entityBundleService.frameStackManager = mockFrameStackManager;
+		Thread caller = Thread.currentThread();
+		Long primaryPin = 123L;
+		List<Long> pins = new ArrayList<>();
+		// call under test
+		executorService.submit(() -> {
+			entityBundleService.assemblePartOnBehalfOf(caller, primaryPin,
+					new EntityBundleServiceImpl.BundlePart(EntityBundleServiceImpl.PART_ENTITY, () -> {
+						pins.add(ReadReplicaRoutingDataSource.getPrimaryPin());
+					}));
+			pins.add(ReadReplicaRoutingDataSource.getPrimaryPin());
+			return null;
+		}).get();
+		// The pin of the caller is handed over and cleared once the part is done
+		assertEquals(Arrays.asList(primaryPin, null), pins);
+		verify(mockFrameStackManager).suspendProfiling();
+		verify(mockFrameStackManager).resumeProfiling();
+	}
+
+	@Test
+	public void testAssemblePartOnBehalfOfWithCallerThread() throws Exception {
+		entityBundleService.frameStackManager = mockFrameStackManager;
+		Thread caller = Thread.currentThread();
+		List<Long> pins = new ArrayList<>();
+		ReadReplicaRoutingDataSource.setPrimaryPin(456L);
+		try {
+			// call under test
+			entityBundleService.assemblePartOnBehalfOf(caller, 123L,
+					new EntityBundleServiceImpl.BundlePart(EntityBundleServiceImpl.PART_ENTITY, () -> {
+						pins.add(ReadReplicaRoutingDataSource.getPrimaryPin());
+					}));
+			// The caller keeps its own pin
+			assertEquals(Long.valueOf(456L), ReadReplicaRoutingDataSource.getPrimaryPin());
+		} finally {
+			ReadReplicaRoutingDataSource.clearPrimaryPin();
+		}
+		assertEquals(Arrays.asList(456L), pins);
+		verifyNoMoreInteractions(mockFrameStackManager);
+	}
+
+	@Test
+	public void testPublishPartMetrics() throws Exception {
+		entityBundleService.consumer = mockConsumer;
+		entityBundleService.stackConfiguration = mockStackConfiguration;
+		when(mockStackConfiguration.getStackInstance()).thenReturn("123-0");
+		entityBundleService.getPartStatistics().record(EntityBundleServiceImpl.PART_ENTITY, 5L);
+		// call under test
+		entityBundleService.publishPartMetrics();
+		verify(mockConsumer).addProfileData(metricsCaptor.capture());
+		List<ProfileData> metrics = metricsCaptor.getValue();
+		assertEquals(1, metrics.size());
+		assertEquals("Entity-Bundle-123-0", metrics.get(0).getNamespace());
+		assertEquals(Collections.singletonMap(EntityBundlePartStatistics.DIMENSION_PART, EntityBundleServiceImpl.PART_ENTITY),
+				metrics.get(0).getDimension());
+	}
+
+	@Test
+	public void testPublishPartMetricsWithNoBundles() throws Exception {
+		entityBundleService.consumer = mockConsumer;
+		entityBundleService.stackConfiguration = mockStackConfiguration;
+		when(mockStackConfiguration.getStackInstance()).thenReturn("123-0");
+		// call under test
+		entityBundleService.publishPartMetrics();
+		verifyZeroInteractions(mockConsumer);
+	}
+
 	@Test
 	public void testRequestFromMask_individualMasks() {
 		//assert individual requests
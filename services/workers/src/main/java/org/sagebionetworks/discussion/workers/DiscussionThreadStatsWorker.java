@@ -2,6 +2,7 @@ package org.sagebionetworks.discussion.workers;
 
 import java.util.Arrays;
 
+import org.sagebionetworks.StackConfiguration;
 import org.sagebionetworks.asynchronous.workers.changes.ChangeMessageDrivenRunner;
 import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.repo.model.dbo.dao.discussion.DiscussionReplyDAO;
@@ -19,6 +20,8 @@ public class DiscussionThreadStatsWorker implements ChangeMessageDrivenRunner{
 	private DiscussionThreadDAO threadDao;
 	@Autowired
 	private DiscussionReplyDAO replyDao;
+	@Autowired
+	private StackConfiguration stackConfig;
 
 	@Override
 	public void run(ProgressCallback progressCallback, ChangeMessage message)
@@ -37,7 +40,11 @@ public class DiscussionThreadStatsWorker implements ChangeMessageDrivenRunner{
 		stat.setLastActivity(replyStat.getLastActivity());
 		stat.setNumberOfReplies(replyStat.getNumberOfReplies());
 
-		stat.setNumberOfViews(threadDao.countThreadView(threadId));
+		if (stackConfig.getDiscussionThreadViewEstimateEnabled()) {
+			stat.setNumberOfViews(threadDao.estimateThreadViewCount(threadId));
+		} else {
+			stat.setNumberOfViews(threadDao.countThreadView(threadId));
+		}
 		try {
 			threadDao.updateThreadStats(Arrays.asList(stat));
 		} catch (DataIntegrityViolationException e) {
@@ -5,6 +5,7 @@ import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.kinesis.AwsKinesisFirehoseLogger;
 import org.sagebionetworks.repo.manager.audit.KinesisJsonEntityRecord;
 import org.sagebionetworks.repo.manager.statistics.ProjectResolver;
+import org.sagebionetworks.repo.manager.statistics.project.StatisticsMonthlyProjectFilesAggregator;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.file.FileEvent;
 import org.sagebionetworks.repo.model.file.FileEventRecord;
@@ -25,6 +26,8 @@ public class FileEventRecordWorker implements TypedMessageDrivenRunner<FileEvent
     private ProjectResolver projectResolver;
     @Autowired
     private AwsKinesisFirehoseLogger firehoseLogger;
+    @Autowired
+    private StatisticsMonthlyProjectFilesAggregator statisticsAggregator;
 
 
     @Override
@@ -52,17 +55,28 @@ public class FileEventRecordWorker implements TypedMessageDrivenRunner<FileEvent
                 firehoseLogger.logBatch(FILE_RECORD_DOWNLOAD_STREAM, Collections.singletonList(kinesisJsonEntityRecord));
                 // Keep old streams for backward compatibility, for more information see PLFM-7754
                 firehoseLogger.logBatch(FILE_DOWNLOAD_STREAM, Collections.singletonList(statisticsFileEventRecord));
+                recordStatistics(projectId, event);
                 return;
             case FILE_UPLOAD:
                 firehoseLogger.logBatch(FILE_RECORD_UPLOAD_STREAM, Collections.singletonList(kinesisJsonEntityRecord));
                 // Keep old streams for backward compatibility, for more information see PLFM-7754
                 firehoseLogger.logBatch(FILE_UPLOAD_STREAM, Collections.singletonList(statisticsFileEventRecord));
+                recordStatistics(projectId, event);
                 return;
             default:
                 throw new IllegalArgumentException("Unsupported event type: " + event.getFileEventType().name());
         }
     }
 
+    private void recordStatistics(Long projectId, FileEvent event) {
+        // Events that are not in a project are not part of the monthly project statistics
+        if (projectId == null) {
+            return;
+        }
+        org.sagebionetworks.repo.model.statistics.FileEvent eventType = org.sagebionetworks.repo.model.statistics.FileEvent.valueOf(event.getFileEventType().name());
+        statisticsAggregator.recordEvent(eventType, projectId, event.getUserId(), event.getTimestamp().getTime());
+    }
+
     @Override
     public Class<FileEvent> getObjectClass() {
         return FileEvent.class;
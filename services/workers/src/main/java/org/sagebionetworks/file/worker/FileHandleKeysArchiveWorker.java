@@ -1,6 +1,8 @@
 package org.sagebionetworks.file.worker;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -50,8 +52,27 @@ public class FileHandleKeysArchiveWorker implements TypedMessageDrivenRunner<Fil
 
 		String bucket = request.getBucket();
 		Instant modifiedBefore = Instant.ofEpochMilli(request.getModifiedBefore());
+		List<String> keys = request.getKeys();
+		
+		if (keys.isEmpty()) {
+			return;
+		}
+		
+		try {
+			Map<String, FileHandleKeyArchiveResult> results = archivalManager.archiveUnlinkedFileHandlesByKeys(adminUser, bucket, keys, modifiedBefore);
+			LOG.debug("{} keys in bucket {} processed for archival ({} archived, {} tagged)", keys.size(), bucket,
+					results.values().stream().mapToInt(FileHandleKeyArchiveResult::getArchivedCount).sum(),
+					results.values().stream().filter(FileHandleKeyArchiveResult::isWasTagged).count());
+			return;
+		} catch (RecoverableMessageException ex) {
+			LOG.error("Attempt to archive {} keys in bucket {} failed (will retry: true): {}", keys.size(), bucket, ex.getMessage(), ex);
+			throw ex;
+		} catch (Exception ex) {
+			// The whole batch was rolled back, process the keys one by one so that a single failing key does not block the others
+			LOG.warn("Attempt to archive {} keys in bucket {} failed, processing each key: {}", keys.size(), bucket, ex.getMessage());
+		}
 
-		for (String key : request.getKeys()) {
+		for (String key : keys) {
 			try {
 				FileHandleKeyArchiveResult result = archivalManager.archiveUnlinkedFileHandlesByKey(adminUser, bucket, key, modifiedBefore);
 				LOG.debug("Key {} in bucket {} processed for archival ({} archived, wasTagged: {})", key, bucket, result.getArchivedCount(), result.isWasTagged());
@@ -1,17 +1,7 @@
 package org.sagebionetworks.log.worker;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -19,11 +9,9 @@ import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.common.util.progress.ProgressingRunner;
 import org.sagebionetworks.logging.s3.LogDAO;
 import org.sagebionetworks.logging.s3.LogKeyUtils;
-import org.sagebionetworks.logging.s3.LogReader;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.amazonaws.services.s3.model.ObjectListing;
-import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 
 /**
@@ -35,6 +23,16 @@ import com.amazonaws.services.s3.model.S3ObjectSummary;
 public class LogCollateWorker implements ProgressingRunner {
 		
 	static private Logger log = LogManager.getLogger(LogCollateWorker.class);
+	
+	/**
+	 * The maximum number of logs read at the same time, larger batches are collated in multiple passes.
+	 */
+	static final int MAX_OPEN_STREAMS = 32;
+	
+	/**
+	 * The maximum number of bytes of a log requested from S3 at once.
+	 */
+	static final long RANGE_SIZE = 8 * 1024 * 1024;
 
 	@Autowired
 	LogDAO logDAO;
@@ -99,78 +97,28 @@ public class LogCollateWorker implements ProgressingRunner {
 				if(data.mergedKeys.size() < 2){
 					return;
 				}
+				String type = LogKeyUtils.getTypeFromTypeDateHour(data.batchDateString);
+				// This timestamp will be used to create the key of the resulting output file.
+				long timestamp = LogKeyUtils.getTimestampFromTypeDateHour(data.batchDateString);
+				String newFileKey = null;
 				try {
-					// Create the file that will contain the collated data.
-					String type = LogKeyUtils.getTypeFromTypeDateHour(data.batchDateString);
-					// This timestamp will be used to create the key of the resulting output file.
-					long timestamp = LogKeyUtils.getTimestampFromTypeDateHour(data.batchDateString);
-					String newFileKey = null;
-					File temp = File.createTempFile(type+".", ".log.gz");
-					BufferedWriter outWriter = null;
-					LogReader[] toCollate = new LogReader[data.mergedKeys.size()];
-					File[] tempFiles = new File[data.mergedKeys.size()];
-					try{
-						// Now setup the writer
-						outWriter = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(temp))));
-						// Get the log reader for each file to collate
-						int index = 0;
-						for(String key: data.mergedKeys){
-							tempFiles[index] = File.createTempFile("collateDownload", ".log.gz");
-							ObjectMetadata meta = logDAO.downloadLogFile(key, tempFiles[index]);
-							toCollate[index] = new LogReader(new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(tempFiles[index])))));
-							index++;
-						}
-						// Now collate all of the files
-						CollateUtils.collateLogs(toCollate, outWriter, progressCallback);
-						// Flush and close the outupt files before we save it
-						outWriter.flush();
-						outWriter.close();
-						// Save the results back to s3
-						newFileKey = logDAO.saveLogFile(temp, timestamp);
-					}catch(Exception e){
-						log.error("Worker failed", e);
-					}finally{
-						// Close the output stream
-						if(outWriter != null){
-							try {
-								outWriter.close();
-							} catch (Exception e) {}
-						}
-						// Close the readers.
-						for(LogReader reader: toCollate){
-							try {
-								if(reader != null){
-									reader.close();
-								}
-							} catch (Exception e) {}
-						}
-						// Delete all temp files
-						for(File tempIn: tempFiles){
-							try {
-								if(tempIn != null){
-									tempIn.delete();
-								}
-							} catch (Exception e) {}
-						}
-						// We are done with the temp file.
-						try {
-							if(temp != null){
-								temp.delete();
-							}
-						} catch (Exception e) {}
-					}
-					
-					// Now delete all of the files that were merged.
-					for(String key: data.mergedKeys){
-						logDAO.deleteLogFile(key);
-					}
-					long elapse = System.currentTimeMillis()-data.startMs;
-					long msPerfile = elapse/data.mergedKeys.size();
-					if(log.isTraceEnabled()){
-						log.trace("Merged: "+data.mergedKeys.size()+" files into new file: "+newFileKey+" in "+elapse+" ms rate of: "+msPerfile+" ms/file");
-					}
-				} catch (IOException e) {
+					// The logs are streamed from S3 straight into the new file, that is uploaded while it is written
+					StreamingLogCollator collator = new StreamingLogCollator(logDAO, MAX_OPEN_STREAMS, RANGE_SIZE);
+					newFileKey = collator.collate(data.mergedKeys, type, timestamp, progressCallback);
+				} catch (Exception e) {
+					// The merged files are kept, so they will be collated in the next run
 					log.error("Worker failed", e);
+					return;
+				}
+				
+				// Now delete all of the files that were merged.
+				for(String key: data.mergedKeys){
+					logDAO.deleteLogFile(key);
+				}
+				long elapse = System.currentTimeMillis()-data.startMs;
+				long msPerfile = elapse/data.mergedKeys.size();
+				if(log.isTraceEnabled()){
+					log.trace("Merged: "+data.mergedKeys.size()+" files into new file: "+newFileKey+" in "+elapse+" ms rate of: "+msPerfile+" ms/file");
 				}
 			}
 		}
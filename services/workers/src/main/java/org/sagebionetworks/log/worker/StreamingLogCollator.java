@@ -0,0 +1,114 @@
+package org.sagebionetworks.log.worker;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.sagebionetworks.common.util.progress.ProgressCallback;
+import org.sagebionetworks.logging.s3.LogDAO;
+import org.sagebionetworks.logging.s3.LogFileOutputStream;
+import org.sagebionetworks.logging.s3.LogReader;
+import org.sagebionetworks.logging.s3.RangedLogInputStream;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Collates log files by streaming them from the log storage straight into a
+ * new log file that is uploaded while it is written, nothing is staged on
+ * local disk. Each input is read in ranges of a bounded size. When there are
+ * more inputs than the number of streams that can be open at once the inputs
+ * are first collated in groups into intermediate log files, that are in turn
+ * collated and deleted.
+ *
+ */
+public class StreamingLogCollator {
+
+	private final LogDAO logDAO;
+	private final int maxOpenStreams;
+	private final long rangeSize;
+
+	/**
+	 * @param logDAO
+	 * @param maxOpenStreams The maximum number of inputs read at the same time
+	 * @param rangeSize      The maximum number of bytes of an input requested at
+	 *                       once
+	 */
+	public StreamingLogCollator(LogDAO logDAO, int maxOpenStreams, long rangeSize) {
+		if (maxOpenStreams < 2) {
+			throw new IllegalArgumentException("At least two streams must be open at once");
+		}
+		this.logDAO = logDAO;
+		this.maxOpenStreams = maxOpenStreams;
+		this.rangeSize = rangeSize;
+	}
+
+	/**
+	 * Collate the log files with the given keys into a new log file. The input
+	 * log files are not deleted.
+	 *
+	 * @param keys      The keys of the log files to collate
+	 * @param type      The type of the logs
+	 * @param timestamp Used to create the key of the new log file
+	 * @return The key of the new log file
+	 * @throws IOException
+	 */
+	public String collate(List<String> keys, String type, long timestamp, ProgressCallback progressCallback) throws IOException {
+		if (keys.size() <= maxOpenStreams) {
+			return collateGroup(keys, type, timestamp, progressCallback);
+		}
+		List<String> intermediateKeys = new ArrayList<String>();
+		try {
+			for (List<String> group : Lists.partition(keys, maxOpenStreams)) {
+				intermediateKeys.add(group.size() == 1 ? group.get(0) : collateGroup(group, type, timestamp, progressCallback));
+			}
+			return collate(intermediateKeys, type, timestamp, progressCallback);
+		} finally {
+			// The intermediate files are no longer needed (the inputs are left to the caller)
+			for (String key : intermediateKeys) {
+				if (!keys.contains(key)) {
+					logDAO.deleteLogFile(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Collate at most maxOpenStreams log files into a new log file.
+	 */
+	String collateGroup(List<String> keys, String type, long timestamp, ProgressCallback progressCallback) throws IOException {
+		LogReader[] toCollate = new LogReader[keys.size()];
+		LogFileOutputStream out = logDAO.createLogFileOutputStream(type, timestamp);
+		boolean completed = false;
+		try {
+			for (int i = 0; i < keys.size(); i++) {
+				String key = keys.get(i);
+				RangedLogInputStream input = new RangedLogInputStream(logDAO, key, logDAO.getLogFileSize(key), rangeSize);
+				toCollate[i] = new LogReader(new BufferedReader(new InputStreamReader(new GZIPInputStream(input))));
+			}
+			BufferedWriter outWriter = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(out)));
+			CollateUtils.collateLogs(toCollate, outWriter, progressCallback);
+			// Closing the writer completes the new log file
+			outWriter.close();
+			completed = true;
+			return out.getKey();
+		} finally {
+			if (!completed) {
+				out.abort();
+			}
+			for (LogReader reader : toCollate) {
+				try {
+					if (reader != null) {
+						reader.close();
+					}
+				} catch (IOException e) {}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,56 @@
+package org.sagebionetworks.report.worker;
+
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.sagebionetworks.cloudwatch.WorkerLogger;
+import org.sagebionetworks.common.util.progress.ProgressCallback;
+import org.sagebionetworks.common.util.progress.ProgressingRunner;
+import org.sagebionetworks.repo.manager.table.TableIndexConnectionFactory;
+import org.sagebionetworks.repo.manager.table.TableIndexManager;
+import org.sagebionetworks.repo.model.table.ReplicationType;
+import org.sagebionetworks.table.cluster.ProjectStorageDelta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * The worker periodically verifies the project storage ledger of each index
+ * database against a full scan of the entity replication, the storage reports
+ * are read from the ledger that is otherwise only maintained incrementally.
+ */
+@Service
+public class ProjectStorageLedgerReconciliationWorker implements ProgressingRunner {
+
+	static final String METRIC_DRIFT_COUNT = "ProjectStorageLedgerDriftCount";
+	static final String METRIC_JOB_FAILED_COUNT = "JobFailedCount";
+
+	private static final Logger LOG = LogManager.getLogger(ProjectStorageLedgerReconciliationWorker.class);
+
+	private TableIndexConnectionFactory connectionFactory;
+	private WorkerLogger workerLogger;
+
+	@Autowired
+	public ProjectStorageLedgerReconciliationWorker(TableIndexConnectionFactory connectionFactory, WorkerLogger workerLogger) {
+		this.connectionFactory = connectionFactory;
+		this.workerLogger = workerLogger;
+	}
+
+	@Override
+	public void run(ProgressCallback progressCallback) throws Exception {
+		for (TableIndexManager indexManager : connectionFactory.connectToAllIndices()) {
+			try {
+				List<ProjectStorageDelta> drift = indexManager.reconcileProjectStorageLedger(ReplicationType.ENTITY);
+				if (!drift.isEmpty()) {
+					LOG.warn("Corrected the storage ledger of {} projects: {}", drift.size(), drift);
+					workerLogger.logWorkerCountMetric(ProjectStorageLedgerReconciliationWorker.class, METRIC_DRIFT_COUNT);
+				}
+			} catch (Throwable e) {
+				// Each index is reconciled independently
+				LOG.error("Failed to reconcile the storage ledger: " + e.getMessage(), e);
+				workerLogger.logWorkerCountMetric(ProjectStorageLedgerReconciliationWorker.class, METRIC_JOB_FAILED_COUNT);
+			}
+		}
+	}
+
+}
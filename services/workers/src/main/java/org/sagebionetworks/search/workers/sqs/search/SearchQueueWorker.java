@@ -1,19 +1,24 @@
 package org.sagebionetworks.search.workers.sqs.search;
 
+import java.util.Date;
 import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.sagebionetworks.StackConfigurationSingleton;
 import org.sagebionetworks.asynchronous.workers.changes.BatchChangeMessageDrivenRunner;
+import org.sagebionetworks.cloudwatch.ProfileData;
 import org.sagebionetworks.cloudwatch.WorkerLogger;
 import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.repo.manager.search.SearchManager;
 import org.sagebionetworks.repo.model.message.ChangeMessage;
 import org.sagebionetworks.repo.web.TemporarilyUnavailableException;
+import org.sagebionetworks.util.Clock;
 import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.amazonaws.services.cloudsearchdomain.model.AmazonCloudSearchDomainException;
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
 
 /**
  * This worker updates the search index based on messages received
@@ -25,6 +30,9 @@ public class SearchQueueWorker implements BatchChangeMessageDrivenRunner {
 
 	static private Logger log = LogManager.getLogger(SearchQueueWorker.class);
 
+	public static final String METRIC_NAMESPACE = SearchQueueWorker.class.getName() + " - "
+			+ StackConfigurationSingleton.singleton().getStackInstance();
+	public static final String DOCUMENTS_PER_SECOND = "Documents Per Second";
 
 	@Autowired
 	private WorkerLogger workerLogger;
@@ -32,12 +40,19 @@ public class SearchQueueWorker implements BatchChangeMessageDrivenRunner {
 	@Autowired
 	private SearchManager searchManager;
 
+	@Autowired
+	private Clock clock;
 
 	@Override
 	public void run(ProgressCallback progressCallback, List<ChangeMessage> changes)
 			throws RecoverableMessageException{
 		try {
-			searchManager.documentChangeMessages(changes);
+			long start = clock.currentTimeMillis();
+			int documentCount = searchManager.documentChangeMessages(changes);
+			long elapsedMS = clock.currentTimeMillis() - start;
+			if (documentCount > 0) {
+				workerLogger.logCustomMetric(createDocumentsPerSecond(documentCount, elapsedMS));
+			}
 		} catch (IllegalStateException e){
 			// If the feature is disabled then we simply swallow all messages
 		} catch (TemporarilyUnavailableException | AmazonCloudSearchDomainException e) {
@@ -49,6 +64,21 @@ public class SearchQueueWorker implements BatchChangeMessageDrivenRunner {
 		}
 	}
 
-
+	/**
+	 * Metric for the throughput of the search document generation.
+	 * 
+	 * @param documentCount
+	 * @param elapsedMS
+	 * @return
+	 */
+	public static ProfileData createDocumentsPerSecond(int documentCount, long elapsedMS) {
+		ProfileData nextPD = new ProfileData();
+		nextPD.setNamespace(METRIC_NAMESPACE);
+		nextPD.setName(DOCUMENTS_PER_SECOND);
+		nextPD.setValue(documentCount * 1000.0 / Math.max(elapsedMS, 1L));
+		nextPD.setUnit(StandardUnit.CountSecond.name());
+		nextPD.setTimestamp(new Date(System.currentTimeMillis()));
+		return nextPD;
+	}
 
 }
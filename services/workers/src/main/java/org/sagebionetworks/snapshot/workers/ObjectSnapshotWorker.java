@@ -1,10 +1,11 @@
 package org.sagebionetworks.snapshot.workers;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
-import org.sagebionetworks.asynchronous.workers.changes.BatchChangeMessageDrivenRunner;
+import org.sagebionetworks.asynchronous.workers.concurrent.DeferredAckMessageDrivenRunner;
+import org.sagebionetworks.asynchronous.workers.sqs.MessageUtils;
 import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.message.ChangeMessage;
@@ -12,12 +13,15 @@ import org.sagebionetworks.snapshot.workers.writers.ObjectRecordWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.amazonaws.services.sqs.model.Message;
+
 /**
  * This worker listens to object change messages, takes a snapshot of the objects, 
- * writes them to files, and put the files to S3.
+ * writes them to files, and put the files to S3. A message is only acknowledged
+ * once the files holding its records are stored in S3.
  */
 @Service
-public class ObjectSnapshotWorker implements BatchChangeMessageDrivenRunner {
+public class ObjectSnapshotWorker implements DeferredAckMessageDrivenRunner {
 
 	private Map<ObjectType, ObjectRecordWriter> objectSnapshotWriterMap;
 
@@ -27,9 +31,18 @@ public class ObjectSnapshotWorker implements BatchChangeMessageDrivenRunner {
 	}
 
 	@Override
-	public void run(ProgressCallback progressCallback, List<ChangeMessage> changeMessages) throws IOException {
+	public CompletableFuture<Void> runDeferred(ProgressCallback progressCallback, Message message) {
+		try {
+			return run(progressCallback, MessageUtils.extractChangeMessageBatch(message));
+		} catch (Exception e) {
+			// The message is delivered again once its visibility expires
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	CompletableFuture<Void> run(ProgressCallback progressCallback, List<ChangeMessage> changeMessages) throws Exception {
 		if (changeMessages.isEmpty()) {
-			return;
+			return CompletableFuture.completedFuture(null);
 		}
 		
 		ObjectType objectType = changeMessages.get(0).getObjectType();
@@ -41,7 +54,7 @@ public class ObjectSnapshotWorker implements BatchChangeMessageDrivenRunner {
 			throw new IllegalStateException("Object type " + objectType + " not supported yet");
 		}
 		
-		objectRecordWriter.buildAndWriteRecords(progressCallback, changeMessages);
+		return objectRecordWriter.buildAndWriteRecords(progressCallback, changeMessages);
 	}
 
 }
@@ -3,6 +3,7 @@ package org.sagebionetworks.snapshot.workers.writers;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -39,7 +40,7 @@ public class AccessRequirementRecordWriter implements ObjectRecordWriter {
 	}
 
 	@Override
-	public void buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException {
+	public CompletableFuture<Void> buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException {
 		
 		List<KinesisObjectSnapshotRecord<AccessRequirement>> records = new ArrayList<>(messages.size());
 		
@@ -66,6 +67,8 @@ public class AccessRequirementRecordWriter implements ObjectRecordWriter {
 		if (!records.isEmpty()) {
 			kinesisLogger.logBatch(STREAM_NAME, records);
 		}
+		// Only sent to kinesis
+		return CompletableFuture.completedFuture(null);
 	}
 
 }
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -62,7 +63,7 @@ public class AclObjectRecordWriter implements ObjectRecordWriter {
 	}
 
 	@Override
-	public void buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException {
+	public CompletableFuture<Void> buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException {
 		List<ObjectRecord> toWrite = new LinkedList<ObjectRecord>();
 		List<KinesisObjectSnapshotRecord<AclRecord>> kinesisAclRecords = new ArrayList<>();
 		for (ChangeMessage message : messages) {
@@ -83,12 +84,14 @@ public class AclObjectRecordWriter implements ObjectRecordWriter {
 				log.error("Cannot find acl for a " + message.getChangeType() + " message: " + message.toString()) ;
 			}
 		}
+		CompletableFuture<Void> saved = CompletableFuture.completedFuture(null);
 		if (!toWrite.isEmpty()) {
-			objectRecordDAO.saveBatch(toWrite, toWrite.get(0).getJsonClassName());
+			saved = objectRecordDAO.saveBatchAsync(toWrite, toWrite.get(0).getJsonClassName());
 		}
 		if (!kinesisAclRecords.isEmpty()) {
 			kinesisLogger.logBatch(KINESIS_STREAM, kinesisAclRecords);
 		}
+		return saved;
 	}
 	
 	@Override
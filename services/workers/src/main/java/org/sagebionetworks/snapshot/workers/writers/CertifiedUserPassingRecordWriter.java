@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -53,7 +54,7 @@ public class CertifiedUserPassingRecordWriter implements ObjectRecordWriter {
 	}
 
 	@Override
-	public void buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException {
+	public CompletableFuture<Void> buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException {
 		List<ObjectRecord> toWrite = new LinkedList<ObjectRecord>();
 		List<KinesisObjectSnapshotRecord<PassingRecord>> kinesisCertificationSnapshots = new ArrayList<>();
 		UserInfo adminUser = userManager.getUserInfo(BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId());
@@ -83,12 +84,14 @@ public class CertifiedUserPassingRecordWriter implements ObjectRecordWriter {
 				log.error("Cannot find certified user passing record for user " + message.getObjectId() + " message: " + message.toString()) ;
 			}
 		}
+		CompletableFuture<Void> saved = CompletableFuture.completedFuture(null);
 		if (!toWrite.isEmpty()) {
-			objectRecordDAO.saveBatch(toWrite, toWrite.get(0).getJsonClassName());
+			saved = objectRecordDAO.saveBatchAsync(toWrite, toWrite.get(0).getJsonClassName());
 		}
 		if (!kinesisCertificationSnapshots.isEmpty()) {
 			kinesisLogger.logBatch(KINESIS_STREAM, kinesisCertificationSnapshots);
 		}
+		return saved;
 	}
 
 	@Override
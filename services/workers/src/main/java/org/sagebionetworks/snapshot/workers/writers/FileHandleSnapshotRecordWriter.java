@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -88,7 +89,7 @@ public class FileHandleSnapshotRecordWriter implements ObjectRecordWriter {
 	}
 
 	@Override
-	public void buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException {
+	public CompletableFuture<Void> buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException {
 		List<ObjectRecord> toWrite = new LinkedList<ObjectRecord>();
 		List<KinesisObjectSnapshotRecord<FileHandleSnapshot>> kinesisRecords = new ArrayList<>(messages.size());
 		for (ChangeMessage message : messages) {
@@ -111,12 +112,14 @@ public class FileHandleSnapshotRecordWriter implements ObjectRecordWriter {
 				}
 			}
 		}
+		CompletableFuture<Void> saved = CompletableFuture.completedFuture(null);
 		if (!toWrite.isEmpty()) {
-			objectRecordDAO.saveBatch(toWrite, toWrite.get(0).getJsonClassName());
+			saved = objectRecordDAO.saveBatchAsync(toWrite, toWrite.get(0).getJsonClassName());
 		}
 		if (!kinesisRecords.isEmpty()) {
 			kinesisLogger.logBatch(KINESIS_STREAM, kinesisRecords);
 		}
+		return saved;
 	}
 
 	@Override
@@ -2,8 +2,16 @@ package org.sagebionetworks.snapshot.workers.writers;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
@@ -13,8 +21,6 @@ import org.sagebionetworks.audit.utils.ObjectRecordBuilderUtils;
 import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.kinesis.AwsKinesisFirehoseLogger;
 import org.sagebionetworks.repo.manager.UserManager;
-import org.sagebionetworks.repo.manager.entity.EntityAuthorizationManager;
-import org.sagebionetworks.repo.manager.trash.EntityInTrashCanException;
 import org.sagebionetworks.repo.model.AccessRequirementDAO;
 import org.sagebionetworks.repo.model.AccessRequirementStats;
 import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL;
@@ -26,10 +32,11 @@ import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.audit.DeletedNode;
 import org.sagebionetworks.repo.model.audit.NodeRecord;
 import org.sagebionetworks.repo.model.audit.ObjectRecord;
-import org.sagebionetworks.repo.model.auth.UserEntityPermissions;
+import org.sagebionetworks.repo.model.dbo.entity.UserEntityPermissionsState;
+import org.sagebionetworks.repo.model.dbo.entity.UsersEntityPermissionsDao;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.message.ChangeMessage;
 import org.sagebionetworks.repo.model.message.ChangeType;
-import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.snapshot.workers.KinesisObjectSnapshotRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -44,47 +51,92 @@ public class NodeObjectRecordWriter implements ObjectRecordWriter {
 	private NodeDAO nodeDAO;
 	private UserManager userManager;
 	private AccessRequirementDAO accessRequirementDao;
-	private EntityAuthorizationManager entityAuthorizationManager;
+	private UsersEntityPermissionsDao usersEntityPermissionsDao;
 	private ObjectRecordDAO objectRecordDAO;
 	private AwsKinesisFirehoseLogger kinesisLogger;
 	
 	@Autowired
 	public NodeObjectRecordWriter(NodeDAO nodeDAO, UserManager userManager, AccessRequirementDAO accessRequirementDao,
-			EntityAuthorizationManager entityAuthorizationManager, ObjectRecordDAO objectRecordDAO, AwsKinesisFirehoseLogger kinesisLogger) {
+			UsersEntityPermissionsDao usersEntityPermissionsDao, ObjectRecordDAO objectRecordDAO, AwsKinesisFirehoseLogger kinesisLogger) {
 		this.nodeDAO = nodeDAO;
 		this.userManager = userManager;
 		this.accessRequirementDao = accessRequirementDao;
-		this.entityAuthorizationManager = entityAuthorizationManager;
+		this.usersEntityPermissionsDao = usersEntityPermissionsDao;
 		this.objectRecordDAO = objectRecordDAO;
 		this.kinesisLogger = kinesisLogger;
 	}
 
 	/**
-	 * set record's isPublic, isRestricted, and isControlled fields
+	 * Build the NodeRecord of each of the given nodes, resolving the whole batch
+	 * with a constant number of queries. Nodes that cannot be found, along with
+	 * their project, benefactor or path, are not included in the results.
 	 * 
-	 * @param record
-	 * @param userManager
-	 * @param accessRequirementManager
-	 * @param entityPermissionManager
-	 * @return a record that contains all data from the passed in record and
-	 * addition information about whether the node is public, restricted, and
-	 * controlled.
+	 * @param nodeIds
+	 * @return Map of node ID to the record of the node, including whether the
+	 *         node is public, restricted, and controlled.
 	 */
-	private NodeRecord setAccessProperties(NodeRecord record,
-			UserManager userManager,
-			AccessRequirementDAO accessRequirementDao,
-			EntityAuthorizationManager entityAuthorizationManager,
-			NodeDAO nodeDao) {
-
+	Map<Long, NodeRecord> buildNodeRecords(Set<Long> nodeIds) {
+		List<Node> nodes = nodeDAO.getNodes(new ArrayList<>(nodeIds));
+		
+		if (nodes.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		
+		List<Long> existingIds = nodes.stream().map(node -> KeyFactory.stringToKey(node.getId())).collect(Collectors.toList());
+		
+		Map<Long, Long> benefactors = nodeDAO.getBenefactors(existingIds);
+		Map<Long, Long> projects = nodeDAO.getProjectIds(existingIds);
+		
+		Map<Long, NodeRecord> records = new LinkedHashMap<>(nodes.size());
+		
+		for (Node node : nodes) {
+			Long nodeId = KeyFactory.stringToKey(node.getId());
+			Long benefactorId = benefactors.get(nodeId);
+			Long projectId = projects.get(nodeId);
+			if (benefactorId == null || projectId == null) {
+				continue;
+			}
+			records.put(nodeId, buildNodeRecord(node, KeyFactory.keyToString(benefactorId), KeyFactory.keyToString(projectId)));
+		}
+		
+		if (records.isEmpty()) {
+			return records;
+		}
+		
 		UserInfo adminUserInfo = userManager.getUserInfo(BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId());
-		UserEntityPermissions permissions = entityAuthorizationManager.getUserPermissionsForEntity(adminUserInfo, record.getId());
-
-		record.setIsPublic(permissions.getCanPublicRead());
-
-		List<Long> subjectIds = nodeDao.getEntityPathIds(record.getId());
 		
-		AccessRequirementStats stats = accessRequirementDao.getAccessRequirementStats(subjectIds, RestrictableObjectType.ENTITY);
-
+		Map<Long, UserEntityPermissionsState> permissions = usersEntityPermissionsDao.getEntityPermissionsAsMap(adminUserInfo.getGroups(), new ArrayList<>(records.keySet()));
+		Map<Long, List<Long>> paths = nodeDAO.getEntityPathIds(records.keySet());
+		
+		Set<Long> subjectIds = paths.values().stream().flatMap(List::stream).collect(Collectors.toSet());
+		
+		Map<Long, AccessRequirementStats> subjectsStats = accessRequirementDao.getAccessRequirementStatsBySubject(subjectIds, RestrictableObjectType.ENTITY);
+		
+		Iterator<Map.Entry<Long, NodeRecord>> iterator = records.entrySet().iterator();
+		
+		while (iterator.hasNext()) {
+			Map.Entry<Long, NodeRecord> entry = iterator.next();
+			List<Long> path = paths.get(entry.getKey());
+			if (path == null) {
+				iterator.remove();
+				continue;
+			}
+			UserEntityPermissionsState permissionsState = permissions.get(entry.getKey());
+			setAccessProperties(entry.getValue(), permissionsState != null && permissionsState.hasPublicRead(), mergeStats(path, subjectsStats));
+		}
+		
+		return records;
+	}
+	
+	/**
+	 * set record's isPublic, isRestricted, and isControlled fields
+	 * 
+	 * @param record
+	 * @param isPublic
+	 * @param stats The statistic of the access requirements on the path of the node
+	 */
+	static void setAccessProperties(NodeRecord record, boolean isPublic, AccessRequirementStats stats) {
+		record.setIsPublic(isPublic);
 		record.setIsRestricted(stats.getHasToU());
 		record.setIsControlled(stats.getHasACT());
 		
@@ -95,8 +147,31 @@ public class NodeObjectRecordWriter implements ObjectRecordWriter {
 			.collect(Collectors.toList());
 		
 		record.setEffectiveArs(effectiveArs);
-		
-		return record;
+	}
+	
+	/**
+	 * @param path
+	 * @param subjectsStats
+	 * @return The statistic of the access requirements bound to any of the
+	 *         subjects in the given path
+	 */
+	static AccessRequirementStats mergeStats(List<Long> path, Map<Long, AccessRequirementStats> subjectsStats) {
+		AccessRequirementStats merged = new AccessRequirementStats();
+		merged.setHasACT(false);
+		merged.setHasToU(false);
+		merged.setHasLock(false);
+		merged.setRequirementIdSet(new HashSet<>());
+		for (Long subjectId : path) {
+			AccessRequirementStats stats = subjectsStats.get(subjectId);
+			if (stats == null) {
+				continue;
+			}
+			merged.getRequirementIdSet().addAll(stats.getRequirementIdSet());
+			merged.setHasACT(merged.getHasACT() || Boolean.TRUE.equals(stats.getHasACT()));
+			merged.setHasToU(merged.getHasToU() || Boolean.TRUE.equals(stats.getHasToU()));
+			merged.setHasLock(merged.getHasLock() || Boolean.TRUE.equals(stats.getHasLock()));
+		}
+		return merged;
 	}
 
 	/**
@@ -123,14 +198,23 @@ public class NodeObjectRecordWriter implements ObjectRecordWriter {
 	}
 
 	@Override
-	public void buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException {
-		List<ObjectRecord> nonDeleteRecords = new LinkedList<ObjectRecord>();
-		List<ObjectRecord> deleteRecords = new LinkedList<ObjectRecord>();
-		List<KinesisObjectSnapshotRecord<NodeRecord>> kinesisRecords = new ArrayList<>(messages.size());
+	public CompletableFuture<Void> buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException {
+		Set<Long> nodeIds = new LinkedHashSet<>();
 		for (ChangeMessage message : messages) {
 			if (message.getObjectType() != ObjectType.ENTITY) {
 				throw new IllegalArgumentException();
 			}
+			if (message.getChangeType() != ChangeType.DELETE) {
+				nodeIds.add(KeyFactory.stringToKey(message.getObjectId()));
+			}
+		}
+		// The snapshots of all the nodes in the batch are resolved at once
+		Map<Long, NodeRecord> records = nodeIds.isEmpty() ? Collections.emptyMap() : buildNodeRecords(nodeIds);
+		
+		List<ObjectRecord> nonDeleteRecords = new LinkedList<ObjectRecord>();
+		List<ObjectRecord> deleteRecords = new LinkedList<ObjectRecord>();
+		List<KinesisObjectSnapshotRecord<NodeRecord>> kinesisRecords = new ArrayList<>(messages.size());
+		for (ChangeMessage message : messages) {
 			if (message.getChangeType() == ChangeType.DELETE) {
 				deleteRecords.add(buildDeletedNodeRecord(message));
 			
@@ -139,37 +223,28 @@ public class NodeObjectRecordWriter implements ObjectRecordWriter {
 				kinesisRecords.add(KinesisObjectSnapshotRecord.map(message, record));
 				
 			} else {
-				try {
-					Node node = nodeDAO.getNode(message.getObjectId());
-					String benefactorId = nodeDAO.getBenefactor(message.getObjectId());
-					String projectId = nodeDAO.getProjectId(message.getObjectId()).orElseThrow(() -> new NotFoundException("Project id does not exists."));
-					NodeRecord record = buildNodeRecord(node, benefactorId, projectId);
-					record = setAccessProperties(record, userManager, accessRequirementDao, entityAuthorizationManager, nodeDAO);
-					ObjectRecord objectRecord = ObjectRecordBuilderUtils.buildObjectRecord(record, message.getTimestamp().getTime());
-					nonDeleteRecords.add(objectRecord);
-					
-					kinesisRecords.add(KinesisObjectSnapshotRecord.map(message, record));
-					
-				} catch (EntityInTrashCanException e) {
-					deleteRecords.add(buildDeletedNodeRecord(message));
-					
-					NodeRecord record = new NodeRecord();
-					record.setId(message.getObjectId());
-					kinesisRecords.add(KinesisObjectSnapshotRecord.map(message, record));					
-				} catch (NotFoundException e) {
+				NodeRecord record = records.get(KeyFactory.stringToKey(message.getObjectId()));
+				if (record == null) {
 					log.error("Cannot find node for a " + message.getChangeType() + " message: " + message.toString()) ;
+					continue;
 				}
+				ObjectRecord objectRecord = ObjectRecordBuilderUtils.buildObjectRecord(record, message.getTimestamp().getTime());
+				nonDeleteRecords.add(objectRecord);
+				
+				kinesisRecords.add(KinesisObjectSnapshotRecord.map(message, record));
 			}
 		}
+		List<CompletableFuture<Void>> saved = new ArrayList<>(2);
 		if (!nonDeleteRecords.isEmpty()) {
-			objectRecordDAO.saveBatch(nonDeleteRecords, nonDeleteRecords.get(0).getJsonClassName());
+			saved.add(objectRecordDAO.saveBatchAsync(nonDeleteRecords, nonDeleteRecords.get(0).getJsonClassName()));
 		}
 		if (!deleteRecords.isEmpty()) {
-			objectRecordDAO.saveBatch(deleteRecords, deleteRecords.get(0).getJsonClassName());
+			saved.add(objectRecordDAO.saveBatchAsync(deleteRecords, deleteRecords.get(0).getJsonClassName()));
 		}
 		if (!kinesisRecords.isEmpty()) {
 			kinesisLogger.logBatch(KINESIS_STREAM, kinesisRecords);
 		}
+		return CompletableFuture.allOf(saved.toArray(new CompletableFuture[saved.size()]));
 	}
 	
 	@Override
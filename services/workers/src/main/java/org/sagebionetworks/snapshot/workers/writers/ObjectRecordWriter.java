@@ -2,6 +2,7 @@ package org.sagebionetworks.snapshot.workers.writers;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.repo.model.ObjectType;
@@ -19,7 +20,8 @@ public interface ObjectRecordWriter {
 	 * then write them to a log file and push it to S3
 	 * @param progressCallback 
 	 * @param message
+	 * @return A future that completes once the records are stored in S3
 	 * @throws IOException 
 	 */
-	void buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException;
+	CompletableFuture<Void> buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException;
 }
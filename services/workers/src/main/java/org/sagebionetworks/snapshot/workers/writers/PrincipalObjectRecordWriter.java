@@ -26,10 +26,10 @@ import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -58,9 +58,11 @@ public class PrincipalObjectRecordWriter implements ObjectRecordWriter {
 	}
 
 	@Override
-	public void buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException {
+	public CompletableFuture<Void> buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException {
         List<ObjectRecord> groups = new LinkedList<ObjectRecord>();
         List<ObjectRecord> individuals = new LinkedList<ObjectRecord>();
+        List<ObjectRecord> userGroups = new LinkedList<ObjectRecord>();
+        List<CompletableFuture<Void>> saved = new ArrayList<>();
 		List<KinesisObjectSnapshotRecord<Team>>  kinesisTeamRecords = new ArrayList<>();
 		List<KinesisObjectSnapshotRecord<UserProfile>>  kinesisUserProfileRecords = new ArrayList<>();
 		List<KinesisObjectSnapshotRecord<UserGroup>>  kinesisUserGroups = new ArrayList<>();
@@ -77,7 +79,7 @@ public class PrincipalObjectRecordWriter implements ObjectRecordWriter {
 			try {
 				userGroup = userGroupDAO.get(principalId);
 				ObjectRecord objectRecord = ObjectRecordBuilderUtils.buildObjectRecord(userGroup, message.getTimestamp().getTime());
-				objectRecordDAO.saveBatch(Arrays.asList(objectRecord), objectRecord.getJsonClassName());
+				userGroups.add(objectRecord);
 				kinesisUserGroups.add(KinesisObjectSnapshotRecord.map(message, userGroup));
 
 				if(userGroup.getIsIndividual()){
@@ -93,7 +95,7 @@ public class PrincipalObjectRecordWriter implements ObjectRecordWriter {
 					}
 				} else {
 					// Group
-					captureAllMembers(message);
+					saved.add(captureAllMembers(message));
 					try {
 						Team team = teamDAO.get(message.getObjectId());
 						ObjectRecord teamRecord = ObjectRecordBuilderUtils.buildObjectRecord(team, message.getTimestamp().getTime());
@@ -108,11 +110,14 @@ public class PrincipalObjectRecordWriter implements ObjectRecordWriter {
 				log.warn("Principal not found: "+principalId);
 			}
 		}
+		if (!userGroups.isEmpty()) {
+			saved.add(objectRecordDAO.saveBatchAsync(userGroups, userGroups.get(0).getJsonClassName()));
+		}
 		if (!groups.isEmpty()) {
-			objectRecordDAO.saveBatch(groups, groups.get(0).getJsonClassName());
+			saved.add(objectRecordDAO.saveBatchAsync(groups, groups.get(0).getJsonClassName()));
 		}
 		if (!individuals.isEmpty()) {
-			objectRecordDAO.saveBatch(individuals, individuals.get(0).getJsonClassName());
+			saved.add(objectRecordDAO.saveBatchAsync(individuals, individuals.get(0).getJsonClassName()));
 		}
         if (!kinesisTeamRecords.isEmpty()) {
             firehoseLogger.logBatch(TEAM_SNAPSHOT_STREAM, kinesisTeamRecords);
@@ -123,6 +128,7 @@ public class PrincipalObjectRecordWriter implements ObjectRecordWriter {
         if (!kinesisUserGroups.isEmpty()) {
             firehoseLogger.logBatch(USER_GROUP_SNAPSHOT_STREAM, kinesisUserGroups);
         }
+		return CompletableFuture.allOf(saved.toArray(new CompletableFuture[saved.size()]));
 	}
 	
 	@Override
@@ -134,9 +140,10 @@ public class PrincipalObjectRecordWriter implements ObjectRecordWriter {
 	 * Log all members that belongs to this group
 	 * 
 	 * @param message- the change message retrieved from queue
+	 * @return A future that completes once the members are stored in S3
 	 * @throws IOException 
 	 */
-	public void captureAllMembers(ChangeMessage message) throws IOException {
+	public CompletableFuture<Void> captureAllMembers(ChangeMessage message) throws IOException {
 		String groupId= message.getObjectId();
 		long timestamp= message.getTimestamp().getTime();
 		List<UserGroup> members = groupMembersDAO.getMembers(groupId);
@@ -153,11 +160,13 @@ public class PrincipalObjectRecordWriter implements ObjectRecordWriter {
 			records.add(ObjectRecordBuilderUtils.buildObjectRecord(teamMember, timestamp));
             kinesisTeamMemberRecords.add(KinesisObjectSnapshotRecord.map(message, teamMember));
 		}
+		CompletableFuture<Void> saved = CompletableFuture.completedFuture(null);
 		if (records.size() > 0) {
-			objectRecordDAO.saveBatch(records, records.get(0).getJsonClassName());
+			saved = objectRecordDAO.saveBatchAsync(records, records.get(0).getJsonClassName());
 		}
         if (!kinesisTeamMemberRecords.isEmpty()) {
             firehoseLogger.logBatch(TEAM_MEMBER_SNAPSHOT_STREAM, kinesisTeamMemberRecords);
         }
+		return saved;
 	}
 }
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -41,7 +42,7 @@ public class ProjectSettingObjectRecordWriter implements ObjectRecordWriter {
 	}
 
 	@Override
-	public void buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages)
+	public CompletableFuture<Void> buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages)
 			throws IOException {
 
 		List<KinesisObjectSnapshotRecord<ProjectSetting>> records = new ArrayList<>(messages.size());
@@ -66,13 +67,15 @@ public class ProjectSettingObjectRecordWriter implements ObjectRecordWriter {
 						+ message.toString());
 			}
 		}
+		CompletableFuture<Void> saved = CompletableFuture.completedFuture(null);
 		if (!toWrite.isEmpty()) {
-			objectRecordDAO.saveBatch(toWrite, toWrite.get(0).getJsonClassName());
+			saved = objectRecordDAO.saveBatchAsync(toWrite, toWrite.get(0).getJsonClassName());
 		}
 
 		if (!records.isEmpty()) {
 			kinesisLogger.logBatch(STREAM_NAME, records);
 		}
+		return saved;
 	}
 
 	@Override
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -48,7 +49,7 @@ public class VerificationSubmissionObjectRecordWriter implements ObjectRecordWri
 	}
 
 	@Override
-	public void buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException {
+	public CompletableFuture<Void> buildAndWriteRecords(ProgressCallback progressCallback, List<ChangeMessage> messages) throws IOException {
 		List<ObjectRecord> toWrite = new LinkedList<ObjectRecord>();
 		List<KinesisObjectSnapshotRecord<VerificationSubmission>> kinesisVerificationRecords = new ArrayList<>();
 		UserInfo adminUser = userManager.getUserInfo(BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId());
@@ -76,12 +77,14 @@ public class VerificationSubmissionObjectRecordWriter implements ObjectRecordWri
 				log.error("Cannot find verification submission for user " + message.getObjectId() + " message: " + message.toString()) ;
 			}
 		}
+		CompletableFuture<Void> saved = CompletableFuture.completedFuture(null);
 		if (!toWrite.isEmpty()) {
-			objectRecordDAO.saveBatch(toWrite, toWrite.get(0).getJsonClassName());
+			saved = objectRecordDAO.saveBatchAsync(toWrite, toWrite.get(0).getJsonClassName());
 		}
 		if (!kinesisVerificationRecords.isEmpty()) {
 			kinesisLogger.logBatch(KINESIS_STREAM, kinesisVerificationRecords);
 		}
+		return saved;
 	}
 	
 	@Override
@@ -0,0 +1,78 @@
+package org.sagebionetworks.table.worker;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.sagebionetworks.StackConfiguration;
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.ProfileData;
+import org.sagebionetworks.repo.manager.table.TableIndexConnectionFactory;
+import org.sagebionetworks.table.cluster.ConnectionFactory;
+import org.sagebionetworks.table.cluster.ConnectionPoolStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+
+/**
+ * Driven by a timer to pick up any database instance added to the table
+ * cluster (rebuilding the tables moved to the new instance) and to push the
+ * statistics of the connection pool of each instance to CloudWatch.
+ *
+ */
+public class TableConnectionPoolMonitor {
+
+	public static final String NAMESPACE_PREFIX = "Table-Connection-Pools-";
+	public static final String DIMENSION_INSTANCE = "Instance";
+	public static final String METRIC_ACTIVE_CONNECTIONS = "Active Connections";
+	public static final String METRIC_IDLE_CONNECTIONS = "Idle Connections";
+	public static final String METRIC_PERCENT_ACTIVE_CONNECTIONS = "% Active Connections";
+
+	private final ConnectionFactory connectionFactory;
+	private final TableIndexConnectionFactory indexConnectionFactory;
+	private final Consumer consumer;
+	private final String namespace;
+
+	@Autowired
+	public TableConnectionPoolMonitor(ConnectionFactory connectionFactory, TableIndexConnectionFactory indexConnectionFactory, Consumer consumer,
+			StackConfiguration config) {
+		this.connectionFactory = connectionFactory;
+		this.indexConnectionFactory = indexConnectionFactory;
+		this.consumer = consumer;
+		this.namespace = NAMESPACE_PREFIX + config.getStackInstance();
+	}
+
+	/**
+	 * Called from a timer.
+	 */
+	public void timerFired() {
+		indexConnectionFactory.refreshIndices();
+		Date timestamp = new Date();
+		List<ProfileData> metrics = new LinkedList<>();
+		for (ConnectionPoolStatistics stats : connectionFactory.getConnectionPoolStatistics()) {
+			Map<String, String> dimension = Collections.singletonMap(DIMENSION_INSTANCE,
+					stats.getInstance().getEndpoint() + "/" + stats.getInstance().getSchema());
+			metrics.add(createMetric(METRIC_ACTIVE_CONNECTIONS, stats.getActiveConnections(), StandardUnit.Count, dimension, timestamp));
+			metrics.add(createMetric(METRIC_IDLE_CONNECTIONS, stats.getIdleConnections(), StandardUnit.Count, dimension, timestamp));
+			if (stats.getMaxConnections() > 0) {
+				double percentActive = 100.0 * stats.getActiveConnections() / stats.getMaxConnections();
+				metrics.add(createMetric(METRIC_PERCENT_ACTIVE_CONNECTIONS, percentActive, StandardUnit.Percent, dimension, timestamp));
+			}
+		}
+		consumer.addProfileData(metrics);
+	}
+
+	ProfileData createMetric(String name, double value, StandardUnit unit, Map<String, String> dimension, Date timestamp) {
+		ProfileData data = new ProfileData();
+		data.setNamespace(namespace);
+		data.setName(name);
+		data.setValue(value);
+		data.setUnit(unit.name());
+		data.setDimension(dimension);
+		data.setTimestamp(timestamp);
+		return data;
+	}
+
+}
@@ -33,8 +33,10 @@ public class UpdateQueryCacheWorker implements TypedMessageDrivenRunner<QueryCac
 	@Override
 	public void run(ProgressCallback progressCallback, Message message, QueryCacheHitEvent event)
 			throws RecoverableMessageException, Exception {
-		TableIndexDAO tableIndexDao = connectionFactory.getFirstConnection();
-		queryCache.refreshCachedQuery(tableIndexDao, event.getQueryRequestHash());
+		// The query is cached on the database of the queried table, the refresh is a no-op on the other databases
+		for (TableIndexDAO tableIndexDao : connectionFactory.getAllConnections()) {
+			queryCache.refreshCachedQuery(tableIndexDao, event.getQueryRequestHash());
+		}
 	}
 
 }
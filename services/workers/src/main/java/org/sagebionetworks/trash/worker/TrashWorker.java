@@ -1,7 +1,13 @@
 package org.sagebionetworks.trash.worker;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -28,8 +34,19 @@ public class TrashWorker implements ProgressingRunner {
 	@Autowired
 	private WorkerLogger workerLogger;
 
+	private ExecutorService purgeExecutorService;
+
 	private UserInfo adminUser = new UserInfo(true, BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId());
 
+	/**
+	 * Injected via Spring, the pool used to purge the trash leaves in parallel
+	 * 
+	 * @param purgeExecutorService
+	 */
+	public void setPurgeExecutorService(ExecutorService purgeExecutorService) {
+		this.purgeExecutorService = purgeExecutorService;
+	}
+
 	@Override
 	public void run(ProgressCallback progressCallback) {
 
@@ -46,31 +63,47 @@ public class TrashWorker implements ProgressingRunner {
 
 			LOG.info("Purging {} entities, older than {} days, from the trash can", batch.size(), CUTOFF_TRASH_AGE_IN_DAYS);
 
-			int count = 0;
-			int errors = 0;
-
-			// Deletes one at the time (the sub-tree of a single entity might contain millions of nodes)
-			for (Long id : batch) {
+			AtomicInteger count = new AtomicInteger();
+			AtomicInteger errors = new AtomicInteger();
+			AtomicBoolean stopped = new AtomicBoolean();
 
-				// If the status of the stack changed makes sure to interrupt the execution
+			// The trash leaves are independent sub-trees, each one is purged by its own task (the sub-tree of a single
+			// entity might contain millions of nodes)
+			List<Future<?>> futures = new ArrayList<>(batch.size());
 
-				if (!stackStatusDao.isStackReadWrite()) {
-					LOG.info("Stack status changed from READ_WRITE, stopping execution.");
-					logProgress(count, errors, startTime);
-					return;
-				}
+			for (Long id : batch) {
+				futures.add(purgeExecutorService.submit(() -> {
+
+					// If the status of the stack changed makes sure to interrupt the execution
+					if (stopped.get() || !stackStatusDao.isStackReadWrite()) {
+						stopped.set(true);
+						return;
+					}
+
+					try {
+						trashManager.purgeTrash(adminUser, Collections.singletonList(id));
+					} catch (Exception e) {
+						// Log the error and keep going, we want to get as far as we can
+						LOG.error("Could not delete entity with id {}: {}", id, e.getMessage(), e);
+						errors.incrementAndGet();
+					}
+					count.incrementAndGet();
+				}));
+			}
 
+			for (Future<?> future : futures) {
 				try {
-					trashManager.purgeTrash(adminUser, Collections.singletonList(id));
-				} catch (Exception e) {
-					// Log the error and keep going, we want to get as far as we can
-					LOG.error("Could not delete entity with id {}: {}", id, e.getMessage(), e);
-					errors++;
+					future.get();
+				} catch (ExecutionException e) {
+					LOG.error(e.getMessage(), e);
 				}
-				count++;
 			}
 
-			logProgress(count, errors, startTime);
+			if (stopped.get()) {
+				LOG.info("Stack status changed from READ_WRITE, stopping execution.");
+			}
+
+			logProgress(count.get(), errors.get(), startTime);
 		} catch (Throwable e) {
 			LOG.error(e.getMessage(), e);
 
@@ -19,7 +19,6 @@ import org.sagebionetworks.snapshot.workers.writers.ObjectRecordWriter;
 import org.sagebionetworks.table.worker.MaterializedViewUpdateWorker;
 import org.sagebionetworks.table.worker.TableIndexWorker;
 import org.sagebionetworks.table.worker.TableViewWorker;
-import org.sagebionetworks.worker.utils.AlwaysOpen;
 import org.sagebionetworks.worker.utils.StackStatusGate;
 import org.sagebionetworks.workers.util.aws.message.MessageDrivenRunner;
 import org.sagebionetworks.workers.util.aws.message.MessageDrivenWorkerStack;
@@ -194,24 +193,23 @@ public class ChangeMessageWorkersConfig {
 	}
 	
 	@Bean
-	public SimpleTriggerFactoryBean objectSnapshotWorkerTrigger(StackStatusGate stackStatusGate, ObjectSnapshotWorker objectSnapshotWorker) {
+	public SimpleTriggerFactoryBean objectSnapshotWorkerTrigger(ObjectSnapshotWorker objectSnapshotWorker) {
 		
 		String queueName = stackConfig.getQueueName("OBJECT");
-		MessageDrivenRunner worker = new ChangeMessageBatchProcessor(amazonSQSClient, queueName, objectSnapshotWorker);
 		
-		MessageDrivenWorkerStackConfiguration config = new MessageDrivenWorkerStackConfiguration();
-		
-		config.setGate(new AlwaysOpen());
-		config.setQueueName(queueName);
-		config.setRunner(worker);
-		config.setSemaphoreLockAndMessageVisibilityTimeoutSec(120);
-		config.setSemaphoreMaxLockCount(4);
-		config.setSemaphoreLockKey("objectSnapshotWorker");
-		
-		MessageDrivenWorkerStack stack = new MessageDrivenWorkerStack(countingSemaphore, amazonSQSClient, config);
-				
+		// The worker is not wrapped in a ChangeMessageBatchProcessor, its messages are deleted once their records are stored in S3
 		return new WorkerTriggerBuilder()
-			.withStack(stack)
+			.withStack(ConcurrentWorkerStack.builder()
+				.withSemaphoreLockKey("objectSnapshotWorker")
+				.withSemaphoreMaxLockCount(4)
+				.withSemaphoreLockAndMessageVisibilityTimeoutSec(120)
+				.withMaxThreadsPerMachine(1)
+				.withSingleton(concurrentStackManager)
+				.withCanRunInReadOnly(true)
+				.withQueueName(queueName)
+				.withWorker(objectSnapshotWorker)
+				.build()
+			)
 			.withRepeatInterval(1979)
 			.withStartDelay(39)
 			.build();
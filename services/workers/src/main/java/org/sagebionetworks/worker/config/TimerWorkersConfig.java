@@ -2,6 +2,7 @@ package org.sagebionetworks.worker.config;
 
 import org.sagebionetworks.database.semaphore.CountingSemaphore;
 import org.sagebionetworks.file.worker.FileHandleAssociationScanDispatcherWorker;
+import org.sagebionetworks.report.worker.ProjectStorageLedgerReconciliationWorker;
 import org.sagebionetworks.worker.utils.StackStatusGate;
 import org.sagebionetworks.workers.util.semaphore.SemaphoreGatedWorkerStack;
 import org.sagebionetworks.workers.util.semaphore.SemaphoreGatedWorkerStackConfiguration;
@@ -44,5 +45,26 @@ public class TimerWorkersConfig {
 			.withStartDelay(7200000)
 			.build();
 	}
+	
+	@Bean
+	public SimpleTriggerFactoryBean projectStorageLedgerReconciliationWorkerTrigger(ProjectStorageLedgerReconciliationWorker projectStorageLedgerReconciliationWorker) {
+		
+		SemaphoreGatedWorkerStackConfiguration config = new SemaphoreGatedWorkerStackConfiguration();
+		
+		config.setSemaphoreLockKey("projectStorageLedgerReconciliation");
+		config.setProgressingRunner(projectStorageLedgerReconciliationWorker);
+		config.setSemaphoreMaxLockCount(1);
+		// The reconciliation scans the whole replication of each index
+		config.setSemaphoreLockTimeoutSec(1800);
+		config.setGate(stackStatusGate);
+		
+		return new WorkerTriggerBuilder()
+			.withStack(new SemaphoreGatedWorkerStack(countingSemaphore, config))
+			// Once a day, the ledger is maintained as the objects are replicated
+			.withRepeatInterval(86400000)
+			// The first run on a new stack bootstraps the ledger
+			.withStartDelay(600000)
+			.build();
+	}
 
 }
@@ -3,6 +3,7 @@ package org.sagebionetworks.discussion.workers;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -15,6 +16,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.StackConfiguration;
 import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.repo.model.dbo.dao.discussion.DiscussionReplyDAO;
 import org.sagebionetworks.repo.model.dbo.dao.discussion.DiscussionThreadDAO;
@@ -32,6 +34,8 @@ public class DiscussionThreadStatsWorkerUnitTest {
 	@Mock
 	private DiscussionReplyDAO mockReplyDao;
 	@Mock
+	private StackConfiguration mockStackConfig;
+	@Mock
 	private ChangeMessage mockMessage;
 	@Mock
 	private ProgressCallback mockCallback;
@@ -56,6 +60,7 @@ public class DiscussionThreadStatsWorkerUnitTest {
 		when(mockMessage.getObjectId()).thenReturn(threadId.toString());
 		when(mockMessage.getChangeType()).thenReturn(ChangeType.UPDATE);
 		when(mockReplyDao.getThreadReplyStat(threadId)).thenReturn(replyStat);
+		when(mockStackConfig.getDiscussionThreadViewEstimateEnabled()).thenReturn(false);
 		when(mockThreadDao.countThreadView(threadId)).thenReturn(3L);
 		when(mockReplyDao.getActiveAuthors(threadId)).thenReturn(null);
 		worker.run(mockCallback, mockMessage);
@@ -71,4 +76,23 @@ public class DiscussionThreadStatsWorkerUnitTest {
 		assertEquals((Long)3L, stat.getNumberOfViews());
 		assertNull(stat.getActiveAuthors());
 	}
+
+	@Test
+	public void testUpdateMessageWithEstimate() throws RecoverableMessageException {
+		Long threadId = 1L;
+		DiscussionThreadReplyStat replyStat = new DiscussionThreadReplyStat();
+		replyStat.setLastActivity(System.currentTimeMillis());
+		replyStat.setNumberOfReplies(2L);
+		when(mockMessage.getObjectId()).thenReturn(threadId.toString());
+		when(mockMessage.getChangeType()).thenReturn(ChangeType.UPDATE);
+		when(mockReplyDao.getThreadReplyStat(threadId)).thenReturn(replyStat);
+		when(mockStackConfig.getDiscussionThreadViewEstimateEnabled()).thenReturn(true);
+		when(mockThreadDao.estimateThreadViewCount(threadId)).thenReturn(5L);
+		worker.run(mockCallback, mockMessage);
+		ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+		verify(mockThreadDao).updateThreadStats(captor.capture());
+		DiscussionThreadStat stat = (DiscussionThreadStat) captor.getValue().get(0);
+		assertEquals((Long)5L, stat.getNumberOfViews());
+		verify(mockThreadDao, never()).countThreadView(threadId);
+	}
 }
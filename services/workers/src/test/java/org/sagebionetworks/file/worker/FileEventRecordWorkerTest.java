@@ -17,6 +17,7 @@ import org.sagebionetworks.kinesis.AwsKinesisFirehoseLogger;
 import org.sagebionetworks.repo.manager.audit.KinesisJsonEntityRecord;
 import org.sagebionetworks.repo.manager.file.FileEventUtils;
 import org.sagebionetworks.repo.manager.statistics.ProjectResolver;
+import org.sagebionetworks.repo.manager.statistics.project.StatisticsMonthlyProjectFilesAggregator;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.file.FileEvent;
 import org.sagebionetworks.repo.model.file.FileEventRecord;
@@ -36,6 +37,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 
@@ -56,6 +58,8 @@ public class FileEventRecordWorkerTest {
     private Message message;
     @Mock
     private StackConfiguration configuration;
+    @Mock
+    private StatisticsMonthlyProjectFilesAggregator statisticsAggregator;
     @Captor
     private ArgumentCaptor<List<AbstractAwsKinesisLogRecord>> fileRecordCaptor;
     @Captor
@@ -91,6 +95,7 @@ public class FileEventRecordWorkerTest {
         StatisticsFileEventRecord statisticsFileEventRecord = (StatisticsFileEventRecord) fileRecordCaptor.getAllValues().get(1).get(0);
         expectedStatisticsRecord.withTimestamp(statisticsFileEventRecord.getTimestamp());
         assertEquals(expectedStatisticsRecord, statisticsFileEventRecord);
+        verify(statisticsAggregator).recordEvent(org.sagebionetworks.repo.model.statistics.FileEvent.FILE_UPLOAD, 23L, 1L, event.getTimestamp().getTime());
     }
 
     @Test
@@ -116,6 +121,7 @@ public class FileEventRecordWorkerTest {
         assertNotNull(statisticsFileEventRecord.getTimestamp());
         expectedStatisticsRecord.withTimestamp(statisticsFileEventRecord.getTimestamp());
         assertEquals(expectedStatisticsRecord, statisticsFileEventRecord);
+        verify(statisticsAggregator).recordEvent(org.sagebionetworks.repo.model.statistics.FileEvent.FILE_DOWNLOAD, 23L, 1L, event.getTimestamp().getTime());
     }
 
     @Test
@@ -157,6 +163,7 @@ public class FileEventRecordWorkerTest {
         assertNotNull(statisticsFileEventRecord.getTimestamp());
         expectedStatisticsRecord.withTimestamp(statisticsFileEventRecord.getTimestamp());
         assertEquals(expectedStatisticsRecord, statisticsFileEventRecord);
+        verifyZeroInteractions(statisticsAggregator);
     }
     
     @Test
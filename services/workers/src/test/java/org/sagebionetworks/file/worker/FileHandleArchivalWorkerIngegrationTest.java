@@ -30,6 +30,7 @@ import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.dbo.FileMetadataUtils;
 import org.sagebionetworks.repo.model.dbo.dao.TestUtils;
+import org.sagebionetworks.repo.model.dbo.dao.files.FilesArchivalCheckpointDao;
 import org.sagebionetworks.repo.model.dbo.file.FileHandleDao;
 import org.sagebionetworks.repo.model.dbo.persistence.DBOFileHandle;
 import org.sagebionetworks.repo.model.file.FileHandleArchivalRequest;
@@ -59,6 +60,9 @@ public class FileHandleArchivalWorkerIngegrationTest {
 	@Autowired
 	private FileHandleDao fileHandleDao;
 	
+	@Autowired
+	private FilesArchivalCheckpointDao checkpointDao;
+	
 	@Autowired
 	private IdGenerator idGenerator;
 	
@@ -75,6 +79,7 @@ public class FileHandleArchivalWorkerIngegrationTest {
 	@BeforeEach
 	public void setup() {
 		fileHandleDao.truncateTable();
+		checkpointDao.truncateAll();
 		adminUser = userManager.getUserInfo(BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId());
 		bucket = config.getS3Bucket();
 	}
@@ -83,6 +88,7 @@ public class FileHandleArchivalWorkerIngegrationTest {
 	public void cleanup() {
 		S3TestUtils.doDeleteAfter(s3Client);
 		fileHandleDao.truncateTable();
+		checkpointDao.truncateAll();
 	}
 	
 	@Test
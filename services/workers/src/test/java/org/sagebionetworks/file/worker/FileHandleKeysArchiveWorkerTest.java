@@ -12,7 +12,9 @@ import static org.mockito.Mockito.when;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -72,15 +74,20 @@ public class FileHandleKeysArchiveWorkerTest {
 		when(mockRequest.getBucket()).thenReturn(bucket);
 		when(mockRequest.getModifiedBefore()).thenReturn(modifiedBefore);
 		when(mockRequest.getKeys()).thenReturn(keys);
-		when(mockManager.archiveUnlinkedFileHandlesByKey(any(), any(), any(), any())).thenReturn(mockResult);
+		
+		Map<String, FileHandleKeyArchiveResult> results = new LinkedHashMap<>();
+		results.put("key1", new FileHandleKeyArchiveResult(1, true));
+		results.put("key2", new FileHandleKeyArchiveResult(2, false));
+		results.put("key3", new FileHandleKeyArchiveResult(0, false));
+		
+		when(mockManager.archiveUnlinkedFileHandlesByKeys(any(), any(), any(), any())).thenReturn(results);
 		
 		// Call under test
 		worker.run(mockCallback, mockMessage, mockRequest);
 		
 		verify(mockUserManager).getUserInfo(BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId());
-		verify(mockManager, times(3)).archiveUnlinkedFileHandlesByKey(eq(adminUser), eq(bucket), keyCaptor.capture(), eq(Instant.ofEpochMilli(modifiedBefore)));
-		
-		assertEquals(keys, keyCaptor.getAllValues());
+		verify(mockManager).archiveUnlinkedFileHandlesByKeys(adminUser, bucket, keys, Instant.ofEpochMilli(modifiedBefore));
+		verifyNoMoreInteractions(mockManager);
 	}
 	
 	@Test
@@ -97,7 +104,7 @@ public class FileHandleKeysArchiveWorkerTest {
 		
 		RecoverableMessageException ex = new RecoverableMessageException();
 		
-		when(mockManager.archiveUnlinkedFileHandlesByKey(any(), any(), any(), any())).thenThrow(ex);
+		when(mockManager.archiveUnlinkedFileHandlesByKeys(any(), any(), any(), any())).thenThrow(ex);
 		
 		RecoverableMessageException result = assertThrows(RecoverableMessageException.class, () -> {			
 			// Call under test
@@ -107,7 +114,37 @@ public class FileHandleKeysArchiveWorkerTest {
 		assertEquals(ex, result);
 		
 		verify(mockUserManager).getUserInfo(BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId());
+		verify(mockManager).archiveUnlinkedFileHandlesByKeys(adminUser, bucket, keys, Instant.ofEpochMilli(modifiedBefore));
+		verifyNoMoreInteractions(mockManager);
+	}
+	
+	@Test
+	public void testRunWithOtherExceptionAndRecoverableExceptionForKey() throws RecoverableMessageException, Exception {
+		
+		String bucket = "bucket";
+		Long modifiedBefore = System.currentTimeMillis();
+		List<String> keys = Arrays.asList("key1", "key2", "key3");
+		
+		when(mockUserManager.getUserInfo(any())).thenReturn(adminUser);
+		when(mockRequest.getBucket()).thenReturn(bucket);
+		when(mockRequest.getModifiedBefore()).thenReturn(modifiedBefore);
+		when(mockRequest.getKeys()).thenReturn(keys);
+		
+		RecoverableMessageException ex = new RecoverableMessageException();
+		
+		when(mockManager.archiveUnlinkedFileHandlesByKeys(any(), any(), any(), any())).thenThrow(RuntimeException.class);
+		when(mockManager.archiveUnlinkedFileHandlesByKey(any(), any(), any(), any())).thenThrow(ex);
+		
+		RecoverableMessageException result = assertThrows(RecoverableMessageException.class, () -> {			
+			// Call under test
+			worker.run(mockCallback, mockMessage, mockRequest);
+		});
+		
+		assertEquals(ex, result);
+		
+		verify(mockManager).archiveUnlinkedFileHandlesByKeys(adminUser, bucket, keys, Instant.ofEpochMilli(modifiedBefore));
 		verify(mockManager).archiveUnlinkedFileHandlesByKey(adminUser, bucket, "key1", Instant.ofEpochMilli(modifiedBefore));
+		verifyNoMoreInteractions(mockManager);
 	}
 	
 	@Test
@@ -122,6 +159,8 @@ public class FileHandleKeysArchiveWorkerTest {
 		when(mockRequest.getModifiedBefore()).thenReturn(modifiedBefore);
 		when(mockRequest.getKeys()).thenReturn(keys);
 		
+		// The batch fails and each key is processed on its own
+		when(mockManager.archiveUnlinkedFileHandlesByKeys(any(), any(), any(), any())).thenThrow(RuntimeException.class);
 		when(mockManager.archiveUnlinkedFileHandlesByKey(any(), any(), any(), any())).thenReturn(mockResult);		
 		when(mockManager.archiveUnlinkedFileHandlesByKey(any(), any(), eq("key2"), any())).thenThrow(RuntimeException.class);
 		
@@ -129,6 +168,7 @@ public class FileHandleKeysArchiveWorkerTest {
 		worker.run(mockCallback, mockMessage, mockRequest);
 		
 		verify(mockUserManager).getUserInfo(BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId());
+		verify(mockManager).archiveUnlinkedFileHandlesByKeys(adminUser, bucket, keys, Instant.ofEpochMilli(modifiedBefore));
 		verify(mockManager, times(3)).archiveUnlinkedFileHandlesByKey(eq(adminUser), eq(bucket), keyCaptor.capture(), eq(Instant.ofEpochMilli(modifiedBefore)));
 		
 		assertEquals(keys, keyCaptor.getAllValues());
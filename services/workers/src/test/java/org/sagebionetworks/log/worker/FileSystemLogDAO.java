@@ -0,0 +1,199 @@
+package org.sagebionetworks.log.worker;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.sagebionetworks.logging.s3.LogDAO;
+import org.sagebionetworks.logging.s3.LogFileOutputStream;
+import org.sagebionetworks.logging.s3.LogKeyUtils;
+import org.sagebionetworks.logging.s3.LogReader;
+
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.google.common.io.ByteStreams;
+
+/**
+ * A stand-in for the S3 log storage that keeps each log file in a local
+ * directory, keeping track of the number of ranges that are open at once.
+ *
+ */
+public class FileSystemLogDAO implements LogDAO {
+
+	private final File root;
+	private final AtomicInteger openRanges = new AtomicInteger();
+	private int maxOpenRanges = 0;
+	private long maxRangeSize = 0;
+
+	public FileSystemLogDAO(File root) {
+		this.root = root;
+	}
+
+	/**
+	 * Add a log file to the storage.
+	 */
+	public String putLogFile(File file, String type, long timestamp) throws IOException {
+		String key = LogKeyUtils.createKey(0, type, LogKeyUtils.extractDataParts(timestamp), UUID.randomUUID().toString());
+		File target = getFile(key);
+		target.getParentFile().mkdirs();
+		Files.copy(file.toPath(), target.toPath());
+		return key;
+	}
+
+	/**
+	 * @return The keys of all the files in the storage, including the log files
+	 *         that are still being written
+	 */
+	public List<String> listKeys() {
+		List<String> keys = new ArrayList<>();
+		listKeys(root, "", keys);
+		Collections.sort(keys);
+		return keys;
+	}
+
+	public int getMaxOpenRanges() {
+		return maxOpenRanges;
+	}
+
+	public long getMaxRangeSize() {
+		return maxRangeSize;
+	}
+
+	private void listKeys(File directory, String prefix, List<String> keys) {
+		File[] children = directory.listFiles();
+		if (children == null) {
+			return;
+		}
+		for (File child : children) {
+			if (child.isDirectory()) {
+				listKeys(child, prefix + child.getName() + "/", keys);
+			} else {
+				keys.add(prefix + child.getName());
+			}
+		}
+	}
+
+	private File getFile(String key) {
+		return new File(root, key);
+	}
+
+	@Override
+	public LogFileOutputStream createLogFileOutputStream(String type, long timestamp) {
+		String key = LogKeyUtils.createKey(0, type, LogKeyUtils.extractDataParts(timestamp), UUID.randomUUID().toString());
+		File target = getFile(key);
+		File part = new File(target.getPath() + ".part");
+		part.getParentFile().mkdirs();
+		try {
+			OutputStream out = new FileOutputStream(part);
+			return new LogFileOutputStream() {
+
+				@Override
+				public void write(int b) throws IOException {
+					out.write(b);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					out.write(b, off, len);
+				}
+
+				@Override
+				public void close() throws IOException {
+					out.close();
+					// Like a multipart upload the file only becomes visible once completed
+					if (part.exists() && !part.renameTo(target)) {
+						throw new IOException("Could not complete " + key);
+					}
+				}
+
+				@Override
+				public String getKey() {
+					return key;
+				}
+
+				@Override
+				public void abort() {
+					try {
+						out.close();
+					} catch (IOException e) {
+					}
+					part.delete();
+				}
+			};
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public long getLogFileSize(String key) {
+		return getFile(key).length();
+	}
+
+	@Override
+	public InputStream getLogFileRange(String key, long start, long end) throws IOException {
+		maxRangeSize = Math.max(maxRangeSize, end - start + 1);
+		maxOpenRanges = Math.max(maxOpenRanges, openRanges.incrementAndGet());
+		FileInputStream in = new FileInputStream(getFile(key));
+		ByteStreams.skipFully(in, start);
+		return new FilterInputStream(ByteStreams.limit(in, end - start + 1)) {
+
+			private boolean closed = false;
+
+			@Override
+			public void close() throws IOException {
+				if (!closed) {
+					closed = true;
+					openRanges.decrementAndGet();
+				}
+				super.close();
+			}
+		};
+	}
+
+	@Override
+	public void deleteLogFile(String key) {
+		getFile(key).delete();
+	}
+
+	@Override
+	public String saveLogFile(File toSave, long timestamp) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public LogReader getLogFileReader(String key) throws IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public ObjectMetadata downloadLogFile(String key, File destination) throws IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void deleteAllStackInstanceLogs() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public ObjectListing listAllStackInstanceLogs(String marker) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public String findLogContainingUUID(String uuidTofind) {
+		throw new UnsupportedOperationException();
+	}
+
+}
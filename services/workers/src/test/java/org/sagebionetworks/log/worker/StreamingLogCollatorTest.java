@@ -0,0 +1,153 @@
+package org.sagebionetworks.log.worker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.common.util.progress.ProgressCallback;
+import org.sagebionetworks.logging.s3.LogEntry;
+import org.sagebionetworks.logging.s3.LogReader;
+
+@ExtendWith(MockitoExtension.class)
+public class StreamingLogCollatorTest {
+
+	@Mock
+	ProgressCallback mockCallback;
+
+	@TempDir
+	File tempDir;
+
+	FileSystemLogDAO logDAO;
+	String type;
+	long timestamp;
+
+	@BeforeEach
+	public void before() {
+		logDAO = new FileSystemLogDAO(new File(tempDir, "logs"));
+		type = "repo";
+		timestamp = 1000L;
+	}
+
+	/**
+	 * Add log files with the given number of entries each, the entries of the
+	 * files are interleaved in time.
+	 */
+	List<String> addLogFiles(int count, int entriesPerFile) throws IOException {
+		List<String> keys = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String[] entries = new String[entriesPerFile];
+			for (int j = 0; j < entriesPerFile; j++) {
+				entries[j] = "file" + i + "-entry" + j;
+			}
+			// Each file starts one millisecond after the previous
+			File file = LogTestUtils.createSampleLogFile(new File(tempDir, "local").getPath(), type, entries, timestamp + i);
+			keys.add(logDAO.putLogFile(file, type, timestamp));
+		}
+		return keys;
+	}
+
+	List<LogEntry> readEntries(String key) throws IOException {
+		File file = new File(new File(tempDir, "logs"), key);
+		LogReader reader = new LogReader(new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(file)))));
+		return LogTestUtils.streamEntiresForKey(reader);
+	}
+
+	void assertCollated(List<LogEntry> entries, int count, int entriesPerFile) {
+		assertEquals(count * entriesPerFile, entries.size());
+		for (int i = 1; i < entries.size(); i++) {
+			assertTrue(entries.get(i - 1).getTimeStamp() <= entries.get(i).getTimeStamp(), "Entries out of order at " + i);
+		}
+	}
+
+	@Test
+	public void testCollateSingleGroup() throws IOException {
+		List<String> keys = addLogFiles(2, 3);
+		StreamingLogCollator collator = new StreamingLogCollator(logDAO, 4, 1024);
+
+		// call under test
+		String result = collator.collate(keys, type, timestamp, mockCallback);
+
+		List<LogEntry> entries = readEntries(result);
+		assertCollated(entries, 2, 3);
+		assertTrue(entries.get(0).getEntryString().endsWith("file0-entry0"));
+		// Entries with the same time stamp keep the order of the inputs
+		assertTrue(entries.get(1).getEntryString().endsWith("file0-entry1"));
+		assertTrue(entries.get(2).getEntryString().endsWith("file1-entry0"));
+		// The inputs are left in place
+		List<String> expectedKeys = new ArrayList<>(keys);
+		expectedKeys.add(result);
+		expectedKeys.sort(null);
+		assertEquals(expectedKeys, logDAO.listKeys());
+		assertTrue(logDAO.getMaxOpenRanges() <= 2);
+	}
+
+	@Test
+	public void testCollateHierarchical() throws IOException {
+		List<String> keys = addLogFiles(7, 5);
+		StreamingLogCollator collator = new StreamingLogCollator(logDAO, 3, 1024);
+
+		// call under test
+		String result = collator.collate(keys, type, timestamp, mockCallback);
+
+		assertCollated(readEntries(result), 7, 5);
+		// The intermediate files are deleted
+		List<String> expectedKeys = new ArrayList<>(keys);
+		expectedKeys.add(result);
+		expectedKeys.sort(null);
+		assertEquals(expectedKeys, logDAO.listKeys());
+		assertTrue(logDAO.getMaxOpenRanges() <= 3);
+	}
+
+	@Test
+	public void testCollateSmallRanges() throws IOException {
+		List<String> keys = addLogFiles(3, 50);
+		StreamingLogCollator collator = new StreamingLogCollator(logDAO, 2, 16);
+
+		// call under test
+		String result = collator.collate(keys, type, timestamp, mockCallback);
+
+		assertCollated(readEntries(result), 3, 50);
+		assertEquals(16L, logDAO.getMaxRangeSize());
+		assertTrue(logDAO.getMaxOpenRanges() <= 2);
+	}
+
+	@Test
+	public void testCollateFailureAbortsOutput() throws IOException {
+		List<String> keys = addLogFiles(2, 3);
+		keys.add("does/not/exist.log.gz");
+		StreamingLogCollator collator = new StreamingLogCollator(logDAO, 4, 1024);
+
+		assertThrows(IOException.class, () -> {
+			// call under test
+			collator.collate(keys, type, timestamp, mockCallback);
+		});
+
+		// Only the inputs remain, the partial output is discarded
+		List<String> expectedKeys = new ArrayList<>(keys.subList(0, 2));
+		expectedKeys.sort(null);
+		assertEquals(expectedKeys, logDAO.listKeys());
+	}
+
+	@Test
+	public void testConstructorTooFewStreams() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new StreamingLogCollator(logDAO, 1, 1024);
+		});
+	}
+
+}
@@ -0,0 +1,80 @@
+package org.sagebionetworks.report.worker;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.cloudwatch.WorkerLogger;
+import org.sagebionetworks.common.util.progress.ProgressCallback;
+import org.sagebionetworks.repo.manager.table.TableIndexConnectionFactory;
+import org.sagebionetworks.repo.manager.table.TableIndexManager;
+import org.sagebionetworks.repo.model.table.ReplicationType;
+import org.sagebionetworks.table.cluster.ProjectStorageDelta;
+
+@ExtendWith(MockitoExtension.class)
+public class ProjectStorageLedgerReconciliationWorkerTest {
+
+	@Mock
+	private TableIndexConnectionFactory mockConnectionFactory;
+	@Mock
+	private WorkerLogger mockWorkerLogger;
+	@Mock
+	private TableIndexManager mockIndexManager;
+	@Mock
+	private TableIndexManager mockOtherIndexManager;
+	@Mock
+	private ProgressCallback mockCallback;
+
+	@InjectMocks
+	private ProjectStorageLedgerReconciliationWorker worker;
+
+	@Test
+	public void testRunWithNoDrift() throws Exception {
+		when(mockConnectionFactory.connectToAllIndices()).thenReturn(Arrays.asList(mockIndexManager));
+		when(mockIndexManager.reconcileProjectStorageLedger(ReplicationType.ENTITY)).thenReturn(Collections.emptyList());
+
+		// Call under test
+		worker.run(mockCallback);
+
+		verify(mockIndexManager).reconcileProjectStorageLedger(ReplicationType.ENTITY);
+		verifyZeroInteractions(mockWorkerLogger);
+	}
+
+	@Test
+	public void testRunWithDrift() throws Exception {
+		when(mockConnectionFactory.connectToAllIndices()).thenReturn(Arrays.asList(mockIndexManager));
+		when(mockIndexManager.reconcileProjectStorageLedger(ReplicationType.ENTITY))
+				.thenReturn(Arrays.asList(new ProjectStorageDelta(1L, 100L, 1L)));
+
+		// Call under test
+		worker.run(mockCallback);
+
+		verify(mockIndexManager).reconcileProjectStorageLedger(ReplicationType.ENTITY);
+		verify(mockWorkerLogger).logWorkerCountMetric(ProjectStorageLedgerReconciliationWorker.class,
+				ProjectStorageLedgerReconciliationWorker.METRIC_DRIFT_COUNT);
+	}
+
+	@Test
+	public void testRunWithFailure() throws Exception {
+		when(mockConnectionFactory.connectToAllIndices()).thenReturn(Arrays.asList(mockIndexManager, mockOtherIndexManager));
+		when(mockIndexManager.reconcileProjectStorageLedger(ReplicationType.ENTITY)).thenThrow(new IllegalStateException("Nope"));
+		when(mockOtherIndexManager.reconcileProjectStorageLedger(ReplicationType.ENTITY)).thenReturn(Collections.emptyList());
+
+		// Call under test
+		worker.run(mockCallback);
+
+		verify(mockWorkerLogger).logWorkerCountMetric(ProjectStorageLedgerReconciliationWorker.class,
+				ProjectStorageLedgerReconciliationWorker.METRIC_JOB_FAILED_COUNT);
+		// The other index is still reconciled
+		verify(mockOtherIndexManager).reconcileProjectStorageLedger(ReplicationType.ENTITY);
+	}
+
+}
@@ -1,5 +1,6 @@
 package org.sagebionetworks.search.workers.sqs.search;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
@@ -8,6 +9,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -16,17 +18,21 @@ import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.sagebionetworks.cloudwatch.ProfileData;
 import org.sagebionetworks.cloudwatch.WorkerLogger;
 import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.repo.manager.search.SearchManager;
 import org.sagebionetworks.repo.model.message.ChangeMessage;
 import org.sagebionetworks.repo.web.TemporarilyUnavailableException;
+import org.sagebionetworks.util.Clock;
 import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.amazonaws.services.cloudsearchdomain.model.AmazonCloudSearchDomainException;
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
 
 @RunWith(MockitoJUnitRunner.class)
 public class SearchQueueWorkerTest {
@@ -37,6 +43,8 @@ public class SearchQueueWorkerTest {
 	private SearchManager mockSearchManager;
 	@Mock
 	private WorkerLogger mockWorkerLogger;
+	@Mock
+	private Clock mockClock;
 
 	private SearchQueueWorker worker;
 	private List<ChangeMessage> messages;
@@ -47,6 +55,7 @@ public class SearchQueueWorkerTest {
 		worker = new SearchQueueWorker();
 		ReflectionTestUtils.setField(worker, "searchManager", mockSearchManager);
 		ReflectionTestUtils.setField(worker, "workerLogger", mockWorkerLogger);
+		ReflectionTestUtils.setField(worker, "clock", mockClock);
 
 		messages = Collections.singletonList(new ChangeMessage());
 	}
@@ -56,6 +65,28 @@ public class SearchQueueWorkerTest {
 		worker.run(mockCallback, messages);
 		verify(mockSearchManager, times(1)).documentChangeMessages(messages);
 		verify(mockWorkerLogger, never()).logWorkerFailure(eq(SearchQueueWorker.class), any(ChangeMessage.class), any(Throwable.class), anyBoolean());
+		// no documents were sent
+		verify(mockWorkerLogger, never()).logCustomMetric(any(ProfileData.class));
+	}
+
+	@Test
+	public void testDocumentsPerSecondMetric() throws IOException, RecoverableMessageException {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L, 1500L);
+		when(mockSearchManager.documentChangeMessages(messages)).thenReturn(20);
+		worker.run(mockCallback, messages);
+		ArgumentCaptor<ProfileData> captor = ArgumentCaptor.forClass(ProfileData.class);
+		verify(mockWorkerLogger).logCustomMetric(captor.capture());
+		ProfileData metric = captor.getValue();
+		assertEquals(SearchQueueWorker.DOCUMENTS_PER_SECOND, metric.getName());
+		assertEquals(SearchQueueWorker.METRIC_NAMESPACE, metric.getNamespace());
+		assertEquals(StandardUnit.CountSecond.name(), metric.getUnit());
+		assertEquals(40.0, metric.getValue(), 0.0);
+	}
+
+	@Test
+	public void testCreateDocumentsPerSecondWithNoElapsedTime() {
+		ProfileData metric = SearchQueueWorker.createDocumentsPerSecond(5, 0L);
+		assertEquals(5000.0, metric.getValue(), 0.0);
 	}
 
 	@Test
@@ -23,6 +23,8 @@ public class ObjectSnapshotWorkerIntegrationTestUtils {
 	public static boolean waitForObjects(Set<String> oldKeys, List<ObjectRecord> expectedRecords, ObjectRecordDAO objectRecordDAO, String type) throws Exception {
 		long start = System.currentTimeMillis();
 		while (System.currentTimeMillis() < start + TIME_OUT) {
+			// Push the files that are still open so they can be listed
+			objectRecordDAO.flush();
 			Set<String> newKeys = listAllKeys(objectRecordDAO, type);
 			newKeys.removeAll(oldKeys);
 			if (newKeys.size() != 0 && findRecords(expectedRecords, newKeys, objectRecordDAO, type)) {
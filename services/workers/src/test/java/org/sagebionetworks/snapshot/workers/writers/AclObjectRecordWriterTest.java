@@ -3,6 +3,7 @@ package org.sagebionetworks.snapshot.workers.writers;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -17,6 +18,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -66,7 +68,7 @@ public class AclObjectRecordWriterTest {
 		Message message = MessageUtils.buildMessage(ChangeType.DELETE, id+"", ObjectType.ACCESS_CONTROL_LIST, "etag", System.currentTimeMillis());
 		ChangeMessage changeMessage = MessageUtils.extractMessageBody(message);
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage));
-		verify(mockObjectRecordDao, never()).saveBatch(anyList(), anyString());
+		verify(mockObjectRecordDao, never()).saveBatchAsync(anyList(), anyString());
 	}
 	
 	@Test
@@ -81,6 +83,7 @@ public class AclObjectRecordWriterTest {
 	
 	@Test
 	public void validChangeMessageTest() throws IOException {
+		when(mockObjectRecordDao.saveBatchAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 		AccessControlList acl = new AccessControlList();
 		acl.setEtag("etag");
 		when(mockAccessControlListDao.get(id)).thenReturn(acl);
@@ -95,7 +98,7 @@ public class AclObjectRecordWriterTest {
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage, changeMessage));
 		verify(mockAccessControlListDao, times(2)).get(id);
 		verify(mockAccessControlListDao, times(2)).getOwnerType(id);
-		verify(mockObjectRecordDao).saveBatch(eq(Arrays.asList(expected, expected)), eq(expected.getJsonClassName()));
+		verify(mockObjectRecordDao).saveBatchAsync(eq(Arrays.asList(expected, expected)), eq(expected.getJsonClassName()));
 		verify(logger).logBatch(eq("aclSnapshots"), recordCaptor.capture());
 		assertNotNull(recordCaptor.getAllValues().get(0).get(0).getSnapshotTimestamp());
 		expectedRecordOne.withSnapshotTimestamp(recordCaptor.getAllValues().get(0).get(0).getSnapshotTimestamp());
@@ -2,6 +2,7 @@ package org.sagebionetworks.snapshot.workers.writers;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -14,6 +15,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -81,7 +83,7 @@ public class CertifiedUserPassingRecordWriterTest {
 		Message message = MessageUtils.buildMessage(ChangeType.DELETE, "123", ObjectType.CERTIFIED_USER_PASSING_RECORD, "etag", System.currentTimeMillis());
 		ChangeMessage changeMessage = MessageUtils.extractMessageBody(message);
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage));
-		verify(mockObjectRecordDAO, never()).saveBatch(anyList(), anyString());
+		verify(mockObjectRecordDAO, never()).saveBatchAsync(anyList(), anyString());
 	}
 
 	@Test
@@ -111,6 +113,7 @@ public class CertifiedUserPassingRecordWriterTest {
 
 	@Test
 	public void onePageOfRecords() throws IOException {
+		Mockito.when(mockObjectRecordDAO.saveBatchAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 		PassingRecord passingRecord = new PassingRecord();
 		long timestamp = System.currentTimeMillis();
 		ObjectRecord record = ObjectRecordBuilderUtils.buildObjectRecord(passingRecord, timestamp);
@@ -129,7 +132,7 @@ public class CertifiedUserPassingRecordWriterTest {
 		KinesisObjectSnapshotRecord expectedSnapshot = KinesisObjectSnapshotRecord.map(changeMessage, passingRecord);
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage));
 
-		verify(mockObjectRecordDAO).saveBatch(orList, record.getJsonClassName());
+		verify(mockObjectRecordDAO).saveBatchAsync(orList, record.getJsonClassName());
 		verify(logger).logBatch(eq("certifiedUserPassingSnapshots"), recordCaptor.capture());
 		expectedSnapshot.withSnapshotTimestamp(recordCaptor.getValue().get(0).getSnapshotTimestamp());
 		assertEquals(List.of(expectedSnapshot), recordCaptor.getValue());
@@ -137,6 +140,7 @@ public class CertifiedUserPassingRecordWriterTest {
 
 	@Test
 	public void twoPagesOfRecords() throws IOException {
+		Mockito.when(mockObjectRecordDAO.saveBatchAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 		PassingRecord passingRecord = new PassingRecord();
 		long timestamp = System.currentTimeMillis();
 		ObjectRecord record = ObjectRecordBuilderUtils.buildObjectRecord(passingRecord, timestamp);
@@ -153,7 +157,7 @@ public class CertifiedUserPassingRecordWriterTest {
 		KinesisObjectSnapshotRecord expectedSnapshotTwo = KinesisObjectSnapshotRecord.map(changeMessage, passingRecord);
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage));
 
-		verify(mockObjectRecordDAO).saveBatch(Arrays.asList(record, record), record.getJsonClassName());
+		verify(mockObjectRecordDAO).saveBatchAsync(Arrays.asList(record, record), record.getJsonClassName());
 		verify(logger).logBatch(eq("certifiedUserPassingSnapshots"), recordCaptor.capture());
 		expectedSnapshotOne.withSnapshotTimestamp(recordCaptor.getAllValues().get(0).get(0).getSnapshotTimestamp());
 		expectedSnapshotTwo.withSnapshotTimestamp(recordCaptor.getAllValues().get(0).get(1).getSnapshotTimestamp());
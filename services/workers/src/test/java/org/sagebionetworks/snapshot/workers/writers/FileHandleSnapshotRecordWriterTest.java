@@ -2,6 +2,7 @@ package org.sagebionetworks.snapshot.workers.writers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -15,6 +16,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -70,7 +72,7 @@ public class FileHandleSnapshotRecordWriterTest {
 		Message message = MessageUtils.buildMessage(ChangeType.DELETE, id, ObjectType.FILE, "etag", System.currentTimeMillis());
 		ChangeMessage changeMessage = MessageUtils.extractMessageBody(message);
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage));
-		verify(mockObjectRecordDao, never()).saveBatch(anyList(), anyString());
+		verify(mockObjectRecordDao, never()).saveBatchAsync(anyList(), anyString());
 		
 		KinesisObjectSnapshotRecord<?> expectedRecord = KinesisObjectSnapshotRecord.map(changeMessage, new FileHandleSnapshot().setId(id));
 		
@@ -93,6 +95,7 @@ public class FileHandleSnapshotRecordWriterTest {
 
 	@Test
 	public void validChangeMessageTest() throws IOException {
+		when(mockObjectRecordDao.saveBatchAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 		FileHandle fileHandle = new S3FileHandle();
 		fileHandle.setEtag("etag");
 		when(mockFileHandleDao.get(id)).thenReturn(fileHandle);
@@ -103,7 +106,7 @@ public class FileHandleSnapshotRecordWriterTest {
 		ObjectRecord expected = ObjectRecordBuilderUtils.buildObjectRecord(record, changeMessage.getTimestamp().getTime());
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage, changeMessage));
 		verify(mockFileHandleDao, times(2)).get(id);
-		verify(mockObjectRecordDao).saveBatch(eq(Arrays.asList(expected, expected)), eq(expected.getJsonClassName()));
+		verify(mockObjectRecordDao).saveBatchAsync(eq(Arrays.asList(expected, expected)), eq(expected.getJsonClassName()));
 		
 		List<KinesisObjectSnapshotRecord<?>> expectedRecords = List.of(
 			KinesisObjectSnapshotRecord.map(changeMessage, record),
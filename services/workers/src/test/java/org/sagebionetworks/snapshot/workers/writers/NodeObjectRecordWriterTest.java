@@ -15,8 +15,6 @@ import org.sagebionetworks.audit.utils.ObjectRecordBuilderUtils;
 import org.sagebionetworks.common.util.progress.ProgressCallback;
 import org.sagebionetworks.kinesis.AwsKinesisFirehoseLogger;
 import org.sagebionetworks.repo.manager.UserManager;
-import org.sagebionetworks.repo.manager.entity.EntityAuthorizationManager;
-import org.sagebionetworks.repo.manager.trash.EntityInTrashCanException;
 import org.sagebionetworks.repo.model.AccessRequirementDAO;
 import org.sagebionetworks.repo.model.AccessRequirementStats;
 import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL;
@@ -29,7 +27,8 @@ import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.audit.DeletedNode;
 import org.sagebionetworks.repo.model.audit.NodeRecord;
 import org.sagebionetworks.repo.model.audit.ObjectRecord;
-import org.sagebionetworks.repo.model.auth.UserEntityPermissions;
+import org.sagebionetworks.repo.model.dbo.entity.UserEntityPermissionsState;
+import org.sagebionetworks.repo.model.dbo.entity.UsersEntityPermissionsDao;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.message.ChangeMessage;
 import org.sagebionetworks.repo.model.message.ChangeType;
@@ -39,13 +38,19 @@ import java.io.IOException;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -60,9 +65,7 @@ public class NodeObjectRecordWriterTest {
 	@Mock
 	private AccessRequirementDAO mockAccessRequirementDao;
 	@Mock
-	private EntityAuthorizationManager mockEntityAuthorizationManager;
-	@Mock
-	private UserEntityPermissions mockPermissions;
+	private UsersEntityPermissionsDao mockUsersEntityPermissionsDao;
 	@Mock
 	private UserInfo mockUserInfo;
 	@Mock
@@ -86,8 +89,9 @@ public class NodeObjectRecordWriterTest {
 	public void setup() {
 
 		node = new NodeRecord();
-		node.setId("123");
-		node.setProjectId("1");
+		node.setId("syn123");
+		node.setProjectId("syn1");
+		node.setBenefactorId("syn1");
 		
 		stats = new AccessRequirementStats();
 		stats.setHasACT(true);
@@ -99,6 +103,7 @@ public class NodeObjectRecordWriterTest {
 
 	@Test
 	public void deleteChangeMessage() throws IOException {
+		when(mockObjectRecordDao.saveBatchAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 		Long timestamp = Instant.now().toEpochMilli();
 		
 		String nodeId = "123";
@@ -111,7 +116,7 @@ public class NodeObjectRecordWriterTest {
 		
 		ObjectRecord expected = ObjectRecordBuilderUtils.buildObjectRecord(deletedNode, timestamp);
 		
-		verify(mockObjectRecordDao).saveBatch(eq(Arrays.asList(expected)), eq(expected.getJsonClassName()));
+		verify(mockObjectRecordDao).saveBatchAsync(eq(Arrays.asList(expected)), eq(expected.getJsonClassName()));
 
 		KinesisObjectSnapshotRecord<?> expectedRecord = KinesisObjectSnapshotRecord.map(changeMessage, new NodeRecord().setId(nodeId));
 		
@@ -137,16 +142,18 @@ public class NodeObjectRecordWriterTest {
 
 	@Test
 	public void publicRestrictedAndControlledTest() throws IOException {
-		when(mockNodeDAO.getNode("123")).thenReturn(node);
-		when(mockNodeDAO.getProjectId("123")).thenReturn(Optional.of("1"));
+		when(mockObjectRecordDao.saveBatchAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+		when(mockNodeDAO.getNodes(List.of(123L))).thenReturn(List.of(node));
+		when(mockNodeDAO.getBenefactors(List.of(123L))).thenReturn(Map.of(123L, 1L));
+		when(mockNodeDAO.getProjectIds(List.of(123L))).thenReturn(Map.of(123L, 1L));
 		when(mockUserManager.getUserInfo(BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId()))
 				.thenReturn(mockUserInfo);
-		when(mockEntityAuthorizationManager.getUserPermissionsForEntity(mockUserInfo, node.getId()))
-				.thenReturn(mockPermissions);
-		when(mockNodeDAO.getEntityPathIds(node.getId())).thenReturn(Arrays.asList(KeyFactory.stringToKey(node.getId())));
-		when(mockAccessRequirementDao.getAccessRequirementStats(Arrays.asList(KeyFactory.stringToKey(node.getId())), RestrictableObjectType.ENTITY))
-				.thenReturn(stats);
-		when(mockPermissions.getCanPublicRead()).thenReturn(canPublicRead);
+		when(mockUserInfo.getGroups()).thenReturn(Set.of(2L));
+		when(mockUsersEntityPermissionsDao.getEntityPermissionsAsMap(Set.of(2L), List.of(123L)))
+				.thenReturn(Map.of(123L, new UserEntityPermissionsState(123L).withHasPublicRead(canPublicRead)));
+		when(mockNodeDAO.getEntityPathIds(Set.of(123L))).thenReturn(Map.of(123L, List.of(1L, 123L)));
+		when(mockAccessRequirementDao.getAccessRequirementStatsBySubject(Set.of(1L, 123L), RestrictableObjectType.ENTITY))
+				.thenReturn(Map.of(123L, stats));
 		
 		Long timestamp = System.currentTimeMillis();
 		Message message = MessageUtils.buildMessage(ChangeType.UPDATE, "123", ObjectType.ENTITY, "etag", timestamp);
@@ -161,8 +168,8 @@ public class NodeObjectRecordWriterTest {
 
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage));
 		
-		verify(mockNodeDAO).getNode(eq("123"));
-		verify(mockObjectRecordDao).saveBatch(eq(Arrays.asList(expected)), eq(expected.getJsonClassName()));
+		verify(mockNodeDAO).getNodes(List.of(123L));
+		verify(mockObjectRecordDao).saveBatchAsync(eq(Arrays.asList(expected)), eq(expected.getJsonClassName()));
 		
 		KinesisObjectSnapshotRecord<NodeRecord> expectedRecord = KinesisObjectSnapshotRecord.map(changeMessage, node);
 		
@@ -173,6 +180,85 @@ public class NodeObjectRecordWriterTest {
 		assertEquals(recordCaptor.getValue(), List.of(expectedRecord));
 	}
 	
+	@Test
+	public void testBatchResolvedOnce() throws IOException {
+		when(mockObjectRecordDao.saveBatchAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+		NodeRecord other = new NodeRecord();
+		other.setId("syn456");
+		
+		List<Long> ids = List.of(123L, 456L);
+		
+		when(mockNodeDAO.getNodes(ids)).thenReturn(List.of(node, other));
+		when(mockNodeDAO.getBenefactors(ids)).thenReturn(Map.of(123L, 1L, 456L, 456L));
+		when(mockNodeDAO.getProjectIds(ids)).thenReturn(Map.of(123L, 1L, 456L, 1L));
+		when(mockUserManager.getUserInfo(BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId()))
+				.thenReturn(mockUserInfo);
+		when(mockUserInfo.getGroups()).thenReturn(Set.of(2L));
+		when(mockUsersEntityPermissionsDao.getEntityPermissionsAsMap(Set.of(2L), ids))
+				.thenReturn(Map.of(123L, new UserEntityPermissionsState(123L).withHasPublicRead(true), 456L, new UserEntityPermissionsState(456L)));
+		when(mockNodeDAO.getEntityPathIds(Set.of(123L, 456L))).thenReturn(Map.of(123L, List.of(1L, 123L), 456L, List.of(1L, 123L, 456L)));
+		when(mockAccessRequirementDao.getAccessRequirementStatsBySubject(Set.of(1L, 123L, 456L), RestrictableObjectType.ENTITY))
+				.thenReturn(Map.of(123L, stats));
+		
+		Long timestamp = System.currentTimeMillis();
+		ChangeMessage first = MessageUtils.extractMessageBody(MessageUtils.buildMessage(ChangeType.UPDATE, "123", ObjectType.ENTITY, "etag", timestamp));
+		ChangeMessage second = MessageUtils.extractMessageBody(MessageUtils.buildMessage(ChangeType.CREATE, "syn456", ObjectType.ENTITY, "etag", timestamp));
+		ChangeMessage third = MessageUtils.extractMessageBody(MessageUtils.buildMessage(ChangeType.UPDATE, "123", ObjectType.ENTITY, "etag", timestamp + 1));
+		
+		// Call under test
+		writer.buildAndWriteRecords(mockCallback, Arrays.asList(first, second, third));
+		
+		node.setIsPublic(true);
+		node.setIsControlled(true);
+		node.setIsRestricted(false);
+		node.setEffectiveArs(List.of(1L, 2L, 3L));
+		
+		other.setBenefactorId("syn456");
+		other.setProjectId("syn1");
+		other.setIsPublic(false);
+		other.setIsControlled(true);
+		other.setIsRestricted(false);
+		other.setEffectiveArs(List.of(1L, 2L, 3L));
+		
+		List<ObjectRecord> expected = Arrays.asList(
+				ObjectRecordBuilderUtils.buildObjectRecord(node, timestamp),
+				ObjectRecordBuilderUtils.buildObjectRecord(other, timestamp),
+				ObjectRecordBuilderUtils.buildObjectRecord(node, timestamp + 1)
+		);
+		
+		verify(mockObjectRecordDao).saveBatchAsync(eq(expected), eq(expected.get(0).getJsonClassName()));
+		verify(mockUserManager).getUserInfo(BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId());
+		verify(mockNodeDAO).getNodes(ids);
+		verify(mockNodeDAO).getEntityPathIds(Set.of(123L, 456L));
+	}
+	
+	@Test
+	public void testMergeStats() {
+		AccessRequirementStats lock = new AccessRequirementStats();
+		lock.setHasACT(false);
+		lock.setHasToU(true);
+		lock.setHasLock(true);
+		lock.setRequirementIdSet(Set.of("4"));
+		
+		stats.setHasLock(false);
+		
+		// Call under test
+		AccessRequirementStats merged = NodeObjectRecordWriter.mergeStats(List.of(1L, 2L, 3L), Map.of(1L, lock, 3L, stats));
+		
+		assertTrue(merged.getHasACT());
+		assertTrue(merged.getHasToU());
+		assertTrue(merged.getHasLock());
+		assertEquals(Set.of("1", "2", "3", "4"), merged.getRequirementIdSet());
+		
+		// Call under test
+		merged = NodeObjectRecordWriter.mergeStats(List.of(2L), Map.of(1L, lock, 3L, stats));
+		
+		assertFalse(merged.getHasACT());
+		assertFalse(merged.getHasToU());
+		assertFalse(merged.getHasLock());
+		assertEquals(Collections.emptySet(), merged.getRequirementIdSet());
+	}
+	
 	@Test
 	public void buildNodeRecordTest() {
 		Node node = new Node();
@@ -203,15 +289,10 @@ public class NodeObjectRecordWriterTest {
 
 	@Test
 	public void testNodeInTrashCan() throws IOException {
-		when(mockNodeDAO.getProjectId("123")).thenReturn(Optional.of("1"));
-		when(mockNodeDAO.getNode("123")).thenReturn(node);
-		when(mockUserManager.getUserInfo(BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId()))
-				.thenReturn(mockUserInfo);
-		when(mockEntityAuthorizationManager.getUserPermissionsForEntity(mockUserInfo, node.getId()))
-				.thenReturn(mockPermissions);
-				
-		EntityInTrashCanException exception = new EntityInTrashCanException("");
-		when(mockPermissions.getCanPublicRead()).thenThrow(exception);
+		when(mockNodeDAO.getNodes(List.of(123L))).thenReturn(List.of(node));
+		when(mockNodeDAO.getBenefactors(List.of(123L))).thenReturn(Map.of(123L, 1L));
+		// A node in the trash does not have a project
+		when(mockNodeDAO.getProjectIds(List.of(123L))).thenReturn(Collections.emptyMap());
 
 		Long timestamp = System.currentTimeMillis();
 		String nodeId = "123";
@@ -219,17 +300,23 @@ public class NodeObjectRecordWriterTest {
 		ChangeMessage changeMessage = MessageUtils.extractMessageBody(message);
 
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage));
-		DeletedNode deletedNode = new DeletedNode();
-		deletedNode.setId(nodeId);
-		ObjectRecord expected = ObjectRecordBuilderUtils.buildObjectRecord(deletedNode, timestamp);
-		verify(mockObjectRecordDao).saveBatch(eq(Arrays.asList(expected)), eq(expected.getJsonClassName()));
-				
-		KinesisObjectSnapshotRecord<?> expectedRecord = KinesisObjectSnapshotRecord.map(changeMessage, new NodeRecord().setId(nodeId));
-		
-		verify(mockKinesisLogger).logBatch(eq("nodeSnapshots"), recordCaptor.capture());
 		
-		expectedRecord.withSnapshotTimestamp(recordCaptor.getValue().get(0).getSnapshotTimestamp());
+		verify(mockUserManager, never()).getUserInfo(BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId());
+		verifyZeroInteractions(mockObjectRecordDao);
+		verifyZeroInteractions(mockKinesisLogger);
+	}
+	
+	@Test
+	public void testNodeNotFound() throws IOException {
+		when(mockNodeDAO.getNodes(List.of(123L))).thenReturn(Collections.emptyList());
+
+		Message message = MessageUtils.buildMessage(ChangeType.UPDATE, "123", ObjectType.ENTITY, "etag", System.currentTimeMillis());
+		ChangeMessage changeMessage = MessageUtils.extractMessageBody(message);
+
+		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage));
 		
-		assertEquals(recordCaptor.getValue(), List.of(expectedRecord));
+		verifyZeroInteractions(mockUserManager);
+		verifyZeroInteractions(mockObjectRecordDao);
+		verifyZeroInteractions(mockKinesisLogger);
 	}
 }
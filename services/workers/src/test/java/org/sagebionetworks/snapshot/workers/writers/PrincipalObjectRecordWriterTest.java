@@ -36,6 +36,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -130,6 +131,7 @@ public class PrincipalObjectRecordWriterTest {
 
 	@Test
 	public void createTeamTest() throws IOException {
+		when(mockObjectRecordDao.saveBatchAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 		ug.setIsIndividual(false);
 		when(mockUserGroupDAO.get(principalID)).thenReturn(ug);
 		when(mockTeamDAO.get(principalID.toString())).thenReturn(team);
@@ -149,12 +151,13 @@ public class PrincipalObjectRecordWriterTest {
 		Message message = MessageUtils.buildMessage(ChangeType.DELETE, principalID.toString(), ObjectType.PRINCIPAL, etag, timestamp);
 		ChangeMessage changeMessage = MessageUtils.extractMessageBody(message);
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage));
-		verify(mockObjectRecordDao, never()).saveBatch(anyList(), anyString());
+		verify(mockObjectRecordDao, never()).saveBatchAsync(anyList(), anyString());
 		verify(firehoseLogger, never()).logBatch(anyString(),anyList());
 	}
 
 	@Test
 	public void updateTeamTest() throws IOException {
+		when(mockObjectRecordDao.saveBatchAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 		ug.setIsIndividual(false);
 		when(mockUserGroupDAO.get(principalID)).thenReturn(ug);
 		when(mockTeamDAO.get(principalID.toString())).thenReturn(team);
@@ -169,6 +172,7 @@ public class PrincipalObjectRecordWriterTest {
 
 	@Test
 	public void createUserProfileTest() throws IOException {
+		when(mockObjectRecordDao.saveBatchAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 		ug.setIsIndividual(true);
 		when(mockUserGroupDAO.get(principalID)).thenReturn(ug);
 		when(mockUserProfileManager.getUserProfile(principalID.toString())).thenReturn(up);
@@ -181,14 +185,15 @@ public class PrincipalObjectRecordWriterTest {
 		verify(mockUserProfileManager).getUserProfile(principalID.toString());
 		verify(mockTeamDAO, never()).get(anyString());
 		verify(mockTeamDAO, never()).getMember(anyString(), anyString());
-		verify(mockObjectRecordDao).saveBatch(eq(Arrays.asList(ugr)), eq(ugr.getJsonClassName()));
-		verify(mockObjectRecordDao).saveBatch(eq(Arrays.asList(upr)), eq(upr.getJsonClassName()));
+		verify(mockObjectRecordDao).saveBatchAsync(eq(Arrays.asList(ugr)), eq(ugr.getJsonClassName()));
+		verify(mockObjectRecordDao).saveBatchAsync(eq(Arrays.asList(upr)), eq(upr.getJsonClassName()));
 		verify(firehoseLogger,times(2)).logBatch(streamNameCaptor.capture(),anyList());
 		assertTrue(streamNameCaptor.getAllValues().containsAll(Arrays.asList("userGroupSnapshots", "userProfileSnapshots")));
 	}
 
 	@Test
 	public void updateUserProfileTest() throws IOException {
+		when(mockObjectRecordDao.saveBatchAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 		ug.setIsIndividual(true);
 		when(mockUserGroupDAO.get(principalID)).thenReturn(ug);
 		when(mockUserProfileManager.getUserProfile(principalID.toString())).thenReturn(up);
@@ -210,7 +215,7 @@ public class PrincipalObjectRecordWriterTest {
 		Message message = MessageUtils.buildMessage(ChangeType.DELETE, principalID.toString(), ObjectType.PRINCIPAL, etag, timestamp);
 		ChangeMessage changeMessage = MessageUtils.extractMessageBody(message);
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage));
-		verify(mockObjectRecordDao, never()).saveBatch(anyList(), anyString());
+		verify(mockObjectRecordDao, never()).saveBatchAsync(anyList(), anyString());
 		verify(firehoseLogger,never()).logBatch(anyString(),anyList());
 	}
 
@@ -219,12 +224,13 @@ public class PrincipalObjectRecordWriterTest {
 		Mockito.when(mockGroupMembersDao.getMembers(principalID.toString())).thenReturn(new ArrayList<UserGroup>());
 		writer.captureAllMembers(new ChangeMessage().setObjectId(principalID.toString()).setTimestamp(new Date(timestamp)));
 		Mockito.verify(mockTeamDAO, Mockito.never()).getMember(Mockito.anyString(), Mockito.anyString());
-		Mockito.verify(mockObjectRecordDao, Mockito.never()).saveBatch(Mockito.anyList(), Mockito.anyString());
+		Mockito.verify(mockObjectRecordDao, Mockito.never()).saveBatchAsync(Mockito.anyList(), Mockito.anyString());
 		verify(firehoseLogger,never()).logBatch(anyString(),anyList());
 	}
 
 	@Test
 	public void logGroupMembersTest() throws IOException {
+		when(mockObjectRecordDao.saveBatchAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 		List<UserGroup> list = createListOfMembers(2);
 		when(mockGroupMembersDao.getMembers(principalID.toString())).thenReturn(list);
 		when(mockTeamDAO.getAdminTeamMemberIds(any())).thenReturn(List.of("1"));
@@ -234,7 +240,7 @@ public class PrincipalObjectRecordWriterTest {
 				new ChangeMessage().setObjectId(principalID.toString()).setTimestamp(new Date(timestamp)));
 
 		verify(mockTeamDAO).getAdminTeamMemberIds(principalID.toString());
-		verify(mockObjectRecordDao).saveBatch(Mockito.anyList(), Mockito.anyString());
+		verify(mockObjectRecordDao).saveBatchAsync(Mockito.anyList(), Mockito.anyString());
 		verify(firehoseLogger).logBatch(streamNameCaptor.capture(), memberCaptor.capture());
 		assertTrue(streamNameCaptor.getValue().equals("teamMemberSnapshots"));
 
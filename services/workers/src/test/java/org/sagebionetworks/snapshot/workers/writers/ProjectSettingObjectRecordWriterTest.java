@@ -14,6 +14,7 @@ import static org.mockito.Mockito.when;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -79,7 +80,7 @@ public class ProjectSettingObjectRecordWriterTest {
 		Message message = MessageUtils.buildMessage(ChangeType.DELETE, projectSettingId.toString(), ObjectType.PROJECT_SETTING, "etag", System.currentTimeMillis());
 		ChangeMessage changeMessage = MessageUtils.extractMessageBody(message);
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage));
-		verify(mockObjectRecordDao, never()).saveBatch(anyList(), anyString());
+		verify(mockObjectRecordDao, never()).saveBatchAsync(anyList(), anyString());
 		verify(mockLogger, never()).logBatch(any(), any());
 	}
 
@@ -97,6 +98,7 @@ public class ProjectSettingObjectRecordWriterTest {
 
 	@Test
 	public void validChangeMessage() throws IOException {
+		when(mockObjectRecordDao.saveBatchAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 		Mockito.when(mockProjectSettingsDao.get(projectSettingId.toString())).thenReturn(projectSetting);
 
 		Long timestamp = System.currentTimeMillis();
@@ -108,7 +110,7 @@ public class ProjectSettingObjectRecordWriterTest {
 		// call under test
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage, changeMessage));
 		verify(mockProjectSettingsDao, times(2)).get(eq(projectSettingId.toString()));
-		verify(mockObjectRecordDao).saveBatch(eq(Arrays.asList(expected, expected)), eq(expected.getJsonClassName()));
+		verify(mockObjectRecordDao).saveBatchAsync(eq(Arrays.asList(expected, expected)), eq(expected.getJsonClassName()));
 
 		KinesisObjectSnapshotRecord<ProjectSetting> expectedRecord = KinesisObjectSnapshotRecord.map(changeMessage,
 				projectSetting);
@@ -131,7 +133,7 @@ public class ProjectSettingObjectRecordWriterTest {
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage, changeMessage));
 		
 		verify(mockProjectSettingsDao, times(2)).get(eq(projectSettingId.toString()));
-		verify(mockObjectRecordDao, never()).saveBatch(anyList(), anyString());
+		verify(mockObjectRecordDao, never()).saveBatchAsync(anyList(), anyString());
 		verify(mockLogger, never()).logBatch(any(), any());
 	}
 }
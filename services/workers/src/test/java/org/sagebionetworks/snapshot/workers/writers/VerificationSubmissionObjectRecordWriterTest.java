@@ -2,6 +2,7 @@ package org.sagebionetworks.snapshot.workers.writers;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -15,6 +16,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -74,7 +76,7 @@ public class VerificationSubmissionObjectRecordWriterTest {
 		Message message = MessageUtils.buildMessage(ChangeType.DELETE, "123", ObjectType.VERIFICATION_SUBMISSION, "etag", System.currentTimeMillis());
 		ChangeMessage changeMessage = MessageUtils.extractMessageBody(message);
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage));
-		verify(mockObjectRecordDAO, never()).saveBatch(anyList(), anyString());
+		verify(mockObjectRecordDAO, never()).saveBatchAsync(anyList(), anyString());
 	}
 
 	@Test
@@ -102,6 +104,7 @@ public class VerificationSubmissionObjectRecordWriterTest {
 
 	@Test
 	public void onePageOfRecords() throws IOException {
+		when(mockObjectRecordDAO.saveBatchAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 		VerificationSubmission verificationSubmission = new VerificationSubmission();
 		long timestamp = System.currentTimeMillis();
 		ObjectRecord record = ObjectRecordBuilderUtils.buildObjectRecord(verificationSubmission, timestamp);
@@ -115,7 +118,7 @@ public class VerificationSubmissionObjectRecordWriterTest {
 		ChangeMessage changeMessage = MessageUtils.extractMessageBody(message);
 		KinesisObjectSnapshotRecord<?> expectedRecordOne =KinesisObjectSnapshotRecord.map(changeMessage, verificationSubmission);
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage));
-		verify(mockObjectRecordDAO).saveBatch(Arrays.asList(record), record.getJsonClassName());
+		verify(mockObjectRecordDAO).saveBatchAsync(Arrays.asList(record), record.getJsonClassName());
 		verify(logger).logBatch(eq("verificationSubmissionSnapshots"), recordCaptor.capture());
 		assertNotNull(recordCaptor.getAllValues().get(0).get(0).getSnapshotTimestamp());
 		expectedRecordOne.withSnapshotTimestamp(recordCaptor.getAllValues().get(0).get(0).getSnapshotTimestamp());
@@ -124,6 +127,7 @@ public class VerificationSubmissionObjectRecordWriterTest {
 
 	@Test
 	public void twoPagesOfRecords() throws IOException {
+		when(mockObjectRecordDAO.saveBatchAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 		VerificationSubmission verificationSubmission = new VerificationSubmission();
 		long timestamp = System.currentTimeMillis();
 		ObjectRecord record = ObjectRecordBuilderUtils.buildObjectRecord(verificationSubmission, timestamp);
@@ -137,7 +141,7 @@ public class VerificationSubmissionObjectRecordWriterTest {
 		KinesisObjectSnapshotRecord<?> expectedRecordOne =KinesisObjectSnapshotRecord.map(changeMessage, verificationSubmission);
 		KinesisObjectSnapshotRecord<?> expectedRecordTwo =KinesisObjectSnapshotRecord.map(changeMessage, verificationSubmission);
 		writer.buildAndWriteRecords(mockCallback, Arrays.asList(changeMessage));
-		verify(mockObjectRecordDAO).saveBatch(Arrays.asList(record, record), record.getJsonClassName());
+		verify(mockObjectRecordDAO).saveBatchAsync(Arrays.asList(record, record), record.getJsonClassName());
 		verify(logger).logBatch(eq("verificationSubmissionSnapshots"), recordCaptor.capture());
 		assertNotNull(recordCaptor.getAllValues().get(0).get(0).getSnapshotTimestamp());
 		expectedRecordOne.withSnapshotTimestamp(recordCaptor.getAllValues().get(0).get(0).getSnapshotTimestamp());
@@ -0,0 +1,94 @@
+package org.sagebionetworks.table.worker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.StackConfiguration;
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.ProfileData;
+import org.sagebionetworks.repo.manager.table.TableIndexConnectionFactory;
+import org.sagebionetworks.table.cluster.ConnectionFactory;
+import org.sagebionetworks.table.cluster.ConnectionPoolStatistics;
+import org.sagebionetworks.table.cluster.InstanceInfo;
+
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+
+@ExtendWith(MockitoExtension.class)
+public class TableConnectionPoolMonitorTest {
+
+	@Mock
+	private ConnectionFactory mockConnectionFactory;
+	@Mock
+	private TableIndexConnectionFactory mockIndexConnectionFactory;
+	@Mock
+	private Consumer mockConsumer;
+	@Mock
+	private StackConfiguration mockConfig;
+	@Captor
+	private ArgumentCaptor<List<ProfileData>> metricsCaptor;
+
+	private TableConnectionPoolMonitor monitor;
+
+	@BeforeEach
+	public void before() {
+		when(mockConfig.getStackInstance()).thenReturn("123-0");
+		monitor = new TableConnectionPoolMonitor(mockConnectionFactory, mockIndexConnectionFactory, mockConsumer, mockConfig);
+	}
+
+	@Test
+	public void testTimerFired() {
+		InstanceInfo first = new InstanceInfo("endpoint", "one", false);
+		InstanceInfo second = new InstanceInfo("endpoint", "two", false);
+		when(mockConnectionFactory.getConnectionPoolStatistics()).thenReturn(
+				Arrays.asList(new ConnectionPoolStatistics(first, 5, 3, 10), new ConnectionPoolStatistics(second, 0, 1, 0)));
+
+		// call under test
+		monitor.timerFired();
+
+		verify(mockIndexConnectionFactory).refreshIndices();
+		verify(mockConsumer).addProfileData(metricsCaptor.capture());
+		List<ProfileData> metrics = metricsCaptor.getValue();
+		// No percentage for a pool without a max
+		assertEquals(5, metrics.size());
+
+		ProfileData active = metrics.get(0);
+		assertEquals("Table-Connection-Pools-123-0", active.getNamespace());
+		assertEquals(TableConnectionPoolMonitor.METRIC_ACTIVE_CONNECTIONS, active.getName());
+		assertEquals(5.0, active.getValue());
+		assertEquals(StandardUnit.Count.name(), active.getUnit());
+		assertEquals(Collections.singletonMap(TableConnectionPoolMonitor.DIMENSION_INSTANCE, "endpoint/one"), active.getDimension());
+
+		assertEquals(TableConnectionPoolMonitor.METRIC_IDLE_CONNECTIONS, metrics.get(1).getName());
+		assertEquals(3.0, metrics.get(1).getValue());
+
+		ProfileData percent = metrics.get(2);
+		assertEquals(TableConnectionPoolMonitor.METRIC_PERCENT_ACTIVE_CONNECTIONS, percent.getName());
+		assertEquals(50.0, percent.getValue());
+		assertEquals(StandardUnit.Percent.name(), percent.getUnit());
+
+		assertEquals(Collections.singletonMap(TableConnectionPoolMonitor.DIMENSION_INSTANCE, "endpoint/two"), metrics.get(3).getDimension());
+	}
+
+	@Test
+	public void testTimerFiredWithNoInstances() {
+		when(mockConnectionFactory.getConnectionPoolStatistics()).thenReturn(Collections.emptyList());
+
+		// call under test
+		monitor.timerFired();
+
+		verify(mockIndexConnectionFactory).refreshIndices();
+		verify(mockConsumer).addProfileData(Collections.emptyList());
+	}
+}
@@ -3,6 +3,9 @@ package org.sagebionetworks.table.worker;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -26,6 +29,8 @@ public class UpdateQueryCacheWorkerTest {
 	@Mock
 	private TableIndexDAO mockIndexDao;
 	@Mock
+	private TableIndexDAO mockOtherIndexDao;
+	@Mock
 	private ProgressCallback mockProgressCallback;
 	@Mock
 	private Message mockMessage;
@@ -38,13 +43,27 @@ public class UpdateQueryCacheWorkerTest {
 	public void testRun() throws Exception {
 		String requestHash = "someHash";
 		QueryCacheHitEvent event = new QueryCacheHitEvent().setQueryRequestHash(requestHash);
-		when(mockConnectionFactory.getFirstConnection()).thenReturn(mockIndexDao);
+		when(mockConnectionFactory.getAllConnections()).thenReturn(Collections.singletonList(mockIndexDao));
+		
+		// call under test
+		worker.run(mockProgressCallback, mockMessage, event);
+		
+		verify(mockConnectionFactory).getAllConnections();
+		verify(mockQueryCacheManager).refreshCachedQuery(mockIndexDao, requestHash);
+		
+	}
+	
+	@Test
+	public void testRunWithMultipleConnections() throws Exception {
+		String requestHash = "someHash";
+		QueryCacheHitEvent event = new QueryCacheHitEvent().setQueryRequestHash(requestHash);
+		when(mockConnectionFactory.getAllConnections()).thenReturn(Arrays.asList(mockIndexDao, mockOtherIndexDao));
 		
 		// call under test
 		worker.run(mockProgressCallback, mockMessage, event);
 		
-		verify(mockConnectionFactory).getFirstConnection();
 		verify(mockQueryCacheManager).refreshCachedQuery(mockIndexDao, requestHash);
+		verify(mockQueryCacheManager).refreshCachedQuery(mockOtherIndexDao, requestHash);
 		
 	}
 }
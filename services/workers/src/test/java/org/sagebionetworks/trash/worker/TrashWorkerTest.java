@@ -3,6 +3,8 @@ package org.sagebionetworks.trash.worker;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -12,7 +14,10 @@ import static org.sagebionetworks.trash.worker.TrashWorker.TRASH_BATCH_SIZE;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -25,6 +30,7 @@ import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.StackStatusDao;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
 
 @ExtendWith(MockitoExtension.class)
 public class TrashWorkerTest {
@@ -44,6 +50,11 @@ public class TrashWorkerTest {
 	@InjectMocks
 	private TrashWorker worker;
 	
+	@BeforeEach
+	public void before() {
+		worker.setPurgeExecutorService(MoreExecutors.newDirectExecutorService());
+	}
+	
 	@Test
 	public void testTrashListThrowError(){
 		when(mockManager.getTrashLeavesBefore(CUTOFF_TRASH_AGE_IN_DAYS, TRASH_BATCH_SIZE)).thenThrow(DatastoreException.class);
@@ -103,6 +114,45 @@ public class TrashWorkerTest {
 		});
 	}
 	
+	@Test
+	public void testSucessfulWithPool() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		worker.setPurgeExecutorService(executor);
+		
+		List<Long> trashList = ImmutableList.of(1L, 2L, 3L, 4L, 5L);
+		when(mockManager.getTrashLeavesBefore(CUTOFF_TRASH_AGE_IN_DAYS, TRASH_BATCH_SIZE)).thenReturn(trashList);
+		when(mockStackStatusDao.isStackReadWrite()).thenReturn(true);
+		
+		try {
+			// Call under test
+			worker.run(mockProgressCallback);
+		} finally {
+			executor.shutdown();
+		}
+		
+		trashList.forEach(id -> {
+			verify(mockManager).purgeTrash(any(), eq(Collections.singletonList(id)));
+		});
+	}
+	
+	@Test
+	public void testStopWhenStackNotReadWrite() throws Exception {
+		List<Long> trashList = ImmutableList.of(1L, 2L, 3L, 4L, 5L);
+		when(mockManager.getTrashLeavesBefore(CUTOFF_TRASH_AGE_IN_DAYS, TRASH_BATCH_SIZE)).thenReturn(trashList);
+		when(mockStackStatusDao.isStackReadWrite()).thenReturn(true, true, false);
+		
+		// Call under test
+		worker.run(mockProgressCallback);
+		
+		verify(mockManager).purgeTrash(any(), eq(Collections.singletonList(1L)));
+		verify(mockManager).purgeTrash(any(), eq(Collections.singletonList(2L)));
+		verify(mockManager, never()).purgeTrash(any(), eq(Collections.singletonList(3L)));
+		verify(mockManager, never()).purgeTrash(any(), eq(Collections.singletonList(4L)));
+		verify(mockManager, never()).purgeTrash(any(), eq(Collections.singletonList(5L)));
+		// Once stopped the remaining tasks do not check the status again
+		verify(mockStackStatusDao, times(3)).isStackReadWrite();
+	}
+	
 	@Test
 	public void testWithUnexpectedException() throws Exception {
 		